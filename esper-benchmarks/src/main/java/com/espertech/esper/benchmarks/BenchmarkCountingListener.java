@@ -0,0 +1,49 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmarks;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.UpdateListener;
+
+/**
+ * Listener that counts delivered events, so that statement output is consumed without retaining events.
+ */
+public class BenchmarkCountingListener implements UpdateListener
+{
+    private long countNew;
+    private long countOld;
+
+    public void update(EventBean[] newEvents, EventBean[] oldEvents)
+    {
+        if (newEvents != null) {
+            countNew += newEvents.length;
+        }
+        if (oldEvents != null) {
+            countOld += oldEvents.length;
+        }
+    }
+
+    /**
+     * Returns the number of insert stream events received.
+     * @return count
+     */
+    public long getCountNew()
+    {
+        return countNew;
+    }
+
+    /**
+     * Returns the number of remove stream events received.
+     * @return count
+     */
+    public long getCountOld()
+    {
+        return countOld;
+    }
+}
@@ -0,0 +1,88 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmarks;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+
+/**
+ * Helper for benchmarks to allocate an engine instance and to generate event data.
+ * <p>
+ * Engines are configured for external clocking so that time-based benchmarks are repeatable.
+ */
+public class BenchmarkEngineHelper
+{
+    private static final String[] SYMBOLS;
+
+    static {
+        SYMBOLS = new String[10000];
+        for (int i = 0; i < SYMBOLS.length; i++) {
+            SYMBOLS[i] = "S" + i;
+        }
+    }
+
+    /**
+     * Allocates and initializes an engine instance with the benchmark event types registered and the time set to zero.
+     * @param engineURI engine URI
+     * @return engine
+     */
+    public static EPServiceProvider allocateEngine(String engineURI)
+    {
+        Configuration configuration = new Configuration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        configuration.addEventType("Tick", BenchmarkTick.class);
+        configuration.addEventType("OrderEvent", BenchmarkOrder.class);
+        EPServiceProvider engine = EPServiceProviderManager.getProvider(engineURI, configuration);
+        engine.initialize();
+        engine.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        return engine;
+    }
+
+    /**
+     * Creates a statement and attaches the listener.
+     * @param engine engine
+     * @param epl statement text
+     * @param listener listener
+     * @return statement
+     */
+    public static EPStatement createStatement(EPServiceProvider engine, String epl, BenchmarkCountingListener listener)
+    {
+        EPStatement stmt = engine.getEPAdministrator().createEPL(epl);
+        stmt.addListener(listener);
+        return stmt;
+    }
+
+    /**
+     * Returns the symbol for the index.
+     * @param index index between zero and 9999
+     * @return symbol
+     */
+    public static String getSymbol(int index)
+    {
+        return SYMBOLS[index];
+    }
+
+    /**
+     * Pre-generates ticks cycling through the number of symbols, with prices per symbol rising in steps and wrapping between 0 and 99.
+     * @param numTicks number of ticks
+     * @param numSymbols number of distinct symbols
+     * @return ticks
+     */
+    public static BenchmarkTick[] makeTicks(int numTicks, int numSymbols)
+    {
+        BenchmarkTick[] ticks = new BenchmarkTick[numTicks];
+        for (int i = 0; i < numTicks; i++) {
+            ticks[i] = new BenchmarkTick(SYMBOLS[i % numSymbols], ((i / numSymbols) * 7 + i % numSymbols) % 100, i % 1000, i);
+        }
+        return ticks;
+    }
+}
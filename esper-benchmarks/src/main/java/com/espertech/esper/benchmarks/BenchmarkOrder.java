@@ -0,0 +1,47 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmarks;
+
+/**
+ * Order event used by benchmarks for joins and named windows.
+ */
+public class BenchmarkOrder
+{
+    private final String orderId;
+    private final String symbol;
+    private final long quantity;
+
+    /**
+     * Ctor.
+     * @param orderId order id
+     * @param symbol symbol
+     * @param quantity quantity
+     */
+    public BenchmarkOrder(String orderId, String symbol, long quantity)
+    {
+        this.orderId = orderId;
+        this.symbol = symbol;
+        this.quantity = quantity;
+    }
+
+    public String getOrderId()
+    {
+        return orderId;
+    }
+
+    public String getSymbol()
+    {
+        return symbol;
+    }
+
+    public long getQuantity()
+    {
+        return quantity;
+    }
+}
@@ -0,0 +1,55 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmarks;
+
+/**
+ * Market data tick event used by benchmarks.
+ */
+public class BenchmarkTick
+{
+    private final String symbol;
+    private final double price;
+    private final long volume;
+    private final int sequence;
+
+    /**
+     * Ctor.
+     * @param symbol symbol
+     * @param price price
+     * @param volume volume
+     * @param sequence sequence number
+     */
+    public BenchmarkTick(String symbol, double price, long volume, int sequence)
+    {
+        this.symbol = symbol;
+        this.price = price;
+        this.volume = volume;
+        this.sequence = sequence;
+    }
+
+    public String getSymbol()
+    {
+        return symbol;
+    }
+
+    public double getPrice()
+    {
+        return price;
+    }
+
+    public long getVolume()
+    {
+        return volume;
+    }
+
+    public int getSequence()
+    {
+        return sequence;
+    }
+}
@@ -0,0 +1,78 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmarks;
+
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter matching: a number of statements with equals, range or in-list filters, each event matching one statement,
+ * for measuring the event type index and the filter parameter indexes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class FilterBenchmark
+{
+    private static final int NUM_TICKS = 4096;
+
+    @Param({"10", "100", "1000"})
+    public int numStatements;
+
+    @Param({"equals", "range", "in"})
+    public String filterType;
+
+    private EPServiceProvider engine;
+    private EPRuntime runtime;
+    private BenchmarkCountingListener listener;
+    private BenchmarkTick[] ticks;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        engine = BenchmarkEngineHelper.allocateEngine(FilterBenchmark.class.getSimpleName());
+        runtime = engine.getEPRuntime();
+        listener = new BenchmarkCountingListener();
+        for (int i = 0; i < numStatements; i++) {
+            String filter;
+            if (filterType.equals("equals")) {
+                filter = "symbol='" + BenchmarkEngineHelper.getSymbol(i) + "'";
+            }
+            else if (filterType.equals("range")) {
+                int width = Math.max(1, 1000 / numStatements);
+                filter = "volume between " + i * width + " and " + (i * width + width - 1);
+            }
+            else {
+                filter = "symbol in ('" + BenchmarkEngineHelper.getSymbol(i) + "', 'X" + i + "')";
+            }
+            BenchmarkEngineHelper.createStatement(engine, "select * from Tick(" + filter + ")", listener);
+        }
+        ticks = BenchmarkEngineHelper.makeTicks(NUM_TICKS, numStatements);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown()
+    {
+        engine.destroy();
+    }
+
+    @Benchmark
+    public long sendEvent()
+    {
+        runtime.sendEvent(ticks[index++ & (NUM_TICKS - 1)]);
+        return listener.getCountNew();
+    }
+}
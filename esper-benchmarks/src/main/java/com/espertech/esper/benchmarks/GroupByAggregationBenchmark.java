@@ -0,0 +1,66 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmarks;
+
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grouped aggregation: fully-aggregated grouped statement over an unbound stream or a length window,
+ * for measuring the group-by aggregation services.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class GroupByAggregationBenchmark
+{
+    private static final int NUM_TICKS = 16384;
+
+    @Param({"10", "1000", "10000"})
+    public int numGroups;
+
+    @Param({"", ".win:length(1000)"})
+    public String window;
+
+    private EPServiceProvider engine;
+    private EPRuntime runtime;
+    private BenchmarkCountingListener listener;
+    private BenchmarkTick[] ticks;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        engine = BenchmarkEngineHelper.allocateEngine(GroupByAggregationBenchmark.class.getSimpleName());
+        runtime = engine.getEPRuntime();
+        listener = new BenchmarkCountingListener();
+        BenchmarkEngineHelper.createStatement(engine, "select symbol, sum(price) as total, count(*) as cnt, avg(volume) as avgVolume, max(price) as maxPrice " +
+                "from Tick" + window + " group by symbol", listener);
+        ticks = BenchmarkEngineHelper.makeTicks(NUM_TICKS, numGroups);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown()
+    {
+        engine.destroy();
+    }
+
+    @Benchmark
+    public long sendEvent()
+    {
+        runtime.sendEvent(ticks[index++ & (NUM_TICKS - 1)]);
+        return listener.getCountNew();
+    }
+}
@@ -0,0 +1,77 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmarks;
+
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two-stream inner join by key between a unique-by-symbol window of ticks and a length window of orders,
+ * alternating tick and order events, for measuring the join set composer and join index lookups.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class JoinBenchmark
+{
+    private static final int NUM_EVENTS = 4096;
+
+    @Param({"100", "10000"})
+    public int numSymbols;
+
+    @Param({"1000", "10000"})
+    public int orderWindowSize;
+
+    private EPServiceProvider engine;
+    private EPRuntime runtime;
+    private BenchmarkCountingListener listener;
+    private BenchmarkTick[] ticks;
+    private BenchmarkOrder[] orders;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        engine = BenchmarkEngineHelper.allocateEngine(JoinBenchmark.class.getSimpleName());
+        runtime = engine.getEPRuntime();
+        listener = new BenchmarkCountingListener();
+        BenchmarkEngineHelper.createStatement(engine, "select t.price * o.quantity as notional from Tick.std:unique(symbol) as t, " +
+                "OrderEvent.win:length(" + orderWindowSize + ") as o where t.symbol = o.symbol", listener);
+        ticks = BenchmarkEngineHelper.makeTicks(NUM_EVENTS, numSymbols);
+        orders = new BenchmarkOrder[NUM_EVENTS];
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            orders[i] = new BenchmarkOrder("O" + i, BenchmarkEngineHelper.getSymbol((i * 31) % numSymbols), i % 100);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown()
+    {
+        engine.destroy();
+    }
+
+    @Benchmark
+    public long sendEvent()
+    {
+        int current = index++;
+        if ((current & 1) == 0) {
+            runtime.sendEvent(ticks[(current >> 1) & (NUM_EVENTS - 1)]);
+        }
+        else {
+            runtime.sendEvent(orders[(current >> 1) & (NUM_EVENTS - 1)]);
+        }
+        return listener.getCountNew();
+    }
+}
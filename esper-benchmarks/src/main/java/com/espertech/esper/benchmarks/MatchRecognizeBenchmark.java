@@ -0,0 +1,65 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmarks;
+
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row pattern recognition partitioned by symbol, matching a rise followed by a fall in price.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class MatchRecognizeBenchmark
+{
+    private static final int NUM_TICKS = 16384;
+
+    @Param({"10", "1000"})
+    public int numSymbols;
+
+    private EPServiceProvider engine;
+    private EPRuntime runtime;
+    private BenchmarkCountingListener listener;
+    private BenchmarkTick[] ticks;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        engine = BenchmarkEngineHelper.allocateEngine(MatchRecognizeBenchmark.class.getSimpleName());
+        runtime = engine.getEPRuntime();
+        listener = new BenchmarkCountingListener();
+        BenchmarkEngineHelper.createStatement(engine, "select * from Tick match_recognize (" +
+                "partition by symbol " +
+                "measures A.price as startPrice, last(B.price) as topPrice, C.price as endPrice " +
+                "pattern (A B+ C) " +
+                "define B as B.price > prev(B.price), C as C.price < prev(C.price))", listener);
+        ticks = BenchmarkEngineHelper.makeTicks(NUM_TICKS, numSymbols);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown()
+    {
+        engine.destroy();
+    }
+
+    @Benchmark
+    public long sendEvent()
+    {
+        runtime.sendEvent(ticks[index++ & (NUM_TICKS - 1)]);
+        return listener.getCountNew();
+    }
+}
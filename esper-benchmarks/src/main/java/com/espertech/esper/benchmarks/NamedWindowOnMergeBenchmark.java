@@ -0,0 +1,72 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmarks;
+
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Named window upsert by key using on-merge, with an optional consuming statement, for measuring
+ * named window lookup, update and consumer dispatch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class NamedWindowOnMergeBenchmark
+{
+    private static final int NUM_TICKS = 16384;
+
+    @Param({"100", "10000"})
+    public int numSymbols;
+
+    @Param({"false", "true"})
+    public boolean withConsumer;
+
+    private EPServiceProvider engine;
+    private EPRuntime runtime;
+    private BenchmarkCountingListener listener;
+    private BenchmarkTick[] ticks;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        engine = BenchmarkEngineHelper.allocateEngine(NamedWindowOnMergeBenchmark.class.getSimpleName());
+        runtime = engine.getEPRuntime();
+        listener = new BenchmarkCountingListener();
+        engine.getEPAdministrator().createEPL("create window PositionWindow.win:keepall() as (symbol string, lastPrice double, totalVolume long)");
+        engine.getEPAdministrator().createEPL("create unique index PositionIndex on PositionWindow(symbol)");
+        BenchmarkEngineHelper.createStatement(engine, "on Tick as t merge PositionWindow as p where p.symbol = t.symbol " +
+                "when matched then update set lastPrice = t.price, totalVolume = totalVolume + t.volume " +
+                "when not matched then insert select t.symbol as symbol, t.price as lastPrice, t.volume as totalVolume", listener);
+        if (withConsumer) {
+            BenchmarkEngineHelper.createStatement(engine, "select symbol, lastPrice from PositionWindow(totalVolume > 1000)", listener);
+        }
+        ticks = BenchmarkEngineHelper.makeTicks(NUM_TICKS, numSymbols);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown()
+    {
+        engine.destroy();
+    }
+
+    @Benchmark
+    public long sendEvent()
+    {
+        runtime.sendEvent(ticks[index++ & (NUM_TICKS - 1)]);
+        return listener.getCountNew();
+    }
+}
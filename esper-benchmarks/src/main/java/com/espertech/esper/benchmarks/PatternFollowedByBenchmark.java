@@ -0,0 +1,69 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.benchmarks;
+
+import com.espertech.esper.client.EPRuntime;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pattern with every-followed-by correlating on symbol within a time interval, with time advancing by one millisecond
+ * per event, for measuring pattern sub-expression allocation and filter add/remove churn.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PatternFollowedByBenchmark
+{
+    private static final int NUM_TICKS = 16384;
+
+    @Param({"10", "1000"})
+    public int numSymbols;
+
+    @Param({"100", "5000"})
+    public int withinMSec;
+
+    private EPServiceProvider engine;
+    private EPRuntime runtime;
+    private BenchmarkCountingListener listener;
+    private BenchmarkTick[] ticks;
+    private int index;
+    private long currentTime;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        engine = BenchmarkEngineHelper.allocateEngine(PatternFollowedByBenchmark.class.getSimpleName());
+        runtime = engine.getEPRuntime();
+        listener = new BenchmarkCountingListener();
+        BenchmarkEngineHelper.createStatement(engine, "select a.symbol as symbol, b.price - a.price as delta from pattern [" +
+                "every a=Tick -> (b=Tick(symbol = a.symbol, price > a.price) where timer:within(" + withinMSec + " msec))]", listener);
+        ticks = BenchmarkEngineHelper.makeTicks(NUM_TICKS, numSymbols);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown()
+    {
+        engine.destroy();
+    }
+
+    @Benchmark
+    public long sendEvent()
+    {
+        runtime.sendEvent(new CurrentTimeEvent(++currentTime));
+        runtime.sendEvent(ticks[index++ & (NUM_TICKS - 1)]);
+        return listener.getCountNew();
+    }
+}
@@ -31,6 +31,7 @@ public class ConfigurationDBRef implements Serializable
     private MetadataOriginEnum metadataOrigin;
     private ColumnChangeCaseEnum columnChangeCase;
     private Map<Integer, String> sqlTypesMapping;
+    private int pollBatchSize;
 
     /**
      * Ctor.
@@ -42,6 +43,7 @@ public class ConfigurationDBRef implements Serializable
         metadataOrigin = MetadataOriginEnum.DEFAULT;
         columnChangeCase = ColumnChangeCaseEnum.NONE;
         sqlTypesMapping = new HashMap<Integer, String>();
+        pollBatchSize = 1;
     }
 
     /**
@@ -221,6 +223,19 @@ public class ConfigurationDBRef implements Serializable
         dataCacheDesc = new ConfigurationExpiryTimeCache(maxAgeSeconds, purgeIntervalSeconds, cacheReferenceType);
     }
 
+    /**
+     * Configures a cache that is shared by all statements and context partitions that use the database,
+     * is safe for concurrent use and is bounded by number of entries and estimated size in bytes.
+     * @param maxEntries is the maximum number of entries before least-recently-used results are evicted
+     * @param maxBytes is the maximum estimated number of bytes held by the cache of this database before least-recently-used results are evicted, or zero for no byte limit
+     * @param maxAgeSeconds is the maximum number of seconds before a result is considered stale (also known as time-to-live), or zero for no expiry
+     * @param refreshAheadSeconds is the number of seconds after which a single lookup reloads the result while other lookups keep using it, or zero for no refresh-ahead
+     */
+    public void setSharedCache(int maxEntries, long maxBytes, double maxAgeSeconds, double refreshAheadSeconds)
+    {
+        dataCacheDesc = new ConfigurationSharedCache(maxEntries, maxBytes, maxAgeSeconds, refreshAheadSeconds);
+    }
+
     /**
      * Return a query result data cache descriptor.
      * @return cache descriptor
@@ -243,6 +258,27 @@ public class ConfigurationDBRef implements Serializable
         return metadataOrigin;
     }
 
+    /**
+     * Returns the maximum number of distinct lookup keys that the engine polls with a single query
+     * when joining a batch of events, or 1 if each lookup key is polled by a separate query (the default).
+     * @return poll batch size
+     */
+    public int getPollBatchSize()
+    {
+        return pollBatchSize;
+    }
+
+    /**
+     * Sets the maximum number of distinct lookup keys that the engine polls with a single query
+     * when joining a batch of events. The engine executes the query for multiple keys as a single statement
+     * that is the union of the query for each key, therefore the database must support derived tables and "union all".
+     * @param pollBatchSize maximum number of keys per query, or 1 to poll each lookup key by a separate query
+     */
+    public void setPollBatchSize(int pollBatchSize)
+    {
+        this.pollBatchSize = pollBatchSize;
+    }
+
     /**
      * Sets and indicator how the engine should retrieve metadata about the columns
      * that a given SQL query returns.
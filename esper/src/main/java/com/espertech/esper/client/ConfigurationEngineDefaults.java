@@ -13,7 +13,9 @@ import com.espertech.esper.client.soda.StreamSelector;
 import java.io.Serializable;
 import java.math.MathContext;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.TimeZone;
 
 /**
@@ -311,6 +313,10 @@ public class ConfigurationEngineDefaults implements Serializable
         private Integer threadPoolInboundCapacity;
         private Integer threadPoolRouteExecCapacity;
         private Integer threadPoolOutboundCapacity;
+        private Map<String, String> threadPoolInboundPartitionProperties;
+        private boolean isThreadPoolFireAndForget;
+        private int threadPoolFireAndForgetNumThreads;
+        private int threadPoolFireAndForgetMinRowsPerTask;
 
         private boolean engineFairlock;
 
@@ -339,6 +345,11 @@ public class ConfigurationEngineDefaults implements Serializable
             threadPoolInboundNumThreads = 2;
             threadPoolRouteExecNumThreads = 2;
             threadPoolOutboundNumThreads = 2;
+            threadPoolInboundPartitionProperties = new LinkedHashMap<String, String>();
+
+            isThreadPoolFireAndForget = false;
+            threadPoolFireAndForgetNumThreads = 2;
+            threadPoolFireAndForgetMinRowsPerTask = 10000;
         }
 
         /**
@@ -688,6 +699,42 @@ public class ConfigurationEngineDefaults implements Serializable
             this.threadPoolInboundCapacity = capacity;
         }
 
+        /**
+         * Returns the partition key property per event type name for the inbound thread pool.
+         * <p>
+         * When any partition key is defined the inbound thread pool routes events by partition key to
+         * a fixed worker thread, preserving the order of events per partition key.
+         * @return map of event type name and partition key property name
+         */
+        public Map<String, String> getThreadPoolInboundPartitionProperties()
+        {
+            return threadPoolInboundPartitionProperties;
+        }
+
+        /**
+         * Sets the partition key property per event type name for the inbound thread pool.
+         * @param threadPoolInboundPartitionProperties map of event type name and partition key property name
+         */
+        public void setThreadPoolInboundPartitionProperties(Map<String, String> threadPoolInboundPartitionProperties)
+        {
+            this.threadPoolInboundPartitionProperties = threadPoolInboundPartitionProperties;
+        }
+
+        /**
+         * Adds a partition key property for events of the given event type for the inbound thread pool.
+         * <p>
+         * When any partition key is defined the inbound thread pool routes each event to the worker thread
+         * that is assigned by the hash code of the partition key property value, so that
+         * events with the same partition key are processed in the order sent.
+         * Events of event types without a partition key are assigned a worker thread by event type name.
+         * @param eventTypeName event type name
+         * @param propertyName partition key property name
+         */
+        public void addThreadPoolInboundPartitionProperty(String eventTypeName, String propertyName)
+        {
+            threadPoolInboundPartitionProperties.put(eventTypeName, propertyName);
+        }
+
         /**
          * Returns the capacity of the route execution queue, or null if none defined (the unbounded case, default).
          * @return capacity or null if none defined
@@ -724,6 +771,67 @@ public class ConfigurationEngineDefaults implements Serializable
             this.threadPoolOutboundCapacity = capacity;
         }
 
+        /**
+         * Returns true for parallel execution of fire-and-forget queries enabled, the default is false for not enabled.
+         * @return indicator whether fire-and-forget query threading is enabled
+         */
+        public boolean isThreadPoolFireAndForget()
+        {
+            return isThreadPoolFireAndForget;
+        }
+
+        /**
+         * Set to true for parallel execution of fire-and-forget queries enabled, the default is false for not enabled.
+         * <p>
+         * When enabled, the engine filters large named window and table snapshots, aggregates them by partial
+         * count, sum, avg, min and max aggregations that the querying thread merges, and collects the snapshots of
+         * context partitions using a thread pool. Queries that join, use subqueries or use table access expressions
+         * are not executed in parallel.
+         * @param threadPoolFireAndForget indicator whether fire-and-forget query threading is enabled
+         */
+        public void setThreadPoolFireAndForget(boolean threadPoolFireAndForget)
+        {
+            isThreadPoolFireAndForget = threadPoolFireAndForget;
+        }
+
+        /**
+         * Returns the number of threads in the fire-and-forget query thread pool.
+         * @return number of threads
+         */
+        public int getThreadPoolFireAndForgetNumThreads()
+        {
+            return threadPoolFireAndForgetNumThreads;
+        }
+
+        /**
+         * Sets the number of threads in the fire-and-forget query thread pool.
+         * @param num number of threads
+         */
+        public void setThreadPoolFireAndForgetNumThreads(int num)
+        {
+            this.threadPoolFireAndForgetNumThreads = num;
+        }
+
+        /**
+         * Returns the minimum number of rows that a fire-and-forget query task processes, snapshots with
+         * fewer rows then twice this number are processed by the querying thread alone.
+         * @return minimum rows per task
+         */
+        public int getThreadPoolFireAndForgetMinRowsPerTask()
+        {
+            return threadPoolFireAndForgetMinRowsPerTask;
+        }
+
+        /**
+         * Sets the minimum number of rows that a fire-and-forget query task processes, snapshots with
+         * fewer rows then twice this number are processed by the querying thread alone.
+         * @param minRowsPerTask minimum rows per task
+         */
+        public void setThreadPoolFireAndForgetMinRowsPerTask(int minRowsPerTask)
+        {
+            this.threadPoolFireAndForgetMinRowsPerTask = minRowsPerTask;
+        }
+
         /**
          * Returns true if the engine-level lock is configured as a fair lock (default is false).
          * <p>
@@ -1364,6 +1472,7 @@ public class ConfigurationEngineDefaults implements Serializable
         private boolean selfSubselectPreeval;
         private boolean extendedAggregation;
         private boolean duckTyping;
+        private boolean compileExpressions;
         private MathContext mathContext;
         private TimeZone timeZone;
 
@@ -1507,6 +1616,26 @@ public class ConfigurationEngineDefaults implements Serializable
             this.duckTyping = duckTyping;
         }
 
+        /**
+         * Returns true to indicate that the engine compiles where-clause, select-clause and aggregation function
+         * parameter expressions into generated classes, false to interpret expressions (the default).
+         * @return indicator
+         */
+        public boolean isCompileExpressions()
+        {
+            return compileExpressions;
+        }
+
+        /**
+         * Set to true to indicate that the engine compiles where-clause, select-clause and aggregation function
+         * parameter expressions into generated classes, false to interpret expressions (the default).
+         * @param compileExpressions indicator
+         */
+        public void setCompileExpressions(boolean compileExpressions)
+        {
+            this.compileExpressions = compileExpressions;
+        }
+
         /**
          * Returns the math context for big decimal operations, or null to leave the math context undefined.
          * @return math context or null
@@ -1552,6 +1681,7 @@ public class ConfigurationEngineDefaults implements Serializable
         private ThreadingProfile threadingProfile = ThreadingProfile.NORMAL;
         private FilterServiceProfile filterServiceProfile = FilterServiceProfile.READMOSTLY;
         private int filterServiceMaxFilterWidth = 16;
+        private SchedulingServiceProfile schedulingServiceProfile = SchedulingServiceProfile.SORTED;
 
         private static final long serialVersionUID = 0L;
 
@@ -1684,6 +1814,22 @@ public class ConfigurationEngineDefaults implements Serializable
         public void setFilterServiceMaxFilterWidth(int filterServiceMaxFilterWidth) {
             this.filterServiceMaxFilterWidth = filterServiceMaxFilterWidth;
         }
+
+        /**
+         * Returns the scheduling service profile for tuning schedule operations.
+         * @return scheduling service profile
+         */
+        public SchedulingServiceProfile getSchedulingServiceProfile() {
+            return schedulingServiceProfile;
+        }
+
+        /**
+         * Set the scheduling service profile for tuning schedule operations.
+         * @param schedulingServiceProfile scheduling service profile
+         */
+        public void setSchedulingServiceProfile(SchedulingServiceProfile schedulingServiceProfile) {
+            this.schedulingServiceProfile = schedulingServiceProfile;
+        }
     }
 
     /**
@@ -1718,6 +1864,22 @@ public class ConfigurationEngineDefaults implements Serializable
         READWRITE
     }
 
+    /**
+     * Scheduling service profile.
+     */
+    public enum SchedulingServiceProfile
+    {
+        /**
+         * Schedules kept sorted by time, the default.
+         */
+        SORTED,
+
+        /**
+         * Schedules kept in a hierarchical timing wheel for constant-time add and remove, for large numbers of schedules.
+         */
+        TIMINGWHEEL
+    }
+
     /**
      * Time source type.
      */
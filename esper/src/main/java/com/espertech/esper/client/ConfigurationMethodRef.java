@@ -52,6 +52,19 @@ public class ConfigurationMethodRef implements Serializable
         dataCacheDesc = new ConfigurationExpiryTimeCache(maxAgeSeconds, purgeIntervalSeconds, cacheReferenceType);
     }
 
+    /**
+     * Configures a cache that is shared by all statements and context partitions that invoke methods of the class,
+     * is safe for concurrent use and is bounded by number of entries and estimated size in bytes.
+     * @param maxEntries is the maximum number of entries before least-recently-used results are evicted
+     * @param maxBytes is the maximum estimated number of bytes held by the cache of this class before least-recently-used results are evicted, or zero for no byte limit
+     * @param maxAgeSeconds is the maximum number of seconds before a result is considered stale (also known as time-to-live), or zero for no expiry
+     * @param refreshAheadSeconds is the number of seconds after which a single lookup reloads the result while other lookups keep using it, or zero for no refresh-ahead
+     */
+    public void setSharedCache(int maxEntries, long maxBytes, double maxAgeSeconds, double refreshAheadSeconds)
+    {
+        dataCacheDesc = new ConfigurationSharedCache(maxEntries, maxBytes, maxAgeSeconds, refreshAheadSeconds);
+    }
+
     /**
      * Return a method invocation result data cache descriptor.
      * @return cache descriptor
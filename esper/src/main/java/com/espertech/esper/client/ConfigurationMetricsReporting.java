@@ -25,6 +25,7 @@ import java.util.Map;
 public class ConfigurationMetricsReporting implements Serializable
 {
     private boolean jmxEngineMetrics;
+    private boolean statementFootprint;
     private boolean enableMetricsReporting;
     private boolean isThreading;
     private long engineInterval;
@@ -164,6 +165,25 @@ public class ConfigurationMetricsReporting implements Serializable
         this.jmxEngineMetrics = jmxEngineMetrics;
     }
 
+    /**
+     * Returns true if statement metrics carry the estimated memory footprint (rows, groups, states and bytes)
+     * of each statement, default is false.
+     * @return indicator
+     */
+    public boolean isStatementFootprint() {
+        return statementFootprint;
+    }
+
+    /**
+     * Set to true to have statement metrics carry the estimated memory footprint (rows, groups, states and bytes)
+     * of each statement. Estimation visits the views and aggregation state of each context partition
+     * under the partition lock and therefore adds some cost to each statement metrics report.
+     * @param statementFootprint indicator whether enabled or not
+     */
+    public void setStatementFootprint(boolean statementFootprint) {
+        this.statementFootprint = statementFootprint;
+    }
+
     /**
      * Sets a new interval for a statement group identified by name.
      * @param stmtGroupName name of statement group as assigned through configuration
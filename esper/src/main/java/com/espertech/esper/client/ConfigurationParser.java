@@ -553,6 +553,11 @@ class ConfigurationParser {
                 ConfigurationDBRef.MetadataOriginEnum parsed = ConfigurationDBRef.MetadataOriginEnum.valueOf(value.toUpperCase());
                 configDBRef.setMetadataOrigin(parsed);
             }
+            else if (subElement.getNodeName().equals("poll-batching"))
+            {
+                String maxKeys = getRequiredAttribute(subElement, "max-keys");
+                configDBRef.setPollBatchSize(Integer.parseInt(maxKeys));
+            }
             else if (subElement.getNodeName().equals("sql-types-mapping"))
             {
                 String sqlType = getRequiredAttribute(subElement, "sql-type");
@@ -585,6 +590,17 @@ class ConfigurationParser {
                 String size = getRequiredAttribute(subElement, "size");
                 configDBRef.setLRUCache(Integer.parseInt(size));
             }
+            else if (subElement.getNodeName().equals("shared-cache"))
+            {
+                String maxEntries = getRequiredAttribute(subElement, "max-entries");
+                String maxBytes = getOptionalAttribute(subElement, "max-bytes");
+                String maxAge = getOptionalAttribute(subElement, "max-age-seconds");
+                String refreshAhead = getOptionalAttribute(subElement, "refresh-ahead-seconds");
+                configDBRef.setSharedCache(Integer.parseInt(maxEntries),
+                        maxBytes == null ? 0 : Long.parseLong(maxBytes),
+                        maxAge == null ? 0 : Double.parseDouble(maxAge),
+                        refreshAhead == null ? 0 : Double.parseDouble(refreshAhead));
+            }
         }
     }
 
@@ -615,6 +631,17 @@ class ConfigurationParser {
                 String size = getRequiredAttribute(subElement, "size");
                 configMethodRef.setLRUCache(Integer.parseInt(size));
             }
+            else if (subElement.getNodeName().equals("shared-cache"))
+            {
+                String maxEntries = getRequiredAttribute(subElement, "max-entries");
+                String maxBytes = getOptionalAttribute(subElement, "max-bytes");
+                String maxAge = getOptionalAttribute(subElement, "max-age-seconds");
+                String refreshAhead = getOptionalAttribute(subElement, "refresh-ahead-seconds");
+                configMethodRef.setSharedCache(Integer.parseInt(maxEntries),
+                        maxBytes == null ? 0 : Long.parseLong(maxBytes),
+                        maxAge == null ? 0 : Double.parseDouble(maxAge),
+                        refreshAhead == null ? 0 : Double.parseDouble(refreshAhead));
+            }
         }
     }
 
@@ -1123,6 +1150,17 @@ class ConfigurationParser {
                 configuration.getEngineDefaults().getThreading().setThreadPoolInbound(result.isEnabled());
                 configuration.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(result.getNumThreads());
                 configuration.getEngineDefaults().getThreading().setThreadPoolInboundCapacity(result.getCapacity());
+                DOMElementIterator partitionIterator = new DOMElementIterator(subElement.getChildNodes());
+                while (partitionIterator.hasNext())
+                {
+                    Element partitionElement = partitionIterator.next();
+                    if (partitionElement.getNodeName().equals("partition-key"))
+                    {
+                        String eventTypeName = getRequiredAttribute(partitionElement, "event-type-name");
+                        String propertyName = getRequiredAttribute(partitionElement, "property-name");
+                        configuration.getEngineDefaults().getThreading().addThreadPoolInboundPartitionProperty(eventTypeName, propertyName);
+                    }
+                }
             }
             if (subElement.getNodeName().equals("threadpool-outbound"))
             {
@@ -1145,6 +1183,17 @@ class ConfigurationParser {
                 configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecNumThreads(result.getNumThreads());
                 configuration.getEngineDefaults().getThreading().setThreadPoolRouteExecCapacity(result.getCapacity());
             }
+            if (subElement.getNodeName().equals("threadpool-fireandforget"))
+            {
+                ThreadPoolConfig result = parseThreadPoolConfig(subElement);
+                configuration.getEngineDefaults().getThreading().setThreadPoolFireAndForget(result.isEnabled());
+                configuration.getEngineDefaults().getThreading().setThreadPoolFireAndForgetNumThreads(result.getNumThreads());
+                String minRowsText = getOptionalAttribute(subElement, "min-rows-per-task");
+                if (minRowsText != null)
+                {
+                    configuration.getEngineDefaults().getThreading().setThreadPoolFireAndForgetMinRowsPerTask(Integer.parseInt(minRowsText));
+                }
+            }
         }
     }
 
@@ -1383,6 +1432,12 @@ class ConfigurationParser {
             configuration.getEngineDefaults().getMetricsReporting().setJmxEngineMetrics(Boolean.parseBoolean(jmxEngineMetrics));
         }
 
+        String statementFootprint = getOptionalAttribute(parentElement, "statement-footprint");
+        if (statementFootprint != null)
+        {
+            configuration.getEngineDefaults().getMetricsReporting().setStatementFootprint(Boolean.parseBoolean(statementFootprint));
+        }
+
         DOMElementIterator nodeIterator = new DOMElementIterator(parentElement.getChildNodes());
         while (nodeIterator.hasNext())
         {
@@ -1467,6 +1522,12 @@ class ConfigurationParser {
             boolean duckTyping = Boolean.parseBoolean(duckTypingStr);
             configuration.getEngineDefaults().getExpression().setDuckTyping(duckTyping);
         }
+        String compileExpressionsStr = getOptionalAttribute(parentElement, "compile-expressions");
+        if (compileExpressionsStr != null)
+        {
+            boolean compileExpressions = Boolean.parseBoolean(compileExpressionsStr);
+            configuration.getEngineDefaults().getExpression().setCompileExpressions(compileExpressions);
+        }
         String mathContextStr = getOptionalAttribute(parentElement, "math-context");
         if (mathContextStr != null)
         {
@@ -1519,6 +1580,12 @@ class ConfigurationParser {
             ConfigurationEngineDefaults.FilterServiceProfile profile = ConfigurationEngineDefaults.FilterServiceProfile.valueOf(filterServiceProfileStr.toUpperCase());
             configuration.getEngineDefaults().getExecution().setFilterServiceProfile(profile);
         }
+        String schedulingServiceProfileStr = getOptionalAttribute(parentElement, "scheduling-service-profile");
+        if (schedulingServiceProfileStr != null)
+        {
+            ConfigurationEngineDefaults.SchedulingServiceProfile profile = ConfigurationEngineDefaults.SchedulingServiceProfile.valueOf(schedulingServiceProfileStr.toUpperCase());
+            configuration.getEngineDefaults().getExecution().setSchedulingServiceProfile(profile);
+        }
         String filterServiceMaxFilterWidthStr = getOptionalAttribute(parentElement, "filter-service-max-filter-width");
         if (filterServiceMaxFilterWidthStr != null)
         {
@@ -0,0 +1,83 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.client;
+
+import java.io.Serializable;
+
+/**
+ * Shared cache settings: a concurrent cache shared by all statements and context partitions
+ * that is bounded by the number of entries and the estimated number of bytes, with an optional
+ * time-to-live and refresh-ahead.
+ */
+public class ConfigurationSharedCache implements ConfigurationDataCache, Serializable
+{
+    private int maxEntries;
+    private long maxBytes;
+    private double maxAgeSeconds;
+    private double refreshAheadSeconds;
+    private static final long serialVersionUID = -3307410474618215542L;
+
+    /**
+     * Ctor.
+     * @param maxEntries is the maximum number of cache entries
+     * @param maxBytes is the maximum estimated number of bytes held by this cache, or zero for no byte limit
+     * @param maxAgeSeconds is the maximum age in seconds (also known as time-to-live), or zero for no expiry
+     * @param refreshAheadSeconds is the age in seconds after which a lookup refreshes the entry, or zero for no refresh-ahead
+     */
+    public ConfigurationSharedCache(int maxEntries, long maxBytes, double maxAgeSeconds, double refreshAheadSeconds)
+    {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.maxAgeSeconds = maxAgeSeconds;
+        this.refreshAheadSeconds = refreshAheadSeconds;
+    }
+
+    /**
+     * Returns the maximum number of cache entries.
+     * @return max entries
+     */
+    public int getMaxEntries()
+    {
+        return maxEntries;
+    }
+
+    /**
+     * Returns the maximum estimated number of bytes held by this cache, or zero for no byte limit.
+     * The limit applies to each shared cache separately and not to all shared caches of the engine.
+     * @return max bytes
+     */
+    public long getMaxBytes()
+    {
+        return maxBytes;
+    }
+
+    /**
+     * Returns the maximum age in seconds, or zero for no expiry.
+     * @return number of seconds
+     */
+    public double getMaxAgeSeconds()
+    {
+        return maxAgeSeconds;
+    }
+
+    /**
+     * Returns the age in seconds after which the next lookup reloads the entry while other lookups
+     * continue to use the cached entry, or zero for no refresh-ahead.
+     * @return number of seconds
+     */
+    public double getRefreshAheadSeconds()
+    {
+        return refreshAheadSeconds;
+    }
+
+    public String toString()
+    {
+        return "SharedCacheDesc maxEntries=" + maxEntries + " maxBytes=" + maxBytes + " maxAgeSeconds=" + maxAgeSeconds + " refreshAheadSeconds=" + refreshAheadSeconds;
+    }
+}
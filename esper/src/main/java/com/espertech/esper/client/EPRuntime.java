@@ -36,6 +36,21 @@ public interface EPRuntime
      */
     public void sendEvent(Object object) throws EPException;
 
+    /**
+     * Send a batch of events, each represented by a plain Java object, to the event stream processing runtime.
+     * <p>
+     * The events are processed in the order of the array, and processing is equivalent to sending each event
+     * by means of {@link #sendEvent(Object)}: listeners and subscribers receive the same output and in the same order.
+     * The runtime amortizes per-event overhead over the batch, in particular the engine-level processing
+     * lock is taken once for consecutive events that do not produce output to listeners, subscribers,
+     * named windows or insert-into.
+     * <p>
+     * Use the route method for sending events into the runtime from within UpdateListener code.
+     * @param objects is the events to send to the runtime
+     * @throws EPException is thrown when the processing of an event lead to an error
+     */
+    public void sendEvents(Object[] objects) throws EPException;
+
     /**
      * Send a map containing event property values to the event stream processing runtime.
      * <p>
@@ -30,6 +30,16 @@ public interface EventSender
      */
     public void sendEvent(Object theEvent) throws EPException;
 
+    /**
+     * Processes a batch of event objects in the order of the array.
+     * <p>
+     * Processing is equivalent to sending each event object by means of {@link #sendEvent(Object)},
+     * however the runtime amortizes per-event overhead over the batch.
+     * @param theEvents to process
+     * @throws EPException if a runtime error occured.
+     */
+    public void sendEvents(Object[] theEvents) throws EPException;
+
     /**
      * Route the event object back to the event stream processing runtime for internal dispatching,
      * to avoid the possibility of a stack overflow due to nested calls to sendEvent.
@@ -0,0 +1,43 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.client.annotation;
+
+/**
+ * Annotation for delivering statement results to listeners and the subscriber asynchronously, by a dedicated
+ * thread per statement that takes results from a preallocated ring buffer.
+ * <p>
+ * The wait strategy applies to the dispatch thread waiting for results and to the processing thread waiting
+ * for room in the ring buffer and is one of "spin" (busy spin), "yield" (yield the thread)
+ * or "park" (park the thread for 100 microseconds).
+ * The overflow policy applies when the ring buffer is full and is either "block", to block the processing thread
+ * until room becomes available, or "drop", to drop the results.
+ */
+public @interface AsyncDispatch
+{
+    /**
+     * Number of results the ring buffer can hold, rounded up to the next power of two.
+     * @return capacity
+     */
+    int capacity() default 1024;
+
+    /**
+     * Wait strategy, one of "spin", "yield" or "park".
+     * @return wait strategy
+     */
+    String waitStrategy() default "park";
+
+    /**
+     * Overflow policy, either "block" or "drop".
+     * @return overflow policy
+     */
+    String overflow() default "block";
+}
@@ -26,6 +26,7 @@ public class BuiltinAnnotation {
 
     static {
         for (Class clazz : new Class[] {
+                AsyncDispatch.class,
                 Audit.class,
                 Description.class,
                 Drop.class,
@@ -43,6 +44,7 @@ public class BuiltinAnnotation {
                 Name.class,
                 NoCache.class,
                 NoLock.class,
+                OffHeap.class,
                 Overflow.class,
                 Priority.class,
                 Resilient.class,
@@ -44,6 +44,12 @@ public enum HintEnum
      */
     RECLAIM_GROUP_FREQ("RECLAIM_GROUP_FREQ", true, true, false),
 
+    /**
+     * For use with group-by and std:groupwin, the maximum number of groups retained per context partition. When a new group
+     * exceeds the maximum the least-recently-used group is evicted and a condition is reported to the condition handlers.
+     */
+    MAX_GROUPS("MAX_GROUPS", true, true, false),
+
     /**
      * For use with create-named-window statements only, to indicate that statements that subquery the named window
      * use named window data structures (unless the subquery statement specifies below DISBABLE hint and as listed below).
@@ -103,6 +109,30 @@ public enum HintEnum
      * For use everywhere where unique data window are used
      */
     DISABLE_WHEREEXPR_MOVETO_FILTER("DISABLE_WHEREEXPR_MOVETO_FILTER", false, false, false),
+
+    /**
+     * For use with any statement, to compile where-clause, select-clause and aggregation function parameter expressions
+     * into generated classes, see the expression compilation engine setting.
+     */
+    COMPILE_EXPRESSIONS("COMPILE_EXPRESSIONS", false, false, false),
+
+    /**
+     * For use with create-table statements, to keep a columnar projection of the table rows for use by
+     * fire-and-forget aggregate queries.
+     */
+    COLUMNAR_PROJECTION("COLUMNAR_PROJECTION", false, false, false),
+
+    /**
+     * For use with create-context statements declaring a hash segmented context, the number of worker threads
+     * that execute the context partitions. Each hash code is pinned to one worker thread.
+     */
+    PARTITION_THREADS("PARTITION_THREADS", true, true, false),
+
+    /**
+     * For use with create-context statements declaring a hash segmented context and the partition threads hint,
+     * the maximum number of events queued for each worker thread.
+     */
+    PARTITION_QUEUE_CAPACITY("PARTITION_QUEUE_CAPACITY", true, true, false),
     ;
 
     private final String value;
@@ -0,0 +1,29 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.client.annotation;
+
+/**
+ * Annotation for use with create-window statements to keep the named window rows outside of the Java heap.
+ * <p>
+ * Rows are serialized into direct memory segments and materialized when accessed. Requires an object-array
+ * event representation for the named window and a data window that retains all events it receives,
+ * i.e. not a first-length, first-time, first-unique, first-event or virtual data window.
+ * Property values other than strings, characters and boxed primitives must be serializable.
+ */
+public @interface OffHeap
+{
+    /**
+     * Number of bytes per direct memory segment.
+     * @return segment size
+     */
+    int segmentSize() default 64 * 1024 * 1024;
+}
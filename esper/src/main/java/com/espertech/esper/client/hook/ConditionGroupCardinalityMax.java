@@ -0,0 +1,70 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.client.hook;
+
+/**
+ * Indicates that a statement has reached the maximum number of groups configured by the MAX_GROUPS hint
+ * and has evicted least-recently-used groups.
+ * <p>
+ * The condition is reported upon the first eviction and thereafter each time the number of evicted groups
+ * reaches another multiple of the maximum.
+ */
+public class ConditionGroupCardinalityMax implements BaseCondition
+{
+    private final int max;
+    private final long numEvicted;
+    private final Object evictedGroupKey;
+
+    /**
+     * Ctor.
+     * @param max limit reached
+     * @param numEvicted the number of groups evicted so far
+     * @param evictedGroupKey the group key of the group evicted last
+     */
+    public ConditionGroupCardinalityMax(int max, long numEvicted, Object evictedGroupKey) {
+        this.max = max;
+        this.numEvicted = numEvicted;
+        this.evictedGroupKey = evictedGroupKey;
+    }
+
+    /**
+     * Returns the limit reached.
+     * @return limit
+     */
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the number of groups evicted so far.
+     * @return count
+     */
+    public long getNumEvicted() {
+        return numEvicted;
+    }
+
+    /**
+     * Returns the group key of the group evicted last.
+     * @return group key
+     */
+    public Object getEvictedGroupKey() {
+        return evictedGroupKey;
+    }
+
+    public String toString() {
+        return "ConditionGroupCardinalityMax{" +
+                "max=" + max +
+                ", numEvicted=" + numEvicted +
+                ", evictedGroupKey=" + evictedGroupKey +
+                '}';
+    }
+}
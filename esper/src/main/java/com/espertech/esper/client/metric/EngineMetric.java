@@ -17,6 +17,9 @@ public class EngineMetric extends MetricEvent
     private final long inputCount;
     private final long inputCountDelta;
     private final long scheduleDepth;
+    private final long dataCacheHits;
+    private final long dataCacheMisses;
+    private final long dataCacheEvictions;
 
     /**
      * Ctor.
@@ -27,12 +30,31 @@ public class EngineMetric extends MetricEvent
      * @param scheduleDepth schedule depth
      */
     public EngineMetric(String engineURI, long timestamp, long inputCount, long inputCountDelta, long scheduleDepth)
+    {
+        this(engineURI, timestamp, inputCount, inputCountDelta, scheduleDepth, 0, 0, 0);
+    }
+
+    /**
+     * Ctor.
+     * @param engineURI engine URI
+     * @param timestamp engine timestamp
+     * @param inputCount number of input events
+     * @param inputCountDelta number of input events since last
+     * @param scheduleDepth schedule depth
+     * @param dataCacheHits number of shared data cache hits
+     * @param dataCacheMisses number of shared data cache misses
+     * @param dataCacheEvictions number of shared data cache evictions
+     */
+    public EngineMetric(String engineURI, long timestamp, long inputCount, long inputCountDelta, long scheduleDepth, long dataCacheHits, long dataCacheMisses, long dataCacheEvictions)
     {
         super(engineURI);
         this.timestamp = timestamp;
         this.inputCount = inputCount;
         this.inputCountDelta = inputCountDelta;
         this.scheduleDepth = scheduleDepth;
+        this.dataCacheHits = dataCacheHits;
+        this.dataCacheMisses = dataCacheMisses;
+        this.dataCacheEvictions = dataCacheEvictions;
     }
 
     /**
@@ -69,4 +91,28 @@ public class EngineMetric extends MetricEvent
     public long getInputCountDelta() {
         return inputCountDelta;
     }
+
+    /**
+     * Returns the number of lookups into shared database and method invocation caches that found an entry, since engine initialization cumulative.
+     * @return cache hits
+     */
+    public long getDataCacheHits() {
+        return dataCacheHits;
+    }
+
+    /**
+     * Returns the number of lookups into shared database and method invocation caches that did not find an entry, since engine initialization cumulative.
+     * @return cache misses
+     */
+    public long getDataCacheMisses() {
+        return dataCacheMisses;
+    }
+
+    /**
+     * Returns the number of entries evicted from shared database and method invocation caches, since engine initialization cumulative.
+     * @return cache evictions
+     */
+    public long getDataCacheEvictions() {
+        return dataCacheEvictions;
+    }
 }
@@ -22,6 +22,18 @@ public class StatementMetric extends MetricEvent
     private AtomicLong numInput;
     private AtomicLong numOutputRStream;
     private AtomicLong numOutputIStream;
+    private long processingLatencyP50;
+    private long processingLatencyP99;
+    private long processingLatencyP999;
+    private long dispatchLatencyP50;
+    private long dispatchLatencyP99;
+    private long dispatchLatencyP999;
+    private AtomicLong dispatchQueueDepthMax;
+    private AtomicLong numDispatchDropped;
+    private long footprintRows;
+    private long footprintGroups;
+    private long footprintStates;
+    private long footprintBytes;
 
     /**
      * Ctor.
@@ -37,6 +49,8 @@ public class StatementMetric extends MetricEvent
         this.numOutputIStream = new AtomicLong();
         this.numOutputRStream = new AtomicLong();
         this.numInput = new AtomicLong();
+        this.dispatchQueueDepthMax = new AtomicLong();
+        this.numDispatchDropped = new AtomicLong();
     }
 
     /**
@@ -154,4 +168,180 @@ public class StatementMetric extends MetricEvent
     {
         numInput.addAndGet(numInputAdd);
     }
+
+    /**
+     * Sets the processing latency percentiles of the reporting interval.
+     * @param p50 latency in nanoseconds at 50th percentile
+     * @param p99 latency in nanoseconds at 99th percentile
+     * @param p999 latency in nanoseconds at 99.9th percentile
+     */
+    public void setProcessingLatency(long p50, long p99, long p999)
+    {
+        this.processingLatencyP50 = p50;
+        this.processingLatencyP99 = p99;
+        this.processingLatencyP999 = p999;
+    }
+
+    /**
+     * Sets the dispatch latency percentiles of the reporting interval.
+     * @param p50 latency in nanoseconds at 50th percentile
+     * @param p99 latency in nanoseconds at 99th percentile
+     * @param p999 latency in nanoseconds at 99.9th percentile
+     */
+    public void setDispatchLatency(long p50, long p99, long p999)
+    {
+        this.dispatchLatencyP50 = p50;
+        this.dispatchLatencyP99 = p99;
+        this.dispatchLatencyP999 = p999;
+    }
+
+    /**
+     * Returns the median wall time in nanoseconds of statement executions, from filter or schedule match
+     * through views and result set processing, or zero if none.
+     * @return processing latency at 50th percentile
+     */
+    public long getProcessingLatencyP50()
+    {
+        return processingLatencyP50;
+    }
+
+    /**
+     * Returns the 99th percentile wall time in nanoseconds of statement executions, or zero if none.
+     * @return processing latency at 99th percentile
+     */
+    public long getProcessingLatencyP99()
+    {
+        return processingLatencyP99;
+    }
+
+    /**
+     * Returns the 99.9th percentile wall time in nanoseconds of statement executions, or zero if none.
+     * @return processing latency at 99.9th percentile
+     */
+    public long getProcessingLatencyP999()
+    {
+        return processingLatencyP999;
+    }
+
+    /**
+     * Returns the median wall time in nanoseconds of output deliveries to listeners and subscriber, or zero if none.
+     * @return dispatch latency at 50th percentile
+     */
+    public long getDispatchLatencyP50()
+    {
+        return dispatchLatencyP50;
+    }
+
+    /**
+     * Returns the 99th percentile wall time in nanoseconds of output deliveries to listeners and subscriber, or zero if none.
+     * @return dispatch latency at 99th percentile
+     */
+    public long getDispatchLatencyP99()
+    {
+        return dispatchLatencyP99;
+    }
+
+    /**
+     * Returns the 99.9th percentile wall time in nanoseconds of output deliveries to listeners and subscriber, or zero if none.
+     * @return dispatch latency at 99.9th percentile
+     */
+    public long getDispatchLatencyP999()
+    {
+        return dispatchLatencyP999;
+    }
+
+    /**
+     * Accounts the number of results waiting for asynchronous dispatch, keeping the maximum.
+     * @param queueDepth number of results waiting
+     */
+    public void addDispatchQueueDepth(int queueDepth)
+    {
+        long current = dispatchQueueDepthMax.get();
+        while (queueDepth > current && !dispatchQueueDepthMax.compareAndSet(current, queueDepth))
+        {
+            current = dispatchQueueDepthMax.get();
+        }
+    }
+
+    /**
+     * Returns the maximum number of results that waited for asynchronous dispatch.
+     * @return maximum queue depth, or zero if the statement dispatches synchronously
+     */
+    public long getDispatchQueueDepthMax()
+    {
+        return dispatchQueueDepthMax.get();
+    }
+
+    /**
+     * Adds number of results dropped because the asynchronous dispatch ring buffer was full.
+     * @param numDropped to add
+     */
+    public void addNumDispatchDropped(long numDropped)
+    {
+        numDispatchDropped.addAndGet(numDropped);
+    }
+
+    /**
+     * Returns the number of results dropped because the asynchronous dispatch ring buffer was full.
+     * @return number of dropped results
+     */
+    public long getNumDispatchDropped()
+    {
+        return numDispatchDropped.get();
+    }
+
+    /**
+     * Sets the memory footprint estimate of the statement, taken when the metric is reported.
+     * @param numRows number of events retained by data windows, named windows and tables
+     * @param numGroups number of aggregation groups and grouped data window groups
+     * @param numStates number of match-recognize partial matches
+     * @param estimatedBytes estimated number of retained bytes
+     */
+    public void setFootprint(long numRows, long numGroups, long numStates, long estimatedBytes)
+    {
+        this.footprintRows = numRows;
+        this.footprintGroups = numGroups;
+        this.footprintStates = numStates;
+        this.footprintBytes = estimatedBytes;
+    }
+
+    /**
+     * Returns the number of events retained by data windows, named windows and tables,
+     * or zero if statement footprint reporting is not enabled.
+     * @return number of rows
+     */
+    public long getFootprintRows()
+    {
+        return footprintRows;
+    }
+
+    /**
+     * Returns the number of aggregation groups and grouped data window groups,
+     * or zero if statement footprint reporting is not enabled.
+     * @return number of groups
+     */
+    public long getFootprintGroups()
+    {
+        return footprintGroups;
+    }
+
+    /**
+     * Returns the number of match-recognize partial matches,
+     * or zero if statement footprint reporting is not enabled.
+     * @return number of states
+     */
+    public long getFootprintStates()
+    {
+        return footprintStates;
+    }
+
+    /**
+     * Returns the estimated number of bytes the statement retains,
+     * or zero if statement footprint reporting is not enabled.
+     * @return bytes estimate
+     */
+    public long getFootprintBytes()
+    {
+        return footprintBytes;
+    }
 }
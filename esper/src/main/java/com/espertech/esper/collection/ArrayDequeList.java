@@ -0,0 +1,141 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * List backed by a circular array, for constant-time indexed access and constant-time
+ * add and remove at both the front and the back of the list.
+ * <p>
+ * Adding or removing in the middle of the list shifts the elements that follow.
+ * <p>
+ * When running out of space for the underlying array, allocates a new array of double the size of the
+ * current array.
+ * <p>
+ * Not synchronized and not thread-safe.
+ */
+public class ArrayDequeList<E> extends AbstractList<E> implements RandomAccess
+{
+    private static final int INITIAL_CAPACITY = 4;
+
+    private Object[] elements;
+    private int head;
+    private int size;
+
+    /**
+     * Ctor.
+     */
+    public ArrayDequeList()
+    {
+        elements = new Object[INITIAL_CAPACITY];
+    }
+
+    public E get(int index)
+    {
+        checkIndex(index, size);
+        return (E) elements[physical(index)];
+    }
+
+    public E set(int index, E element)
+    {
+        checkIndex(index, size);
+        int position = physical(index);
+        E previous = (E) elements[position];
+        elements[position] = element;
+        return previous;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public void add(int index, E element)
+    {
+        checkIndex(index, size + 1);
+        if (size == elements.length)
+        {
+            grow();
+        }
+        if (index == 0)
+        {
+            head = (head - 1) & (elements.length - 1);
+            elements[head] = element;
+        }
+        else
+        {
+            for (int i = size; i > index; i--)
+            {
+                elements[physical(i)] = elements[physical(i - 1)];
+            }
+            elements[physical(index)] = element;
+        }
+        size++;
+        modCount++;
+    }
+
+    public E remove(int index)
+    {
+        checkIndex(index, size);
+        E removed = (E) elements[physical(index)];
+        if (index == 0)
+        {
+            elements[head] = null;
+            head = (head + 1) & (elements.length - 1);
+        }
+        else
+        {
+            for (int i = index; i < size - 1; i++)
+            {
+                elements[physical(i)] = elements[physical(i + 1)];
+            }
+            elements[physical(size - 1)] = null;
+        }
+        size--;
+        modCount++;
+        return removed;
+    }
+
+    public void clear()
+    {
+        for (int i = 0; i < size; i++)
+        {
+            elements[physical(i)] = null;
+        }
+        head = 0;
+        size = 0;
+        modCount++;
+    }
+
+    private int physical(int index)
+    {
+        return (head + index) & (elements.length - 1);
+    }
+
+    private void grow()
+    {
+        Object[] newElements = new Object[elements.length * 2];
+        for (int i = 0; i < size; i++)
+        {
+            newElements[i] = elements[physical(i)];
+        }
+        elements = newElements;
+        head = 0;
+    }
+
+    private static void checkIndex(int index, int bound)
+    {
+        if (index < 0 || index >= bound)
+        {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of range");
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Open-addressing hash map keyed by primitive long values that allows any number of concurrent readers
+ * without locking, and a single writer at a time.
+ * <p>
+ * Writers must be serialized by the caller, for example by holding a write lock. Readers do not lock.
+ * A key is written into a slot once per table before its value is published, and removed entries are
+ * left in place as tombstones until the table is rebuilt, so that readers never observe a slot changing keys.
+ */
+public class LongKeyMapConcurrentRead<V>
+{
+    private static final int MIN_CAPACITY = 16;
+    private static final Object REMOVED = new Object();
+
+    private volatile Table table;
+    private int size;
+    private int used;
+
+    /**
+     * Ctor.
+     */
+    public LongKeyMapConcurrentRead()
+    {
+        table = new Table(MIN_CAPACITY);
+    }
+
+    /**
+     * Returns the value for the key, or null if none found. Does not require locking.
+     * @param key to look up
+     * @return value or null
+     */
+    public V get(long key)
+    {
+        Table current = table;
+        int index = hash(key) & current.mask;
+        while (true) {
+            Object value = current.values.get(index);
+            if (value == null) {
+                return null;
+            }
+            if (current.keys[index] == key) {
+                return value == REMOVED ? null : (V) value;
+            }
+            index = (index + 1) & current.mask;
+        }
+    }
+
+    /**
+     * Put a value, replacing any existing value for the key. Must be called by a single writer at a time.
+     * @param key key
+     * @param value value, not null
+     */
+    public void put(long key, V value)
+    {
+        Table current = table;
+        int index = hash(key) & current.mask;
+        while (true) {
+            Object existing = current.values.get(index);
+            if (existing == null) {
+                break;
+            }
+            if (current.keys[index] == key) {
+                if (existing == REMOVED) {
+                    size++;
+                }
+                current.values.set(index, value);
+                return;
+            }
+            index = (index + 1) & current.mask;
+        }
+
+        if ((used + 1) * 2 > current.keys.length) {
+            rebuild(size + 1);
+            current = table;
+            index = hash(key) & current.mask;
+            while (current.values.get(index) != null) {
+                index = (index + 1) & current.mask;
+            }
+        }
+        current.keys[index] = key;
+        current.values.set(index, value);
+        used++;
+        size++;
+    }
+
+    /**
+     * Remove the value for the key. Must be called by a single writer at a time.
+     * @param key to remove
+     * @return removed value or null if not found
+     */
+    public V remove(long key)
+    {
+        Table current = table;
+        int index = hash(key) & current.mask;
+        while (true) {
+            Object existing = current.values.get(index);
+            if (existing == null) {
+                return null;
+            }
+            if (current.keys[index] == key) {
+                if (existing == REMOVED) {
+                    return null;
+                }
+                current.values.set(index, REMOVED);
+                size--;
+                if (size * 8 < used && current.keys.length > MIN_CAPACITY) {
+                    rebuild(size);
+                }
+                return (V) existing;
+            }
+            index = (index + 1) & current.mask;
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     * @return size
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns true for empty.
+     * @return empty indicator
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    private void rebuild(int numEntries)
+    {
+        int capacity = MIN_CAPACITY;
+        while (capacity < numEntries * 4) {
+            capacity <<= 1;
+        }
+        Table current = table;
+        Table rebuilt = new Table(capacity);
+        for (int i = 0; i < current.keys.length; i++) {
+            Object value = current.values.get(i);
+            if (value == null || value == REMOVED) {
+                continue;
+            }
+            int index = hash(current.keys[i]) & rebuilt.mask;
+            while (rebuilt.values.get(index) != null) {
+                index = (index + 1) & rebuilt.mask;
+            }
+            rebuilt.keys[index] = current.keys[i];
+            rebuilt.values.lazySet(index, value);
+        }
+        used = size;
+        table = rebuilt;
+    }
+
+    private static int hash(long key)
+    {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static final class Table
+    {
+        private final long[] keys;
+        private final AtomicReferenceArray<Object> values;
+        private final int mask;
+
+        private Table(int capacity) {
+            keys = new long[capacity];
+            values = new AtomicReferenceArray<Object>(capacity);
+            mask = capacity - 1;
+        }
+    }
+}
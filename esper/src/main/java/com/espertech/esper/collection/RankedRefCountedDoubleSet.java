@@ -0,0 +1,256 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+/**
+ * Sorted, reference-counting set of primitive double values that provides access to the value at
+ * a given position of the sorted values in logarithmic time.
+ * <p>
+ * The set is a height-balanced binary search tree with a node per unique value, each node
+ * carrying the reference count of the value and the total reference count of its subtree.
+ * Unlike {@link SortedDoubleVector} adding and removing values does not shift values
+ * and values are not boxed.
+ * <p>
+ * NaN values are ignored.
+ */
+public class RankedRefCountedDoubleSet
+{
+    private Node root;
+
+    /**
+     * Clear out the collection.
+     */
+    public void clear()
+    {
+        root = null;
+    }
+
+    /**
+     * Returns the number of values, counting each value as many times as it was added.
+     * @return size
+     */
+    public int size()
+    {
+        return total(root);
+    }
+
+    /**
+     * Returns the value at the position provided.
+     * @param index zero-based position
+     * @return value
+     * @throws IndexOutOfBoundsException if the position is outside of the set
+     */
+    public double getValue(int index)
+    {
+        if (index < 0 || index >= total(root))
+        {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + total(root));
+        }
+        Node node = root;
+        while (true)
+        {
+            int leftTotal = total(node.left);
+            if (index < leftTotal)
+            {
+                node = node.left;
+            }
+            else if (index < leftTotal + node.count)
+            {
+                return node.value;
+            }
+            else
+            {
+                index -= leftTotal + node.count;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Add a value.
+     * @param value to add
+     */
+    public void add(double value)
+    {
+        if (Double.isNaN(value))
+        {
+            return;
+        }
+        root = insert(root, value);
+    }
+
+    /**
+     * Remove a value.
+     * @param value to remove
+     * @throws IllegalStateException if the value is not found
+     */
+    public void remove(double value)
+    {
+        if (Double.isNaN(value))
+        {
+            return;
+        }
+        root = delete(root, value);
+    }
+
+    private Node insert(Node node, double value)
+    {
+        if (node == null)
+        {
+            return new Node(value);
+        }
+        int compared = Double.compare(value, node.value);
+        if (compared == 0)
+        {
+            node.count++;
+            node.total++;
+            return node;
+        }
+        if (compared < 0)
+        {
+            node.left = insert(node.left, value);
+        }
+        else
+        {
+            node.right = insert(node.right, value);
+        }
+        return balance(node);
+    }
+
+    private Node delete(Node node, double value)
+    {
+        if (node == null)
+        {
+            throw new IllegalStateException("Value not found in collection");
+        }
+        int compared = Double.compare(value, node.value);
+        if (compared < 0)
+        {
+            node.left = delete(node.left, value);
+            return balance(node);
+        }
+        if (compared > 0)
+        {
+            node.right = delete(node.right, value);
+            return balance(node);
+        }
+
+        if (node.count > 1)
+        {
+            node.count--;
+            node.total--;
+            return node;
+        }
+
+        // unlink the node, replacing it with the smallest node of the right subtree if there are two children
+        if (node.left == null)
+        {
+            return node.right;
+        }
+        if (node.right == null)
+        {
+            return node.left;
+        }
+        Node successor = node.right;
+        while (successor.left != null)
+        {
+            successor = successor.left;
+        }
+        successor.right = deleteMin(node.right);
+        successor.left = node.left;
+        return balance(successor);
+    }
+
+    private Node deleteMin(Node node)
+    {
+        if (node.left == null)
+        {
+            return node.right;
+        }
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    private Node balance(Node node)
+    {
+        update(node);
+        int skew = height(node.left) - height(node.right);
+        if (skew > 1)
+        {
+            if (height(node.left.left) < height(node.left.right))
+            {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (skew < -1)
+        {
+            if (height(node.right.right) < height(node.right.left))
+            {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateRight(Node node)
+    {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node rotateLeft(Node node)
+    {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node)
+    {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.total = node.count + total(node.left) + total(node.right);
+    }
+
+    private static int height(Node node)
+    {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int total(Node node)
+    {
+        return node == null ? 0 : node.total;
+    }
+
+    private static class Node
+    {
+        private final double value;
+        private int count;
+        private int total;
+        private int height;
+        private Node left;
+        private Node right;
+
+        private Node(double value)
+        {
+            this.value = value;
+            this.count = 1;
+            this.total = 1;
+            this.height = 1;
+        }
+    }
+}
@@ -0,0 +1,337 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.collection;
+
+import java.util.Comparator;
+
+/**
+ * Sorted, reference-counting set that stores keys and a reference counter for each unique key value
+ * and that is augmented with subtree totals, allowing to find the key at a given position
+ * of the expanded (reference-counted) sequence and the position of a given key in logarithmic time.
+ * <p>
+ * The set is a height-balanced binary search tree. Keys are compared using the comparator provided
+ * or by natural order if no comparator is provided.
+ */
+public class RankedRefCountedSet<K>
+{
+    private final Comparator<? super K> comparator;
+    private Node<K> root;
+
+    /**
+     * Ctor.
+     * @param comparator comparator for keys, or null for natural ordering
+     */
+    public RankedRefCountedSet(Comparator<? super K> comparator)
+    {
+        this.comparator = comparator;
+    }
+
+    /**
+     * Clear out the collection.
+     */
+    public void clear()
+    {
+        root = null;
+    }
+
+    /**
+     * Returns the total of all reference counts.
+     * @return sum of reference counts
+     */
+    public int size()
+    {
+        return total(root);
+    }
+
+    /**
+     * Add a key to the set with a reference count of one, or increase the reference count by one.
+     * @param key to add
+     */
+    public void add(K key)
+    {
+        add(key, 1);
+    }
+
+    /**
+     * Add a key to the set with the given reference count, or increase the reference count by the given number.
+     * @param key to add
+     * @param count number of references to add, a positive number
+     */
+    public void add(K key, int count)
+    {
+        root = insert(root, key, count);
+    }
+
+    /**
+     * Decrease the reference count of a key by one, removing the key when the reference count reaches zero.
+     * @param key to remove
+     * @throws IllegalStateException if the key is not found
+     */
+    public void remove(K key)
+    {
+        remove(key, 1);
+    }
+
+    /**
+     * Decrease the reference count of a key by the given number, removing the key when the reference count reaches zero.
+     * @param key to remove
+     * @param count number of references to remove
+     * @throws IllegalStateException if the key is not found
+     */
+    public void remove(K key, int count)
+    {
+        root = delete(root, key, count);
+    }
+
+    /**
+     * Returns the reference count for the key.
+     * @param key to look up
+     * @return reference count or zero if not found
+     */
+    public int getCount(K key)
+    {
+        Node<K> node = root;
+        while (node != null)
+        {
+            int compared = compare(key, node.key);
+            if (compared == 0)
+            {
+                return node.count;
+            }
+            node = compared < 0 ? node.left : node.right;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the key at the position provided, counting each key as many times as it is referenced.
+     * @param index zero-based position
+     * @return key or null if the position is outside of the set
+     */
+    public K getKeyAtIndex(int index)
+    {
+        if (index < 0)
+        {
+            return null;
+        }
+        Node<K> node = root;
+        while (node != null)
+        {
+            int leftTotal = total(node.left);
+            if (index < leftTotal)
+            {
+                node = node.left;
+            }
+            else if (index < leftTotal + node.count)
+            {
+                return node.key;
+            }
+            else
+            {
+                index -= leftTotal + node.count;
+                node = node.right;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the position of the first reference of the key, i.e. the sum of the reference counts of all keys
+     * sorting before the key provided.
+     * @param key to look up
+     * @return number of references of keys sorting before the key
+     */
+    public int getIndexOfKey(K key)
+    {
+        int index = 0;
+        Node<K> node = root;
+        while (node != null)
+        {
+            int compared = compare(key, node.key);
+            if (compared <= 0)
+            {
+                if (compared == 0)
+                {
+                    return index + total(node.left);
+                }
+                node = node.left;
+            }
+            else
+            {
+                index += total(node.left) + node.count;
+                node = node.right;
+            }
+        }
+        return index;
+    }
+
+    private Node<K> insert(Node<K> node, K key, int count)
+    {
+        if (node == null)
+        {
+            return new Node<K>(key, count);
+        }
+        int compared = compare(key, node.key);
+        if (compared == 0)
+        {
+            node.count += count;
+            node.total += count;
+            return node;
+        }
+        if (compared < 0)
+        {
+            node.left = insert(node.left, key, count);
+        }
+        else
+        {
+            node.right = insert(node.right, key, count);
+        }
+        return balance(node);
+    }
+
+    private Node<K> delete(Node<K> node, K key, int count)
+    {
+        if (node == null)
+        {
+            throw new IllegalStateException("Attempting to remove key from map that wasn't added");
+        }
+        int compared = compare(key, node.key);
+        if (compared < 0)
+        {
+            node.left = delete(node.left, key, count);
+            return balance(node);
+        }
+        if (compared > 0)
+        {
+            node.right = delete(node.right, key, count);
+            return balance(node);
+        }
+
+        if (node.count > count)
+        {
+            node.count -= count;
+            node.total -= count;
+            return node;
+        }
+
+        // unlink the node, replacing it with the smallest node of the right subtree if there are two children
+        if (node.left == null)
+        {
+            return node.right;
+        }
+        if (node.right == null)
+        {
+            return node.left;
+        }
+        Node<K> successor = node.right;
+        while (successor.left != null)
+        {
+            successor = successor.left;
+        }
+        successor.right = deleteMin(node.right);
+        successor.left = node.left;
+        return balance(successor);
+    }
+
+    private Node<K> deleteMin(Node<K> node)
+    {
+        if (node.left == null)
+        {
+            return node.right;
+        }
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    private Node<K> balance(Node<K> node)
+    {
+        update(node);
+        int skew = height(node.left) - height(node.right);
+        if (skew > 1)
+        {
+            if (height(node.left.left) < height(node.left.right))
+            {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (skew < -1)
+        {
+            if (height(node.right.right) < height(node.right.left))
+            {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node<K> rotateRight(Node<K> node)
+    {
+        Node<K> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node<K> rotateLeft(Node<K> node)
+    {
+        Node<K> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static <K> void update(Node<K> node)
+    {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.total = node.count + total(node.left) + total(node.right);
+    }
+
+    private static <K> int height(Node<K> node)
+    {
+        return node == null ? 0 : node.height;
+    }
+
+    private static <K> int total(Node<K> node)
+    {
+        return node == null ? 0 : node.total;
+    }
+
+    private int compare(K first, K second)
+    {
+        if (comparator != null)
+        {
+            return comparator.compare(first, second);
+        }
+        return ((Comparable<? super K>) first).compareTo(second);
+    }
+
+    private static class Node<K>
+    {
+        private final K key;
+        private int count;
+        private int total;
+        private int height;
+        private Node<K> left;
+        private Node<K> right;
+
+        private Node(K key, int count)
+        {
+            this.key = key;
+            this.count = count;
+            this.total = count;
+            this.height = 1;
+        }
+    }
+}
@@ -0,0 +1,332 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.checkpoint;
+
+import com.espertech.esper.client.EPAdministrator;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.soda.*;
+import com.espertech.esper.epl.named.NamedWindowService;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks started statements for state that the checkpoint journal cannot restore because the state may depend
+ * on events older than the horizon, such as length windows, aggregation without data window and patterns
+ * that are not bounded by a time.
+ */
+public class CheckpointHorizonValidator
+{
+    private final EPAdministrator administrator;
+    private final NamedWindowService namedWindowService;
+    private final long horizonMsec;
+
+    /**
+     * Ctor.
+     * @param administrator administrative interface
+     * @param namedWindowService named windows
+     * @param horizonMsec horizon in milliseconds
+     */
+    public CheckpointHorizonValidator(EPAdministrator administrator, NamedWindowService namedWindowService, long horizonMsec)
+    {
+        this.administrator = administrator;
+        this.namedWindowService = namedWindowService;
+        this.horizonMsec = horizonMsec;
+    }
+
+    /**
+     * Returns a message for each started statement that keeps state that may depend on events older than the horizon.
+     * @return messages, empty when all statements are bounded by the horizon
+     */
+    public List<String> validate()
+    {
+        List<String> messages = new ArrayList<String>();
+        for (String name : administrator.getStatementNames())
+        {
+            EPStatement statement = administrator.getStatement(name);
+            if (statement == null || !statement.isStarted())
+            {
+                continue;
+            }
+
+            String reason;
+            try
+            {
+                reason = validate(administrator.compileEPL(statement.getText()));
+            }
+            catch (RuntimeException ex)
+            {
+                reason = "the statement could not be analyzed: " + ex.getMessage();
+            }
+            if (reason != null)
+            {
+                messages.add("Statement '" + name + "' keeps state that is not bounded by the checkpoint horizon of " + horizonMsec + " milliseconds, " + reason);
+            }
+        }
+        return messages;
+    }
+
+    private String validate(EPStatementObjectModel model)
+    {
+        if (model.getCreateTable() != null)
+        {
+            return "table rows are kept regardless of time";
+        }
+        if (model.getCreateWindow() != null)
+        {
+            return validateViews(model.getCreateWindow().getViews(), false);
+        }
+        if (model.getFromClause() == null)
+        {
+            return null;
+        }
+
+        boolean isAggregated = isAggregated(model);
+        for (Stream stream : model.getFromClause().getStreams())
+        {
+            if (stream instanceof PatternStream)
+            {
+                PatternExpr pattern = ((PatternStream) stream).getExpression();
+                if (!isPatternStateBounded(pattern))
+                {
+                    StringWriter writer = new StringWriter();
+                    pattern.toEPL(writer, PatternExprPrecedenceEnum.MINIMUM, new EPStatementFormatter());
+                    return "pattern '" + writer + "' may keep partial matches longer than the horizon";
+                }
+            }
+            if (!(stream instanceof ProjectedStream))
+            {
+                continue;
+            }
+            if (stream instanceof FilterStream && namedWindowService.isNamedWindow(((FilterStream) stream).getFilter().getEventTypeName()))
+            {
+                continue;
+            }
+            String reason = validateViews(((ProjectedStream) stream).getViews(), isAggregated);
+            if (reason != null)
+            {
+                return reason;
+            }
+        }
+        return null;
+    }
+
+    private String validateViews(List<View> views, boolean isAggregated)
+    {
+        if (views.isEmpty())
+        {
+            return isAggregated ? "aggregation is over all events of a stream without data window" : null;
+        }
+        for (View view : views)
+        {
+            int parameterIndex = getTimeParameterIndex(view);
+            if (parameterIndex == -1 || view.getParameters().size() <= parameterIndex)
+            {
+                continue;
+            }
+            Long msec = toMsec(view.getParameters().get(parameterIndex));
+            if (msec != null && msec <= horizonMsec)
+            {
+                return null;
+            }
+            return "view '" + view.getNamespace() + ":" + view.getName() + "' has a time period that is longer than the horizon or not a constant";
+        }
+        View view = views.get(views.size() - 1);
+        return "view '" + view.getNamespace() + ":" + view.getName() + "' retains events regardless of time";
+    }
+
+    private boolean isPatternStateBounded(PatternExpr expr)
+    {
+        if (expr instanceof PatternFilterExpr || expr instanceof PatternObserverExpr)
+        {
+            return true;
+        }
+        if (expr instanceof PatternEveryExpr)
+        {
+            return isPatternStateBounded(expr.getChildren().get(0));
+        }
+        if (expr instanceof PatternOrExpr)
+        {
+            for (PatternExpr child : expr.getChildren())
+            {
+                if (!isPatternStateBounded(child))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (expr instanceof PatternFollowedByExpr)
+        {
+            // the first subexpression restarts, each later subexpression holds the events matched before it
+            List<PatternExpr> children = expr.getChildren();
+            if (!isPatternStateBounded(children.get(0)))
+            {
+                return false;
+            }
+            for (int i = 1; i < children.size(); i++)
+            {
+                if (!isPatternEndBounded(children.get(i)))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (expr instanceof PatternGuardExpr && !isWithinGuard((PatternGuardExpr) expr))
+        {
+            return isPatternStateBounded(expr.getChildren().get(0));
+        }
+        return isPatternEndBounded(expr);
+    }
+
+    private boolean isPatternEndBounded(PatternExpr expr)
+    {
+        if (expr instanceof PatternGuardExpr)
+        {
+            PatternGuardExpr guard = (PatternGuardExpr) expr;
+            if (isWithinGuard(guard))
+            {
+                Long msec = toMsec(guard.getParameters().get(0));
+                return msec != null && msec <= horizonMsec;
+            }
+            return isPatternEndBounded(expr.getChildren().get(0));
+        }
+        if (expr instanceof PatternObserverExpr)
+        {
+            PatternObserverExpr observer = (PatternObserverExpr) expr;
+            if (observer.getName().equals("interval") && observer.getParameters().size() == 1)
+            {
+                Long msec = toMsec(observer.getParameters().get(0));
+                return msec != null && msec <= horizonMsec;
+            }
+            return false;
+        }
+        if (expr instanceof PatternOrExpr)
+        {
+            for (PatternExpr child : expr.getChildren())
+            {
+                if (isPatternEndBounded(child))
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (expr instanceof PatternAndExpr || expr instanceof PatternFollowedByExpr)
+        {
+            for (PatternExpr child : expr.getChildren())
+            {
+                if (!isPatternEndBounded(child))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isWithinGuard(PatternGuardExpr guard)
+    {
+        return guard.getName().equals("within") && guard.getParameters().size() == 1;
+    }
+
+    private static int getTimeParameterIndex(View view)
+    {
+        String name = view.getName();
+        if (name.equals("time") || name.equals("time_batch") || name.equals("time_length_batch"))
+        {
+            return 0;
+        }
+        if (name.equals("ext_timed") || name.equals("ext_timed_batch") || name.equals("time_order"))
+        {
+            return 1;
+        }
+        return -1;
+    }
+
+    private static boolean isAggregated(EPStatementObjectModel model)
+    {
+        if (model.getHavingClause() != null && isAggregated(model.getHavingClause()))
+        {
+            return true;
+        }
+        if (model.getSelectClause() == null)
+        {
+            return false;
+        }
+        for (SelectClauseElement element : model.getSelectClause().getSelectList())
+        {
+            if (element instanceof SelectClauseExpression && isAggregated(((SelectClauseExpression) element).getExpression()))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAggregated(Expression expression)
+    {
+        if (expression instanceof CountStarProjectionExpression || expression instanceof CountProjectionExpression ||
+            expression instanceof SumProjectionExpression || expression instanceof AvgProjectionExpression ||
+            expression instanceof MinProjectionExpression || expression instanceof MaxProjectionExpression ||
+            expression instanceof MedianProjectionExpression || expression instanceof StddevProjectionExpression ||
+            expression instanceof AvedevProjectionExpression || expression instanceof PlugInProjectionExpression ||
+            expression instanceof AccessProjectionExpressionBase)
+        {
+            return true;
+        }
+        for (Expression child : expression.getChildren())
+        {
+            if (isAggregated(child))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Long toMsec(Expression expression)
+    {
+        if (expression instanceof ConstantExpression)
+        {
+            Object value = ((ConstantExpression) expression).getConstant();
+            return value instanceof Number ? Math.round(((Number) value).doubleValue() * 1000d) : null;
+        }
+        if (!(expression instanceof TimePeriodExpression))
+        {
+            return null;
+        }
+        TimePeriodExpression period = (TimePeriodExpression) expression;
+        if (period.isHasYears() || period.isHasMonths())
+        {
+            return null;
+        }
+        boolean[] flags = new boolean[] {period.isHasWeeks(), period.isHasDays(), period.isHasHours(), period.isHasMinutes(), period.isHasSeconds(), period.isHasMilliseconds()};
+        double[] factors = new double[] {7 * 24 * 3600000d, 24 * 3600000d, 3600000d, 60000d, 1000d, 1d};
+        double msec = 0;
+        int child = 0;
+        for (int i = 0; i < flags.length; i++)
+        {
+            if (!flags[i])
+            {
+                continue;
+            }
+            Expression part = period.getChildren().get(child++);
+            if (!(part instanceof ConstantExpression) || !(((ConstantExpression) part).getConstant() instanceof Number))
+            {
+                return null;
+            }
+            msec += ((Number) ((ConstantExpression) part).getConstant()).doubleValue() * factors[i];
+        }
+        return Math.round(msec);
+    }
+}
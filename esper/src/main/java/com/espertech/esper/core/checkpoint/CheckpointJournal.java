@@ -0,0 +1,773 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.checkpoint;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.client.time.TimerControlEvent;
+import com.espertech.esper.core.service.EPRuntimeSPI;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.core.service.InboundEventRecorder;
+import com.espertech.esper.util.ObjectInputStreamWithTCCL;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Journal of inbound events for rebuilding the state of time-bounded statements after an engine restart,
+ * by replaying only the events that arrived within a retention horizon.
+ * <p>
+ * The journal is a replay journal and does not take snapshots of statement state: The contents of data windows,
+ * aggregation rows, pattern state trees and schedules are rebuilt by replaying events, and are not serialized.
+ * State that depends on events older than the horizon, such as length and keep-all windows, aggregation without data window,
+ * tables and patterns that are not bounded by a time, is not restored. The horizon must cover the longest time span of state kept
+ * by statements, for example 30 minutes for statements that use a 30-minute time window.
+ * Statements must be created before the journal restores, and restore logs a warning for each statement
+ * reported by {@link #validateHorizon()}.
+ * <p>
+ * Recording an inbound event copies the Map or object array of the event and puts the event into a bounded queue.
+ * A writer thread serializes the queued events and appends them to the journal file, and sending threads block
+ * while the queue is full. Each checkpoint waits for the writer thread to write a checkpoint record and to force
+ * the journal file to disk, and restore only replays events that precede the last checkpoint record.
+ * The writer thread rewrites the journal file, leaving only events within the horizon, when the journal file holds more
+ * events that are outside of the horizon than events within the horizon, and replaces the journal file by an atomic move.
+ * The journal keeps the number of events and the latest event time per checkpoint in memory, and no events.
+ * <p>
+ * Events must be Map, object-array or JavaBean events that are serializable. JavaBean events and the values
+ * of Map and object-array events must not change after sending, as the writer thread serializes them later.
+ * The journal replays the engine time of each event, switching the engine to external timer events for the duration
+ * of the replay when the engine uses the internal timer.
+ */
+public class CheckpointJournal implements InboundEventRecorder
+{
+    private static final Log log = LogFactory.getLog(CheckpointJournal.class);
+
+    /**
+     * Default capacity of the queue of recorded events.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+
+    private static final int FILE_MAGIC = 0x45534A33;
+    private static final byte RECORD_EVENT = 0;
+    private static final byte RECORD_CHECKPOINT = 1;
+    private static final byte KIND_BEAN = 0;
+    private static final byte KIND_MAP = 1;
+    private static final byte KIND_OBJECTARRAY = 2;
+    private static final Object STOP = new Object();
+
+    private final EPServiceProviderSPI epService;
+    private final EPRuntimeSPI runtime;
+    private final File file;
+    private final long horizonMsec;
+    private final BlockingQueue<Object> queue;
+
+    // writer thread, guarded by this journal
+    private Writer writer;
+    private Thread writerThread;
+    private boolean isRestored;
+
+    // checkpoints in the journal file that are within the horizon, guarded by the checkpoint lock while not started and
+    // otherwise owned by the writer thread
+    private final Object checkpointLock = new Object();
+    private final ArrayDeque<Segment> segments = new ArrayDeque<Segment>();
+    private volatile int numRetained;
+    private int numExpiredInFile;
+
+    /**
+     * Ctor.
+     * @param epService engine
+     * @param file journal file
+     * @param horizonMsec number of milliseconds of engine time to retain events for
+     */
+    public CheckpointJournal(EPServiceProvider epService, File file, long horizonMsec)
+    {
+        this(epService, file, horizonMsec, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Ctor.
+     * @param epService engine
+     * @param file journal file
+     * @param horizonMsec number of milliseconds of engine time to retain events for
+     * @param queueCapacity maximum number of recorded events that the writer thread has not written, after which sending threads block
+     */
+    public CheckpointJournal(EPServiceProvider epService, File file, long horizonMsec, int queueCapacity)
+    {
+        if (horizonMsec <= 0)
+        {
+            throw new IllegalArgumentException("Invalid horizon " + horizonMsec + ", the horizon must be a positive number of milliseconds");
+        }
+        if (queueCapacity <= 0)
+        {
+            throw new IllegalArgumentException("Invalid queue capacity " + queueCapacity + ", the queue capacity must be a positive number");
+        }
+        this.epService = (EPServiceProviderSPI) epService;
+        this.runtime = (EPRuntimeSPI) epService.getEPRuntime();
+        this.file = file;
+        this.horizonMsec = horizonMsec;
+        this.queue = new ArrayBlockingQueue<Object>(queueCapacity);
+    }
+
+    /**
+     * Replays the events of the journal file that are within the horizon of the last checkpoint.
+     * <p>
+     * Must be called after statements are created and before the journal starts recording.
+     * Logs a warning for each statement that keeps state that is not bounded by the horizon.
+     * Removes events after the last checkpoint record from the journal file.
+     * @return number of events replayed, zero when there is no journal file
+     * @throws IOException when the journal file cannot be read
+     */
+    public int restore() throws IOException
+    {
+        synchronized (this)
+        {
+            if (writerThread != null)
+            {
+                throw new IllegalStateException("Journal cannot restore after it started recording");
+            }
+        }
+
+        synchronized (checkpointLock)
+        {
+            if (!file.exists())
+            {
+                return 0;
+            }
+
+            for (String message : validateHorizon())
+            {
+                log.warn(message + ", the state is not restored from the checkpoint journal");
+            }
+
+            // find the last checkpoint, and remove events that no checkpoint covers
+            ScanResult scan = scan(file);
+            if (scan.checkpointOffset < file.length())
+            {
+                RandomAccessFile raf = new RandomAccessFile(file, "rw");
+                try
+                {
+                    raf.setLength(scan.checkpointOffset);
+                }
+                finally
+                {
+                    raf.close();
+                }
+            }
+            if (scan.segments.isEmpty() && scan.checkpointTime == Long.MIN_VALUE)
+            {
+                isRestored = true;
+                return 0;
+            }
+            long horizonStart = scan.checkpointTime - horizonMsec;
+
+            // replay the time of each event, using external timer events while replaying
+            boolean isInternalClocking = !runtime.isExternalClockingEnabled();
+            if (isInternalClocking)
+            {
+                runtime.sendEvent(new TimerControlEvent(TimerControlEvent.ClockType.CLOCK_EXTERNAL));
+            }
+            int count = 0;
+            try
+            {
+                count = replay(horizonStart, isInternalClocking);
+                if (scan.checkpointTime > runtime.getCurrentTime())
+                {
+                    runtime.sendEvent(new CurrentTimeEvent(scan.checkpointTime));
+                }
+            }
+            finally
+            {
+                if (isInternalClocking)
+                {
+                    runtime.sendEvent(new TimerControlEvent(TimerControlEvent.ClockType.CLOCK_INTERNAL));
+                }
+            }
+
+            segments.clear();
+            segments.addAll(scan.segments);
+            numRetained = 0;
+            numExpiredInFile = 0;
+            for (Segment segment : segments)
+            {
+                numRetained += segment.count;
+            }
+            expire(horizonStart);
+            isRestored = true;
+            return count;
+        }
+    }
+
+    /**
+     * Returns a message for each started statement that keeps state that may depend on events older than the horizon,
+     * which the journal does not restore.
+     * @return messages, empty when all statements are bounded by the horizon
+     */
+    public List<String> validateHorizon()
+    {
+        return new CheckpointHorizonValidator(epService.getEPAdministrator(), epService.getNamedWindowService(), horizonMsec).validate();
+    }
+
+    /**
+     * Start recording inbound events.
+     * <p>
+     * Unless the journal restored, the writer thread writes a new journal file that replaces an existing journal file
+     * upon the first checkpoint.
+     * @throws IOException when the journal file cannot be opened
+     */
+    public synchronized void start() throws IOException
+    {
+        if (writerThread != null)
+        {
+            return;
+        }
+        synchronized (checkpointLock)
+        {
+            writer = new Writer(isRestored);
+        }
+        String uri = epService.getURI() == null ? "default" : epService.getURI();
+        writerThread = new Thread(writer, "com.espertech.esper.CheckpointJournal-" + uri);
+        writerThread.setDaemon(true);
+        writerThread.start();
+        runtime.setInboundEventRecorder(this);
+    }
+
+    /**
+     * Stop recording inbound events, waiting for the writer thread to write the recorded events.
+     * <p>
+     * Events recorded since the last checkpoint are not replayed by restore unless a checkpoint follows.
+     */
+    public synchronized void stop()
+    {
+        if (writerThread == null)
+        {
+            return;
+        }
+        runtime.setInboundEventRecorder(null);
+        try
+        {
+            queue.put(STOP);
+            writerThread.join();
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+        queue.clear();
+
+        // a restart appends to the journal file unless the first checkpoint did not yet replace the journal file
+        isRestored = !writer.isWritingTemp;
+        writer = null;
+    }
+
+    /**
+     * Writes a checkpoint record after the events recorded so far, waiting for the writer thread to write
+     * and force the journal file to disk.
+     * @throws IOException when the journal file cannot be written
+     */
+    public void checkpoint() throws IOException
+    {
+        synchronized (this)
+        {
+            if (writerThread == null)
+            {
+                throw new IllegalStateException("Journal must be started before taking a checkpoint");
+            }
+        }
+        CheckpointRequest request = new CheckpointRequest(runtime.getCurrentTime());
+        try
+        {
+            queue.put(request);
+            request.latch.await();
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for checkpoint");
+        }
+        if (request.failure != null)
+        {
+            throw request.failure;
+        }
+    }
+
+    /**
+     * Returns the number of events in the journal file that belong to checkpoints within the horizon, as of the last checkpoint or restore.
+     * A checkpoint is within the horizon when its latest event is within the horizon.
+     * @return number of retained events
+     */
+    public int getNumRetained()
+    {
+        return numRetained;
+    }
+
+    public void record(EventBean theEvent)
+    {
+        Object underlying = theEvent.getUnderlying();
+        byte kind;
+        if (underlying instanceof Map)
+        {
+            // copy the map as the application may reuse the map after sending it
+            kind = KIND_MAP;
+            underlying = new HashMap<Object, Object>((Map) underlying);
+        }
+        else if (underlying instanceof Object[])
+        {
+            kind = KIND_OBJECTARRAY;
+            underlying = ((Object[]) underlying).clone();
+        }
+        else
+        {
+            kind = KIND_BEAN;
+        }
+
+        // blocks the sending thread while the writer thread is behind
+        try
+        {
+            queue.put(new Entry(runtime.getCurrentTime(), theEvent.getEventType().getName(), kind, underlying));
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted recording event of type '" + theEvent.getEventType().getName() + "', the event is not journaled");
+        }
+    }
+
+    private int replay(long horizonStart, boolean isInternalClocking) throws IOException
+    {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try
+        {
+            in.readInt();
+            int count = 0;
+            while (true)
+            {
+                byte type;
+                try
+                {
+                    type = in.readByte();
+                }
+                catch (EOFException ex)
+                {
+                    return count;
+                }
+                byte[] body = new byte[in.readInt()];
+                in.readFully(body);
+                if (type != RECORD_EVENT)
+                {
+                    continue;
+                }
+
+                DataInputStream record = new DataInputStream(new ByteArrayInputStream(body));
+                long time = record.readLong();
+                if (time < horizonStart)
+                {
+                    continue;
+                }
+                String eventTypeName = record.readUTF();
+                byte kind = record.readByte();
+                if (time > runtime.getCurrentTime() || (isInternalClocking && count == 0))
+                {
+                    runtime.sendEvent(new CurrentTimeEvent(time));
+                }
+                send(eventTypeName, kind, record);
+                count++;
+            }
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    private void send(String eventTypeName, byte kind, InputStream payload) throws IOException
+    {
+        Object underlying;
+        ObjectInputStream in = new ObjectInputStreamWithTCCL(payload);
+        try
+        {
+            underlying = in.readObject();
+        }
+        catch (ClassNotFoundException ex)
+        {
+            throw new EPException("Failed to read event of type '" + eventTypeName + "' from checkpoint journal: " + ex.getMessage(), ex);
+        }
+        finally
+        {
+            in.close();
+        }
+
+        if (kind == KIND_MAP)
+        {
+            runtime.sendEvent((Map) underlying, eventTypeName);
+        }
+        else if (kind == KIND_OBJECTARRAY)
+        {
+            runtime.sendEvent((Object[]) underlying, eventTypeName);
+        }
+        else
+        {
+            runtime.sendEvent(underlying);
+        }
+    }
+
+    private void expire(long horizonStart)
+    {
+        while (!segments.isEmpty() && segments.peekFirst().lastEventTime < horizonStart)
+        {
+            Segment segment = segments.removeFirst();
+            numRetained -= segment.count;
+            numExpiredInFile += segment.count;
+        }
+    }
+
+    /**
+     * Reads the journal file up to the last complete checkpoint record, returning the checkpoints.
+     */
+    private static ScanResult scan(File journalFile) throws IOException
+    {
+        ScanResult result = new ScanResult();
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)));
+        try
+        {
+            if (in.readInt() != FILE_MAGIC)
+            {
+                throw new IOException("File '" + journalFile + "' is not a checkpoint journal");
+            }
+            long offset = 4;
+            result.checkpointOffset = offset;
+            Segment current = new Segment();
+            while (true)
+            {
+                byte type;
+                byte[] body;
+                try
+                {
+                    type = in.readByte();
+                    body = new byte[in.readInt()];
+                    in.readFully(body);
+                }
+                catch (EOFException ex)
+                {
+                    if (offset < journalFile.length())
+                    {
+                        log.warn("Ignoring incomplete last record of checkpoint journal '" + journalFile + "'");
+                    }
+                    return result;
+                }
+                offset += 5 + body.length;
+
+                long time = new DataInputStream(new ByteArrayInputStream(body)).readLong();
+                if (type == RECORD_EVENT)
+                {
+                    current.count++;
+                    current.lastEventTime = Math.max(current.lastEventTime, time);
+                }
+                else
+                {
+                    if (current.count > 0)
+                    {
+                        result.segments.add(current);
+                    }
+                    current = new Segment();
+                    result.checkpointTime = time;
+                    result.checkpointOffset = offset;
+                }
+            }
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    private static void writeRecord(DataOutputStream out, byte type, ByteArrayOutputStream body) throws IOException
+    {
+        out.writeByte(type);
+        out.writeInt(body.size());
+        body.writeTo(out);
+    }
+
+    /**
+     * Serializes queued events and appends them to the journal file, and handles checkpoints.
+     */
+    private class Writer implements Runnable
+    {
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private final File temp = new File(file.getPath() + ".tmp");
+        private FileOutputStream fileOut;
+        private DataOutputStream out;
+        private boolean isWritingTemp;
+        private Segment current = new Segment();
+        private IOException failure;
+        private boolean isWarnedUnsupported;
+
+        private Writer(boolean isAppend) throws IOException
+        {
+            if (isAppend)
+            {
+                open(file, true);
+            }
+            else
+            {
+                open(temp, false);
+                out.writeInt(FILE_MAGIC);
+                isWritingTemp = true;
+            }
+        }
+
+        public void run()
+        {
+            try
+            {
+                while (true)
+                {
+                    Object item = queue.take();
+                    if (item == STOP)
+                    {
+                        break;
+                    }
+                    if (item instanceof CheckpointRequest)
+                    {
+                        CheckpointRequest request = (CheckpointRequest) item;
+                        try
+                        {
+                            if (failure != null)
+                            {
+                                throw failure;
+                            }
+                            checkpoint(request.checkpointTime);
+                        }
+                        catch (IOException ex)
+                        {
+                            request.failure = ex;
+                        }
+                        request.latch.countDown();
+                        continue;
+                    }
+                    if (failure == null)
+                    {
+                        try
+                        {
+                            write((Entry) item);
+                        }
+                        catch (IOException ex)
+                        {
+                            log.error("Failed to write checkpoint journal '" + file + "': " + ex.getMessage(), ex);
+                            failure = ex;
+                        }
+                    }
+                }
+            }
+            catch (InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+            }
+            finally
+            {
+                try
+                {
+                    out.close();
+                }
+                catch (IOException ex)
+                {
+                    log.warn("Failed to close checkpoint journal '" + file + "': " + ex.getMessage(), ex);
+                }
+            }
+        }
+
+        private void write(Entry entry) throws IOException
+        {
+            body.reset();
+            DataOutputStream record = new DataOutputStream(body);
+            record.writeLong(entry.time);
+            record.writeUTF(entry.eventTypeName);
+            record.writeByte(entry.kind);
+            record.flush();
+            try
+            {
+                ObjectOutputStream objectOut = new ObjectOutputStream(body);
+                objectOut.writeObject(entry.underlying);
+                objectOut.close();
+            }
+            catch (NotSerializableException ex)
+            {
+                if (!isWarnedUnsupported)
+                {
+                    log.warn("Event of type '" + entry.eventTypeName + "' is not serializable and is not journaled: " + ex.getMessage());
+                    isWarnedUnsupported = true;
+                }
+                return;
+            }
+            writeRecord(out, RECORD_EVENT, body);
+            current.count++;
+            current.lastEventTime = Math.max(current.lastEventTime, entry.time);
+        }
+
+        private void checkpoint(long checkpointTime) throws IOException
+        {
+            body.reset();
+            DataOutputStream record = new DataOutputStream(body);
+            record.writeLong(checkpointTime);
+            record.flush();
+            writeRecord(out, RECORD_CHECKPOINT, body);
+            out.flush();
+            fileOut.getFD().sync();
+
+            synchronized (checkpointLock)
+            {
+                if (current.count > 0)
+                {
+                    segments.add(current);
+                    numRetained += current.count;
+                }
+                current = new Segment();
+                long horizonStart = checkpointTime - horizonMsec;
+                expire(horizonStart);
+
+                if (isWritingTemp)
+                {
+                    out.close();
+                    replace();
+                    isWritingTemp = false;
+                }
+                else if (numExpiredInFile > numRetained)
+                {
+                    out.close();
+                    compact(horizonStart);
+                    replace();
+                    numExpiredInFile = 0;
+                }
+                else
+                {
+                    return;
+                }
+                open(file, true);
+            }
+        }
+
+        private void compact(long horizonStart) throws IOException
+        {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            open(temp, false);
+            segments.clear();
+            numRetained = 0;
+            Segment copied = new Segment();
+            try
+            {
+                in.readInt();
+                out.writeInt(FILE_MAGIC);
+                while (true)
+                {
+                    byte type;
+                    try
+                    {
+                        type = in.readByte();
+                    }
+                    catch (EOFException ex)
+                    {
+                        break;
+                    }
+                    byte[] bytes = new byte[in.readInt()];
+                    in.readFully(bytes);
+                    long time = new DataInputStream(new ByteArrayInputStream(bytes)).readLong();
+                    if (type == RECORD_EVENT)
+                    {
+                        if (time < horizonStart)
+                        {
+                            continue;
+                        }
+                        copied.count++;
+                        copied.lastEventTime = Math.max(copied.lastEventTime, time);
+                    }
+                    else if (copied.count > 0)
+                    {
+                        segments.add(copied);
+                        numRetained += copied.count;
+                        copied = new Segment();
+                    }
+                    out.writeByte(type);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+                out.flush();
+                fileOut.getFD().sync();
+            }
+            finally
+            {
+                in.close();
+                out.close();
+            }
+        }
+
+        private void replace() throws IOException
+        {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        private void open(File target, boolean isAppend) throws IOException
+        {
+            fileOut = new FileOutputStream(target, isAppend);
+            out = new DataOutputStream(new BufferedOutputStream(fileOut));
+        }
+    }
+
+    private static class Entry
+    {
+        private final long time;
+        private final String eventTypeName;
+        private final byte kind;
+        private final Object underlying;
+
+        private Entry(long time, String eventTypeName, byte kind, Object underlying)
+        {
+            this.time = time;
+            this.eventTypeName = eventTypeName;
+            this.kind = kind;
+            this.underlying = underlying;
+        }
+    }
+
+    private static class CheckpointRequest
+    {
+        private final long checkpointTime;
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile IOException failure;
+
+        private CheckpointRequest(long checkpointTime)
+        {
+            this.checkpointTime = checkpointTime;
+        }
+    }
+
+    private static class Segment
+    {
+        private int count;
+        private long lastEventTime = Long.MIN_VALUE;
+    }
+
+    private static class ScanResult
+    {
+        private final ArrayDeque<Segment> segments = new ArrayDeque<Segment>();
+        private long checkpointTime = Long.MIN_VALUE;
+        private long checkpointOffset;
+    }
+}
@@ -30,6 +30,8 @@ import com.espertech.esper.core.service.StreamJoinAnalysisResult;
 import com.espertech.esper.core.start.*;
 import com.espertech.esper.epl.agg.service.AggregationService;
 import com.espertech.esper.epl.core.*;
+import com.espertech.esper.epl.expression.codegen.ExprNodeCompiler;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNode;
 import com.espertech.esper.epl.expression.core.ExprNodeUtility;
 import com.espertech.esper.epl.expression.prev.ExprPreviousEvalStrategy;
@@ -85,6 +87,7 @@ public class StatementAgentInstanceFactorySelect extends StatementAgentInstanceF
     protected final SubSelectStrategyCollection subSelectStrategyCollection;
     protected final ViewResourceDelegateVerified viewResourceDelegate;
     protected final OutputProcessViewFactory outputProcessViewFactory;
+    protected final ExprEvaluator filterEvaluator;
 
     public StatementAgentInstanceFactorySelect(int numStreams, ViewableActivator[] eventStreamParentViewableActivators, StatementContext statementContext, StatementSpecCompiled statementSpec, EPServicesContext services, StreamTypeService typeService, ViewFactoryChain[] unmaterializedViewChain, ResultSetProcessorFactoryDesc resultSetProcessorFactoryDesc, StreamJoinAnalysisResult joinAnalysisResult, boolean recoveringResilient, JoinSetComposerPrototype joinSetComposerPrototype, SubSelectStrategyCollection subSelectStrategyCollection, ViewResourceDelegateVerified viewResourceDelegate, OutputProcessViewFactory outputProcessViewFactory) {
         super(statementSpec.getAnnotations());
@@ -101,6 +104,17 @@ public class StatementAgentInstanceFactorySelect extends StatementAgentInstanceF
         this.subSelectStrategyCollection = subSelectStrategyCollection;
         this.viewResourceDelegate = viewResourceDelegate;
         this.outputProcessViewFactory = outputProcessViewFactory;
+
+        ExprNode filterRootNode = statementSpec.getFilterRootNode();
+        if (filterRootNode == null) {
+            this.filterEvaluator = null;
+        }
+        else if (ExprNodeCompiler.isEnabled(statementSpec.getAnnotations(), services.getEngineImportService())) {
+            this.filterEvaluator = ExprNodeCompiler.compile(filterRootNode, filterRootNode.getExprEvaluator());
+        }
+        else {
+            this.filterEvaluator = filterRootNode.getExprEvaluator();
+        }
     }
 
     public ViewResourceDelegateVerified getViewResourceDelegate() {
@@ -364,7 +378,7 @@ public class StatementAgentInstanceFactorySelect extends StatementAgentInstanceF
         // Add filter view that evaluates the filter expression
         if (statementSpec.getFilterRootNode() != null)
         {
-            FilterExprView filterView = new FilterExprView(statementSpec.getFilterRootNode(), statementSpec.getFilterRootNode().getExprEvaluator(), agentInstanceContext);
+            FilterExprView filterView = new FilterExprView(statementSpec.getFilterRootNode(), filterEvaluator, agentInstanceContext);
             finalView.addView(filterView);
             finalView = filterView;
         }
@@ -18,6 +18,7 @@ import com.espertech.esper.core.context.util.StatementAgentInstanceUtil;
 import com.espertech.esper.epl.spec.ContextDetailHashItem;
 
 import java.util.*;
+import java.util.concurrent.Executor;
 
 public class ContextControllerHash implements ContextController, ContextControllerHashedInstanceCallback {
 
@@ -30,6 +31,7 @@ public class ContextControllerHash implements ContextController, ContextControll
 
     protected ContextInternalFilterAddendum activationFilterAddendum;
     protected int currentSubpathId;
+    protected ContextControllerHashWorkers workers;
 
     public ContextControllerHash(int pathId, ContextControllerLifecycleCallback activationCallback, ContextControllerHashFactory factory) {
         this.pathId = pathId;
@@ -97,6 +99,10 @@ public class ContextControllerHash implements ContextController, ContextControll
         ContextControllerFactoryContext factoryContext = factory.getFactoryContext();
         this.activationFilterAddendum = activationFilterAddendum;
 
+        if (factory.getPartitionThreads() > 0 && workers == null) {
+            workers = new ContextControllerHashWorkers(factoryContext.getServicesContext().getEngineURI(), factoryContext.getContextName(), factory.getPartitionThreads(), factory.getPartitionQueueCapacity());
+        }
+
         if (factoryContext.getNestingLevel() == 1) {
             controllerState = ContextControllerStateUtil.getRecoveryStates(factory.getStateCache(), factoryContext.getOutermostContextName());
         }
@@ -176,6 +182,16 @@ public class ContextControllerHash implements ContextController, ContextControll
         factory.getStateCache().addContextPath(factoryContext.getOutermostContextName(), factoryContext.getNestingLevel(), pathId, currentSubpathId, handle.getContextPartitionOrPathId(), id, factory.getBinding());
     }
 
+    /**
+     * Returns the worker executing the context partition for the hash code, or null when
+     * context partitions execute on the sending thread.
+     * @param hashCode context partition hash code
+     * @return worker or null
+     */
+    public Executor getPartitionWorker(int hashCode) {
+        return workers == null ? null : workers.getWorker(hashCode);
+    }
+
     public ContextControllerFactory getFactory() {
         return factory;
     }
@@ -191,6 +207,10 @@ public class ContextControllerHash implements ContextController, ContextControll
         }
         partitionKeys.clear();
         filterCallbacks.clear();
+        if (workers != null) {
+            workers.shutdown();
+            workers = null;
+        }
         factory.getStateCache().removeContextParentPath(factoryContext.getOutermostContextName(), factoryContext.getNestingLevel(), pathId);
     }
 
@@ -13,6 +13,8 @@ package com.espertech.esper.core.context.mgr;
 
 import com.espertech.esper.client.EventPropertyGetter;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.annotation.Hint;
+import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.client.context.ContextPartitionIdentifier;
 import com.espertech.esper.client.context.ContextPartitionIdentifierHash;
 import com.espertech.esper.collection.Pair;
@@ -31,6 +33,7 @@ import com.espertech.esper.event.EventTypeUtility;
 import com.espertech.esper.filter.*;
 
 import java.io.StringWriter;
+import java.lang.annotation.Annotation;
 import java.util.*;
 
 public class ContextControllerHashFactory extends ContextControllerFactoryBase implements ContextControllerFactory {
@@ -41,6 +44,8 @@ public class ContextControllerHashFactory extends ContextControllerFactoryBase i
     private final ContextStatePathValueBinding binding;
 
     private Map<String, Object> contextBuiltinProps;
+    private int partitionThreads;
+    private int partitionQueueCapacity;
 
     public ContextControllerHashFactory(ContextControllerFactoryContext factoryContext, ContextDetailHash hashedSpec, List<FilterSpecCompiled> filtersSpecsNestedContexts, ContextStateCache stateCache) {
         super(factoryContext);
@@ -65,6 +70,8 @@ public class ContextControllerHashFactory extends ContextControllerFactoryBase i
     public void validateFactory() throws ExprValidationException {
         validatePopulateContextDesc();
         contextBuiltinProps = ContextPropertyEventType.getHashType();
+        partitionThreads = validatePartitionThreads();
+        partitionQueueCapacity = validatePartitionQueueCapacity();
     }
 
     public ContextControllerStatementCtxCache validateStatement(ContextControllerStatementBase statement) throws ExprValidationException {
@@ -128,6 +135,22 @@ public class ContextControllerHashFactory extends ContextControllerFactoryBase i
         return hashedSpec;
     }
 
+    /**
+     * Returns the number of worker threads executing context partitions, or zero when partitions execute on the sending thread.
+     * @return number of partition threads
+     */
+    public int getPartitionThreads() {
+        return partitionThreads;
+    }
+
+    /**
+     * Returns the maximum number of events queued for each worker thread.
+     * @return queue capacity
+     */
+    public int getPartitionQueueCapacity() {
+        return partitionQueueCapacity;
+    }
+
     public Map<String, Object> getContextBuiltinProps() {
         return contextBuiltinProps;
     }
@@ -148,6 +171,58 @@ public class ContextControllerHashFactory extends ContextControllerFactoryBase i
         return itemEventTypes;
     }
 
+    private int validatePartitionThreads() throws ExprValidationException {
+        Annotation[] annotations = factoryContext.getAgentInstanceContextCreate().getStatementContext().getAnnotations();
+        Hint hint = HintEnum.PARTITION_THREADS.getHint(annotations);
+        if (hint == null) {
+            return 0;
+        }
+        if (!factoryContext.getContextName().equals(factoryContext.getOutermostContextName())) {
+            throw new ExprValidationException("Hint '" + HintEnum.PARTITION_THREADS.getValue() + "' is not supported for nested contexts");
+        }
+        String value = HintEnum.PARTITION_THREADS.getHintAssignedValue(hint);
+        if (value == null) {
+            throw new ExprValidationException("Required hint value for hint '" + HintEnum.PARTITION_THREADS.getValue() + "' has not been provided");
+        }
+        int numThreads;
+        try {
+            numThreads = Integer.parseInt(value.trim());
+        }
+        catch (NumberFormatException ex) {
+            numThreads = 0;
+        }
+        if (numThreads < 1) {
+            throw new ExprValidationException("Hint '" + HintEnum.PARTITION_THREADS.getValue() + "' requires a positive number of threads but received '" + value + "'");
+        }
+        return Math.min(numThreads, hashedSpec.getGranularity());
+    }
+
+    private int validatePartitionQueueCapacity() throws ExprValidationException {
+        Annotation[] annotations = factoryContext.getAgentInstanceContextCreate().getStatementContext().getAnnotations();
+        Hint hint = HintEnum.PARTITION_QUEUE_CAPACITY.getHint(annotations);
+        if (hint == null) {
+            return ContextControllerHashWorkers.DEFAULT_QUEUE_CAPACITY;
+        }
+        if (partitionThreads == 0) {
+            throw new ExprValidationException("Hint '" + HintEnum.PARTITION_QUEUE_CAPACITY.getValue() + "' requires hint '" + HintEnum.PARTITION_THREADS.getValue() + "'");
+        }
+        String value = HintEnum.PARTITION_QUEUE_CAPACITY.getHintAssignedValue(hint);
+        if (value == null) {
+            throw new ExprValidationException("Required hint value for hint '" + HintEnum.PARTITION_QUEUE_CAPACITY.getValue() + "' has not been provided");
+        }
+        int capacity;
+        try {
+            capacity = Integer.parseInt(value.trim());
+        }
+        catch (NumberFormatException ex) {
+            capacity = 0;
+        }
+        if (capacity < 1) {
+            throw new ExprValidationException("Hint '" + HintEnum.PARTITION_QUEUE_CAPACITY.getValue() + "' requires a positive queue capacity but received '" + value + "'");
+        }
+        return capacity;
+    }
+
     private void validatePopulateContextDesc() throws ExprValidationException {
 
         if (hashedSpec.getItems().isEmpty()) {
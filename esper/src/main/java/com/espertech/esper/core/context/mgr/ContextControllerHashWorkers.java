@@ -0,0 +1,116 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.core.context.mgr;
+
+import com.espertech.esper.core.thread.EngineThreadFactory;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker threads for a hash segmented context that executes its context partitions in parallel.
+ * <p>
+ * Each hash code is pinned to a single worker thread so that the events for a context partition
+ * are processed in the order received and by one thread only.
+ * <p>
+ * Each worker thread has a bounded queue. A thread that is not a worker thread blocks while the queue is full.
+ * A worker thread that routes an event to a worker with a full queue processes the event itself, as workers waiting
+ * for each other's queues could otherwise deadlock.
+ * <p>
+ * Time advances on the timer thread and is therefore not ordered relative to the events queued for the workers.
+ */
+public class ContextControllerHashWorkers {
+
+    private static final Log log = LogFactory.getLog(ContextControllerHashWorkers.class);
+
+    /**
+     * Default capacity of the queue of each worker thread.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+
+    private final ThreadPoolExecutor[] workers;
+
+    public ContextControllerHashWorkers(String engineURI, String contextName, int numThreads, int queueCapacity) {
+        if (engineURI == null) {
+            engineURI = "default";
+        }
+        if (log.isInfoEnabled()) {
+            log.info("Starting " + numThreads + " partition threads with a queue capacity of " + queueCapacity + " for context '" + contextName + "'");
+        }
+        String name = "ContextPartition-" + contextName;
+        ThreadGroup threadGroup = new ThreadGroup("com.espertech.esper." + engineURI + "-" + name);
+        EngineThreadFactory threadFactory = new EngineThreadFactory(engineURI, name, threadGroup, Thread.NORM_PRIORITY);
+        RejectedExecutionHandler rejectedHandler = new BlockingUnlessWorkerPolicy(threadGroup);
+        workers = new ThreadPoolExecutor[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            workers[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(queueCapacity), threadFactory, rejectedHandler);
+            workers[i].prestartAllCoreThreads();
+        }
+    }
+
+    /**
+     * Returns the worker that executes the context partition for the hash code.
+     * @param hashCode context partition hash code, a non-negative number less than the granularity
+     * @return worker
+     */
+    public Executor getWorker(int hashCode) {
+        return workers[hashCode % workers.length];
+    }
+
+    public int getNumThreads() {
+        return workers.length;
+    }
+
+    /**
+     * Stop accepting work; already-queued work completes and the threads then exit.
+     */
+    public void shutdown() {
+        for (ThreadPoolExecutor worker : workers) {
+            worker.shutdown();
+        }
+    }
+
+    /**
+     * Waits for queue space when the queue of a worker is full, unless the submitting thread is itself a worker thread,
+     * which executes the work instead.
+     */
+    private static class BlockingUnlessWorkerPolicy implements RejectedExecutionHandler {
+        private final ThreadGroup threadGroup;
+
+        private BlockingUnlessWorkerPolicy(ThreadGroup threadGroup) {
+            this.threadGroup = threadGroup;
+        }
+
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Context partition worker has been shut down");
+            }
+            if (Thread.currentThread().getThreadGroup() == threadGroup) {
+                runnable.run();
+                return;
+            }
+            try {
+                executor.getQueue().put(runnable);
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted waiting for the queue of a context partition worker", ex);
+            }
+        }
+    }
+}
@@ -29,6 +29,7 @@ import com.espertech.esper.filter.FilterSpecLookupable;
 import com.espertech.esper.filter.FilterValueSetParam;
 
 import java.util.*;
+import java.util.concurrent.Executor;
 
 public class ContextManagerImpl implements ContextManager, ContextControllerLifecycleCallback, ContextIteratorHandler, FilterFaultHandler {
 
@@ -417,8 +418,14 @@ public class ContextManagerImpl implements ContextManager, ContextControllerLife
         contextProperties.put(ContextPropertyEventType.PROP_CTX_ID, contextId);
         MappedEventBean contextBean = (MappedEventBean) servicesContext.getEventAdapterService().adapterForTypedMap(contextProperties, contextDescriptor.getContextPropertyRegistry().getContextEventType());
 
+        // determine worker thread, if context partitions execute in parallel
+        Executor partitionWorker = null;
+        if (originator instanceof ContextControllerHash) {
+            partitionWorker = ((ContextControllerHash) originator).getPartitionWorker((Integer) partitionKey);
+        }
+
         // activate
-        StatementAgentInstanceFactoryResult result = StatementAgentInstanceUtil.start(servicesContext, statementDesc.getStatement(), false, contextId, contextBean, proxy, isRecoveringResilient);
+        StatementAgentInstanceFactoryResult result = StatementAgentInstanceUtil.start(servicesContext, statementDesc.getStatement(), false, contextId, contextBean, proxy, isRecoveringResilient, partitionWorker);
 
         // save only instance data
         return new AgentInstance(result.getStopCallback(), result.getAgentInstanceContext(), result.getFinalView());
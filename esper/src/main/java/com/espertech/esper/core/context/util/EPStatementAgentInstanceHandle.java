@@ -15,6 +15,8 @@ import com.espertech.esper.core.service.*;
 import com.espertech.esper.core.service.multimatch.MultiMatchHandler;
 import com.espertech.esper.filter.FilterFaultHandler;
 
+import java.util.concurrent.Executor;
+
 public class EPStatementAgentInstanceHandle {
     private final EPStatementHandle statementHandle;
     private StatementAgentInstanceLock statementAgentInstanceLock = null;
@@ -25,6 +27,7 @@ public class EPStatementAgentInstanceHandle {
 
     private final int hashCode;
     private FilterFaultHandler filterFaultHandler;
+    private Executor partitionWorker;
 
     public EPStatementAgentInstanceHandle(EPStatementHandle statementHandle, StatementAgentInstanceLock statementAgentInstanceLock, int agentInstanceId, StatementAgentInstanceFilterVersion statementFilterVersion) {
         this.statementHandle = statementHandle;
@@ -128,6 +131,18 @@ public class EPStatementAgentInstanceHandle {
         }
     }
 
+    /**
+     * Returns the worker thread that executes the agent instance, or null when the agent instance executes on the sending thread.
+     * @return worker
+     */
+    public Executor getPartitionWorker() {
+        return partitionWorker;
+    }
+
+    public void setPartitionWorker(Executor partitionWorker) {
+        this.partitionWorker = partitionWorker;
+    }
+
     public boolean isDestroyed() {
         return destroyed;
     }
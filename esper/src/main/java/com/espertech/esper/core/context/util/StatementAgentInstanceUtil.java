@@ -42,6 +42,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.util.*;
+import java.util.concurrent.Executor;
 
 public class StatementAgentInstanceUtil {
 
@@ -144,7 +145,8 @@ public class StatementAgentInstanceUtil {
                                                      int agentInstanceId,
                                                      MappedEventBean agentInstanceProperties,
                                                      AgentInstanceFilterProxy agentInstanceFilterProxy,
-                                                     boolean isRecoveringResilient)
+                                                     boolean isRecoveringResilient,
+                                                     Executor optionalPartitionWorker)
     {
         StatementContext statementContext = statement.getStatementContext();
 
@@ -163,6 +165,12 @@ public class StatementAgentInstanceUtil {
         // create handle that comtains lock for use in scheduling and filter callbacks
         EPStatementAgentInstanceHandle agentInstanceHandle = new EPStatementAgentInstanceHandle(statementContext.getEpStatementHandle(), agentInstanceLock, agentInstanceId, filterVersion);
 
+        // the agent instance executes on its own worker thread, listener delivery is then serialized across workers
+        if (optionalPartitionWorker != null) {
+            agentInstanceHandle.setPartitionWorker(optionalPartitionWorker);
+            statementContext.getStatementResultService().setSerializeDispatch();
+        }
+
         // create agent instance context
         AgentInstanceScriptContext agentInstanceScriptContext = null;
         if (statementContext.getDefaultAgentInstanceScriptContext() != null) {
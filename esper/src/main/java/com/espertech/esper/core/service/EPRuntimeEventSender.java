@@ -21,6 +21,12 @@ public interface EPRuntimeEventSender
      */
     public void processWrappedEvent(EventBean eventBean);
 
+    /**
+     * Equivalent to the processWrappedEvent method for each event of the batch, in the order of the array.
+     * @param eventBeans is the event objects wrapped by event beans providing the event metadata
+     */
+    public void processWrappedEvents(EventBean[] eventBeans);
+
     /**
      * For processing a routed event.
      * @param theEvent routed event
@@ -72,6 +72,7 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
     protected boolean isUsingExternalClocking;
     protected boolean isPrioritized;
     protected volatile UnmatchedListener unmatchedListener;
+    protected volatile InboundEventRecorder inboundEventRecorder;
     protected AtomicLong routedInternal;
     protected AtomicLong routedExternal;
     protected EventRenderer eventRenderer;
@@ -207,7 +208,15 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         // Process event
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
         {
-            services.getThreadingService().submitInbound(new InboundUnitSendEvent(theEvent, this));
+            if (services.getThreadingService().isInboundPartitioned() && !(theEvent instanceof TimerEvent))
+            {
+                EventBean eventBean = theEvent instanceof EventBean ? (EventBean) theEvent : wrapEvent(theEvent);
+                services.getThreadingService().submitInbound(new InboundUnitSendWrapped(eventBean, this));
+            }
+            else
+            {
+                services.getThreadingService().submitInbound(new InboundUnitSendEvent(theEvent, this));
+            }
         }
         else
         {
@@ -215,6 +224,43 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         }
     }
 
+    public void sendEvents(Object[] events) throws EPException
+    {
+        if (events == null)
+        {
+            throw new IllegalArgumentException("Invalid null event array");
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
+        {
+            for (Object theEvent : events)
+            {
+                sendEvent(theEvent);
+            }
+            return;
+        }
+
+        // Wrap events, processing time events in order as part of the batch
+        EventBean[] eventBeans = new EventBean[events.length];
+        int count = 0;
+        for (Object theEvent : events)
+        {
+            if (theEvent == null)
+            {
+                throw new IllegalArgumentException("Invalid null event object");
+            }
+            if (theEvent instanceof TimerEvent)
+            {
+                processWrappedEvents(eventBeans, count);
+                count = 0;
+                processTimeEvent((TimerEvent) theEvent);
+                continue;
+            }
+            eventBeans[count++] = theEvent instanceof EventBean ? (EventBean) theEvent : wrapEvent(theEvent);
+        }
+        processWrappedEvents(eventBeans, count);
+    }
+
     public void sendEvent(org.w3c.dom.Node document) throws EPException
     {
         if (document == null)
@@ -231,7 +277,14 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         // Process event
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
         {
-            services.getThreadingService().submitInbound(new InboundUnitSendDOM(document, services, this));
+            if (services.getThreadingService().isInboundPartitioned())
+            {
+                services.getThreadingService().submitInbound(new InboundUnitSendWrapped(wrapEvent(document), this));
+            }
+            else
+            {
+                services.getThreadingService().submitInbound(new InboundUnitSendDOM(document, services, this));
+            }
         }
         else
         {
@@ -277,7 +330,14 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
 
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
         {
-            services.getThreadingService().submitInbound(new InboundUnitSendMap(map, mapEventTypeName, services, this));
+            if (services.getThreadingService().isInboundPartitioned())
+            {
+                services.getThreadingService().submitInbound(new InboundUnitSendWrapped(wrapEvent(map, mapEventTypeName), this));
+            }
+            else
+            {
+                services.getThreadingService().submitInbound(new InboundUnitSendMap(map, mapEventTypeName, services, this));
+            }
         }
         else
         {
@@ -301,7 +361,14 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
 
         if ((ThreadingOption.isThreadingEnabled) && (services.getThreadingService().isInboundThreading()))
         {
-            services.getThreadingService().submitInbound(new InboundUnitSendObjectArray(propertyValues, objectArrayEventTypeName, services, this));
+            if (services.getThreadingService().isInboundPartitioned())
+            {
+                services.getThreadingService().submitInbound(new InboundUnitSendWrapped(wrapEvent(propertyValues, objectArrayEventTypeName), this));
+            }
+            else
+            {
+                services.getThreadingService().submitInbound(new InboundUnitSendObjectArray(propertyValues, objectArrayEventTypeName, services, this));
+            }
         }
         else
         {
@@ -465,6 +532,12 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
     {
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qStimulantEvent(eventBean, services.getEngineURI());}
 
+        InboundEventRecorder recorder = inboundEventRecorder;
+        if (recorder != null)
+        {
+            recorder.record(eventBean);
+        }
+
         if (internalEventRouter.isHasPreprocessing())
         {
             eventBean = internalEventRouter.preprocess(eventBean, engineFilterAndDispatchTimeContext);
@@ -502,6 +575,81 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aStimulantEvent();}
     }
 
+    public void processWrappedEvents(EventBean[] eventBeans)
+    {
+        processWrappedEvents(eventBeans, eventBeans.length);
+    }
+
+    private void processWrappedEvents(EventBean[] eventBeans, int count)
+    {
+        if (InstrumentationHelper.ENABLED || internalEventRouter.isHasPreprocessing())
+        {
+            for (int i = 0; i < count; i++)
+            {
+                processWrappedEvent(eventBeans[i]);
+            }
+            return;
+        }
+
+        InboundEventRecorder recorder = inboundEventRecorder;
+        if (recorder != null)
+        {
+            for (int i = 0; i < count; i++)
+            {
+                recorder.record(eventBeans[i]);
+            }
+        }
+
+        int index = 0;
+        while (index < count)
+        {
+            index = processMatchesBatch(eventBeans, index, count);
+
+            // Dispatch results to listeners and work off the event queue, outside of the read-lock, as for a single event
+            dispatch();
+            processThreadWorkQueue();
+        }
+    }
+
+    /**
+     * Processes events of the batch starting at the index under a single acquisition of the engine lock,
+     * for as long as processing leaves no results to dispatch and no work queued for the thread.
+     * @param eventBeans events
+     * @param index index of the first event to process
+     * @param count number of events
+     * @return index of the next event to process
+     */
+    private int processMatchesBatch(EventBean[] eventBeans, int index, int count)
+    {
+        DualWorkQueue queues = threadWorkQueue.getThreadQueue();
+        services.getEventProcessingRWLock().acquireReadLock();
+        try
+        {
+            while (index < count)
+            {
+                processMatches(eventBeans[index++]);
+
+                if (!services.getDispatchService().isEmpty() ||
+                    !services.getNamedWindowService().isDispatchEmpty() ||
+                    !queues.getFrontQueue().isEmpty() ||
+                    !queues.getBackQueue().isEmpty())
+                {
+                    break;
+                }
+            }
+        }
+        catch (RuntimeException ex)
+        {
+            matchesArrayThreadLocal.get().clear();
+            throw new EPException(ex);
+        }
+        finally
+        {
+            services.getEventProcessingRWLock().releaseReadLock();
+        }
+        return index;
+    }
+
     private void processTimeEvent(TimerEvent theEvent)
     {
         if (theEvent instanceof TimerControlEvent)
@@ -1007,7 +1155,12 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
                 continue;
             }
 
-            if ((MetricReportingPath.isMetricsEnabled) && (handle.getStatementHandle().getMetricsHandle().isEnabled()))
+            // Context partitions pinned to a worker thread are processed by that thread, in order.
+            if (handle.getPartitionWorker() != null)
+            {
+                handle.getPartitionWorker().execute(new RouteUnitSingle(this, handleCallback, theEvent, version));
+            }
+            else if ((MetricReportingPath.isMetricsEnabled) && (handle.getStatementHandle().getMetricsHandle().isEnabled()))
             {
                 long cpuTimeBefore = MetricUtil.getCPUCurrentThread();
                 long wallTimeBefore = MetricUtil.getWall();
@@ -1043,7 +1196,11 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
             EPStatementAgentInstanceHandle handle = entry.getKey();
             Object callbackList = entry.getValue();
 
-            if ((MetricReportingPath.isMetricsEnabled) && (handle.getStatementHandle().getMetricsHandle().isEnabled()))
+            if (handle.getPartitionWorker() != null)
+            {
+                handle.getPartitionWorker().execute(new RouteUnitMultiple(this, callbackList, theEvent, handle, version));
+            }
+            else if ((MetricReportingPath.isMetricsEnabled) && (handle.getStatementHandle().getMetricsHandle().isEnabled()))
             {
                 long cpuTimeBefore = MetricUtil.getCPUCurrentThread();
                 long wallTimeBefore = MetricUtil.getWall();
@@ -1372,6 +1529,11 @@ public class EPRuntimeImpl implements EPRuntimeSPI, EPRuntimeEventSender, TimerC
         this.unmatchedListener = listener;
     }
 
+    public void setInboundEventRecorder(InboundEventRecorder recorder)
+    {
+        this.inboundEventRecorder = recorder;
+    }
+
     public void setVariableValue(String variableName, Object variableValue) throws EPException
     {
         VariableMetaData metaData = services.getVariableService().getVariableMetaData(variableName);
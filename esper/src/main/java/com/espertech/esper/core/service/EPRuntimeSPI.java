@@ -46,6 +46,12 @@ public interface EPRuntimeSPI extends EPRuntime
 
     public void destroy();
 
+    /**
+     * Sets a recorder that receives each inbound event before processing, or null to remove the recorder.
+     * @param recorder to set
+     */
+    public void setInboundEventRecorder(InboundEventRecorder recorder);
+
     public Map<String, Long> getStatementNearestSchedules();
 
     /**
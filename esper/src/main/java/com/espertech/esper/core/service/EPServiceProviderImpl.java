@@ -16,6 +16,7 @@ import com.espertech.esper.core.thread.ThreadingService;
 import com.espertech.esper.epl.core.EngineImportService;
 import com.espertech.esper.epl.metric.MetricReportingPath;
 import com.espertech.esper.epl.metric.MetricReportingService;
+import com.espertech.esper.epl.metric.StatementFootprintJMX;
 import com.espertech.esper.epl.named.NamedWindowService;
 import com.espertech.esper.epl.spec.SelectClauseStreamSelectorEnum;
 import com.espertech.esper.epl.table.mgmt.TableService;
@@ -689,12 +690,15 @@ public class EPServiceProviderImpl implements EPServiceProviderSPI
         CommonJMXUtil.registerMbean(services.getSchedulingService(), scheduleName);
         MetricName runtimeName = MetricNameFactory.name(services.getEngineURI(), "runtime");
         CommonJMXUtil.registerMbean(runtime, runtimeName);
+        MetricName footprintName = MetricNameFactory.name(services.getEngineURI(), "footprint");
+        CommonJMXUtil.registerMbean(new StatementFootprintJMX(services.getStatementLifecycleSvc()), footprintName);
     }
 
     private synchronized void destroyEngineMetrics(String engineURI) {
         CommonJMXUtil.unregisterMbean(MetricNameFactory.name(engineURI, "filter"));
         CommonJMXUtil.unregisterMbean(MetricNameFactory.name(engineURI, "schedule"));
         CommonJMXUtil.unregisterMbean(MetricNameFactory.name(engineURI, "runtime"));
+        CommonJMXUtil.unregisterMbean(MetricNameFactory.name(engineURI, "footprint"));
     }
 
     /**
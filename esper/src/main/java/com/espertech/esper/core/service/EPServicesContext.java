@@ -21,6 +21,7 @@ import com.espertech.esper.dispatch.DispatchService;
 import com.espertech.esper.dispatch.DispatchServiceProvider;
 import com.espertech.esper.epl.core.EngineImportService;
 import com.espertech.esper.epl.core.EngineSettingsService;
+import com.espertech.esper.epl.db.DataCacheSharedService;
 import com.espertech.esper.epl.db.DatabaseConfigService;
 import com.espertech.esper.epl.declexpr.ExprDeclaredService;
 import com.espertech.esper.epl.metric.MetricReportingServiceSPI;
@@ -61,6 +62,7 @@ public final class EPServicesContext
     private EngineImportService engineImportService;
     private EngineSettingsService engineSettingsService;
     private DatabaseConfigService databaseConfigService;
+    private DataCacheSharedService dataCacheSharedService;
     private PluggableObjectCollection plugInViews;
     private StatementLockFactory statementLockFactory;
     private ManagedReadWriteLock eventProcessingRWLock;
@@ -110,6 +112,7 @@ public final class EPServicesContext
      * @param schedulingService service to get time and schedule callbacks
      * @param eventAdapterService service to resolve event types
      * @param databaseConfigService service to resolve a database name to database connection factory and configs
+     * @param dataCacheSharedService registry of poll result caches shared between statements
      * @param plugInViews resolves view namespace and name to view factory class
      * @param statementLockFactory creates statement-level locks
      * @param eventProcessingRWLock is the engine lock for statement management
@@ -141,6 +144,7 @@ public final class EPServicesContext
                              EngineImportService engineImportService,
                              EngineSettingsService engineSettingsService,
                              DatabaseConfigService databaseConfigService,
+                             DataCacheSharedService dataCacheSharedService,
                              PluggableObjectCollection plugInViews,
                              StatementLockFactory statementLockFactory,
                              ManagedReadWriteLock eventProcessingRWLock,
@@ -187,6 +191,7 @@ public final class EPServicesContext
         this.engineImportService = engineImportService;
         this.engineSettingsService = engineSettingsService;
         this.databaseConfigService = databaseConfigService;
+        this.dataCacheSharedService = dataCacheSharedService;
         this.filterService = filterService;
         this.timerService = timerService;
         this.dispatchService = DispatchServiceProvider.newService();
@@ -352,6 +357,15 @@ public final class EPServicesContext
         return databaseConfigService;
     }
 
+    /**
+     * Returns the registry of poll result caches shared between statements.
+     * @return shared cache registry
+     */
+    public DataCacheSharedService getDataCacheSharedService()
+    {
+        return dataCacheSharedService;
+    }
+
     /**
      * Information to resolve plug-in view namespace and name.
      * @return plug-in view information
@@ -442,6 +456,10 @@ public final class EPServicesContext
         {
             metricsReportingService.destroy();
         }
+        if (dataCacheSharedService != null)
+        {
+            dataCacheSharedService.destroy();
+        }
         if (threadingService != null)
         {
             threadingService.destroy();
@@ -495,6 +513,7 @@ public final class EPServicesContext
         this.engineImportService = null;
         this.engineSettingsService = null;
         this.databaseConfigService = null;
+        this.dataCacheSharedService = null;
         this.filterService = null;
         this.timerService = null;
         this.dispatchService = null;
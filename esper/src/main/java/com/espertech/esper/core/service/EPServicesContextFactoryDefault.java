@@ -27,6 +27,8 @@ import com.espertech.esper.epl.core.EngineImportException;
 import com.espertech.esper.epl.core.EngineImportService;
 import com.espertech.esper.epl.core.EngineImportServiceImpl;
 import com.espertech.esper.epl.core.EngineSettingsService;
+import com.espertech.esper.epl.db.DataCacheSharedService;
+import com.espertech.esper.epl.db.DataCacheSharedServiceImpl;
 import com.espertech.esper.epl.db.DatabaseConfigService;
 import com.espertech.esper.epl.db.DatabaseConfigServiceImpl;
 import com.espertech.esper.epl.declexpr.ExprDeclaredServiceImpl;
@@ -101,11 +103,12 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
         ManagedReadWriteLock eventProcessingRWLock = new ManagedReadWriteLock("EventProcLock", false);
 
         TimeSourceService timeSourceService = makeTimeSource(configSnapshot);
-        SchedulingServiceSPI schedulingService = SchedulingServiceProvider.newService(timeSourceService);
+        SchedulingServiceSPI schedulingService = SchedulingServiceProvider.newService(configSnapshot.getEngineDefaults().getExecution().getSchedulingServiceProfile(), timeSourceService);
         SchedulingMgmtService schedulingMgmtService = new SchedulingMgmtServiceImpl();
         EngineImportService engineImportService = makeEngineImportService(configSnapshot);
         EngineSettingsService engineSettingsService = new EngineSettingsService(configSnapshot.getEngineDefaults(), configSnapshot.getPlugInEventTypeResolutionURIs());
-        DatabaseConfigService databaseConfigService = makeDatabaseRefService(configSnapshot, schedulingService, schedulingMgmtService);
+        DataCacheSharedService dataCacheSharedService = new DataCacheSharedServiceImpl(schedulingService);
+        DatabaseConfigService databaseConfigService = makeDatabaseRefService(configSnapshot, schedulingService, schedulingMgmtService, dataCacheSharedService);
 
         PluggableObjectCollection plugInViews = new PluggableObjectCollection();
         plugInViews.addViews(configSnapshot.getPlugInViews(), configSnapshot.getPlugInVirtualDataWindows());
@@ -188,7 +191,7 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
 
         // New services context
         EPServicesContext services = new EPServicesContext(epServiceProvider.getURI(), schedulingService,
-                eventAdapterService, engineImportService, engineSettingsService, databaseConfigService, plugInViews,
+                eventAdapterService, engineImportService, engineSettingsService, databaseConfigService, dataCacheSharedService, plugInViews,
                 statementLockFactory, eventProcessingRWLock, null, jndiContext, statementContextFactory,
                 plugInPatternObj, timerService, filterService, streamFactoryService,
                 namedWindowService, variableService, tableService, timeSourceService, valueAddEventService, metricsReporting, statementEventTypeRef,
@@ -536,7 +539,7 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
     {
         ConfigurationEngineDefaults.Expression expression = configSnapshot.getEngineDefaults().getExpression();
         EngineImportServiceImpl engineImportService = new EngineImportServiceImpl(expression.isExtendedAggregation(),
-                expression.isUdfCache(), expression.isDuckTyping(),
+                expression.isUdfCache(), expression.isDuckTyping(), expression.isCompileExpressions(),
                 configSnapshot.getEngineDefaults().getLanguage().isSortUsingCollator(),
                 configSnapshot.getEngineDefaults().getExpression().getMathContext(),
                 configSnapshot.getEngineDefaults().getExpression().getTimeZone());
@@ -578,11 +581,13 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
      * @param configSnapshot is the config snapshot
      * @param schedulingService is the timer stuff
      * @param schedulingMgmtService for statement schedule management
+     * @param dataCacheSharedService for caches shared between statements
      * @return database config svc
      */
     protected static DatabaseConfigService makeDatabaseRefService(ConfigurationInformation configSnapshot,
                                                           SchedulingService schedulingService,
-                                                          SchedulingMgmtService schedulingMgmtService)
+                                                          SchedulingMgmtService schedulingMgmtService,
+                                                          DataCacheSharedService dataCacheSharedService)
     {
         DatabaseConfigService databaseConfigService;
 
@@ -590,7 +595,7 @@ public class EPServicesContextFactoryDefault implements EPServicesContextFactory
         try
         {
             ScheduleBucket allStatementsBucket = schedulingMgmtService.allocateBucket();
-            databaseConfigService = new DatabaseConfigServiceImpl(configSnapshot.getDatabaseReferences(), schedulingService, allStatementsBucket);
+            databaseConfigService = new DatabaseConfigServiceImpl(configSnapshot.getDatabaseReferences(), schedulingService, allStatementsBucket, dataCacheSharedService);
         }
         catch (IllegalArgumentException ex)
         {
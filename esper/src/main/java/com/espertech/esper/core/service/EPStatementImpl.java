@@ -14,6 +14,8 @@ import com.espertech.esper.collection.SafeIteratorImpl;
 import com.espertech.esper.collection.SafeIteratorWTableImpl;
 import com.espertech.esper.collection.UnsafeIteratorWTableImpl;
 import com.espertech.esper.dispatch.DispatchService;
+import com.espertech.esper.epl.metric.StatementFootprint;
+import com.espertech.esper.epl.metric.StatementFootprintEstimator;
 import com.espertech.esper.timer.TimeSourceService;
 import com.espertech.esper.view.Viewable;
 import org.apache.commons.logging.Log;
@@ -536,6 +538,15 @@ public class EPStatementImpl implements EPStatementSPI
         return statementContext;
     }
 
+    public StatementFootprint getFootprint()
+    {
+        if (!isStarted())
+        {
+            return new StatementFootprint();
+        }
+        return StatementFootprintEstimator.estimate(statementContext);
+    }
+
     public String getExpressionNoAnnotations()
     {
         return expressionNoAnnotations;
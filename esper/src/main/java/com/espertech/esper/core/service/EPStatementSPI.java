@@ -10,6 +10,7 @@ package com.espertech.esper.core.service;
 
 import com.espertech.esper.client.EPStatement;
 import com.espertech.esper.client.EPStatementState;
+import com.espertech.esper.epl.metric.StatementFootprint;
 import com.espertech.esper.view.Viewable;
 
 /**
@@ -80,4 +81,11 @@ public interface EPStatementSPI extends EPStatement
      * @return indicator if statement name exists
      */
     public boolean isNameProvided();
+
+    /**
+     * Returns an estimate of the memory retained by the statement, including the estimate per context partition,
+     * or an empty footprint if the statement is not started.
+     * @return footprint estimate
+     */
+    public StatementFootprint getFootprint();
 }
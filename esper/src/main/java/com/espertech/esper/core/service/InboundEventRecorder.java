@@ -0,0 +1,24 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.service;
+
+import com.espertech.esper.client.EventBean;
+
+/**
+ * Receives each event that the runtime accepts for processing from the application, before processing,
+ * and not including events that statements insert-into or route.
+ */
+public interface InboundEventRecorder
+{
+    /**
+     * Record an inbound event.
+     * @param theEvent to record
+     */
+    public void record(EventBean theEvent);
+}
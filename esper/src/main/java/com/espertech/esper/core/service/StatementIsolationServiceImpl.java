@@ -15,7 +15,7 @@ import com.espertech.esper.client.EPServiceProviderIsolated;
 import com.espertech.esper.client.EPStatement;
 import com.espertech.esper.filter.FilterServiceProvider;
 import com.espertech.esper.filter.FilterServiceSPI;
-import com.espertech.esper.schedule.SchedulingServiceImpl;
+import com.espertech.esper.schedule.SchedulingServiceProvider;
 import com.espertech.esper.schedule.SchedulingServiceSPI;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -61,7 +61,7 @@ public class StatementIsolationServiceImpl implements StatementIsolationService
         }
 
         FilterServiceSPI filterService = FilterServiceProvider.newService(epServicesContext.getConfigSnapshot().getEngineDefaults().getExecution().getFilterServiceProfile(), true);
-        SchedulingServiceSPI scheduleService = new SchedulingServiceImpl(epServicesContext.getTimeSource());
+        SchedulingServiceSPI scheduleService = SchedulingServiceProvider.newService(epServicesContext.getConfigSnapshot().getEngineDefaults().getExecution().getSchedulingServiceProfile(), epServicesContext.getTimeSource());
         EPIsolationUnitServices services = new EPIsolationUnitServices(name, currentUnitId, filterService, scheduleService);
         serviceProviderIsolated = new EPServiceProviderIsolatedImpl(name, services, epServicesContext, isolatedProviders);
         isolatedProviders.put(name, serviceProviderIsolated);
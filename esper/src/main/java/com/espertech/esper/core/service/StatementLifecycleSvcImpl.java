@@ -17,6 +17,7 @@ import com.espertech.esper.collection.NameParameterCountKey;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.core.service.multimatch.*;
 import com.espertech.esper.core.start.*;
+import com.espertech.esper.core.thread.AsyncDispatchRingBuffer;
 import com.espertech.esper.epl.agg.rollup.GroupByExpressionHelper;
 import com.espertech.esper.epl.annotation.AnnotationUtil;
 import com.espertech.esper.epl.core.MethodResolutionService;
@@ -58,6 +59,7 @@ import com.espertech.esper.util.CollectionUtil;
 import com.espertech.esper.util.EventRepresentationUtil;
 import com.espertech.esper.util.ManagedReadWriteLock;
 import com.espertech.esper.util.UuidGenerator;
+import com.espertech.esper.view.StatementStopCallback;
 import com.espertech.esper.view.ViewProcessingException;
 import com.espertech.esper.view.Viewable;
 import org.apache.commons.logging.Log;
@@ -368,6 +370,14 @@ public class StatementLifecycleSvcImpl implements StatementLifecycleSvc
             boolean isForClause = statementSpec.getForClauseSpec() != null;
             statementContext.getStatementResultService().setContext(statement, epServiceProvider,
                     isInsertInto, isPattern, isDistinct, isForClause, statementContext.getEpStatementHandle().getMetricsHandle());
+            final AsyncDispatchRingBuffer asyncDispatch = statementContext.getStatementResultService().getAsyncDispatch();
+            if (asyncDispatch != null) {
+                statementContext.getStatementStopService().addSubscriber(new StatementStopCallback() {
+                    public void statementStopped() {
+                        asyncDispatch.shutdown();
+                    }
+                });
+            }
 
             // create start method
             startMethod = EPStatementStartMethodFactory.makeStartMethod(compiledSpec);
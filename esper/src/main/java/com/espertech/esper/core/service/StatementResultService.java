@@ -10,6 +10,7 @@ package com.espertech.esper.core.service;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.collection.UniformPair;
+import com.espertech.esper.core.thread.AsyncDispatchRingBuffer;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.epl.metric.StatementMetricHandle;
@@ -76,9 +77,21 @@ public interface StatementResultService
      */
     public void execute();
 
+    /**
+     * Indicate that results may be produced by multiple threads concurrently, such as by context partitions
+     * that execute on worker threads, and that delivery to listeners must take place one result at a time.
+     */
+    public void setSerializeDispatch();
+
     public String getStatementName();
 
     public String getStatementId();
 
     public EPStatementListenerSet getStatementListenerSet();
+
+    /**
+     * Returns the ring buffer for asynchronous dispatch, or null if the statement dispatches synchronously.
+     * @return ring buffer or null
+     */
+    public AsyncDispatchRingBuffer getAsyncDispatch();
 }
@@ -9,13 +9,14 @@
 package com.espertech.esper.core.service;
 
 import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EPStatementException;
 import com.espertech.esper.client.StatementAwareUpdateListener;
 import com.espertech.esper.client.UpdateListener;
+import com.espertech.esper.client.annotation.AsyncDispatch;
 import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.collection.UniformPair;
-import com.espertech.esper.core.thread.OutboundUnitRunnable;
-import com.espertech.esper.core.thread.ThreadingOption;
-import com.espertech.esper.core.thread.ThreadingService;
+import com.espertech.esper.core.thread.*;
+import com.espertech.esper.epl.annotation.AnnotationUtil;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.epl.metric.MetricReportingPath;
@@ -38,7 +39,7 @@ import java.util.*;
  * such as to efficiently dispatch in situations where 0, 1 or more listeners
  * are attached and/or 0 or 1 subscriber (such as iteration-only statement).
  */
-public class StatementResultServiceImpl implements StatementResultService
+public class StatementResultServiceImpl implements StatementResultService, AsyncDispatchHandler
 {
     private static Log log = LogFactory.getLog(StatementResultServiceImpl.class);
 
@@ -72,6 +73,13 @@ public class StatementResultServiceImpl implements StatementResultService
 
     private Set<StatementResultListener> statementOutputHooks;
 
+    // For asynchronous dispatch, if any
+    private AsyncDispatchRingBuffer asyncDispatch;
+
+    // For results produced by multiple context partition worker threads
+    private volatile boolean serializeDispatch;
+    private final Object serializeDispatchLock = new Object();
+
     /**
      * Buffer for holding dispatchable events.
      */
@@ -120,6 +128,17 @@ public class StatementResultServiceImpl implements StatementResultService
         this.isForClause = isForClause;
         isMakeSynthetic = isInsertInto || isPattern || isDistinct || isForClause;
         this.statementMetricHandle = statementMetricHandle;
+
+        AsyncDispatch asyncDispatchAnnotation = (AsyncDispatch) AnnotationUtil.findAnnotation(epStatement.getAnnotations(), AsyncDispatch.class);
+        if (asyncDispatchAnnotation != null)
+        {
+            this.asyncDispatch = makeAsyncDispatch(asyncDispatchAnnotation, epServiceProvider.getURI(), epStatement);
+        }
+    }
+
+    public AsyncDispatchRingBuffer getAsyncDispatch()
+    {
+        return asyncDispatch;
     }
 
     public void setSelectClause(Class[] selectClauseTypes, String[] selectClauseColumnNames,
@@ -223,10 +242,25 @@ public class StatementResultServiceImpl implements StatementResultService
 
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qaStatementResultExecute(events, epStatement.getStatementId(), epStatement.getName(), exprEvaluatorContext.getAgentInstanceId(), Thread.currentThread().getId());}
 
-        if ((ThreadingOption.isThreadingEnabled) && (threadingService.isOutboundThreading()))
+        if (asyncDispatch != null)
+        {
+            asyncDispatch.publish(events);
+            if ((MetricReportingPath.isMetricsEnabled) && (statementMetricHandle.isEnabled()))
+            {
+                metricReportingService.accountDispatchQueue(statementMetricHandle, asyncDispatch.getQueueDepth(), asyncDispatch.getResetNumDropped());
+            }
+        }
+        else if ((ThreadingOption.isThreadingEnabled) && (threadingService.isOutboundThreading()))
         {
             threadingService.submitOutbound(new OutboundUnitRunnable(events, this));
         }
+        else if (serializeDispatch)
+        {
+            synchronized (serializeDispatchLock)
+            {
+                processDispatch(events);
+            }
+        }
         else
         {
             processDispatch(events);
@@ -235,11 +269,37 @@ public class StatementResultServiceImpl implements StatementResultService
         dispatches.clear();
     }
 
+    public void setSerializeDispatch()
+    {
+        serializeDispatch = true;
+    }
+
     /**
      * Indicate an outbound result.
      * @param events to indicate
      */
     public void processDispatch(UniformPair<EventBean[]> events)
+    {
+        if ((MetricReportingPath.isMetricsEnabled) && (statementMetricHandle.isEnabled()))
+        {
+            long startWall = System.nanoTime();
+            processDispatchInternal(events);
+            metricReportingService.accountDispatch(statementMetricHandle, System.nanoTime() - startWall);
+            return;
+        }
+        processDispatchInternal(events);
+    }
+
+    public void dispatchAsync(UniformPair<EventBean[]> events, long publishNanos)
+    {
+        processDispatchInternal(events);
+        if ((MetricReportingPath.isMetricsEnabled) && (statementMetricHandle.isEnabled()))
+        {
+            metricReportingService.accountDispatch(statementMetricHandle, System.nanoTime() - publishNanos);
+        }
+    }
+
+    private void processDispatchInternal(UniformPair<EventBean[]> events)
     {
         // Plain all-events delivery
         if (!forClauseDelivery) {
@@ -413,6 +473,10 @@ public class StatementResultServiceImpl implements StatementResultService
             return;
         }
         execute();
+        if (asyncDispatch != null)
+        {
+            asyncDispatch.shutdown();
+        }
 
         lastResults = new ThreadLocal<ArrayDeque<UniformPair<EventBean[]>>>() {
             protected synchronized ArrayDeque<UniformPair<EventBean[]>> initialValue() {
@@ -420,4 +484,23 @@ public class StatementResultServiceImpl implements StatementResultService
             }
         };
     }
+
+    private AsyncDispatchRingBuffer makeAsyncDispatch(AsyncDispatch annotation, String engineURI, EPStatementSPI statement)
+    {
+        AsyncDispatchWaitStrategy waitStrategy = AsyncDispatchWaitStrategy.fromName(annotation.waitStrategy());
+        if (waitStrategy == null)
+        {
+            throw new EPStatementException("Invalid wait strategy '" + annotation.waitStrategy() + "' for asynchronous dispatch, expected any of " + Arrays.toString(AsyncDispatchWaitStrategy.values()), statement.getText());
+        }
+        AsyncDispatchOverflow overflow = AsyncDispatchOverflow.fromName(annotation.overflow());
+        if (overflow == null)
+        {
+            throw new EPStatementException("Invalid overflow policy '" + annotation.overflow() + "' for asynchronous dispatch, expected any of " + Arrays.toString(AsyncDispatchOverflow.values()), statement.getText());
+        }
+        if (annotation.capacity() < 1 || annotation.capacity() > (1 << 30))
+        {
+            throw new EPStatementException("Invalid capacity " + annotation.capacity() + " for asynchronous dispatch, expected a positive number up to " + (1 << 30), statement.getText());
+        }
+        return new AsyncDispatchRingBuffer(engineURI, statementName, this, annotation.capacity(), waitStrategy, overflow);
+    }
 }
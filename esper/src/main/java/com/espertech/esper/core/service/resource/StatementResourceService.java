@@ -63,7 +63,7 @@ public class StatementResourceService {
         return resourcesZero;
     }
 
-    public StatementResourceHolder allocatePartitioned(int agentInstanceId) {
+    public synchronized StatementResourceHolder allocatePartitioned(int agentInstanceId) {
         StatementResourceHolder resources = resourcesNonZero.get(agentInstanceId);
         if (resources == null) {
             resources = new StatementResourceHolder();
@@ -80,10 +80,21 @@ public class StatementResourceService {
         return resourcesZero;
     }
 
-    public void deallocatePartitioned(int agentInstanceId) {
+    public synchronized void deallocatePartitioned(int agentInstanceId) {
         resourcesNonZero.remove(agentInstanceId);
     }
 
+    /**
+     * Returns a copy of the resources per context partition, for use by threads other than the processing threads.
+     * @return resources by agent instance id, or null if the statement does not declare a context
+     */
+    public synchronized Map<Integer, StatementResourceHolder> getResourcesNonZeroSnapshot() {
+        if (resourcesNonZero == null) {
+            return null;
+        }
+        return new TreeMap<Integer, StatementResourceHolder>(resourcesNonZero);
+    }
+
     private void removeContextPattern(boolean startEndpoint, ContextStatePathKey path) {
         if (startEndpoint) {
             if (contextStartEndpoints != null) {
@@ -8,6 +8,7 @@
  **************************************************************************************/
 package com.espertech.esper.core.start;
 
+import com.espertech.esper.client.ConfigurationEngineDefaults;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.client.context.ContextPartitionSelector;
@@ -21,6 +22,9 @@ import com.espertech.esper.core.service.EPServicesContext;
 import com.espertech.esper.core.service.StatementContext;
 import com.espertech.esper.core.service.StreamJoinAnalysisResult;
 import com.espertech.esper.epl.core.*;
+import com.espertech.esper.epl.fafquery.FireAndForgetQueryExecParallel;
+import com.espertech.esper.epl.fafquery.FireAndForgetQueryExecParallelAggregation;
+import com.espertech.esper.epl.fafquery.FireAndForgetQueryExecVectorized;
 import com.espertech.esper.epl.expression.table.ExprTableAccessNode;
 import com.espertech.esper.epl.expression.core.ExprNode;
 import com.espertech.esper.epl.expression.core.ExprNodeUtility;
@@ -30,6 +34,7 @@ import com.espertech.esper.epl.spec.NamedWindowConsumerStreamSpec;
 import com.espertech.esper.epl.spec.StatementSpecCompiled;
 import com.espertech.esper.epl.spec.StreamSpecCompiled;
 import com.espertech.esper.epl.spec.TableQueryStreamSpec;
+import com.espertech.esper.epl.table.mgmt.TableColumnarProjection;
 import com.espertech.esper.epl.virtualdw.VirtualDWView;
 import com.espertech.esper.epl.virtualdw.VirtualDWViewProviderForAgentInstance;
 import com.espertech.esper.event.EventBeanReader;
@@ -38,12 +43,15 @@ import com.espertech.esper.event.EventBeanUtility;
 import com.espertech.esper.event.EventTypeSPI;
 import com.espertech.esper.filter.FilterSpecCompiled;
 import com.espertech.esper.filter.FilterSpecCompiler;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.util.AuditPath;
 import com.espertech.esper.view.Viewable;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Starts and provides the stop method for EPL statements.
@@ -62,6 +70,10 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
     private JoinSetComposerPrototype joinSetComposerPrototype;
     private final FilterSpecCompiled[] filters;
     private boolean hasTableAccess;
+    private final boolean isParallel;
+    private final boolean isParallelSnapshot;
+    private FireAndForgetQueryExecVectorized vectorized;
+    private FireAndForgetQueryExecParallelAggregation parallelAggregation;
 
     /**
      * Ctor.
@@ -177,6 +189,31 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
                 throw new ExprValidationException("Joins in runtime queries for context partitions are not supported");
             }
         }
+
+        // parallel execution applies to single-stream queries without table access expressions, since table locks are held per thread:
+        // the querying thread holds the read lock of a table stream while tasks process the table rows, and takes context partition snapshots of tables
+        boolean hasTableNodes = statementSpec.getTableNodes() != null && statementSpec.getTableNodes().length > 0;
+        isParallel = services.getThreadingService().isFireAndForgetThreading() && numStreams == 1 && !hasTableNodes &&
+                statementSpec.getSubSelectExpressions().length == 0 && !InstrumentationHelper.ENABLED;
+        isParallelSnapshot = isParallel && !(processors[0] instanceof FireAndForgetProcessorTable);
+
+        // vectorized aggregation applies to aggregate queries against a single table that keeps a columnar projection
+        if (numStreams == 1 && processors[0] instanceof FireAndForgetProcessorTable) {
+            vectorized = FireAndForgetQueryExecVectorized.make(statementSpec, ((FireAndForgetProcessorTable) processors[0]).getTableMetadata(),
+                    resultSetProcessor.getResultEventType(), statementContext.getMethodResolutionService(), services.getEventAdapterService(), agentInstanceContext);
+            if (vectorized != null && queryPlanLogging) {
+                queryPlanLog.info("Vectorized aggregation using columnar projection of table '" + processors[0].getNamedWindowOrTableName() + "'");
+            }
+        }
+
+        // parallel aggregation merges the partial aggregations of the tasks
+        if (isParallel && vectorized == null) {
+            parallelAggregation = FireAndForgetQueryExecParallelAggregation.make(statementSpec, resultSetProcessor.getResultEventType(),
+                    statementContext.getMethodResolutionService(), services.getEventAdapterService());
+            if (parallelAggregation != null && queryPlanLogging) {
+                queryPlanLog.info("Parallel aggregation of '" + processors[0].getNamedWindowOrTableName() + "'");
+            }
+        }
     }
 
     /**
@@ -204,6 +241,25 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
             // handle non-context case
             if (statementSpec.getOptionalContextName() == null) {
 
+                if (vectorized != null) {
+                    FireAndForgetInstance processorInstance = processors[0].getProcessorInstance(agentInstanceContext);
+                    if (processorInstance != null) {
+                        TableColumnarProjection projection = ((FireAndForgetInstanceTable) processorInstance).snapshotColumnar(this);
+                        return new EPPreparedQueryResult(resultSetProcessor.getResultEventType(), vectorized.execute(projection));
+                    }
+                }
+
+                if (parallelAggregation != null) {
+                    FireAndForgetInstance processorInstance = processors[0].getProcessorInstance(agentInstanceContext);
+                    if (processorInstance != null) {
+                        Collection<EventBean> snapshot = processorInstance.snapshotBestEffort(this, filters[0], statementSpec.getAnnotations());
+                        ConfigurationEngineDefaults.Threading threading = services.getConfigSnapshot().getEngineDefaults().getThreading();
+                        EventBean[] rows = parallelAggregation.execute(snapshot, agentInstanceContext, getFireAndForgetThreadPool(),
+                                threading.getThreadPoolFireAndForgetNumThreads(), threading.getThreadPoolFireAndForgetMinRowsPerTask());
+                        return new EPPreparedQueryResult(resultSetProcessor.getResultEventType(), rows);
+                    }
+                }
+
                 Collection<EventBean>[] snapshots = new Collection[numStreams];
                 for (int i = 0; i < numStreams; i++) {
 
@@ -222,12 +278,19 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
             Collection<Integer> agentInstanceIds = EPPreparedExecuteMethodHelper.getAgentInstanceIds(processors[0], singleSelector, services.getContextManagementService(), statementSpec.getOptionalContextName());
 
             // collect events and agent instances
-            for (int agentInstanceId : agentInstanceIds) {
-                FireAndForgetInstance processorInstance = processors[0].getProcessorInstanceContextById(agentInstanceId);
-                if (processorInstance != null) {
-                    EPPreparedExecuteTableHelper.assignTableAccessStrategies(services, statementSpec.getTableNodes(), processorInstance.getAgentInstanceContext());
-                    Collection<EventBean> coll = processorInstance.snapshotBestEffort(this, filters[0], statementSpec.getAnnotations());
-                    contextPartitionResults.add(new ContextPartitionResult(coll, processorInstance.getAgentInstanceContext()));
+            boolean isFiltered = false;
+            if (isParallelSnapshot && agentInstanceIds.size() > 1) {
+                contextPartitionResults = getContextPartitionResultsParallel(agentInstanceIds);
+                isFiltered = true;
+            }
+            else {
+                for (int agentInstanceId : agentInstanceIds) {
+                    FireAndForgetInstance processorInstance = processors[0].getProcessorInstanceContextById(agentInstanceId);
+                    if (processorInstance != null) {
+                        EPPreparedExecuteTableHelper.assignTableAccessStrategies(services, statementSpec.getTableNodes(), processorInstance.getAgentInstanceContext());
+                        Collection<EventBean> coll = processorInstance.snapshotBestEffort(this, filters[0], statementSpec.getAnnotations());
+                        contextPartitionResults.add(new ContextPartitionResult(coll, processorInstance.getAgentInstanceContext()));
+                    }
                 }
             }
 
@@ -235,7 +298,7 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
             ArrayDeque<EventBean[]> events = new ArrayDeque<EventBean[]>();
             for (ContextPartitionResult contextPartitionResult : contextPartitionResults) {
                 Collection<EventBean> snapshot = contextPartitionResult.getEvents();
-                if (statementSpec.getFilterRootNode() != null) {
+                if (!isFiltered && statementSpec.getFilterRootNode() != null) {
                     snapshot = getFiltered(snapshot, Collections.singletonList(statementSpec.getFilterRootNode()));
                 }
                 EventBean[] rows = snapshot.toArray(new EventBean[snapshot.size()]);
@@ -277,6 +340,9 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
 
         // context partition runtime query
         Collection<Integer> contextPartitions = EPPreparedExecuteMethodHelper.getAgentInstanceIds(fireAndForgetProcessor, contextPartitionSelector, services.getContextManagementService(), fireAndForgetProcessor.getContextName());
+        if (isParallelSnapshot && contextPartitions.size() > 1) {
+            return getStreamSnapshotParallel(streamNum, contextPartitions);
+        }
 
         // collect events
         ArrayDeque<EventBean> events = new ArrayDeque<EventBean>();
@@ -354,8 +420,60 @@ public class EPPreparedExecuteMethodQuery implements EPPreparedExecuteMethod
         return new EPPreparedQueryResult(resultSetProcessor.getResultEventType(), results.getFirst());
     }
 
+    private Collection<EventBean> getStreamSnapshotParallel(final int streamNum, Collection<Integer> contextPartitions) {
+        List<Callable<Collection<EventBean>>> tasks = new ArrayList<Callable<Collection<EventBean>>>(contextPartitions.size());
+        for (int agentInstanceId : contextPartitions) {
+            final FireAndForgetInstance processorInstance = processors[streamNum].getProcessorInstanceContextById(agentInstanceId);
+            if (processorInstance != null) {
+                tasks.add(new Callable<Collection<EventBean>>() {
+                    public Collection<EventBean> call() throws Exception {
+                        return processorInstance.snapshotBestEffort(EPPreparedExecuteMethodQuery.this, filters[streamNum], statementSpec.getAnnotations());
+                    }
+                });
+            }
+        }
+
+        ArrayDeque<EventBean> events = new ArrayDeque<EventBean>();
+        for (Collection<EventBean> coll : FireAndForgetQueryExecParallel.invokeAll(getFireAndForgetThreadPool(), tasks)) {
+            events.addAll(coll);
+        }
+        return events;
+    }
+
+    private List<ContextPartitionResult> getContextPartitionResultsParallel(Collection<Integer> agentInstanceIds) {
+        final List<ExprNode> filterExpressions = statementSpec.getFilterRootNode() == null ? null : Collections.singletonList(statementSpec.getFilterRootNode());
+        List<Callable<ContextPartitionResult>> tasks = new ArrayList<Callable<ContextPartitionResult>>(agentInstanceIds.size());
+        for (int agentInstanceId : agentInstanceIds) {
+            final FireAndForgetInstance processorInstance = processors[0].getProcessorInstanceContextById(agentInstanceId);
+            if (processorInstance != null) {
+                tasks.add(new Callable<ContextPartitionResult>() {
+                    public ContextPartitionResult call() throws Exception {
+                        // filter within the task, since tasks must not wait for other tasks of the same pool
+                        Collection<EventBean> coll = processorInstance.snapshotBestEffort(EPPreparedExecuteMethodQuery.this, filters[0], statementSpec.getAnnotations());
+                        if (filterExpressions != null) {
+                            ArrayDeque<EventBean> deque = new ArrayDeque<EventBean>(Math.min(coll.size(), 16));
+                            ExprNodeUtility.applyFilterExpressionsIterable(coll, filterExpressions, FireAndForgetQueryExecParallel.getTaskContext(agentInstanceContext), deque);
+                            coll = deque;
+                        }
+                        return new ContextPartitionResult(coll, processorInstance.getAgentInstanceContext());
+                    }
+                });
+            }
+        }
+        return FireAndForgetQueryExecParallel.invokeAll(getFireAndForgetThreadPool(), tasks);
+    }
+
+    private ExecutorService getFireAndForgetThreadPool() {
+        return services.getThreadingService().getFireAndForgetThreadPool();
+    }
+
     private Collection<EventBean> getFiltered(Collection<EventBean> snapshot, List<ExprNode> filterExpressions)
     {
+        if (isParallel) {
+            ConfigurationEngineDefaults.Threading threading = services.getConfigSnapshot().getEngineDefaults().getThreading();
+            return FireAndForgetQueryExecParallel.filter(snapshot, filterExpressions, agentInstanceContext, getFireAndForgetThreadPool(),
+                    threading.getThreadPoolFireAndForgetNumThreads(), threading.getThreadPoolFireAndForgetMinRowsPerTask());
+        }
         ArrayDeque<EventBean> deque = new ArrayDeque<EventBean>(Math.min(snapshot.size(), 16));
         ExprNodeUtility.applyFilterExpressionsIterable(snapshot, filterExpressions, agentInstanceContext, deque);
         return deque;
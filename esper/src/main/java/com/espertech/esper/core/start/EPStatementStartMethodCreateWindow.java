@@ -10,6 +10,7 @@ package com.espertech.esper.core.start;
 
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.client.annotation.HintEnum;
+import com.espertech.esper.client.annotation.OffHeap;
 import com.espertech.esper.core.context.activator.ViewableActivatorFilterProxy;
 import com.espertech.esper.core.context.factory.StatementAgentInstanceFactoryCreateWindow;
 import com.espertech.esper.core.context.factory.StatementAgentInstanceFactoryCreateWindowResult;
@@ -22,10 +23,12 @@ import com.espertech.esper.core.service.StatementContext;
 import com.espertech.esper.epl.core.ResultSetProcessorFactoryDesc;
 import com.espertech.esper.epl.core.ResultSetProcessorFactoryFactory;
 import com.espertech.esper.epl.core.StreamTypeService;
+import com.espertech.esper.epl.annotation.AnnotationUtil;
 import com.espertech.esper.epl.core.StreamTypeServiceImpl;
 import com.espertech.esper.epl.expression.core.ExprValidationException;
 import com.espertech.esper.epl.named.NamedWindowProcessor;
 import com.espertech.esper.epl.named.NamedWindowService;
+import com.espertech.esper.epl.offheap.OffHeapRowStoreFactory;
 import com.espertech.esper.epl.spec.FilterStreamSpecCompiled;
 import com.espertech.esper.epl.spec.SelectClauseElementWildcard;
 import com.espertech.esper.epl.spec.SelectClauseStreamSelectorEnum;
@@ -33,12 +36,14 @@ import com.espertech.esper.epl.spec.StatementSpecCompiled;
 import com.espertech.esper.epl.view.OutputProcessViewFactory;
 import com.espertech.esper.epl.view.OutputProcessViewFactoryFactory;
 import com.espertech.esper.epl.virtualdw.VirtualDWViewFactory;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
 import com.espertech.esper.event.vaevent.ValueAddEventProcessor;
 import com.espertech.esper.metrics.instrumentation.InstrumentationAgent;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import com.espertech.esper.util.StopCallback;
 import com.espertech.esper.view.*;
 
+import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
@@ -94,6 +99,9 @@ public class EPStatementStartMethodCreateWindow extends EPStatementStartMethodBa
         final String windowName = statementSpec.getCreateWindowDesc().getWindowName();
         ValueAddEventProcessor optionalRevisionProcessor = statementContext.getValueAddEventService().getValueAddProcessor(windowName);
 
+        // determine off-heap storage
+        OffHeapRowStoreFactory offHeapRowStoreFactory = determineOffHeap(statementSpec.getAnnotations(), filterStreamSpec.getFilterSpec().getResultEventType(), optionalRevisionProcessor, unmaterializedViewChain.getViewFactoryChain());
+
         // add named window processor (one per named window for all agent instances)
         boolean isPrioritized = services.getEngineSettingsService().getEngineSettings().getExecution().isPrioritized();
         boolean isEnableSubqueryIndexShare = HintEnum.ENABLE_WINDOW_SUBQUERY_INDEXSHARE.getHint(statementSpec.getAnnotations()) != null;
@@ -105,7 +113,7 @@ public class EPStatementStartMethodCreateWindow extends EPStatementStartMethodBa
         Set<String> optionalUniqueKeyProps = ViewServiceHelper.getUniqueCandidateProperties(unmaterializedViewChain.getViewFactoryChain(), statementSpec.getAnnotations());
         NamedWindowProcessor processor = services.getNamedWindowService().addProcessor(windowName, contextName, singleInstanceContext, filterStreamSpec.getFilterSpec().getResultEventType(), statementContext.getStatementResultService(), optionalRevisionProcessor, statementContext.getExpression(), statementContext.getStatementName(), isPrioritized, isEnableSubqueryIndexShare, isBatchingDataWindow, virtualDataWindowFactory != null, statementContext.getEpStatementHandle().getMetricsHandle(), optionalUniqueKeyProps,
                 statementSpec.getCreateWindowDesc().getAsEventTypeName(),
-                statementContext.getStatementExtensionServicesContext().getStmtResources());
+                statementContext.getStatementExtensionServicesContext().getStmtResources(), offHeapRowStoreFactory);
 
         Viewable finalViewable;
         EPStatementStopMethod stopStatementMethod;
@@ -208,6 +216,25 @@ public class EPStatementStartMethodCreateWindow extends EPStatementStartMethodBa
         return null;
     }
 
+    private static OffHeapRowStoreFactory determineOffHeap(Annotation[] annotations, EventType eventType, ValueAddEventProcessor optionalRevisionProcessor, List<ViewFactory> viewFactoryChain) throws ExprValidationException {
+        OffHeap offHeap = (OffHeap) AnnotationUtil.findAnnotation(annotations, OffHeap.class);
+        if (offHeap == null) {
+            return null;
+        }
+        if (!(eventType instanceof ObjectArrayEventType) || optionalRevisionProcessor != null) {
+            throw new ExprValidationException("Off-heap storage requires an object-array event type, consider using the @EventRepresentation(array=true) annotation");
+        }
+        for (ViewFactory viewFactory : viewFactoryChain) {
+            if (viewFactory instanceof AsymetricDataWindowViewFactory || viewFactory instanceof VirtualDWViewFactory) {
+                throw new ExprValidationException("Off-heap storage is not supported for data windows that do not post a remove stream for all events received, such as first-length, first-time, first-unique, first-event and virtual data windows");
+            }
+        }
+        if (offHeap.segmentSize() < 1024) {
+            throw new ExprValidationException("Off-heap segment size must be at least 1024 bytes but received " + offHeap.segmentSize());
+        }
+        return new OffHeapRowStoreFactory(offHeap.segmentSize());
+    }
+
     private static boolean determineBatchingDataWindow(List<ViewFactory> viewFactoryChain) {
         for (ViewFactory viewFactory : viewFactoryChain) {
             if (viewFactory instanceof DataWindowBatchingViewFactory) {
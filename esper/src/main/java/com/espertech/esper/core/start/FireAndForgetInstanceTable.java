@@ -17,6 +17,7 @@ import com.espertech.esper.epl.agg.service.AggregationRowPair;
 import com.espertech.esper.epl.expression.core.ExprNode;
 import com.espertech.esper.epl.expression.core.ExprNodeUtility;
 import com.espertech.esper.epl.fafquery.FireAndForgetQueryExec;
+import com.espertech.esper.epl.table.mgmt.TableColumnarProjection;
 import com.espertech.esper.epl.table.mgmt.TableServiceImpl;
 import com.espertech.esper.epl.table.mgmt.TableStateInstance;
 import com.espertech.esper.epl.table.strategy.ExprTableEvalLockUtil;
@@ -89,6 +90,11 @@ public class FireAndForgetInstanceTable extends FireAndForgetInstance {
         return instance.getEventCollection();
     }
 
+    public TableColumnarProjection snapshotColumnar(EPPreparedExecuteMethodQuery query) {
+        ExprTableEvalLockUtil.obtainLockUnless(instance.getTableLevelRWLock().readLock(), query.getAgentInstanceContext());
+        return instance.getColumnarProjection();
+    }
+
     private Collection<EventBean> snapshotAndApplyFilter(FilterSpecCompiled filter, Annotation[] annotations, ExprNode filterExpr, AgentInstanceContext agentInstanceContext) {
         Collection<EventBean> indexedResult = snapshotNullWhenNoIndex(filter, annotations, null, null);
         if (indexedResult != null) {
@@ -0,0 +1,25 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.UniformPair;
+
+/**
+ * Receives the results that an asynchronous dispatch ring buffer takes, on the dispatch thread.
+ */
+public interface AsyncDispatchHandler
+{
+    /**
+     * Dispatch results.
+     * @param events results
+     * @param publishNanos {@link System#nanoTime()} when the results were published to the ring buffer
+     */
+    public void dispatchAsync(UniformPair<EventBean[]> events, long publishNanos);
+}
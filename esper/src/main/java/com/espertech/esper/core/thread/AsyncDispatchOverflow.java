@@ -0,0 +1,42 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.thread;
+
+/**
+ * Policy for an asynchronous dispatch ring buffer that is full.
+ */
+public enum AsyncDispatchOverflow
+{
+    /**
+     * Block the processing thread until room becomes available.
+     */
+    BLOCK,
+
+    /**
+     * Drop the results.
+     */
+    DROP;
+
+    /**
+     * Returns the overflow policy for the name, case-insensitive.
+     * @param name policy name
+     * @return policy or null if the name is not a policy
+     */
+    public static AsyncDispatchOverflow fromName(String name)
+    {
+        for (AsyncDispatchOverflow overflow : values())
+        {
+            if (overflow.name().equalsIgnoreCase(name))
+            {
+                return overflow;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,244 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.UniformPair;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Preallocated ring buffer for asynchronous dispatch of the results of a single statement by a dedicated dispatch thread.
+ * <p>
+ * Processing threads publish results by claiming a sequence number, writing the slot for the sequence number
+ * and marking the slot as published. The dispatch thread takes the results in sequence order.
+ * <p>
+ * When the ring buffer is full, the overflow policy either blocks the publishing thread or drops the results.
+ * Results that the dispatch thread itself publishes while the ring buffer is full, such as when a listener
+ * sends an event that produces results for the same statement, are dispatched directly to avoid a deadlock.
+ * <p>
+ * The dispatch thread starts upon the first publish and stops, after dispatching all published results, upon shutdown.
+ * A publish after shutdown starts the dispatch thread again. A publish that races with shutdown and completes
+ * after the dispatch thread stopped starts a dispatch thread that dispatches the remaining results and stops.
+ */
+public class AsyncDispatchRingBuffer implements Runnable
+{
+    private static final Log log = LogFactory.getLog(AsyncDispatchRingBuffer.class);
+
+    private final String engineURI;
+    private final String statementName;
+    private final AsyncDispatchHandler handler;
+    private final AsyncDispatchWaitStrategy waitStrategy;
+    private final AsyncDispatchOverflow overflow;
+
+    private final int capacity;
+    private final int mask;
+    private final UniformPair<EventBean[]>[] slots;
+    private final long[] publishNanos;
+    private final AtomicLongArray published;
+
+    private final AtomicLong claimSequence = new AtomicLong();
+    private volatile long consumerSequence;
+    private final AtomicLong numDropped = new AtomicLong();
+
+    private volatile boolean isRunning;
+    private volatile Thread dispatchThread;
+
+    /**
+     * Ctor.
+     * @param engineURI engine URI
+     * @param statementName statement name
+     * @param handler receives results on the dispatch thread
+     * @param capacity number of results, rounded up to the next power of two
+     * @param waitStrategy wait strategy
+     * @param overflow policy when full
+     */
+    public AsyncDispatchRingBuffer(String engineURI, String statementName, AsyncDispatchHandler handler, int capacity, AsyncDispatchWaitStrategy waitStrategy, AsyncDispatchOverflow overflow)
+    {
+        if (capacity < 1 || capacity > (1 << 30))
+        {
+            throw new IllegalArgumentException("Invalid capacity " + capacity);
+        }
+        this.engineURI = engineURI;
+        this.statementName = statementName;
+        this.handler = handler;
+        this.waitStrategy = waitStrategy;
+        this.overflow = overflow;
+        int rounded = 1;
+        while (rounded < capacity)
+        {
+            rounded <<= 1;
+        }
+        this.capacity = rounded;
+        this.mask = this.capacity - 1;
+        this.slots = new UniformPair[this.capacity];
+        this.publishNanos = new long[this.capacity];
+        this.published = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++)
+        {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Publish results, starting the dispatch thread if not already started.
+     * @param events results
+     * @return true if published, false if the results were dropped or dispatched directly
+     */
+    public boolean publish(UniformPair<EventBean[]> events)
+    {
+        if (!isRunning)
+        {
+            start();
+        }
+
+        long sequence;
+        while (true)
+        {
+            sequence = claimSequence.get();
+            if (sequence - consumerSequence >= capacity)
+            {
+                if (overflow == AsyncDispatchOverflow.DROP)
+                {
+                    numDropped.incrementAndGet();
+                    return false;
+                }
+                if (Thread.currentThread() == dispatchThread)
+                {
+                    handler.dispatchAsync(events, System.nanoTime());
+                    return false;
+                }
+                waitStrategy.idle();
+                continue;
+            }
+            if (claimSequence.compareAndSet(sequence, sequence + 1))
+            {
+                break;
+            }
+        }
+
+        int index = (int) sequence & mask;
+        slots[index] = events;
+        publishNanos[index] = System.nanoTime();
+        published.set(index, sequence);
+
+        // the dispatch thread may have stopped after shutdown while this thread claimed the sequence
+        if (!isRunning)
+        {
+            drainAfterShutdown();
+        }
+        return true;
+    }
+
+    /**
+     * Stops the dispatch thread after it dispatched all published results, without waiting for the dispatch thread.
+     */
+    public synchronized void shutdown()
+    {
+        isRunning = false;
+    }
+
+    public void run()
+    {
+        long next = consumerSequence;
+        while (true)
+        {
+            int index = (int) next & mask;
+            if (published.get(index) == next)
+            {
+                UniformPair<EventBean[]> events = slots[index];
+                long nanos = publishNanos[index];
+                slots[index] = null;
+                next++;
+                consumerSequence = next;
+                try
+                {
+                    handler.dispatchAsync(events, nanos);
+                }
+                catch (RuntimeException ex)
+                {
+                    log.error("Unexpected error dispatching results for statement '" + statementName + "': " + ex.getMessage(), ex);
+                }
+                continue;
+            }
+            if (!isRunning && claimSequence.get() == next)
+            {
+                synchronized (this)
+                {
+                    if (!isRunning && claimSequence.get() == next)
+                    {
+                        dispatchThread = null;
+                        return;
+                    }
+                }
+            }
+            waitStrategy.idle();
+        }
+    }
+
+    /**
+     * Returns the number of results published and not yet taken by the dispatch thread.
+     * @return queue depth
+     */
+    public int getQueueDepth()
+    {
+        return (int) (claimSequence.get() - consumerSequence);
+    }
+
+    /**
+     * Returns the number of results dropped since the last call to this method, and resets the count.
+     * @return number of dropped results
+     */
+    public long getResetNumDropped()
+    {
+        return numDropped.getAndSet(0);
+    }
+
+    /**
+     * Returns the capacity.
+     * @return capacity
+     */
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    private synchronized void start()
+    {
+        if (isRunning)
+        {
+            return;
+        }
+        isRunning = true;
+        if (dispatchThread != null)
+        {
+            return; // the dispatch thread has not yet stopped and continues
+        }
+        startThread();
+    }
+
+    private synchronized void drainAfterShutdown()
+    {
+        if (isRunning || dispatchThread != null || claimSequence.get() == consumerSequence)
+        {
+            return; // a dispatch thread takes the results
+        }
+        startThread();
+    }
+
+    private void startThread()
+    {
+        Thread thread = new EngineThreadFactory(engineURI, "AsyncDispatch-" + statementName, null, Thread.NORM_PRIORITY).newThread(this);
+        dispatchThread = thread;
+        thread.start();
+    }
+}
@@ -0,0 +1,66 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.core.thread;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Strategy for a thread to wait for results in, or room in, an asynchronous dispatch ring buffer.
+ */
+public enum AsyncDispatchWaitStrategy
+{
+    /**
+     * Busy spin.
+     */
+    SPIN,
+
+    /**
+     * Yield the thread.
+     */
+    YIELD,
+
+    /**
+     * Park the thread.
+     */
+    PARK;
+
+    private static final long PARK_NANOS = 100 * 1000;
+
+    /**
+     * Waits once.
+     */
+    public void idle()
+    {
+        if (this == YIELD)
+        {
+            Thread.yield();
+        }
+        else if (this == PARK)
+        {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+
+    /**
+     * Returns the wait strategy for the name, case-insensitive.
+     * @param name wait strategy name
+     * @return wait strategy or null if the name is not a wait strategy
+     */
+    public static AsyncDispatchWaitStrategy fromName(String name)
+    {
+        for (AsyncDispatchWaitStrategy strategy : values())
+        {
+            if (strategy.name().equalsIgnoreCase(name))
+            {
+                return strategy;
+            }
+        }
+        return null;
+    }
+}
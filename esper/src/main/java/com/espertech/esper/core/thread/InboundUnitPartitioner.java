@@ -0,0 +1,114 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.core.thread;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.EventType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns inbound events to a fixed partition by the value of the configured partition key property
+ * of the event type, so that events with the same partition key are always processed by the same worker.
+ * <p>
+ * Events of event types that have no partition key property are assigned by event type name.
+ * Events for which the event type does not provide the partition key property are assigned to the first partition.
+ */
+public class InboundUnitPartitioner
+{
+    private final int numPartitions;
+    private final Map<String, String> partitionProperties;
+    private final ConcurrentHashMap<EventType, Assignment> assignments = new ConcurrentHashMap<EventType, Assignment>();
+
+    /**
+     * Ctor.
+     * @param numPartitions number of partitions
+     * @param partitionProperties partition key property name per event type name
+     */
+    public InboundUnitPartitioner(int numPartitions, Map<String, String> partitionProperties)
+    {
+        if (numPartitions < 1)
+        {
+            throw new IllegalArgumentException("Invalid number of partitions " + numPartitions);
+        }
+        this.numPartitions = numPartitions;
+        this.partitionProperties = partitionProperties;
+    }
+
+    /**
+     * Returns the number of partitions.
+     * @return number of partitions
+     */
+    public int getNumPartitions()
+    {
+        return numPartitions;
+    }
+
+    /**
+     * Returns the partition number for the event.
+     * @param theEvent event
+     * @return partition number between zero and the number of partitions minus one
+     */
+    public int getPartition(EventBean theEvent)
+    {
+        EventType eventType = theEvent.getEventType();
+        Assignment assignment = assignments.get(eventType);
+        if (assignment == null)
+        {
+            assignment = makeAssignment(eventType);
+            assignments.putIfAbsent(eventType, assignment);
+        }
+
+        if (assignment.getter == null)
+        {
+            return assignment.partition;
+        }
+        Object key = assignment.getter.get(theEvent);
+        if (key == null)
+        {
+            return 0;
+        }
+        return toPartition(key.hashCode());
+    }
+
+    private Assignment makeAssignment(EventType eventType)
+    {
+        String propertyName = eventType.getName() == null ? null : partitionProperties.get(eventType.getName());
+        if (propertyName == null)
+        {
+            int partition = eventType.getName() == null ? 0 : toPartition(eventType.getName().hashCode());
+            return new Assignment(null, partition);
+        }
+        EventPropertyGetter getter = eventType.getGetter(propertyName);
+        return new Assignment(getter, 0);
+    }
+
+    private int toPartition(int hashCode)
+    {
+        int hash = hashCode ^ (hashCode >>> 16);
+        return (hash & Integer.MAX_VALUE) % numPartitions;
+    }
+
+    private static class Assignment
+    {
+        private final EventPropertyGetter getter;
+        private final int partition;
+
+        private Assignment(EventPropertyGetter getter, int partition)
+        {
+            this.getter = getter;
+            this.partition = partition;
+        }
+    }
+}
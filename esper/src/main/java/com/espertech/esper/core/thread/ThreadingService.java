@@ -52,6 +52,13 @@ public interface ThreadingService
      */
     public boolean isInboundThreading();
 
+    /**
+     * Returns true for inbound threading enabled with partition keys, wherein inbound work units
+     * are assigned a worker thread by partition key.
+     * @return indicator
+     */
+    public boolean isInboundPartitioned();
+
     /**
      * Submit inbound work unit.
      * @param unit unit of work
@@ -130,5 +137,17 @@ public interface ThreadingService
      */
     public ThreadPoolExecutor getInboundThreadPool();
 
+    /**
+     * Returns true for fire-and-forget query threading.
+     * @return indicator
+     */
+    public boolean isFireAndForgetThreading();
+
+    /**
+     * Returns the fire-and-forget query thread pool
+     * @return thread pool
+     */
+    public ThreadPoolExecutor getFireAndForgetThreadPool();
+
     public Thread makeEventSourceThread(String engineURI, String sourceName, Runnable runnable);
 }
@@ -31,16 +31,23 @@ public class ThreadingServiceImpl implements ThreadingService
     private final boolean isInboundThreading;
     private final boolean isRouteThreading;
     private final boolean isOutboundThreading;
+    private final boolean isFireAndForgetThreading;
 
     private BlockingQueue<Runnable> timerQueue;
     private BlockingQueue<Runnable> inboundQueue;
     private BlockingQueue<Runnable> routeQueue;
     private BlockingQueue<Runnable> outboundQueue;
+    private BlockingQueue<Runnable> fireAndForgetQueue;
 
     private ThreadPoolExecutor timerThreadPool;
     private ThreadPoolExecutor inboundThreadPool;
     private ThreadPoolExecutor routeThreadPool;
     private ThreadPoolExecutor outboundThreadPool;
+    private ThreadPoolExecutor fireAndForgetThreadPool;
+
+    private InboundUnitPartitioner inboundPartitioner;
+    private BlockingQueue<Runnable>[] inboundPartitionQueues;
+    private ThreadPoolExecutor[] inboundPartitionThreadPools;
 
     /**
      * Ctor.
@@ -63,6 +70,9 @@ public class ThreadingServiceImpl implements ThreadingService
             isRouteThreading = false;
             isOutboundThreading = false;
         }
+
+        // fire-and-forget query threading does not require the engine-wide threading option since query tasks only read
+        isFireAndForgetThreading = threadingConfig.isThreadPoolFireAndForget();
     }
 
     public boolean isRouteThreading()
@@ -75,6 +85,11 @@ public class ThreadingServiceImpl implements ThreadingService
         return isInboundThreading;
     }
 
+    public boolean isInboundPartitioned()
+    {
+        return isInboundThreading && !config.getThreadPoolInboundPartitionProperties().isEmpty();
+    }
+
     public boolean isTimerThreading()
     {
         return isTimerThreading;
@@ -85,9 +100,28 @@ public class ThreadingServiceImpl implements ThreadingService
         return isOutboundThreading;
     }
 
+    public boolean isFireAndForgetThreading()
+    {
+        return isFireAndForgetThreading;
+    }
+
     public void initThreading(EPServicesContext services, EPRuntimeImpl runtime)
     {
-        if (isInboundThreading)
+        if (isInboundPartitioned())
+        {
+            int numPartitions = config.getThreadPoolInboundNumThreads();
+            inboundPartitioner = new InboundUnitPartitioner(numPartitions, config.getThreadPoolInboundPartitionProperties());
+            inboundPartitionQueues = new BlockingQueue[numPartitions];
+            inboundPartitionThreadPools = new ThreadPoolExecutor[numPartitions];
+            for (int i = 0; i < numPartitions; i++)
+            {
+                inboundPartitionQueues[i] = makeQueue(config.getThreadPoolInboundCapacity());
+                inboundPartitionThreadPools[i] = getThreadPool(services.getEngineURI(), "Inbound-" + i, inboundPartitionQueues[i], 1);
+            }
+            inboundQueue = inboundPartitionQueues[0];
+            inboundThreadPool = inboundPartitionThreadPools[0];
+        }
+        else if (isInboundThreading)
         {
             inboundQueue = makeQueue(config.getThreadPoolInboundCapacity());
             inboundThreadPool = getThreadPool(services.getEngineURI(), "Inbound", inboundQueue, config.getThreadPoolInboundNumThreads());
@@ -110,6 +144,12 @@ public class ThreadingServiceImpl implements ThreadingService
             outboundQueue = makeQueue(config.getThreadPoolOutboundCapacity());
             outboundThreadPool = getThreadPool(services.getEngineURI(), "Outbound", outboundQueue, config.getThreadPoolOutboundNumThreads());
         }
+
+        if (isFireAndForgetThreading)
+        {
+            fireAndForgetQueue = makeQueue(null);
+            fireAndForgetThreadPool = getThreadPool(services.getEngineURI(), "FireAndForget", fireAndForgetQueue, config.getThreadPoolFireAndForgetNumThreads());
+        }
     }
 
     private BlockingQueue<Runnable> makeQueue(Integer threadPoolTimerExecCapacity)
@@ -142,6 +182,16 @@ public class ThreadingServiceImpl implements ThreadingService
     {
         try
         {
+            if (inboundPartitioner != null)
+            {
+                int partition = 0;
+                if (unit instanceof InboundUnitSendWrapped)
+                {
+                    partition = inboundPartitioner.getPartition(((InboundUnitSendWrapped) unit).getEventBean());
+                }
+                inboundPartitionQueues[partition].put(unit);
+                return;
+            }
             inboundQueue.put(unit);
         }
         catch (InterruptedException e)
@@ -214,6 +264,11 @@ public class ThreadingServiceImpl implements ThreadingService
         return inboundThreadPool;
     }
 
+    public ThreadPoolExecutor getFireAndForgetThreadPool()
+    {
+        return fireAndForgetThreadPool;
+    }
+
     public synchronized void destroy()
     {
         if (timerThreadPool != null)
@@ -228,7 +283,18 @@ public class ThreadingServiceImpl implements ThreadingService
         {
             stopPool(outboundThreadPool, outboundQueue, "Outbound");
         }
-        if (inboundThreadPool != null)
+        if (fireAndForgetThreadPool != null)
+        {
+            stopPool(fireAndForgetThreadPool, fireAndForgetQueue, "FireAndForget");
+        }
+        if (inboundPartitionThreadPools != null)
+        {
+            for (int i = 0; i < inboundPartitionThreadPools.length; i++)
+            {
+                stopPool(inboundPartitionThreadPools[i], inboundPartitionQueues[i], "Inbound-" + i);
+            }
+        }
+        else if (inboundThreadPool != null)
         {
             stopPool(inboundThreadPool, inboundQueue, "Inbound");
         }
@@ -237,6 +303,10 @@ public class ThreadingServiceImpl implements ThreadingService
         routeThreadPool = null;
         outboundThreadPool = null;
         inboundThreadPool = null;
+        fireAndForgetThreadPool = null;
+        inboundPartitionThreadPools = null;
+        inboundPartitionQueues = null;
+        inboundPartitioner = null;
     }
 
     private ThreadPoolExecutor getThreadPool(String engineURI, String name, BlockingQueue<Runnable> queue, int numThreads)
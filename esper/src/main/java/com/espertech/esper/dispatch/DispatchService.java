@@ -36,4 +36,10 @@ public interface DispatchService
      */
     public void dispatch();
 
+    /**
+     * Returns true if there are no Dispatchable implementations to execute for the current thread.
+     * @return indicator whether dispatch has nothing to execute
+     */
+    public boolean isEmpty();
+
 }
@@ -0,0 +1,64 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+import com.espertech.esper.epl.approx.HyperLogLog;
+
+/**
+ * Approximate distinct-count aggregation based on a HyperLogLog sketch, using a fixed amount of memory per group.
+ * <p>
+ * A sketch cannot forget values, therefore values leaving a data window are not removed.
+ */
+public class AggregatorApproxCountDistinct implements AggregationMethod
+{
+    protected final HyperLogLog sketch;
+
+    /**
+     * Ctor.
+     * @param precision sketch precision, the sketch has 2^precision registers
+     */
+    public AggregatorApproxCountDistinct(int precision)
+    {
+        this.sketch = new HyperLogLog(precision);
+    }
+
+    public void clear()
+    {
+        sketch.clear();
+    }
+
+    public void enter(Object object)
+    {
+        sketch.add(object);
+    }
+
+    public void leave(Object object)
+    {
+        // no action, a sketch cannot remove values and validation rejects streams that provide a remove stream
+    }
+
+    public Object getValue()
+    {
+        return sketch.estimate();
+    }
+
+    public Class getValueType()
+    {
+        return Long.class;
+    }
+
+    /**
+     * Returns the sketch, for merging with the sketches of other groups or partitions.
+     * @return sketch
+     */
+    public HyperLogLog getSketch()
+    {
+        return sketch;
+    }
+}
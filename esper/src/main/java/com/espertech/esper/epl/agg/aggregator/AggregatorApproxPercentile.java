@@ -0,0 +1,64 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+import com.espertech.esper.epl.approx.TDigest;
+
+/**
+ * Approximate percentile aggregation based on a t-digest, for use with unbound streams.
+ * <p>
+ * A t-digest cannot forget values, therefore values leaving a data window are not removed.
+ */
+public class AggregatorApproxPercentile implements AggregationMethod
+{
+    protected final double percentile;
+    protected final int compression;
+    protected TDigest digest;
+
+    /**
+     * Ctor.
+     * @param percentile percentile to compute, between 0 and 1
+     * @param compression digest compression, higher values are more accurate and use more memory
+     */
+    public AggregatorApproxPercentile(double percentile, int compression)
+    {
+        this.percentile = percentile;
+        this.compression = compression;
+        this.digest = new TDigest(compression);
+    }
+
+    public void clear()
+    {
+        digest = new TDigest(compression);
+    }
+
+    public void enter(Object object)
+    {
+        if (object == null)
+        {
+            return;
+        }
+        digest.add(((Number) object).doubleValue());
+    }
+
+    public void leave(Object object)
+    {
+        // no action, a digest cannot remove values and validation rejects streams that provide a remove stream
+    }
+
+    public Object getValue()
+    {
+        return digest.quantile(percentile);
+    }
+
+    public Class getValueType()
+    {
+        return Double.class;
+    }
+}
@@ -8,14 +8,14 @@
  **************************************************************************************/
 package com.espertech.esper.epl.agg.aggregator;
 
-import com.espertech.esper.collection.SortedDoubleVector;
+import com.espertech.esper.collection.RankedRefCountedDoubleSet;
 
 /**
  * Median aggregation.
  */
 public class AggregatorMedian implements AggregationMethod
 {
-    protected SortedDoubleVector vector;
+    protected RankedRefCountedDoubleSet vector;
 
     public void clear()
     {
@@ -27,7 +27,7 @@ public class AggregatorMedian implements AggregationMethod
      */
     public AggregatorMedian()
     {
-        this.vector = new SortedDoubleVector();
+        this.vector = new RankedRefCountedDoubleSet();
     }
 
     public void enter(Object object)
@@ -0,0 +1,97 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.aggregator;
+
+import com.espertech.esper.collection.RankedRefCountedDoubleSet;
+
+/**
+ * Percentile aggregation computing one or more percentiles by linear interpolation between the closest ranks.
+ */
+public class AggregatorPercentile implements AggregationMethod
+{
+    protected final double[] percentiles;
+    protected final boolean multiple;
+    protected RankedRefCountedDoubleSet vector;
+
+    /**
+     * Ctor.
+     * @param percentiles percentiles to compute, each between 0 and 1
+     * @param multiple true to return an array of values, false to return the value for the single percentile
+     */
+    public AggregatorPercentile(double[] percentiles, boolean multiple)
+    {
+        this.percentiles = percentiles;
+        this.multiple = multiple;
+        this.vector = new RankedRefCountedDoubleSet();
+    }
+
+    public void clear()
+    {
+        vector.clear();
+    }
+
+    public void enter(Object object)
+    {
+        if (object == null)
+        {
+            return;
+        }
+        vector.add(((Number) object).doubleValue());
+    }
+
+    public void leave(Object object)
+    {
+        if (object == null)
+        {
+            return;
+        }
+        vector.remove(((Number) object).doubleValue());
+    }
+
+    public Object getValue()
+    {
+        if (vector.size() == 0)
+        {
+            return null;
+        }
+        if (!multiple)
+        {
+            return computePercentile(vector, percentiles[0]);
+        }
+        Double[] result = new Double[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++)
+        {
+            result[i] = computePercentile(vector, percentiles[i]);
+        }
+        return result;
+    }
+
+    public Class getValueType()
+    {
+        return multiple ? Double[].class : Double.class;
+    }
+
+    /**
+     * Computes a percentile of the sorted values by linear interpolation between the closest ranks.
+     * @param vector sorted values, not empty
+     * @param percentile between 0 and 1
+     * @return percentile value
+     */
+    public static double computePercentile(RankedRefCountedDoubleSet vector, double percentile)
+    {
+        double rank = percentile * (vector.size() - 1);
+        int lower = (int) Math.floor(rank);
+        double lowerValue = vector.getValue(lower);
+        if (lower == rank || lower + 1 >= vector.size())
+        {
+            return lowerValue;
+        }
+        return lowerValue + (rank - lower) * (vector.getValue(lower + 1) - lowerValue);
+    }
+}
@@ -24,25 +24,29 @@ public class AggSvcGroupByAccessOnlyFactory implements AggregationServiceFactory
     private final AggregationStateFactory[] accessAggSpecs;
     private final Object groupKeyBinding;
     private final boolean isJoin;
+    private final Integer maxGroups;
 
     /**
      * Ctor.
      * @param accessors accessor definitions
      * @param accessAggSpecs access aggregations
      * @param isJoin true for join, false for single-stream
+     * @param maxGroups maximum number of groups or null if not capped
      */
     public AggSvcGroupByAccessOnlyFactory(AggregationAccessorSlotPair[] accessors,
                                           AggregationStateFactory[] accessAggSpecs,
                                           Object groupKeyBinding,
-                                          boolean isJoin)
+                                          boolean isJoin,
+                                          Integer maxGroups)
     {
         this.accessors = accessors;
         this.accessAggSpecs = accessAggSpecs;
         this.groupKeyBinding = groupKeyBinding;
         this.isJoin = isJoin;
+        this.maxGroups = maxGroups;
     }
 
     public AggregationService makeService(AgentInstanceContext agentInstanceContext, MethodResolutionService methodResolutionService) {
-        return new AggSvcGroupByAccessOnlyImpl(methodResolutionService, groupKeyBinding, accessors, accessAggSpecs, isJoin);
+        return new AggSvcGroupByAccessOnlyImpl(methodResolutionService, groupKeyBinding, accessors, accessAggSpecs, isJoin, GroupByCardinalityGovernor.make(maxGroups, agentInstanceContext));
     }
 }
@@ -18,8 +18,8 @@ import com.espertech.esper.epl.core.MethodResolutionService;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -30,6 +30,7 @@ public class AggSvcGroupByAccessOnlyImpl implements AggregationService, Aggregat
     private final MethodResolutionService methodResolutionService;
     private final Object groupKeyBinding;
     private final Map<Object, AggregationState[]> accessMap;
+    private final GroupByCardinalityGovernor governor;
     private final AggregationAccessorSlotPair[] accessors;
     private final AggregationStateFactory[] accessAggSpecs;
     private final boolean isJoin;
@@ -43,16 +44,19 @@ public class AggSvcGroupByAccessOnlyImpl implements AggregationService, Aggregat
      * @param accessors accessor definitions
      * @param accessAggSpecs access agg specs
      * @param isJoin true for join, false for single-stream
+     * @param governor caps the number of groups, or null if not capped
      */
     public AggSvcGroupByAccessOnlyImpl(MethodResolutionService methodResolutionService,
                                        Object groupKeyBinding,
                                        AggregationAccessorSlotPair[] accessors,
                                                    AggregationStateFactory[] accessAggSpecs,
-                                                   boolean isJoin)
+                                                   boolean isJoin,
+                                                   GroupByCardinalityGovernor governor)
     {
         this.methodResolutionService = methodResolutionService;
         this.groupKeyBinding = groupKeyBinding;
-        this.accessMap = new HashMap<Object, AggregationState[]>();
+        this.governor = governor;
+        this.accessMap = GroupByCardinalityGovernor.makeGroupMap(governor);
         this.accessors = accessors;
         this.accessAggSpecs = accessAggSpecs;
         this.isJoin = isJoin;
@@ -61,7 +65,7 @@ public class AggSvcGroupByAccessOnlyImpl implements AggregationService, Aggregat
     public void applyEnter(EventBean[] eventsPerStream, Object groupKey, ExprEvaluatorContext exprEvaluatorContext)
     {
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggregationGroupedApplyEnterLeave(true, 0, accessAggSpecs.length, groupKey);}
-        AggregationState[] row = getAssertRow(exprEvaluatorContext.getAgentInstanceId(), groupKey);
+        AggregationState[] row = getAssertRowGoverned(exprEvaluatorContext.getAgentInstanceId(), groupKey);
         for (int i = 0; i < row.length; i++) {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggAccessEnterLeave(true, i, row[i], accessAggSpecs[i].getAggregationExpression());}
             row[i].applyEnter(eventsPerStream, exprEvaluatorContext);
@@ -73,7 +77,18 @@ public class AggSvcGroupByAccessOnlyImpl implements AggregationService, Aggregat
     public void applyLeave(EventBean[] eventsPerStream, Object groupKey, ExprEvaluatorContext exprEvaluatorContext)
     {
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggregationGroupedApplyEnterLeave(false, 0, accessAggSpecs.length, groupKey);}
-        AggregationState[] row = getAssertRow(exprEvaluatorContext.getAgentInstanceId(), groupKey);
+        AggregationState[] row;
+        if (governor == null) {
+            row = getAssertRow(exprEvaluatorContext.getAgentInstanceId(), groupKey);
+        }
+        else {
+            // The group was evicted when capped, there is nothing to leave
+            row = accessMap.get(groupKey);
+            if (row == null) {
+                if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationGroupedApplyEnterLeave(false);}
+                return;
+            }
+        }
         for (int i = 0; i < row.length; i++) {
             if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggAccessEnterLeave(false, i, row[i], accessAggSpecs[i].getAggregationExpression());}
             row[i].applyLeave(eventsPerStream, exprEvaluatorContext);
@@ -125,6 +140,23 @@ public class AggSvcGroupByAccessOnlyImpl implements AggregationService, Aggregat
         return row;
     }
 
+    private AggregationState[] getAssertRowGoverned(int agentInstanceId, Object groupKey) {
+        if (governor == null) {
+            return getAssertRow(agentInstanceId, groupKey);
+        }
+        AggregationState[] row = accessMap.get(groupKey);
+        if (row != null) {
+            return row;
+        }
+
+        row = getAssertRow(agentInstanceId, groupKey);
+        Map.Entry<Object, AggregationState[]> evicted;
+        while ((evicted = governor.evictEldest(accessMap)) != null) {
+            methodResolutionService.removeAggregators(agentInstanceId, evicted.getKey(), groupKeyBinding, null);
+        }
+        return row;
+    }
+
     public void setRemovedCallback(AggregationRowRemovedCallback callback) {
         // not applicable
     }
@@ -149,6 +181,10 @@ public class AggSvcGroupByAccessOnlyImpl implements AggregationService, Aggregat
     }
 
     public Collection<Object> getGroupKeys(ExprEvaluatorContext exprEvaluatorContext) {
+        if (governor != null) {
+            // callers access groups while iterating and each access reorders the capped group map
+            return new ArrayList<Object>(accessMap.keySet());
+        }
         return accessMap.keySet();
     }
 }
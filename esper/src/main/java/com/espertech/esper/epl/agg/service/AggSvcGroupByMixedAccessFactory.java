@@ -21,6 +21,7 @@ public class AggSvcGroupByMixedAccessFactory extends AggregationServiceFactoryBa
     protected final AggregationAccessorSlotPair[] accessors;
     protected final AggregationStateFactory[] accessAggregations;
     protected final boolean isJoin;
+    protected final Integer maxGroups;
 
     /**
      * Ctor.
@@ -30,21 +31,24 @@ public class AggSvcGroupByMixedAccessFactory extends AggregationServiceFactoryBa
      * @param accessors accessor definitions
      * @param accessAggregations access aggs
      * @param isJoin true for join, false for single-stream
+     * @param maxGroups maximum number of groups or null if not capped
      */
     public AggSvcGroupByMixedAccessFactory(ExprEvaluator evaluators[],
                                            AggregationMethodFactory prototypes[],
                                            Object groupKeyBinding,
                                            AggregationAccessorSlotPair[] accessors,
                                            AggregationStateFactory[] accessAggregations,
-                                           boolean isJoin)
+                                           boolean isJoin,
+                                           Integer maxGroups)
     {
         super(evaluators, prototypes, groupKeyBinding);
         this.accessors = accessors;
         this.accessAggregations = accessAggregations;
         this.isJoin = isJoin;
+        this.maxGroups = maxGroups;
     }
 
     public AggregationService makeService(AgentInstanceContext agentInstanceContext, MethodResolutionService methodResolutionService) {
-        return new AggSvcGroupByMixedAccessImpl(evaluators, aggregators, groupKeyBinding, methodResolutionService, accessors, accessAggregations, isJoin);
+        return new AggSvcGroupByMixedAccessImpl(evaluators, aggregators, groupKeyBinding, methodResolutionService, accessors, accessAggregations, isJoin, GroupByCardinalityGovernor.make(maxGroups, agentInstanceContext));
     }
 }
\ No newline at end of file
@@ -17,8 +17,8 @@ import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -32,6 +32,7 @@ public class AggSvcGroupByMixedAccessImpl extends AggregationServiceBaseGrouped
 
     // maintain for each group a row of aggregator states that the expression node canb pull the data from via index
     protected Map<Object, AggregationRowPair> aggregatorsPerGroup;
+    private final GroupByCardinalityGovernor governor;
 
     // maintain a current row for random access into the aggregator state table
     // (row=groups, columns=expression nodes that have aggregation functions)
@@ -49,6 +50,7 @@ public class AggSvcGroupByMixedAccessImpl extends AggregationServiceBaseGrouped
      * @param accessorsFactory accessor definitions
      * @param accessAggregations access aggs
      * @param isJoin true for join, false for single-stream
+     * @param governor caps the number of groups, or null if not capped
      */
     public AggSvcGroupByMixedAccessImpl(ExprEvaluator evaluators[],
                                         AggregationMethodFactory prototypes[],
@@ -56,14 +58,16 @@ public class AggSvcGroupByMixedAccessImpl extends AggregationServiceBaseGrouped
                                         MethodResolutionService methodResolutionService,
                                         AggregationAccessorSlotPair[] accessorsFactory,
                                         AggregationStateFactory[] accessAggregations,
-                                        boolean isJoin)
+                                        boolean isJoin,
+                                        GroupByCardinalityGovernor governor)
     {
         super(evaluators, prototypes, groupKeyBinding);
         this.accessorsFactory = accessorsFactory;
         this.accessAggregations = accessAggregations;
         this.isJoin = isJoin;
         this.methodResolutionService = methodResolutionService;
-        this.aggregatorsPerGroup = new HashMap<Object, AggregationRowPair>();
+        this.governor = governor;
+        this.aggregatorsPerGroup = GroupByCardinalityGovernor.makeGroupMap(governor);
     }
 
     public void clearResults(ExprEvaluatorContext exprEvaluatorContext)
@@ -83,6 +87,9 @@ public class AggSvcGroupByMixedAccessImpl extends AggregationServiceBaseGrouped
             AggregationState[] states = methodResolutionService.newAccesses(exprEvaluatorContext.getAgentInstanceId(), isJoin, accessAggregations, groupByKey, groupKeyBinding, null);
             groupAggregators = new AggregationRowPair(methods, states);
             aggregatorsPerGroup.put(groupByKey, groupAggregators);
+            if (governor != null) {
+                evictGroups(exprEvaluatorContext.getAgentInstanceId());
+            }
         }
 
         // For this row, evaluate sub-expressions, enter result
@@ -111,6 +118,13 @@ public class AggSvcGroupByMixedAccessImpl extends AggregationServiceBaseGrouped
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggregationGroupedApplyEnterLeave(false, aggregators.length, accessAggregations.length, groupByKey);}
         AggregationRowPair groupAggregators = aggregatorsPerGroup.get(groupByKey);
 
+        // The group was evicted when capped, there is nothing to leave
+        if (groupAggregators == null && governor != null)
+        {
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationGroupedApplyEnterLeave(false);}
+            return;
+        }
+
         // The aggregators for this group do not exist, need to create them from the prototypes
         if (groupAggregators == null)
         {
@@ -197,6 +211,13 @@ public class AggSvcGroupByMixedAccessImpl extends AggregationServiceBaseGrouped
         }
     }
 
+    private void evictGroups(int agentInstanceId) {
+        Map.Entry<Object, AggregationRowPair> evicted;
+        while ((evicted = governor.evictEldest(aggregatorsPerGroup)) != null) {
+            methodResolutionService.removeAggregators(agentInstanceId, evicted.getKey(), groupKeyBinding, null);
+        }
+    }
+
     public void setRemovedCallback(AggregationRowRemovedCallback callback) {
         // not applicable
     }
@@ -225,6 +246,10 @@ public class AggSvcGroupByMixedAccessImpl extends AggregationServiceBaseGrouped
     }
 
     public Collection<Object> getGroupKeys(ExprEvaluatorContext exprEvaluatorContext) {
+        if (governor != null) {
+            // callers access groups while iterating and each access reorders the capped group map
+            return new ArrayList<Object>(aggregatorsPerGroup.keySet());
+        }
         return aggregatorsPerGroup.keySet();
     }
 }
\ No newline at end of file
@@ -0,0 +1,132 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Implementation for handling aggregation with grouping by group-keys that keeps aggregation state
+ * in columnar rows of primitive values, for use when all aggregations have a columnar representation.
+ */
+public class AggSvcGroupByNoAccessColumnarImpl extends AggregationServiceBaseGrouped
+{
+    // maintain for each group the slot of the row in the columnar aggregation state
+    private final Map<Object, Integer> slotsPerGroup;
+    private final AggregationColumnarRows rows;
+
+    private int currentSlot;
+    private Object currentGroupKey;
+
+    /**
+     * Ctor.
+     * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
+     * @param prototypes - collect the aggregation state that evaluators evaluate to
+     * @param groupKeyBinding - group key binding
+     * @param kinds - columnar kind of each aggregation
+     */
+    public AggSvcGroupByNoAccessColumnarImpl(ExprEvaluator evaluators[], AggregationMethodFactory prototypes[], Object groupKeyBinding, AggregationColumnarKind[] kinds)
+    {
+        super(evaluators, prototypes, groupKeyBinding);
+        this.slotsPerGroup = new HashMap<Object, Integer>();
+        this.rows = new AggregationColumnarRows(kinds);
+    }
+
+    public void clearResults(ExprEvaluatorContext exprEvaluatorContext)
+    {
+        slotsPerGroup.clear();
+        rows.clear();
+    }
+
+    public void applyEnter(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        int slot = getOrAllocate(groupByKey);
+        currentSlot = slot;
+        for (int i = 0; i < evaluators.length; i++)
+        {
+            rows.enter(slot, i, evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext));
+        }
+    }
+
+    public void applyLeave(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        int slot = getOrAllocate(groupByKey);
+        currentSlot = slot;
+        for (int i = 0; i < evaluators.length; i++)
+        {
+            rows.leave(slot, i, evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext));
+        }
+    }
+
+    public void setCurrentAccess(Object groupByKey, int agentInstanceId, AggregationGroupByRollupLevel rollupLevel)
+    {
+        currentSlot = getOrAllocate(groupByKey);
+        currentGroupKey = groupByKey;
+    }
+
+    public Object getValue(int column, int agentInstanceId, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        return rows.getValue(currentSlot, column);
+    }
+
+    public Collection<EventBean> getCollectionOfEvents(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public Collection<Object> getCollectionScalar(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public EventBean getEventBean(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public void setRemovedCallback(AggregationRowRemovedCallback callback) {
+        // not applicable
+    }
+
+    public void accept(AggregationServiceVisitor visitor) {
+        visitor.visitAggregations(slotsPerGroup.size(), slotsPerGroup, rows);
+    }
+
+    public void acceptGroupDetail(AggregationServiceVisitorWGroupDetail visitor) {
+        visitor.visitGrouped(slotsPerGroup.size());
+        for (Map.Entry<Object, Integer> entry : slotsPerGroup.entrySet()) {
+            visitor.visitGroup(entry.getKey(), rows.getValues(entry.getValue()));
+        }
+    }
+
+    public boolean isGrouped() {
+        return true;
+    }
+
+    public Object getGroupKey(int agentInstanceId) {
+        return currentGroupKey;
+    }
+
+    public Collection<Object> getGroupKeys(ExprEvaluatorContext exprEvaluatorContext) {
+        return slotsPerGroup.keySet();
+    }
+
+    private int getOrAllocate(Object groupByKey)
+    {
+        Integer slot = slotsPerGroup.get(groupByKey);
+        if (slot == null)
+        {
+            slot = rows.allocate();
+            slotsPerGroup.put(groupByKey, slot);
+        }
+        return slot;
+    }
+}
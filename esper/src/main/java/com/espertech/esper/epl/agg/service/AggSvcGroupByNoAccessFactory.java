@@ -17,18 +17,26 @@ import com.espertech.esper.epl.expression.core.ExprEvaluator;
  */
 public class AggSvcGroupByNoAccessFactory extends AggregationServiceFactoryBase
 {
+    private final Integer maxGroups;
+
     /**
      * Ctor.
      * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
      * @param prototypes - collect the aggregation state that evaluators evaluate to, act as prototypes for new aggregations
      * aggregation states for each group
+     * @param maxGroups maximum number of groups or null if not capped
      */
-    public AggSvcGroupByNoAccessFactory(ExprEvaluator evaluators[], AggregationMethodFactory prototypes[], Object groupKeyBinding)
+    public AggSvcGroupByNoAccessFactory(ExprEvaluator evaluators[], AggregationMethodFactory prototypes[], Object groupKeyBinding, Integer maxGroups)
     {
         super(evaluators, prototypes, groupKeyBinding);
+        this.maxGroups = maxGroups;
     }
 
     public AggregationService makeService(AgentInstanceContext agentInstanceContext, MethodResolutionService methodResolutionService) {
-        return new AggSvcGroupByNoAccessImpl(evaluators, aggregators, groupKeyBinding, methodResolutionService);
+        AggregationColumnarKind[] kinds = AggregationColumnarKind.getKinds(aggregators, methodResolutionService);
+        if (kinds != null && maxGroups == null) {
+            return new AggSvcGroupByNoAccessColumnarImpl(evaluators, aggregators, groupKeyBinding, kinds);
+        }
+        return new AggSvcGroupByNoAccessImpl(evaluators, aggregators, groupKeyBinding, methodResolutionService, GroupByCardinalityGovernor.make(maxGroups, agentInstanceContext));
     }
 }
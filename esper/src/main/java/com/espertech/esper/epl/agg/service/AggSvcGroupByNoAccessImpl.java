@@ -15,8 +15,8 @@ import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -33,6 +33,7 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped
     private Object currentGroupKey;
 
     private MethodResolutionService methodResolutionService;
+    private final GroupByCardinalityGovernor governor;
 
     /**
      * Ctor.
@@ -40,12 +41,14 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped
      * @param prototypes - collect the aggregation state that evaluators evaluate to, act as prototypes for new aggregations
      * aggregation states for each group
      * @param methodResolutionService - factory for creating additional aggregation method instances per group key
+     * @param governor - caps the number of groups, or null if not capped
      */
-    public AggSvcGroupByNoAccessImpl(ExprEvaluator evaluators[], AggregationMethodFactory prototypes[], Object groupKeyBinding, MethodResolutionService methodResolutionService)
+    public AggSvcGroupByNoAccessImpl(ExprEvaluator evaluators[], AggregationMethodFactory prototypes[], Object groupKeyBinding, MethodResolutionService methodResolutionService, GroupByCardinalityGovernor governor)
     {
         super(evaluators, prototypes, groupKeyBinding);
         this.methodResolutionService = methodResolutionService;
-        this.aggregatorsPerGroup = new HashMap<Object, AggregationMethod[]>();
+        this.governor = governor;
+        this.aggregatorsPerGroup = GroupByCardinalityGovernor.makeGroupMap(governor);
     }
 
     public void clearResults(ExprEvaluatorContext exprEvaluatorContext)
@@ -63,6 +66,9 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped
         {
             groupAggregators = methodResolutionService.newAggregators(aggregators, exprEvaluatorContext.getAgentInstanceId(), groupByKey, groupKeyBinding, null);
             aggregatorsPerGroup.put(groupByKey, groupAggregators);
+            if (governor != null) {
+                evictGroups(exprEvaluatorContext.getAgentInstanceId());
+            }
         }
 
         // For this row, evaluate sub-expressions, enter result
@@ -82,6 +88,13 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggregationGroupedApplyEnterLeave(false, aggregators.length, 0, groupByKey);}
         AggregationMethod[] groupAggregators = aggregatorsPerGroup.get(groupByKey);
 
+        // The group was evicted when capped, there is nothing to leave
+        if (groupAggregators == null && governor != null)
+        {
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationGroupedApplyEnterLeave(false);}
+            return;
+        }
+
         // The aggregators for this group do not exist, need to create them from the prototypes
         if (groupAggregators == null)
         {
@@ -130,6 +143,13 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped
         return null;
     }
 
+    private void evictGroups(int agentInstanceId) {
+        Map.Entry<Object, AggregationMethod[]> evicted;
+        while ((evicted = governor.evictEldest(aggregatorsPerGroup)) != null) {
+            methodResolutionService.removeAggregators(agentInstanceId, evicted.getKey(), groupKeyBinding, null);
+        }
+    }
+
     public void setRemovedCallback(AggregationRowRemovedCallback callback) {
         // not applicable
     }
@@ -154,6 +174,10 @@ public class AggSvcGroupByNoAccessImpl extends AggregationServiceBaseGrouped
     }
 
     public Collection<Object> getGroupKeys(ExprEvaluatorContext exprEvaluatorContext) {
+        if (governor != null) {
+            // callers access groups while iterating and each access reorders the capped group map
+            return new ArrayList<Object>(aggregatorsPerGroup.keySet());
+        }
         return aggregatorsPerGroup.keySet();
     }
 }
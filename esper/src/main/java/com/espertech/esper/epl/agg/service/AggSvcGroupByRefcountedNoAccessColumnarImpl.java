@@ -0,0 +1,178 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.core.MethodResolutionService;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+
+import java.util.*;
+
+/**
+ * Implementation for handling aggregation with grouping by group-keys and reference-counted removal of groups
+ * that keeps aggregation state in columnar rows of primitive values, for use when all aggregations
+ * have a columnar representation.
+ */
+public class AggSvcGroupByRefcountedNoAccessColumnarImpl extends AggregationServiceBaseGrouped
+{
+    // maintain for each group the slot of the row in the columnar aggregation state
+    private final Map<Object, Integer> slotsPerGroup;
+    private final AggregationColumnarRows rows;
+    private final MethodResolutionService methodResolutionService;
+    private final List<Object> removedKeys;
+
+    // slot of the current row, or -1 for a group without row
+    private int currentSlot = -1;
+    private Object currentGroupKey;
+
+    /**
+     * Ctor.
+     * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
+     * @param prototypes - collect the aggregation state that evaluators evaluate to
+     * @param groupKeyBinding - group key binding
+     * @param methodResolutionService - for indicating removed group keys
+     * @param kinds - columnar kind of each aggregation
+     */
+    public AggSvcGroupByRefcountedNoAccessColumnarImpl(ExprEvaluator evaluators[],
+                                                       AggregationMethodFactory prototypes[],
+                                                       Object groupKeyBinding,
+                                                       MethodResolutionService methodResolutionService,
+                                                       AggregationColumnarKind[] kinds)
+    {
+        super(evaluators, prototypes, groupKeyBinding);
+        this.methodResolutionService = methodResolutionService;
+        this.slotsPerGroup = new HashMap<Object, Integer>();
+        this.rows = new AggregationColumnarRows(kinds);
+        this.removedKeys = new ArrayList<Object>();
+    }
+
+    public void clearResults(ExprEvaluatorContext exprEvaluatorContext)
+    {
+        slotsPerGroup.clear();
+        removedKeys.clear();
+        rows.clear();
+        currentSlot = -1;
+    }
+
+    public void applyEnter(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        handleRemovedKeys();
+
+        Integer slot = slotsPerGroup.get(groupByKey);
+        if (slot == null)
+        {
+            slot = rows.allocate();
+            slotsPerGroup.put(groupByKey, slot);
+        }
+        else
+        {
+            rows.increaseRefcount(slot);
+        }
+
+        currentSlot = slot;
+        for (int i = 0; i < evaluators.length; i++)
+        {
+            rows.enter(slot, i, evaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext));
+        }
+    }
+
+    public void applyLeave(EventBean[] eventsPerStream, Object groupByKey, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        Integer slot = slotsPerGroup.get(groupByKey);
+        if (slot == null)
+        {
+            slot = rows.allocate();
+            slotsPerGroup.put(groupByKey, slot);
+        }
+
+        currentSlot = slot;
+        for (int i = 0; i < evaluators.length; i++)
+        {
+            rows.leave(slot, i, evaluators[i].evaluate(eventsPerStream, false, exprEvaluatorContext));
+        }
+
+        if (rows.decreaseRefcount(slot) <= 0)
+        {
+            removedKeys.add(groupByKey);
+            methodResolutionService.removeAggregators(exprEvaluatorContext.getAgentInstanceId(), groupByKey, groupKeyBinding, null);
+        }
+    }
+
+    public void setCurrentAccess(Object groupByKey, int agentInstanceId, AggregationGroupByRollupLevel rollupLevel)
+    {
+        Integer slot = slotsPerGroup.get(groupByKey);
+        currentSlot = slot == null ? -1 : slot;
+        currentGroupKey = groupByKey;
+    }
+
+    public Object getValue(int column, int agentInstanceId, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        if (currentSlot == -1)
+        {
+            return rows.getEmptyValue(column);
+        }
+        return rows.getValue(currentSlot, column);
+    }
+
+    public Collection<EventBean> getCollectionOfEvents(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public Collection<Object> getCollectionScalar(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public EventBean getEventBean(int column, EventBean[] eventsPerStream, boolean isNewData, ExprEvaluatorContext context) {
+        return null;
+    }
+
+    public void setRemovedCallback(AggregationRowRemovedCallback callback) {
+        // not applicable
+    }
+
+    public void accept(AggregationServiceVisitor visitor) {
+        visitor.visitAggregations(slotsPerGroup.size(), slotsPerGroup, rows);
+    }
+
+    public void acceptGroupDetail(AggregationServiceVisitorWGroupDetail visitor) {
+        visitor.visitGrouped(slotsPerGroup.size());
+        for (Map.Entry<Object, Integer> entry : slotsPerGroup.entrySet()) {
+            visitor.visitGroup(entry.getKey(), rows.getValues(entry.getValue()));
+        }
+    }
+
+    public boolean isGrouped() {
+        return true;
+    }
+
+    public Object getGroupKey(int agentInstanceId) {
+        return currentGroupKey;
+    }
+
+    public Collection<Object> getGroupKeys(ExprEvaluatorContext exprEvaluatorContext) {
+        handleRemovedKeys();
+        return slotsPerGroup.keySet();
+    }
+
+    private void handleRemovedKeys() {
+        if (!removedKeys.isEmpty())     // removed keys are collected lazily on the next enter, as for the non-columnar service
+        {
+            for (Object removedKey : removedKeys)
+            {
+                Integer slot = slotsPerGroup.remove(removedKey);
+                if (slot != null)
+                {
+                    rows.free(slot);
+                }
+            }
+            removedKeys.clear();
+        }
+    }
+}
@@ -17,20 +17,29 @@ import com.espertech.esper.epl.expression.core.ExprEvaluator;
  */
 public class AggSvcGroupByRefcountedNoAccessFactory extends AggregationServiceFactoryBase
 {
+    private final Integer maxGroups;
+
     /**
      * Ctor.
      * @param evaluators - evaluate the sub-expression within the aggregate function (ie. sum(4*myNum))
      * @param prototypes - collect the aggregation state that evaluators evaluate to, act as prototypes for new aggregations
      * aggregation states for each group
+     * @param maxGroups maximum number of groups or null if not capped
      */
     public AggSvcGroupByRefcountedNoAccessFactory(ExprEvaluator evaluators[],
                                                   AggregationMethodFactory prototypes[],
-                                                  Object groupKeyBinding)
+                                                  Object groupKeyBinding,
+                                                  Integer maxGroups)
     {
         super(evaluators, prototypes, groupKeyBinding);
+        this.maxGroups = maxGroups;
     }
 
     public AggregationService makeService(AgentInstanceContext agentInstanceContext, MethodResolutionService methodResolutionService) {
-        return new AggSvcGroupByRefcountedNoAccessImpl(evaluators, aggregators, groupKeyBinding, methodResolutionService);
+        AggregationColumnarKind[] kinds = AggregationColumnarKind.getKinds(aggregators, methodResolutionService);
+        if (kinds != null && maxGroups == null) {
+            return new AggSvcGroupByRefcountedNoAccessColumnarImpl(evaluators, aggregators, groupKeyBinding, methodResolutionService, kinds);
+        }
+        return new AggSvcGroupByRefcountedNoAccessImpl(evaluators, aggregators, groupKeyBinding, methodResolutionService, GroupByCardinalityGovernor.make(maxGroups, agentInstanceContext));
     }
 }
@@ -33,6 +33,7 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
     private MethodResolutionService methodResolutionService;
 
     private List<Object> removedKeys;
+    private final GroupByCardinalityGovernor governor;
 
     /**
      * Ctor.
@@ -40,15 +41,18 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
      * @param prototypes - collect the aggregation state that evaluators evaluate to, act as prototypes for new aggregations
      * aggregation states for each group
      * @param methodResolutionService - factory for creating additional aggregation method instances per group key
+     * @param governor - caps the number of groups, or null if not capped
      */
     public AggSvcGroupByRefcountedNoAccessImpl(ExprEvaluator evaluators[],
                                        AggregationMethodFactory prototypes[],
                                        Object groupKeyBinding,
-                                       MethodResolutionService methodResolutionService)
+                                       MethodResolutionService methodResolutionService,
+                                       GroupByCardinalityGovernor governor)
     {
         super(evaluators, prototypes, groupKeyBinding);
         this.methodResolutionService = methodResolutionService;
-        this.aggregatorsPerGroup = new HashMap<Object, AggregationMethodRow>();
+        this.governor = governor;
+        this.aggregatorsPerGroup = GroupByCardinalityGovernor.makeGroupMap(governor);
         removedKeys = new ArrayList<Object>();
     }
 
@@ -71,6 +75,9 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
             groupAggregators = methodResolutionService.newAggregators(aggregators, exprEvaluatorContext.getAgentInstanceId(), groupByKey, groupKeyBinding, null);
             row = new AggregationMethodRow(methodResolutionService.getCurrentRowCount(groupAggregators, null) + 1, groupAggregators);
             aggregatorsPerGroup.put(groupByKey, row);
+            if (governor != null) {
+                evictGroups(exprEvaluatorContext.getAgentInstanceId());
+            }
         }
         else
         {
@@ -94,6 +101,13 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggregationGroupedApplyEnterLeave(false, aggregators.length, 0, groupByKey);}
         AggregationMethodRow row = aggregatorsPerGroup.get(groupByKey);
 
+        // The group was evicted when capped, there is nothing to leave
+        if (row == null && governor != null)
+        {
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationGroupedApplyEnterLeave(false);}
+            return;
+        }
+
         // The aggregators for this group do not exist, need to create them from the prototypes
         AggregationMethod[] groupAggregators;
         if (row != null)
@@ -159,6 +173,13 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
         return null;
     }
 
+    private void evictGroups(int agentInstanceId) {
+        Map.Entry<Object, AggregationMethodRow> evicted;
+        while ((evicted = governor.evictEldest(aggregatorsPerGroup)) != null) {
+            methodResolutionService.removeAggregators(agentInstanceId, evicted.getKey(), groupKeyBinding, null);
+        }
+    }
+
     public void setRemovedCallback(AggregationRowRemovedCallback callback) {
         // not applicable
     }
@@ -195,6 +216,10 @@ public class AggSvcGroupByRefcountedNoAccessImpl extends AggregationServiceBaseG
 
     public Collection<Object> getGroupKeys(ExprEvaluatorContext exprEvaluatorContext) {
         handleRemovedKeys();
+        if (governor != null) {
+            // callers access groups while iterating and each access reorders the capped group map
+            return new ArrayList<Object>(aggregatorsPerGroup.keySet());
+        }
         return aggregatorsPerGroup.keySet();
     }
 }
@@ -21,6 +21,7 @@ public class AggSvcGroupByRefcountedWAccessFactory extends AggregationServiceFac
     protected final AggregationAccessorSlotPair[] accessors;
     protected final AggregationStateFactory[] accessAggregations;
     protected final boolean isJoin;
+    protected final Integer maxGroups;
 
     /**
      * Ctor.
@@ -30,21 +31,24 @@ public class AggSvcGroupByRefcountedWAccessFactory extends AggregationServiceFac
      * @param accessors accessor definitions
      * @param accessAggregations access aggs
      * @param isJoin true for join, false for single-stream
+     * @param maxGroups maximum number of groups or null if not capped
      */
     public AggSvcGroupByRefcountedWAccessFactory(ExprEvaluator evaluators[],
                                                  AggregationMethodFactory prototypes[],
                                                  Object groupKeyBinding,
                                                  AggregationAccessorSlotPair[] accessors,
                                                  AggregationStateFactory[] accessAggregations,
-                                                 boolean isJoin)
+                                                 boolean isJoin,
+                                                 Integer maxGroups)
     {
         super(evaluators, prototypes, groupKeyBinding);
         this.accessors = accessors;
         this.accessAggregations = accessAggregations;
         this.isJoin = isJoin;
+        this.maxGroups = maxGroups;
     }
 
     public AggregationService makeService(AgentInstanceContext agentInstanceContext, MethodResolutionService methodResolutionService) {
-        return new AggSvcGroupByRefcountedWAccessImpl(evaluators, aggregators, groupKeyBinding, methodResolutionService, accessors, accessAggregations, isJoin);
+        return new AggSvcGroupByRefcountedWAccessImpl(evaluators, aggregators, groupKeyBinding, methodResolutionService, accessors, accessAggregations, isJoin, GroupByCardinalityGovernor.make(maxGroups, agentInstanceContext));
     }
 }
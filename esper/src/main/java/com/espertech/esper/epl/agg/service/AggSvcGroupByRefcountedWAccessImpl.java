@@ -40,6 +40,7 @@ public class AggSvcGroupByRefcountedWAccessImpl extends AggregationServiceBaseGr
     private MethodResolutionService methodResolutionService;
 
     protected List<Object> removedKeys;
+    private final GroupByCardinalityGovernor governor;
 
     /**
      * Ctor.
@@ -50,6 +51,7 @@ public class AggSvcGroupByRefcountedWAccessImpl extends AggregationServiceBaseGr
      * @param accessors accessor definitions
      * @param accessAggregations access aggs
      * @param isJoin true for join, false for single-stream
+     * @param governor caps the number of groups, or null if not capped
      */
     public AggSvcGroupByRefcountedWAccessImpl(ExprEvaluator evaluators[],
                                        AggregationMethodFactory prototypes[],
@@ -57,11 +59,13 @@ public class AggSvcGroupByRefcountedWAccessImpl extends AggregationServiceBaseGr
                                        MethodResolutionService methodResolutionService,
                                        AggregationAccessorSlotPair[] accessors,
                                        AggregationStateFactory[] accessAggregations,
-                                       boolean isJoin)
+                                       boolean isJoin,
+                                       GroupByCardinalityGovernor governor)
     {
         super(evaluators, prototypes, groupKeyBinding);
         this.methodResolutionService = methodResolutionService;
-        this.aggregatorsPerGroup = new HashMap<Object, AggregationMethodPairRow>();
+        this.governor = governor;
+        this.aggregatorsPerGroup = GroupByCardinalityGovernor.makeGroupMap(governor);
         this.accessors = accessors;
         this.accessAggregations = accessAggregations;
         this.isJoin = isJoin;
@@ -89,6 +93,9 @@ public class AggSvcGroupByRefcountedWAccessImpl extends AggregationServiceBaseGr
             groupStates = methodResolutionService.newAccesses(exprEvaluatorContext.getAgentInstanceId(), isJoin, accessAggregations, groupByKey, groupKeyBinding, null);
             row = new AggregationMethodPairRow(methodResolutionService.getCurrentRowCount(groupAggregators, groupStates) + 1, groupAggregators, groupStates);
             aggregatorsPerGroup.put(groupByKey, row);
+            if (governor != null) {
+                evictGroups(exprEvaluatorContext.getAgentInstanceId());
+            }
         }
         else
         {
@@ -123,6 +130,13 @@ public class AggSvcGroupByRefcountedWAccessImpl extends AggregationServiceBaseGr
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qAggregationGroupedApplyEnterLeave(false, aggregators.length, accessAggregations.length, groupByKey);}
         AggregationMethodPairRow row = aggregatorsPerGroup.get(groupByKey);
 
+        // The group was evicted when capped, there is nothing to leave
+        if (row == null && governor != null)
+        {
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aAggregationGroupedApplyEnterLeave(false);}
+            return;
+        }
+
         // The aggregators for this group do not exist, need to create them from the prototypes
         AggregationMethod[] groupAggregators;
         AggregationState[] groupStates;
@@ -232,6 +246,14 @@ public class AggSvcGroupByRefcountedWAccessImpl extends AggregationServiceBaseGr
         // not applicable
     }
 
+    private void evictGroups(int agentInstanceId) {
+        Map.Entry<Object, AggregationMethodPairRow> evicted;
+        while ((evicted = governor.evictEldest(aggregatorsPerGroup)) != null) {
+            methodResolutionService.removeAggregators(agentInstanceId, evicted.getKey(), groupKeyBinding, null);
+            internalHandleGroupRemove(evicted.getKey());
+        }
+    }
+
     public void internalHandleGroupUpdate(Object groupByKey, AggregationMethodPairRow row) {
         // no action required
     }
@@ -272,6 +294,10 @@ public class AggSvcGroupByRefcountedWAccessImpl extends AggregationServiceBaseGr
     }
 
     public Collection<Object> getGroupKeys(ExprEvaluatorContext exprEvaluatorContext) {
+        if (governor != null) {
+            // callers access groups while iterating and each access reorders the capped group map
+            return new ArrayList<Object>(aggregatorsPerGroup.keySet());
+        }
         return aggregatorsPerGroup.keySet();
     }
 }
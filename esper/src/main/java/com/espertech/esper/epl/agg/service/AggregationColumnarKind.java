@@ -0,0 +1,136 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.epl.agg.aggregator.*;
+import com.espertech.esper.epl.core.MethodResolutionService;
+import com.espertech.esper.epl.core.MethodResolutionServiceImpl;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+/**
+ * Kind of aggregation function that a columnar aggregation row layout can keep as primitive values,
+ * see {@link AggregationColumnarRows}.
+ */
+public enum AggregationColumnarKind
+{
+    /**
+     * Sum of int values.
+     */
+    SUM_INTEGER(true, false),
+
+    /**
+     * Sum of long values.
+     */
+    SUM_LONG(true, false),
+
+    /**
+     * Sum of double values.
+     */
+    SUM_DOUBLE(false, true),
+
+    /**
+     * Average of numeric values except big decimal and big integer values.
+     */
+    AVG(false, true),
+
+    /**
+     * Count of all values.
+     */
+    COUNT(false, false),
+
+    /**
+     * Count of non-null values.
+     */
+    COUNT_NONNULL(false, false);
+
+    private final boolean longSum;
+    private final boolean doubleSum;
+
+    private AggregationColumnarKind(boolean longSum, boolean doubleSum)
+    {
+        this.longSum = longSum;
+        this.doubleSum = doubleSum;
+    }
+
+    /**
+     * Returns indicator whether the aggregation keeps a sum of long values.
+     * @return indicator
+     */
+    public boolean isLongSum()
+    {
+        return longSum;
+    }
+
+    /**
+     * Returns indicator whether the aggregation keeps a sum of double values.
+     * @return indicator
+     */
+    public boolean isDoubleSum()
+    {
+        return doubleSum;
+    }
+
+    /**
+     * Returns the columnar kind for each aggregation, or null if any of the aggregations cannot be kept columnar.
+     * <p>
+     * The kind is determined from the aggregation method that the factory makes, therefore distinct-value
+     * and filtered aggregations as well as aggregations made by a method resolution service other than
+     * the default one are not kept columnar.
+     * @param prototypes aggregation factories
+     * @param methodResolutionService service that makes aggregation methods
+     * @return kinds or null if not applicable
+     */
+    public static AggregationColumnarKind[] getKinds(AggregationMethodFactory[] prototypes, MethodResolutionService methodResolutionService)
+    {
+        if (InstrumentationHelper.ENABLED || methodResolutionService == null || methodResolutionService.getClass() != MethodResolutionServiceImpl.class)
+        {
+            return null;
+        }
+        AggregationColumnarKind[] kinds = new AggregationColumnarKind[prototypes.length];
+        for (int i = 0; i < prototypes.length; i++)
+        {
+            kinds[i] = getKind(prototypes[i].make(methodResolutionService, -1, -1, i));
+            if (kinds[i] == null)
+            {
+                return null;
+            }
+        }
+        return kinds;
+    }
+
+    private static AggregationColumnarKind getKind(AggregationMethod method)
+    {
+        Class clazz = method.getClass();
+        if (clazz == AggregatorSumInteger.class)
+        {
+            return SUM_INTEGER;
+        }
+        if (clazz == AggregatorSumLong.class)
+        {
+            return SUM_LONG;
+        }
+        if (clazz == AggregatorSumDouble.class)
+        {
+            return SUM_DOUBLE;
+        }
+        if (clazz == AggregatorAvg.class)
+        {
+            return AVG;
+        }
+        if (clazz == AggregatorCount.class)
+        {
+            return COUNT;
+        }
+        if (clazz == AggregatorCountNonNull.class)
+        {
+            return COUNT_NONNULL;
+        }
+        return null;
+    }
+}
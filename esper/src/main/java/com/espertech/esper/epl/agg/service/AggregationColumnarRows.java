@@ -0,0 +1,371 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+import java.util.Arrays;
+
+/**
+ * Columnar layout of aggregation rows: instead of an aggregation method object per aggregation and group,
+ * the state of all groups is kept in parallel primitive arrays per aggregation, indexed by row slot.
+ * <p>
+ * Values are entered and left as primitive long or double values, following the semantics of
+ * the aggregation method that the {@link AggregationColumnarKind} represents.
+ * Slots of removed rows are reused for new rows.
+ */
+public class AggregationColumnarRows
+{
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final AggregationColumnarKind[] kinds;
+    private final long[][] counts;
+    private final long[][] longSums;
+    private final double[][] doubleSums;
+    private int[] refcounts;
+    private int[] freeSlots;
+    private int numFreeSlots;
+    private int numSlotsAllocated;
+    private int capacity;
+
+    /**
+     * Ctor.
+     * @param kinds kind of each aggregation
+     */
+    public AggregationColumnarRows(AggregationColumnarKind[] kinds)
+    {
+        this.kinds = kinds;
+        this.counts = new long[kinds.length][];
+        this.longSums = new long[kinds.length][];
+        this.doubleSums = new double[kinds.length][];
+        allocateArrays(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Allocates a slot for a new row, with a reference count of one and all aggregations cleared.
+     * @return slot
+     */
+    public int allocate()
+    {
+        int slot;
+        if (numFreeSlots > 0)
+        {
+            slot = freeSlots[--numFreeSlots];
+        }
+        else
+        {
+            if (numSlotsAllocated == capacity)
+            {
+                grow();
+            }
+            slot = numSlotsAllocated++;
+        }
+        for (int column = 0; column < kinds.length; column++)
+        {
+            clear(slot, column);
+        }
+        refcounts[slot] = 1;
+        return slot;
+    }
+
+    /**
+     * Frees the slot for reuse.
+     * @param slot to free
+     */
+    public void free(int slot)
+    {
+        if (numFreeSlots == freeSlots.length)
+        {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[numFreeSlots++] = slot;
+    }
+
+    /**
+     * Removes all rows.
+     */
+    public void clear()
+    {
+        numFreeSlots = 0;
+        numSlotsAllocated = 0;
+        allocateArrays(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Returns the number of rows.
+     * @return rows
+     */
+    public int getNumRows()
+    {
+        return numSlotsAllocated - numFreeSlots;
+    }
+
+    /**
+     * Increases the reference count of the row.
+     * @param slot row
+     */
+    public void increaseRefcount(int slot)
+    {
+        refcounts[slot]++;
+    }
+
+    /**
+     * Decreases the reference count of the row.
+     * @param slot row
+     * @return reference count after decrease
+     */
+    public int decreaseRefcount(int slot)
+    {
+        return --refcounts[slot];
+    }
+
+    /**
+     * Enters a value, converting the value to a primitive value.
+     * @param slot row
+     * @param column aggregation
+     * @param value to enter, or null
+     */
+    public void enter(int slot, int column, Object value)
+    {
+        AggregationColumnarKind kind = kinds[column];
+        if (kind == AggregationColumnarKind.COUNT)
+        {
+            counts[column][slot]++;
+        }
+        else if (value != null)
+        {
+            if (kind.isLongSum())
+            {
+                enterLong(slot, column, ((Number) value).longValue());
+            }
+            else if (kind.isDoubleSum())
+            {
+                enterDouble(slot, column, ((Number) value).doubleValue());
+            }
+            else
+            {
+                counts[column][slot]++;
+            }
+        }
+    }
+
+    /**
+     * Leaves a value, converting the value to a primitive value.
+     * @param slot row
+     * @param column aggregation
+     * @param value to leave, or null
+     */
+    public void leave(int slot, int column, Object value)
+    {
+        AggregationColumnarKind kind = kinds[column];
+        if (kind == AggregationColumnarKind.COUNT)
+        {
+            if (counts[column][slot] > 0)
+            {
+                counts[column][slot]--;
+            }
+        }
+        else if (value != null)
+        {
+            if (kind.isLongSum())
+            {
+                leaveLong(slot, column, ((Number) value).longValue());
+            }
+            else if (kind.isDoubleSum())
+            {
+                leaveDouble(slot, column, ((Number) value).doubleValue());
+            }
+            else if (counts[column][slot] > 0)
+            {
+                counts[column][slot]--;
+            }
+        }
+    }
+
+    /**
+     * Enters a non-null value into a sum of long values.
+     * @param slot row
+     * @param column aggregation
+     * @param value to enter
+     */
+    public void enterLong(int slot, int column, long value)
+    {
+        counts[column][slot]++;
+        longSums[column][slot] += value;
+    }
+
+    /**
+     * Leaves a non-null value from a sum of long values.
+     * @param slot row
+     * @param column aggregation
+     * @param value to leave
+     */
+    public void leaveLong(int slot, int column, long value)
+    {
+        if (counts[column][slot] <= 1)
+        {
+            clear(slot, column);
+        }
+        else
+        {
+            counts[column][slot]--;
+            longSums[column][slot] -= value;
+        }
+    }
+
+    /**
+     * Enters a non-null value into a sum or average of double values.
+     * @param slot row
+     * @param column aggregation
+     * @param value to enter
+     */
+    public void enterDouble(int slot, int column, double value)
+    {
+        counts[column][slot]++;
+        doubleSums[column][slot] += value;
+    }
+
+    /**
+     * Leaves a non-null value from a sum or average of double values.
+     * @param slot row
+     * @param column aggregation
+     * @param value to leave
+     */
+    public void leaveDouble(int slot, int column, double value)
+    {
+        if (counts[column][slot] <= 1)
+        {
+            clear(slot, column);
+        }
+        else
+        {
+            counts[column][slot]--;
+            doubleSums[column][slot] -= value;
+        }
+    }
+
+    /**
+     * Adds the aggregation state of a row of other rows of the same kinds to a row, for merging partial aggregations.
+     * @param slot row to add to
+     * @param other rows to add from
+     * @param otherSlot row to add from
+     */
+    public void merge(int slot, AggregationColumnarRows other, int otherSlot)
+    {
+        for (int column = 0; column < kinds.length; column++)
+        {
+            counts[column][slot] += other.counts[column][otherSlot];
+            if (longSums[column] != null)
+            {
+                longSums[column][slot] += other.longSums[column][otherSlot];
+            }
+            if (doubleSums[column] != null)
+            {
+                doubleSums[column][slot] += other.doubleSums[column][otherSlot];
+            }
+        }
+    }
+
+    /**
+     * Returns the aggregation value.
+     * @param slot row
+     * @param column aggregation
+     * @return value
+     */
+    public Object getValue(int slot, int column)
+    {
+        long count = counts[column][slot];
+        switch (kinds[column])
+        {
+            case COUNT:
+            case COUNT_NONNULL:
+                return count;
+            case SUM_INTEGER:
+                return count == 0 ? null : (Object) (int) longSums[column][slot];
+            case SUM_LONG:
+                return count == 0 ? null : (Object) longSums[column][slot];
+            case SUM_DOUBLE:
+                return count == 0 ? null : (Object) doubleSums[column][slot];
+            default:
+                return count == 0 ? null : (Object) (doubleSums[column][slot] / count);
+        }
+    }
+
+    /**
+     * Returns the aggregation value of an empty row.
+     * @param column aggregation
+     * @return value
+     */
+    public Object getEmptyValue(int column)
+    {
+        AggregationColumnarKind kind = kinds[column];
+        if (kind == AggregationColumnarKind.COUNT || kind == AggregationColumnarKind.COUNT_NONNULL)
+        {
+            return 0L;
+        }
+        return null;
+    }
+
+    /**
+     * Returns all aggregation values of the row.
+     * @param slot row
+     * @return values
+     */
+    public Object[] getValues(int slot)
+    {
+        Object[] values = new Object[kinds.length];
+        for (int column = 0; column < kinds.length; column++)
+        {
+            values[column] = getValue(slot, column);
+        }
+        return values;
+    }
+
+    private void clear(int slot, int column)
+    {
+        counts[column][slot] = 0;
+        if (longSums[column] != null)
+        {
+            longSums[column][slot] = 0;
+        }
+        if (doubleSums[column] != null)
+        {
+            doubleSums[column][slot] = 0;
+        }
+    }
+
+    private void allocateArrays(int newCapacity)
+    {
+        capacity = newCapacity;
+        refcounts = new int[capacity];
+        freeSlots = new int[INITIAL_CAPACITY];
+        for (int column = 0; column < kinds.length; column++)
+        {
+            counts[column] = new long[capacity];
+            longSums[column] = kinds[column].isLongSum() ? new long[capacity] : null;
+            doubleSums[column] = kinds[column].isDoubleSum() ? new double[capacity] : null;
+        }
+    }
+
+    private void grow()
+    {
+        capacity = capacity * 2;
+        refcounts = Arrays.copyOf(refcounts, capacity);
+        for (int column = 0; column < kinds.length; column++)
+        {
+            counts[column] = Arrays.copyOf(counts[column], capacity);
+            if (longSums[column] != null)
+            {
+                longSums[column] = Arrays.copyOf(longSums[column], capacity);
+            }
+            if (doubleSums[column] != null)
+            {
+                doubleSums[column] = Arrays.copyOf(doubleSums[column], capacity);
+            }
+        }
+    }
+}
@@ -24,6 +24,7 @@ import com.espertech.esper.epl.expression.baseagg.ExprAggregateLocalGroupByDesc;
 import com.espertech.esper.epl.expression.baseagg.ExprAggregateNode;
 import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
 import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeGroupKey;
+import com.espertech.esper.epl.expression.codegen.ExprNodeCompiler;
 import com.espertech.esper.epl.expression.core.*;
 import com.espertech.esper.epl.expression.methodagg.ExprMethodAggUtil;
 import com.espertech.esper.epl.expression.table.ExprTableNodeUtil;
@@ -150,6 +151,7 @@ public class AggregationServiceFactoryFactory
      * @param isJoin - true for joins
      * @param whereClause the where-clause function if any
      * @param havingClause the having-clause function if any
+     * @param isIStreamOnly - per stream, true when the stream does not provide a remove stream
      * @return instance for aggregation handling
      * @throws com.espertech.esper.epl.expression.core.ExprValidationException if validation fails
      */
@@ -169,6 +171,7 @@ public class AggregationServiceFactoryFactory
                                                            ExprNode havingClause,
                                                            AggregationServiceFactoryService factoryService,
                                                            EventType[] typesPerStream,
+                                                           boolean[] isIStreamOnly,
                                                            MethodResolutionService methodResolutionService,
                                                            AggregationGroupByRollupDesc groupByRollupDesc,
                                                            String optionalContextName,
@@ -221,10 +224,14 @@ public class AggregationServiceFactoryFactory
         // Construct a list of evaluation node for the aggregation functions (regular agg).
         // For example "sum(2 * 3)" would make the sum an evaluation node.
         List<ExprEvaluator> methodAggEvaluatorsList = new ArrayList<ExprEvaluator>();
+        boolean isCompileExpressions = ExprNodeCompiler.isEnabled(annotations, methodResolutionService.getEngineImportService());
         for (AggregationServiceAggExpressionDesc aggregation : aggregations) {
             ExprAggregateNode aggregateNode = aggregation.getAggregationNode();
             if (!aggregateNode.getFactory().isAccessAggregation()) {
                 ExprEvaluator evaluator = aggregateNode.getFactory().getMethodAggregationEvaluator(typesPerStream.length > 1, typesPerStream);
+                if (isCompileExpressions && aggregateNode.getChildNodes().length == 1) {
+                    evaluator = ExprNodeCompiler.compile(aggregateNode.getChildNodes()[0], evaluator);
+                }
                 methodAggEvaluatorsList.add(evaluator);
             }
         }
@@ -331,6 +338,10 @@ public class AggregationServiceFactoryFactory
             boolean hasNoReclaim = HintEnum.DISABLE_RECLAIM_GROUP.getHint(annotations) != null;
             Hint reclaimGroupAged = HintEnum.RECLAIM_GROUP_AGED.getHint(annotations);
             Hint reclaimGroupFrequency = HintEnum.RECLAIM_GROUP_AGED.getHint(annotations);
+            Integer maxGroups = GroupByCardinalityGovernor.getMaxGroupsHint(annotations);
+            if (maxGroups != null) {
+                GroupByCardinalityGovernor.validateIStreamOnly(isIStreamOnly);
+            }
             if (localGroupByPlan != null) {
                 Object groupKeyBinding = methodResolutionService.getGroupKeyBinding(localGroupByPlan);
                 serviceFactory = factoryService.getGroupLocalGroupBy(isJoin, localGroupByPlan, groupKeyBinding);
@@ -343,13 +354,13 @@ public class AggregationServiceFactoryFactory
                         throw getRollupReclaimEx();
                     }
                     if ((methodAggEvaluators.length > 0) && (accessorPairs.length == 0)) {
-                        serviceFactory = factoryService.getGroupedNoReclaimNoAccess(methodAggEvaluators, methodAggFactories, groupKeyBinding);
+                        serviceFactory = factoryService.getGroupedNoReclaimNoAccess(methodAggEvaluators, methodAggFactories, groupKeyBinding, maxGroups);
                     }
                     else if ((methodAggEvaluators.length == 0) && (accessorPairs.length > 0)) {
-                        serviceFactory = factoryService.getGroupNoReclaimAccessOnly(accessorPairs, accessAggregations, groupKeyBinding, isJoin);
+                        serviceFactory = factoryService.getGroupNoReclaimAccessOnly(accessorPairs, accessAggregations, groupKeyBinding, isJoin, maxGroups);
                     }
                     else {
-                        serviceFactory = factoryService.getGroupNoReclaimMixed(methodAggEvaluators, methodAggFactories, accessorPairs, accessAggregations, isJoin, groupKeyBinding);
+                        serviceFactory = factoryService.getGroupNoReclaimMixed(methodAggEvaluators, methodAggFactories, accessorPairs, accessAggregations, isJoin, groupKeyBinding, maxGroups);
                     }
                 }
                 else if (!isDisallowNoReclaim && reclaimGroupAged != null)
@@ -365,10 +376,10 @@ public class AggregationServiceFactoryFactory
                 else
                 {
                     if ((methodAggEvaluators.length > 0) && (accessorPairs.length == 0)) {
-                        serviceFactory = factoryService.getGroupReclaimNoAccess(methodAggEvaluators, methodAggFactories, accessorPairs, accessAggregations, isJoin, groupKeyBinding);
+                        serviceFactory = factoryService.getGroupReclaimNoAccess(methodAggEvaluators, methodAggFactories, accessorPairs, accessAggregations, isJoin, groupKeyBinding, maxGroups);
                     }
                     else {
-                        serviceFactory = factoryService.getGroupReclaimMixable(methodAggEvaluators, methodAggFactories, accessorPairs, accessAggregations, isJoin, groupKeyBinding);
+                        serviceFactory = factoryService.getGroupReclaimMixable(methodAggEvaluators, methodAggFactories, accessorPairs, accessAggregations, isJoin, groupKeyBinding, maxGroups);
                     }
                 }
             }
@@ -50,7 +50,7 @@ public class AggregationServiceTable implements AggregationService {
     }
 
     public void accept(AggregationServiceVisitor visitor) {
-        // no action
+        visitor.visitAggregations(tableState.getRowCount(), tableState);
     }
 
     public void acceptGroupDetail(AggregationServiceVisitorWGroupDetail visitor) {
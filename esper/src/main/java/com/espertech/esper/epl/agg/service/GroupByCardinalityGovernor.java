@@ -0,0 +1,162 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.agg.service;
+
+import com.espertech.esper.client.annotation.Hint;
+import com.espertech.esper.client.annotation.HintEnum;
+import com.espertech.esper.client.hook.ConditionGroupCardinalityMax;
+import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.core.service.StatementContext;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+
+import java.lang.annotation.Annotation;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caps the number of groups that a grouped aggregation service or grouped data window retains,
+ * as configured by the {@link HintEnum#MAX_GROUPS} hint.
+ * <p>
+ * The group map is kept in access order, so that each lookup of a group moves the group to the end of the map,
+ * and the owner evicts groups from the front of the map when the number of groups exceeds the maximum.
+ * Evictions are reported to the condition handlers upon the first eviction and thereafter each time the number of
+ * evicted groups reaches another multiple of the maximum.
+ * <p>
+ * Not thread-safe, there is one governor per agent instance.
+ */
+public class GroupByCardinalityGovernor
+{
+    private final int maxGroups;
+    private final StatementContext statementContext;
+    private long numEvicted;
+
+    /**
+     * Ctor.
+     * @param maxGroups maximum number of groups
+     * @param statementContext statement context for reporting evictions
+     */
+    public GroupByCardinalityGovernor(int maxGroups, StatementContext statementContext)
+    {
+        this.maxGroups = maxGroups;
+        this.statementContext = statementContext;
+    }
+
+    /**
+     * Returns the maximum number of groups as provided by the hint, or null if the hint is not provided.
+     * @param annotations statement annotations
+     * @return maximum number of groups or null
+     * @throws ExprValidationException if the hint value is not a positive number
+     */
+    public static Integer getMaxGroupsHint(Annotation[] annotations) throws ExprValidationException
+    {
+        Hint hint = HintEnum.MAX_GROUPS.getHint(annotations);
+        if (hint == null) {
+            return null;
+        }
+        String value = HintEnum.MAX_GROUPS.getHintAssignedValue(hint);
+        if (value == null) {
+            throw new ExprValidationException("Required hint value for hint '" + HintEnum.MAX_GROUPS.getValue() + "' has not been provided");
+        }
+        int maxGroups;
+        try {
+            maxGroups = Integer.parseInt(value.trim());
+        }
+        catch (NumberFormatException ex) {
+            maxGroups = 0;
+        }
+        if (maxGroups < 1) {
+            throw new ExprValidationException("Hint '" + HintEnum.MAX_GROUPS.getValue() + "' requires a positive number of groups but received '" + value + "'");
+        }
+        return maxGroups;
+    }
+
+    /**
+     * Validates that none of the aggregated streams provides a remove stream. Events that leave a data window
+     * cannot be told apart by the time they entered, therefore the leave of an event that entered before its group
+     * was evicted and created again would be applied to the new group.
+     * @param isIStreamOnly per stream, true when the stream does not provide a remove stream
+     * @throws ExprValidationException if any stream provides a remove stream
+     */
+    public static void validateIStreamOnly(boolean[] isIStreamOnly) throws ExprValidationException
+    {
+        for (boolean istreamOnly : isIStreamOnly) {
+            if (!istreamOnly) {
+                throw new ExprValidationException("Hint '" + HintEnum.MAX_GROUPS.getValue() + "' for grouped aggregation requires that the aggregated events do not provide a remove stream; Please remove the data window");
+            }
+        }
+    }
+
+    /**
+     * Returns a governor for the agent instance, or null if the number of groups is not capped.
+     * @param maxGroups maximum number of groups or null if not capped
+     * @param agentInstanceContext agent instance context
+     * @return governor or null
+     */
+    public static GroupByCardinalityGovernor make(Integer maxGroups, AgentInstanceContext agentInstanceContext)
+    {
+        if (maxGroups == null) {
+            return null;
+        }
+        return new GroupByCardinalityGovernor(maxGroups, agentInstanceContext.getStatementContext());
+    }
+
+    /**
+     * Returns a map for holding groups, ordered by access if a governor is provided.
+     * @param governor governor or null if not capped
+     * @return map
+     */
+    public static <V> Map<Object, V> makeGroupMap(GroupByCardinalityGovernor governor)
+    {
+        if (governor == null) {
+            return new HashMap<Object, V>();
+        }
+        return new LinkedHashMap<Object, V>(16, 0.75f, true);
+    }
+
+    /**
+     * Removes and returns the least-recently-used group if the number of groups exceeds the maximum.
+     * @param groups group map
+     * @return removed group entry or null if the number of groups does not exceed the maximum
+     */
+    public <V> Map.Entry<Object, V> evictEldest(Map<Object, V> groups)
+    {
+        if (groups.size() <= maxGroups) {
+            return null;
+        }
+        Iterator<Map.Entry<Object, V>> it = groups.entrySet().iterator();
+        Map.Entry<Object, V> eldest = it.next();
+        it.remove();
+
+        numEvicted++;
+        if (numEvicted == 1 || numEvicted % maxGroups == 0) {
+            statementContext.getExceptionHandlingService().handleCondition(new ConditionGroupCardinalityMax(maxGroups, numEvicted, eldest.getKey()), statementContext.getEpStatementHandle());
+        }
+        return eldest;
+    }
+
+    /**
+     * Returns the maximum number of groups.
+     * @return maximum
+     */
+    public int getMaxGroups()
+    {
+        return maxGroups;
+    }
+
+    /**
+     * Returns the number of groups evicted.
+     * @return count
+     */
+    public long getNumEvicted()
+    {
+        return numEvicted;
+    }
+}
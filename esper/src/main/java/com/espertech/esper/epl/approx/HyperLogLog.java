@@ -0,0 +1,197 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.approx;
+
+/**
+ * <p>
+ * HyperLogLog estimates the number of distinct values of a stream using a fixed number of small registers,
+ * without retaining the distinct values themselves.
+ * </p>
+ *
+ * <p>
+ * Each value is hashed to 64 bits, the first bits select a register and the register retains the
+ * largest position of the leftmost one-bit of the remaining bits. The standard error is about 1.04 / sqrt(2^precision).
+ * Sketches of the same precision can be merged by taking the maximum of each register, so that
+ * per-partition sketches combine into the sketch of the union.
+ * </p>
+ *
+ * <p>
+ * Paper:
+ * Philippe Flajolet, Eric Fusy, Olivier Gandouet and Frederic Meunier. HyperLogLog: the analysis of a
+ * near-optimal cardinality estimation algorithm. 2007. AofA.
+ * </p>
+ */
+public class HyperLogLog {
+
+    /**
+     * Smallest supported precision.
+     */
+    public static final int MIN_PRECISION = 4;
+
+    /**
+     * Largest supported precision.
+     */
+    public static final int MAX_PRECISION = 18;
+
+    private final int precision;
+    private byte[] registers;
+
+    /**
+     * Ctor.
+     * @param precision number of hash bits selecting the register, the sketch has 2^precision registers
+     */
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION + " but was " + precision);
+        }
+        this.precision = precision;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Adds a value, ignoring null.
+     * @param value to add
+     */
+    public void add(Object value) {
+        if (value == null) {
+            return;
+        }
+        addHash(hash(value));
+    }
+
+    /**
+     * Adds a 64-bit hash value.
+     * @param hash to add
+     */
+    public void addHash(long hash) {
+        if (registers == null) {
+            registers = new byte[1 << precision];
+        }
+        int index = (int) (hash >>> (64 - precision));
+        // the guard bit bounds the rank when all remaining bits are zero
+        long remaining = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * Merges another sketch into this sketch, after which this sketch estimates the distinct count of the union.
+     * @param other to merge
+     * @throws IllegalArgumentException if the precision differs
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge sketches of precision " + precision + " and " + other.precision);
+        }
+        if (other.registers == null) {
+            return;
+        }
+        if (registers == null) {
+            registers = other.registers.clone();
+            return;
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * Returns the estimated number of distinct values.
+     * @return estimate
+     */
+    public long estimate() {
+        if (registers == null) {
+            return 0;
+        }
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1d / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+
+        // small range correction by linear counting
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Clears the sketch.
+     */
+    public void clear() {
+        registers = null;
+    }
+
+    /**
+     * Returns a 64-bit hash of the value that distributes well for numeric, string and other values.
+     * @param value to hash
+     * @return hash
+     */
+    public static long hash(Object value) {
+        long hash;
+        if (value instanceof String) {
+            // FNV-1a over the characters
+            String text = (String) value;
+            hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < text.length(); i++) {
+                hash ^= text.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+        }
+        else if (value instanceof Double || value instanceof Float) {
+            hash = Double.doubleToLongBits(((Number) value).doubleValue());
+        }
+        else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            hash = ((Number) value).longValue();
+        }
+        else {
+            hash = value.hashCode();
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        // finalization step of MurmurHash3, spreads all input bits across all output bits
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static double alpha(int m) {
+        if (m == 16) {
+            return 0.673;
+        }
+        if (m == 32) {
+            return 0.697;
+        }
+        if (m == 64) {
+            return 0.709;
+        }
+        return 0.7213 / (1 + 1.079 / m);
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.approx;
+
+import java.util.Arrays;
+
+/**
+ * Merging t-digest for approximate quantiles of an unbounded stream of values, following Dunning.
+ * <p>
+ * Incoming values are buffered and periodically merged into a sorted list of weighted centroids.
+ * Centroids near the tails are kept small so that extreme quantiles remain accurate,
+ * and the number of centroids is bounded by about twice the compression.
+ */
+public class TDigest {
+
+    private final double compression;
+
+    private double[] means;
+    private double[] weights;
+    private int numCentroids;
+
+    private final double[] buffer;
+    private int numBuffered;
+
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Ctor.
+     * @param compression accuracy-size tradeoff, typically 100
+     */
+    public TDigest(double compression) {
+        if (compression < 1) {
+            throw new IllegalArgumentException("Compression must be at least 1");
+        }
+        this.compression = compression;
+        int capacity = (int) Math.ceil(2 * compression) + 10;
+        this.means = new double[capacity];
+        this.weights = new double[capacity];
+        this.buffer = new double[(int) Math.ceil(5 * compression) + 10];
+    }
+
+    /**
+     * Add a value, ignoring NaN.
+     * @param value to add
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        buffer[numBuffered++] = value;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+        if (numBuffered == buffer.length) {
+            merge();
+        }
+    }
+
+    /**
+     * Returns the number of values added.
+     * @return count
+     */
+    public long size() {
+        return (long) totalWeight + numBuffered;
+    }
+
+    /**
+     * Returns the approximate value at the quantile.
+     * @param quantile between 0 and 1
+     * @return estimated value or null if no values were added
+     */
+    public Double quantile(double quantile) {
+        merge();
+        if (numCentroids == 0) {
+            return null;
+        }
+        if (numCentroids == 1) {
+            return means[0];
+        }
+
+        double index = quantile * totalWeight;
+        if (index <= weights[0] / 2) {
+            return min + (means[0] - min) * index / (weights[0] / 2);
+        }
+        int last = numCentroids - 1;
+        if (index >= totalWeight - weights[last] / 2) {
+            double fromEnd = totalWeight - index;
+            return max - (max - means[last]) * fromEnd / (weights[last] / 2);
+        }
+
+        // interpolate between the centers of the two neighbouring centroids
+        double center = weights[0] / 2;
+        for (int i = 0; i < last; i++) {
+            double nextCenter = center + (weights[i] + weights[i + 1]) / 2;
+            if (index <= nextCenter) {
+                double fraction = (index - center) / (nextCenter - center);
+                return means[i] + fraction * (means[i + 1] - means[i]);
+            }
+            center = nextCenter;
+        }
+        return means[last];
+    }
+
+    private void merge() {
+        if (numBuffered == 0) {
+            return;
+        }
+        Arrays.sort(buffer, 0, numBuffered);
+
+        // merge the sorted buffer with the sorted centroids
+        int total = numCentroids + numBuffered;
+        double[] mergedMeans = new double[total];
+        double[] mergedWeights = new double[total];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < total; k++) {
+            if (j >= numBuffered || (i < numCentroids && means[i] <= buffer[j])) {
+                mergedMeans[k] = means[i];
+                mergedWeights[k] = weights[i];
+                i++;
+            }
+            else {
+                mergedMeans[k] = buffer[j];
+                mergedWeights[k] = 1;
+                j++;
+            }
+        }
+        totalWeight += numBuffered;
+        numBuffered = 0;
+
+        // compress, allowing each centroid a weight proportional to q(1-q) at its position
+        numCentroids = 0;
+        double weightSoFar = 0;
+        double currentMean = mergedMeans[0];
+        double currentWeight = mergedWeights[0];
+        for (int k = 1; k < total; k++) {
+            double proposedWeight = currentWeight + mergedWeights[k];
+            double q = (weightSoFar + proposedWeight / 2) / totalWeight;
+            double limit = 4 * totalWeight * q * (1 - q) / compression;
+            if (proposedWeight <= Math.max(1, limit)) {
+                currentMean += (mergedMeans[k] - currentMean) * mergedWeights[k] / proposedWeight;
+                currentWeight = proposedWeight;
+            }
+            else {
+                addCentroid(currentMean, currentWeight);
+                weightSoFar += currentWeight;
+                currentMean = mergedMeans[k];
+                currentWeight = mergedWeights[k];
+            }
+        }
+        addCentroid(currentMean, currentWeight);
+    }
+
+    private void addCentroid(double mean, double weight) {
+        if (numCentroids == means.length) {
+            means = Arrays.copyOf(means, numCentroids * 2);
+            weights = Arrays.copyOf(weights, numCentroids * 2);
+        }
+        means[numCentroids] = mean;
+        weights[numCentroids] = weight;
+        numCentroids++;
+    }
+}
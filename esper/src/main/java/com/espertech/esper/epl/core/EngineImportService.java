@@ -167,6 +167,8 @@ public interface EngineImportService
 
     public boolean isDuckType();
 
+    public boolean isCompileExpressions();
+
     public boolean isUdfCache();
 
     public boolean isSortUsingCollator();
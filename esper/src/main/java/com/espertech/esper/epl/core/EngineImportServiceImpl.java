@@ -47,6 +47,7 @@ public class EngineImportServiceImpl implements EngineImportService
     private final boolean allowExtendedAggregationFunc;
     private final boolean isUdfCache;
     private final boolean isDuckType;
+    private final boolean isCompileExpressions;
     private final boolean sortUsingCollator;
     private final MathContext optionalDefaultMathContext;
     private final TimeZone timeZone;
@@ -55,7 +56,7 @@ public class EngineImportServiceImpl implements EngineImportService
 	 * Ctor
      * @param allowExtendedAggregationFunc true to allow non-SQL standard builtin agg functions.
 	 */
-	public EngineImportServiceImpl(boolean allowExtendedAggregationFunc, boolean isUdfCache, boolean isDuckType, boolean sortUsingCollator, MathContext optionalDefaultMathContext, TimeZone timeZone)
+	public EngineImportServiceImpl(boolean allowExtendedAggregationFunc, boolean isUdfCache, boolean isDuckType, boolean isCompileExpressions, boolean sortUsingCollator, MathContext optionalDefaultMathContext, TimeZone timeZone)
     {
         imports = new ArrayList<String>();
         aggregationFunctions = new HashMap<String, ConfigurationPlugInAggregationFunction>();
@@ -65,6 +66,7 @@ public class EngineImportServiceImpl implements EngineImportService
         this.allowExtendedAggregationFunc = allowExtendedAggregationFunc;
         this.isUdfCache = isUdfCache;
         this.isDuckType = isDuckType;
+        this.isCompileExpressions = isCompileExpressions;
         this.sortUsingCollator = sortUsingCollator;
         this.optionalDefaultMathContext = optionalDefaultMathContext;
         this.timeZone = timeZone;
@@ -78,6 +80,10 @@ public class EngineImportServiceImpl implements EngineImportService
         return isDuckType;
     }
 
+    public boolean isCompileExpressions() {
+        return isCompileExpressions;
+    }
+
     public ConfigurationMethodRef getConfigurationMethodRef(String className)
     {
         return methodInvocationRef.get(className);
@@ -534,6 +540,18 @@ public class EngineImportServiceImpl implements EngineImportService
         if (nameLowerCase.equals("nth")) {
             return new ExprNthAggNode(isDistinct);
         }
+        if (nameLowerCase.equals("percentile")) {
+            return new ExprPercentileNode(isDistinct, false);
+        }
+        if (nameLowerCase.equals("percentiles")) {
+            return new ExprPercentileNode(isDistinct, true);
+        }
+        if (nameLowerCase.equals("approxpercentile")) {
+            return new ExprApproxPercentileNode(isDistinct);
+        }
+        if (nameLowerCase.equals("approxcountdistinct")) {
+            return new ExprApproxCountDistinctNode(isDistinct);
+        }
         if (nameLowerCase.equals("leaving")) {
             return new ExprLeavingAggNode(isDistinct);
         }
@@ -12,6 +12,9 @@ import com.espertech.esper.client.*;
 import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
 import com.espertech.esper.epl.db.DataCache;
 import com.espertech.esper.epl.db.DataCacheFactory;
+import com.espertech.esper.epl.db.DataCacheShared;
+import com.espertech.esper.epl.db.DataCacheSharedService;
+import com.espertech.esper.epl.db.PollExecStrategySharedCache;
 import com.espertech.esper.epl.db.PollExecStrategy;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.epl.expression.core.ExprNodeUtility;
@@ -51,6 +54,9 @@ public class MethodPollingViewableFactory
      * @param schedulingService for scheduling callbacks in expiry-time based caches
      * @param scheduleBucket for schedules within the statement
      * @param exprEvaluatorContext expression evaluation context
+     * @param variableService variable service
+     * @param contextName context name
+     * @param dataCacheSharedService for caches shared between statements
      * @return pollable view
      * @throws ExprValidationException if the expressions cannot be validated or the method descriptor
      * has incorrect class and method names, or parameter number and types don't match
@@ -65,7 +71,8 @@ public class MethodPollingViewableFactory
                                                                ScheduleBucket scheduleBucket,
                                                                ExprEvaluatorContext exprEvaluatorContext,
                                                                VariableService variableService,
-                                                               String contextName)
+                                                               String contextName,
+                                                               DataCacheSharedService dataCacheSharedService)
             throws ExprValidationException
     {
         VariableMetaData variableMetaData = variableService.getVariableMetaData(methodStreamSpec.getClassName());
@@ -241,6 +248,19 @@ public class MethodPollingViewableFactory
             }
         }
 
+        if (dataCacheDesc instanceof ConfigurationSharedCache) {
+            DataCacheShared sharedCache = dataCacheSharedService.getCache("method:" + declaringClass.getName(), (ConfigurationSharedCache) dataCacheDesc);
+            // overloaded methods differ by parameter types
+            StringBuilder namespace = new StringBuilder(methodStreamSpec.getClassName()).append('.').append(methodStreamSpec.getMethodName()).append('(');
+            String delimiter = "";
+            for (Class parameterType : methodReflection.getParameterTypes()) {
+                namespace.append(delimiter).append(parameterType.getName());
+                delimiter = ",";
+            }
+            namespace.append(')');
+            methodPollStrategy = new PollExecStrategySharedCache(methodPollStrategy, sharedCache, namespace.toString(), eventType, eventAdapterService);
+        }
+
         return new MethodPollingViewable(variableMetaData == null, methodReflection.getDeclaringClass(), methodStreamSpec, streamNumber, methodStreamSpec.getExpressions(), methodPollStrategy, dataCache, eventType, exprEvaluatorContext);
     }
 
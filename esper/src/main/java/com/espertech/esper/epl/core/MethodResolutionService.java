@@ -213,6 +213,38 @@ public interface MethodResolutionService
      */
     public AggregationMethod makeMedianAggregator(int agentInstanceId, int groupId, int aggregationId, boolean hasFilter);
 
+    /**
+     * Makes a new percentile-aggregator.
+     * @return aggregator
+     * @param agentInstanceId
+     * @param groupId
+     * @param aggregationId
+     * @param percentiles percentiles to compute, each between 0 and 1
+     * @param multiple true to return an array of values, false to return a single value
+     */
+    public AggregationMethod makePercentileAggregator(int agentInstanceId, int groupId, int aggregationId, double[] percentiles, boolean multiple);
+
+    /**
+     * Makes a new approximate-percentile-aggregator.
+     * @return aggregator
+     * @param agentInstanceId
+     * @param groupId
+     * @param aggregationId
+     * @param percentile percentile to compute, between 0 and 1
+     * @param compression digest compression
+     */
+    public AggregationMethod makeApproxPercentileAggregator(int agentInstanceId, int groupId, int aggregationId, double percentile, int compression);
+
+    /**
+     * Makes a new approximate-distinct-count-aggregator.
+     * @return aggregator
+     * @param agentInstanceId
+     * @param groupId
+     * @param aggregationId
+     * @param precision sketch precision
+     */
+    public AggregationMethod makeApproxCountDistinctAggregator(int agentInstanceId, int groupId, int aggregationId, int precision);
+
     /**
      * Makes a new min-max-aggregator.
      *
@@ -323,6 +323,18 @@ public class MethodResolutionServiceImpl implements MethodResolutionService
         return new AggregatorRateEver(interval, timeProvider);
     }
 
+    public AggregationMethod makePercentileAggregator(int agentInstanceId, int groupId, int aggregationId, double[] percentiles, boolean multiple) {
+        return new AggregatorPercentile(percentiles, multiple);
+    }
+
+    public AggregationMethod makeApproxPercentileAggregator(int agentInstanceId, int groupId, int aggregationId, double percentile, int compression) {
+        return new AggregatorApproxPercentile(percentile, compression);
+    }
+
+    public AggregationMethod makeApproxCountDistinctAggregator(int agentInstanceId, int groupId, int aggregationId, int precision) {
+        return new AggregatorApproxCountDistinct(precision);
+    }
+
     public AggregationMethod makeNthAggregator(int agentInstanceId, int groupId, int aggregationId, Class returnType, int size) {
         return new AggregatorNth(returnType, size);
     }
@@ -305,7 +305,7 @@ public class ResultSetProcessorFactoryFactory
         AggregationServiceFactoryDesc aggregationServiceFactory = AggregationServiceFactoryFactory.getService(
                 selectAggregateExprNodes, selectAggregationNodesNamed, declaredNodes, groupByNodesValidated, havingAggregateExprNodes, orderByAggregateExprNodes, Collections.<ExprAggregateNodeGroupKey>emptyList(), hasGroupBy, statementSpec.getAnnotations(), stmtContext.getVariableService(), typeService.getEventTypes().length > 1, false,
                 statementSpec.getFilterRootNode(), statementSpec.getHavingExprRootNode(),
-                stmtContext.getAggregationServiceFactoryService(), typeService.getEventTypes(), stmtContext.getMethodResolutionService(), groupByRollupDesc,
+                stmtContext.getAggregationServiceFactoryService(), typeService.getEventTypes(), typeService.getIStreamOnly(), stmtContext.getMethodResolutionService(), groupByRollupDesc,
                 statementSpec.getOptionalContextName(), statementSpec.getIntoTableSpec(), stmtContext.getTableService());
 
         // Compare local-aggregation versus group-by
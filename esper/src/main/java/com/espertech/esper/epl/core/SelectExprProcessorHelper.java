@@ -12,6 +12,7 @@ import com.espertech.esper.client.*;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.epl.core.eval.*;
 import com.espertech.esper.epl.expression.core.*;
+import com.espertech.esper.epl.expression.codegen.ExprNodeCompiler;
 import com.espertech.esper.epl.named.NamedWindowProcessor;
 import com.espertech.esper.epl.named.NamedWindowService;
 import com.espertech.esper.epl.rettype.EPType;
@@ -205,6 +206,7 @@ public class SelectExprProcessorHelper
         EPType[] insertIntoTargetsPerCol = determineInsertedEventTypeTargets(insertIntoTargetType, selectionList);
 
         // Get expression nodes
+        boolean isCompileExpressions = ExprNodeCompiler.isEnabled(annotations, methodResolutionService.getEngineImportService());
         ExprEvaluator[] exprEvaluators = new ExprEvaluator[selectionList.size()];
         ExprNode[] exprNodes = new ExprNode[selectionList.size()];
         Object[] expressionReturnTypes = new Object[selectionList.size()];
@@ -251,7 +253,7 @@ public class SelectExprProcessorHelper
             }
 
             // assign normal expected return type
-            exprEvaluators[i] = evaluator;
+            exprEvaluators[i] = isCompileExpressions ? ExprNodeCompiler.compile(expr, evaluator) : evaluator;
             expressionReturnTypes[i] = exprEvaluators[i].getType();
         }
 
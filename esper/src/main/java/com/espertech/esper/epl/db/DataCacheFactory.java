@@ -11,6 +11,7 @@ package com.espertech.esper.epl.db;
 import com.espertech.esper.client.ConfigurationDataCache;
 import com.espertech.esper.client.ConfigurationLRUCache;
 import com.espertech.esper.client.ConfigurationExpiryTimeCache;
+import com.espertech.esper.client.ConfigurationSharedCache;
 import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
 import com.espertech.esper.schedule.ScheduleBucket;
 import com.espertech.esper.schedule.SchedulingService;
@@ -38,6 +39,12 @@ public class DataCacheFactory
             return new DataCacheNullImpl();
         }
 
+        // shared caches hold poll results at the polling strategy, see PollExecStrategySharedCache
+        if (cacheDesc instanceof ConfigurationSharedCache)
+        {
+            return new DataCacheNullImpl();
+        }
+
         if (cacheDesc instanceof ConfigurationLRUCache)
         {
             ConfigurationLRUCache lruCache = (ConfigurationLRUCache) cacheDesc;
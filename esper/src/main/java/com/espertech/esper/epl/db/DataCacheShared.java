@@ -0,0 +1,365 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.db;
+
+import com.espertech.esper.client.ConfigurationSharedCache;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.schedule.TimeProvider;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent cache of poll results that is shared by all statements and context partitions
+ * polling the same database or method invocation reference.
+ * <p>
+ * The cache is split into segments by key hash, each segment being an access-ordered map
+ * guarded by its own lock, so that lookups for different keys rarely contend.
+ * Each segment evicts least-recently-used entries when exceeding its share of the maximum number
+ * of entries. When the estimated size of all entries exceeds the maximum number of bytes, the segment
+ * receiving the new entry evicts its least-recently-used entries first, followed by the other segments in turn,
+ * so that the byte limit is enforced over the whole cache with approximate recency. The byte limit applies to this
+ * cache only, each database or method invocation reference having its own cache and limit.
+ * Entries older than the maximum age are removed when looked up, or when they reach the least-recently-used end of a segment.
+ * <p>
+ * With refresh-ahead, the first lookup of an entry older than the refresh-ahead age reports a miss so that
+ * the caller reloads and replaces the entry, while all other lookups continue to see the cached entry until it
+ * is replaced or reaches the maximum age. A caller that fails to reload cancels the refresh so that a later lookup
+ * reloads instead.
+ */
+public class DataCacheShared
+{
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_ENTRIES_PER_SEGMENT = 8;
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+    private static final int EVENT_OVERHEAD_BYTES = 32;
+
+    private final String name;
+    private final TimeProvider timeProvider;
+    private final long maxAgeMSec;
+    private final long refreshAheadMSec;
+    private final long maxBytes;
+    private final Segment[] segments;
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong numHits = new AtomicLong();
+    private final AtomicLong numMisses = new AtomicLong();
+    private final AtomicLong numEvictions = new AtomicLong();
+
+    /**
+     * Ctor.
+     * @param name cache name
+     * @param config cache settings
+     * @param timeProvider for the current engine time
+     */
+    public DataCacheShared(String name, ConfigurationSharedCache config, TimeProvider timeProvider)
+    {
+        this.name = name;
+        this.timeProvider = timeProvider;
+        this.maxAgeMSec = (long) (config.getMaxAgeSeconds() * 1000);
+        this.refreshAheadMSec = (long) (config.getRefreshAheadSeconds() * 1000);
+
+        int numSegments = 1;
+        while (numSegments < MAX_SEGMENTS && numSegments * 2 * MIN_ENTRIES_PER_SEGMENT <= config.getMaxEntries()) {
+            numSegments *= 2;
+        }
+        segments = new Segment[numSegments];
+        for (int i = 0; i < segments.length; i++) {
+            int maxEntriesSegment = config.getMaxEntries() / numSegments + (i < config.getMaxEntries() % numSegments ? 1 : 0);
+            segments[i] = new Segment(Math.max(1, maxEntriesSegment));
+        }
+        this.maxBytes = config.getMaxBytes();
+    }
+
+    /**
+     * Returns the cached rows for the key, or null if the key is not cached, has expired or
+     * should be reloaded by the caller as the entry is due for refresh.
+     * @param key lookup key
+     * @return rows or null
+     */
+    public List<EventBean> get(Object key)
+    {
+        Segment segment = segmentFor(key);
+        Entry entry;
+        synchronized (segment) {
+            entry = segment.map.get(key);
+            if (entry != null && isExpired(entry, timeProvider.getTime())) {
+                segment.remove(key);
+                entry = null;
+                numEvictions.incrementAndGet();
+            }
+        }
+
+        if (entry == null) {
+            numMisses.incrementAndGet();
+            return null;
+        }
+        if (refreshAheadMSec > 0 && timeProvider.getTime() - entry.time >= refreshAheadMSec && entry.refreshing.compareAndSet(false, true)) {
+            numMisses.incrementAndGet();
+            return null;
+        }
+        numHits.incrementAndGet();
+        return entry.rows;
+    }
+
+    /**
+     * Allows another lookup to refresh the entry for the key, for use when the caller could not reload
+     * the entry after a lookup reported a miss.
+     * @param key lookup key
+     */
+    public void cancelRefresh(Object key)
+    {
+        Segment segment = segmentFor(key);
+        Entry entry;
+        synchronized (segment) {
+            entry = segment.map.get(key);
+        }
+        if (entry != null) {
+            entry.refreshing.set(false);
+        }
+    }
+
+    /**
+     * Adds or replaces the rows for the key, evicting least-recently-used entries as required.
+     * @param key lookup key
+     * @param rows rows to cache
+     */
+    public void put(Object key, List<EventBean> rows)
+    {
+        Entry entry = new Entry(rows, timeProvider.getTime(), estimateBytes(rows));
+        int index = segmentIndex(key);
+        Segment segment = segments[index];
+        synchronized (segment) {
+            Entry existing = segment.map.put(key, entry);
+            if (existing != null) {
+                totalBytes.addAndGet(-existing.bytes);
+            }
+            totalBytes.addAndGet(entry.bytes);
+            segment.evict(entry);
+        }
+
+        // enforce the byte limit over other segments, taking one segment lock at a time
+        for (int i = 1; i < segments.length && isOverBytes(); i++) {
+            Segment other = segments[(index + i) & (segments.length - 1)];
+            synchronized (other) {
+                other.evict(null);
+            }
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear()
+    {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                for (Entry entry : segment.map.values()) {
+                    totalBytes.addAndGet(-entry.bytes);
+                }
+                segment.map.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the cache name.
+     * @return name
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Returns the number of entries, including expired entries not yet removed.
+     * @return size
+     */
+    public int size()
+    {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.map.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the estimated number of bytes held by entries.
+     * @return bytes
+     */
+    public long getEstimatedBytes()
+    {
+        return totalBytes.get();
+    }
+
+    /**
+     * Returns the number of lookups that found an entry.
+     * @return hits
+     */
+    public long getNumHits()
+    {
+        return numHits.get();
+    }
+
+    /**
+     * Returns the number of lookups that did not find an entry or that refresh the entry.
+     * @return misses
+     */
+    public long getNumMisses()
+    {
+        return numMisses.get();
+    }
+
+    /**
+     * Returns the number of entries removed for size limits or age.
+     * @return evictions
+     */
+    public long getNumEvictions()
+    {
+        return numEvictions.get();
+    }
+
+    /**
+     * Returns an estimate of the number of bytes held by the rows of a cache entry.
+     * @param rows rows
+     * @return estimated bytes
+     */
+    protected static long estimateBytes(List<EventBean> rows)
+    {
+        long bytes = ENTRY_OVERHEAD_BYTES;
+        if (rows == null) {
+            return bytes;
+        }
+        for (EventBean row : rows) {
+            bytes += EVENT_OVERHEAD_BYTES + estimateUnderlying(row.getUnderlying());
+        }
+        return bytes;
+    }
+
+    private static long estimateUnderlying(Object underlying)
+    {
+        if (underlying instanceof Map) {
+            long bytes = 48;
+            for (Object value : ((Map) underlying).values()) {
+                bytes += 32 + estimateValue(value);
+            }
+            return bytes;
+        }
+        if (underlying instanceof Object[]) {
+            Object[] values = (Object[]) underlying;
+            long bytes = 16 + 8 * values.length;
+            for (Object value : values) {
+                bytes += estimateValue(value);
+            }
+            return bytes;
+        }
+        return 64;
+    }
+
+    private static long estimateValue(Object value)
+    {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return 40 + 2 * ((String) value).length();
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return 16;
+        }
+        if (value instanceof Date) {
+            return 24;
+        }
+        return 32;
+    }
+
+    private boolean isExpired(Entry entry, long now)
+    {
+        return maxAgeMSec > 0 && now - entry.time >= maxAgeMSec;
+    }
+
+    private boolean isOverBytes()
+    {
+        return maxBytes > 0 && totalBytes.get() > maxBytes;
+    }
+
+    private Segment segmentFor(Object key)
+    {
+        return segments[segmentIndex(key)];
+    }
+
+    private int segmentIndex(Object key)
+    {
+        int hash = key == null ? 0 : key.hashCode();
+        hash ^= (hash >>> 16);
+        return hash & (segments.length - 1);
+    }
+
+    private class Segment
+    {
+        private final int maxEntries;
+        private final LinkedHashMap<Object, Entry> map;
+
+        private Segment(int maxEntries)
+        {
+            this.maxEntries = maxEntries;
+            this.map = new LinkedHashMap<Object, Entry>(16, 0.75f, true);
+        }
+
+        private void remove(Object key)
+        {
+            Entry removed = map.remove(key);
+            if (removed != null) {
+                totalBytes.addAndGet(-removed.bytes);
+            }
+        }
+
+        /**
+         * Evicts least-recently-used entries while over limits, and expired entries at the least-recently-used end.
+         * @param retain entry to keep for the byte limit, being the entry just added, or null
+         */
+        private void evict(Entry retain)
+        {
+            long now = timeProvider.getTime();
+            Iterator<Entry> it = map.values().iterator();
+            while (it.hasNext()) {
+                Entry eldest = it.next();
+                boolean overLimit = map.size() > maxEntries || (eldest != retain && isOverBytes());
+                if (!overLimit && !isExpired(eldest, now)) {
+                    break;
+                }
+                it.remove();
+                totalBytes.addAndGet(-eldest.bytes);
+                numEvictions.incrementAndGet();
+            }
+        }
+    }
+
+    private static class Entry
+    {
+        private final List<EventBean> rows;
+        private final long time;
+        private final long bytes;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(List<EventBean> rows, long time, long bytes)
+        {
+            this.rows = rows;
+            this.time = time;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.db;
+
+import com.espertech.esper.client.ConfigurationSharedCache;
+
+/**
+ * Engine-level registry of shared poll result caches.
+ */
+public interface DataCacheSharedService
+{
+    /**
+     * Returns the shared cache of the given name, allocating the cache on first use.
+     * @param name cache name, such as the database name or method invocation class name
+     * @param config cache settings, used when allocating the cache
+     * @return shared cache
+     */
+    public DataCacheShared getCache(String name, ConfigurationSharedCache config);
+
+    /**
+     * Returns the total number of lookups that found an entry, over all shared caches.
+     * @return hits
+     */
+    public long getNumHits();
+
+    /**
+     * Returns the total number of lookups that did not find an entry, over all shared caches.
+     * @return misses
+     */
+    public long getNumMisses();
+
+    /**
+     * Returns the total number of evicted entries, over all shared caches.
+     * @return evictions
+     */
+    public long getNumEvictions();
+
+    /**
+     * Releases all caches.
+     */
+    public void destroy();
+}
@@ -0,0 +1,78 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.db;
+
+import com.espertech.esper.client.ConfigurationSharedCache;
+import com.espertech.esper.schedule.TimeProvider;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementation for the registry of shared poll result caches.
+ */
+public class DataCacheSharedServiceImpl implements DataCacheSharedService
+{
+    private final TimeProvider timeProvider;
+    private final ConcurrentHashMap<String, DataCacheShared> caches = new ConcurrentHashMap<String, DataCacheShared>();
+
+    /**
+     * Ctor.
+     * @param timeProvider for the current engine time
+     */
+    public DataCacheSharedServiceImpl(TimeProvider timeProvider)
+    {
+        this.timeProvider = timeProvider;
+    }
+
+    public DataCacheShared getCache(String name, ConfigurationSharedCache config)
+    {
+        DataCacheShared cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        cache = new DataCacheShared(name, config, timeProvider);
+        DataCacheShared existing = caches.putIfAbsent(name, cache);
+        return existing != null ? existing : cache;
+    }
+
+    public long getNumHits()
+    {
+        long total = 0;
+        for (DataCacheShared cache : caches.values()) {
+            total += cache.getNumHits();
+        }
+        return total;
+    }
+
+    public long getNumMisses()
+    {
+        long total = 0;
+        for (DataCacheShared cache : caches.values()) {
+            total += cache.getNumMisses();
+        }
+        return total;
+    }
+
+    public long getNumEvictions()
+    {
+        long total = 0;
+        for (DataCacheShared cache : caches.values()) {
+            total += cache.getNumEvictions();
+        }
+        return total;
+    }
+
+    public void destroy()
+    {
+        for (DataCacheShared cache : caches.values()) {
+            cache.clear();
+        }
+        caches.clear();
+    }
+}
@@ -32,6 +32,14 @@ public interface DatabaseConfigService
      */
     public ColumnSettings getQuerySetting(String databaseName) throws DatabaseConfigException;
 
+    /**
+     * Returns the maximum number of distinct lookup keys polled by a single query.
+     * @param databaseName is the name of the database
+     * @return poll batch size, 1 for no batching
+     * @throws DatabaseConfigException is thrown to indicate database configuration errors
+     */
+    public int getPollBatchSize(String databaseName) throws DatabaseConfigException;
+
     /**
      * Returns true to indicate a setting to retain connections between lookups.
      * @param databaseName is the name of the database
@@ -49,4 +57,12 @@ public interface DatabaseConfigService
      * @throws DatabaseConfigException is thrown to indicate database configuration errors
      */
     public DataCache getDataCache(String databaseName, EPStatementAgentInstanceHandle epStatementAgentInstanceHandle) throws DatabaseConfigException;
+
+    /**
+     * Returns the cache shared by all statements for the database, or null if the database does not configure a shared cache.
+     * @param databaseName is the name of the database
+     * @return shared cache or null
+     * @throws DatabaseConfigException is thrown to indicate database configuration errors
+     */
+    public DataCacheShared getSharedCache(String databaseName) throws DatabaseConfigException;
 }
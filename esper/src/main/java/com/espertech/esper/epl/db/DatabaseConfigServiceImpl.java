@@ -10,6 +10,7 @@ package com.espertech.esper.epl.db;
 
 import com.espertech.esper.client.ConfigurationDBRef;
 import com.espertech.esper.client.ConfigurationDataCache;
+import com.espertech.esper.client.ConfigurationSharedCache;
 import com.espertech.esper.core.context.util.EPStatementAgentInstanceHandle;
 import com.espertech.esper.schedule.SchedulingService;
 import com.espertech.esper.schedule.ScheduleBucket;
@@ -27,6 +28,7 @@ public class DatabaseConfigServiceImpl implements DatabaseConfigService
     private final Map<String, DatabaseConnectionFactory> connectionFactories;
     private final SchedulingService schedulingService;
     private final ScheduleBucket scheduleBucket;
+    private final DataCacheSharedService dataCacheSharedService;
 
     /**
      * Ctor.
@@ -37,11 +39,27 @@ public class DatabaseConfigServiceImpl implements DatabaseConfigService
     public DatabaseConfigServiceImpl(Map<String, ConfigurationDBRef> mapDatabaseRef,
                                      SchedulingService schedulingService,
                                      ScheduleBucket scheduleBucket)
+    {
+        this(mapDatabaseRef, schedulingService, scheduleBucket, new DataCacheSharedServiceImpl(schedulingService));
+    }
+
+    /**
+     * Ctor.
+     * @param mapDatabaseRef is a map of database name and database configuration entries
+     * @param schedulingService is for scheduling callbacks for a cache
+     * @param scheduleBucket is a system bucket for all scheduling callbacks for caches
+     * @param dataCacheSharedService is the engine-level registry of shared caches
+     */
+    public DatabaseConfigServiceImpl(Map<String, ConfigurationDBRef> mapDatabaseRef,
+                                     SchedulingService schedulingService,
+                                     ScheduleBucket scheduleBucket,
+                                     DataCacheSharedService dataCacheSharedService)
     {
         this.mapDatabaseRef = mapDatabaseRef;
         this.connectionFactories = new HashMap<String, DatabaseConnectionFactory>();
         this.schedulingService = schedulingService;
         this.scheduleBucket = scheduleBucket;
+        this.dataCacheSharedService = dataCacheSharedService;
     }
 
     public ConnectionCache getConnectionCache(String databaseName, String preparedStatementText) throws DatabaseConfigException
@@ -122,6 +140,21 @@ public class DatabaseConfigServiceImpl implements DatabaseConfigService
         return DataCacheFactory.getDataCache(dataCacheDesc, epStatementAgentInstanceHandle, schedulingService, scheduleBucket);
     }
 
+    public DataCacheShared getSharedCache(String databaseName) throws DatabaseConfigException
+    {
+        ConfigurationDBRef config = mapDatabaseRef.get(databaseName);
+        if (config == null)
+        {
+            throw new DatabaseConfigException("Cannot locate configuration information for database '" + databaseName + '\'');
+        }
+
+        if (!(config.getDataCacheDesc() instanceof ConfigurationSharedCache))
+        {
+            return null;
+        }
+        return dataCacheSharedService.getCache("db:" + databaseName, (ConfigurationSharedCache) config.getDataCacheDesc());
+    }
+
     public ColumnSettings getQuerySetting(String databaseName) throws DatabaseConfigException
     {
         ConfigurationDBRef config = mapDatabaseRef.get(databaseName);
@@ -131,4 +164,14 @@ public class DatabaseConfigServiceImpl implements DatabaseConfigService
         }
         return new ColumnSettings(config.getMetadataRetrievalEnum(), config.getColumnChangeCase(), config.getSqlTypesMapping());
     }
+
+    public int getPollBatchSize(String databaseName) throws DatabaseConfigException
+    {
+        ConfigurationDBRef config = mapDatabaseRef.get(databaseName);
+        if (config == null)
+        {
+            throw new DatabaseConfigException("Cannot locate configuration information for database '" + databaseName + '\'');
+        }
+        return config.getPollBatchSize();
+    }
 }
@@ -45,6 +45,7 @@ public class DatabasePollingViewable implements HistoricalEventViewable
     private final DataCache dataCache;
     private final EventType eventType;
     private final ThreadLocal<DataCache> dataCacheThreadLocal = new ThreadLocal<DataCache>();
+    private final boolean isBatchPolling;
 
     private ExprEvaluator[] evaluators;
     private SortedSet<Integer> subordinateStreams;
@@ -80,12 +81,32 @@ public class DatabasePollingViewable implements HistoricalEventViewable
                            PollExecStrategy pollExecStrategy,
                            DataCache dataCache,
                            EventType eventType)
+    {
+        this(myStreamNumber, inputParameters, pollExecStrategy, dataCache, eventType, false);
+    }
+
+    /**
+     * Ctor.
+     * @param myStreamNumber is the stream number of the view
+     * @param inputParameters are the event property names providing input parameter keys
+     * @param pollExecStrategy is the strategy to use for retrieving results
+     * @param dataCache is looked up before using the strategy
+     * @param eventType is the type of events generated by the view
+     * @param isBatchPolling true to poll the distinct lookup keys not found in cache all at once, requires a batch-capable strategy
+     */
+    public DatabasePollingViewable(int myStreamNumber,
+                           List<String> inputParameters,
+                           PollExecStrategy pollExecStrategy,
+                           DataCache dataCache,
+                           EventType eventType,
+                           boolean isBatchPolling)
     {
         this.myStreamNumber = myStreamNumber;
         this.inputParameters = inputParameters;
         this.pollExecStrategy = pollExecStrategy;
         this.dataCache = dataCache;
         this.eventType = eventType;
+        this.isBatchPolling = isBatchPolling && pollExecStrategy instanceof PollExecStrategyBatched;
     }
 
     public void stop()
@@ -137,45 +158,21 @@ public class DatabasePollingViewable implements HistoricalEventViewable
 
     public EventTable[][] poll(EventBean[][] lookupEventsPerStream, PollResultIndexingStrategy indexingStrategy, ExprEvaluatorContext exprEvaluatorContext)
     {
+        if (isBatchPolling && lookupEventsPerStream.length > 1)
+        {
+            return pollBatch(lookupEventsPerStream, indexingStrategy, exprEvaluatorContext);
+        }
+
         DataCache localDataCache = dataCacheThreadLocal.get();
         boolean strategyStarted = false;
 
         EventTable[][] resultPerInputRow = new EventTable[lookupEventsPerStream.length][];
 
         // Get input parameters for each row
-        EventBean[] eventsPerStream;
         for (int row = 0; row < lookupEventsPerStream.length; row++)
         {
-            Object[] lookupValues = new Object[inputParameters.size()];
-
-            // Build lookup keys
-            for (int valueNum = 0; valueNum < inputParameters.size(); valueNum++)
-            {
-                eventsPerStream = lookupEventsPerStream[row];
-                Object lookupValue = evaluators[valueNum].evaluate(eventsPerStream, true, exprEvaluatorContext);
-                lookupValues[valueNum] = lookupValue;
-            }
-
-            EventTable[] result = null;
-
-            // try the threadlocal iteration cache, if set
-            if (localDataCache != null)
-            {
-                EventTable[] tables = localDataCache.getCached(lookupValues);
-                result = tables;
-            }
-
-            // try the connection cache
-            if (result == null)
-            {
-                EventTable[] multi = dataCache.getCached(lookupValues);
-                if (multi != null) {
-                    result = multi;
-                    if (localDataCache != null) {
-                        localDataCache.put(lookupValues, multi);
-                    }
-                }
-            }
+            Object[] lookupValues = getLookupValues(lookupEventsPerStream[row], exprEvaluatorContext);
+            EventTable[] result = getCached(lookupValues, localDataCache);
 
             // use the result from cache
             if (result != null)     // found in cache
@@ -228,6 +225,113 @@ public class DatabasePollingViewable implements HistoricalEventViewable
         return resultPerInputRow;
     }
 
+    /**
+     * Polls by first resolving lookup keys from cache, and polling the distinct keys not found in cache all at once.
+     */
+    private EventTable[][] pollBatch(EventBean[][] lookupEventsPerStream, PollResultIndexingStrategy indexingStrategy, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        DataCache localDataCache = dataCacheThreadLocal.get();
+        EventTable[][] resultPerInputRow = new EventTable[lookupEventsPerStream.length][];
+
+        // resolve from cache, collecting the rows per distinct key not cached
+        Map<Object, List<Integer>> rowsPerMissedKey = null;
+        List<Object[]> missedKeys = null;
+        for (int row = 0; row < lookupEventsPerStream.length; row++)
+        {
+            Object[] lookupValues = getLookupValues(lookupEventsPerStream[row], exprEvaluatorContext);
+            EventTable[] result = getCached(lookupValues, localDataCache);
+            if (result != null)
+            {
+                resultPerInputRow[row] = result;
+                continue;
+            }
+
+            if (rowsPerMissedKey == null)
+            {
+                rowsPerMissedKey = new LinkedHashMap<Object, List<Integer>>();
+                missedKeys = new ArrayList<Object[]>();
+            }
+            Object key = DataCacheUtil.getLookupKey(lookupValues);
+            List<Integer> rows = rowsPerMissedKey.get(key);
+            if (rows == null)
+            {
+                rows = new ArrayList<Integer>(2);
+                rowsPerMissedKey.put(key, rows);
+                missedKeys.add(lookupValues);
+            }
+            rows.add(row);
+        }
+
+        if (rowsPerMissedKey == null)
+        {
+            return resultPerInputRow;
+        }
+
+        // poll all keys not cached
+        pollExecStrategy.start();
+        try
+        {
+            List<List<EventBean>> pollResults = ((PollExecStrategyBatched) pollExecStrategy).pollBatch(missedKeys, exprEvaluatorContext);
+
+            int keyNum = 0;
+            for (List<Integer> rows : rowsPerMissedKey.values())
+            {
+                Object[] lookupValues = missedKeys.get(keyNum);
+                EventTable[] indexTable = indexingStrategy.index(pollResults.get(keyNum), dataCache.isActive());
+                for (int row : rows)
+                {
+                    resultPerInputRow[row] = indexTable;
+                }
+
+                dataCache.put(lookupValues, indexTable);
+                if (localDataCache != null)
+                {
+                    localDataCache.put(lookupValues, indexTable);
+                }
+                keyNum++;
+            }
+        }
+        catch (EPException ex)
+        {
+            pollExecStrategy.done();
+            throw ex;
+        }
+        pollExecStrategy.done();
+
+        return resultPerInputRow;
+    }
+
+    private Object[] getLookupValues(EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        Object[] lookupValues = new Object[inputParameters.size()];
+        for (int valueNum = 0; valueNum < inputParameters.size(); valueNum++)
+        {
+            lookupValues[valueNum] = evaluators[valueNum].evaluate(eventsPerStream, true, exprEvaluatorContext);
+        }
+        return lookupValues;
+    }
+
+    private EventTable[] getCached(Object[] lookupValues, DataCache localDataCache)
+    {
+        // try the threadlocal iteration cache, if set
+        if (localDataCache != null)
+        {
+            EventTable[] tables = localDataCache.getCached(lookupValues);
+            if (tables != null)
+            {
+                return tables;
+            }
+        }
+
+        // try the connection cache
+        EventTable[] multi = dataCache.getCached(lookupValues);
+        if (multi != null && localDataCache != null)
+        {
+            localDataCache.put(lookupValues, multi);
+        }
+        return multi;
+    }
+
     public View addView(View view)
     {
         view.setParent(this);
@@ -249,10 +249,14 @@ public class DatabasePollingViewableFactory
         // Get a proper connection and data cache
         ConnectionCache connectionCache;
         DataCache dataCache;
+        DataCacheShared sharedCache;
+        int pollBatchSize;
         try
         {
             connectionCache = databaseConfigService.getConnectionCache(databaseName, preparedStatementText);
             dataCache = databaseConfigService.getDataCache(databaseName, epStatementAgentInstanceHandle);
+            sharedCache = databaseConfigService.getSharedCache(databaseName);
+            pollBatchSize = databaseConfigService.getPollBatchSize(databaseName);
         }
         catch (DatabaseConfigException e)
         {
@@ -261,10 +265,18 @@ public class DatabasePollingViewableFactory
             throw new ExprValidationException(text + ", reason: " + e.getMessage(), e);
         }
 
-        PollExecStrategyDBQuery dbPollStrategy = new PollExecStrategyDBQuery(eventAdapterService,
-                eventType, connectionCache, preparedStatementText, queryMetaData.getOutputParameters(), columnTypeConversionHook, outputRowConversionHook, enableJDBCLogging);
+        PollExecStrategy dbPollStrategy = new PollExecStrategyDBQuery(eventAdapterService,
+                eventType, connectionCache, preparedStatementText, queryMetaData.getOutputParameters(), columnTypeConversionHook, outputRowConversionHook, enableJDBCLogging, pollBatchSize);
+        if (sharedCache != null)
+        {
+            // rows differ by query text and by conversion hooks
+            String namespace = preparedStatementText +
+                    (columnTypeConversionHook == null ? "" : "|" + columnTypeConversionHook.getClass().getName()) +
+                    (outputRowConversionHook == null ? "" : "|" + outputRowConversionHook.getClass().getName());
+            dbPollStrategy = new PollExecStrategySharedCache(dbPollStrategy, sharedCache, namespace, eventType, eventAdapterService);
+        }
 
-        return new DatabasePollingViewable(streamNumber, queryMetaData.getInputParameters(), dbPollStrategy, dataCache, eventType);
+        return new DatabasePollingViewable(streamNumber, queryMetaData.getInputParameters(), dbPollStrategy, dataCache, eventType, pollBatchSize > 1);
     }
 
     private static QueryMetaData getExampleQueryMetaData(Connection connection, String[] parameters, String sampleSQL, ColumnSettings metadataSetting, boolean isUsingMetadataSQL)
@@ -0,0 +1,28 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.db;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+
+import java.util.List;
+
+/**
+ * Polling strategy that can poll for multiple lookup keys at once, such as in a single database round-trip.
+ */
+public interface PollExecStrategyBatched extends PollExecStrategy
+{
+    /**
+     * Poll events for each of the lookup keys provided.
+     * @param lookupValues is the keys, each for executing a query or such
+     * @param exprEvaluatorContext evaluation context
+     * @return a list of events for each of the keys, in the order of the keys
+     */
+    public List<List<EventBean>> pollBatch(List<Object[]> lookupValues, ExprEvaluatorContext exprEvaluatorContext);
+}
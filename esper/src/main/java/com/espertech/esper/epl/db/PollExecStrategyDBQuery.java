@@ -28,12 +28,18 @@ import java.util.Date;
 
 /**
  * Viewable providing historical data from a database.
+ * <p>
+ * Polling for multiple keys executes a single statement that unions the query for each key,
+ * see {@link #getBatchSQL(String, int)}, using prepared statements that are kept for the connection.
  */
-public class PollExecStrategyDBQuery implements PollExecStrategy
+public class PollExecStrategyDBQuery implements PollExecStrategyBatched
 {
     private static final Log jdbcPerfLog = LogFactory.getLog(AuditPath.JDBC_LOG);
 
     private static final Log log = LogFactory.getLog(PollExecStrategyDBQuery.class);
+    private static final String BATCH_INDEX_COLUMN = "esper_batch_index";
+    private static final String BATCH_ALIAS = "esper_batch_";
+
     private final EventAdapterService eventAdapterService;
     private final String preparedStatementText;
     private final Map<String, DBOutputTypeDesc> outputTypes;
@@ -42,8 +48,11 @@ public class PollExecStrategyDBQuery implements PollExecStrategy
     private final SQLColumnTypeConversion columnTypeConversionHook;
     private final SQLOutputRowConversion outputRowConversionHook;
     private final boolean enableJDBCLogging;
+    private final int batchSize;
+    private final Map<Integer, PreparedStatement> batchStatements = new HashMap<Integer, PreparedStatement>();
 
     private Pair<Connection, PreparedStatement> resources;
+    private Connection batchConnection;
 
     /**
      * Ctor.
@@ -54,6 +63,7 @@ public class PollExecStrategyDBQuery implements PollExecStrategy
      * @param outputTypes describe columns selected by the SQL
      * @param outputRowConversionHook hook to convert rows, if any hook is registered
      * @param columnTypeConversionHook hook to convert columns, if any hook is registered
+     * @param enableJDBCLogging indicator whether to log JDBC execution
      */
     public PollExecStrategyDBQuery(EventAdapterService eventAdapterService,
                                    EventType eventType,
@@ -63,6 +73,31 @@ public class PollExecStrategyDBQuery implements PollExecStrategy
                                    SQLColumnTypeConversion columnTypeConversionHook,
                                    SQLOutputRowConversion outputRowConversionHook,
                                    boolean enableJDBCLogging)
+    {
+        this(eventAdapterService, eventType, connectionCache, preparedStatementText, outputTypes, columnTypeConversionHook, outputRowConversionHook, enableJDBCLogging, 1);
+    }
+
+    /**
+     * Ctor.
+     * @param eventAdapterService for generating event beans
+     * @param eventType is the event type that this poll generates
+     * @param connectionCache caches Connection and PreparedStatement
+     * @param preparedStatementText is the SQL to use for polling
+     * @param outputTypes describe columns selected by the SQL
+     * @param outputRowConversionHook hook to convert rows, if any hook is registered
+     * @param columnTypeConversionHook hook to convert columns, if any hook is registered
+     * @param enableJDBCLogging indicator whether to log JDBC execution
+     * @param batchSize maximum number of keys polled by a single statement
+     */
+    public PollExecStrategyDBQuery(EventAdapterService eventAdapterService,
+                                   EventType eventType,
+                                   ConnectionCache connectionCache,
+                                   String preparedStatementText,
+                                   Map<String, DBOutputTypeDesc> outputTypes,
+                                   SQLColumnTypeConversion columnTypeConversionHook,
+                                   SQLOutputRowConversion outputRowConversionHook,
+                                   boolean enableJDBCLogging,
+                                   int batchSize)
     {
         this.eventAdapterService = eventAdapterService;
         this.eventType = eventType;
@@ -72,6 +107,7 @@ public class PollExecStrategyDBQuery implements PollExecStrategy
         this.columnTypeConversionHook = columnTypeConversionHook;
         this.outputRowConversionHook = outputRowConversionHook;
         this.enableJDBCLogging = enableJDBCLogging;
+        this.batchSize = Math.max(1, batchSize);
     }
 
     public void start()
@@ -81,11 +117,16 @@ public class PollExecStrategyDBQuery implements PollExecStrategy
 
     public void done()
     {
+        if (!(connectionCache instanceof ConnectionCacheImpl)) {
+            // the connection is not retained
+            closeBatchStatements();
+        }
         connectionCache.doneWith(resources);
     }
 
     public void destroy()
     {
+        closeBatchStatements();
         connectionCache.destroy();
     }
 
@@ -105,6 +146,68 @@ public class PollExecStrategyDBQuery implements PollExecStrategy
         return result;
     }
 
+    public synchronized List<List<EventBean>> pollBatch(List<Object[]> lookupValues, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        List<List<EventBean>> result = new ArrayList<List<EventBean>>(lookupValues.size());
+        try
+        {
+            for (int offset = 0; offset < lookupValues.size(); offset += batchSize)
+            {
+                List<Object[]> chunk = lookupValues.subList(offset, Math.min(lookupValues.size(), offset + batchSize));
+                if (chunk.size() == 1) {
+                    result.add(execute(resources.getSecond(), chunk.get(0)));
+                }
+                else {
+                    result.addAll(executeBatch(chunk));
+                }
+            }
+        }
+        catch (EPException ex)
+        {
+            connectionCache.doneWith(resources);
+            throw ex;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the SQL that executes the query for a number of keys in a single statement, as a union of the query
+     * for each key with each row carrying the position of the key.
+     * @param preparedStatementText query for a single key
+     * @param numKeys number of keys
+     * @return batch query
+     */
+    protected static String getBatchSQL(String preparedStatementText, int numKeys)
+    {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < numKeys; i++)
+        {
+            if (i > 0) {
+                builder.append(" union all ");
+            }
+            builder.append("select ").append(i).append(" as ").append(BATCH_INDEX_COLUMN)
+                    .append(", ").append(BATCH_ALIAS).append(i).append(".* from (")
+                    .append(preparedStatementText).append(") ").append(BATCH_ALIAS).append(i);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns the number of keys of the batch statement used for the given number of keys: the next power of 2,
+     * but no more than the batch size, so that few distinct batch statements get prepared.
+     * @param numKeys number of keys
+     * @param batchSize maximum number of keys
+     * @return number of keys of statement
+     */
+    protected static int getBatchStatementSize(int numKeys, int batchSize)
+    {
+        int size = 1;
+        while (size < numKeys) {
+            size <<= 1;
+        }
+        return Math.min(size, batchSize);
+    }
+
     private synchronized List<EventBean> execute(PreparedStatement preparedStatement,
                                     Object[] lookupValuePerStream)
     {
@@ -115,17 +218,157 @@ public class PollExecStrategyDBQuery implements PollExecStrategy
 
         boolean hasJDBCLogging = enableJDBCLogging && jdbcPerfLog.isInfoEnabled();
 
+        Object[] parameters = null;
+        if (hasJDBCLogging) {
+            parameters = new Object[lookupValuePerStream.length];
+        }
+        setParameters(preparedStatement, 0, lookupValuePerStream, parameters);
+
+        ResultSet resultSet = executeQuery(preparedStatement, preparedStatementText, hasJDBCLogging, parameters);
+
+        // generate events for result set
+        List<EventBean> rows = new LinkedList<EventBean>();
+        try
+        {
+            RowReader reader = new RowReader();
+            while (resultSet.next())
+            {
+                EventBean eventBeanRow = reader.read(resultSet, rows.size());
+                if (eventBeanRow != null) {
+                    rows.add(eventBeanRow);
+                }
+            }
+        }
+        catch (SQLException ex)
+        {
+            throw new EPException("Error reading results for statement '" + preparedStatementText + '\'', ex);
+        }
+
+        if (enableJDBCLogging && jdbcPerfLog.isInfoEnabled()) {
+            jdbcPerfLog.info("Statement '" + preparedStatementText + "' " + rows.size() + " rows");
+        }
+
+        close(resultSet, preparedStatementText);
+        return rows;
+    }
+
+    private List<List<EventBean>> executeBatch(List<Object[]> lookupValues)
+    {
+        int numKeys = lookupValues.size();
+        int statementSize = getBatchStatementSize(numKeys, batchSize);
+        String batchSQL = getBatchSQL(preparedStatementText, statementSize);
+        PreparedStatement preparedStatement = getBatchStatement(statementSize, batchSQL);
+
+        if (ExecutionPathDebugLog.isDebugEnabled && log.isInfoEnabled())
+        {
+            log.info(".executeBatch Executing prepared statement '" + preparedStatementText + "' for " + numKeys + " keys");
+        }
+
+        boolean hasJDBCLogging = enableJDBCLogging && jdbcPerfLog.isInfoEnabled();
+
+        // set parameters, padding with the last key which results are discarded
+        int numParameters = lookupValues.get(0).length;
+        Object[] parameters = null;
+        if (hasJDBCLogging) {
+            parameters = new Object[numParameters * statementSize];
+        }
+        for (int i = 0; i < statementSize; i++) {
+            Object[] keys = lookupValues.get(Math.min(i, numKeys - 1));
+            Object[] keyParameters = parameters == null ? null : new Object[numParameters];
+            setParameters(preparedStatement, i * numParameters, keys, keyParameters);
+            if (parameters != null) {
+                System.arraycopy(keyParameters, 0, parameters, i * numParameters, numParameters);
+            }
+        }
+
+        ResultSet resultSet = executeQuery(preparedStatement, batchSQL, hasJDBCLogging, parameters);
+
+        // split rows by key
+        List<List<EventBean>> result = new ArrayList<List<EventBean>>(numKeys);
+        for (int i = 0; i < numKeys; i++) {
+            result.add(new LinkedList<EventBean>());
+        }
+        int numRows = 0;
+        try
+        {
+            RowReader reader = new RowReader();
+            while (resultSet.next())
+            {
+                int index = resultSet.getInt(BATCH_INDEX_COLUMN);
+                if (index >= numKeys) {
+                    continue;
+                }
+                List<EventBean> rows = result.get(index);
+                EventBean eventBeanRow = reader.read(resultSet, rows.size());
+                if (eventBeanRow != null) {
+                    rows.add(eventBeanRow);
+                    numRows++;
+                }
+            }
+        }
+        catch (SQLException ex)
+        {
+            throw new EPException("Error reading results for statement '" + batchSQL + '\'', ex);
+        }
+
+        if (hasJDBCLogging) {
+            jdbcPerfLog.info("Statement '" + preparedStatementText + "' " + numRows + " rows for " + numKeys + " keys");
+        }
+
+        close(resultSet, batchSQL);
+        return result;
+    }
+
+    private PreparedStatement getBatchStatement(int statementSize, String batchSQL)
+    {
+        Connection connection = resources.getFirst();
+        if (connection != batchConnection) {
+            closeBatchStatements();
+            batchConnection = connection;
+        }
+
+        PreparedStatement preparedStatement = batchStatements.get(statementSize);
+        if (preparedStatement != null) {
+            return preparedStatement;
+        }
+        try
+        {
+            preparedStatement = connection.prepareStatement(batchSQL);
+        }
+        catch (SQLException ex)
+        {
+            throw new EPException("Error preparing statement '" + batchSQL + '\'', ex);
+        }
+        batchStatements.put(statementSize, preparedStatement);
+        return preparedStatement;
+    }
+
+    private synchronized void closeBatchStatements()
+    {
+        for (PreparedStatement preparedStatement : batchStatements.values())
+        {
+            try
+            {
+                preparedStatement.close();
+            }
+            catch (SQLException ex)
+            {
+                log.warn("Error closing batch statement: " + ex.getMessage(), ex);
+            }
+        }
+        batchStatements.clear();
+        batchConnection = null;
+    }
+
+    private void setParameters(PreparedStatement preparedStatement, int offset, Object[] lookupValuePerStream, Object[] parameters)
+    {
         // set parameters
         SQLInputParameterContext inputParameterContext = null;
         if (columnTypeConversionHook != null) {
             inputParameterContext = new SQLInputParameterContext();
         }
 
-        int count = 1;
-        Object[] parameters = null;
-        if (hasJDBCLogging) {
-            parameters = new Object[lookupValuePerStream.length];
-        }
+        int count = offset + 1;
         for (int i = 0; i < lookupValuePerStream.length; i++)
         {
             try
@@ -154,8 +397,10 @@ public class PollExecStrategyDBQuery implements PollExecStrategy
 
             count++;
         }
+    }
 
-        // execute
+    private ResultSet executeQuery(PreparedStatement preparedStatement, String sql, boolean hasJDBCLogging, Object[] parameters)
+    {
         ResultSet resultSet;
         if (hasJDBCLogging) {
             long startTimeNS = System.nanoTime();
@@ -166,11 +411,11 @@ public class PollExecStrategyDBQuery implements PollExecStrategy
             }
             catch (SQLException ex)
             {
-                throw new EPException("Error executing statement '" + preparedStatementText + '\'', ex);
+                throw new EPException("Error executing statement '" + sql + '\'', ex);
             }
             long endTimeNS = System.nanoTime();
             long endTimeMS = System.currentTimeMillis();
-            jdbcPerfLog.info("Statement '" + preparedStatementText + "' delta nanosec " + (endTimeNS - startTimeNS) +
+            jdbcPerfLog.info("Statement '" + sql + "' delta nanosec " + (endTimeNS - startTimeNS) +
                     " delta msec " + (endTimeMS - startTimeMS) +
                     " parameters " + Arrays.toString(parameters));
         }
@@ -181,95 +426,78 @@ public class PollExecStrategyDBQuery implements PollExecStrategy
             }
             catch (SQLException ex)
             {
-                throw new EPException("Error executing statement '" + preparedStatementText + '\'', ex);
+                throw new EPException("Error executing statement '" + sql + '\'', ex);
             }
         }
+        return resultSet;
+    }
 
-        // generate events for result set
-        List<EventBean> rows = new LinkedList<EventBean>();
+    private void close(ResultSet resultSet, String sql)
+    {
         try
         {
-            SQLColumnValueContext valueContext = null;
-            if (columnTypeConversionHook != null) {
-                valueContext = new SQLColumnValueContext();
-            }
-
-            SQLOutputRowValueContext rowContext = null;
-            if (outputRowConversionHook != null) {
-                rowContext = new SQLOutputRowValueContext();
-            }
-
-            int rowNum = 0;
-            while (resultSet.next())
-            {
-                int colNum = 1;
-                Map<String, Object> row = new HashMap<String, Object>();
-                for (Map.Entry<String, DBOutputTypeDesc> entry : outputTypes.entrySet())
-                {
-                    String columnName = entry.getKey();
-
-                    Object value;
-                    DatabaseTypeBinding binding = entry.getValue().getOptionalBinding();
-                    if (binding != null)
-                    {
-                        value = binding.getValue(resultSet, columnName);
-                    }
-                    else
-                    {
-                        value = resultSet.getObject(columnName);
-                    }
-
-                    if (columnTypeConversionHook != null) {
-                        valueContext.setColumnName(columnName);
-                        valueContext.setColumnNumber(colNum);
-                        valueContext.setColumnValue(value);
-                        valueContext.setResultSet(resultSet);
-                        value = columnTypeConversionHook.getColumnValue(valueContext);
-                    }
-
-                    row.put(columnName, value);
-                    colNum++;
-                }
-
-                EventBean eventBeanRow = null;
-                if (this.outputRowConversionHook == null) {
-                    eventBeanRow = eventAdapterService.adapterForTypedMap(row, eventType);
-                }
-                else {
-                    rowContext.setValues(row);
-                    rowContext.setRowNum(rowNum);
-                    rowContext.setResultSet(resultSet);
-                    Object rowData = outputRowConversionHook.getOutputRow(rowContext);
-                    if (rowData != null) {
-                        eventBeanRow = eventAdapterService.adapterForTypedBean(rowData, (BeanEventType) eventType);
-                    }
-                }
-                
-                if (eventBeanRow != null) {
-                    rows.add(eventBeanRow);
-                    rowNum++;
-                }
-            }
+            resultSet.close();
         }
         catch (SQLException ex)
         {
-            throw new EPException("Error reading results for statement '" + preparedStatementText + '\'', ex);
+            throw new EPException("Error closing statement '" + sql + '\'', ex);
         }
+    }
 
-        if (enableJDBCLogging && jdbcPerfLog.isInfoEnabled()) {
-            jdbcPerfLog.info("Statement '" + preparedStatementText + "' " + rows.size() + " rows");
-        }
+    private class RowReader
+    {
+        private final SQLColumnValueContext valueContext;
+        private final SQLOutputRowValueContext rowContext;
 
-        try
+        private RowReader()
         {
-            resultSet.close();
+            valueContext = columnTypeConversionHook == null ? null : new SQLColumnValueContext();
+            rowContext = outputRowConversionHook == null ? null : new SQLOutputRowValueContext();
         }
-        catch (SQLException ex)
+
+        private EventBean read(ResultSet resultSet, int rowNum) throws SQLException
         {
-            throw new EPException("Error closing statement '" + preparedStatementText + '\'', ex);
-        }
+            int colNum = 1;
+            Map<String, Object> row = new HashMap<String, Object>();
+            for (Map.Entry<String, DBOutputTypeDesc> entry : outputTypes.entrySet())
+            {
+                String columnName = entry.getKey();
 
-        return rows;
+                Object value;
+                DatabaseTypeBinding binding = entry.getValue().getOptionalBinding();
+                if (binding != null)
+                {
+                    value = binding.getValue(resultSet, columnName);
+                }
+                else
+                {
+                    value = resultSet.getObject(columnName);
+                }
+
+                if (columnTypeConversionHook != null) {
+                    valueContext.setColumnName(columnName);
+                    valueContext.setColumnNumber(colNum);
+                    valueContext.setColumnValue(value);
+                    valueContext.setResultSet(resultSet);
+                    value = columnTypeConversionHook.getColumnValue(valueContext);
+                }
+
+                row.put(columnName, value);
+                colNum++;
+            }
+
+            if (outputRowConversionHook == null) {
+                return eventAdapterService.adapterForTypedMap(row, eventType);
+            }
+            rowContext.setValues(row);
+            rowContext.setRowNum(rowNum);
+            rowContext.setResultSet(resultSet);
+            Object rowData = outputRowConversionHook.getOutputRow(rowContext);
+            if (rowData != null) {
+                return eventAdapterService.adapterForTypedBean(rowData, (BeanEventType) eventType);
+            }
+            return null;
+        }
     }
 
 	private void setObject(PreparedStatement preparedStatement, int column, Object value) throws SQLException
@@ -0,0 +1,177 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.db;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
+import com.espertech.esper.event.EventAdapterService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Polling strategy that consults a shared cache before polling the underlying strategy,
+ * so that statements and context partitions with the same query share results.
+ * <p>
+ * The cache holds the polled rows rather than the statement's indexed event tables, since the indexes
+ * depend on each statement's join keys. Rows polled by another statement are adapted to this strategy's
+ * event type if the types differ, such as for the per-statement event types of database queries.
+ * <p>
+ * The underlying strategy is only started when a poll misses the cache. Batch polls pass only the keys
+ * that miss the cache to the underlying strategy, batched if the underlying strategy supports batching.
+ */
+public class PollExecStrategySharedCache implements PollExecStrategyBatched
+{
+    private final PollExecStrategy pollExecStrategy;
+    private final DataCacheShared cache;
+    private final String namespace;
+    private final EventType eventType;
+    private final EventAdapterService eventAdapterService;
+    private boolean started;
+
+    /**
+     * Ctor.
+     * @param pollExecStrategy underlying strategy
+     * @param cache shared cache
+     * @param namespace identifies the query or method within the shared cache
+     * @param eventType event type of rows returned
+     * @param eventAdapterService for adapting rows of other statements
+     */
+    public PollExecStrategySharedCache(PollExecStrategy pollExecStrategy, DataCacheShared cache, String namespace, EventType eventType, EventAdapterService eventAdapterService)
+    {
+        this.pollExecStrategy = pollExecStrategy;
+        this.cache = cache;
+        this.namespace = namespace;
+        this.eventType = eventType;
+        this.eventAdapterService = eventAdapterService;
+    }
+
+    public void start()
+    {
+    }
+
+    public List<EventBean> poll(Object[] lookupValues, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        Object key = getKey(lookupValues);
+        List<EventBean> rows = cache.get(key);
+        if (rows != null) {
+            return adapt(rows);
+        }
+
+        boolean polled = false;
+        try {
+            startDelegate();
+            rows = pollExecStrategy.poll(lookupValues, exprEvaluatorContext);
+            polled = true;
+        }
+        finally {
+            if (!polled) {
+                cache.cancelRefresh(key);
+            }
+        }
+        cache.put(key, rows);
+        return rows;
+    }
+
+    public List<List<EventBean>> pollBatch(List<Object[]> lookupValues, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        List<List<EventBean>> result = new ArrayList<List<EventBean>>(lookupValues.size());
+        List<Object[]> missedValues = null;
+        List<Integer> missedPositions = null;
+        for (int i = 0; i < lookupValues.size(); i++) {
+            List<EventBean> rows = cache.get(getKey(lookupValues.get(i)));
+            if (rows != null) {
+                result.add(adapt(rows));
+                continue;
+            }
+            if (missedValues == null) {
+                missedValues = new ArrayList<Object[]>();
+                missedPositions = new ArrayList<Integer>();
+            }
+            missedValues.add(lookupValues.get(i));
+            missedPositions.add(i);
+            result.add(null);
+        }
+
+        if (missedValues == null) {
+            return result;
+        }
+
+        List<List<EventBean>> polled = null;
+        try {
+            startDelegate();
+            if (pollExecStrategy instanceof PollExecStrategyBatched) {
+                polled = ((PollExecStrategyBatched) pollExecStrategy).pollBatch(missedValues, exprEvaluatorContext);
+            }
+            else {
+                List<List<EventBean>> rowsPerValues = new ArrayList<List<EventBean>>(missedValues.size());
+                for (Object[] values : missedValues) {
+                    rowsPerValues.add(pollExecStrategy.poll(values, exprEvaluatorContext));
+                }
+                polled = rowsPerValues;
+            }
+        }
+        finally {
+            if (polled == null) {
+                for (Object[] values : missedValues) {
+                    cache.cancelRefresh(getKey(values));
+                }
+            }
+        }
+
+        for (int i = 0; i < missedValues.size(); i++) {
+            List<EventBean> rows = polled.get(i);
+            cache.put(getKey(missedValues.get(i)), rows);
+            result.set(missedPositions.get(i), rows);
+        }
+        return result;
+    }
+
+    public void done()
+    {
+        if (started) {
+            pollExecStrategy.done();
+            started = false;
+        }
+    }
+
+    public void destroy()
+    {
+        pollExecStrategy.destroy();
+    }
+
+    private void startDelegate()
+    {
+        if (!started) {
+            pollExecStrategy.start();
+            started = true;
+        }
+    }
+
+    private Object getKey(Object[] lookupValues)
+    {
+        Object[] keys = new Object[lookupValues.length + 1];
+        keys[0] = namespace;
+        System.arraycopy(lookupValues, 0, keys, 1, lookupValues.length);
+        return DataCacheUtil.getLookupKey(keys);
+    }
+
+    private List<EventBean> adapt(List<EventBean> rows)
+    {
+        if (rows.isEmpty() || rows.get(0).getEventType() == eventType) {
+            return rows;
+        }
+        List<EventBean> adapted = new ArrayList<EventBean>(rows.size());
+        for (EventBean row : rows) {
+            adapted.add(eventAdapterService.adapterForType(row.getUnderlying(), eventType));
+        }
+        return adapted;
+    }
+}
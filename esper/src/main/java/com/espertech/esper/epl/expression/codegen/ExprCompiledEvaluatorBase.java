@@ -0,0 +1,59 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.codegen;
+
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+
+/**
+ * Base class for evaluators generated by {@link ExprNodeCompiler}.
+ * <p>
+ * Sub-expressions that are not compiled are evaluated by the interpreted evaluators held as fallbacks.
+ * Property values are obtained through the event property getters of the event types.
+ */
+public abstract class ExprCompiledEvaluatorBase implements ExprEvaluator
+{
+    /**
+     * Interpreted evaluators for sub-expressions that are not compiled.
+     */
+    protected final ExprEvaluator[] fallbacks;
+
+    /**
+     * Getters for properties that the generated code reads.
+     */
+    protected final EventPropertyGetter[] getters;
+
+    private final Class type;
+    private final String expressionText;
+
+    /**
+     * Ctor.
+     * @param fallbacks interpreted evaluators
+     * @param getters property getters
+     * @param type result type
+     * @param expressionText expression text for logging
+     */
+    protected ExprCompiledEvaluatorBase(ExprEvaluator[] fallbacks, EventPropertyGetter[] getters, Class type, String expressionText)
+    {
+        this.fallbacks = fallbacks;
+        this.getters = getters;
+        this.type = type;
+        this.expressionText = expressionText;
+    }
+
+    public Class getType()
+    {
+        return type;
+    }
+
+    public String toString()
+    {
+        return this.getClass().getSimpleName() + " expression=" + expressionText;
+    }
+}
@@ -0,0 +1,723 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.codegen;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.annotation.HintEnum;
+import com.espertech.esper.epl.core.EngineImportService;
+import com.espertech.esper.epl.expression.core.*;
+import com.espertech.esper.epl.expression.ops.*;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.type.MathArithTypeEnum;
+import com.espertech.esper.type.RelationalOpEnum;
+import com.espertech.esper.util.CoercionException;
+import com.espertech.esper.util.JavaClassHelper;
+import net.sf.cglib.asm.ClassWriter;
+import net.sf.cglib.asm.Label;
+import net.sf.cglib.asm.MethodVisitor;
+import net.sf.cglib.asm.Opcodes;
+import net.sf.cglib.asm.Type;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compiles an expression tree into a generated evaluator class, using the ASM library that is part of CGLib.
+ * <p>
+ * Arithmetic, relational, equals, and-, or- and not-operators as well as constants and event properties
+ * are compiled such that intermediate values remain primitive values kept in local variables.
+ * Any other sub-expression is evaluated by its interpreted evaluator. The compiled evaluator follows the
+ * null-handling of the interpreted evaluators: a null operand value results in a null value for arithmetic,
+ * relational and equals-operators, and in three-valued logic for and- and or-operators.
+ * <p>
+ * The root of a compiled expression must be one of the compiled operators, all other expressions are
+ * returned unchanged. The compiler returns the interpreted evaluator when instrumentation is enabled or
+ * when the class could not be generated.
+ */
+public class ExprNodeCompiler
+{
+    private static final Log log = LogFactory.getLog(ExprNodeCompiler.class);
+
+    private static final String BASE_CLASS = Type.getInternalName(ExprCompiledEvaluatorBase.class);
+    private static final String GENERATED_PACKAGE = "com/espertech/esper/epl/expression/codegen/gen/";
+    private static final String EVALUATOR = Type.getInternalName(ExprEvaluator.class);
+    private static final String GETTER = Type.getInternalName(EventPropertyGetter.class);
+    private static final String CTOR_DESCRIPTOR = Type.getMethodDescriptor(Type.VOID_TYPE, new Type[] {Type.getType(ExprEvaluator[].class), Type.getType(EventPropertyGetter[].class), Type.getType(Class.class), Type.getType(String.class)});
+    private static final String EVALUATE_DESCRIPTOR = Type.getMethodDescriptor(Type.getType(Object.class), new Type[] {Type.getType(EventBean[].class), Type.BOOLEAN_TYPE, Type.getType(ExprEvaluatorContext.class)});
+    private static final String GET_DESCRIPTOR = Type.getMethodDescriptor(Type.getType(Object.class), new Type[] {Type.getType(EventBean.class)});
+
+    private static final int LOCAL_EVENTS = 1;
+    private static final int LOCAL_ISNEWDATA = 2;
+    private static final int LOCAL_CONTEXT = 3;
+    private static final int LOCAL_FALLBACKS = 4;
+    private static final int LOCAL_GETTERS = 5;
+    private static final int LOCAL_FIRST_FREE = 6;
+
+    private static final AtomicInteger classCounter = new AtomicInteger();
+
+    private enum Kind {INT, LONG, DOUBLE, BOOL, REF}
+
+    /**
+     * Returns indicator whether expressions of a statement should be compiled, which is the case when
+     * the engine-wide setting is enabled or when the statement provides the compile-expressions hint.
+     * @param annotations statement annotations
+     * @param engineImportService engine settings
+     * @return indicator
+     */
+    public static boolean isEnabled(Annotation[] annotations, EngineImportService engineImportService)
+    {
+        return engineImportService.isCompileExpressions() || HintEnum.COMPILE_EXPRESSIONS.getHint(annotations) != null;
+    }
+
+    /**
+     * Compiles the validated expression, returning the evaluator provided if the expression cannot be compiled.
+     * @param node validated expression
+     * @param evaluator evaluator of the expression
+     * @return compiled evaluator or the evaluator provided
+     */
+    public static ExprEvaluator compile(ExprNode node, ExprEvaluator evaluator)
+    {
+        if (InstrumentationHelper.ENABLED || evaluator == null || node.getExprEvaluator() != evaluator || !isCompiledOperator(node))
+        {
+            return evaluator;
+        }
+        try
+        {
+            String className = GENERATED_PACKAGE + "Expr_" + classCounter.incrementAndGet();
+            Generator generator = new Generator();
+            byte[] bytes = generator.generate(className, node, evaluator.getType());
+            Class<?> evaluatorClass = new CompiledClassLoader().define(className.replace('/', '.'), bytes);
+            Constructor ctor = evaluatorClass.getConstructor(ExprEvaluator[].class, EventPropertyGetter[].class, Class.class, String.class);
+            ExprEvaluator[] fallbacks = generator.fallbacks.toArray(new ExprEvaluator[generator.fallbacks.size()]);
+            EventPropertyGetter[] getters = generator.getters.toArray(new EventPropertyGetter[generator.getters.size()]);
+            return (ExprEvaluator) ctor.newInstance(fallbacks, getters, evaluator.getType(), ExprNodeUtility.toExpressionStringMinPrecedenceSafe(node));
+        }
+        catch (Throwable t)
+        {
+            log.debug("Unable to compile expression '" + ExprNodeUtility.toExpressionStringMinPrecedenceSafe(node) + "', msg=" + t.getMessage(), t);
+            return evaluator;
+        }
+    }
+
+    private static boolean isCompiledOperator(ExprNode node)
+    {
+        Class clazz = node.getClass();
+        if (clazz == ExprMathNode.class)
+        {
+            return getNumericKind(((ExprMathNode) node).getType()) != null;
+        }
+        if (clazz == ExprRelationalOpNodeImpl.class)
+        {
+            Class compareType = getRelationalCompareType(node);
+            return compareType == String.class || getNumericKind(compareType) != null;
+        }
+        if (clazz == ExprEqualsNodeImpl.class)
+        {
+            return getEqualsKind((ExprEqualsNodeImpl) node) != null && isFullyCompiled(node.getChildNodes()[1]);
+        }
+        return clazz == ExprAndNodeImpl.class || clazz == ExprOrNode.class || clazz == ExprNotNode.class;
+    }
+
+    private static boolean isFullyCompiled(ExprNode node)
+    {
+        if (getIdentEvaluator(node) != null || getConstantKind(node) != null)
+        {
+            return true;
+        }
+        if (!isCompiledOperator(node))
+        {
+            return false;
+        }
+        for (ExprNode child : node.getChildNodes())
+        {
+            if (!isFullyCompiled(child))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ExprIdentNodeEvaluatorImpl getIdentEvaluator(ExprNode node)
+    {
+        if (!(node instanceof ExprIdentNode))
+        {
+            return null;
+        }
+        ExprEvaluator evaluator = node.getExprEvaluator();
+        if (evaluator == null || evaluator.getClass() != ExprIdentNodeEvaluatorImpl.class)
+        {
+            return null;
+        }
+        return (ExprIdentNodeEvaluatorImpl) evaluator;
+    }
+
+    private static Kind getConstantKind(ExprNode node)
+    {
+        if (node.getClass() != ExprConstantNodeImpl.class)
+        {
+            return null;
+        }
+        Object value = ((ExprConstantNodeImpl) node).getConstantValue(null);
+        if (value instanceof Boolean)
+        {
+            return Kind.BOOL;
+        }
+        if (value instanceof String)
+        {
+            return Kind.REF;
+        }
+        return value == null ? null : getNumericKind(value.getClass());
+    }
+
+    private static Kind getNumericKind(Class type)
+    {
+        if (type == Integer.class)
+        {
+            return Kind.INT;
+        }
+        if (type == Long.class)
+        {
+            return Kind.LONG;
+        }
+        if (type == Double.class)
+        {
+            return Kind.DOUBLE;
+        }
+        return null;
+    }
+
+    private static Class getRelationalCompareType(ExprNode node)
+    {
+        Class typeOne = JavaClassHelper.getBoxedType(node.getChildNodes()[0].getExprEvaluator().getType());
+        Class typeTwo = JavaClassHelper.getBoxedType(node.getChildNodes()[1].getExprEvaluator().getType());
+        try
+        {
+            return JavaClassHelper.getCompareToCoercionType(typeOne, typeTwo);
+        }
+        catch (CoercionException ex)
+        {
+            return null;
+        }
+    }
+
+    private static Kind getEqualsKind(ExprEqualsNodeImpl node)
+    {
+        if (node.isIs())
+        {
+            return null;
+        }
+        Class typeOne = JavaClassHelper.getBoxedType(node.getChildNodes()[0].getExprEvaluator().getType());
+        Class typeTwo = JavaClassHelper.getBoxedType(node.getChildNodes()[1].getExprEvaluator().getType());
+        if (typeOne == null || typeTwo == null)
+        {
+            return null;
+        }
+        if (typeOne == typeTwo)
+        {
+            if (typeOne == Boolean.class)
+            {
+                return Kind.BOOL;
+            }
+            Kind kind = getNumericKind(typeOne);
+            return kind == null ? Kind.REF : kind;
+        }
+        if (typeOne.isAssignableFrom(typeTwo))
+        {
+            return Kind.REF;
+        }
+        try
+        {
+            // same as the coercing evaluator, that compares coerced boxed values
+            return getNumericKind(JavaClassHelper.getCompareToCoercionType(typeOne, typeTwo));
+        }
+        catch (CoercionException ex)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Generates the evaluate method, that keeps the events-per-stream, the fallback evaluators and the getters
+     * in local variables. Each sub-expression is compiled to leave a non-null value of a given kind on the operand
+     * stack, or to jump to the null-label provided by the parent expression with an empty operand stack.
+     */
+    private static class Generator
+    {
+        private final List<ExprEvaluator> fallbacks = new ArrayList<ExprEvaluator>();
+        private final List<EventPropertyGetter> getters = new ArrayList<EventPropertyGetter>();
+        private MethodVisitor mv;
+        private int nextLocal = LOCAL_FIRST_FREE;
+
+        private byte[] generate(String className, ExprNode root, Class resultType)
+        {
+            ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+            cw.visit(Opcodes.V1_5, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, className, null, BASE_CLASS, null);
+
+            MethodVisitor ctor = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", CTOR_DESCRIPTOR, null, null);
+            ctor.visitCode();
+            for (int i = 0; i < 5; i++)
+            {
+                ctor.visitVarInsn(Opcodes.ALOAD, i);
+            }
+            ctor.visitMethodInsn(Opcodes.INVOKESPECIAL, BASE_CLASS, "<init>", CTOR_DESCRIPTOR);
+            ctor.visitInsn(Opcodes.RETURN);
+            ctor.visitMaxs(0, 0);
+            ctor.visitEnd();
+
+            mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "evaluate", EVALUATE_DESCRIPTOR, null, null);
+            mv.visitCode();
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitFieldInsn(Opcodes.GETFIELD, BASE_CLASS, "fallbacks", Type.getDescriptor(ExprEvaluator[].class));
+            mv.visitVarInsn(Opcodes.ASTORE, LOCAL_FALLBACKS);
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitFieldInsn(Opcodes.GETFIELD, BASE_CLASS, "getters", Type.getDescriptor(EventPropertyGetter[].class));
+            mv.visitVarInsn(Opcodes.ASTORE, LOCAL_GETTERS);
+
+            Label nullLabel = new Label();
+            Kind kind = compileNode(root, nullLabel);
+            if (JavaClassHelper.getBoxedType(resultType) != getBoxedType(kind))
+            {
+                throw new IllegalStateException("Compiled result type " + getBoxedType(kind) + " does not match expression type " + resultType);
+            }
+            convert(kind, Kind.REF);
+            mv.visitInsn(Opcodes.ARETURN);
+            mv.visitLabel(nullLabel);
+            mv.visitInsn(Opcodes.ACONST_NULL);
+            mv.visitInsn(Opcodes.ARETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+
+            cw.visitEnd();
+            return cw.toByteArray();
+        }
+
+        private Kind compileNode(ExprNode node, Label nullLabel)
+        {
+            Class clazz = node.getClass();
+            if (isCompiledOperator(node))
+            {
+                if (clazz == ExprMathNode.class)
+                {
+                    return compileMath((ExprMathNode) node, nullLabel);
+                }
+                if (clazz == ExprRelationalOpNodeImpl.class)
+                {
+                    return compileRelational((ExprRelationalOpNodeImpl) node, nullLabel);
+                }
+                if (clazz == ExprEqualsNodeImpl.class)
+                {
+                    return compileEquals((ExprEqualsNodeImpl) node, nullLabel);
+                }
+                if (clazz == ExprNotNode.class)
+                {
+                    convert(compileNode(node.getChildNodes()[0], nullLabel), Kind.BOOL);
+                    mv.visitInsn(Opcodes.ICONST_1);
+                    mv.visitInsn(Opcodes.IXOR);
+                    return Kind.BOOL;
+                }
+                return compileAndOr(node, clazz == ExprAndNodeImpl.class, nullLabel);
+            }
+
+            ExprIdentNodeEvaluatorImpl ident = getIdentEvaluator(node);
+            if (ident != null)
+            {
+                return compileIdent(ident, nullLabel);
+            }
+
+            Kind constantKind = getConstantKind(node);
+            if (constantKind != null)
+            {
+                Object value = ((ExprConstantNodeImpl) node).getConstantValue(null);
+                if (constantKind == Kind.BOOL)
+                {
+                    mv.visitInsn((Boolean) value ? Opcodes.ICONST_1 : Opcodes.ICONST_0);
+                }
+                else
+                {
+                    mv.visitLdcInsn(value);
+                }
+                return constantKind;
+            }
+
+            // evaluate by the interpreted evaluator
+            mv.visitVarInsn(Opcodes.ALOAD, LOCAL_FALLBACKS);
+            pushInt(fallbacks.size());
+            fallbacks.add(node.getExprEvaluator());
+            mv.visitInsn(Opcodes.AALOAD);
+            mv.visitVarInsn(Opcodes.ALOAD, LOCAL_EVENTS);
+            mv.visitVarInsn(Opcodes.ILOAD, LOCAL_ISNEWDATA);
+            mv.visitVarInsn(Opcodes.ALOAD, LOCAL_CONTEXT);
+            mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, EVALUATOR, "evaluate", EVALUATE_DESCRIPTOR);
+            return checkNull(nullLabel);
+        }
+
+        private Kind compileIdent(ExprIdentNodeEvaluatorImpl ident, Label nullLabel)
+        {
+            int eventLocal = newLocal(Kind.REF);
+            mv.visitVarInsn(Opcodes.ALOAD, LOCAL_EVENTS);
+            pushInt(ident.getStreamNum());
+            mv.visitInsn(Opcodes.AALOAD);
+            mv.visitVarInsn(Opcodes.ASTORE, eventLocal);
+            mv.visitVarInsn(Opcodes.ALOAD, eventLocal);
+            mv.visitJumpInsn(Opcodes.IFNULL, nullLabel);
+
+            mv.visitVarInsn(Opcodes.ALOAD, LOCAL_GETTERS);
+            pushInt(getters.size());
+            getters.add(ident.getGetter());
+            mv.visitInsn(Opcodes.AALOAD);
+            mv.visitVarInsn(Opcodes.ALOAD, eventLocal);
+            mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, GETTER, "get", GET_DESCRIPTOR);
+            return checkNull(nullLabel);
+        }
+
+        private Kind compileMath(ExprMathNode node, Label nullLabel)
+        {
+            Kind kind = getNumericKind(node.getType());
+            int left = compileOperand(node.getChildNodes()[0], kind, nullLabel);
+            int right = compileOperand(node.getChildNodes()[1], kind, nullLabel);
+
+            MathArithTypeEnum arith = node.getMathArithTypeEnum();
+            if (arith == MathArithTypeEnum.DIVIDE)
+            {
+                // integer division by zero returns null, double division by zero returns null when configured
+                if (kind != Kind.DOUBLE || node.isDivisionByZeroReturnsNull())
+                {
+                    load(kind, right);
+                    if (kind == Kind.LONG)
+                    {
+                        mv.visitInsn(Opcodes.LCONST_0);
+                        mv.visitInsn(Opcodes.LCMP);
+                    }
+                    else if (kind == Kind.DOUBLE)
+                    {
+                        mv.visitInsn(Opcodes.DCONST_0);
+                        mv.visitInsn(Opcodes.DCMPL);
+                    }
+                    mv.visitJumpInsn(Opcodes.IFEQ, nullLabel);
+                }
+            }
+
+            load(kind, left);
+            load(kind, right);
+            int opcode;
+            if (arith == MathArithTypeEnum.ADD)
+            {
+                opcode = Opcodes.IADD;
+            }
+            else if (arith == MathArithTypeEnum.SUBTRACT)
+            {
+                opcode = Opcodes.ISUB;
+            }
+            else if (arith == MathArithTypeEnum.MULTIPLY)
+            {
+                opcode = Opcodes.IMUL;
+            }
+            else if (arith == MathArithTypeEnum.DIVIDE)
+            {
+                opcode = Opcodes.IDIV;
+            }
+            else
+            {
+                opcode = Opcodes.IREM;
+            }
+            mv.visitInsn(getPrimitiveType(kind).getOpcode(opcode));
+            return kind;
+        }
+
+        private Kind compileRelational(ExprRelationalOpNodeImpl node, Label nullLabel)
+        {
+            Class compareType = getRelationalCompareType(node);
+            RelationalOpEnum op = node.getRelationalOpEnum();
+            Label trueLabel = new Label();
+
+            if (compareType == String.class)
+            {
+                int left = compileOperand(node.getChildNodes()[0], Kind.REF, nullLabel);
+                int right = compileOperand(node.getChildNodes()[1], Kind.REF, nullLabel);
+                mv.visitVarInsn(Opcodes.ALOAD, left);
+                mv.visitTypeInsn(Opcodes.CHECKCAST, "java/lang/String");
+                mv.visitVarInsn(Opcodes.ALOAD, right);
+                mv.visitTypeInsn(Opcodes.CHECKCAST, "java/lang/String");
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/String", "compareTo", "(Ljava/lang/String;)I");
+                mv.visitJumpInsn(getCompareZeroOpcode(op), trueLabel);
+                return pushBoolean(trueLabel, false);
+            }
+
+            Kind kind = getNumericKind(compareType);
+            int left = compileOperand(node.getChildNodes()[0], kind, nullLabel);
+            int right = compileOperand(node.getChildNodes()[1], kind, nullLabel);
+            load(kind, left);
+            load(kind, right);
+            if (kind == Kind.INT)
+            {
+                int opcode;
+                if (op == RelationalOpEnum.GT)
+                {
+                    opcode = Opcodes.IF_ICMPGT;
+                }
+                else if (op == RelationalOpEnum.GE)
+                {
+                    opcode = Opcodes.IF_ICMPGE;
+                }
+                else if (op == RelationalOpEnum.LT)
+                {
+                    opcode = Opcodes.IF_ICMPLT;
+                }
+                else
+                {
+                    opcode = Opcodes.IF_ICMPLE;
+                }
+                mv.visitJumpInsn(opcode, trueLabel);
+            }
+            else
+            {
+                if (kind == Kind.LONG)
+                {
+                    mv.visitInsn(Opcodes.LCMP);
+                }
+                else
+                {
+                    // NaN compares as false, same as the Java comparison operators
+                    mv.visitInsn(op == RelationalOpEnum.GT || op == RelationalOpEnum.GE ? Opcodes.DCMPL : Opcodes.DCMPG);
+                }
+                mv.visitJumpInsn(getCompareZeroOpcode(op), trueLabel);
+            }
+            return pushBoolean(trueLabel, false);
+        }
+
+        private Kind compileEquals(ExprEqualsNodeImpl node, Label nullLabel)
+        {
+            Kind kind = getEqualsKind(node);
+            int left = compileOperand(node.getChildNodes()[0], kind, nullLabel);
+            int right = compileOperand(node.getChildNodes()[1], kind, nullLabel);
+            load(kind, left);
+            load(kind, right);
+
+            Label equalLabel = new Label();
+            if (kind == Kind.INT || kind == Kind.BOOL)
+            {
+                mv.visitJumpInsn(Opcodes.IF_ICMPEQ, equalLabel);
+            }
+            else if (kind == Kind.LONG)
+            {
+                mv.visitInsn(Opcodes.LCMP);
+                mv.visitJumpInsn(Opcodes.IFEQ, equalLabel);
+            }
+            else if (kind == Kind.DOUBLE)
+            {
+                // same as Double.equals, that is used for boxed values
+                mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Double", "compare", "(DD)I");
+                mv.visitJumpInsn(Opcodes.IFEQ, equalLabel);
+            }
+            else
+            {
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/Object", "equals", "(Ljava/lang/Object;)Z");
+                mv.visitJumpInsn(Opcodes.IFNE, equalLabel);
+            }
+            return pushBoolean(equalLabel, node.isNotEquals());
+        }
+
+        private Kind compileAndOr(ExprNode node, boolean isAnd, Label nullLabel)
+        {
+            // a null child value does not end evaluation, the first false (and) or true (or) value does
+            int nullSeen = newLocal(Kind.BOOL);
+            mv.visitInsn(Opcodes.ICONST_0);
+            mv.visitVarInsn(Opcodes.ISTORE, nullSeen);
+
+            Label decidedLabel = new Label();
+            for (ExprNode child : node.getChildNodes())
+            {
+                Label childNullLabel = new Label();
+                Label nextLabel = new Label();
+                convert(compileNode(child, childNullLabel), Kind.BOOL);
+                mv.visitJumpInsn(isAnd ? Opcodes.IFEQ : Opcodes.IFNE, decidedLabel);
+                mv.visitJumpInsn(Opcodes.GOTO, nextLabel);
+                mv.visitLabel(childNullLabel);
+                mv.visitInsn(Opcodes.ICONST_1);
+                mv.visitVarInsn(Opcodes.ISTORE, nullSeen);
+                mv.visitLabel(nextLabel);
+            }
+            mv.visitVarInsn(Opcodes.ILOAD, nullSeen);
+            mv.visitJumpInsn(Opcodes.IFNE, nullLabel);
+            return pushBoolean(decidedLabel, isAnd);
+        }
+
+        private int compileOperand(ExprNode node, Kind kind, Label nullLabel)
+        {
+            convert(compileNode(node, nullLabel), kind);
+            int local = newLocal(kind);
+            mv.visitVarInsn(getPrimitiveType(kind).getOpcode(Opcodes.ISTORE), local);
+            return local;
+        }
+
+        private Kind checkNull(Label nullLabel)
+        {
+            int local = newLocal(Kind.REF);
+            mv.visitVarInsn(Opcodes.ASTORE, local);
+            mv.visitVarInsn(Opcodes.ALOAD, local);
+            mv.visitJumpInsn(Opcodes.IFNULL, nullLabel);
+            mv.visitVarInsn(Opcodes.ALOAD, local);
+            return Kind.REF;
+        }
+
+        /**
+         * Pushes the boolean value, the value is true when reaching the label and false when falling through,
+         * or the negated values when negated.
+         */
+        private Kind pushBoolean(Label label, boolean negate)
+        {
+            Label endLabel = new Label();
+            mv.visitInsn(negate ? Opcodes.ICONST_1 : Opcodes.ICONST_0);
+            mv.visitJumpInsn(Opcodes.GOTO, endLabel);
+            mv.visitLabel(label);
+            mv.visitInsn(negate ? Opcodes.ICONST_0 : Opcodes.ICONST_1);
+            mv.visitLabel(endLabel);
+            return Kind.BOOL;
+        }
+
+        private void convert(Kind from, Kind to)
+        {
+            if (from == to)
+            {
+                return;
+            }
+            if (from == Kind.REF)
+            {
+                if (to == Kind.BOOL)
+                {
+                    mv.visitTypeInsn(Opcodes.CHECKCAST, "java/lang/Boolean");
+                    mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/Boolean", "booleanValue", "()Z");
+                    return;
+                }
+                Type primitive = getPrimitiveType(to);
+                mv.visitTypeInsn(Opcodes.CHECKCAST, "java/lang/Number");
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/Number", primitive.getClassName() + "Value", "()" + primitive.getDescriptor());
+                return;
+            }
+            if (to == Kind.REF)
+            {
+                Class boxed = getBoxedType(from);
+                mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(boxed), "valueOf", Type.getMethodDescriptor(Type.getType(boxed), new Type[] {getPrimitiveType(from)}));
+                return;
+            }
+            if (from == Kind.BOOL || to == Kind.BOOL)
+            {
+                throw new IllegalStateException("Cannot convert between boolean and numeric values");
+            }
+            if (from == Kind.INT)
+            {
+                mv.visitInsn(to == Kind.LONG ? Opcodes.I2L : Opcodes.I2D);
+            }
+            else if (from == Kind.LONG)
+            {
+                mv.visitInsn(to == Kind.INT ? Opcodes.L2I : Opcodes.L2D);
+            }
+            else
+            {
+                mv.visitInsn(to == Kind.INT ? Opcodes.D2I : Opcodes.D2L);
+            }
+        }
+
+        private void load(Kind kind, int local)
+        {
+            mv.visitVarInsn(getPrimitiveType(kind).getOpcode(Opcodes.ILOAD), local);
+        }
+
+        private int newLocal(Kind kind)
+        {
+            int local = nextLocal;
+            nextLocal += getPrimitiveType(kind).getSize();
+            return local;
+        }
+
+        private void pushInt(int value)
+        {
+            if (value <= 5)
+            {
+                mv.visitInsn(Opcodes.ICONST_0 + value);
+            }
+            else if (value <= Byte.MAX_VALUE)
+            {
+                mv.visitIntInsn(Opcodes.BIPUSH, value);
+            }
+            else if (value <= Short.MAX_VALUE)
+            {
+                mv.visitIntInsn(Opcodes.SIPUSH, value);
+            }
+            else
+            {
+                mv.visitLdcInsn(value);
+            }
+        }
+    }
+
+    private static int getCompareZeroOpcode(RelationalOpEnum op)
+    {
+        if (op == RelationalOpEnum.GT)
+        {
+            return Opcodes.IFGT;
+        }
+        if (op == RelationalOpEnum.GE)
+        {
+            return Opcodes.IFGE;
+        }
+        if (op == RelationalOpEnum.LT)
+        {
+            return Opcodes.IFLT;
+        }
+        return Opcodes.IFLE;
+    }
+
+    private static Type getPrimitiveType(Kind kind)
+    {
+        switch (kind)
+        {
+            case INT: return Type.INT_TYPE;
+            case LONG: return Type.LONG_TYPE;
+            case DOUBLE: return Type.DOUBLE_TYPE;
+            case BOOL: return Type.BOOLEAN_TYPE;
+            default: return Type.getType(Object.class);
+        }
+    }
+
+    private static Class getBoxedType(Kind kind)
+    {
+        switch (kind)
+        {
+            case INT: return Integer.class;
+            case LONG: return Long.class;
+            case DOUBLE: return Double.class;
+            case BOOL: return Boolean.class;
+            default: return Object.class;
+        }
+    }
+
+    /**
+     * Class loader per generated evaluator, so that the class can be unloaded when the statement is destroyed.
+     */
+    private static class CompiledClassLoader extends ClassLoader
+    {
+        private CompiledClassLoader()
+        {
+            super(ExprNodeCompiler.class.getClassLoader());
+        }
+
+        private Class<?> define(String name, byte[] bytes)
+        {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
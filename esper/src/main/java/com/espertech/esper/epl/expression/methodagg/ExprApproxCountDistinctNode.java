@@ -0,0 +1,76 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.methodagg;
+
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.approx.HyperLogLog;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprValidationContext;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNode;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Represents the approxCountDistinct(...) aggregate function is an expression tree.
+ */
+public class ExprApproxCountDistinctNode extends ExprAggregateNodeBase
+{
+    private static final long serialVersionUID = 6214094315932145560L;
+
+    /**
+     * Default precision of the sketch, 4096 registers for a standard error of about 1.6%.
+     */
+    public static final int DEFAULT_PRECISION = 12;
+
+    /**
+     * Ctor.
+     * @param distinct - flag indicating unique or non-unique value aggregation
+     */
+    public ExprApproxCountDistinctNode(boolean distinct)
+    {
+        super(distinct);
+    }
+
+    public AggregationMethodFactory validateAggregationChild(ExprValidationContext validationContext) throws ExprValidationException
+    {
+        if (isDistinct()) {
+            throw new ExprValidationException("The '" + getAggregationFunctionName() + "' function counts distinct values and does not allow the distinct keyword");
+        }
+        if (positionalParams.length == 0 || positionalParams.length > 2) {
+            throw makeExceptionExpectedParamNum(1, 2);
+        }
+        ExprMethodAggUtil.validateIStreamOnly(validationContext, getAggregationFunctionName());
+
+        int precision = DEFAULT_PRECISION;
+        if (positionalParams.length == 2) {
+            ExprNode node = positionalParams[1];
+            String message = "The '" + getAggregationFunctionName() + "' function requires an integer constant precision between " + HyperLogLog.MIN_PRECISION + " and " + HyperLogLog.MAX_PRECISION;
+            if (!node.isConstantResult() || !JavaClassHelper.isNumericNonFP(node.getExprEvaluator().getType())) {
+                throw new ExprValidationException(message);
+            }
+            Number num = (Number) node.getExprEvaluator().evaluate(null, true, validationContext.getExprEvaluatorContext());
+            if (num == null || num.intValue() < HyperLogLog.MIN_PRECISION || num.intValue() > HyperLogLog.MAX_PRECISION) {
+                throw new ExprValidationException(message);
+            }
+            precision = num.intValue();
+        }
+        return new ExprApproxCountDistinctNodeFactory(this, positionalParams[0].getExprEvaluator().getType(), precision);
+    }
+
+    public String getAggregationFunctionName()
+    {
+        return "approxCountDistinct";
+    }
+
+    protected boolean equalsNodeAggregateMethodOnly(ExprAggregateNode node)
+    {
+        return node instanceof ExprApproxCountDistinctNode;
+    }
+}
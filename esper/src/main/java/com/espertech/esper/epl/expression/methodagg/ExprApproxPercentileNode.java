@@ -0,0 +1,82 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.methodagg;
+
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprValidationContext;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNode;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Represents the approxPercentile(...) aggregate function is an expression tree.
+ */
+public class ExprApproxPercentileNode extends ExprAggregateNodeBase
+{
+    private static final long serialVersionUID = -2290148370541917342L;
+
+    /**
+     * Default compression of the digest.
+     */
+    public static final int DEFAULT_COMPRESSION = 100;
+
+    /**
+     * Ctor.
+     * @param distinct - flag indicating unique or non-unique value aggregation
+     */
+    public ExprApproxPercentileNode(boolean distinct)
+    {
+        super(distinct);
+    }
+
+    public AggregationMethodFactory validateAggregationChild(ExprValidationContext validationContext) throws ExprValidationException
+    {
+        if (positionalParams.length < 2 || positionalParams.length > 3) {
+            throw makeExceptionExpectedParamNum(2, 3);
+        }
+
+        ExprMethodAggUtil.validateIStreamOnly(validationContext, getAggregationFunctionName());
+
+        Class childType = positionalParams[0].getExprEvaluator().getType();
+        if (!JavaClassHelper.isNumeric(childType)) {
+            throw new ExprValidationException("Implicit conversion from datatype '" +
+                    (childType == null ? "null" : childType.getSimpleName()) +
+                    "' to numeric is not allowed for aggregation function '" + getAggregationFunctionName() + "'");
+        }
+
+        double percentile = ExprPercentileNode.validatePercentile(positionalParams[1], validationContext, getAggregationFunctionName());
+
+        int compression = DEFAULT_COMPRESSION;
+        if (positionalParams.length == 3) {
+            ExprNode node = positionalParams[2];
+            String message = "The '" + getAggregationFunctionName() + "' function requires a positive integer constant compression";
+            if (!node.isConstantResult() || !JavaClassHelper.isNumericNonFP(node.getExprEvaluator().getType())) {
+                throw new ExprValidationException(message);
+            }
+            Number num = (Number) node.getExprEvaluator().evaluate(null, true, validationContext.getExprEvaluatorContext());
+            if (num == null || num.intValue() < 1) {
+                throw new ExprValidationException(message);
+            }
+            compression = num.intValue();
+        }
+        return new ExprApproxPercentileNodeFactory(this, childType, percentile, compression);
+    }
+
+    public String getAggregationFunctionName()
+    {
+        return "approxPercentile";
+    }
+
+    protected boolean equalsNodeAggregateMethodOnly(ExprAggregateNode node)
+    {
+        return node instanceof ExprApproxPercentileNode;
+    }
+}
@@ -0,0 +1,98 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.methodagg;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.epl.agg.access.AggregationAccessor;
+import com.espertech.esper.epl.agg.access.AggregationAgent;
+import com.espertech.esper.epl.agg.access.AggregationStateKey;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.agg.service.AggregationMethodFactoryUtil;
+import com.espertech.esper.epl.agg.service.AggregationStateFactory;
+import com.espertech.esper.epl.core.MethodResolutionService;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+
+public class ExprApproxPercentileNodeFactory implements AggregationMethodFactory
+{
+    private final ExprApproxPercentileNode parent;
+    private final Class aggregatedValueType;
+    private final double percentile;
+    private final int compression;
+
+    public ExprApproxPercentileNodeFactory(ExprApproxPercentileNode parent, Class aggregatedValueType, double percentile, int compression)
+    {
+        this.parent = parent;
+        this.aggregatedValueType = aggregatedValueType;
+        this.percentile = percentile;
+        this.compression = compression;
+    }
+
+    public boolean isAccessAggregation() {
+        return false;
+    }
+
+    public Class getResultType()
+    {
+        return Double.class;
+    }
+
+    public AggregationStateKey getAggregationStateKey(boolean isMatchRecognize) {
+        throw new IllegalStateException("Not an access aggregation function");
+    }
+
+    public AggregationStateFactory getAggregationStateFactory(boolean isMatchRecognize) {
+        throw new IllegalStateException("Not an access aggregation function");
+    }
+
+    public AggregationAccessor getAccessor() {
+        throw new IllegalStateException("Not an access aggregation function");
+    }
+
+    public AggregationMethod make(MethodResolutionService methodResolutionService, int agentInstanceId, int groupId, int aggregationId) {
+        AggregationMethod method = methodResolutionService.makeApproxPercentileAggregator(agentInstanceId, groupId, aggregationId, percentile, compression);
+        if (!parent.isDistinct()) {
+            return method;
+        }
+        return methodResolutionService.makeDistinctAggregator(agentInstanceId, groupId, aggregationId, method, aggregatedValueType, false);
+    }
+
+    public ExprAggregateNodeBase getAggregationExpression() {
+        return parent;
+    }
+
+    public void validateIntoTableCompatible(AggregationMethodFactory intoTableAgg) throws ExprValidationException {
+        AggregationMethodFactoryUtil.validateAggregationType(this, intoTableAgg);
+        ExprApproxPercentileNodeFactory that = (ExprApproxPercentileNodeFactory) intoTableAgg;
+        AggregationMethodFactoryUtil.validateAggregationInputType(aggregatedValueType, that.aggregatedValueType);
+        if (percentile != that.percentile) {
+            throw new ExprValidationException("The percentile is " +
+                    percentile +
+                    " and provided is " +
+                    that.percentile);
+        }
+        if (compression != that.compression) {
+            throw new ExprValidationException("The compression is " +
+                    compression +
+                    " and provided is " +
+                    that.compression);
+        }
+    }
+
+    public AggregationAgent getAggregationStateAgent() {
+        return null;
+    }
+
+    public ExprEvaluator getMethodAggregationEvaluator(boolean join, EventType[] typesPerStream) throws ExprValidationException {
+        return ExprMethodAggUtil.getDefaultEvaluator(new ExprNode[] {parent.getPositionalParams()[0]}, join, typesPerStream);
+    }
+}
@@ -13,6 +13,7 @@ package com.espertech.esper.epl.expression.methodagg;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.epl.core.StreamTypeService;
 import com.espertech.esper.epl.expression.core.*;
 
 public class ExprMethodAggUtil {
@@ -80,6 +81,27 @@ public class ExprMethodAggUtil {
         };
     }
 
+    /**
+     * Validates that none of the aggregated streams provides a remove stream, for use by aggregation functions
+     * that cannot remove values.
+     * @param validationContext validation context
+     * @param aggregationFunctionName function name for use in the message
+     * @throws ExprValidationException if any stream provides a remove stream
+     */
+    public static void validateIStreamOnly(ExprValidationContext validationContext, String aggregationFunctionName)
+            throws ExprValidationException
+    {
+        StreamTypeService streamTypeService = validationContext.getStreamTypeService();
+        if (streamTypeService.isOnDemandStreams()) {
+            return;
+        }
+        for (boolean istreamOnly : streamTypeService.getIStreamOnly()) {
+            if (!istreamOnly) {
+                throw new ExprValidationException("The '" + aggregationFunctionName + "' function cannot remove values and requires that the aggregated events do not provide a remove stream; Please remove the data window");
+            }
+        }
+    }
+
     private static ExprEvaluator getWildcardEvaluator(EventType[] typesPerStream, boolean isJoin) throws ExprValidationException {
         final Class returnType = typesPerStream != null && typesPerStream.length > 0 ? typesPerStream[0].getUnderlyingType() : null;
         if (isJoin || returnType == null) {
@@ -0,0 +1,102 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.methodagg;
+
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprValidationContext;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNode;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.util.JavaClassHelper;
+
+/**
+ * Represents the percentile(...) and percentiles(...) aggregate functions is an expression tree.
+ */
+public class ExprPercentileNode extends ExprAggregateNodeBase
+{
+    private static final long serialVersionUID = 4871734412630713127L;
+
+    private final boolean multiple;
+
+    /**
+     * Ctor.
+     * @param distinct - flag indicating unique or non-unique value aggregation
+     * @param multiple - true for percentiles(...) returning an array of values, false for percentile(...)
+     */
+    public ExprPercentileNode(boolean distinct, boolean multiple)
+    {
+        super(distinct);
+        this.multiple = multiple;
+    }
+
+    public AggregationMethodFactory validateAggregationChild(ExprValidationContext validationContext) throws ExprValidationException
+    {
+        if (multiple) {
+            if (positionalParams.length < 2) {
+                throw new ExprValidationException("The '" + getAggregationFunctionName() + "' function expects at least 2 parameters");
+            }
+        }
+        else if (positionalParams.length != 2) {
+            throw makeExceptionExpectedParamNum(2, 2);
+        }
+
+        Class childType = positionalParams[0].getExprEvaluator().getType();
+        if (!JavaClassHelper.isNumeric(childType)) {
+            throw new ExprValidationException("Implicit conversion from datatype '" +
+                    (childType == null ? "null" : childType.getSimpleName()) +
+                    "' to numeric is not allowed for aggregation function '" + getAggregationFunctionName() + "'");
+        }
+
+        double[] percentiles = new double[positionalParams.length - 1];
+        for (int i = 1; i < positionalParams.length; i++) {
+            percentiles[i - 1] = validatePercentile(positionalParams[i], validationContext, getAggregationFunctionName());
+        }
+        return new ExprPercentileNodeFactory(this, childType, percentiles);
+    }
+
+    public String getAggregationFunctionName()
+    {
+        return multiple ? "percentiles" : "percentile";
+    }
+
+    protected boolean equalsNodeAggregateMethodOnly(ExprAggregateNode node)
+    {
+        if (!(node instanceof ExprPercentileNode))
+        {
+            return false;
+        }
+        return ((ExprPercentileNode) node).multiple == multiple;
+    }
+
+    public boolean isMultiple() {
+        return multiple;
+    }
+
+    /**
+     * Validates and returns a constant percentile between 0 and 1.
+     * @param node percentile expression
+     * @param validationContext validation context
+     * @param functionName name of aggregation function for use in messages
+     * @return percentile
+     * @throws ExprValidationException if not a constant number between 0 and 1
+     */
+    protected static double validatePercentile(ExprNode node, ExprValidationContext validationContext, String functionName) throws ExprValidationException
+    {
+        String message = "The '" + functionName + "' function requires a constant numeric percentile between 0 and 1";
+        if (!node.isConstantResult() || !JavaClassHelper.isNumeric(node.getExprEvaluator().getType())) {
+            throw new ExprValidationException(message);
+        }
+        Number num = (Number) node.getExprEvaluator().evaluate(null, true, validationContext.getExprEvaluatorContext());
+        if (num == null || !(num.doubleValue() >= 0 && num.doubleValue() <= 1)) {
+            throw new ExprValidationException(message);
+        }
+        return num.doubleValue();
+    }
+}
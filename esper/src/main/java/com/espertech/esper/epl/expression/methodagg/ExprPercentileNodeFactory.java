@@ -0,0 +1,93 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.expression.methodagg;
+
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.epl.agg.access.AggregationAccessor;
+import com.espertech.esper.epl.agg.access.AggregationAgent;
+import com.espertech.esper.epl.agg.access.AggregationStateKey;
+import com.espertech.esper.epl.agg.aggregator.AggregationMethod;
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.agg.service.AggregationMethodFactoryUtil;
+import com.espertech.esper.epl.agg.service.AggregationStateFactory;
+import com.espertech.esper.epl.core.MethodResolutionService;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+
+import java.util.Arrays;
+
+public class ExprPercentileNodeFactory implements AggregationMethodFactory
+{
+    private final ExprPercentileNode parent;
+    private final Class aggregatedValueType;
+    private final double[] percentiles;
+
+    public ExprPercentileNodeFactory(ExprPercentileNode parent, Class aggregatedValueType, double[] percentiles)
+    {
+        this.parent = parent;
+        this.aggregatedValueType = aggregatedValueType;
+        this.percentiles = percentiles;
+    }
+
+    public boolean isAccessAggregation() {
+        return false;
+    }
+
+    public Class getResultType()
+    {
+        return parent.isMultiple() ? Double[].class : Double.class;
+    }
+
+    public AggregationStateKey getAggregationStateKey(boolean isMatchRecognize) {
+        throw new IllegalStateException("Not an access aggregation function");
+    }
+
+    public AggregationStateFactory getAggregationStateFactory(boolean isMatchRecognize) {
+        throw new IllegalStateException("Not an access aggregation function");
+    }
+
+    public AggregationAccessor getAccessor() {
+        throw new IllegalStateException("Not an access aggregation function");
+    }
+
+    public AggregationMethod make(MethodResolutionService methodResolutionService, int agentInstanceId, int groupId, int aggregationId) {
+        AggregationMethod method = methodResolutionService.makePercentileAggregator(agentInstanceId, groupId, aggregationId, percentiles, parent.isMultiple());
+        if (!parent.isDistinct()) {
+            return method;
+        }
+        return methodResolutionService.makeDistinctAggregator(agentInstanceId, groupId, aggregationId, method, aggregatedValueType, false);
+    }
+
+    public ExprAggregateNodeBase getAggregationExpression() {
+        return parent;
+    }
+
+    public void validateIntoTableCompatible(AggregationMethodFactory intoTableAgg) throws ExprValidationException {
+        AggregationMethodFactoryUtil.validateAggregationType(this, intoTableAgg);
+        ExprPercentileNodeFactory that = (ExprPercentileNodeFactory) intoTableAgg;
+        AggregationMethodFactoryUtil.validateAggregationInputType(aggregatedValueType, that.aggregatedValueType);
+        if (!Arrays.equals(percentiles, that.percentiles)) {
+            throw new ExprValidationException("The percentiles are " +
+                    Arrays.toString(percentiles) +
+                    " and provided are " +
+                    Arrays.toString(that.percentiles));
+        }
+    }
+
+    public AggregationAgent getAggregationStateAgent() {
+        return null;
+    }
+
+    public ExprEvaluator getMethodAggregationEvaluator(boolean join, EventType[] typesPerStream) throws ExprValidationException {
+        // the percentile parameters are constants, only the value expression is evaluated per event
+        return ExprMethodAggUtil.getDefaultEvaluator(new ExprNode[] {parent.getPositionalParams()[0]}, join, typesPerStream);
+    }
+}
@@ -183,4 +183,22 @@ public class ExprMathNode extends ExprNodeBase implements ExprEvaluator
     {
         return mathArithTypeEnum;
     }
+
+    /**
+     * Returns indicator whether division uses Java-standard integer division.
+     * @return false for division returns double, true for integer division
+     */
+    public boolean isIntegerDivision()
+    {
+        return isIntegerDivision;
+    }
+
+    /**
+     * Returns indicator whether division-by-zero returns null.
+     * @return false for division-by-zero returns infinity, true for null
+     */
+    public boolean isDivisionByZeroReturnsNull()
+    {
+        return isDivisionByZeroReturnsNull;
+    }
 }
@@ -0,0 +1,163 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.fafquery;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.core.ExprNodeUtility;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Parallel execution for fire-and-forget queries.
+ * <p>
+ * Snapshots are split into contiguous segments that tasks of the thread pool filter, each task using
+ * its own evaluation context. Results are concatenated in segment order and therefore preserve
+ * the order of the snapshot.
+ * <p>
+ * Aggregate queries that {@link FireAndForgetQueryExecParallelAggregation} supports aggregate each segment
+ * within its task and merge the partial aggregations, other queries process the filtered rows on the querying thread.
+ * Taking the snapshot is not parallel: the querying thread copies named window events under the read lock,
+ * and holds the read lock of a table while the tasks process the table rows.
+ */
+public class FireAndForgetQueryExecParallel
+{
+    private static final int TASKS_PER_THREAD = 2;
+
+    /**
+     * Filters a snapshot, using multiple tasks if the snapshot is large enough.
+     * @param snapshot events to filter
+     * @param filterExpressions filters
+     * @param agentInstanceContext context to evaluate filters with, each task using a copy
+     * @param executor thread pool
+     * @param numThreads number of threads of the thread pool
+     * @param minRowsPerTask minimum number of events for each task
+     * @return filtered events
+     */
+    public static Collection<EventBean> filter(Collection<EventBean> snapshot, final List<ExprNode> filterExpressions, final AgentInstanceContext agentInstanceContext, ExecutorService executor, int numThreads, int minRowsPerTask)
+    {
+        int numTasks = getNumTasks(snapshot.size(), numThreads, minRowsPerTask);
+        if (numTasks < 2) {
+            ArrayDeque<EventBean> deque = new ArrayDeque<EventBean>(Math.min(snapshot.size(), 16));
+            ExprNodeUtility.applyFilterExpressionsIterable(snapshot, filterExpressions, agentInstanceContext, deque);
+            return deque;
+        }
+
+        final List<EventBean> rows = toList(snapshot);
+        List<Callable<ArrayDeque<EventBean>>> tasks = new ArrayList<Callable<ArrayDeque<EventBean>>>(numTasks);
+        for (int i = 0; i < numTasks; i++) {
+            final int from = getSegmentStart(rows.size(), numTasks, i);
+            final int to = getSegmentStart(rows.size(), numTasks, i + 1);
+            tasks.add(new Callable<ArrayDeque<EventBean>>() {
+                public ArrayDeque<EventBean> call() throws Exception {
+                    ArrayDeque<EventBean> deque = new ArrayDeque<EventBean>(Math.min(to - from, 16));
+                    ExprNodeUtility.applyFilterExpressionsIterable(rows.subList(from, to), filterExpressions, getTaskContext(agentInstanceContext), deque);
+                    return deque;
+                }
+            });
+        }
+
+        List<ArrayDeque<EventBean>> results = invokeAll(executor, tasks);
+        int size = 0;
+        for (ArrayDeque<EventBean> result : results) {
+            size += result.size();
+        }
+        ArrayDeque<EventBean> filtered = new ArrayDeque<EventBean>(Math.max(size, 16));
+        for (ArrayDeque<EventBean> result : results) {
+            filtered.addAll(result);
+        }
+        return filtered;
+    }
+
+    /**
+     * Executes all tasks and returns their results in the order of tasks, rethrowing the first task exception.
+     * @param executor thread pool
+     * @param tasks tasks
+     * @param <T> result type
+     * @return results
+     */
+    public static <T> List<T> invokeAll(ExecutorService executor, List<Callable<T>> tasks)
+    {
+        try {
+            List<Future<T>> futures = executor.invokeAll(tasks);
+            List<T> results = new ArrayList<T>(futures.size());
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new EPException("Interrupted executing fire-and-forget query", ex);
+        }
+        catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new EPException("Failed to execute fire-and-forget query: " + ex.getCause().getMessage(), ex.getCause());
+        }
+    }
+
+    /**
+     * Returns a context for evaluating expressions by a task, which does not share expression result caches
+     * with other tasks.
+     * @param agentInstanceContext context of the query or context partition
+     * @return task context
+     */
+    public static AgentInstanceContext getTaskContext(AgentInstanceContext agentInstanceContext)
+    {
+        return new AgentInstanceContext(agentInstanceContext.getStatementContext(), agentInstanceContext.getEpStatementAgentInstanceHandle(),
+                agentInstanceContext.getAgentInstanceId(), agentInstanceContext.getAgentInstanceFilterProxy(),
+                agentInstanceContext.getContextProperties(), agentInstanceContext.getAgentInstanceScriptContext());
+    }
+
+    /**
+     * Returns the number of tasks to split a snapshot into.
+     * @param numRows snapshot size
+     * @param numThreads number of threads
+     * @param minRowsPerTask minimum number of events for each task
+     * @return number of tasks, one for no splitting
+     */
+    protected static int getNumTasks(int numRows, int numThreads, int minRowsPerTask)
+    {
+        int minRows = Math.max(1, minRowsPerTask);
+        if (numThreads < 2 || numRows < 2 * minRows) {
+            return 1;
+        }
+        return Math.min(numThreads * TASKS_PER_THREAD, numRows / minRows);
+    }
+
+    /**
+     * Returns the snapshot as a list for splitting into segments.
+     * @param snapshot events
+     * @return list of events
+     */
+    protected static List<EventBean> toList(Collection<EventBean> snapshot)
+    {
+        return snapshot instanceof List ? (List<EventBean>) snapshot : Arrays.asList(snapshot.toArray(new EventBean[snapshot.size()]));
+    }
+
+    /**
+     * Returns the index of the first event of a segment.
+     * @param numRows snapshot size
+     * @param numTasks number of tasks
+     * @param task task number, or the number of tasks for the end of the last segment
+     * @return index
+     */
+    protected static int getSegmentStart(int numRows, int numTasks, int task)
+    {
+        return (int) ((long) numRows * task / numTasks);
+    }
+}
@@ -0,0 +1,428 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.fafquery;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.core.context.util.AgentInstanceContext;
+import com.espertech.esper.epl.agg.service.AggregationColumnarKind;
+import com.espertech.esper.epl.agg.service.AggregationColumnarRows;
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.core.MethodResolutionService;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.epl.expression.core.*;
+import com.espertech.esper.epl.expression.methodagg.ExprAvgNode;
+import com.espertech.esper.epl.expression.methodagg.ExprCountNode;
+import com.espertech.esper.epl.expression.methodagg.ExprMinMaxAggrNode;
+import com.espertech.esper.epl.expression.methodagg.ExprSumNode;
+import com.espertech.esper.epl.spec.*;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.event.map.MapEventType;
+import com.espertech.esper.type.MinMaxTypeEnum;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Parallel aggregation for fire-and-forget queries against a single named window or table.
+ * <p>
+ * Each task filters a contiguous segment of the snapshot and aggregates it into a partial aggregation,
+ * keeping counts and sums in columnar rows and the current minimum or maximum value per group.
+ * The querying thread merges the partial aggregations in segment order, so groups are output
+ * in the order of their first event in the snapshot.
+ * <p>
+ * Applies to queries that select only group-by expressions and count, sum, avg, min or max aggregations
+ * without distinct values or filters, and that have no having-clause, order-by, row limit, subqueries, table access
+ * expressions or rollup.
+ */
+public class FireAndForgetQueryExecParallelAggregation
+{
+    private static final int SELECT_GROUP_KEY = 0;
+    private static final int SELECT_COLUMNAR = 1;
+    private static final int SELECT_MINMAX = 2;
+
+    private static final Object NO_GROUP_KEY = new Object();
+
+    private final EventType resultEventType;
+    private final EventAdapterService eventAdapterService;
+    private final String[] selectNames;
+    private final int[] selectIndexesOA;
+    private final int[] selectTypes;
+    private final int[] selectAggregations;
+    private final ExprEvaluator[] filterEvaluators;
+    private final ExprEvaluator[] groupKeyEvaluators;
+    private final AggregationColumnarKind[] columnarKinds;
+    private final ExprEvaluator[] columnarEvaluators;
+    private final MinMaxTypeEnum[] minMaxTypes;
+    private final ExprEvaluator[] minMaxEvaluators;
+
+    private FireAndForgetQueryExecParallelAggregation(EventType resultEventType, EventAdapterService eventAdapterService, String[] selectNames, int[] selectIndexesOA, int[] selectTypes, int[] selectAggregations, ExprEvaluator[] filterEvaluators, ExprEvaluator[] groupKeyEvaluators, AggregationColumnarKind[] columnarKinds, ExprEvaluator[] columnarEvaluators, MinMaxTypeEnum[] minMaxTypes, ExprEvaluator[] minMaxEvaluators)
+    {
+        this.resultEventType = resultEventType;
+        this.eventAdapterService = eventAdapterService;
+        this.selectNames = selectNames;
+        this.selectIndexesOA = selectIndexesOA;
+        this.selectTypes = selectTypes;
+        this.selectAggregations = selectAggregations;
+        this.filterEvaluators = filterEvaluators;
+        this.groupKeyEvaluators = groupKeyEvaluators;
+        this.columnarKinds = columnarKinds;
+        this.columnarEvaluators = columnarEvaluators;
+        this.minMaxTypes = minMaxTypes;
+        this.minMaxEvaluators = minMaxEvaluators;
+    }
+
+    /**
+     * Plans the parallel aggregation of a query.
+     * @param statementSpec validated query
+     * @param resultEventType query result event type
+     * @param methodResolutionService service that makes aggregation methods
+     * @param eventAdapterService event adapters
+     * @return execution, or null if the query does not allow parallel aggregation
+     */
+    public static FireAndForgetQueryExecParallelAggregation make(StatementSpecCompiled statementSpec, EventType resultEventType, MethodResolutionService methodResolutionService, EventAdapterService eventAdapterService)
+    {
+        if (!isEligibleStatement(statementSpec)) {
+            return null;
+        }
+        if (!(resultEventType instanceof MapEventType) && !(resultEventType instanceof ObjectArrayEventType)) {
+            return null;
+        }
+
+        // filters: stream filters and where-clause
+        List<ExprNode> filterNodes = new ArrayList<ExprNode>();
+        StreamSpecCompiled streamSpec = statementSpec.getStreamSpecs()[0];
+        if (streamSpec instanceof NamedWindowConsumerStreamSpec) {
+            filterNodes.addAll(((NamedWindowConsumerStreamSpec) streamSpec).getFilterExpressions());
+        }
+        else {
+            filterNodes.addAll(((TableQueryStreamSpec) streamSpec).getFilterExpressions());
+        }
+        if (statementSpec.getFilterRootNode() != null) {
+            filterNodes.add(statementSpec.getFilterRootNode());
+        }
+
+        // select clause: group-by expressions or aggregations
+        ExprNode[] groupByNodes = statementSpec.getGroupByExpressions() == null ? new ExprNode[0] : statementSpec.getGroupByExpressions().getGroupByNodes();
+        ExprEvaluator[] groupKeyEvaluators = new ExprEvaluator[groupByNodes.length];
+        SelectClauseElementCompiled[] elements = statementSpec.getSelectClauseSpec().getSelectExprList();
+        String[] selectNames = new String[elements.length];
+        int[] selectIndexesOA = new int[elements.length];
+        int[] selectTypes = new int[elements.length];
+        int[] selectAggregations = new int[elements.length];
+        List<AggregationMethodFactory> columnarFactories = new ArrayList<AggregationMethodFactory>();
+        List<ExprEvaluator> columnarEvaluators = new ArrayList<ExprEvaluator>();
+        List<MinMaxTypeEnum> minMaxTypes = new ArrayList<MinMaxTypeEnum>();
+        List<ExprEvaluator> minMaxEvaluators = new ArrayList<ExprEvaluator>();
+        for (int i = 0; i < elements.length; i++) {
+            if (!(elements[i] instanceof SelectClauseExprCompiledSpec)) {
+                return null;
+            }
+            SelectClauseExprCompiledSpec element = (SelectClauseExprCompiledSpec) elements[i];
+            if (element.isEvents() || element.getAssignedName() == null) {
+                return null;
+            }
+            selectNames[i] = element.getAssignedName();
+            if (resultEventType instanceof ObjectArrayEventType) {
+                Integer index = ((ObjectArrayEventType) resultEventType).getPropertiesIndexes().get(selectNames[i]);
+                if (index == null) {
+                    return null;
+                }
+                selectIndexesOA[i] = index;
+            }
+            ExprNode node = element.getSelectExpression();
+
+            int groupKey = getGroupKey(node, groupByNodes);
+            if (groupKey != -1) {
+                selectTypes[i] = SELECT_GROUP_KEY;
+                selectAggregations[i] = groupKey;
+                groupKeyEvaluators[groupKey] = node.getExprEvaluator();
+                continue;
+            }
+
+            if (!(node instanceof ExprAggregateNodeBase)) {
+                return null;
+            }
+            ExprAggregateNodeBase aggNode = (ExprAggregateNodeBase) node;
+            ExprNode[] params = aggNode.getPositionalParams();
+            if (aggNode.getOptionalLocalGroupBy() != null || params.length != 1) {
+                return null;
+            }
+            if (node instanceof ExprMinMaxAggrNode) {
+                ExprMinMaxAggrNode minMaxNode = (ExprMinMaxAggrNode) node;
+                if (minMaxNode.isHasFilter()) {
+                    return null;
+                }
+                selectTypes[i] = SELECT_MINMAX;
+                selectAggregations[i] = minMaxTypes.size();
+                minMaxTypes.add(minMaxNode.getMinMaxTypeEnum());
+                minMaxEvaluators.add(params[0].getExprEvaluator());
+                continue;
+            }
+
+            if (!(node instanceof ExprSumNode) && !(node instanceof ExprAvgNode) && !(node instanceof ExprCountNode)) {
+                return null;
+            }
+            selectTypes[i] = SELECT_COLUMNAR;
+            selectAggregations[i] = columnarFactories.size();
+            columnarFactories.add(aggNode.getFactory());
+            columnarEvaluators.add(params[0] instanceof ExprWildcard ? null : params[0].getExprEvaluator());
+        }
+        if (columnarFactories.isEmpty() && minMaxTypes.isEmpty()) {
+            return null;
+        }
+
+        // group keys are evaluated by the select-clause expressions that are validated
+        for (ExprEvaluator evaluator : groupKeyEvaluators) {
+            if (evaluator == null) {
+                return null;
+            }
+        }
+
+        // the kind determines the aggregation semantics, and is not available for distinct values, filters and big numbers
+        AggregationColumnarKind[] columnarKinds = AggregationColumnarKind.getKinds(columnarFactories.toArray(new AggregationMethodFactory[columnarFactories.size()]), methodResolutionService);
+        if (columnarKinds == null) {
+            return null;
+        }
+        for (int i = 0; i < columnarKinds.length; i++) {
+            if ((columnarKinds[i] == AggregationColumnarKind.COUNT) != (columnarEvaluators.get(i) == null)) {
+                return null;
+            }
+        }
+
+        return new FireAndForgetQueryExecParallelAggregation(resultEventType, eventAdapterService, selectNames, selectIndexesOA, selectTypes, selectAggregations,
+                ExprNodeUtility.getEvaluators(filterNodes), groupKeyEvaluators,
+                columnarKinds, columnarEvaluators.toArray(new ExprEvaluator[columnarEvaluators.size()]),
+                minMaxTypes.toArray(new MinMaxTypeEnum[minMaxTypes.size()]), minMaxEvaluators.toArray(new ExprEvaluator[minMaxEvaluators.size()]));
+    }
+
+    /**
+     * Filters and aggregates a snapshot, using multiple tasks if the snapshot is large enough.
+     * @param snapshot events to filter and aggregate
+     * @param agentInstanceContext context to evaluate expressions with, each task using a copy
+     * @param executor thread pool
+     * @param numThreads number of threads of the thread pool
+     * @param minRowsPerTask minimum number of events for each task
+     * @return result rows, or null for no groups
+     */
+    public EventBean[] execute(Collection<EventBean> snapshot, final AgentInstanceContext agentInstanceContext, ExecutorService executor, int numThreads, int minRowsPerTask)
+    {
+        int numTasks = FireAndForgetQueryExecParallel.getNumTasks(snapshot.size(), numThreads, minRowsPerTask);
+        if (numTasks < 2) {
+            PartialAggregation aggregation = new PartialAggregation();
+            aggregation.aggregate(snapshot, agentInstanceContext);
+            return aggregation.getResult();
+        }
+
+        final List<EventBean> rows = FireAndForgetQueryExecParallel.toList(snapshot);
+        List<Callable<PartialAggregation>> tasks = new ArrayList<Callable<PartialAggregation>>(numTasks);
+        for (int i = 0; i < numTasks; i++) {
+            final int from = FireAndForgetQueryExecParallel.getSegmentStart(rows.size(), numTasks, i);
+            final int to = FireAndForgetQueryExecParallel.getSegmentStart(rows.size(), numTasks, i + 1);
+            tasks.add(new Callable<PartialAggregation>() {
+                public PartialAggregation call() throws Exception {
+                    PartialAggregation aggregation = new PartialAggregation();
+                    aggregation.aggregate(rows.subList(from, to), FireAndForgetQueryExecParallel.getTaskContext(agentInstanceContext));
+                    return aggregation;
+                }
+            });
+        }
+
+        List<PartialAggregation> partials = FireAndForgetQueryExecParallel.invokeAll(executor, tasks);
+        PartialAggregation merged = partials.get(0);
+        for (int i = 1; i < partials.size(); i++) {
+            merged.merge(partials.get(i));
+        }
+        return merged.getResult();
+    }
+
+    private Object pickMinMax(int aggregation, Object current, Object value)
+    {
+        if (current == null) {
+            return value;
+        }
+        int compared = ((Comparable) value).compareTo(current);
+        if (minMaxTypes[aggregation] == MinMaxTypeEnum.MAX) {
+            return compared > 0 ? value : current;
+        }
+        return compared < 0 ? value : current;
+    }
+
+    private EventBean makeEvent(Object[] values)
+    {
+        if (resultEventType instanceof ObjectArrayEventType) {
+            Object[] props = new Object[((ObjectArrayEventType) resultEventType).getPropertiesIndexes().size()];
+            for (int i = 0; i < values.length; i++) {
+                props[selectIndexesOA[i]] = values[i];
+            }
+            return eventAdapterService.adapterForTypedObjectArray(props, resultEventType);
+        }
+        Map<String, Object> props = new HashMap<String, Object>();
+        for (int i = 0; i < values.length; i++) {
+            props.put(selectNames[i], values[i]);
+        }
+        return eventAdapterService.adapterForTypedMap(props, resultEventType);
+    }
+
+    private static boolean isEligibleStatement(StatementSpecCompiled statementSpec)
+    {
+        if (statementSpec.getStreamSpecs().length != 1) {
+            return false;
+        }
+        StreamSpecCompiled streamSpec = statementSpec.getStreamSpecs()[0];
+        if (!(streamSpec instanceof NamedWindowConsumerStreamSpec) && !(streamSpec instanceof TableQueryStreamSpec)) {
+            return false;
+        }
+        if (statementSpec.getOptionalContextName() != null ||
+            statementSpec.getSelectClauseSpec().isDistinct() ||
+            statementSpec.getHavingExprRootNode() != null ||
+            (statementSpec.getOrderByList() != null && statementSpec.getOrderByList().length > 0) ||
+            statementSpec.getRowLimitSpec() != null ||
+            (statementSpec.getTableNodes() != null && statementSpec.getTableNodes().length > 0) ||
+            statementSpec.getSubSelectExpressions().length > 0) {
+            return false;
+        }
+        return statementSpec.getGroupByExpressions() == null || statementSpec.getGroupByExpressions().getGroupByRollupLevels() == null;
+    }
+
+    private static int getGroupKey(ExprNode node, ExprNode[] groupByNodes)
+    {
+        for (int i = 0; i < groupByNodes.length; i++) {
+            if (ExprNodeUtility.deepEquals(node, groupByNodes[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Aggregation of a segment of the snapshot, by group key in order of the first event of the group.
+     */
+    private class PartialAggregation
+    {
+        private final Map<Object, Integer> slots = new LinkedHashMap<Object, Integer>();
+        private final AggregationColumnarRows columnarRows = new AggregationColumnarRows(columnarKinds);
+        private final List<Object[]> minMaxRows = new ArrayList<Object[]>();
+
+        private PartialAggregation()
+        {
+            // the ungrouped query outputs a row also when no event passes the filters
+            if (groupKeyEvaluators.length == 0) {
+                getSlot(NO_GROUP_KEY);
+            }
+        }
+
+        private void aggregate(Collection<EventBean> events, ExprEvaluatorContext exprEvaluatorContext)
+        {
+            EventBean[] eventsPerStream = new EventBean[1];
+            for (EventBean theEvent : events) {
+                eventsPerStream[0] = theEvent;
+                if (!isPass(eventsPerStream, exprEvaluatorContext)) {
+                    continue;
+                }
+
+                int slot = getSlot(getGroupKey(eventsPerStream, exprEvaluatorContext));
+                for (int i = 0; i < columnarEvaluators.length; i++) {
+                    Object value = columnarEvaluators[i] == null ? null : columnarEvaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
+                    columnarRows.enter(slot, i, value);
+                }
+                Object[] minMax = minMaxRows.get(slot);
+                for (int i = 0; i < minMaxEvaluators.length; i++) {
+                    Object value = minMaxEvaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
+                    if (value != null) {
+                        minMax[i] = pickMinMax(i, minMax[i], value);
+                    }
+                }
+            }
+        }
+
+        private void merge(PartialAggregation other)
+        {
+            for (Map.Entry<Object, Integer> entry : other.slots.entrySet()) {
+                int slot = getSlot(entry.getKey());
+                int otherSlot = entry.getValue();
+                columnarRows.merge(slot, other.columnarRows, otherSlot);
+                Object[] minMax = minMaxRows.get(slot);
+                Object[] otherMinMax = other.minMaxRows.get(otherSlot);
+                for (int i = 0; i < minMax.length; i++) {
+                    if (otherMinMax[i] != null) {
+                        minMax[i] = pickMinMax(i, minMax[i], otherMinMax[i]);
+                    }
+                }
+            }
+        }
+
+        private EventBean[] getResult()
+        {
+            if (slots.isEmpty()) {
+                return null;
+            }
+            EventBean[] result = new EventBean[slots.size()];
+            int count = 0;
+            for (Map.Entry<Object, Integer> entry : slots.entrySet()) {
+                int slot = entry.getValue();
+                Object[] values = new Object[selectTypes.length];
+                for (int i = 0; i < selectTypes.length; i++) {
+                    int aggregation = selectAggregations[i];
+                    if (selectTypes[i] == SELECT_GROUP_KEY) {
+                        values[i] = groupKeyEvaluators.length == 1 ? entry.getKey() : ((MultiKeyUntyped) entry.getKey()).getKeys()[aggregation];
+                    }
+                    else if (selectTypes[i] == SELECT_COLUMNAR) {
+                        values[i] = columnarRows.getValue(slot, aggregation);
+                    }
+                    else {
+                        values[i] = minMaxRows.get(slot)[aggregation];
+                    }
+                }
+                result[count++] = makeEvent(values);
+            }
+            return result;
+        }
+
+        private int getSlot(Object groupKey)
+        {
+            Integer slot = slots.get(groupKey);
+            if (slot == null) {
+                slot = columnarRows.allocate();
+                slots.put(groupKey, slot);
+                minMaxRows.add(new Object[minMaxEvaluators.length]);
+            }
+            return slot;
+        }
+
+        private boolean isPass(EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext)
+        {
+            for (ExprEvaluator filter : filterEvaluators) {
+                Object result = filter.evaluate(eventsPerStream, true, exprEvaluatorContext);
+                if ((result == null) || (!((Boolean) result))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private Object getGroupKey(EventBean[] eventsPerStream, ExprEvaluatorContext exprEvaluatorContext)
+        {
+            if (groupKeyEvaluators.length == 0) {
+                return NO_GROUP_KEY;
+            }
+            if (groupKeyEvaluators.length == 1) {
+                return groupKeyEvaluators[0].evaluate(eventsPerStream, true, exprEvaluatorContext);
+            }
+            Object[] keys = new Object[groupKeyEvaluators.length];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = groupKeyEvaluators[i].evaluate(eventsPerStream, true, exprEvaluatorContext);
+            }
+            return new MultiKeyUntyped(keys);
+        }
+    }
+}
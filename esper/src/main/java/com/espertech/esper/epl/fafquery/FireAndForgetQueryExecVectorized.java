@@ -0,0 +1,744 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.fafquery;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.epl.agg.service.AggregationColumnarKind;
+import com.espertech.esper.epl.agg.service.AggregationColumnarRows;
+import com.espertech.esper.epl.agg.service.AggregationMethodFactory;
+import com.espertech.esper.epl.core.MethodResolutionService;
+import com.espertech.esper.epl.expression.baseagg.ExprAggregateNodeBase;
+import com.espertech.esper.epl.expression.core.*;
+import com.espertech.esper.epl.expression.methodagg.ExprAvgNode;
+import com.espertech.esper.epl.expression.methodagg.ExprCountNode;
+import com.espertech.esper.epl.expression.methodagg.ExprMinMaxAggrNode;
+import com.espertech.esper.epl.expression.methodagg.ExprSumNode;
+import com.espertech.esper.epl.expression.ops.ExprAndNode;
+import com.espertech.esper.epl.expression.ops.ExprEqualsNode;
+import com.espertech.esper.epl.expression.ops.ExprRelationalOpNode;
+import com.espertech.esper.epl.spec.*;
+import com.espertech.esper.epl.table.mgmt.TableColumnarProjection;
+import com.espertech.esper.epl.table.mgmt.TableMetadata;
+import com.espertech.esper.epl.table.mgmt.TableMetadataColumn;
+import com.espertech.esper.epl.table.mgmt.TableMetadataColumnPlain;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.event.map.MapEventType;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.type.MinMaxTypeEnum;
+import com.espertech.esper.type.RelationalOpEnum;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.util.*;
+
+/**
+ * Vectorized execution of fire-and-forget aggregate queries against a table that keeps a columnar projection,
+ * see {@link TableColumnarProjection}.
+ * <p>
+ * Applies to queries that select group-by columns and sum, avg, count, min and max aggregations of plain columns,
+ * grouped by plain columns and filtered by a conjunction of comparisons of plain columns to constants.
+ * The where-clause is evaluated into a selection vector of matching rows and each aggregation
+ * is computed by a loop over the selection vector, without evaluating expressions per row.
+ */
+public class FireAndForgetQueryExecVectorized
+{
+    private static final int SELECT_GROUP_KEY = 0;
+    private static final int SELECT_COLUMNAR = 1;
+    private static final int SELECT_MINMAX = 2;
+
+    private final EventType resultEventType;
+    private final EventAdapterService eventAdapterService;
+    private final String[] selectNames;
+    private final int[] selectIndexesOA;
+    private final int[] selectTypes;
+    private final int[] selectColumns;
+    private final int[] selectAggregations;
+    private final int[] groupColumns;
+    private final ColumnPredicate[] predicates;
+    private final AggregationColumnarKind[] columnarKinds;
+    private final int[] columnarColumns;
+    private final MinMaxTypeEnum[] minMaxTypes;
+    private final int[] minMaxColumns;
+    private final boolean[] minMaxIntegral;
+
+    private FireAndForgetQueryExecVectorized(EventType resultEventType, EventAdapterService eventAdapterService, String[] selectNames, int[] selectIndexesOA, int[] selectTypes, int[] selectColumns, int[] selectAggregations, int[] groupColumns, ColumnPredicate[] predicates, AggregationColumnarKind[] columnarKinds, int[] columnarColumns, MinMaxTypeEnum[] minMaxTypes, int[] minMaxColumns, boolean[] minMaxIntegral)
+    {
+        this.resultEventType = resultEventType;
+        this.eventAdapterService = eventAdapterService;
+        this.selectNames = selectNames;
+        this.selectIndexesOA = selectIndexesOA;
+        this.selectTypes = selectTypes;
+        this.selectColumns = selectColumns;
+        this.selectAggregations = selectAggregations;
+        this.groupColumns = groupColumns;
+        this.predicates = predicates;
+        this.columnarKinds = columnarKinds;
+        this.columnarColumns = columnarColumns;
+        this.minMaxTypes = minMaxTypes;
+        this.minMaxColumns = minMaxColumns;
+        this.minMaxIntegral = minMaxIntegral;
+    }
+
+    /**
+     * Plans the vectorized execution of a query.
+     * @param statementSpec validated query
+     * @param tableMetadata table that the query selects from
+     * @param resultEventType query result event type
+     * @param methodResolutionService service that makes aggregation methods
+     * @param eventAdapterService event adapters
+     * @param exprEvaluatorContext context for evaluating constants
+     * @return execution, or null if the query or the table does not allow vectorized execution
+     */
+    public static FireAndForgetQueryExecVectorized make(StatementSpecCompiled statementSpec, TableMetadata tableMetadata, EventType resultEventType, MethodResolutionService methodResolutionService, EventAdapterService eventAdapterService, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        if (!tableMetadata.isColumnarProjection() || tableMetadata.getKeyTypes().length == 0 || tableMetadata.getContextName() != null || InstrumentationHelper.ENABLED) {
+            return null;
+        }
+        if (!isEligibleStatement(statementSpec)) {
+            return null;
+        }
+        if (!(resultEventType instanceof MapEventType) && !(resultEventType instanceof ObjectArrayEventType)) {
+            return null;
+        }
+
+        // group-by columns
+        ExprNode[] groupByNodes = statementSpec.getGroupByExpressions() == null ? new ExprNode[0] : statementSpec.getGroupByExpressions().getGroupByNodes();
+        int[] groupColumns = new int[groupByNodes.length];
+        for (int i = 0; i < groupByNodes.length; i++) {
+            groupColumns[i] = getPlainColumn(groupByNodes[i], tableMetadata);
+            if (groupColumns[i] == -1) {
+                return null;
+            }
+        }
+
+        // select clause: group-by columns or aggregations of plain columns
+        SelectClauseElementCompiled[] elements = statementSpec.getSelectClauseSpec().getSelectExprList();
+        String[] selectNames = new String[elements.length];
+        int[] selectIndexesOA = new int[elements.length];
+        int[] selectTypes = new int[elements.length];
+        int[] selectColumns = new int[elements.length];
+        int[] selectAggregations = new int[elements.length];
+        List<AggregationMethodFactory> columnarFactories = new ArrayList<AggregationMethodFactory>();
+        List<Integer> columnarColumns = new ArrayList<Integer>();
+        List<MinMaxTypeEnum> minMaxTypes = new ArrayList<MinMaxTypeEnum>();
+        List<Integer> minMaxColumns = new ArrayList<Integer>();
+        List<Boolean> minMaxIntegral = new ArrayList<Boolean>();
+        boolean hasAggregation = false;
+        for (int i = 0; i < elements.length; i++) {
+            if (!(elements[i] instanceof SelectClauseExprCompiledSpec)) {
+                return null;
+            }
+            SelectClauseExprCompiledSpec element = (SelectClauseExprCompiledSpec) elements[i];
+            if (element.isEvents() || element.getAssignedName() == null) {
+                return null;
+            }
+            selectNames[i] = element.getAssignedName();
+            if (resultEventType instanceof ObjectArrayEventType) {
+                Integer index = ((ObjectArrayEventType) resultEventType).getPropertiesIndexes().get(selectNames[i]);
+                if (index == null) {
+                    return null;
+                }
+                selectIndexesOA[i] = index;
+            }
+            ExprNode node = element.getSelectExpression();
+
+            int column = getPlainColumn(node, tableMetadata);
+            if (column != -1) {
+                if (!contains(groupColumns, column)) {
+                    return null;
+                }
+                selectTypes[i] = SELECT_GROUP_KEY;
+                selectColumns[i] = column;
+                continue;
+            }
+
+            if (!(node instanceof ExprAggregateNodeBase)) {
+                return null;
+            }
+            hasAggregation = true;
+            ExprAggregateNodeBase aggNode = (ExprAggregateNodeBase) node;
+            if (aggNode.getOptionalLocalGroupBy() != null) {
+                return null;
+            }
+            ExprNode[] params = aggNode.getPositionalParams();
+            if (node instanceof ExprMinMaxAggrNode) {
+                ExprMinMaxAggrNode minMaxNode = (ExprMinMaxAggrNode) node;
+                if (minMaxNode.isHasFilter() || params.length != 1) {
+                    return null;
+                }
+                column = getPlainColumn(params[0], tableMetadata);
+                if (column == -1) {
+                    return null;
+                }
+                Class type = getColumnType(tableMetadata, column);
+                if (!JavaClassHelper.isNumericNonFP(type) && !JavaClassHelper.isFloatingPointClass(type)) {
+                    return null;
+                }
+                selectTypes[i] = SELECT_MINMAX;
+                selectAggregations[i] = minMaxTypes.size();
+                minMaxTypes.add(minMaxNode.getMinMaxTypeEnum());
+                minMaxColumns.add(column);
+                minMaxIntegral.add(JavaClassHelper.isNumericNonFP(type));
+                continue;
+            }
+
+            if (!(node instanceof ExprSumNode) && !(node instanceof ExprAvgNode) && !(node instanceof ExprCountNode)) {
+                return null;
+            }
+            if (params.length != 1) {
+                return null;
+            }
+            if (params[0] instanceof ExprWildcard) {
+                column = -1;
+            }
+            else {
+                column = getPlainColumn(params[0], tableMetadata);
+                if (column == -1) {
+                    return null;
+                }
+            }
+            selectTypes[i] = SELECT_COLUMNAR;
+            selectAggregations[i] = columnarFactories.size();
+            columnarFactories.add(aggNode.getFactory());
+            columnarColumns.add(column);
+        }
+        if (groupColumns.length == 0 && !hasAggregation) {
+            return null;
+        }
+
+        // the kind determines the aggregation semantics, and is not available for distinct values, big numbers and floats
+        AggregationColumnarKind[] columnarKinds = AggregationColumnarKind.getKinds(columnarFactories.toArray(new AggregationMethodFactory[columnarFactories.size()]), methodResolutionService);
+        if (columnarKinds == null) {
+            return null;
+        }
+        for (int i = 0; i < columnarKinds.length; i++) {
+            if ((columnarKinds[i] == AggregationColumnarKind.COUNT) != (columnarColumns.get(i) == -1)) {
+                return null;
+            }
+        }
+
+        // where-clause: conjunction of comparisons of a plain column to a constant
+        List<ColumnPredicate> predicates = new ArrayList<ColumnPredicate>();
+        if (statementSpec.getFilterRootNode() != null) {
+            List<ExprNode> conjuncts = new ArrayList<ExprNode>();
+            addConjuncts(statementSpec.getFilterRootNode(), conjuncts);
+            for (ExprNode conjunct : conjuncts) {
+                ColumnPredicate predicate = getPredicate(conjunct, tableMetadata, exprEvaluatorContext);
+                if (predicate == null) {
+                    return null;
+                }
+                predicates.add(predicate);
+            }
+        }
+
+        return new FireAndForgetQueryExecVectorized(resultEventType, eventAdapterService, selectNames, selectIndexesOA, selectTypes, selectColumns, selectAggregations,
+                groupColumns, predicates.toArray(new ColumnPredicate[predicates.size()]),
+                columnarKinds, toIntArray(columnarColumns),
+                minMaxTypes.toArray(new MinMaxTypeEnum[minMaxTypes.size()]), toIntArray(minMaxColumns), toBooleanArray(minMaxIntegral));
+    }
+
+    /**
+     * Executes the query against the projection.
+     * @param projection columnar projection of the table rows
+     * @return result rows
+     */
+    public EventBean[] execute(TableColumnarProjection projection)
+    {
+        // filter
+        int numSelected = projection.getNumRows();
+        int[] selection = new int[numSelected];
+        for (int i = 0; i < numSelected; i++) {
+            selection[i] = i;
+        }
+        for (ColumnPredicate predicate : predicates) {
+            numSelected = predicate.apply(projection, selection, numSelected);
+        }
+
+        // assign groups in order of first appearance
+        int[] groups = new int[numSelected];
+        int numGroups = groupColumns.length == 0 ? 1 : assignGroups(projection, selection, numSelected, groups);
+        int[] groupRows = new int[numGroups];
+        Arrays.fill(groupRows, -1);
+        for (int i = 0; i < numSelected; i++) {
+            if (groupRows[groups[i]] == -1) {
+                groupRows[groups[i]] = selection[i];
+            }
+        }
+
+        // aggregate
+        AggregationColumnarRows columnarRows = null;
+        if (columnarKinds.length > 0) {
+            columnarRows = new AggregationColumnarRows(columnarKinds);
+            for (int i = 0; i < numGroups; i++) {
+                columnarRows.allocate();
+            }
+            for (int aggregation = 0; aggregation < columnarKinds.length; aggregation++) {
+                aggregateColumnar(projection, selection, numSelected, groups, columnarRows, aggregation);
+            }
+        }
+        int[][] minMaxRows = new int[minMaxTypes.length][];
+        for (int aggregation = 0; aggregation < minMaxTypes.length; aggregation++) {
+            minMaxRows[aggregation] = aggregateMinMax(projection, selection, numSelected, groups, numGroups, aggregation);
+        }
+
+        // produce rows
+        EventBean[] result = new EventBean[numGroups];
+        for (int group = 0; group < numGroups; group++) {
+            Object[] values = new Object[selectNames.length];
+            for (int i = 0; i < selectNames.length; i++) {
+                switch (selectTypes[i]) {
+                    case SELECT_GROUP_KEY:
+                        values[i] = projection.getValue(groupRows[group], selectColumns[i]);
+                        break;
+                    case SELECT_COLUMNAR:
+                        values[i] = columnarRows.getValue(group, selectAggregations[i]);
+                        break;
+                    default:
+                        int row = minMaxRows[selectAggregations[i]][group];
+                        values[i] = row == -1 ? null : projection.getValue(row, minMaxColumns[selectAggregations[i]]);
+                        break;
+                }
+            }
+            result[group] = makeEvent(values);
+        }
+        return result;
+    }
+
+    private int assignGroups(TableColumnarProjection projection, int[] selection, int numSelected, int[] groups)
+    {
+        // first column: dense group per dictionary code
+        int[] codes = projection.getCodes(groupColumns[0]);
+        int[] groupPerCode = new int[projection.getDictionary(groupColumns[0]).length];
+        Arrays.fill(groupPerCode, -1);
+        int numGroups = 0;
+        for (int i = 0; i < numSelected; i++) {
+            int code = codes[selection[i]];
+            if (groupPerCode[code] == -1) {
+                groupPerCode[code] = numGroups++;
+            }
+            groups[i] = groupPerCode[code];
+        }
+
+        // further columns: dense group per combination of group so far and dictionary code
+        for (int column = 1; column < groupColumns.length; column++) {
+            codes = projection.getCodes(groupColumns[column]);
+            long dictionarySize = projection.getDictionary(groupColumns[column]).length;
+            Map<Long, Integer> groupPerKey = new HashMap<Long, Integer>();
+            for (int i = 0; i < numSelected; i++) {
+                Long key = groups[i] * dictionarySize + codes[selection[i]];
+                Integer group = groupPerKey.get(key);
+                if (group == null) {
+                    group = groupPerKey.size();
+                    groupPerKey.put(key, group);
+                }
+                groups[i] = group;
+            }
+            numGroups = groupPerKey.size();
+        }
+        return numGroups;
+    }
+
+    private void aggregateColumnar(TableColumnarProjection projection, int[] selection, int numSelected, int[] groups, AggregationColumnarRows columnarRows, int aggregation)
+    {
+        AggregationColumnarKind kind = columnarKinds[aggregation];
+        int column = columnarColumns[aggregation];
+        if (kind.isLongSum()) {
+            long[] values = projection.getLongs(column);
+            boolean[] nulls = projection.getNulls(column);
+            for (int i = 0; i < numSelected; i++) {
+                int row = selection[i];
+                if (!nulls[row]) {
+                    columnarRows.enterLong(groups[i], aggregation, values[row]);
+                }
+            }
+        }
+        else if (kind.isDoubleSum()) {
+            double[] values = projection.getDoubles(column);
+            boolean[] nulls = projection.getNulls(column);
+            for (int i = 0; i < numSelected; i++) {
+                int row = selection[i];
+                if (!nulls[row]) {
+                    columnarRows.enterDouble(groups[i], aggregation, values[row]);
+                }
+            }
+        }
+        else if (kind == AggregationColumnarKind.COUNT) {
+            for (int i = 0; i < numSelected; i++) {
+                columnarRows.enter(groups[i], aggregation, null);
+            }
+        }
+        else {
+            for (int i = 0; i < numSelected; i++) {
+                columnarRows.enter(groups[i], aggregation, projection.getValue(selection[i], column));
+            }
+        }
+    }
+
+    private int[] aggregateMinMax(TableColumnarProjection projection, int[] selection, int numSelected, int[] groups, int numGroups, int aggregation)
+    {
+        int column = minMaxColumns[aggregation];
+        int sign = minMaxTypes[aggregation] == MinMaxTypeEnum.MAX ? 1 : -1;
+        boolean[] nulls = projection.getNulls(column);
+        int[] rows = new int[numGroups];
+        Arrays.fill(rows, -1);
+        if (minMaxIntegral[aggregation]) {
+            long[] values = projection.getLongs(column);
+            for (int i = 0; i < numSelected; i++) {
+                int row = selection[i];
+                if (nulls[row]) {
+                    continue;
+                }
+                int current = rows[groups[i]];
+                if (current == -1 || sign * compare(values[row], values[current]) > 0) {
+                    rows[groups[i]] = row;
+                }
+            }
+        }
+        else {
+            double[] values = projection.getDoubles(column);
+            for (int i = 0; i < numSelected; i++) {
+                int row = selection[i];
+                if (nulls[row]) {
+                    continue;
+                }
+                int current = rows[groups[i]];
+                if (current == -1 || sign * Double.compare(values[row], values[current]) > 0) {
+                    rows[groups[i]] = row;
+                }
+            }
+        }
+        return rows;
+    }
+
+    private EventBean makeEvent(Object[] values)
+    {
+        if (resultEventType instanceof ObjectArrayEventType) {
+            Object[] props = new Object[((ObjectArrayEventType) resultEventType).getPropertiesIndexes().size()];
+            for (int i = 0; i < values.length; i++) {
+                props[selectIndexesOA[i]] = values[i];
+            }
+            return eventAdapterService.adapterForTypedObjectArray(props, resultEventType);
+        }
+        Map<String, Object> props = new HashMap<String, Object>();
+        for (int i = 0; i < values.length; i++) {
+            props.put(selectNames[i], values[i]);
+        }
+        return eventAdapterService.adapterForTypedMap(props, resultEventType);
+    }
+
+    private static boolean isEligibleStatement(StatementSpecCompiled statementSpec)
+    {
+        if (statementSpec.getStreamSpecs().length != 1 || !(statementSpec.getStreamSpecs()[0] instanceof TableQueryStreamSpec)) {
+            return false;
+        }
+        TableQueryStreamSpec streamSpec = (TableQueryStreamSpec) statementSpec.getStreamSpecs()[0];
+        if (!streamSpec.getFilterExpressions().isEmpty()) {
+            return false;
+        }
+        if (statementSpec.getOptionalContextName() != null ||
+            statementSpec.getSelectClauseSpec().isDistinct() ||
+            statementSpec.getHavingExprRootNode() != null ||
+            (statementSpec.getOrderByList() != null && statementSpec.getOrderByList().length > 0) ||
+            statementSpec.getRowLimitSpec() != null ||
+            (statementSpec.getTableNodes() != null && statementSpec.getTableNodes().length > 0) ||
+            statementSpec.getSubSelectExpressions().length > 0) {
+            return false;
+        }
+        return statementSpec.getGroupByExpressions() == null || statementSpec.getGroupByExpressions().getGroupByRollupLevels() == null;
+    }
+
+    private static int getPlainColumn(ExprNode node, TableMetadata tableMetadata)
+    {
+        if (!(node instanceof ExprIdentNode)) {
+            return -1;
+        }
+        ExprIdentNode identNode = (ExprIdentNode) node;
+        if (identNode.getStreamId() != 0 || identNode.getResolvedPropertyName() == null) {
+            return -1;
+        }
+        TableMetadataColumn column = tableMetadata.getTableColumns().get(identNode.getResolvedPropertyName());
+        if (!(column instanceof TableMetadataColumnPlain)) {
+            return -1;
+        }
+        return ((TableMetadataColumnPlain) column).getIndexPlain();
+    }
+
+    private static Class getColumnType(TableMetadata tableMetadata, int column)
+    {
+        String name = tableMetadata.getInternalEventType().getPropertyNames()[column];
+        return JavaClassHelper.getBoxedType(tableMetadata.getInternalEventType().getPropertyType(name));
+    }
+
+    private static void addConjuncts(ExprNode node, List<ExprNode> conjuncts)
+    {
+        if (node instanceof ExprAndNode) {
+            for (ExprNode child : node.getChildNodes()) {
+                addConjuncts(child, conjuncts);
+            }
+        }
+        else {
+            conjuncts.add(node);
+        }
+    }
+
+    private static ColumnPredicate getPredicate(ExprNode node, TableMetadata tableMetadata, ExprEvaluatorContext exprEvaluatorContext)
+    {
+        if (node.getChildNodes().length != 2) {
+            return null;
+        }
+        int column = getPlainColumn(node.getChildNodes()[0], tableMetadata);
+        ExprNode constantNode = node.getChildNodes()[1];
+        boolean reversed = false;
+        if (column == -1) {
+            column = getPlainColumn(node.getChildNodes()[1], tableMetadata);
+            constantNode = node.getChildNodes()[0];
+            reversed = true;
+        }
+        if (column == -1 || !(constantNode instanceof ExprConstantNode) || !((ExprConstantNode) constantNode).isConstantValue()) {
+            return null;
+        }
+        Object constant = ((ExprConstantNode) constantNode).getConstantValue(exprEvaluatorContext);
+        if (constant == null) {
+            return null;
+        }
+        Class columnType = getColumnType(tableMetadata, column);
+        boolean columnIntegral = JavaClassHelper.isNumericNonFP(columnType);
+        boolean columnFloating = JavaClassHelper.isFloatingPointClass(columnType);
+        boolean constantIntegral = JavaClassHelper.isNumericNonFP(constant.getClass());
+        boolean constantFloating = JavaClassHelper.isFloatingPointClass(constant.getClass());
+        boolean numeric = (columnIntegral || columnFloating) && (constantIntegral || constantFloating);
+        boolean integral = columnIntegral && constantIntegral;
+
+        if (node instanceof ExprEqualsNode) {
+            ExprEqualsNode equalsNode = (ExprEqualsNode) node;
+            if (equalsNode.isIs()) {
+                return null;
+            }
+            if (integral) {
+                long value = ((Number) constant).longValue();
+                return new LongRangePredicate(column, value, value, equalsNode.isNotEquals());
+            }
+            if (numeric) {
+                return new DoubleEqualsPredicate(column, ((Number) constant).doubleValue(), equalsNode.isNotEquals());
+            }
+            if (columnType != constant.getClass()) {
+                return null;
+            }
+            return new DictionaryEqualsPredicate(column, constant, equalsNode.isNotEquals());
+        }
+
+        if (!(node instanceof ExprRelationalOpNode) || !numeric) {
+            return null;
+        }
+        RelationalOpEnum op = ((ExprRelationalOpNode) node).getRelationalOpEnum();
+        if (reversed) {
+            op = op.reversed();
+        }
+        if (integral) {
+            long value = ((Number) constant).longValue();
+            switch (op) {
+                case GT:
+                    return value == Long.MAX_VALUE ? new LongRangePredicate(column, 1, 0, false) : new LongRangePredicate(column, value + 1, Long.MAX_VALUE, false);
+                case GE:
+                    return new LongRangePredicate(column, value, Long.MAX_VALUE, false);
+                case LT:
+                    return value == Long.MIN_VALUE ? new LongRangePredicate(column, 1, 0, false) : new LongRangePredicate(column, Long.MIN_VALUE, value - 1, false);
+                default:
+                    return new LongRangePredicate(column, Long.MIN_VALUE, value, false);
+            }
+        }
+        double value = ((Number) constant).doubleValue();
+        switch (op) {
+            case GT:
+                return new DoubleRangePredicate(column, value, false, Double.POSITIVE_INFINITY, true);
+            case GE:
+                return new DoubleRangePredicate(column, value, true, Double.POSITIVE_INFINITY, true);
+            case LT:
+                return new DoubleRangePredicate(column, Double.NEGATIVE_INFINITY, true, value, false);
+            default:
+                return new DoubleRangePredicate(column, Double.NEGATIVE_INFINITY, true, value, true);
+        }
+    }
+
+    private static int compare(long first, long second)
+    {
+        return first < second ? -1 : (first == second ? 0 : 1);
+    }
+
+    private static boolean contains(int[] values, int value)
+    {
+        for (int candidate : values) {
+            if (candidate == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] toIntArray(List<Integer> values)
+    {
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+
+    private static boolean[] toBooleanArray(List<Boolean> values)
+    {
+        boolean[] result = new boolean[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Predicate that narrows a selection vector of rows, a row with a null value never matching.
+     */
+    private static interface ColumnPredicate
+    {
+        /**
+         * Removes the rows that don't match from the selection, keeping the order of the remaining rows.
+         * @param projection rows
+         * @param selection selected rows
+         * @param numSelected number of selected rows
+         * @return number of rows remaining selected
+         */
+        public int apply(TableColumnarProjection projection, int[] selection, int numSelected);
+    }
+
+    private static class LongRangePredicate implements ColumnPredicate
+    {
+        private final int column;
+        private final long lower;
+        private final long upper;
+        private final boolean outside;
+
+        private LongRangePredicate(int column, long lower, long upper, boolean outside)
+        {
+            this.column = column;
+            this.lower = lower;
+            this.upper = upper;
+            this.outside = outside;
+        }
+
+        public int apply(TableColumnarProjection projection, int[] selection, int numSelected)
+        {
+            long[] values = projection.getLongs(column);
+            boolean[] nulls = projection.getNulls(column);
+            int count = 0;
+            for (int i = 0; i < numSelected; i++) {
+                int row = selection[i];
+                long value = values[row];
+                if (!nulls[row] && ((value >= lower && value <= upper) != outside)) {
+                    selection[count++] = row;
+                }
+            }
+            return count;
+        }
+    }
+
+    private static class DoubleRangePredicate implements ColumnPredicate
+    {
+        private final int column;
+        private final double lower;
+        private final boolean lowerInclusive;
+        private final double upper;
+        private final boolean upperInclusive;
+
+        private DoubleRangePredicate(int column, double lower, boolean lowerInclusive, double upper, boolean upperInclusive)
+        {
+            this.column = column;
+            this.lower = lower;
+            this.lowerInclusive = lowerInclusive;
+            this.upper = upper;
+            this.upperInclusive = upperInclusive;
+        }
+
+        public int apply(TableColumnarProjection projection, int[] selection, int numSelected)
+        {
+            double[] values = projection.getDoubles(column);
+            boolean[] nulls = projection.getNulls(column);
+            int count = 0;
+            for (int i = 0; i < numSelected; i++) {
+                int row = selection[i];
+                double value = values[row];
+                if (!nulls[row] &&
+                    (lowerInclusive ? value >= lower : value > lower) &&
+                    (upperInclusive ? value <= upper : value < upper)) {
+                    selection[count++] = row;
+                }
+            }
+            return count;
+        }
+    }
+
+    private static class DoubleEqualsPredicate implements ColumnPredicate
+    {
+        private final int column;
+        private final long bits;
+        private final boolean notEquals;
+
+        private DoubleEqualsPredicate(int column, double value, boolean notEquals)
+        {
+            this.column = column;
+            this.bits = Double.doubleToLongBits(value);
+            this.notEquals = notEquals;
+        }
+
+        public int apply(TableColumnarProjection projection, int[] selection, int numSelected)
+        {
+            double[] values = projection.getDoubles(column);
+            boolean[] nulls = projection.getNulls(column);
+            int count = 0;
+            for (int i = 0; i < numSelected; i++) {
+                int row = selection[i];
+                if (!nulls[row] && ((Double.doubleToLongBits(values[row]) == bits) != notEquals)) {
+                    selection[count++] = row;
+                }
+            }
+            return count;
+        }
+    }
+
+    private static class DictionaryEqualsPredicate implements ColumnPredicate
+    {
+        private final int column;
+        private final Object value;
+        private final boolean notEquals;
+
+        private DictionaryEqualsPredicate(int column, Object value, boolean notEquals)
+        {
+            this.column = column;
+            this.value = value;
+            this.notEquals = notEquals;
+        }
+
+        public int apply(TableColumnarProjection projection, int[] selection, int numSelected)
+        {
+            // evaluate once per distinct value
+            Object[] dictionary = projection.getDictionary(column);
+            boolean[] matches = new boolean[dictionary.length];
+            for (int i = 0; i < dictionary.length; i++) {
+                matches[i] = dictionary[i] != null && (dictionary[i].equals(value) != notEquals);
+            }
+            int[] codes = projection.getCodes(column);
+            int count = 0;
+            for (int i = 0; i < numSelected; i++) {
+                int row = selection[i];
+                if (matches[codes[row]]) {
+                    selection[count++] = row;
+                }
+            }
+            return count;
+        }
+    }
+}
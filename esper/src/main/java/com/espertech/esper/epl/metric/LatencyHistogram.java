@@ -0,0 +1,126 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.metric;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram with logarithmic buckets that are each subdivided into linear sub-buckets,
+ * for recording nanosecond latencies at a relative precision of about 6 percent.
+ * <p>
+ * Recording a value is a single atomic increment and does not allocate, thereby the histogram
+ * is suitable for recording each statement execution. Latencies above about 73 minutes are recorded
+ * as the maximum latency.
+ */
+public class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_MAGNITUDE = 41;
+    private static final long MAX_VALUE = (1L << (MAX_MAGNITUDE + 1)) - 1;
+    private static final int BUCKET_COUNT = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * Records a latency.
+     * @param nanos latency in nanoseconds
+     */
+    public void record(long nanos)
+    {
+        counts.incrementAndGet(getIndex(nanos));
+    }
+
+    /**
+     * Returns the number of recorded latencies.
+     * @return count
+     */
+    public long getCount()
+    {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the latency at the given percentile, as the highest latency that is equivalent
+     * to the recorded latencies at that percentile within the precision of the histogram.
+     * @param percentile between zero and 100
+     * @return latency in nanoseconds, or zero if no latencies were recorded
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0)
+        {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(Math.min(percentile, 100d) / 100d * total);
+        if (rank < 1)
+        {
+            rank = 1;
+        }
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            cumulative += snapshot[i];
+            if (cumulative >= rank)
+            {
+                return getHighestValue(i);
+            }
+        }
+        return getHighestValue(BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Returns the bucket index of a latency.
+     * @param nanos latency
+     * @return index
+     */
+    protected static int getIndex(long nanos)
+    {
+        if (nanos < SUB_BUCKET_COUNT)
+        {
+            return nanos < 0 ? 0 : (int) nanos;
+        }
+        if (nanos > MAX_VALUE)
+        {
+            nanos = MAX_VALUE;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(nanos);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) ((nanos >>> shift) & (SUB_BUCKET_COUNT - 1));
+    }
+
+    /**
+     * Returns the highest latency that falls into the bucket.
+     * @param index bucket index
+     * @return latency
+     */
+    protected static long getHighestValue(int index)
+    {
+        if (index < SUB_BUCKET_COUNT)
+        {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long lowest = ((long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT)) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
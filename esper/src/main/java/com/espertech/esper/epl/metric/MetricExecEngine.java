@@ -9,6 +9,7 @@
 package com.espertech.esper.epl.metric;
 
 import com.espertech.esper.client.metric.EngineMetric;
+import com.espertech.esper.epl.db.DataCacheSharedService;
 
 /**
  * Metrics execution producing engine metric events.
@@ -41,7 +42,9 @@ public class MetricExecEngine implements MetricExec
         long inputCount = context.getServices().getFilterService().getNumEventsEvaluated();
         long schedDepth = context.getServices().getSchedulingService().getScheduleHandleCount();
         long deltaInputCount = lastMetric == null ? inputCount : inputCount - lastMetric.getInputCount();
-        EngineMetric metric = new EngineMetric(engineURI, metricScheduleService.getCurrentTime(), inputCount, deltaInputCount, schedDepth);
+        DataCacheSharedService dataCacheSharedService = context.getServices().getDataCacheSharedService();
+        EngineMetric metric = new EngineMetric(engineURI, metricScheduleService.getCurrentTime(), inputCount, deltaInputCount, schedDepth,
+                dataCacheSharedService.getNumHits(), dataCacheSharedService.getNumMisses(), dataCacheSharedService.getNumEvictions());
         lastMetric = metric;
         metricEventRouter.route(metric);
         metricScheduleService.add(interval, this);        
@@ -8,7 +8,9 @@
  **************************************************************************************/
 package com.espertech.esper.epl.metric;
 
+import com.espertech.esper.client.EPStatement;
 import com.espertech.esper.client.metric.StatementMetric;
+import com.espertech.esper.core.service.EPStatementSPI;
 
 /**
  * Metrics execution producing statement metric events.
@@ -18,6 +20,7 @@ public class MetricExecStatement implements MetricExec
     private final MetricEventRouter metricEventRouter;
     private final MetricScheduleService metricScheduleService;
     private final int statementGroup;
+    private final boolean footprint;
 
     private long interval;
 
@@ -27,13 +30,15 @@ public class MetricExecStatement implements MetricExec
      * @param metricScheduleService for scheduling a new execution
      * @param interval for rescheduling the execution
      * @param statementGroup group number of statement group
+     * @param footprint true to estimate the memory footprint of each reported statement
      */
-    public MetricExecStatement(MetricEventRouter metricEventRouter, MetricScheduleService metricScheduleService, long interval, int statementGroup)
+    public MetricExecStatement(MetricEventRouter metricEventRouter, MetricScheduleService metricScheduleService, long interval, int statementGroup, boolean footprint)
     {
         this.metricEventRouter = metricEventRouter;
         this.metricScheduleService = metricScheduleService;
         this.interval = interval;
         this.statementGroup = statementGroup;
+        this.footprint = footprint;
     }
 
     public void execute(MetricExecutionContext context)
@@ -48,6 +53,10 @@ public class MetricExecStatement implements MetricExec
                 if (metric != null)
                 {
                     metric.setTimestamp(timestamp);
+                    if (footprint)
+                    {
+                        setFootprint(context, metric);
+                    }
                     metricEventRouter.route(metrics[i]);
                 }
             }
@@ -59,6 +68,17 @@ public class MetricExecStatement implements MetricExec
         }
     }
 
+    private static void setFootprint(MetricExecutionContext context, StatementMetric metric)
+    {
+        EPStatement statement = context.getServices().getStatementLifecycleSvc().getStatementByName(metric.getStatementName());
+        if (!(statement instanceof EPStatementSPI))
+        {
+            return;
+        }
+        StatementFootprint statementFootprint = ((EPStatementSPI) statement).getFootprint();
+        metric.setFootprint(statementFootprint.getNumRows(), statementFootprint.getNumGroups(), statementFootprint.getNumStates(), statementFootprint.getEstimatedBytes());
+    }
+
     /**
      * Set a new interval, cancels the existing schedule, re-establishes the new schedule if the interval is a
      * positive number.
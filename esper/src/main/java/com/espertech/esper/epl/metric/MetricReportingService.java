@@ -50,6 +50,21 @@ public interface MetricReportingService
      */
     public void accountOutput(StatementMetricHandle handle, int numIStream, int numRStream);
 
+    /**
+     * Account for statement output delivery to listeners and subscriber.
+     * @param handle statement handle
+     * @param deltaWall wall time nsec
+     */
+    public void accountDispatch(StatementMetricHandle handle, long deltaWall);
+
+    /**
+     * Account for the asynchronous dispatch queue of a statement.
+     * @param handle statement handle
+     * @param queueDepth number of results waiting for dispatch
+     * @param numDropped number of results dropped
+     */
+    public void accountDispatchQueue(StatementMetricHandle handle, int queueDepth, long numDropped);
+
     /**
      * Returns for a new statement a handle for later accounting.
      * @param statementId statement id
@@ -98,13 +98,13 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
 
         // create all engine and statement executions
         metricExecEngine = new MetricExecEngine(this, engineUri, schedule, specification.getEngineInterval());
-        metricExecStmtGroupDefault = new MetricExecStatement(this, schedule, specification.getStatementInterval(), 0);
+        metricExecStmtGroupDefault = new MetricExecStatement(this, schedule, specification.getStatementInterval(), 0, specification.isStatementFootprint());
 
         int countGroups = 1;
         for (Map.Entry<String, ConfigurationMetricsReporting.StmtGroupMetrics> entry : specification.getStatementGroups().entrySet())
         {
             ConfigurationMetricsReporting.StmtGroupMetrics config = entry.getValue();
-            MetricExecStatement metricsExecution = new MetricExecStatement(this, schedule, config.getInterval(), countGroups);
+            MetricExecStatement metricsExecution = new MetricExecStatement(this, schedule, config.getInterval(), countGroups, specification.isStatementFootprint());
             this.statementGroupExecutions.put(entry.getKey(), metricsExecution);
             countGroups++;
         }
@@ -183,6 +183,16 @@ public class MetricReportingServiceImpl implements MetricReportingServiceSPI, Me
         stmtMetricRepository.accountOutput(handle, numIStream, numRStream);
     }
 
+    public void accountDispatch(StatementMetricHandle handle, long deltaWall)
+    {
+        stmtMetricRepository.accountDispatch(handle, deltaWall);
+    }
+
+    public void accountDispatchQueue(StatementMetricHandle handle, int queueDepth, long numDropped)
+    {
+        stmtMetricRepository.accountDispatchQueue(handle, queueDepth, numDropped);
+    }
+
     public StatementMetricHandle getStatementHandle(String statementId, String statementName)
     {
         if (!MetricReportingPath.isMetricsEnabled)
@@ -0,0 +1,135 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.metric;
+
+import java.util.Map;
+
+/**
+ * Estimate of the memory that a statement retains, and of the number of rows, groups and states it holds.
+ * <p>
+ * Byte counts are estimates based on the event type of the retained events and fixed per-entry overheads,
+ * and are meant for comparing statements and for detecting growth rather than as exact heap sizes.
+ */
+public class StatementFootprint
+{
+    private long numRows;
+    private long numGroups;
+    private long numStates;
+    private long estimatedBytes;
+    private Map<Integer, StatementFootprint> contextPartitions;
+
+    /**
+     * Returns the number of events retained by data windows, named windows and tables.
+     * @return number of rows
+     */
+    public long getNumRows()
+    {
+        return numRows;
+    }
+
+    /**
+     * Returns the number of aggregation groups and grouped data window groups.
+     * @return number of groups
+     */
+    public long getNumGroups()
+    {
+        return numGroups;
+    }
+
+    /**
+     * Returns the number of match-recognize partial matches.
+     * @return number of states
+     */
+    public long getNumStates()
+    {
+        return numStates;
+    }
+
+    /**
+     * Returns the estimated number of retained bytes.
+     * @return bytes estimate
+     */
+    public long getEstimatedBytes()
+    {
+        return estimatedBytes;
+    }
+
+    /**
+     * Returns the footprint per context partition keyed by agent instance id, or null if the statement does not declare a context.
+     * @return footprint per context partition
+     */
+    public Map<Integer, StatementFootprint> getContextPartitions()
+    {
+        return contextPartitions;
+    }
+
+    /**
+     * Adds rows.
+     * @param rows number of rows
+     * @param bytes estimated bytes
+     */
+    public void addRows(long rows, long bytes)
+    {
+        numRows += rows;
+        estimatedBytes += bytes;
+    }
+
+    /**
+     * Adds groups.
+     * @param groups number of groups
+     * @param bytes estimated bytes
+     */
+    public void addGroups(long groups, long bytes)
+    {
+        numGroups += groups;
+        estimatedBytes += bytes;
+    }
+
+    /**
+     * Adds states.
+     * @param states number of states
+     * @param bytes estimated bytes
+     */
+    public void addStates(long states, long bytes)
+    {
+        numStates += states;
+        estimatedBytes += bytes;
+    }
+
+    /**
+     * Adds the counts of another footprint.
+     * @param other to add
+     */
+    public void add(StatementFootprint other)
+    {
+        numRows += other.numRows;
+        numGroups += other.numGroups;
+        numStates += other.numStates;
+        estimatedBytes += other.estimatedBytes;
+    }
+
+    /**
+     * Sets the footprint per context partition.
+     * @param contextPartitions footprint per agent instance id
+     */
+    public void setContextPartitions(Map<Integer, StatementFootprint> contextPartitions)
+    {
+        this.contextPartitions = contextPartitions;
+    }
+
+    public String toString()
+    {
+        return "StatementFootprint{" +
+                "numRows=" + numRows +
+                ", numGroups=" + numGroups +
+                ", numStates=" + numStates +
+                ", estimatedBytes=" + estimatedBytes +
+                '}';
+    }
+}
@@ -0,0 +1,372 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.metric;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyDescriptor;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.collection.ViewUpdatedCollection;
+import com.espertech.esper.core.context.subselect.SubSelectStrategyHolder;
+import com.espertech.esper.core.service.StatementAgentInstanceLock;
+import com.espertech.esper.core.service.StatementContext;
+import com.espertech.esper.core.service.resource.StatementResourceHolder;
+import com.espertech.esper.core.service.resource.StatementResourceService;
+import com.espertech.esper.epl.agg.service.*;
+import com.espertech.esper.epl.table.mgmt.TableStateInstance;
+import com.espertech.esper.event.map.MapEventType;
+import com.espertech.esper.rowregex.EventRowRegexNFAViewService;
+import com.espertech.esper.rowregex.EventRowRegexNFAViewServiceVisitor;
+import com.espertech.esper.rowregex.RegexPartitionState;
+import com.espertech.esper.util.JavaClassHelper;
+import com.espertech.esper.view.*;
+import com.espertech.esper.view.std.GroupByView;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Estimates the memory footprint of a statement by visiting the data windows, aggregation services and
+ * match-recognize state of each of its agent instances.
+ * <p>
+ * Each agent instance is visited under its agent instance lock. The visit uses the sizes that the
+ * collections maintain and does not iterate events, so that it is cheap enough for periodic polling.
+ */
+public class StatementFootprintEstimator implements ViewDataVisitor, ViewDataVisitorContained, AggregationServiceVisitor, EventRowRegexNFAViewServiceVisitor
+{
+    private static final int OBJECT_BYTES = 16;
+    private static final int REFERENCE_BYTES = 8;
+    private static final int ROW_OVERHEAD_BYTES = 48;
+    private static final int MAP_ENTRY_BYTES = 32;
+    private static final int GROUP_OVERHEAD_BYTES = 64;
+    private static final int GROUP_VIEW_BYTES = 256;
+    private static final int AGGREGATION_STATE_BYTES = 32;
+    private static final int MATCH_STATE_BYTES = 64;
+
+    private final StatementFootprint footprint;
+    private final Set<Viewable> visited = Collections.newSetFromMap(new IdentityHashMap<Viewable, Boolean>());
+    private final List<View> contained = new ArrayList<View>();
+    private long rowBytes;
+    private boolean containedAreGroups;
+
+    private StatementFootprintEstimator(StatementFootprint footprint)
+    {
+        this.footprint = footprint;
+    }
+
+    /**
+     * Estimate the footprint of a statement, and of each context partition if the statement declares a context.
+     * @param statementContext statement context
+     * @return footprint
+     */
+    public static StatementFootprint estimate(StatementContext statementContext)
+    {
+        StatementFootprint total = new StatementFootprint();
+        if (statementContext.getStatementExtensionServicesContext() == null || statementContext.getStatementExtensionServicesContext().getStmtResources() == null)
+        {
+            return total;
+        }
+        StatementResourceService resources = statementContext.getStatementExtensionServicesContext().getStmtResources();
+
+        if (resources.getResourcesZero() != null)
+        {
+            total.add(estimate(resources.getResourcesZero()));
+        }
+
+        Map<Integer, StatementResourceHolder> partitioned = resources.getResourcesNonZeroSnapshot();
+        if (partitioned != null)
+        {
+            Map<Integer, StatementFootprint> perPartition = new TreeMap<Integer, StatementFootprint>();
+            for (Map.Entry<Integer, StatementResourceHolder> entry : partitioned.entrySet())
+            {
+                StatementFootprint partition = estimate(entry.getValue());
+                perPartition.put(entry.getKey(), partition);
+                total.add(partition);
+            }
+            total.setContextPartitions(perPartition);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the estimated number of bytes for an event of the given type, based on the property types.
+     * @param eventType type
+     * @return bytes estimate
+     */
+    public static int estimateEventBytes(EventType eventType)
+    {
+        if (eventType == null)
+        {
+            return 0;
+        }
+        boolean isMap = eventType instanceof MapEventType;
+        int bytes = OBJECT_BYTES;
+        for (EventPropertyDescriptor desc : eventType.getPropertyDescriptors())
+        {
+            bytes += REFERENCE_BYTES + estimateValueBytes(desc.getPropertyType());
+            if (isMap)
+            {
+                bytes += MAP_ENTRY_BYTES;
+            }
+        }
+        return bytes;
+    }
+
+    private static StatementFootprint estimate(StatementResourceHolder holder)
+    {
+        StatementFootprint footprint = new StatementFootprint();
+        StatementAgentInstanceLock lock = holder.getEpStatementAgentInstanceHandle() == null ? null : holder.getEpStatementAgentInstanceHandle().getStatementAgentInstanceLock();
+        if (lock != null)
+        {
+            lock.acquireWriteLock();
+        }
+        try
+        {
+            StatementFootprintEstimator estimator = new StatementFootprintEstimator(footprint);
+            if (holder.getTopViewables() != null)
+            {
+                for (Viewable top : holder.getTopViewables())
+                {
+                    estimator.walk(top);
+                }
+            }
+            if (holder.getAggegationService() != null)
+            {
+                holder.getAggegationService().accept(estimator);
+            }
+            if (holder.getSubselectStrategies() != null)
+            {
+                for (SubSelectStrategyHolder subselect : holder.getSubselectStrategies().values())
+                {
+                    estimator.walk(subselect.getSubselectView());
+                    if (subselect.getSubselectAggregationService() != null)
+                    {
+                        subselect.getSubselectAggregationService().accept(estimator);
+                    }
+                }
+            }
+        }
+        finally
+        {
+            if (lock != null)
+            {
+                lock.releaseWriteLock();
+            }
+        }
+        return footprint;
+    }
+
+    private void walk(Viewable viewable)
+    {
+        if (viewable == null || !visited.add(viewable))
+        {
+            return;
+        }
+
+        if (viewable instanceof EventRowRegexNFAViewService)
+        {
+            ((EventRowRegexNFAViewService) viewable).accept(this);
+        }
+
+        if (viewable instanceof ViewDataVisitableContainer)
+        {
+            containedAreGroups = viewable instanceof GroupByView;
+            ((ViewDataVisitableContainer) viewable).visitViewContainer(this);
+            List<View> views = new ArrayList<View>(contained);
+            contained.clear();
+            for (View view : views)
+            {
+                walk(view);
+            }
+        }
+        else if (viewable instanceof ViewDataVisitable)
+        {
+            rowBytes = ROW_OVERHEAD_BYTES + estimateEventBytes(viewable.getEventType());
+            ((ViewDataVisitable) viewable).visitView(this);
+        }
+
+        for (View child : viewable.getViews())
+        {
+            walk(child);
+        }
+    }
+
+    public void visitPrimary(EventBean event, String viewName)
+    {
+        if (event != null)
+        {
+            addRows(1);
+        }
+    }
+
+    public void visitPrimary(EventBean[] events, String viewName)
+    {
+        if (events == null)
+        {
+            return;
+        }
+        int count = 0;
+        for (EventBean event : events)
+        {
+            if (event != null)
+            {
+                count++;
+            }
+        }
+        addRows(count);
+    }
+
+    public void visitPrimary(Collection<?> primary, boolean countsEvents, String viewName, Integer count)
+    {
+        if (count != null)
+        {
+            addRows(count);
+        }
+        else if (primary != null)
+        {
+            addRows(primary.size());
+        }
+    }
+
+    public void visitPrimary(Map<?, ?> currentBatch, boolean countsEvents, String viewName, Integer count, Integer keyCountWhenAvailable)
+    {
+        if (count != null)
+        {
+            addRows(count);
+        }
+        else if (currentBatch != null)
+        {
+            addRows(currentBatch.size());
+        }
+    }
+
+    public void visitPrimary(ViewUpdatedCollection buffer, String viewName)
+    {
+        if (buffer != null)
+        {
+            addRows(buffer.getNumEventsInsertBuf());
+        }
+    }
+
+    public void visitPrimary(String viewName, int numContained)
+    {
+        if (containedAreGroups)
+        {
+            footprint.addGroups(numContained, (long) numContained * GROUP_VIEW_BYTES);
+        }
+    }
+
+    public void visitContained(Object containedKey, View containedView)
+    {
+        contained.add(containedView);
+    }
+
+    public void visitAggregations(int numGroups, Object... state)
+    {
+        if (state.length > 0 && state[0] instanceof TableStateInstance)
+        {
+            TableStateInstance table = (TableStateInstance) state[0];
+            long bytes = ROW_OVERHEAD_BYTES + estimateEventBytes(table.getTableMetadata().getInternalEventType());
+            footprint.addRows(numGroups, numGroups * bytes);
+            return;
+        }
+        int numAggregations = state.length > 0 ? countAggregations(state[0]) : 1;
+        footprint.addGroups(numGroups, (long) numGroups * (GROUP_OVERHEAD_BYTES + numAggregations * AGGREGATION_STATE_BYTES));
+    }
+
+    public void visitUnpartitioned(RegexPartitionState state)
+    {
+        if (state != null)
+        {
+            addStates(state);
+        }
+    }
+
+    public void visitPartitioned(Map<Object, RegexPartitionState> states)
+    {
+        for (RegexPartitionState state : states.values())
+        {
+            addStates(state);
+        }
+    }
+
+    private void addRows(long rows)
+    {
+        footprint.addRows(rows, rows * rowBytes);
+    }
+
+    private void addStates(RegexPartitionState state)
+    {
+        int numStates = state.getNumStates();
+        footprint.addStates(numStates, GROUP_OVERHEAD_BYTES + (long) numStates * MATCH_STATE_BYTES);
+    }
+
+    private static int countAggregations(Object state)
+    {
+        Object row = state;
+        if (state instanceof Map)
+        {
+            Map map = (Map) state;
+            if (map.isEmpty())
+            {
+                return 1;
+            }
+            row = map.values().iterator().next();
+        }
+        if (row instanceof Object[])
+        {
+            return Math.max(1, ((Object[]) row).length);
+        }
+        if (row instanceof AggregationRowPair)
+        {
+            AggregationRowPair pair = (AggregationRowPair) row;
+            return Math.max(1, pair.getMethods().length + pair.getStates().length);
+        }
+        if (row instanceof AggregationMethodPairRow)
+        {
+            AggregationMethodPairRow pair = (AggregationMethodPairRow) row;
+            return Math.max(1, pair.getMethods().length + pair.getStates().length);
+        }
+        if (row instanceof AggregationMethodRow)
+        {
+            return Math.max(1, ((AggregationMethodRow) row).getMethods().length);
+        }
+        return 1;
+    }
+
+    private static int estimateValueBytes(Class type)
+    {
+        if (type == null)
+        {
+            return OBJECT_BYTES;
+        }
+        Class boxed = JavaClassHelper.getBoxedType(type);
+        if (boxed == Long.class || boxed == Double.class)
+        {
+            return 24;
+        }
+        if (JavaClassHelper.isNumeric(boxed) || boxed == Boolean.class || boxed == Character.class)
+        {
+            if (boxed == BigDecimal.class || boxed == BigInteger.class)
+            {
+                return 64;
+            }
+            return OBJECT_BYTES;
+        }
+        if (boxed == String.class)
+        {
+            return 56;
+        }
+        if (boxed.isArray())
+        {
+            return 64;
+        }
+        return 32;
+    }
+}
@@ -0,0 +1,126 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.metric;
+
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.core.service.EPStatementSPI;
+import com.espertech.esper.core.service.StatementLifecycleSvc;
+import com.espertech.esper.metrics.jmx.JmxGetter;
+import com.espertech.esper.metrics.jmx.JmxManaged;
+import com.espertech.esper.metrics.jmx.JmxOperation;
+import com.espertech.esper.metrics.jmx.JmxParam;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * JMX view of the estimated memory footprint of the statements of an engine.
+ * <p>
+ * Each access estimates the footprint of the started statements anew, see {@link StatementFootprintEstimator}.
+ */
+@JmxManaged(description = "Estimated statement memory footprint")
+public class StatementFootprintJMX
+{
+    private final StatementLifecycleSvc statementLifecycleSvc;
+
+    /**
+     * Ctor.
+     * @param statementLifecycleSvc for obtaining statements
+     */
+    public StatementFootprintJMX(StatementLifecycleSvc statementLifecycleSvc)
+    {
+        this.statementLifecycleSvc = statementLifecycleSvc;
+    }
+
+    /**
+     * Returns the estimated number of bytes retained by all started statements.
+     * @return estimated bytes
+     */
+    @JmxGetter(name="EstimatedBytes", description = "Estimated number of bytes retained by all started statements")
+    public long getEstimatedBytes()
+    {
+        long total = 0;
+        for (StatementFootprintEntry entry : getFootprints())
+        {
+            total += entry.footprint.getEstimatedBytes();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the footprint of a statement.
+     * @param statementName statement name
+     * @return footprint or null if no started statement by that name exists
+     */
+    @JmxOperation(description = "Returns the estimated footprint of a statement")
+    public String getStatementFootprint(@JmxParam(name = "statementName", description = "statement name") String statementName)
+    {
+        EPStatement statement = statementLifecycleSvc.getStatementByName(statementName);
+        if (!(statement instanceof EPStatementSPI) || !statement.isStarted())
+        {
+            return null;
+        }
+        return ((EPStatementSPI) statement).getFootprint().toString();
+    }
+
+    /**
+     * Returns the statements retaining the most estimated bytes, one line per statement.
+     * @param count maximum number of statements
+     * @return statement names and footprints
+     */
+    @JmxOperation(description = "Returns the statements retaining the most estimated bytes")
+    public String getTopStatements(@JmxParam(name = "count", description = "maximum number of statements") int count)
+    {
+        List<StatementFootprintEntry> entries = getFootprints();
+        Collections.sort(entries, new Comparator<StatementFootprintEntry>()
+        {
+            public int compare(StatementFootprintEntry o1, StatementFootprintEntry o2)
+            {
+                long b1 = o1.footprint.getEstimatedBytes();
+                long b2 = o2.footprint.getEstimatedBytes();
+                return b1 < b2 ? 1 : (b1 == b2 ? 0 : -1);
+            }
+        });
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < entries.size() && i < count; i++)
+        {
+            StatementFootprintEntry entry = entries.get(i);
+            builder.append(entry.statementName).append(' ').append(entry.footprint).append('\n');
+        }
+        return builder.toString();
+    }
+
+    private List<StatementFootprintEntry> getFootprints()
+    {
+        List<StatementFootprintEntry> entries = new ArrayList<StatementFootprintEntry>();
+        for (String name : statementLifecycleSvc.getStatementNames())
+        {
+            EPStatement statement = statementLifecycleSvc.getStatementByName(name);
+            if (statement instanceof EPStatementSPI && statement.isStarted())
+            {
+                entries.add(new StatementFootprintEntry(name, ((EPStatementSPI) statement).getFootprint()));
+            }
+        }
+        return entries;
+    }
+
+    private static class StatementFootprintEntry
+    {
+        private final String statementName;
+        private final StatementFootprint footprint;
+
+        private StatementFootprintEntry(String statementName, StatementFootprint footprint)
+        {
+            this.statementName = statementName;
+            this.footprint = footprint;
+        }
+    }
+}
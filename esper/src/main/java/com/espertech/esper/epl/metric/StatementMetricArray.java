@@ -51,6 +51,9 @@ public class StatementMetricArray
     // Flushed metric per statement
     private volatile StatementMetric[] metrics;
 
+    // Latency histograms per statement, flushed together with the metrics
+    private volatile StatementMetricLatency[] latencies;
+
     // Statements ids to remove with the next flush
     private Set<String> removedStatementNames;
 
@@ -67,6 +70,7 @@ public class StatementMetricArray
         this.isReportInactive = isReportInactive;
         
         metrics = new StatementMetric[initialSize];
+        latencies = new StatementMetricLatency[initialSize];
         statementNames = new String[initialSize];
         currentLastElement = -1;
         rwLock = new ManagedReadWriteLock("StatementMetricArray-" + name, true);
@@ -141,11 +145,14 @@ public class StatementMetricArray
             int newSize = (int) (metrics.length * 1.5);
             String[] newStatementNames = new String[newSize];
             StatementMetric[] newMetrics = new StatementMetric[newSize];
+            StatementMetricLatency[] newLatencies = new StatementMetricLatency[newSize];
             System.arraycopy(statementNames, 0, newStatementNames, 0, statementNames.length);
             System.arraycopy(metrics, 0, newMetrics, 0, metrics.length);
+            System.arraycopy(latencies, 0, newLatencies, 0, latencies.length);
 
             statementNames = newStatementNames;
             metrics = newMetrics;
+            latencies = newLatencies;
 
             currentLastElement++;
             statementNames[currentLastElement] = statementName;
@@ -216,6 +223,17 @@ public class StatementMetricArray
             StatementMetric[] newMetrics = new StatementMetric[metrics.length];
             StatementMetric[] oldMetrics = metrics;
             metrics = newMetrics;
+
+            // latency percentiles are computed for the flushed interval
+            StatementMetricLatency[] oldLatencies = latencies;
+            latencies = new StatementMetricLatency[oldLatencies.length];
+            for (int i = 0; i < oldMetrics.length; i++)
+            {
+                if (oldMetrics[i] != null && oldLatencies[i] != null)
+                {
+                    oldLatencies[i].setPercentiles(oldMetrics[i]);
+                }
+            }
             return oldMetrics;
         }
         finally
@@ -249,6 +267,21 @@ public class StatementMetricArray
         return metric;
     }
 
+    /**
+     * Returns existing or creates new latency histograms for the index.
+     * @param index of statement
+     * @return latency histograms to record into under read lock
+     */
+    public StatementMetricLatency getAddLatency(int index)
+    {
+        StatementMetricLatency latency = latencies[index];
+        if (latency == null)
+        {
+            latency = allocateLatency(index);
+        }
+        return latency;
+    }
+
     /**
      * Returns maximum collection size (last used element), which may not truely reflect the number
      * of actual statements held as some slots may empty up when statements are removed.
@@ -258,4 +291,15 @@ public class StatementMetricArray
     {
         return currentLastElement + 1;
     }
+
+    private synchronized StatementMetricLatency allocateLatency(int index)
+    {
+        StatementMetricLatency latency = latencies[index];
+        if (latency == null)
+        {
+            latency = new StatementMetricLatency();
+            latencies[index] = latency;
+        }
+        return latency;
+    }
 }
@@ -0,0 +1,83 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.metric;
+
+import com.espertech.esper.client.metric.StatementMetric;
+
+/**
+ * Processing and dispatch latency histograms of a statement for one reporting interval.
+ * <p>
+ * A histogram is only allocated for statements that actually record latencies.
+ */
+public class StatementMetricLatency
+{
+    private volatile LatencyHistogram processingLatency;
+    private volatile LatencyHistogram dispatchLatency;
+
+    /**
+     * Records the wall time of a single statement execution.
+     * @param wall wall time in nanoseconds
+     */
+    public void addProcessingLatency(long wall)
+    {
+        LatencyHistogram histogram = processingLatency;
+        if (histogram == null)
+        {
+            histogram = allocateProcessingLatency();
+        }
+        histogram.record(wall);
+    }
+
+    /**
+     * Records the wall time of a single output delivery to listeners and subscriber.
+     * @param wall wall time in nanoseconds
+     */
+    public void addDispatchLatency(long wall)
+    {
+        LatencyHistogram histogram = dispatchLatency;
+        if (histogram == null)
+        {
+            histogram = allocateDispatchLatency();
+        }
+        histogram.record(wall);
+    }
+
+    /**
+     * Sets the latency percentiles on the statement metric that is reported for the interval.
+     * @param metric to set percentiles on
+     */
+    public void setPercentiles(StatementMetric metric)
+    {
+        metric.setProcessingLatency(getPercentile(processingLatency, 50), getPercentile(processingLatency, 99), getPercentile(processingLatency, 99.9));
+        metric.setDispatchLatency(getPercentile(dispatchLatency, 50), getPercentile(dispatchLatency, 99), getPercentile(dispatchLatency, 99.9));
+    }
+
+    private synchronized LatencyHistogram allocateProcessingLatency()
+    {
+        if (processingLatency == null)
+        {
+            processingLatency = new LatencyHistogram();
+        }
+        return processingLatency;
+    }
+
+    private synchronized LatencyHistogram allocateDispatchLatency()
+    {
+        if (dispatchLatency == null)
+        {
+            dispatchLatency = new LatencyHistogram();
+        }
+        return dispatchLatency;
+    }
+
+    private static long getPercentile(LatencyHistogram histogram, double percentile)
+    {
+        return histogram == null ? 0 : histogram.getValueAtPercentile(percentile);
+    }
+}
@@ -126,6 +126,10 @@ public class StatementMetricRepository
             metric.addCPUTime(cpu);
             metric.addWallTime(wall);
             metric.addNumInput(numInput);
+            if (wall > 0)   // input-only accounting, such as for on-merge into a named window, carries no time
+            {
+                array.getAddLatency(handle.getIndex()).addProcessingLatency(wall);
+            }
         }
         finally
         {
@@ -155,6 +159,51 @@ public class StatementMetricRepository
         }
     }
 
+    /**
+     * Account output delivery time.
+     * @param handle statement handle
+     * @param wall time
+     */
+    public void accountDispatch(StatementMetricHandle handle, long wall)
+    {
+        StatementMetricArray array = groupMetrics[handle.getGroupNum()];
+        array.getRwLock().acquireReadLock();
+        try
+        {
+            array.getAddMetric(handle.getIndex());
+            array.getAddLatency(handle.getIndex()).addDispatchLatency(wall);
+        }
+        finally
+        {
+            array.getRwLock().releaseReadLock();
+        }
+    }
+
+    /**
+     * Account asynchronous dispatch queue depth and dropped results.
+     * @param handle statement handle
+     * @param queueDepth number of results waiting for dispatch
+     * @param numDropped number of results dropped
+     */
+    public void accountDispatchQueue(StatementMetricHandle handle, int queueDepth, long numDropped)
+    {
+        StatementMetricArray array = groupMetrics[handle.getGroupNum()];
+        array.getRwLock().acquireReadLock();
+        try
+        {
+            StatementMetric metric = array.getAddMetric(handle.getIndex());
+            metric.addDispatchQueueDepth(queueDepth);
+            if (numDropped != 0)
+            {
+                metric.addNumDispatchDropped(numDropped);
+            }
+        }
+        finally
+        {
+            array.getRwLock().releaseReadLock();
+        }
+    }
+
     /**
      * Report for a given statement group.
      * @param group to report
@@ -10,6 +10,7 @@ package com.espertech.esper.epl.named;
 
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.epl.metric.MetricReportingService;
+import com.espertech.esper.epl.offheap.OffHeapRowStoreFactory;
 import com.espertech.esper.event.vaevent.ValueAddEventProcessor;
 import com.espertech.esper.util.AuditPath;
 import org.apache.commons.logging.Log;
@@ -32,14 +33,20 @@ public class NamedWindowRootView
     private final boolean isChildBatching;
     private final boolean isEnableIndexShare;
     private final Set<String> optionalUniqueKeyProps;
+    private final OffHeapRowStoreFactory optionalOffHeapRowStoreFactory;
 
-    public NamedWindowRootView(ValueAddEventProcessor revisionProcessor, boolean queryPlanLogging, MetricReportingService metricReportingService, EventType eventType, boolean childBatching, boolean isEnableIndexShare, Set<String> optionalUniqueKeyProps) {
+    public NamedWindowRootView(ValueAddEventProcessor revisionProcessor, boolean queryPlanLogging, MetricReportingService metricReportingService, EventType eventType, boolean childBatching, boolean isEnableIndexShare, Set<String> optionalUniqueKeyProps, OffHeapRowStoreFactory optionalOffHeapRowStoreFactory) {
         this.revisionProcessor = revisionProcessor;
         this.queryPlanLogging = queryPlanLogging;
         this.eventType = eventType;
         this.isChildBatching = childBatching;
         this.isEnableIndexShare = isEnableIndexShare;
         this.optionalUniqueKeyProps = optionalUniqueKeyProps;
+        this.optionalOffHeapRowStoreFactory = optionalOffHeapRowStoreFactory;
+    }
+
+    public OffHeapRowStoreFactory getOptionalOffHeapRowStoreFactory() {
+        return optionalOffHeapRowStoreFactory;
     }
 
     public Set<String> getOptionalUniqueKeyProps() {
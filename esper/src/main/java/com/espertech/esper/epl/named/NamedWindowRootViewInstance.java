@@ -18,6 +18,8 @@ import com.espertech.esper.epl.join.table.EventTable;
 import com.espertech.esper.epl.lookup.EventTableIndexRepository;
 import com.espertech.esper.epl.lookup.IndexMultiKey;
 import com.espertech.esper.epl.lookup.SubordWMatchExprLookupStrategy;
+import com.espertech.esper.epl.offheap.OffHeapObjectArrayEventBean;
+import com.espertech.esper.epl.offheap.OffHeapRowStore;
 import com.espertech.esper.epl.spec.CreateIndexItem;
 import com.espertech.esper.epl.virtualdw.VirtualDWView;
 import com.espertech.esper.filter.FilterSpecCompiled;
@@ -39,6 +41,7 @@ public class NamedWindowRootViewInstance extends ViewSupport
 
     private final EventTableIndexRepository indexRepository;
     private final Map<SubordWMatchExprLookupStrategy, EventTable[]> tablePerMultiLookup;
+    private final OffHeapRowStore offHeapRowStore;
 
     private Iterable<EventBean> dataWindowContents;
 
@@ -48,12 +51,21 @@ public class NamedWindowRootViewInstance extends ViewSupport
 
         this.indexRepository = new EventTableIndexRepository();
         this.tablePerMultiLookup = new HashMap<SubordWMatchExprLookupStrategy, EventTable[]>();
+        this.offHeapRowStore = rootView.getOptionalOffHeapRowStoreFactory() == null ? null : rootView.getOptionalOffHeapRowStoreFactory().make();
     }
 
     public EventTableIndexRepository getIndexRepository() {
         return indexRepository;
     }
 
+    /**
+     * Returns the off-heap row store, or null if the named window keeps rows on-heap.
+     * @return store
+     */
+    public OffHeapRowStore getOffHeapRowStore() {
+        return offHeapRowStore;
+    }
+
     public IndexMultiKey[] getIndexes() {
         return indexRepository.getIndexDescriptors();
     }
@@ -88,6 +100,14 @@ public class NamedWindowRootViewInstance extends ViewSupport
                 table.remove(oldData);
             }
         }
+
+        if (offHeapRowStore != null) {
+            for (EventBean removed : oldData) {
+                if (removed instanceof OffHeapObjectArrayEventBean) {
+                    offHeapRowStore.remove((OffHeapObjectArrayEventBean) removed);
+                }
+            }
+        }
     }
 
     /**
@@ -108,6 +128,10 @@ public class NamedWindowRootViewInstance extends ViewSupport
     // Called by deletion strategy and also the insert-into for new events only
     public void update(EventBean[] newData, EventBean[] oldData)
     {
+        if (offHeapRowStore != null && newData != null) {
+            newData = toOffHeap(newData);
+        }
+
         if (rootView.getRevisionProcessor() != null)
         {
             rootView.getRevisionProcessor().onUpdate(newData, oldData, this, indexRepository);
@@ -127,6 +151,14 @@ public class NamedWindowRootViewInstance extends ViewSupport
         }
     }
 
+    private EventBean[] toOffHeap(EventBean[] newData) {
+        EventBean[] stored = new EventBean[newData.length];
+        for (int i = 0; i < newData.length; i++) {
+            stored[i] = offHeapRowStore.add(newData[i]);
+        }
+        return stored;
+    }
+
     public void setParent(Viewable parent)
     {
         super.setParent(parent);
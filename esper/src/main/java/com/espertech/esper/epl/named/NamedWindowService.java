@@ -15,6 +15,7 @@ import com.espertech.esper.core.service.StatementResultService;
 import com.espertech.esper.core.service.resource.StatementResourceService;
 import com.espertech.esper.epl.lookup.IndexMultiKey;
 import com.espertech.esper.epl.metric.StatementMetricHandle;
+import com.espertech.esper.epl.offheap.OffHeapRowStoreFactory;
 import com.espertech.esper.event.vaevent.ValueAddEventProcessor;
 import com.espertech.esper.view.ViewProcessingException;
 
@@ -59,6 +60,7 @@ public interface NamedWindowService
      * @param eplExpression is the expression
      * @param statementName the name of the statement
      * @param isPrioritized if the engine is running with prioritized execution
+     * @param optionalOffHeapRowStoreFactory factory for off-heap row storage, or null for on-heap storage
      * @return processor for the named window
      * @throws ViewProcessingException if the named window already exists
      */
@@ -77,7 +79,8 @@ public interface NamedWindowService
                                              StatementMetricHandle statementMetricHandle,
                                              Set<String> optionalUniqueKeyProps,
                                              String eventTypeAsName,
-                                             StatementResourceService statementResourceService) throws ViewProcessingException;
+                                             StatementResourceService statementResourceService,
+                                             OffHeapRowStoreFactory optionalOffHeapRowStoreFactory) throws ViewProcessingException;
 
     /**
      * Returns the processing instance for a given named window.
@@ -99,6 +102,12 @@ public interface NamedWindowService
      */
     public boolean dispatch();
 
+    /**
+     * Returns true if there are no named window consumer dispatches outstanding for the current thread.
+     * @return indicator whether dispatch has nothing to execute
+     */
+    public boolean isDispatchEmpty();
+
     /**
      * For use to add a result of a named window that must be dispatched to consuming views.
      * @param delta is the result to dispatch
@@ -21,6 +21,7 @@ import com.espertech.esper.epl.lookup.IndexMultiKey;
 import com.espertech.esper.epl.metric.MetricReportingPath;
 import com.espertech.esper.epl.metric.MetricReportingService;
 import com.espertech.esper.epl.metric.StatementMetricHandle;
+import com.espertech.esper.epl.offheap.OffHeapRowStoreFactory;
 import com.espertech.esper.epl.variable.VariableService;
 import com.espertech.esper.event.vaevent.ValueAddEventProcessor;
 import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
@@ -147,14 +148,14 @@ public class NamedWindowServiceImpl implements NamedWindowService
                                              boolean isEnableSubqueryIndexShare, boolean isBatchingDataWindow,
                                              boolean isVirtualDataWindow, StatementMetricHandle statementMetricHandle,
                                              Set<String> optionalUniqueKeyProps, String eventTypeAsName,
-                                             StatementResourceService statementResourceService) throws ViewProcessingException
+                                             StatementResourceService statementResourceService, OffHeapRowStoreFactory optionalOffHeapRowStoreFactory) throws ViewProcessingException
     {
         if (processors.containsKey(name))
         {
             throw new ViewProcessingException("A named window by name '" + name + "' has already been created");
         }
 
-        NamedWindowProcessor processor = new NamedWindowProcessor(name, this, contextName, singleInstanceContext, eventType, statementResultService, revisionProcessor, eplExpression, statementName, isPrioritized, isEnableSubqueryIndexShare, enableQueryPlanLog, metricReportingService, isBatchingDataWindow, isVirtualDataWindow, statementMetricHandle, optionalUniqueKeyProps, eventTypeAsName, statementResourceService);
+        NamedWindowProcessor processor = new NamedWindowProcessor(name, this, contextName, singleInstanceContext, eventType, statementResultService, revisionProcessor, eplExpression, statementName, isPrioritized, isEnableSubqueryIndexShare, enableQueryPlanLog, metricReportingService, isBatchingDataWindow, isVirtualDataWindow, statementMetricHandle, optionalUniqueKeyProps, eventTypeAsName, statementResourceService, optionalOffHeapRowStoreFactory);
         processors.put(name, processor);
 
         if (!observers.isEmpty())
@@ -196,6 +197,11 @@ public class NamedWindowServiceImpl implements NamedWindowService
         }
     }
 
+    public boolean isDispatchEmpty()
+    {
+        return threadLocal.get().isEmpty();
+    }
+
     public boolean dispatch()
     {
         List<NamedWindowConsumerDispatchUnit> dispatches = threadLocal.get();
@@ -0,0 +1,186 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.offheap;
+
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.event.EventBeanSPI;
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
+
+/**
+ * Object-array event that holds its row in an off-heap store and materializes the property values on access.
+ * Simple property getters decode only the requested column, see {@link #getProperty(int)}.
+ * <p>
+ * Upon removal from the store the event retains its property values on-heap, so that consumers
+ * that receive the event as part of a remove stream see the same values.
+ */
+public class OffHeapObjectArrayEventBean implements EventBeanSPI, ObjectArrayBackedEventBean
+{
+    private final OffHeapRowStore store;
+    private final long address;
+    private EventType eventType;
+    private volatile Object[] detached;
+    private boolean removed;
+
+    /**
+     * Ctor.
+     * @param store store holding the row
+     * @param address row address
+     * @param eventType event type
+     */
+    public OffHeapObjectArrayEventBean(OffHeapRowStore store, long address, EventType eventType)
+    {
+        this.store = store;
+        this.address = address;
+        this.eventType = eventType;
+    }
+
+    public EventType getEventType()
+    {
+        return eventType;
+    }
+
+    public void setEventType(EventType eventType)
+    {
+        this.eventType = eventType;
+    }
+
+    public Object[] getProperties()
+    {
+        Object[] values = detached;
+        if (values != null) {
+            return values;
+        }
+        RuntimeException failure = null;
+        try {
+            values = store.read(address);
+        }
+        catch (RuntimeException ex) {
+            failure = ex;
+        }
+        // the row may have been removed and its block reused while reading
+        Object[] detachedNow = detached;
+        if (detachedNow != null) {
+            return detachedNow;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return values;
+    }
+
+    /**
+     * Returns a single property value, decoding only that column of the row.
+     * @param index property index
+     * @return property value
+     */
+    public Object getProperty(int index)
+    {
+        Object[] values = detached;
+        if (values != null) {
+            return values[index];
+        }
+        Object value = null;
+        RuntimeException failure = null;
+        try {
+            value = store.readColumn(address, index);
+        }
+        catch (RuntimeException ex) {
+            failure = ex;
+        }
+        // the row may have been removed and its block reused while reading
+        Object[] detachedNow = detached;
+        if (detachedNow != null) {
+            return detachedNow[index];
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return value;
+    }
+
+    public void setPropertyValues(Object[] propertyValues)
+    {
+        this.detached = propertyValues;
+    }
+
+    public void setUnderlying(Object underlying)
+    {
+        this.detached = (Object[]) underlying;
+    }
+
+    public Object getUnderlying()
+    {
+        return getProperties();
+    }
+
+    public Object get(String property) throws PropertyAccessException
+    {
+        EventPropertyGetter getter = eventType.getGetter(property);
+        if (getter == null)
+        {
+            throw new PropertyAccessException("Property named '" + property + "' is not a valid property name for this type");
+        }
+        return getter.get(this);
+    }
+
+    public Object getFragment(String propertyExpression) throws PropertyAccessException
+    {
+        EventPropertyGetter getter = eventType.getGetter(propertyExpression);
+        if (getter == null)
+        {
+            throw new PropertyAccessException("Property named '" + propertyExpression + "' is not a valid property name for this type");
+        }
+        return getter.getFragment(this);
+    }
+
+    /**
+     * Returns the store.
+     * @return store
+     */
+    public OffHeapRowStore getStore()
+    {
+        return store;
+    }
+
+    /**
+     * Returns the row address.
+     * @return address
+     */
+    public long getAddress()
+    {
+        return address;
+    }
+
+    /**
+     * Returns indicator whether the row has been removed from the store.
+     * @return removed indicator
+     */
+    public boolean isRemoved()
+    {
+        return removed;
+    }
+
+    /**
+     * Materializes the property values on-heap, for removal of the row from the store. Called by the store only.
+     * @return true if the row was not already removed
+     */
+    protected boolean detach()
+    {
+        if (removed) {
+            return false;
+        }
+        removed = true;
+        if (detached == null) {
+            detached = store.read(address);
+        }
+        return true;
+    }
+}
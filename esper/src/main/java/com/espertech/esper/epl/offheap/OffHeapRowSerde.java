@@ -0,0 +1,359 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.offheap;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.util.ObjectInputStreamWithTCCL;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serializes object-array rows into a compact tagged binary format, for storage outside of the Java heap.
+ * <p>
+ * Boxed primitives, characters and strings are written in binary form, any other value must be serializable
+ * and is written using Java serialization. Reading uses absolute positions only, so that concurrent
+ * readers may share the same buffer.
+ * <p>
+ * Writing is not thread-safe and requires a single writer.
+ */
+public class OffHeapRowSerde
+{
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_INT = 2;
+    private static final byte TAG_LONG = 3;
+    private static final byte TAG_DOUBLE = 4;
+    private static final byte TAG_BOOLEAN = 5;
+    private static final byte TAG_FLOAT = 6;
+    private static final byte TAG_SHORT = 7;
+    private static final byte TAG_BYTE = 8;
+    private static final byte TAG_CHAR = 9;
+    private static final byte TAG_SERIALIZED = 10;
+
+    private final List<byte[]> serialized = new ArrayList<byte[]>();
+
+    /**
+     * Computes the number of bytes for writing the row, and prepares any values that require Java serialization.
+     * Must be followed by a call to write for the same row.
+     * @param row to write
+     * @return number of bytes
+     */
+    public int prepare(Object[] row)
+    {
+        serialized.clear();
+        int size = 4;
+        for (Object value : row) {
+            size += 1;
+            if (value == null) {
+                continue;
+            }
+            Class clazz = value.getClass();
+            if (clazz == String.class) {
+                size += 4 + ((String) value).length() * 2;
+            }
+            else if (clazz == Integer.class || clazz == Float.class) {
+                size += 4;
+            }
+            else if (clazz == Long.class || clazz == Double.class) {
+                size += 8;
+            }
+            else if (clazz == Boolean.class || clazz == Byte.class) {
+                size += 1;
+            }
+            else if (clazz == Short.class || clazz == Character.class) {
+                size += 2;
+            }
+            else {
+                byte[] bytes = serialize(value);
+                serialized.add(bytes);
+                size += 4 + bytes.length;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Writes the row prepared by the last call to prepare.
+     * @param row to write
+     * @param buffer to write to
+     * @param position absolute position to write at
+     */
+    public void write(Object[] row, ByteBuffer buffer, int position)
+    {
+        int pos = position;
+        int serializedIndex = 0;
+        buffer.putInt(pos, row.length);
+        pos += 4;
+        for (Object value : row) {
+            if (value == null) {
+                buffer.put(pos++, TAG_NULL);
+                continue;
+            }
+            Class clazz = value.getClass();
+            if (clazz == String.class) {
+                String string = (String) value;
+                buffer.put(pos++, TAG_STRING);
+                buffer.putInt(pos, string.length());
+                pos += 4;
+                for (int i = 0; i < string.length(); i++) {
+                    buffer.putChar(pos, string.charAt(i));
+                    pos += 2;
+                }
+            }
+            else if (clazz == Integer.class) {
+                buffer.put(pos++, TAG_INT);
+                buffer.putInt(pos, (Integer) value);
+                pos += 4;
+            }
+            else if (clazz == Long.class) {
+                buffer.put(pos++, TAG_LONG);
+                buffer.putLong(pos, (Long) value);
+                pos += 8;
+            }
+            else if (clazz == Double.class) {
+                buffer.put(pos++, TAG_DOUBLE);
+                buffer.putDouble(pos, (Double) value);
+                pos += 8;
+            }
+            else if (clazz == Boolean.class) {
+                buffer.put(pos++, TAG_BOOLEAN);
+                buffer.put(pos++, (Boolean) value ? (byte) 1 : (byte) 0);
+            }
+            else if (clazz == Float.class) {
+                buffer.put(pos++, TAG_FLOAT);
+                buffer.putFloat(pos, (Float) value);
+                pos += 4;
+            }
+            else if (clazz == Short.class) {
+                buffer.put(pos++, TAG_SHORT);
+                buffer.putShort(pos, (Short) value);
+                pos += 2;
+            }
+            else if (clazz == Byte.class) {
+                buffer.put(pos++, TAG_BYTE);
+                buffer.put(pos++, (Byte) value);
+            }
+            else if (clazz == Character.class) {
+                buffer.put(pos++, TAG_CHAR);
+                buffer.putChar(pos, (Character) value);
+                pos += 2;
+            }
+            else {
+                byte[] bytes = serialized.get(serializedIndex++);
+                buffer.put(pos++, TAG_SERIALIZED);
+                buffer.putInt(pos, bytes.length);
+                pos += 4;
+                for (byte b : bytes) {
+                    buffer.put(pos++, b);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a row.
+     * @param buffer to read from
+     * @param position absolute position to read at
+     * @return row
+     */
+    public static Object[] read(ByteBuffer buffer, int position)
+    {
+        int pos = position;
+        int length = buffer.getInt(pos);
+        pos += 4;
+        Object[] row = new Object[length];
+        for (int i = 0; i < length; i++) {
+            byte tag = buffer.get(pos++);
+            switch (tag) {
+                case TAG_NULL:
+                    break;
+                case TAG_STRING:
+                    int numChars = buffer.getInt(pos);
+                    pos += 4;
+                    char[] chars = new char[numChars];
+                    for (int j = 0; j < numChars; j++) {
+                        chars[j] = buffer.getChar(pos);
+                        pos += 2;
+                    }
+                    row[i] = new String(chars);
+                    break;
+                case TAG_INT:
+                    row[i] = buffer.getInt(pos);
+                    pos += 4;
+                    break;
+                case TAG_LONG:
+                    row[i] = buffer.getLong(pos);
+                    pos += 8;
+                    break;
+                case TAG_DOUBLE:
+                    row[i] = buffer.getDouble(pos);
+                    pos += 8;
+                    break;
+                case TAG_BOOLEAN:
+                    row[i] = buffer.get(pos++) != 0;
+                    break;
+                case TAG_FLOAT:
+                    row[i] = buffer.getFloat(pos);
+                    pos += 4;
+                    break;
+                case TAG_SHORT:
+                    row[i] = buffer.getShort(pos);
+                    pos += 2;
+                    break;
+                case TAG_BYTE:
+                    row[i] = buffer.get(pos++);
+                    break;
+                case TAG_CHAR:
+                    row[i] = buffer.getChar(pos);
+                    pos += 2;
+                    break;
+                case TAG_SERIALIZED:
+                    int numBytes = buffer.getInt(pos);
+                    pos += 4;
+                    byte[] bytes = new byte[numBytes];
+                    for (int j = 0; j < numBytes; j++) {
+                        bytes[j] = buffer.get(pos++);
+                    }
+                    row[i] = deserialize(bytes);
+                    break;
+                default:
+                    throw new IllegalStateException("Unrecognized value tag " + tag + " reading off-heap row");
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Reads a single column of a row, skipping over the values of preceding columns without decoding them.
+     * @param buffer to read from
+     * @param position absolute position of the row
+     * @param column column index
+     * @return column value
+     */
+    public static Object readColumn(ByteBuffer buffer, int position, int column)
+    {
+        int pos = position;
+        int length = buffer.getInt(pos);
+        pos += 4;
+        if (column < 0 || column >= length) {
+            throw new IndexOutOfBoundsException("Column " + column + " out of range for off-heap row of " + length + " columns");
+        }
+        for (int i = 0; i < column; i++) {
+            byte tag = buffer.get(pos++);
+            switch (tag) {
+                case TAG_NULL:
+                    break;
+                case TAG_STRING:
+                    pos += 4 + buffer.getInt(pos) * 2;
+                    break;
+                case TAG_INT:
+                case TAG_FLOAT:
+                    pos += 4;
+                    break;
+                case TAG_LONG:
+                case TAG_DOUBLE:
+                    pos += 8;
+                    break;
+                case TAG_BOOLEAN:
+                case TAG_BYTE:
+                    pos += 1;
+                    break;
+                case TAG_SHORT:
+                case TAG_CHAR:
+                    pos += 2;
+                    break;
+                case TAG_SERIALIZED:
+                    pos += 4 + buffer.getInt(pos);
+                    break;
+                default:
+                    throw new IllegalStateException("Unrecognized value tag " + tag + " reading off-heap row");
+            }
+        }
+        return readValue(buffer, pos);
+    }
+
+    private static Object readValue(ByteBuffer buffer, int position)
+    {
+        int pos = position;
+        byte tag = buffer.get(pos++);
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                int numChars = buffer.getInt(pos);
+                pos += 4;
+                char[] chars = new char[numChars];
+                for (int j = 0; j < numChars; j++) {
+                    chars[j] = buffer.getChar(pos);
+                    pos += 2;
+                }
+                return new String(chars);
+            case TAG_INT:
+                return buffer.getInt(pos);
+            case TAG_LONG:
+                return buffer.getLong(pos);
+            case TAG_DOUBLE:
+                return buffer.getDouble(pos);
+            case TAG_BOOLEAN:
+                return buffer.get(pos) != 0;
+            case TAG_FLOAT:
+                return buffer.getFloat(pos);
+            case TAG_SHORT:
+                return buffer.getShort(pos);
+            case TAG_BYTE:
+                return buffer.get(pos);
+            case TAG_CHAR:
+                return buffer.getChar(pos);
+            case TAG_SERIALIZED:
+                int numBytes = buffer.getInt(pos);
+                pos += 4;
+                byte[] bytes = new byte[numBytes];
+                for (int j = 0; j < numBytes; j++) {
+                    bytes[j] = buffer.get(pos++);
+                }
+                return deserialize(bytes);
+            default:
+                throw new IllegalStateException("Unrecognized value tag " + tag + " reading off-heap row");
+        }
+    }
+
+    private static byte[] serialize(Object value)
+    {
+        if (!(value instanceof Serializable)) {
+            throw new EPException("Failed to store value of type " + value.getClass().getName() + " off-heap, the value does not implement " + Serializable.class.getName());
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream(bytes);
+            out.writeObject(value);
+            out.close();
+            return bytes.toByteArray();
+        }
+        catch (IOException ex) {
+            throw new EPException("Failed to serialize value of type " + value.getClass().getName() + " for off-heap storage: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static Object deserialize(byte[] bytes)
+    {
+        try {
+            ObjectInputStream in = new ObjectInputStreamWithTCCL(new ByteArrayInputStream(bytes));
+            return in.readObject();
+        }
+        catch (IOException ex) {
+            throw new EPException("Failed to deserialize value from off-heap storage: " + ex.getMessage(), ex);
+        }
+        catch (ClassNotFoundException ex) {
+            throw new EPException("Failed to deserialize value from off-heap storage: " + ex.getMessage(), ex);
+        }
+    }
+}
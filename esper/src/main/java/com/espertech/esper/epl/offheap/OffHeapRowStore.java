@@ -0,0 +1,192 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.offheap;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Keeps object-array rows outside of the Java heap, in direct byte buffer segments.
+ * <p>
+ * Space is allocated in blocks of power-of-two size classes, with a free list per size class for reuse
+ * of blocks of removed rows and a bump allocator for the remainder of the current segment.
+ * A row is addressed by its segment number in the upper and its offset in the lower 32 bits of a long.
+ * Each block starts with the size class followed by the row serialized by {@link OffHeapRowSerde}.
+ * <p>
+ * Adding and removing rows requires a single writer, as provided by the named window lock.
+ * Reading rows is thread-safe as reads use absolute buffer positions only.
+ */
+public class OffHeapRowStore
+{
+    private static final int MIN_SIZE_CLASS = 4;   // 16 bytes
+    private static final int NUM_SIZE_CLASSES = 31;
+
+    private final int segmentSize;
+    private final OffHeapRowSerde serde = new OffHeapRowSerde();
+    private final long[][] freeLists = new long[NUM_SIZE_CLASSES][];
+    private final int[] freeListSizes = new int[NUM_SIZE_CLASSES];
+
+    private volatile ByteBuffer[] segments = new ByteBuffer[0];
+    private int currentOffset;
+    private long numRows;
+    private long numBytesAllocated;
+
+    /**
+     * Ctor.
+     * @param segmentSize number of bytes per direct buffer segment
+     */
+    public OffHeapRowStore(int segmentSize)
+    {
+        if (segmentSize < (1 << MIN_SIZE_CLASS)) {
+            throw new IllegalArgumentException("Invalid segment size " + segmentSize);
+        }
+        this.segmentSize = segmentSize;
+        this.currentOffset = segmentSize;
+    }
+
+    /**
+     * Stores the row of the event and returns an event that reads its row from the store.
+     * @param theEvent object-array event to store
+     * @return off-heap event
+     */
+    public synchronized OffHeapObjectArrayEventBean add(EventBean theEvent)
+    {
+        Object[] row = (Object[]) theEvent.getUnderlying();
+        int length = 4 + serde.prepare(row);
+        int sizeClass = sizeClass(length);
+        int blockSize = 1 << sizeClass;
+        if (blockSize > segmentSize) {
+            throw new EPException("Row of " + length + " bytes exceeds the off-heap segment size of " + segmentSize + " bytes");
+        }
+
+        long address = allocate(sizeClass, blockSize);
+        ByteBuffer segment = segments[(int) (address >>> 32)];
+        int offset = (int) address;
+        segment.putInt(offset, sizeClass);
+        serde.write(row, segment, offset + 4);
+
+        numRows++;
+        numBytesAllocated += blockSize;
+        return new OffHeapObjectArrayEventBean(this, address, theEvent.getEventType());
+    }
+
+    /**
+     * Removes the row of the event from the store. The event retains its values on-heap, for use by any
+     * remaining references to the event.
+     * @param theEvent off-heap event
+     */
+    public synchronized void remove(OffHeapObjectArrayEventBean theEvent)
+    {
+        if (theEvent.getStore() != this || !theEvent.detach()) {
+            return;
+        }
+        long address = theEvent.getAddress();
+        int sizeClass = segments[(int) (address >>> 32)].getInt((int) address);
+        long[] freeList = freeLists[sizeClass];
+        if (freeList == null) {
+            freeList = new long[16];
+            freeLists[sizeClass] = freeList;
+        }
+        else if (freeListSizes[sizeClass] == freeList.length) {
+            long[] grown = new long[freeList.length * 2];
+            System.arraycopy(freeList, 0, grown, 0, freeList.length);
+            freeList = grown;
+            freeLists[sizeClass] = freeList;
+        }
+        freeList[freeListSizes[sizeClass]++] = address;
+
+        numRows--;
+        numBytesAllocated -= 1 << sizeClass;
+    }
+
+    /**
+     * Reads a row.
+     * @param address row address
+     * @return row values
+     */
+    public Object[] read(long address)
+    {
+        ByteBuffer segment = segments[(int) (address >>> 32)];
+        return OffHeapRowSerde.read(segment, (int) address + 4);
+    }
+
+    /**
+     * Reads a single column of a row.
+     * @param address row address
+     * @param column column index
+     * @return column value
+     */
+    public Object readColumn(long address, int column)
+    {
+        ByteBuffer segment = segments[(int) (address >>> 32)];
+        return OffHeapRowSerde.readColumn(segment, (int) address + 4, column);
+    }
+
+    /**
+     * Returns the number of rows currently stored.
+     * @return rows
+     */
+    public synchronized long getNumRows()
+    {
+        return numRows;
+    }
+
+    /**
+     * Returns the number of bytes allocated to rows currently stored, including the unused remainder of each block.
+     * @return bytes
+     */
+    public synchronized long getNumBytesAllocated()
+    {
+        return numBytesAllocated;
+    }
+
+    /**
+     * Returns the number of direct buffer segments.
+     * @return segments
+     */
+    public int getNumSegments()
+    {
+        return segments.length;
+    }
+
+    /**
+     * Returns the segment size in bytes.
+     * @return segment size
+     */
+    public int getSegmentSize()
+    {
+        return segmentSize;
+    }
+
+    private long allocate(int sizeClass, int blockSize)
+    {
+        if (freeListSizes[sizeClass] > 0) {
+            return freeLists[sizeClass][--freeListSizes[sizeClass]];
+        }
+        if (currentOffset + blockSize > segmentSize) {
+            ByteBuffer[] grown = new ByteBuffer[segments.length + 1];
+            System.arraycopy(segments, 0, grown, 0, segments.length);
+            grown[segments.length] = ByteBuffer.allocateDirect(segmentSize);
+            segments = grown;
+            currentOffset = 0;
+        }
+        long address = ((long) (segments.length - 1) << 32) | currentOffset;
+        currentOffset += blockSize;
+        return address;
+    }
+
+    private static int sizeClass(int length)
+    {
+        int sizeClass = 32 - Integer.numberOfLeadingZeros(length - 1);
+        return sizeClass < MIN_SIZE_CLASS ? MIN_SIZE_CLASS : sizeClass;
+    }
+}
@@ -0,0 +1,49 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.offheap;
+
+/**
+ * Factory for off-heap row stores, one store per agent instance of a named window.
+ */
+public class OffHeapRowStoreFactory
+{
+    /**
+     * Default number of bytes per segment.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private final int segmentSize;
+
+    /**
+     * Ctor.
+     * @param segmentSize number of bytes per segment
+     */
+    public OffHeapRowStoreFactory(int segmentSize)
+    {
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Returns the number of bytes per segment.
+     * @return segment size
+     */
+    public int getSegmentSize()
+    {
+        return segmentSize;
+    }
+
+    /**
+     * Make a store.
+     * @return store
+     */
+    public OffHeapRowStore make()
+    {
+        return new OffHeapRowStore(segmentSize);
+    }
+}
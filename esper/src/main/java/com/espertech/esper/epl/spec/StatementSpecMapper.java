@@ -2613,6 +2613,20 @@ public class StatementSpecMapper
         {
             return new PlugInProjectionExpression("nth", false);
         }
+        else if (expr instanceof ExprPercentileNode)
+        {
+            ExprPercentileNode percentileNode = (ExprPercentileNode) expr;
+            return new PlugInProjectionExpression(percentileNode.getAggregationFunctionName(), percentileNode.isDistinct());
+        }
+        else if (expr instanceof ExprApproxPercentileNode)
+        {
+            ExprApproxPercentileNode approxNode = (ExprApproxPercentileNode) expr;
+            return new PlugInProjectionExpression(approxNode.getAggregationFunctionName(), approxNode.isDistinct());
+        }
+        else if (expr instanceof ExprApproxCountDistinctNode)
+        {
+            return new PlugInProjectionExpression("approxCountDistinct", false);
+        }
         else if (expr instanceof ExprLeavingAggNode)
         {
             return new PlugInProjectionExpression("leaving", false);
@@ -0,0 +1,137 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.epl.table.mgmt;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.event.ObjectArrayBackedEventBean;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Columnar projection of the rows of a table, for use by fire-and-forget queries that aggregate plain columns.
+ * <p>
+ * The projection is a snapshot of the row property arrays in scan order. Columns are materialized on first use,
+ * numeric columns as primitive long or double arrays and any column as dictionary codes.
+ * The table state instance discards the projection when rows are added, removed or plain columns are updated.
+ */
+public class TableColumnarProjection {
+
+    private final Object[][] rows;
+    private final long[][] longColumns;
+    private final double[][] doubleColumns;
+    private final boolean[][] nullColumns;
+    private final int[][] codeColumns;
+    private final Object[][] dictionaries;
+
+    public TableColumnarProjection(Collection<EventBean> events, int numColumns) {
+        rows = new Object[events.size()][];
+        int count = 0;
+        for (EventBean event : events) {
+            rows[count++] = ((ObjectArrayBackedEventBean) event).getProperties();
+        }
+        longColumns = new long[numColumns][];
+        doubleColumns = new double[numColumns][];
+        nullColumns = new boolean[numColumns][];
+        codeColumns = new int[numColumns][];
+        dictionaries = new Object[numColumns][];
+    }
+
+    public int getNumRows() {
+        return rows.length;
+    }
+
+    public Object getValue(int row, int column) {
+        return rows[row][column];
+    }
+
+    public synchronized long[] getLongs(int column) {
+        if (longColumns[column] == null) {
+            long[] values = new long[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                Number value = (Number) rows[i][column];
+                if (value != null) {
+                    values[i] = value.longValue();
+                }
+            }
+            longColumns[column] = values;
+        }
+        return longColumns[column];
+    }
+
+    public synchronized double[] getDoubles(int column) {
+        if (doubleColumns[column] == null) {
+            double[] values = new double[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                Number value = (Number) rows[i][column];
+                if (value != null) {
+                    values[i] = value.doubleValue();
+                }
+            }
+            doubleColumns[column] = values;
+        }
+        return doubleColumns[column];
+    }
+
+    public synchronized boolean[] getNulls(int column) {
+        if (nullColumns[column] == null) {
+            boolean[] nulls = new boolean[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                nulls[i] = rows[i][column] == null;
+            }
+            nullColumns[column] = nulls;
+        }
+        return nullColumns[column];
+    }
+
+    /**
+     * Returns the dictionary code of each row, the codes being assigned in order of first appearance.
+     * @param column column
+     * @return codes
+     */
+    public synchronized int[] getCodes(int column) {
+        if (codeColumns[column] == null) {
+            encode(column);
+        }
+        return codeColumns[column];
+    }
+
+    /**
+     * Returns the distinct values of the column indexed by dictionary code.
+     * @param column column
+     * @return values
+     */
+    public synchronized Object[] getDictionary(int column) {
+        if (dictionaries[column] == null) {
+            encode(column);
+        }
+        return dictionaries[column];
+    }
+
+    private void encode(int column) {
+        Map<Object, Integer> codesPerValue = new HashMap<Object, Integer>();
+        int[] codes = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            Object value = rows[i][column];
+            Integer code = codesPerValue.get(value);
+            if (code == null) {
+                code = codesPerValue.size();
+                codesPerValue.put(value, code);
+            }
+            codes[i] = code;
+        }
+        Object[] dictionary = new Object[codesPerValue.size()];
+        for (Map.Entry<Object, Integer> entry : codesPerValue.entrySet()) {
+            dictionary[entry.getValue()] = entry.getKey();
+        }
+        codeColumns[column] = codes;
+        dictionaries[column] = dictionary;
+    }
+}
@@ -44,6 +44,7 @@ public class TableMetadata {
     private final ObjectArrayEventType publicEventType;
     private final TableMetadataInternalEventToPublic eventToPublic;
     private final boolean queryPlanLogging;
+    private final boolean columnarProjection;
 
     private final Map<String, List<TableUpdateStrategyReceiverDesc>> stmtNameToUpdateStrategyReceivers = new HashMap<String, List<TableUpdateStrategyReceiverDesc>>();
     private final EventTableIndexMetadata eventTableIndexMetadataRepo = new EventTableIndexMetadata();
@@ -52,7 +53,7 @@ public class TableMetadata {
     private TableMetadataContext tableMetadataContext;
     private TableRowKeyFactory tableRowKeyFactory;
 
-    public TableMetadata(String tableName, String eplExpression, String statementName, Class[] keyTypes, Map<String, TableMetadataColumn> tableColumns, TableStateRowFactory rowFactory, int numberMethodAggregations, StatementResourceService createTableResources, String contextName, ObjectArrayEventType internalEventType, ObjectArrayEventType publicEventType, TableMetadataInternalEventToPublic eventToPublic, boolean queryPlanLogging, String createTableStatementName)
+    public TableMetadata(String tableName, String eplExpression, String statementName, Class[] keyTypes, Map<String, TableMetadataColumn> tableColumns, TableStateRowFactory rowFactory, int numberMethodAggregations, StatementResourceService createTableResources, String contextName, ObjectArrayEventType internalEventType, ObjectArrayEventType publicEventType, TableMetadataInternalEventToPublic eventToPublic, boolean queryPlanLogging, String createTableStatementName, boolean columnarProjection)
             throws ExprValidationException
     {
         this.tableName = tableName;
@@ -68,6 +69,7 @@ public class TableMetadata {
         this.publicEventType = publicEventType;
         this.eventToPublic = eventToPublic;
         this.queryPlanLogging = queryPlanLogging;
+        this.columnarProjection = columnarProjection;
 
         if (keyTypes.length > 0) {
             Pair<int[], IndexMultiKey> pair = TableServiceUtil.getIndexMultikeyForKeys(tableColumns, internalEventType);
@@ -108,6 +110,10 @@ public class TableMetadata {
         return queryPlanLogging;
     }
 
+    public boolean isColumnarProjection() {
+        return columnarProjection;
+    }
+
     public Set<String> getUniqueKeyProps() {
         Set<String> keys = new LinkedHashSet<String>();
         for (Map.Entry<String, TableMetadataColumn> entry : tableColumns.entrySet()) {
@@ -13,6 +13,7 @@ package com.espertech.esper.epl.table.mgmt;
 
 import com.espertech.esper.client.ConfigurationPlugInAggregationMultiFunction;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.core.context.util.AgentInstanceContext;
 import com.espertech.esper.core.service.StatementContext;
@@ -79,7 +80,8 @@ public class TableServiceImpl implements TableService {
     }
 
     public TableMetadata addTable(String tableName, String eplExpression, String statementName, Class[] keyTypes, Map<String, TableMetadataColumn> tableColumns, TableStateRowFactory tableStateRowFactory, int numberMethodAggregations, StatementContext statementContext, ObjectArrayEventType internalEventType, ObjectArrayEventType publicEventType, TableMetadataInternalEventToPublic eventToPublic, boolean queryPlanLogging) throws ExprValidationException {
-        final TableMetadata metadata = new TableMetadata(tableName, eplExpression, statementName, keyTypes, tableColumns, tableStateRowFactory, numberMethodAggregations, statementContext.getStatementExtensionServicesContext().getStmtResources(), statementContext.getContextName(), internalEventType, publicEventType, eventToPublic, queryPlanLogging, statementContext.getStatementName());
+        boolean columnarProjection = HintEnum.COLUMNAR_PROJECTION.getHint(statementContext.getAnnotations()) != null;
+        final TableMetadata metadata = new TableMetadata(tableName, eplExpression, statementName, keyTypes, tableColumns, tableStateRowFactory, numberMethodAggregations, statementContext.getStatementExtensionServicesContext().getStmtResources(), statementContext.getContextName(), internalEventType, publicEventType, eventToPublic, queryPlanLogging, statementContext.getStatementName(), columnarProjection);
 
         // determine table state factory
         TableStateFactory tableStateFactory;
@@ -31,6 +31,7 @@ public abstract class TableStateInstance {
     protected final AgentInstanceContext agentInstanceContext;
     private final ReentrantReadWriteLock tableLevelRWLock = new ReentrantReadWriteLock();
     protected final EventTableIndexRepository indexRepository = new EventTableIndexRepository();
+    private TableColumnarProjection columnarProjection;
 
     public abstract Iterable<EventBean> getIterableTableScan();
     public abstract void addEvent(EventBean theEvent);
@@ -49,6 +50,26 @@ public abstract class TableStateInstance {
         }
     }
 
+    /**
+     * Returns the columnar projection of the rows, building the projection if rows changed since it was last built.
+     * The caller must hold the table-level lock.
+     * @return projection
+     */
+    public synchronized TableColumnarProjection getColumnarProjection() {
+        if (columnarProjection == null) {
+            columnarProjection = new TableColumnarProjection(getEventCollection(), tableMetadata.getInternalEventType().getPropertyNames().length);
+        }
+        return columnarProjection;
+    }
+
+    /**
+     * Discards the columnar projection, for use when rows are added or removed or plain columns change.
+     * The caller must hold the table-level write lock.
+     */
+    public void invalidateColumnarProjection() {
+        columnarProjection = null;
+    }
+
     public void addEventUnadorned(EventBean event) {
         ObjectArrayBackedEventBean oa = (ObjectArrayBackedEventBean) event;
         AggregationRowPair aggs = tableMetadata.getRowFactory().makeAggs(agentInstanceContext.getAgentInstanceId(), null, null);
@@ -88,6 +109,6 @@ public abstract class TableStateInstance {
         if (InstrumentationHelper.ENABLED) {
             InstrumentationHelper.get().qaTableUpdatedEventWKeyAfter(updatedEvent);
         }
-        // no action
+        invalidateColumnarProjection();
     }
 }
@@ -82,6 +82,7 @@ public class TableStateInstanceGroupBy extends TableStateInstance {
 
     public void addEvent(EventBean theEvent) {
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qTableAddEvent(theEvent); }
+        invalidateColumnarProjection();
         try {
             for (EventTable table : indexRepository.getTables()) {
                 table.add(theEvent);
@@ -100,6 +101,7 @@ public class TableStateInstanceGroupBy extends TableStateInstance {
 
     public void deleteEvent(EventBean matchingEvent) {
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qTableDeleteEvent(matchingEvent); }
+        invalidateColumnarProjection();
         for (EventTable table : indexRepository.getTables()) {
             table.remove(matchingEvent);
         }
@@ -127,6 +129,7 @@ public class TableStateInstanceGroupBy extends TableStateInstance {
     }
 
     public void clearEvents() {
+        invalidateColumnarProjection();
         rows.clear();
         for (EventTable table : indexRepository.getTables()) {
             table.clear();
@@ -48,12 +48,14 @@ public class TableStateInstanceUngrouped extends TableStateInstance implements I
                     "is a declared to hold a single un-keyed row");
         }
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qTableAddEvent(theEvent); }
+        invalidateColumnarProjection();
         eventReference.set((ObjectArrayBackedEventBean) theEvent);
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aTableAddEvent(); }
     }
 
     public void deleteEvent(EventBean matchingEvent) {
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qTableDeleteEvent(matchingEvent); }
+        invalidateColumnarProjection();
         eventReference.set(null);
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aTableDeleteEvent(); }
     }
@@ -84,6 +86,7 @@ public class TableStateInstanceUngrouped extends TableStateInstance implements I
     }
 
     public void clearEvents() {
+        invalidateColumnarProjection();
         eventReference.set(null);
     }
 
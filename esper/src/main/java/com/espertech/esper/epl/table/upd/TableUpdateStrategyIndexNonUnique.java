@@ -61,6 +61,7 @@ public class TableUpdateStrategyIndexNonUnique implements TableUpdateStrategy {
 
             // apply in-place updates
             updateHelper.updateNoCopy(updatedEvent, eventsPerStream, exprEvaluatorContext);
+            instance.invalidateColumnarProjection();
             instance.handleRowUpdated(updatedEvent);
         }
 
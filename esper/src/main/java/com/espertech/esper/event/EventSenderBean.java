@@ -72,7 +72,7 @@ public class EventSenderBean implements EventSender
             }
         }
 
-        EventBean eventBean = getEventBean(theEvent);
+        EventBean eventBean = getEventBean(theEvent, "sendEvent");
 
         // Process event
         if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading()))
@@ -85,14 +85,40 @@ public class EventSenderBean implements EventSender
         }
     }
 
+    public void sendEvents(Object[] theEvents)
+    {
+        EventBean[] eventBeans = new EventBean[theEvents.length];
+        for (int i = 0; i < theEvents.length; i++)
+        {
+            eventBeans[i] = getEventBean(theEvents[i], "sendEvents");
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading()))
+        {
+            for (EventBean eventBean : eventBeans)
+            {
+                threadingService.submitInbound(new InboundUnitSendWrapped(eventBean, runtime));
+            }
+        }
+        else
+        {
+            runtime.processWrappedEvents(eventBeans);
+        }
+    }
+
     public void route(Object theEvent) throws EPException
     {
-        EventBean eventBean = getEventBean(theEvent);
+        EventBean eventBean = getEventBean(theEvent, "route");
         runtime.routeEventBean(eventBean);
     }
 
-    private EventBean getEventBean(Object theEvent)
+    private EventBean getEventBean(Object theEvent, String methodName)
     {
+        if (theEvent == null)
+        {
+            throw new NullPointerException("No event object provided to " + methodName + " method");
+        }
+
         // type check
         if (theEvent.getClass() != beanEventType.getUnderlyingType())
         {
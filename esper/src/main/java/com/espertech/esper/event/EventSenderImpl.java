@@ -52,6 +52,14 @@ public class EventSenderImpl implements EventSender
         sendIn(theEvent, false);
     }
 
+    public void sendEvents(Object[] theEvents) throws EPException
+    {
+        for (Object theEvent : theEvents)
+        {
+            sendIn(theEvent, false);
+        }
+    }
+
     public void route(Object theEvent) throws EPException
     {
         sendIn(theEvent, true);
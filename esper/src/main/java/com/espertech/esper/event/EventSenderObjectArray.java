@@ -46,13 +46,7 @@ public class EventSenderObjectArray implements EventSender
 
     public void sendEvent(Object theEvent)
     {
-        if (!(theEvent.getClass().isArray()))
-        {
-            throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected Object[]");
-        }
-        
-        Object[] arr = (Object[]) theEvent;
-        EventBean objectArrayEvent = eventAdapterService.adapterForTypedObjectArray(arr, objectArrayEventType);
+        EventBean objectArrayEvent = getEventBean(theEvent);
 
         if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading()))
         {
@@ -64,14 +58,40 @@ public class EventSenderObjectArray implements EventSender
         }
     }
 
+    public void sendEvents(Object[] theEvents)
+    {
+        EventBean[] eventBeans = new EventBean[theEvents.length];
+        for (int i = 0; i < theEvents.length; i++)
+        {
+            eventBeans[i] = getEventBean(theEvents[i]);
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading()))
+        {
+            for (EventBean eventBean : eventBeans)
+            {
+                threadingService.submitInbound(new InboundUnitSendWrapped(eventBean, runtimeEventSender));
+            }
+        }
+        else
+        {
+            runtimeEventSender.processWrappedEvents(eventBeans);
+        }
+    }
+
     public void route(Object theEvent)
+    {
+        EventBean objectArrayEvent = getEventBean(theEvent);
+        runtimeEventSender.routeEventBean(objectArrayEvent);
+    }
+
+    private EventBean getEventBean(Object theEvent)
     {
         if (!(theEvent.getClass().isArray()))
         {
             throw new EPException("Unexpected event object of type " + theEvent.getClass().getName() + ", expected Object[]");
         }
         Object[] arr = (Object[]) theEvent;
-        EventBean objectArrayEvent = eventAdapterService.adapterForTypedObjectArray(arr, objectArrayEventType);
-        runtimeEventSender.routeEventBean(objectArrayEvent);
+        return eventAdapterService.adapterForTypedObjectArray(arr, objectArrayEventType);
     }
 }
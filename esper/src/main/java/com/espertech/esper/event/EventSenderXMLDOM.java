@@ -60,7 +60,48 @@ public class EventSenderXMLDOM implements EventSender
         sendEvent(theEvent, true);
     }
 
+    public void sendEvents(Object[] theEvents)
+    {
+        EventBean[] eventBeans = new EventBean[theEvents.length];
+        for (int i = 0; i < theEvents.length; i++)
+        {
+            eventBeans[i] = getEventBean(theEvents[i]);
+        }
+
+        if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading()))
+        {
+            for (EventBean eventBean : eventBeans)
+            {
+                threadingService.submitInbound(new InboundUnitSendWrapped(eventBean, runtimeEventSender));
+            }
+        }
+        else
+        {
+            runtimeEventSender.processWrappedEvents(eventBeans);
+        }
+    }
+
     private void sendEvent(Object node, boolean isRoute) throws EPException
+    {
+        EventBean theEvent = getEventBean(node);
+        if (isRoute)
+        {
+            runtimeEventSender.routeEventBean(theEvent);
+        }
+        else
+        {
+            if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading()))
+            {
+                threadingService.submitInbound(new InboundUnitSendWrapped(theEvent, runtimeEventSender));
+            }
+            else
+            {
+                runtimeEventSender.processWrappedEvent(theEvent);
+            }
+        }
+    }
+
+    private EventBean getEventBean(Object node) throws EPException
     {
         Node namedNode;
         if (node instanceof Document)
@@ -90,21 +131,6 @@ public class EventSenderXMLDOM implements EventSender
             }
         }
 
-        EventBean theEvent = eventAdapterService.adapterForTypedDOM(namedNode, baseXMLEventType);
-        if (isRoute)
-        {
-            runtimeEventSender.routeEventBean(theEvent);
-        }
-        else
-        {
-            if ((ThreadingOption.isThreadingEnabled) && (threadingService.isInboundThreading()))
-            {
-                threadingService.submitInbound(new InboundUnitSendWrapped(theEvent, runtimeEventSender));
-            }
-            else
-            {
-                runtimeEventSender.processWrappedEvent(theEvent);
-            }
-        }
+        return eventAdapterService.adapterForTypedDOM(namedNode, baseXMLEventType);
     }
 }
@@ -10,6 +10,7 @@ package com.espertech.esper.event.arr;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.epl.offheap.OffHeapObjectArrayEventBean;
 import com.espertech.esper.event.BaseNestableEventUtil;
 import com.espertech.esper.event.EventAdapterService;
 import com.espertech.esper.event.bean.BeanEventType;
@@ -45,6 +46,10 @@ public class ObjectArrayEntryPropertyGetter implements ObjectArrayEventPropertyG
 
     public Object get(EventBean obj)
     {
+        if (obj instanceof OffHeapObjectArrayEventBean) {
+            // decode only this column rather than the whole off-heap row
+            return ((OffHeapObjectArrayEventBean) obj).getProperty(propertyIndex);
+        }
         Object[] arr = BaseNestableEventUtil.checkedCastUnderlyingObjectArray(obj);
         return getObjectArray(arr);
     }
@@ -0,0 +1,89 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.event.bean;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.event.EventAdapterService;
+import com.espertech.esper.event.vaevent.PropertyUtility;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Base class for property getters generated by {@link CodegenPropertyGetterFactory} that invoke the read method
+ * directly, without reflection or a CGLib FastMethod lookup.
+ */
+public abstract class CodegenPropertyGetter extends BaseNativePropertyGetter implements BeanEventPropertyGetter
+{
+    private final Method method;
+    private final Class beanClass;
+
+    /**
+     * Constructor.
+     * @param eventAdapterService factory for event beans and event types
+     * @param method the underlying method
+     * @param beanClass the class the generated getter casts the underlying object to
+     */
+    protected CodegenPropertyGetter(EventAdapterService eventAdapterService, Method method, Class beanClass)
+    {
+        super(eventAdapterService, method.getReturnType(), JavaClassHelper.getGenericReturnType(method, true));
+        this.method = method;
+        this.beanClass = beanClass;
+    }
+
+    /**
+     * Invokes the read method, implemented by the generated class.
+     * @param object to invoke the read method on
+     * @return property value, boxed if the method returns a primitive
+     */
+    protected abstract Object invokeRead(Object object);
+
+    public Object getBeanProp(Object object) throws PropertyAccessException
+    {
+        try
+        {
+            return invokeRead(object);
+        }
+        catch (ClassCastException e)
+        {
+            if (!beanClass.isInstance(object))
+            {
+                throw PropertyUtility.getMismatchException(method, object, e);
+            }
+            throw PropertyUtility.getInvocationTargetException(method, new InvocationTargetException(e));
+        }
+        catch (Exception e)
+        {
+            throw PropertyUtility.getInvocationTargetException(method, new InvocationTargetException(e));
+        }
+    }
+
+    public boolean isBeanExistsProperty(Object object)
+    {
+        return true; // Property exists as the property is not dynamic (unchecked)
+    }
+
+    public final Object get(EventBean obj) throws PropertyAccessException
+    {
+        return getBeanProp(obj.getUnderlying());
+    }
+
+    public boolean isExistsProperty(EventBean eventBean)
+    {
+        return true; // Property exists as the property is not dynamic (unchecked)
+    }
+
+    public String toString()
+    {
+        return "CodegenPropertyGetter " +
+                "method=" + method.toString();
+    }
+}
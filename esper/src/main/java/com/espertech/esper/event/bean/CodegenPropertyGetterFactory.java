@@ -0,0 +1,192 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.event.bean;
+
+import com.espertech.esper.event.EventAdapterService;
+import net.sf.cglib.asm.ClassWriter;
+import net.sf.cglib.asm.MethodVisitor;
+import net.sf.cglib.asm.Opcodes;
+import net.sf.cglib.asm.Type;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates a getter class per read method of a bean event type, using the ASM library that is part of CGLib.
+ * <p>
+ * The generated getter casts the underlying object to the bean class and invokes the read method directly,
+ * boxing primitive return values, so that the JIT compiler can inline the read method into the getter.
+ * Only public no-argument methods of public classes are eligible.
+ */
+public class CodegenPropertyGetterFactory
+{
+    private static final Log log = LogFactory.getLog(CodegenPropertyGetterFactory.class);
+
+    private static final String BASE_CLASS = Type.getInternalName(CodegenPropertyGetter.class);
+    private static final String GENERATED_PACKAGE = "com/espertech/esper/event/bean/gen/";
+    private static final String CTOR_DESCRIPTOR = Type.getMethodDescriptor(Type.VOID_TYPE, new Type[] {Type.getType(EventAdapterService.class), Type.getType(Method.class), Type.getType(Class.class)});
+    private static final String READ_DESCRIPTOR = Type.getMethodDescriptor(Type.getType(Object.class), new Type[] {Type.getType(Object.class)});
+
+    private static final AtomicInteger classCounter = new AtomicInteger();
+    private static final Map<ClassLoader, WeakReference<GetterClassLoader>> loaders = new WeakHashMap<ClassLoader, WeakReference<GetterClassLoader>>();
+
+    /**
+     * Returns indicator whether a getter can be generated for the method.
+     * @param method read method
+     * @param beanClass class of the underlying object
+     * @return indicator
+     */
+    public static boolean isApplicable(Method method, Class beanClass)
+    {
+        return method.getParameterTypes().length == 0 &&
+               method.getReturnType() != void.class &&
+               Modifier.isPublic(method.getModifiers()) &&
+               !Modifier.isStatic(method.getModifiers()) &&
+               Modifier.isPublic(beanClass.getModifiers()) &&
+               method.getDeclaringClass().isAssignableFrom(beanClass) &&
+               isAccessible(beanClass);
+    }
+
+    /**
+     * Generates a getter for the read method, returns null if the getter could not be generated.
+     * @param method read method
+     * @param beanClass class of the underlying object
+     * @param eventAdapterService factory for event beans and event types
+     * @return getter or null if not applicable
+     */
+    public static CodegenPropertyGetter make(Method method, Class beanClass, EventAdapterService eventAdapterService)
+    {
+        if (!isApplicable(method, beanClass))
+        {
+            return null;
+        }
+        try
+        {
+            String className = GENERATED_PACKAGE + "Getter_" + beanClass.getSimpleName() + "_" + method.getName() + "_" + classCounter.incrementAndGet();
+            byte[] bytes = generate(className, method, beanClass);
+            Class<?> getterClass = getLoader(beanClass.getClassLoader()).define(className.replace('/', '.'), bytes);
+            Constructor ctor = getterClass.getConstructor(EventAdapterService.class, Method.class, Class.class);
+            return (CodegenPropertyGetter) ctor.newInstance(eventAdapterService, method, beanClass);
+        }
+        catch (Throwable t)
+        {
+            log.debug("Unable to generate getter for method " + method + ", msg=" + t.getMessage(), t);
+            return null;
+        }
+    }
+
+    private static byte[] generate(String className, Method method, Class beanClass)
+    {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V1_5, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, className, null, BASE_CLASS, null);
+
+        MethodVisitor ctor = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", CTOR_DESCRIPTOR, null, null);
+        ctor.visitCode();
+        ctor.visitVarInsn(Opcodes.ALOAD, 0);
+        ctor.visitVarInsn(Opcodes.ALOAD, 1);
+        ctor.visitVarInsn(Opcodes.ALOAD, 2);
+        ctor.visitVarInsn(Opcodes.ALOAD, 3);
+        ctor.visitMethodInsn(Opcodes.INVOKESPECIAL, BASE_CLASS, "<init>", CTOR_DESCRIPTOR);
+        ctor.visitInsn(Opcodes.RETURN);
+        ctor.visitMaxs(0, 0);
+        ctor.visitEnd();
+
+        String owner = Type.getInternalName(beanClass);
+        Class returnType = method.getReturnType();
+        MethodVisitor read = cw.visitMethod(Opcodes.ACC_PROTECTED, "invokeRead", READ_DESCRIPTOR, null, null);
+        read.visitCode();
+        read.visitVarInsn(Opcodes.ALOAD, 1);
+        read.visitTypeInsn(Opcodes.CHECKCAST, owner);
+        read.visitMethodInsn(beanClass.isInterface() ? Opcodes.INVOKEINTERFACE : Opcodes.INVOKEVIRTUAL, owner, method.getName(), Type.getMethodDescriptor(method));
+        if (returnType.isPrimitive())
+        {
+            Class boxed = getBoxed(returnType);
+            read.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(boxed), "valueOf", Type.getMethodDescriptor(Type.getType(boxed), new Type[] {Type.getType(returnType)}));
+        }
+        read.visitInsn(Opcodes.ARETURN);
+        read.visitMaxs(0, 0);
+        read.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static Class getBoxed(Class primitive)
+    {
+        if (primitive == int.class) return Integer.class;
+        if (primitive == long.class) return Long.class;
+        if (primitive == double.class) return Double.class;
+        if (primitive == boolean.class) return Boolean.class;
+        if (primitive == float.class) return Float.class;
+        if (primitive == short.class) return Short.class;
+        if (primitive == byte.class) return Byte.class;
+        if (primitive == char.class) return Character.class;
+        throw new IllegalArgumentException("Unrecognized primitive type " + primitive);
+    }
+
+    private static boolean isAccessible(Class clazz)
+    {
+        for (Class enclosing = clazz; enclosing != null; enclosing = enclosing.getEnclosingClass())
+        {
+            if (!Modifier.isPublic(enclosing.getModifiers()))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static synchronized GetterClassLoader getLoader(ClassLoader parent)
+    {
+        WeakReference<GetterClassLoader> ref = loaders.get(parent);
+        GetterClassLoader loader = ref == null ? null : ref.get();
+        if (loader == null)
+        {
+            loader = new GetterClassLoader(parent);
+            loaders.put(parent, new WeakReference<GetterClassLoader>(loader));
+        }
+        return loader;
+    }
+
+    /**
+     * Class loader for generated getters, resolves bean classes through the bean class loader and
+     * engine classes through the engine class loader.
+     */
+    private static class GetterClassLoader extends ClassLoader
+    {
+        private GetterClassLoader(ClassLoader parent)
+        {
+            super(parent);
+        }
+
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException
+        {
+            try
+            {
+                return super.loadClass(name, resolve);
+            }
+            catch (ClassNotFoundException ex)
+            {
+                return CodegenPropertyGetterFactory.class.getClassLoader().loadClass(name);
+            }
+        }
+
+        private synchronized Class<?> define(String name, byte[] bytes)
+        {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
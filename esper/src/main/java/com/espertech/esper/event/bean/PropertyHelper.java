@@ -50,11 +50,15 @@ public class PropertyHelper
             log.warn(".getAccessors Unable to obtain CGLib fast method implementation, msg=" + ex.getMessage());
         }
 
-        // Construct the appropriate property getter CGLib or reflect
+        // Construct the appropriate property getter: generated, CGLib or reflect
         EventPropertyGetter getter;
         if (fastMethod != null)
         {
-            getter = new CGLibPropertyGetter(method, fastMethod, eventAdapterService);
+            getter = CodegenPropertyGetterFactory.make(method, fastClass.getJavaClass(), eventAdapterService);
+            if (getter == null)
+            {
+                getter = new CGLibPropertyGetter(method, fastMethod, eventAdapterService);
+            }
         }
         else
         {
@@ -0,0 +1,28 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Index for filter parameter constants to match using the equals (=) operator,
+ * for a lookupable returning double or float values.
+ * <p>
+ * Keys are the bit representation of the value, consistent with Double and Float equals semantics.
+ */
+public final class FilterParamIndexEqualsDouble extends FilterParamIndexEqualsPrimitiveBase
+{
+    public FilterParamIndexEqualsDouble(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, Class boxedType) {
+        super(lookupable, readWriteLock, boxedType);
+    }
+
+    protected long toKey(Object value) {
+        return Double.doubleToLongBits(((Number) value).doubleValue());
+    }
+}
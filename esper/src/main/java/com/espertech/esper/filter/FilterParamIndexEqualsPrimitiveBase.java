@@ -0,0 +1,128 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.LongKeyMapConcurrentRead;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Index for filter parameter constants to match using the equals (=) operator, for a lookupable
+ * that returns a numeric type.
+ * <p>
+ * Constants of the lookupable's boxed type are kept in a hash map keyed by the primitive long representation
+ * of the value and all other constants in a concurrent hash map. Matching events does not take the read lock,
+ * while changes to the index must hold the write lock.
+ */
+public abstract class FilterParamIndexEqualsPrimitiveBase extends FilterParamIndexLookupableBase
+{
+    private final Class keyClass;
+    private final LongKeyMapConcurrentRead<EventEvaluator> keyedConstants;
+    private final Map<Object, EventEvaluator> otherConstants;
+    private final ReadWriteLock constantsMapRWLock;
+    private volatile EventEvaluator nullConstantEvaluator;
+
+    /**
+     * Returns the primitive long representation of a value of the key class,
+     * such that two values are equal if and only if their representations are equal.
+     * @param value to convert, of the key class
+     * @return key
+     */
+    protected abstract long toKey(Object value);
+
+    protected FilterParamIndexEqualsPrimitiveBase(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock, Class keyClass) {
+        super(FilterOperator.EQUAL, lookupable);
+        this.keyClass = keyClass;
+        this.keyedConstants = new LongKeyMapConcurrentRead<EventEvaluator>();
+        this.otherConstants = new ConcurrentHashMap<Object, EventEvaluator>();
+        this.constantsMapRWLock = readWriteLock;
+    }
+
+    public final EventEvaluator get(Object filterConstant)
+    {
+        if (filterConstant == null) {
+            return nullConstantEvaluator;
+        }
+        if (filterConstant.getClass() == keyClass) {
+            return keyedConstants.get(toKey(filterConstant));
+        }
+        return otherConstants.get(filterConstant);
+    }
+
+    public final void put(Object filterConstant, EventEvaluator evaluator)
+    {
+        if (filterConstant == null) {
+            nullConstantEvaluator = evaluator;
+        }
+        else if (filterConstant.getClass() == keyClass) {
+            keyedConstants.put(toKey(filterConstant), evaluator);
+        }
+        else {
+            otherConstants.put(filterConstant, evaluator);
+        }
+    }
+
+    public final boolean remove(Object filterConstant)
+    {
+        if (filterConstant == null) {
+            boolean found = nullConstantEvaluator != null;
+            nullConstantEvaluator = null;
+            return found;
+        }
+        if (filterConstant.getClass() == keyClass) {
+            return keyedConstants.remove(toKey(filterConstant)) != null;
+        }
+        return otherConstants.remove(filterConstant) != null;
+    }
+
+    public final int size()
+    {
+        return keyedConstants.size() + otherConstants.size() + (nullConstantEvaluator == null ? 0 : 1);
+    }
+
+    public final ReadWriteLock getReadWriteLock()
+    {
+        return constantsMapRWLock;
+    }
+
+    public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
+    {
+        Object attributeValue = lookupable.getGetter().get(theEvent);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qFilterReverseIndex(this, attributeValue);}
+
+        if (attributeValue == null) {   //  null cannot match, not even null: requires use of "is"
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(false);}
+            return;
+        }
+
+        // Look up in hashtable, no lock required
+        EventEvaluator evaluator;
+        if (attributeValue.getClass() == keyClass) {
+            evaluator = keyedConstants.get(toKey(attributeValue));
+        }
+        else {
+            evaluator = otherConstants.get(attributeValue);
+        }
+
+        // No listener found for the value, return
+        if (evaluator == null)
+        {
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(false);}
+            return;
+        }
+
+        evaluator.matchEvent(theEvent, matches);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(true);}
+    }
+}
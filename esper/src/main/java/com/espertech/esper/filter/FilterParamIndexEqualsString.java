@@ -0,0 +1,98 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Index for filter parameter constants to match using the equals (=) operator, for a lookupable
+ * returning string values.
+ * <p>
+ * The implementation is based on a ConcurrentHashMap. Matching events does not take the read lock,
+ * while changes to the index must hold the write lock.
+ */
+public final class FilterParamIndexEqualsString extends FilterParamIndexLookupableBase
+{
+    private final Map<Object, EventEvaluator> constantsMap;
+    private final ReadWriteLock constantsMapRWLock;
+    private volatile EventEvaluator nullConstantEvaluator;
+
+    public FilterParamIndexEqualsString(FilterSpecLookupable lookupable, ReadWriteLock readWriteLock) {
+        super(FilterOperator.EQUAL, lookupable);
+        constantsMap = new ConcurrentHashMap<Object, EventEvaluator>();
+        constantsMapRWLock = readWriteLock;
+    }
+
+    public final EventEvaluator get(Object filterConstant)
+    {
+        if (filterConstant == null) {
+            return nullConstantEvaluator;
+        }
+        return constantsMap.get(filterConstant);
+    }
+
+    public final void put(Object filterConstant, EventEvaluator evaluator)
+    {
+        if (filterConstant == null) {
+            nullConstantEvaluator = evaluator;
+            return;
+        }
+        constantsMap.put(filterConstant, evaluator);
+    }
+
+    public final boolean remove(Object filterConstant)
+    {
+        if (filterConstant == null) {
+            boolean found = nullConstantEvaluator != null;
+            nullConstantEvaluator = null;
+            return found;
+        }
+        return constantsMap.remove(filterConstant) != null;
+    }
+
+    public final int size()
+    {
+        return constantsMap.size() + (nullConstantEvaluator == null ? 0 : 1);
+    }
+
+    public final ReadWriteLock getReadWriteLock()
+    {
+        return constantsMapRWLock;
+    }
+
+    public final void matchEvent(EventBean theEvent, Collection<FilterHandle> matches)
+    {
+        Object attributeValue = lookupable.getGetter().get(theEvent);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qFilterReverseIndex(this, attributeValue);}
+
+        if (attributeValue == null) {   //  null cannot match, not even null: requires use of "is"
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(false);}
+            return;
+        }
+
+        // Look up in hashtable, no lock required
+        EventEvaluator evaluator = constantsMap.get(attributeValue);
+
+        // No listener found for the value, return
+        if (evaluator == null)
+        {
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(false);}
+            return;
+        }
+
+        evaluator.matchEvent(theEvent, matches);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aFilterReverseIndex(true);}
+    }
+}
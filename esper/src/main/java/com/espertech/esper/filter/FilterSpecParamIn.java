@@ -12,7 +12,7 @@ import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.pattern.MatchedEventMap;
 
-import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 
 /**
@@ -119,22 +119,15 @@ public final class FilterSpecParamIn extends FilterSpecParam
             return false;
         }
 
-        if (listOfValues.size() != other.listOfValues.size())
-        {
-            return false;
-        }
-
-        if (!(Arrays.deepEquals(listOfValues.toArray(), other.listOfValues.toArray())))
-        {
-            return false;
-        }
-        return true;
+        // the order of values in the in-list carries no meaning, compare as sets so that
+        // statements listing the same values in different order can share an event stream
+        return new HashSet<FilterSpecParamInValue>(listOfValues).equals(new HashSet<FilterSpecParamInValue>(other.listOfValues));
     }
 
     public int hashCode()
     {
         int result = super.hashCode();
-        result = 31 * result + (listOfValues != null ? listOfValues.hashCode() : 0);
+        result = 31 * result + (listOfValues != null ? new HashSet<FilterSpecParamInValue>(listOfValues).hashCode() : 0);
         return result;
     }
 }
@@ -8,6 +8,8 @@
  **************************************************************************************/
 package com.espertech.esper.filter;
 
+import com.espertech.esper.util.JavaClassHelper;
+
 /**
  * Factory for {@link FilterParamIndexBase} instances based on event property name and filter operator type.
  */
@@ -26,10 +28,22 @@ public class IndexFactory
         FilterParamIndexBase index;
         Class returnValueType = lookupable.getReturnType();
 
-        // Handle all EQUAL comparisons
+        // Handle all EQUAL comparisons, using a lock-free index for numeric and string values
         if (filterOperator == FilterOperator.EQUAL)
         {
-            index = new FilterParamIndexEquals(lookupable, lockFactory.obtainNew());
+            Class boxedType = JavaClassHelper.getBoxedType(returnValueType);
+            if (boxedType == Long.class || boxedType == Integer.class || boxedType == Short.class || boxedType == Byte.class) {
+                index = new FilterParamIndexEqualsLong(lookupable, lockFactory.obtainNew(), boxedType);
+            }
+            else if (boxedType == Double.class || boxedType == Float.class) {
+                index = new FilterParamIndexEqualsDouble(lookupable, lockFactory.obtainNew(), boxedType);
+            }
+            else if (boxedType == String.class) {
+                index = new FilterParamIndexEqualsString(lookupable, lockFactory.obtainNew());
+            }
+            else {
+                index = new FilterParamIndexEquals(lookupable, lockFactory.obtainNew());
+            }
             return index;
         }
 
@@ -0,0 +1,521 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esper.schedule;
+
+import com.espertech.esper.client.util.DateTime;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.metrics.jmx.JmxGetter;
+import com.espertech.esper.timer.TimeSourceService;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.*;
+
+/**
+ * Implements the schedule service as a hierarchical timing wheel.
+ * <p>
+ * Each wheel level has 64 buckets and each level covers 6 more bits of the millisecond time than the level below.
+ * A handle is placed into the lowest level at which its trigger time shares the higher-order bits with the wheel time,
+ * at the bucket given by the trigger time bits for that level. Adding and removing a handle are constant-time
+ * operations on a doubly-linked bucket list. Advancing the wheel fires the buckets passed over entirely and
+ * cascades the partially-passed bucket down to lower levels, and a per-level bit mask of non-empty buckets makes
+ * large time jumps cheap.
+ * <p>
+ * Handles that trigger for the same evaluation are returned sorted by trigger time and then by {@link ScheduleSlot},
+ * same as {@link SchedulingServiceImpl}.
+ * <p>
+ * Synchronized since statement creation and event evaluation by multiple (event send) threads
+ * can lead to callbacks added/removed asynchronously.
+ */
+public final class SchedulingServiceTimingWheel implements SchedulingServiceSPI
+{
+    private static final int BITS_PER_LEVEL = 6;
+    private static final int BUCKETS_PER_LEVEL = 1 << BITS_PER_LEVEL;
+    private static final int BUCKET_MASK = BUCKETS_PER_LEVEL - 1;
+    private static final int NUM_LEVELS = 10;
+    private static final int LEVEL_DUE = -1;
+    private static final int LEVEL_OVERFLOW = NUM_LEVELS;
+
+    // Wheel levels, each an array of bucket list heads
+    private final WheelEntry[][] buckets;
+
+    // Bit mask per level of non-empty buckets
+    private final long[] occupied;
+
+    // Handles at or before wheel time that are awaiting evaluation
+    private WheelEntry dueHead;
+
+    // Handles beyond the range of the highest wheel level
+    private WheelEntry overflowHead;
+
+    // Map of handle and entry for removal
+    private final Map<ScheduleHandle, WheelEntry> handleMap;
+
+    // Time up to which the wheel has been advanced
+    private long wheelTime;
+
+    // Current time - used for evaluation as well as for adding new handles
+    private volatile long currentTime;
+
+    /**
+     * Constructor.
+     * @param timeSourceService time source provider
+     */
+    public SchedulingServiceTimingWheel(TimeSourceService timeSourceService)
+    {
+        this.buckets = new WheelEntry[NUM_LEVELS][BUCKETS_PER_LEVEL];
+        this.occupied = new long[NUM_LEVELS];
+        this.handleMap = new HashMap<ScheduleHandle, WheelEntry>();
+        // initialize time to just before now as there is a check for duplicate external time events
+        this.currentTime = timeSourceService.getTimeMillis() - 1;
+        this.wheelTime = currentTime;
+    }
+
+    public synchronized void destroy()
+    {
+        log.debug("Destroying scheduling service");
+        handleMap.clear();
+        destroyBuckets();
+    }
+
+    public long getTime()
+    {
+        // note that this.currentTime is volatile
+        return this.currentTime;
+    }
+
+    public synchronized final void setTime(long currentTime)
+    {
+        this.currentTime = currentTime;
+        if (currentTime < wheelTime) {
+            // time moved backwards, rebuild the wheel relative to the new time
+            List<WheelEntry> entries = collectEntries();
+            destroyBuckets();
+            wheelTime = currentTime;
+            for (WheelEntry entry : entries) {
+                place(entry);
+            }
+        }
+    }
+
+    public synchronized final void add(long afterMSec, ScheduleHandle handle, ScheduleSlot slot)
+            throws ScheduleServiceException
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qScheduleAdd(currentTime, afterMSec, handle, slot);}
+        WheelEntry existing = handleMap.remove(handle);
+        if (existing != null) {
+            unlink(existing);
+        }
+
+        WheelEntry entry = new WheelEntry(handle, slot, currentTime + afterMSec);
+        place(entry);
+        handleMap.put(handle, entry);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleAdd();}
+    }
+
+    public synchronized final void remove(ScheduleHandle handle, ScheduleSlot slot)
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qScheduleRemove(handle, slot);}
+        WheelEntry entry = handleMap.remove(handle);
+        if (entry != null) {
+            unlink(entry);
+        }
+        // If it already has been removed then that's fine;
+        // Such could be the case when 2 timers fireStatementStopped at the same time, and one stops the other
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleRemove();}
+    }
+
+    public synchronized final void evaluate(Collection<ScheduleHandle> handles)
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().qScheduleEval(currentTime);}
+
+        List<WheelEntry> fired = null;
+        if (dueHead != null) {
+            fired = new ArrayList<WheelEntry>();
+            drainDue(fired);
+        }
+        if (currentTime > wheelTime) {
+            if (fired == null) {
+                fired = new ArrayList<WheelEntry>();
+            }
+            advance(currentTime, fired);
+        }
+
+        if (fired == null || fired.isEmpty()) {
+            if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleEval(Collections.<ScheduleHandle>emptyList());}
+            return;
+        }
+
+        if (fired.size() > 1) {
+            Collections.sort(fired, TIME_SLOT_COMPARATOR);
+        }
+        for (WheelEntry entry : fired) {
+            handleMap.remove(entry.handle);
+            handles.add(entry.handle);
+        }
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aScheduleEval(handles);}
+    }
+
+    public synchronized ScheduleSet take(Set<String> statementIds)
+    {
+        List<WheelEntry> taken = new ArrayList<WheelEntry>();
+        for (WheelEntry entry : collectEntries()) {
+            if (statementIds.contains(entry.handle.getStatementId())) {
+                taken.add(entry);
+            }
+        }
+        Collections.sort(taken, TIME_SLOT_COMPARATOR);
+
+        List<ScheduleSetEntry> list = new ArrayList<ScheduleSetEntry>(taken.size());
+        for (WheelEntry entry : taken) {
+            list.add(new ScheduleSetEntry(entry.time - currentTime, entry.slot, entry.handle));
+            handleMap.remove(entry.handle);
+            unlink(entry);
+        }
+        return new ScheduleSet(list);
+    }
+
+    public void apply(ScheduleSet scheduleSet)
+    {
+        for (ScheduleSetEntry entry : scheduleSet.getList())
+        {
+            add(entry.getTime(), entry.getHandle(), entry.getSlot());
+        }
+    }
+
+    public void init() {
+        // no action required
+    }
+
+    @JmxGetter(name = "TimeHandleCount", description = "Number of outstanding time evaluations")
+    public synchronized int getTimeHandleCount()
+    {
+        Set<Long> times = new HashSet<Long>();
+        for (WheelEntry entry : handleMap.values()) {
+            times.add(entry.time);
+        }
+        return times.size();
+    }
+
+    @JmxGetter(name = "FurthestTimeHandle", description = "Furthest outstanding time evaluation")
+    public String getFurthestTimeHandleDate()
+    {
+        Long handle = getFurthestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    @JmxGetter(name = "NearestTimeHandle", description = "Nearest outstanding time evaluation")
+    public String getNearestTimeHandleDate()
+    {
+        Long handle = getNearestTimeHandle();
+        if (handle != null) {
+            return DateTime.print(handle);
+        }
+        return null;
+    }
+
+    public synchronized Long getFurthestTimeHandle()
+    {
+        if (overflowHead != null) {
+            return maxTime(overflowHead);
+        }
+        for (int level = NUM_LEVELS - 1; level >= 0; level--) {
+            if (occupied[level] != 0) {
+                int bucket = 63 - Long.numberOfLeadingZeros(occupied[level]);
+                return maxTime(buckets[level][bucket]);
+            }
+        }
+        if (dueHead != null) {
+            return maxTime(dueHead);
+        }
+        return null;
+    }
+
+    public synchronized int getScheduleHandleCount()
+    {
+        return handleMap.size();
+    }
+
+    public synchronized boolean isScheduled(ScheduleHandle handle)
+    {
+        return handleMap.containsKey(handle);
+    }
+
+    public synchronized Long getNearestTimeHandle() {
+        if (dueHead != null) {
+            return minTime(dueHead);
+        }
+        for (int level = 0; level < NUM_LEVELS; level++) {
+            if (occupied[level] != 0) {
+                int bucket = Long.numberOfTrailingZeros(occupied[level]);
+                return minTime(buckets[level][bucket]);
+            }
+        }
+        if (overflowHead != null) {
+            return minTime(overflowHead);
+        }
+        return null;
+    }
+
+    public synchronized void visitSchedules(ScheduleVisitor visitor) {
+        List<WheelEntry> entries = collectEntries();
+        Collections.sort(entries, TIME_SLOT_COMPARATOR);
+        ScheduleVisit visit = new ScheduleVisit();
+        for (WheelEntry entry : entries) {
+            visit.setTimestamp(entry.time);
+            visit.setStatementId(entry.handle.getStatementId());
+            visit.setAgentInstanceId(entry.handle.getAgentInstanceId());
+            visitor.visit(visit);
+        }
+    }
+
+    /**
+     * Advance the wheel to the new time, collecting all entries triggering on or before the new time.
+     * @param newTime to advance to, must be greater then the wheel time
+     * @param fired collects entries to fire
+     */
+    private void advance(long newTime, List<WheelEntry> fired)
+    {
+        // find the lowest level at which the new time is still within the same parent block as the wheel time
+        int level = 0;
+        while (level < NUM_LEVELS && parent(newTime, level) != parent(wheelTime, level)) {
+            level++;
+        }
+
+        // all lower levels are entirely passed over
+        for (int lower = 0; lower < level && lower < NUM_LEVELS; lower++) {
+            long mask = occupied[lower];
+            while (mask != 0) {
+                int bucket = Long.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+                drainBucket(lower, bucket, fired);
+            }
+        }
+
+        WheelEntry pending;
+        if (level < NUM_LEVELS) {
+            // buckets between the wheel time and the new time are entirely passed over
+            int fromBucket = index(wheelTime, level);
+            int toBucket = index(newTime, level);
+            long mask = occupied[level] & ((1L << toBucket) - 1) & ~((1L << (fromBucket + 1)) - 1);
+            while (mask != 0) {
+                int bucket = Long.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+                drainBucket(level, bucket, fired);
+            }
+
+            // the bucket of the new time is partially passed over and must cascade
+            pending = buckets[level][toBucket];
+            buckets[level][toBucket] = null;
+            occupied[level] &= ~(1L << toBucket);
+        }
+        else {
+            pending = overflowHead;
+            overflowHead = null;
+        }
+
+        wheelTime = newTime;
+        while (pending != null) {
+            WheelEntry next = pending.next;
+            pending.prev = null;
+            pending.next = null;
+            if (pending.time <= newTime) {
+                pending.level = LEVEL_DUE;
+                fired.add(pending);
+            }
+            else {
+                place(pending);
+            }
+            pending = next;
+        }
+    }
+
+    private void place(WheelEntry entry)
+    {
+        long time = entry.time;
+        if (time <= wheelTime) {
+            entry.level = LEVEL_DUE;
+            entry.next = dueHead;
+            if (dueHead != null) {
+                dueHead.prev = entry;
+            }
+            dueHead = entry;
+            return;
+        }
+
+        for (int level = 0; level < NUM_LEVELS; level++) {
+            if (parent(time, level) == parent(wheelTime, level)) {
+                int bucket = index(time, level);
+                entry.level = level;
+                entry.bucket = bucket;
+                WheelEntry head = buckets[level][bucket];
+                entry.next = head;
+                if (head != null) {
+                    head.prev = entry;
+                }
+                buckets[level][bucket] = entry;
+                occupied[level] |= 1L << bucket;
+                return;
+            }
+        }
+
+        entry.level = LEVEL_OVERFLOW;
+        entry.next = overflowHead;
+        if (overflowHead != null) {
+            overflowHead.prev = entry;
+        }
+        overflowHead = entry;
+    }
+
+    private void unlink(WheelEntry entry)
+    {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        }
+        else if (entry.level == LEVEL_DUE) {
+            dueHead = entry.next;
+        }
+        else if (entry.level == LEVEL_OVERFLOW) {
+            overflowHead = entry.next;
+        }
+        else {
+            buckets[entry.level][entry.bucket] = entry.next;
+            if (entry.next == null) {
+                occupied[entry.level] &= ~(1L << entry.bucket);
+            }
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    private void drainBucket(int level, int bucket, List<WheelEntry> fired)
+    {
+        WheelEntry entry = buckets[level][bucket];
+        buckets[level][bucket] = null;
+        occupied[level] &= ~(1L << bucket);
+        drainList(entry, fired);
+    }
+
+    private void drainDue(List<WheelEntry> fired)
+    {
+        WheelEntry entry = dueHead;
+        dueHead = null;
+        drainList(entry, fired);
+    }
+
+    private void drainList(WheelEntry entry, List<WheelEntry> fired)
+    {
+        while (entry != null) {
+            WheelEntry next = entry.next;
+            entry.prev = null;
+            entry.next = null;
+            entry.level = LEVEL_DUE;
+            fired.add(entry);
+            entry = next;
+        }
+    }
+
+    private void destroyBuckets()
+    {
+        for (int level = 0; level < NUM_LEVELS; level++) {
+            Arrays.fill(buckets[level], null);
+            occupied[level] = 0;
+        }
+        dueHead = null;
+        overflowHead = null;
+    }
+
+    private List<WheelEntry> collectEntries()
+    {
+        List<WheelEntry> entries = new ArrayList<WheelEntry>(handleMap.size());
+        addList(dueHead, entries);
+        for (int level = 0; level < NUM_LEVELS; level++) {
+            long mask = occupied[level];
+            while (mask != 0) {
+                int bucket = Long.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+                addList(buckets[level][bucket], entries);
+            }
+        }
+        addList(overflowHead, entries);
+        return entries;
+    }
+
+    private static void addList(WheelEntry entry, List<WheelEntry> entries)
+    {
+        for (; entry != null; entry = entry.next) {
+            entries.add(entry);
+        }
+    }
+
+    private static long minTime(WheelEntry entry)
+    {
+        long min = entry.time;
+        for (entry = entry.next; entry != null; entry = entry.next) {
+            min = Math.min(min, entry.time);
+        }
+        return min;
+    }
+
+    private static long maxTime(WheelEntry entry)
+    {
+        long max = entry.time;
+        for (entry = entry.next; entry != null; entry = entry.next) {
+            max = Math.max(max, entry.time);
+        }
+        return max;
+    }
+
+    private static long parent(long time, int level)
+    {
+        return time >> (BITS_PER_LEVEL * (level + 1));
+    }
+
+    private static int index(long time, int level)
+    {
+        return (int) (time >> (BITS_PER_LEVEL * level)) & BUCKET_MASK;
+    }
+
+    private static final Comparator<WheelEntry> TIME_SLOT_COMPARATOR = new Comparator<WheelEntry>() {
+        public int compare(WheelEntry o1, WheelEntry o2) {
+            if (o1.time != o2.time) {
+                return o1.time < o2.time ? -1 : 1;
+            }
+            if (o1.slot == null || o2.slot == null) {
+                return o1.slot == null ? (o2.slot == null ? 0 : -1) : 1;
+            }
+            return o1.slot.compareTo(o2.slot);
+        }
+    };
+
+    private static final class WheelEntry
+    {
+        private final ScheduleHandle handle;
+        private final ScheduleSlot slot;
+        private final long time;
+        private int level;
+        private int bucket;
+        private WheelEntry prev;
+        private WheelEntry next;
+
+        private WheelEntry(ScheduleHandle handle, ScheduleSlot slot, long time) {
+            this.handle = handle;
+            this.slot = slot;
+            this.time = time;
+        }
+    }
+
+    private static final Log log = LogFactory.getLog(SchedulingServiceTimingWheel.class);
+}
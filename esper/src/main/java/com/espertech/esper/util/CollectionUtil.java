@@ -9,6 +9,7 @@
 package com.espertech.esper.util;
 
 import com.espertech.esper.client.EventBean;
+import com.espertech.esper.collection.ArrayDequeList;
 import com.espertech.esper.collection.MultiKey;
 import com.espertech.esper.collection.NullIterator;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
@@ -422,7 +423,7 @@ public class CollectionUtil
                 existingList.add(eventBean);
             }
             else {
-                List<EventBean> existingList = new LinkedList<EventBean>();
+                List<EventBean> existingList = new ArrayList<EventBean>();
                 existingList.add((EventBean)existing);
                 existingList.add(eventBean);
                 eventMap.put(sortKey, existingList);
@@ -440,7 +441,7 @@ public class CollectionUtil
             }
             else {
                 EventBean theEvent = (EventBean) current;
-                List<EventBean> events = new LinkedList<EventBean>();
+                List<EventBean> events = new ArrayDequeList<EventBean>();
                 events.add(bean);
                 events.add(theEvent);
                 eventMap.put(key, events);
@@ -11,6 +11,7 @@ package com.espertech.esper.view.ext;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.collection.ArrayMaxEventCollectionRO;
 import com.espertech.esper.collection.ArrayMaxEventIterator;
+import com.espertech.esper.collection.RankedRefCountedSet;
 import com.espertech.esper.view.window.RandomAccessByIndex;
 import com.espertech.esper.view.window.RandomAccessByIndexObserver;
 
@@ -21,12 +22,16 @@ import java.util.TreeMap;
 
 /**
  * Provides random access into a rank-window's data.
+ * <p>
+ * Positional access uses the per-key event counts maintained by the window
+ * and thus does not need to walk the sorted events.
  */
 public class IStreamSortRankRandomAccess implements RandomAccessByIndex
 {
     private final RandomAccessByIndexObserver updateObserver;
 
     private TreeMap<Object, Object> sortedEvents;
+    private RankedRefCountedSet<Object> sortedEventCounts;
     private int currentSize;
 
     private Iterator<Object> iterator;
@@ -45,13 +50,15 @@ public class IStreamSortRankRandomAccess implements RandomAccessByIndex
     /**
      * Refreshes the random access data with the updated information.
      * @param sortedEvents is the sorted window contents
+     * @param sortedEventCounts is the number of events per sort key of the window contents
      * @param currentSize is the current size of the window
      * @param maxSize is the maximum size of the window
      */
-    public void refresh(TreeMap<Object, Object> sortedEvents, int currentSize, int maxSize)
+    public void refresh(TreeMap<Object, Object> sortedEvents, RankedRefCountedSet<Object> sortedEventCounts, int currentSize, int maxSize)
     {
         updateObserver.updated(this);
         this.sortedEvents = sortedEvents;
+        this.sortedEventCounts = sortedEventCounts;
         this.currentSize = currentSize;
 
         this.iterator = null;
@@ -64,13 +71,8 @@ public class IStreamSortRankRandomAccess implements RandomAccessByIndex
 
     public EventBean getNewData(int index)
     {
-        if (iterator == null)
-        {
-            iterator = sortedEvents.values().iterator();
-        }
-
         // if asking for more then the sorted window currently holds, return no data
-        if (index >= currentSize)
+        if ((index >= currentSize) || (index < 0))
         {
             return null;
         }
@@ -81,45 +83,19 @@ public class IStreamSortRankRandomAccess implements RandomAccessByIndex
             return cache[index];
         }
 
-        // Load more into cache
-        while(true)
+        Object key = sortedEventCounts.getKeyAtIndex(index);
+        if (key == null)
         {
-            if (cacheFilledTo == currentSize)
-            {
-                break;
-            }
-            if (!iterator.hasNext())
-            {
-                break;
-            }
-            Object entry = iterator.next();
-            if (entry instanceof List) {
-                List<EventBean> events = (List<EventBean>) entry;
-                for (EventBean theEvent : events)
-                {
-                    cache[cacheFilledTo] = theEvent;
-                    cacheFilledTo++;
-                }
-            }
-            else {
-                EventBean theEvent = (EventBean) entry;
-                cache[cacheFilledTo] = theEvent;
-                cacheFilledTo++;
-            }
-
-            if (cacheFilledTo > index)
-            {
-                break;
-            }
+            return null;
         }
-
-        // If we have it in cache, serve from cache
-        if (index <= cacheFilledTo)
-        {
-            return cache[index];
+        Object entry = sortedEvents.get(key);
+        if (entry instanceof List) {
+            // lists of events sharing a key are random-access lists, thus indexed access is constant-time
+            List<EventBean> events = (List<EventBean>) entry;
+            int offset = index - sortedEventCounts.getIndexOfKey(key);
+            return offset < events.size() ? events.get(offset) : null;
         }
-
-        return null;
+        return (EventBean) entry;
     }
 
     public EventBean getOldData(int index)
@@ -129,14 +105,7 @@ public class IStreamSortRankRandomAccess implements RandomAccessByIndex
 
     public EventBean getNewDataTail(int index)
     {
-        initCache();
-
-        if ((index < cacheFilledTo) && (index >= 0))
-        {
-            return cache[cacheFilledTo - index - 1];
-        }
-
-        return null;
+        return getNewData(currentSize - index - 1);
     }
 
     public Iterator<EventBean> getWindowIterator()
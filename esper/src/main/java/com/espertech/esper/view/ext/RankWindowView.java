@@ -12,6 +12,7 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.collection.OneEventCollection;
+import com.espertech.esper.collection.RankedRefCountedSet;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
@@ -52,6 +53,7 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
 
     protected TreeMap<Object, Object> sortedEvents;   // key is computed sort-key, value is either List<EventBean> or EventBean
     protected Map<Object, Object> uniqueKeySortKeys;  // key is computed unique-key, value is computed sort-key
+    protected RankedRefCountedSet<Object> sortedEventCounts;  // number of events per sort-key, only when random access is required
     protected int numberOfEvents;
 
     /**
@@ -88,6 +90,9 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
         comparator = CollectionUtil.getComparator(sortCriteriaEvaluators, isSortUsingCollator, isDescendingValues);
         sortedEvents = new TreeMap<Object, Object>(comparator);
         uniqueKeySortKeys = new HashMap<Object, Object>();
+        if (optionalRankedRandomAccess != null) {
+            sortedEventCounts = new RankedRefCountedSet<Object>(comparator);
+        }
     }
 
     public View cloneView()
@@ -179,6 +184,9 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
                         Object uniqueKey = getUniqueValues(newestEvent);
                         uniqueKeySortKeys.remove(uniqueKey);
                         numberOfEvents--;
+                        if (sortedEventCounts != null) {
+                            sortedEventCounts.remove(lastKey);
+                        }
                         removedEvents.add(newestEvent);
                         internalHandleRemovedKey(existing, newestEvent);
                     }
@@ -191,6 +199,9 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
                     Object uniqueKey = getUniqueValues(lastSortedEvent);
                     uniqueKeySortKeys.remove(uniqueKey);
                     numberOfEvents--;
+                    if (sortedEventCounts != null) {
+                        sortedEventCounts.remove(lastKey);
+                    }
                     removedEvents.add(lastSortedEvent);
                     sortedEvents.remove(lastKey);
                     internalHandleRemovedKey(lastKey, lastSortedEvent);
@@ -201,7 +212,7 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
         // If there are child views, fireStatementStopped update method
         if (optionalRankedRandomAccess != null)
         {
-            optionalRankedRandomAccess.refresh(sortedEvents, numberOfEvents, sortWindowSize);
+            optionalRankedRandomAccess.refresh(sortedEvents, sortedEventCounts, numberOfEvents, sortWindowSize);
         }
         if (this.hasViews())
         {
@@ -245,6 +256,9 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
                 uniqueKeySortKeys.put(uniqueKey, newSortKey);
                 numberOfEvents++;
                 CollectionUtil.addEventByKeyLazyListMapBack(newSortKey, eventBean, sortedEvents);
+                if (sortedEventCounts != null) {
+                    sortedEventCounts.add(newSortKey);
+                }
                 internalHandleAddedKey(newSortKey, eventBean);
             }
         }
@@ -253,6 +267,9 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
             uniqueKeySortKeys.put(uniqueKey, newSortKey);
             numberOfEvents++;
             CollectionUtil.addEventByKeyLazyListMapBack(newSortKey, eventBean, sortedEvents);
+            if (sortedEventCounts != null) {
+                sortedEventCounts.add(newSortKey);
+            }
             internalHandleAddedKey(newSortKey, eventBean);
         }
     }
@@ -283,6 +300,9 @@ public class RankWindowView extends ViewSupport implements DataWindowView, Clone
                 sortedEvents.remove(sortKey);
             }
         }
+        if (removedOldEvent != null && sortedEventCounts != null) {
+            sortedEventCounts.remove(sortKey);
+        }
         return removedOldEvent;
     }
 
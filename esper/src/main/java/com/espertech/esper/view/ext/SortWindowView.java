@@ -12,6 +12,7 @@ import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.collection.OneEventCollection;
+import com.espertech.esper.collection.RankedRefCountedSet;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNode;
@@ -47,6 +48,7 @@ public class SortWindowView extends ViewSupport implements DataWindowView, Clone
     protected final AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext;
 
     protected TreeMap<Object, Object> sortedEvents;
+    protected RankedRefCountedSet<Object> sortedEventCounts;  // only when random access is required
     protected int eventCount;
 
     /**
@@ -78,6 +80,9 @@ public class SortWindowView extends ViewSupport implements DataWindowView, Clone
 
         Comparator<Object> comparator = CollectionUtil.getComparator(sortCriteriaEvaluators, isSortUsingCollator, isDescendingValues);
         sortedEvents = new TreeMap<Object, Object>(comparator);
+        if (optionalSortedRandomAccess != null) {
+            sortedEventCounts = new RankedRefCountedSet<Object>(comparator);
+        }
     }
 
     /**
@@ -135,6 +140,9 @@ public class SortWindowView extends ViewSupport implements DataWindowView, Clone
                 if (result)
                 {
                     eventCount--;
+                    if (sortedEventCounts != null) {
+                        sortedEventCounts.remove(sortValues);
+                    }
                     if (removedEvents == null) {
                         removedEvents = new OneEventCollection();
                     }
@@ -153,6 +161,9 @@ public class SortWindowView extends ViewSupport implements DataWindowView, Clone
                 Object sortValues = getSortValues(newDataItem);
                 CollectionUtil.addEventByKeyLazyListMapFront(sortValues, newDataItem, sortedEvents);
                 eventCount++;
+                if (sortedEventCounts != null) {
+                    sortedEventCounts.add(sortValues);
+                }
                 internalHandleAdd(sortValues, newDataItem);
             }
         }
@@ -166,6 +177,9 @@ public class SortWindowView extends ViewSupport implements DataWindowView, Clone
                 // Remove the last element of the last key - sort order is key and then natural order of arrival
                 Object lastKey = sortedEvents.lastKey();
                 Object lastEntry = sortedEvents.get(lastKey);
+                if (sortedEventCounts != null) {
+                    sortedEventCounts.remove(lastKey);
+                }
                 if (lastEntry instanceof List) {
                     List<EventBean> events = (List<EventBean>) lastEntry;
                     EventBean theEvent = events.remove(events.size() - 1);  // remove oldest event, newest events are first in list
@@ -195,7 +209,7 @@ public class SortWindowView extends ViewSupport implements DataWindowView, Clone
         // If there are child views, fireStatementStopped update method
         if (optionalSortedRandomAccess != null)
         {
-            optionalSortedRandomAccess.refresh(sortedEvents, eventCount, sortWindowSize);
+            optionalSortedRandomAccess.refresh(sortedEvents, sortedEventCounts, eventCount, sortWindowSize);
         }
 
         if (this.hasViews())
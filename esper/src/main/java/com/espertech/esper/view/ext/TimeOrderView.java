@@ -10,6 +10,7 @@ package com.espertech.esper.view.ext;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
+import com.espertech.esper.collection.RankedRefCountedSet;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.core.service.EPStatementHandleCallback;
 import com.espertech.esper.core.service.EngineLevelExtensionServicesContext;
@@ -57,6 +58,7 @@ public class TimeOrderView extends ViewSupport implements DataWindowView, Clonea
 
     private EventBean[] eventsPerStream = new EventBean[1];
     protected TreeMap<Object, Object> sortedEvents;
+    protected RankedRefCountedSet<Object> sortedEventCounts;  // only when random access is required
     protected boolean isCallbackScheduled;
     protected int eventCount;
 
@@ -83,6 +85,9 @@ public class TimeOrderView extends ViewSupport implements DataWindowView, Clonea
         this.scheduleSlot = agentInstanceContext.getStatementContext().getScheduleBucket().allocateSlot();
 
         sortedEvents = new TreeMap<Object, Object>();
+        if (optionalSortedRandomAccess != null) {
+            sortedEventCounts = new RankedRefCountedSet<Object>(null);
+        }
 
         ScheduleHandleCallback callback = new ScheduleHandleCallback() {
             public void scheduledTrigger(EngineLevelExtensionServicesContext extensionServicesContext)
@@ -137,6 +142,9 @@ public class TimeOrderView extends ViewSupport implements DataWindowView, Clonea
                 if (result)
                 {
                     eventCount--;
+                    if (sortedEventCounts != null) {
+                        sortedEventCounts.remove(sortValues);
+                    }
                     if (postOldEventsArray == null) {
                         postOldEventsArray = oldData;
                     }
@@ -188,6 +196,9 @@ public class TimeOrderView extends ViewSupport implements DataWindowView, Clonea
                     // add to list
                     CollectionUtil.addEventByKeyLazyListMapBack(timestamp, newEvent, sortedEvents);
                     eventCount++;
+                    if (sortedEventCounts != null) {
+                        sortedEventCounts.add(timestamp);
+                    }
                     internalHandleAdd(timestamp, newEvent);
                 }
             }
@@ -223,7 +234,7 @@ public class TimeOrderView extends ViewSupport implements DataWindowView, Clonea
 
             if (optionalSortedRandomAccess != null)
             {
-                optionalSortedRandomAccess.refresh(sortedEvents, eventCount, eventCount);
+                optionalSortedRandomAccess.refresh(sortedEvents, sortedEventCounts, eventCount, eventCount);
             }
         }
 
@@ -320,6 +331,9 @@ public class TimeOrderView extends ViewSupport implements DataWindowView, Clonea
                         releaseEvents.addAll(releasedEventList);
                     }
                     eventCount -= releasedEventList.size();
+                    if (sortedEventCounts != null) {
+                        sortedEventCounts.remove(oldestKey, releasedEventList.size());
+                    }
                     internalHandleExpired(oldestKey, releasedEventList);
                 }
                 else {
@@ -329,6 +343,9 @@ public class TimeOrderView extends ViewSupport implements DataWindowView, Clonea
                     }
                     releaseEvents.add(releasedEvent);
                     eventCount--;
+                    if (sortedEventCounts != null) {
+                        sortedEventCounts.remove(oldestKey);
+                    }
                     internalHandleExpired(oldestKey, releasedEvent);
                 }
             }
@@ -336,7 +353,7 @@ public class TimeOrderView extends ViewSupport implements DataWindowView, Clonea
 
         if (optionalSortedRandomAccess != null)
         {
-            optionalSortedRandomAccess.refresh(sortedEvents, eventCount, eventCount);
+            optionalSortedRandomAccess.refresh(sortedEvents, sortedEventCounts, eventCount, eventCount);
         }
 
         // If there are child views, do the update method
@@ -13,8 +13,10 @@ import com.espertech.esper.client.annotation.Hint;
 import com.espertech.esper.client.annotation.HintEnum;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
 import com.espertech.esper.core.service.StatementContext;
+import com.espertech.esper.epl.agg.service.GroupByCardinalityGovernor;
 import com.espertech.esper.epl.expression.core.ExprNode;
 import com.espertech.esper.epl.expression.core.ExprNodeUtility;
+import com.espertech.esper.epl.expression.core.ExprValidationException;
 import com.espertech.esper.view.*;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -43,11 +45,19 @@ public class GroupByViewFactory implements ViewFactory, GroupByViewFactoryMarker
     protected boolean isReclaimAged;
     protected double reclaimMaxAge;
     protected double reclaimFrequency;
+    protected Integer maxGroups;
 
     public void setViewParameters(ViewFactoryContext viewFactoryContext, List<ExprNode> expressionParameters) throws ViewParameterException
     {
         this.viewParameters = expressionParameters;
 
+        try {
+            maxGroups = GroupByCardinalityGovernor.getMaxGroupsHint(viewFactoryContext.getStatementContext().getAnnotations());
+        }
+        catch (ExprValidationException ex) {
+            throw new ViewParameterException(ex.getMessage());
+        }
+
         Hint reclaimGroupAged = HintEnum.RECLAIM_GROUP_AGED.getHint(viewFactoryContext.getStatementContext().getAnnotations());
 
         if (reclaimGroupAged != null) {
@@ -112,9 +122,9 @@ public class GroupByViewFactory implements ViewFactory, GroupByViewFactoryMarker
     public View makeView(AgentInstanceViewFactoryChainContext agentInstanceViewFactoryContext)
     {
         if (isReclaimAged) {
-            return new GroupByViewReclaimAged(agentInstanceViewFactoryContext, criteriaExpressions, ExprNodeUtility.getEvaluators(criteriaExpressions), reclaimMaxAge, reclaimFrequency);
+            return new GroupByViewReclaimAged(agentInstanceViewFactoryContext, criteriaExpressions, ExprNodeUtility.getEvaluators(criteriaExpressions), reclaimMaxAge, reclaimFrequency, maxGroups);
         }
-        return new GroupByViewImpl(agentInstanceViewFactoryContext, criteriaExpressions, ExprNodeUtility.getEvaluators(criteriaExpressions));
+        return new GroupByViewImpl(agentInstanceViewFactoryContext, criteriaExpressions, ExprNodeUtility.getEvaluators(criteriaExpressions), maxGroups);
     }
 
     public EventType getEventType()
@@ -129,7 +139,7 @@ public class GroupByViewFactory implements ViewFactory, GroupByViewFactoryMarker
             return false;
         }
 
-        if (isReclaimAged) {
+        if (isReclaimAged || maxGroups != null) {
             return false;
         }
 
@@ -14,6 +14,7 @@ import com.espertech.esper.client.EventType;
 import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
+import com.espertech.esper.epl.agg.service.GroupByCardinalityGovernor;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNode;
 import com.espertech.esper.epl.expression.core.ExprNodeUtility;
@@ -50,7 +51,9 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
     private EventBean[] eventsPerStream = new EventBean[1];
 
     protected String[] propertyNames;
-    protected final Map<Object, Object> subViewsPerKey = new HashMap<Object, Object>();
+    private final Integer maxGroups;
+    private final GroupByCardinalityGovernor governor;
+    protected final Map<Object, Object> subViewsPerKey;
 
     private final HashMap<Object, Pair<Object, Object>> groupedEvents = new HashMap<Object, Pair<Object, Object>>();
 
@@ -58,12 +61,16 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
      * Constructor.
      * @param criteriaExpressions is the fields from which to pull the values to group by
      * @param agentInstanceContext contains required view services
+     * @param maxGroups maximum number of groups or null if not capped
      */
-    public GroupByViewImpl(AgentInstanceViewFactoryChainContext agentInstanceContext, ExprNode[] criteriaExpressions, ExprEvaluator[] criteriaEvaluators)
+    public GroupByViewImpl(AgentInstanceViewFactoryChainContext agentInstanceContext, ExprNode[] criteriaExpressions, ExprEvaluator[] criteriaEvaluators, Integer maxGroups)
     {
         this.agentInstanceContext = agentInstanceContext;
         this.criteriaExpressions = criteriaExpressions;
         this.criteriaEvaluators = criteriaEvaluators;
+        this.maxGroups = maxGroups;
+        this.governor = GroupByCardinalityGovernor.make(maxGroups, agentInstanceContext.getAgentInstanceContext());
+        this.subViewsPerKey = GroupByCardinalityGovernor.makeGroupMap(governor);
 
         propertyNames = new String[criteriaExpressions.length];
         for (int i = 0; i < criteriaExpressions.length; i++)
@@ -74,7 +81,7 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
 
     public View cloneView()
     {
-        return new GroupByViewImpl(agentInstanceContext, criteriaExpressions, criteriaEvaluators);
+        return new GroupByViewImpl(agentInstanceContext, criteriaExpressions, criteriaEvaluators, maxGroups);
     }
 
     /**
@@ -146,6 +153,15 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
             groupedEvents.clear();
         }
 
+        // Evict least-recently-used groups after child views received the events
+        if (governor != null) {
+            Map.Entry<Object, Object> evicted;
+            while ((evicted = governor.evictEldest(subViewsPerKey)) != null) {
+                postSubviewsAsOldData(evicted.getValue());
+                removeSubviews(evicted.getValue());
+            }
+        }
+
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.get().aViewProcessIRStream();}
     }
 
@@ -315,6 +331,86 @@ public class GroupByViewImpl extends ViewSupport implements CloneableView, Group
         }
     }
 
+    /**
+     * Detaches and stops the sub-views of a group that is removed.
+     * @param subviewHolder single sub-view or list of sub-views
+     */
+    /**
+     * Posts the events of the subviews of a group as old data to the merge views, so that views and
+     * aggregations following the group view no longer account for the events of a group that is removed.
+     * @param subviewHolder view or list of views of the group
+     */
+    protected static void postSubviewsAsOldData(Object subviewHolder) {
+        if (subviewHolder instanceof List) {
+            List<View> subviews = (List<View>) subviewHolder;
+            for (View view : subviews) {
+                recursivePostAsOldData(view);
+            }
+        }
+        else if (subviewHolder instanceof View) {
+            recursivePostAsOldData((View) subviewHolder);
+        }
+    }
+
+    private static void recursivePostAsOldData(View view)
+    {
+        for (View child : view.getViews()) {
+            if (child instanceof MergeView) {
+                if (view instanceof GroupByView) {
+                    continue;   // nested group views cannot be iterated
+                }
+                ArrayDeque<EventBean> events = new ArrayDeque<EventBean>();
+                for (EventBean theEvent : view) {
+                    events.add(theEvent);
+                }
+                if (!events.isEmpty()) {
+                    child.update(null, events.toArray(new EventBean[events.size()]));
+                }
+            }
+            else {
+                recursivePostAsOldData(child);
+            }
+        }
+    }
+
+    protected static void removeSubviews(Object subviewHolder) {
+        if (subviewHolder instanceof List) {
+            List<View> subviews = (List<View>) subviewHolder;
+            for (View view : subviews) {
+                removeSubview(view);
+            }
+        }
+        else if (subviewHolder instanceof View) {
+            removeSubview((View) subviewHolder);
+        }
+    }
+
+    private static void removeSubview(View view) {
+        view.setParent(null);
+        recursiveMergeViewRemove(view);
+        if (view instanceof StoppableView) {
+            ((StoppableView) view).stopView();
+        }
+    }
+
+    private static void recursiveMergeViewRemove(View view)
+    {
+        for (View child : view.getViews()) {
+            if (child instanceof MergeView) {
+                MergeView mergeView = (MergeView) child;
+                mergeView.removeParentView(view);
+            }
+            else {
+                if (child instanceof StoppableView) {
+                    ((StoppableView) child).stopView();
+                }
+                if (child.getViews().length > 0) {
+                    recursiveMergeViewRemove(child);
+                }
+            }
+        }
+    }
+
     private static View copyChildView(GroupByView groupView, String[] propertyNames, Object groupByValues, AgentInstanceViewFactoryChainContext agentInstanceContext, View originalChildView) {
         if (originalChildView instanceof MergeView)
         {
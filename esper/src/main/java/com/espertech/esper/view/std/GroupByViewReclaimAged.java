@@ -13,6 +13,7 @@ import com.espertech.esper.client.EventType;
 import com.espertech.esper.collection.MultiKeyUntyped;
 import com.espertech.esper.collection.Pair;
 import com.espertech.esper.core.context.util.AgentInstanceViewFactoryChainContext;
+import com.espertech.esper.epl.agg.service.GroupByCardinalityGovernor;
 import com.espertech.esper.epl.expression.core.ExprEvaluator;
 import com.espertech.esper.epl.expression.core.ExprNode;
 import com.espertech.esper.epl.expression.core.ExprNodeUtility;
@@ -34,7 +35,9 @@ public class GroupByViewReclaimAged extends ViewSupport implements CloneableView
     private EventBean[] eventsPerStream = new EventBean[1];
     protected String[] propertyNames;
 
-    protected final Map<Object, GroupByViewAgedEntry> subViewsPerKey = new HashMap<Object, GroupByViewAgedEntry>();
+    private final Integer maxGroups;
+    private final GroupByCardinalityGovernor governor;
+    protected final Map<Object, GroupByViewAgedEntry> subViewsPerKey;
     private final HashMap<GroupByViewAgedEntry, Pair<Object, Object>> groupedEvents = new HashMap<GroupByViewAgedEntry, Pair<Object, Object>>();
     private Long nextSweepTime = null;
 
@@ -44,17 +47,22 @@ public class GroupByViewReclaimAged extends ViewSupport implements CloneableView
      * @param criteriaExpressions is the fields from which to pull the values to group by
      * @param reclaimMaxAge age after which to reclaim group
      * @param reclaimFrequency frequency in which to check for groups to reclaim
+     * @param maxGroups maximum number of groups or null if not capped
      */
     public GroupByViewReclaimAged(AgentInstanceViewFactoryChainContext agentInstanceContext,
                                   ExprNode[] criteriaExpressions,
                                   ExprEvaluator[] criteriaEvaluators,
-                                  double reclaimMaxAge, double reclaimFrequency)
+                                  double reclaimMaxAge, double reclaimFrequency,
+                                  Integer maxGroups)
     {
         this.agentInstanceContext = agentInstanceContext;
         this.criteriaExpressions = criteriaExpressions;
         this.criteriaEvaluators = criteriaEvaluators;
         this.reclaimMaxAge = (long) (reclaimMaxAge * 1000d);
         this.reclaimFrequency = (long) (reclaimFrequency * 1000d);
+        this.maxGroups = maxGroups;
+        this.governor = GroupByCardinalityGovernor.make(maxGroups, agentInstanceContext.getAgentInstanceContext());
+        this.subViewsPerKey = GroupByCardinalityGovernor.makeGroupMap(governor);
 
         propertyNames = new String[criteriaExpressions.length];
         for (int i = 0; i < criteriaExpressions.length; i++)
@@ -65,7 +73,7 @@ public class GroupByViewReclaimAged extends ViewSupport implements CloneableView
 
     public View cloneView()
     {
-        return new GroupByViewReclaimAged(agentInstanceContext, criteriaExpressions, criteriaEvaluators, reclaimMaxAge, reclaimFrequency);
+        return new GroupByViewReclaimAged(agentInstanceContext, criteriaExpressions, criteriaEvaluators, reclaimMaxAge, reclaimFrequency, maxGroups);
     }
 
     /**
@@ -150,6 +158,14 @@ public class GroupByViewReclaimAged extends ViewSupport implements CloneableView
 
             groupedEvents.clear();
         }
+
+        if (governor != null) {
+            Map.Entry<Object, GroupByViewAgedEntry> evicted;
+            while ((evicted = governor.evictEldest(subViewsPerKey)) != null) {
+                GroupByViewImpl.postSubviewsAsOldData(evicted.getValue().getSubviewHolder());
+                GroupByViewImpl.removeSubviews(evicted.getValue().getSubviewHolder());
+            }
+        }
     }
 
     private void handleEvent(EventBean theEvent, boolean isNew)
@@ -219,16 +235,7 @@ public class GroupByViewReclaimAged extends ViewSupport implements CloneableView
         for (Object key : removed)
         {
             GroupByViewAgedEntry entry = subViewsPerKey.remove(key);
-            Object subviewHolder = entry.getSubviewHolder();
-            if (subviewHolder instanceof List) {
-                List<View> subviews = (List<View>) subviewHolder;
-                for (View view : subviews) {
-                    removeSubview(view);
-                }
-            }
-            else if (subviewHolder instanceof View) {
-                removeSubview((View) subviewHolder);
-            }
+            GroupByViewImpl.removeSubviews(entry.getSubviewHolder());
         }
     }
 
@@ -287,32 +294,6 @@ public class GroupByViewReclaimAged extends ViewSupport implements CloneableView
         return subview.getViewFactory() == removed.getViewFactory();
     }
 
-    private void removeSubview(View view) {
-        view.setParent(null);
-        recursiveMergeViewRemove(view);
-        if (view instanceof StoppableView) {
-            ((StoppableView) view).stopView();
-        }
-    }
-
-    private void recursiveMergeViewRemove(View view)
-    {
-        for (View child : view.getViews()) {
-            if (child instanceof MergeView) {
-                MergeView mergeView = (MergeView) child;
-                mergeView.removeParentView(view);
-            }
-            else {
-                if (child instanceof StoppableView) {
-                    ((StoppableView) child).stopView();
-                }
-                if (child.getViews().length > 0) {
-                    recursiveMergeViewRemove(child);
-                }
-            }
-        }
-    }
-
     private Object getGroupKey(EventBean theEvent)
     {
         eventsPerStream[0] = theEvent;
@@ -62,11 +62,16 @@ public class TestConfigurationParser extends TestCase
         assertEquals(2, config.getEngineDefaults().getThreading().getThreadPoolRouteExecNumThreads());
         assertEquals(2, config.getEngineDefaults().getThreading().getThreadPoolTimerExecNumThreads());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolInboundCapacity());
+        assertTrue(config.getEngineDefaults().getThreading().getThreadPoolInboundPartitionProperties().isEmpty());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolOutboundCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolRouteExecCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolTimerExecCapacity());
+        assertFalse(config.getEngineDefaults().getThreading().isThreadPoolFireAndForget());
+        assertEquals(2, config.getEngineDefaults().getThreading().getThreadPoolFireAndForgetNumThreads());
+        assertEquals(10000, config.getEngineDefaults().getThreading().getThreadPoolFireAndForgetMinRowsPerTask());
         assertFalse(config.getEngineDefaults().getThreading().isEngineFairlock());
         assertFalse(config.getEngineDefaults().getMetricsReporting().isJmxEngineMetrics());
+        assertFalse(config.getEngineDefaults().getMetricsReporting().isStatementFootprint());
 
         assertEquals(Configuration.PropertyResolutionStyle.CASE_SENSITIVE, config.getEngineDefaults().getEventMeta().getClassPropertyResolutionStyle());
         assertEquals(ConfigurationEventTypeLegacy.AccessorStyle.JAVABEAN, config.getEngineDefaults().getEventMeta().getDefaultAccessorStyle());
@@ -93,6 +98,7 @@ public class TestConfigurationParser extends TestCase
         assertEquals(ConfigurationEngineDefaults.ThreadingProfile.NORMAL, config.getEngineDefaults().getExecution().getThreadingProfile());
         assertEquals(ConfigurationEngineDefaults.FilterServiceProfile.READMOSTLY, config.getEngineDefaults().getExecution().getFilterServiceProfile());
         assertEquals(16, config.getEngineDefaults().getExecution().getFilterServiceMaxFilterWidth());
+        assertEquals(ConfigurationEngineDefaults.SchedulingServiceProfile.SORTED, config.getEngineDefaults().getExecution().getSchedulingServiceProfile());
 
         assertEquals(StreamSelector.ISTREAM_ONLY, config.getEngineDefaults().getStreamSelection().getDefaultStreamSelector());
         assertFalse(config.getEngineDefaults().getLanguage().isSortUsingCollator());
@@ -102,6 +108,7 @@ public class TestConfigurationParser extends TestCase
         assertTrue(config.getEngineDefaults().getExpression().isUdfCache());
         assertTrue(config.getEngineDefaults().getExpression().isExtendedAggregation());
         assertFalse(config.getEngineDefaults().getExpression().isDuckTyping());
+        assertFalse(config.getEngineDefaults().getExpression().isCompileExpressions());
         assertNull(config.getEngineDefaults().getExpression().getMathContext());
         assertEquals(TimeZone.getDefault(), config.getEngineDefaults().getExpression().getTimeZone());
         assertNull(config.getEngineDefaults().getExceptionHandling().getHandlerFactories());
@@ -231,6 +238,7 @@ public class TestConfigurationParser extends TestCase
         assertNull(configDBRef.getConnectionSettings().getTransactionIsolation());
         ConfigurationLRUCache lruCache = (ConfigurationLRUCache) configDBRef.getDataCacheDesc();
         assertEquals(10, lruCache.getSize());
+        assertEquals(1, configDBRef.getPollBatchSize());
         assertEquals(ConfigurationDBRef.ColumnChangeCaseEnum.LOWERCASE, configDBRef.getColumnChangeCase());
         assertEquals(ConfigurationDBRef.MetadataOriginEnum.SAMPLE, configDBRef.getMetadataRetrievalEnum());
         assertEquals(2, configDBRef.getSqlTypesMapping().size());
@@ -254,6 +262,7 @@ public class TestConfigurationParser extends TestCase
         assertEquals(60.5, expCache.getMaxAgeSeconds());
         assertEquals(120.1, expCache.getPurgeIntervalSeconds());
         assertEquals(ConfigurationCacheReferenceType.HARD, expCache.getCacheReferenceType());
+        assertEquals(16, configDBRef.getPollBatchSize());
         assertEquals(ConfigurationDBRef.ColumnChangeCaseEnum.UPPERCASE, configDBRef.getColumnChangeCase());
         assertEquals(ConfigurationDBRef.MetadataOriginEnum.METADATA, configDBRef.getMetadataRetrievalEnum());
         assertEquals(1, configDBRef.getSqlTypesMapping().size());
@@ -384,9 +393,14 @@ public class TestConfigurationParser extends TestCase
         assertEquals(3, config.getEngineDefaults().getThreading().getThreadPoolTimerExecNumThreads());
         assertEquals(4, config.getEngineDefaults().getThreading().getThreadPoolRouteExecNumThreads());
         assertEquals(1000, (int) config.getEngineDefaults().getThreading().getThreadPoolInboundCapacity());
+        assertEquals(1, config.getEngineDefaults().getThreading().getThreadPoolInboundPartitionProperties().size());
+        assertEquals("myKey", config.getEngineDefaults().getThreading().getThreadPoolInboundPartitionProperties().get("MySampleEventOne"));
         assertEquals(1500, (int) config.getEngineDefaults().getThreading().getThreadPoolOutboundCapacity());
         assertEquals(null, config.getEngineDefaults().getThreading().getThreadPoolTimerExecCapacity());
         assertEquals(2000, (int) config.getEngineDefaults().getThreading().getThreadPoolRouteExecCapacity());
+        assertTrue(config.getEngineDefaults().getThreading().isThreadPoolFireAndForget());
+        assertEquals(5, config.getEngineDefaults().getThreading().getThreadPoolFireAndForgetNumThreads());
+        assertEquals(500, config.getEngineDefaults().getThreading().getThreadPoolFireAndForgetMinRowsPerTask());
 
         assertFalse(config.getEngineDefaults().getThreading().isInternalTimerEnabled());
         assertEquals(1234567, config.getEngineDefaults().getThreading().getInternalTimerMsecResolution());
@@ -417,6 +431,7 @@ public class TestConfigurationParser extends TestCase
         assertEquals(ConfigurationEngineDefaults.ThreadingProfile.LARGE, config.getEngineDefaults().getExecution().getThreadingProfile());
         assertEquals(ConfigurationEngineDefaults.FilterServiceProfile.READWRITE, config.getEngineDefaults().getExecution().getFilterServiceProfile());
         assertEquals(100, config.getEngineDefaults().getExecution().getFilterServiceMaxFilterWidth());
+        assertEquals(ConfigurationEngineDefaults.SchedulingServiceProfile.TIMINGWHEEL, config.getEngineDefaults().getExecution().getSchedulingServiceProfile());
 
         ConfigurationMetricsReporting metrics = config.getEngineDefaults().getMetricsReporting();
         assertTrue(metrics.isEnableMetricsReporting());
@@ -425,6 +440,7 @@ public class TestConfigurationParser extends TestCase
         assertFalse(metrics.isThreading());
         assertEquals(2, metrics.getStatementGroups().size());
         assertTrue(metrics.isJmxEngineMetrics());
+        assertTrue(metrics.isStatementFootprint());
         ConfigurationMetricsReporting.StmtGroupMetrics def = metrics.getStatementGroups().get("MyStmtGroup");
         assertEquals(5000, def.getInterval());
         assertTrue(def.isDefaultInclude());
@@ -449,6 +465,7 @@ public class TestConfigurationParser extends TestCase
         assertFalse(config.getEngineDefaults().getExpression().isUdfCache());
         assertFalse(config.getEngineDefaults().getExpression().isExtendedAggregation());
         assertTrue(config.getEngineDefaults().getExpression().isDuckTyping());
+        assertTrue(config.getEngineDefaults().getExpression().isCompileExpressions());
         assertEquals(2, config.getEngineDefaults().getExpression().getMathContext().getPrecision());
         assertEquals(RoundingMode.CEILING, config.getEngineDefaults().getExpression().getMathContext().getRoundingMode());
         assertEquals(TimeZone.getTimeZone("GMT-4:00"), config.getEngineDefaults().getExpression().getTimeZone());
@@ -474,7 +491,7 @@ public class TestConfigurationParser extends TestCase
         assertTrue(variable.isConstant());
 
         // method references
-        assertEquals(2, config.getMethodInvocationReferences().size());
+        assertEquals(3, config.getMethodInvocationReferences().size());
         ConfigurationMethodRef methodRef = config.getMethodInvocationReferences().get("abc");
         expCache = (ConfigurationExpiryTimeCache) methodRef.getDataCacheDesc();
         assertEquals(91.0, expCache.getMaxAgeSeconds());
@@ -485,6 +502,13 @@ public class TestConfigurationParser extends TestCase
         lruCache = (ConfigurationLRUCache) methodRef.getDataCacheDesc();
         assertEquals(20, lruCache.getSize());
 
+        methodRef = config.getMethodInvocationReferences().get("ghi");
+        ConfigurationSharedCache sharedCache = (ConfigurationSharedCache) methodRef.getDataCacheDesc();
+        assertEquals(1000, sharedCache.getMaxEntries());
+        assertEquals(1048576L, sharedCache.getMaxBytes());
+        assertEquals(60.0, sharedCache.getMaxAgeSeconds());
+        assertEquals(45.5, sharedCache.getRefreshAheadSeconds());
+
         // plug-in event representations
         assertEquals(2, config.getPlugInEventRepresentation().size());
         ConfigurationPlugInEventRepresentation rep = config.getPlugInEventRepresentation().get(new URI("type://format/rep/name"));
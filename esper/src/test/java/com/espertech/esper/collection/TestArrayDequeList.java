@@ -0,0 +1,108 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.collection;
+
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TestArrayDequeList extends TestCase
+{
+    private ArrayDequeList<Integer> list;
+
+    public void setUp()
+    {
+        list = new ArrayDequeList<Integer>();
+    }
+
+    public void testAddRemoveFrontBack()
+    {
+        for (int i = 0; i < 10; i++) {
+            list.add(0, i);
+        }
+        list.add(100);
+        EPAssertionUtil.assertEqualsExactOrder(list.toArray(), new Object[]{9, 8, 7, 6, 5, 4, 3, 2, 1, 0, 100});
+        assertEquals(9, (int) list.get(0));
+        assertEquals(100, (int) list.get(10));
+
+        assertEquals(100, (int) list.remove(list.size() - 1));
+        assertEquals(9, (int) list.remove(0));
+        assertTrue(list.remove((Object) 5));
+        assertFalse(list.remove((Object) 5));
+        EPAssertionUtil.assertEqualsExactOrder(list.toArray(), new Object[]{8, 7, 6, 4, 3, 2, 1, 0});
+
+        list.add(3, 50);
+        EPAssertionUtil.assertEqualsExactOrder(list.toArray(), new Object[]{8, 7, 6, 50, 4, 3, 2, 1, 0});
+        assertEquals(50, (int) list.set(3, 51));
+        assertEquals(51, (int) list.get(3));
+
+        list.clear();
+        assertTrue(list.isEmpty());
+        list.add(0, 1);
+        EPAssertionUtil.assertEqualsExactOrder(list.toArray(), new Object[]{1});
+    }
+
+    public void testInvalidIndex()
+    {
+        list.add(1);
+        for (int index : new int[] {-1, 1}) {
+            try {
+                list.get(index);
+                fail();
+            }
+            catch (IndexOutOfBoundsException ex) {
+                // expected
+            }
+        }
+        try {
+            list.add(2, 1);
+            fail();
+        }
+        catch (IndexOutOfBoundsException ex) {
+            // expected
+        }
+    }
+
+    public void testRandomAgainstArrayList()
+    {
+        Random random = new Random(1);
+        List<Integer> expected = new ArrayList<Integer>();
+        for (int i = 0; i < 10000; i++) {
+            int operation = random.nextInt(5);
+            if (operation == 0 || expected.isEmpty()) {
+                expected.add(0, i);
+                list.add(0, i);
+            }
+            else if (operation == 1) {
+                expected.add(i);
+                list.add(i);
+            }
+            else if (operation == 2) {
+                int index = random.nextInt(expected.size() + 1);
+                expected.add(index, i);
+                list.add(index, i);
+            }
+            else if (operation == 3) {
+                int index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), list.remove(index));
+            }
+            else {
+                assertEquals(expected.remove(expected.size() - 1), list.remove(list.size() - 1));
+            }
+            assertEquals(expected.size(), list.size());
+        }
+        assertEquals(expected, list);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class TestLongKeyMapConcurrentRead extends TestCase
+{
+    private LongKeyMapConcurrentRead<String> map;
+
+    public void setUp()
+    {
+        map = new LongKeyMapConcurrentRead<String>();
+    }
+
+    public void testPutGetRemove()
+    {
+        assertNull(map.get(0));
+        assertTrue(map.isEmpty());
+
+        map.put(0, "a");
+        map.put(-1, "b");
+        map.put(Long.MAX_VALUE, "c");
+        assertEquals("a", map.get(0));
+        assertEquals("b", map.get(-1));
+        assertEquals("c", map.get(Long.MAX_VALUE));
+        assertNull(map.get(1));
+        assertEquals(3, map.size());
+
+        map.put(0, "d");
+        assertEquals("d", map.get(0));
+        assertEquals(3, map.size());
+
+        assertEquals("d", map.remove(0));
+        assertNull(map.remove(0));
+        assertNull(map.get(0));
+        assertEquals(2, map.size());
+
+        map.put(0, "e");
+        assertEquals("e", map.get(0));
+        assertEquals(3, map.size());
+    }
+
+    public void testCompareHashMap()
+    {
+        Map<Long, String> expected = new HashMap<Long, String>();
+        Random random = new Random(100);
+        for (int i = 0; i < 100000; i++) {
+            long key = random.nextInt(2000) * 64L;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+            else {
+                String value = Integer.toString(i);
+                expected.put(key, value);
+                map.put(key, value);
+            }
+            assertEquals(expected.size(), map.size());
+            long lookup = random.nextInt(2000) * 64L;
+            assertEquals(expected.get(lookup), map.get(lookup));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class TestRankedRefCountedDoubleSet extends TestCase
+{
+    private RankedRefCountedDoubleSet set;
+
+    public void setUp()
+    {
+        set = new RankedRefCountedDoubleSet();
+    }
+
+    public void testAddRemove()
+    {
+        assertEquals(0, set.size());
+
+        set.add(10);
+        set.add(0);
+        set.add(5);
+        set.add(10);
+        set.add(Double.NaN);
+        compare(new double[] {0, 5, 10, 10}, set);
+
+        set.remove(10);
+        compare(new double[] {0, 5, 10}, set);
+
+        set.remove(0);
+        set.remove(Double.NaN);
+        compare(new double[] {5, 10}, set);
+
+        set.remove(5);
+        set.remove(10);
+        assertEquals(0, set.size());
+
+        set.add(1);
+        set.clear();
+        assertEquals(0, set.size());
+    }
+
+    public void testInvalid()
+    {
+        set.add(1);
+        try {
+            set.remove(2);
+            fail();
+        }
+        catch (IllegalStateException ex) {
+            // expected
+        }
+
+        try {
+            set.getValue(1);
+            fail();
+        }
+        catch (IndexOutOfBoundsException ex) {
+            // expected
+        }
+    }
+
+    public void testRandomized()
+    {
+        Random random = new Random(1);
+        List<Double> reference = new ArrayList<Double>();
+        for (int i = 0; i < 5000; i++) {
+            if (reference.isEmpty() || random.nextInt(3) != 0) {
+                double value = random.nextInt(100);
+                reference.add(value);
+                set.add(value);
+            }
+            else {
+                Double value = reference.remove(random.nextInt(reference.size()));
+                set.remove(value);
+            }
+        }
+
+        Collections.sort(reference);
+        double[] expected = new double[reference.size()];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = reference.get(i);
+        }
+        compare(expected, set);
+    }
+
+    private void compare(double[] expected, RankedRefCountedDoubleSet set)
+    {
+        assertEquals(expected.length, set.size());
+        for (int i = 0; i < expected.length; i++)
+        {
+            assertEquals(expected[i], set.getValue(i));
+        }
+    }
+}
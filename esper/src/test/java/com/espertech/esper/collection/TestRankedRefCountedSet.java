@@ -0,0 +1,106 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+package com.espertech.esper.collection;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class TestRankedRefCountedSet extends TestCase
+{
+    private RankedRefCountedSet<String> refSet;
+    private Random random = new Random();
+
+    public void setUp()
+    {
+        refSet = new RankedRefCountedSet<String>(null);
+    }
+
+    public void testAddRemoveRank()
+    {
+        assertEquals(0, refSet.size());
+        assertNull(refSet.getKeyAtIndex(0));
+
+        refSet.add("c");
+        refSet.add("a", 2);
+        refSet.add("d");
+        refSet.add("c");
+        // sequence is a a c c d
+        assertEquals(5, refSet.size());
+        assertEquals("a", refSet.getKeyAtIndex(0));
+        assertEquals("a", refSet.getKeyAtIndex(1));
+        assertEquals("c", refSet.getKeyAtIndex(2));
+        assertEquals("c", refSet.getKeyAtIndex(3));
+        assertEquals("d", refSet.getKeyAtIndex(4));
+        assertNull(refSet.getKeyAtIndex(5));
+        assertNull(refSet.getKeyAtIndex(-1));
+        assertEquals(0, refSet.getIndexOfKey("a"));
+        assertEquals(2, refSet.getIndexOfKey("b"));
+        assertEquals(2, refSet.getIndexOfKey("c"));
+        assertEquals(4, refSet.getIndexOfKey("d"));
+        assertEquals(5, refSet.getIndexOfKey("e"));
+        assertEquals(2, refSet.getCount("c"));
+        assertEquals(0, refSet.getCount("b"));
+
+        refSet.remove("a");
+        refSet.remove("c", 2);
+        assertEquals(2, refSet.size());
+        assertEquals("a", refSet.getKeyAtIndex(0));
+        assertEquals("d", refSet.getKeyAtIndex(1));
+        assertEquals(0, refSet.getCount("c"));
+
+        try
+        {
+            refSet.remove("c");
+            fail();
+        }
+        catch (IllegalStateException ex)
+        {
+            // expected
+        }
+
+        refSet.clear();
+        assertEquals(0, refSet.size());
+    }
+
+    public void testRandomAgainstSortedList()
+    {
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < 5000; i++)
+        {
+            String key = Integer.toString(random.nextInt(200));
+            if (expected.isEmpty() || random.nextInt(3) > 0)
+            {
+                refSet.add(key);
+                expected.add(key);
+            }
+            else
+            {
+                String removed = expected.remove(random.nextInt(expected.size()));
+                refSet.remove(removed);
+            }
+
+            if (i % 50 == 0)
+            {
+                Collections.sort(expected);
+                assertEquals(expected.size(), refSet.size());
+                for (int j = 0; j < expected.size(); j++)
+                {
+                    assertEquals(expected.get(j), refSet.getKeyAtIndex(j));
+                    assertEquals(expected.indexOf(expected.get(j)), refSet.getIndexOfKey(expected.get(j)));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.agg;
+
+import com.espertech.esper.epl.agg.aggregator.*;
+import com.espertech.esper.epl.agg.service.AggregationColumnarKind;
+import com.espertech.esper.epl.agg.service.AggregationColumnarRows;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TestAggregationColumnarRows extends TestCase
+{
+    public void testCompareToAggregators()
+    {
+        AggregationColumnarKind[] kinds = new AggregationColumnarKind[] {AggregationColumnarKind.SUM_INTEGER, AggregationColumnarKind.SUM_LONG,
+                AggregationColumnarKind.SUM_DOUBLE, AggregationColumnarKind.AVG, AggregationColumnarKind.COUNT, AggregationColumnarKind.COUNT_NONNULL};
+        AggregationColumnarRows rows = new AggregationColumnarRows(kinds);
+
+        Random random = new Random(1);
+        List<AggregationMethod[]> expected = new ArrayList<AggregationMethod[]>();
+        List<Integer> slots = new ArrayList<Integer>();
+        for (int i = 0; i < 40; i++)
+        {
+            expected.add(new AggregationMethod[] {new AggregatorSumInteger(), new AggregatorSumLong(), new AggregatorSumDouble(),
+                    new AggregatorAvg(), new AggregatorCount(), new AggregatorCountNonNull()});
+            slots.add(rows.allocate());
+        }
+        assertEquals(40, rows.getNumRows());
+
+        for (int i = 0; i < 5000; i++)
+        {
+            int row = random.nextInt(expected.size());
+            boolean enter = random.nextInt(3) != 0;
+            Integer intValue = random.nextInt(5) == 0 ? null : random.nextInt(100) - 50;
+            Object[] values = new Object[] {intValue, intValue == null ? null : (long) intValue * 1000000000L,
+                    intValue == null ? null : intValue / 8d, intValue, intValue, intValue};
+            for (int column = 0; column < kinds.length; column++)
+            {
+                if (enter)
+                {
+                    expected.get(row)[column].enter(values[column]);
+                    rows.enter(slots.get(row), column, values[column]);
+                }
+                else
+                {
+                    expected.get(row)[column].leave(values[column]);
+                    rows.leave(slots.get(row), column, values[column]);
+                }
+                assertEquals(expected.get(row)[column].getValue(), rows.getValue(slots.get(row), column));
+            }
+
+            // replace a row now and then to exercise slot reuse
+            if (random.nextInt(50) == 0)
+            {
+                rows.free(slots.get(row));
+                slots.set(row, rows.allocate());
+                expected.set(row, new AggregationMethod[] {new AggregatorSumInteger(), new AggregatorSumLong(), new AggregatorSumDouble(),
+                        new AggregatorAvg(), new AggregatorCount(), new AggregatorCountNonNull()});
+                for (int column = 0; column < kinds.length; column++)
+                {
+                    assertEquals(expected.get(row)[column].getValue(), rows.getValue(slots.get(row), column));
+                    assertEquals(expected.get(row)[column].getValue(), rows.getEmptyValue(column));
+                }
+            }
+        }
+    }
+
+    public void testRefcountAndGrowth()
+    {
+        AggregationColumnarRows rows = new AggregationColumnarRows(new AggregationColumnarKind[] {AggregationColumnarKind.SUM_LONG});
+        for (int i = 0; i < 100; i++)
+        {
+            int slot = rows.allocate();
+            assertEquals(i, slot);
+            rows.enterLong(slot, 0, i);
+        }
+        for (int i = 0; i < 100; i++)
+        {
+            assertEquals((long) i, rows.getValue(i, 0));
+        }
+
+        rows.increaseRefcount(10);
+        assertEquals(1, rows.decreaseRefcount(10));
+        assertEquals(0, rows.decreaseRefcount(10));
+        rows.free(10);
+        assertEquals(99, rows.getNumRows());
+        assertEquals(10, rows.allocate());
+        assertNull(rows.getValue(10, 0));
+
+        rows.clear();
+        assertEquals(0, rows.getNumRows());
+        assertEquals(0, rows.allocate());
+        assertNull(rows.getValue(0, 0));
+    }
+}
@@ -40,7 +40,7 @@ public class TestAggregationServiceGroupByImpl extends TestCase
         ExprEvaluator evaluators[] = new ExprEvaluator[] { new SupportExprNode(5).getExprEvaluator(), new SupportExprNode(2).getExprEvaluator() };
         methodResolutionService = new MethodResolutionServiceImpl(null, null);
 
-        service = new AggSvcGroupByNoAccessImpl(evaluators, aggregators, null, methodResolutionService);
+        service = new AggSvcGroupByNoAccessImpl(evaluators, aggregators, null, methodResolutionService, null);
 
         groupOneKey = new MultiKeyUntyped(new Object[] {"x", "y1"});
         groupTwoKey = new MultiKeyUntyped(new Object[] {"x", "y2"});
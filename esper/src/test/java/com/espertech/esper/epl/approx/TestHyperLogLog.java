@@ -0,0 +1,99 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.approx;
+
+import junit.framework.TestCase;
+
+public class TestHyperLogLog extends TestCase {
+
+    public void testEmptyAndSmall() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        assertEquals(0, sketch.estimate());
+
+        sketch.add(null);
+        assertEquals(0, sketch.estimate());
+
+        sketch.add("a");
+        sketch.add("b");
+        sketch.add("a");
+        sketch.add(1);
+        sketch.add(1L);
+        assertEquals(3, sketch.estimate());
+
+        sketch.clear();
+        assertEquals(0, sketch.estimate());
+    }
+
+    public void testAccuracy() {
+        int[] sizes = new int[] {1000, 10000, 100000, 1000000};
+        for (int size : sizes) {
+            HyperLogLog sketch = new HyperLogLog(14);
+            for (int i = 0; i < size; i++) {
+                sketch.add("user" + i);
+            }
+            double error = Math.abs(sketch.estimate() - size) / (double) size;
+            assertTrue("size " + size + " error " + error, error < 0.03);
+        }
+    }
+
+    public void testLongValues() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        for (long i = 0; i < 50000; i++) {
+            sketch.add(i * 1000);
+            sketch.add(i * 1000);
+        }
+        double error = Math.abs(sketch.estimate() - 50000) / 50000d;
+        assertTrue("error " + error, error < 0.05);
+    }
+
+    public void testMerge() {
+        HyperLogLog partitionOne = new HyperLogLog(12);
+        HyperLogLog partitionTwo = new HyperLogLog(12);
+        HyperLogLog union = new HyperLogLog(12);
+        for (int i = 0; i < 30000; i++) {
+            partitionOne.add(i);
+            union.add(i);
+        }
+        for (int i = 20000; i < 50000; i++) {
+            partitionTwo.add(i);
+            union.add(i);
+        }
+
+        HyperLogLog merged = new HyperLogLog(12);
+        merged.merge(partitionOne);
+        merged.merge(partitionTwo);
+        merged.merge(new HyperLogLog(12));
+        assertEquals(union.estimate(), merged.estimate());
+
+        // merging does not alias the source registers
+        partitionOne.add(-1);
+        assertEquals(union.estimate(), merged.estimate());
+
+        try {
+            merged.merge(new HyperLogLog(10));
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            assertEquals("Cannot merge sketches of precision 12 and 10", ex.getMessage());
+        }
+    }
+
+    public void testInvalidPrecision() {
+        try {
+            new HyperLogLog(3);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            assertEquals("Precision must be between 4 and 18 but was 3", ex.getMessage());
+        }
+    }
+}
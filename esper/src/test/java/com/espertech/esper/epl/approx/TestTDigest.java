@@ -0,0 +1,87 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.approx;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class TestTDigest extends TestCase {
+
+    public void testEmptyAndSingle() {
+        TDigest digest = new TDigest(100);
+        assertNull(digest.quantile(0.5));
+
+        digest.add(Double.NaN);
+        assertNull(digest.quantile(0.5));
+        assertEquals(0, digest.size());
+
+        digest.add(7);
+        assertEquals(7d, digest.quantile(0));
+        assertEquals(7d, digest.quantile(0.5));
+        assertEquals(7d, digest.quantile(1));
+    }
+
+    public void testMinMax() {
+        TDigest digest = new TDigest(100);
+        for (int i = 1; i <= 10000; i++) {
+            digest.add(i);
+        }
+        assertEquals(10000, digest.size());
+        assertEquals(1d, digest.quantile(0));
+        assertEquals(10000d, digest.quantile(1));
+    }
+
+    public void testUniformAccuracy() {
+        TDigest digest = new TDigest(100);
+        Random random = new Random(1);
+        int size = 100000;
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextDouble();
+            digest.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        double[] quantiles = new double[] {0.001, 0.01, 0.1, 0.5, 0.9, 0.99, 0.999};
+        for (double q : quantiles) {
+            double expected = values[(int) (q * (size - 1))];
+            double actual = digest.quantile(q);
+            assertEquals("quantile " + q, expected, actual, 0.01);
+        }
+    }
+
+    public void testGaussianTails() {
+        TDigest digest = new TDigest(100);
+        Random random = new Random(2);
+        int size = 100000;
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextGaussian();
+            digest.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        // relative error in rank is what the t-digest bounds, check rank of estimate
+        double[] quantiles = new double[] {0.001, 0.01, 0.5, 0.99, 0.999};
+        for (double q : quantiles) {
+            double estimate = digest.quantile(q);
+            int rank = Arrays.binarySearch(values, estimate);
+            if (rank < 0) {
+                rank = -rank - 1;
+            }
+            double estimatedQ = rank / (double) size;
+            assertEquals("quantile " + q, q, estimatedQ, Math.max(0.0005, q * (1 - q) * 0.05));
+        }
+    }
+}
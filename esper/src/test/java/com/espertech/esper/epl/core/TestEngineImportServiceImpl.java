@@ -25,7 +25,7 @@ public class TestEngineImportServiceImpl extends TestCase
 
     public void setUp()
     {
-        this.engineImportService = new EngineImportServiceImpl(true, true, true, false, null, TimeZone.getDefault());
+        this.engineImportService = new EngineImportServiceImpl(true, true, true, false, false, null, TimeZone.getDefault());
     }
 
     public void testResolveMethodNoArgTypes() throws Exception
@@ -0,0 +1,174 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.db;
+
+import com.espertech.esper.client.ConfigurationSharedCache;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.schedule.TimeProvider;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TestDataCacheShared extends TestCase
+{
+    private SupportTimeProvider time;
+
+    public void setUp()
+    {
+        time = new SupportTimeProvider();
+    }
+
+    public void testLRU()
+    {
+        DataCacheShared cache = new DataCacheShared("test", new ConfigurationSharedCache(3, 0, 0, 0), time);
+        List<EventBean> a = makeRows(1);
+        List<EventBean> b = makeRows(1);
+        assertNull(cache.get("a"));
+
+        cache.put("a", a);
+        cache.put("b", b);
+        assertSame(a, cache.get("a"));    // a, b
+        cache.put("c", makeRows(1));      // c, a, b
+        cache.put("d", makeRows(1));      // d, c, a (b gone)
+
+        assertNull(cache.get("b"));
+        assertSame(a, cache.get("a"));
+        assertEquals(3, cache.size());
+        assertEquals(2, cache.getNumHits());
+        assertEquals(2, cache.getNumMisses());
+        assertEquals(1, cache.getNumEvictions());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getEstimatedBytes());
+    }
+
+    public void testMaxBytes()
+    {
+        long rowBytes = DataCacheShared.estimateBytes(makeRows(10));
+        DataCacheShared cache = new DataCacheShared("test", new ConfigurationSharedCache(10, rowBytes * 2, 0, 0), time);
+        cache.put("a", makeRows(10));
+        cache.put("b", makeRows(10));
+        assertEquals(2, cache.size());
+        assertEquals(rowBytes * 2, cache.getEstimatedBytes());
+
+        cache.put("c", makeRows(10));
+        assertEquals(2, cache.size());
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.getNumEvictions());
+
+        // replacing an entry accounts for the replaced entry
+        cache.put("c", makeRows(1));
+        assertEquals(rowBytes + DataCacheShared.estimateBytes(makeRows(1)), cache.getEstimatedBytes());
+    }
+
+    public void testExpiry()
+    {
+        DataCacheShared cache = new DataCacheShared("test", new ConfigurationSharedCache(100, 0, 10, 0), time);
+        List<EventBean> rows = makeRows(1);
+        cache.put("a", rows);
+
+        time.setTime(9999);
+        assertSame(rows, cache.get("a"));
+
+        time.setTime(10000);
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getNumEvictions());
+    }
+
+    public void testRefreshAhead()
+    {
+        DataCacheShared cache = new DataCacheShared("test", new ConfigurationSharedCache(100, 0, 10, 8), time);
+        List<EventBean> rows = makeRows(1);
+        cache.put("a", rows);
+
+        time.setTime(7999);
+        assertSame(rows, cache.get("a"));
+
+        // the first lookup past the refresh-ahead age reloads, others keep the cached rows
+        time.setTime(8000);
+        assertNull(cache.get("a"));
+        assertSame(rows, cache.get("a"));
+        assertSame(rows, cache.get("a"));
+
+        List<EventBean> refreshed = makeRows(2);
+        cache.put("a", refreshed);
+        time.setTime(15000);
+        assertSame(refreshed, cache.get("a"));
+    }
+
+    public void testRefreshAheadCancel()
+    {
+        DataCacheShared cache = new DataCacheShared("test", new ConfigurationSharedCache(100, 0, 10, 8), time);
+        List<EventBean> rows = makeRows(1);
+        cache.put("a", rows);
+
+        // a failed reload lets the next lookup reload again
+        time.setTime(8000);
+        assertNull(cache.get("a"));
+        assertSame(rows, cache.get("a"));
+        cache.cancelRefresh("a");
+        assertNull(cache.get("a"));
+        assertSame(rows, cache.get("a"));
+
+        cache.cancelRefresh("b");
+        assertNull(cache.get("b"));
+    }
+
+    public void testSegmentsConcurrent() throws Exception
+    {
+        final DataCacheShared cache = new DataCacheShared("test", new ConfigurationSharedCache(1000, 0, 0, 0), time);
+        final List<EventBean> rows = makeRows(1);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int offset = t * 10000;
+            threads[t] = new Thread(new Runnable() {
+                public void run() {
+                    for (int i = 0; i < 5000; i++) {
+                        cache.put(offset + i, rows);
+                        cache.get(offset + i - 100);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(cache.size() <= 1000);
+        assertEquals(20000 - cache.size(), cache.getNumEvictions());
+    }
+
+    private List<EventBean> makeRows(int num)
+    {
+        return new ArrayList<EventBean>(Arrays.asList(SupportEventBeanFactory.makeEvents(new String[num])));
+    }
+
+    private static class SupportTimeProvider implements TimeProvider
+    {
+        private long time;
+
+        public long getTime()
+        {
+            return time;
+        }
+
+        public void setTime(long time)
+        {
+            this.time = time;
+        }
+    }
+}
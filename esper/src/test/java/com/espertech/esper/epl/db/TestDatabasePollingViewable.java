@@ -14,6 +14,7 @@ package com.espertech.esper.epl.db;
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.client.EventType;
 import com.espertech.esper.collection.MultiKey;
+import com.espertech.esper.epl.expression.core.ExprEvaluatorContext;
 import com.espertech.esper.epl.expression.core.ExprIdentNodeImpl;
 import com.espertech.esper.epl.expression.core.ExprNode;
 import com.espertech.esper.epl.join.pollindex.PollResultIndexingStrategy;
@@ -78,10 +79,111 @@ public class TestDatabasePollingViewable extends TestCase
         assertTrue(resultRows[1][0].isEmpty());
     }
 
+    public void testPollBatch() throws Exception
+    {
+        Map<MultiKey<Object>, List<EventBean>> pollResults = new HashMap<MultiKey<Object>, List<EventBean>>();
+        for (int i = 1; i <= 3; i++) {
+            List<EventBean> rows = new ArrayList<EventBean>();
+            for (int j = 0; j < i; j++) {
+                rows.add(makeEvent(i * 10 + j));
+            }
+            pollResults.put(new MultiKey<Object>(new Object[] {i}), rows);
+        }
+        SupportPollingStrategyBatched strategy = new SupportPollingStrategyBatched(pollResults);
+        DatabasePollingViewable batchViewable = makeViewable(strategy, true);
+
+        EventBean[][] input = new EventBean[][] {{makeEvent(1), null}, {makeEvent(2), null}, {makeEvent(1), null}, {makeEvent(3), null}};
+        EventTable[][] resultRows = batchViewable.poll(input, indexingStrategy, null);
+
+        // distinct keys polled at once, in order of first occurrence
+        assertEquals(1, strategy.getBatches().size());
+        assertEquals("[[1], [2], [3]]", strategy.getBatches().get(0));
+        assertEquals(0, strategy.getNumPolls());
+        assertEquals(4, resultRows.length);
+        assertEquals(1, (int) resultRows[0][0].getNumberOfEvents());
+        assertEquals(2, (int) resultRows[1][0].getNumberOfEvents());
+        assertSame(resultRows[0], resultRows[2]);
+        assertEquals(3, (int) resultRows[3][0].getNumberOfEvents());
+
+        // cached keys are not polled
+        input = new EventBean[][] {{makeEvent(2), null}, {makeEvent(1), null}};
+        batchViewable.poll(input, indexingStrategy, null);
+        assertEquals(1, strategy.getBatches().size());
+
+        // a single row uses a regular poll
+        input = new EventBean[][] {{makeEvent(4), null}};
+        batchViewable.poll(input, indexingStrategy, null);
+        assertEquals(1, strategy.getBatches().size());
+        assertEquals(1, strategy.getNumPolls());
+
+        // without batching each key is polled separately
+        strategy = new SupportPollingStrategyBatched(pollResults);
+        batchViewable = makeViewable(strategy, false);
+        input = new EventBean[][] {{makeEvent(1), null}, {makeEvent(2), null}};
+        batchViewable.poll(input, indexingStrategy, null);
+        assertEquals(0, strategy.getBatches().size());
+        assertEquals(2, strategy.getNumPolls());
+    }
+
+    private DatabasePollingViewable makeViewable(PollExecStrategy strategy, boolean isBatchPolling) throws Exception
+    {
+        Map<String, Object> resultProperties = new HashMap<String, Object>();
+        resultProperties.put("myvarchar", String.class);
+        EventType resultEventType = SupportEventAdapterService.getService().createAnonymousMapType("test", resultProperties);
+
+        DatabasePollingViewable viewable = new DatabasePollingViewable(1, Arrays.asList(new String[] {"s0.intPrimitive"}), strategy, new DataCacheLRUImpl(100), resultEventType, isBatchPolling);
+        Map<Integer, List<ExprNode>> sqlParameters = new HashMap<Integer, List<ExprNode>>();
+        sqlParameters.put(1, Collections.singletonList((ExprNode) new ExprIdentNodeImpl("intPrimitive", "s0")));
+        viewable.validate(null, new SupportStreamTypeSvc3Stream(), null, null, null, null, null, null, null, null, sqlParameters, null, null, null, null);
+        return viewable;
+    }
+
     private EventBean makeEvent(int intPrimitive)
     {
         SupportBean bean = new SupportBean();
         bean.setIntPrimitive(intPrimitive);
         return SupportEventAdapterService.getService().adapterForBean(bean);
     }
+
+    private static class SupportPollingStrategyBatched extends SupportPollingStrategy implements PollExecStrategyBatched
+    {
+        private final Map<MultiKey<Object>, List<EventBean>> results;
+        private final List<String> batches = new ArrayList<String>();
+        private int numPolls;
+
+        private SupportPollingStrategyBatched(Map<MultiKey<Object>, List<EventBean>> results)
+        {
+            super(results);
+            this.results = results;
+        }
+
+        public List<EventBean> poll(Object[] lookupValues, ExprEvaluatorContext exprEvaluatorContext)
+        {
+            numPolls++;
+            List<EventBean> result = super.poll(lookupValues, exprEvaluatorContext);
+            return result == null ? Collections.<EventBean>emptyList() : result;
+        }
+
+        public List<List<EventBean>> pollBatch(List<Object[]> lookupValues, ExprEvaluatorContext exprEvaluatorContext)
+        {
+            List<String> keys = new ArrayList<String>();
+            List<List<EventBean>> result = new ArrayList<List<EventBean>>();
+            for (Object[] values : lookupValues) {
+                keys.add(Arrays.toString(values));
+                result.add(results.get(new MultiKey<Object>(values)));
+            }
+            batches.add(keys.toString());
+            return result;
+        }
+
+        public List<String> getBatches()
+        {
+            return batches;
+        }
+
+        public int getNumPolls()
+        {
+            return numPolls;
+        }
+    }
 }
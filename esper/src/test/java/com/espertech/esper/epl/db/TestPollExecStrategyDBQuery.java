@@ -13,6 +13,7 @@ package com.espertech.esper.epl.db;
 
 import junit.framework.TestCase;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.LinkedList;
 import java.util.Map;
@@ -30,20 +31,7 @@ public class TestPollExecStrategyDBQuery extends TestCase
 
     public void setUp() throws Exception
     {
-        String sql = "select myvarchar from mytesttable where mynumeric = ? order by mybigint asc";
-
-        DatabaseConnectionFactory databaseConnectionFactory = SupportDatabaseService.makeService().getConnectionFactory("mydb");
-        ConnectionCache connectionCache = new ConnectionNoCacheImpl(databaseConnectionFactory, sql);
-
-        Map<String, Object> resultProperties = new HashMap<String, Object>();
-        resultProperties.put("myvarchar", String.class);
-        EventType resultEventType = SupportEventAdapterService.getService().createAnonymousMapType("test", resultProperties);
-
-        Map<String, DBOutputTypeDesc> propertiesOut = new HashMap<String, DBOutputTypeDesc>();
-        propertiesOut.put("myvarchar", new DBOutputTypeDesc(Types.VARCHAR, null, null));
-
-        dbPollExecStrategy = new PollExecStrategyDBQuery(SupportEventAdapterService.getService(),
-                resultEventType, connectionCache, sql, propertiesOut, null, null, false);
+        dbPollExecStrategy = makeStrategy(1);
     }
 
     public void testPoll()
@@ -72,4 +60,58 @@ public class TestPollExecStrategyDBQuery extends TestCase
         dbPollExecStrategy.done();
         dbPollExecStrategy.destroy();
     }
+
+    public void testPollBatch() throws Exception
+    {
+        PollExecStrategyDBQuery batchStrategy = makeStrategy(2);
+        batchStrategy.start();
+
+        List<Object[]> keys = new ArrayList<Object[]>();
+        keys.add(new Object[] { -1 });
+        keys.add(new Object[] { 500 });
+        keys.add(new Object[] { 200 });
+        List<List<EventBean>> resultRows = batchStrategy.pollBatch(keys, null);
+
+        assertEquals(3, resultRows.size());
+        assertEquals(0, resultRows.get(0).size());
+        assertEquals(2, resultRows.get(1).size());
+        assertEquals(1, resultRows.get(2).size());
+        assertEquals("D", resultRows.get(1).get(0).get("myvarchar"));
+        assertEquals("E", resultRows.get(1).get(1).get("myvarchar"));
+        assertEquals("F", resultRows.get(2).get(0).get("myvarchar"));
+
+        batchStrategy.done();
+        batchStrategy.destroy();
+    }
+
+    public void testBatchSQL()
+    {
+        assertEquals("select 0 as esper_batch_index, esper_batch_0.* from (select a from t where b = ?) esper_batch_0 union all " +
+                "select 1 as esper_batch_index, esper_batch_1.* from (select a from t where b = ?) esper_batch_1",
+                PollExecStrategyDBQuery.getBatchSQL("select a from t where b = ?", 2));
+
+        assertEquals(1, PollExecStrategyDBQuery.getBatchStatementSize(1, 16));
+        assertEquals(2, PollExecStrategyDBQuery.getBatchStatementSize(2, 16));
+        assertEquals(4, PollExecStrategyDBQuery.getBatchStatementSize(3, 16));
+        assertEquals(16, PollExecStrategyDBQuery.getBatchStatementSize(9, 16));
+        assertEquals(10, PollExecStrategyDBQuery.getBatchStatementSize(9, 10));
+    }
+
+    private PollExecStrategyDBQuery makeStrategy(int batchSize) throws Exception
+    {
+        String sql = "select myvarchar from mytesttable where mynumeric = ? order by mybigint asc";
+
+        DatabaseConnectionFactory databaseConnectionFactory = SupportDatabaseService.makeService().getConnectionFactory("mydb");
+        ConnectionCache connectionCache = new ConnectionNoCacheImpl(databaseConnectionFactory, sql);
+
+        Map<String, Object> resultProperties = new HashMap<String, Object>();
+        resultProperties.put("myvarchar", String.class);
+        EventType resultEventType = SupportEventAdapterService.getService().createAnonymousMapType("test", resultProperties);
+
+        Map<String, DBOutputTypeDesc> propertiesOut = new HashMap<String, DBOutputTypeDesc>();
+        propertiesOut.put("myvarchar", new DBOutputTypeDesc(Types.VARCHAR, null, null));
+
+        return new PollExecStrategyDBQuery(SupportEventAdapterService.getService(),
+                resultEventType, connectionCache, sql, propertiesOut, null, null, false, batchSize);
+    }
 }
@@ -0,0 +1,107 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.expression;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.epl.expression.codegen.ExprCompiledEvaluatorBase;
+import com.espertech.esper.epl.expression.codegen.ExprNodeCompiler;
+import com.espertech.esper.epl.expression.core.ExprEvaluator;
+import com.espertech.esper.epl.expression.core.ExprIdentNodeImpl;
+import com.espertech.esper.epl.expression.core.ExprNode;
+import com.espertech.esper.epl.expression.ops.ExprMathNode;
+import com.espertech.esper.epl.expression.ops.ExprNotNode;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.epl.SupportExprNode;
+import com.espertech.esper.support.epl.SupportExprNodeFactory;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import com.espertech.esper.type.MathArithTypeEnum;
+import junit.framework.TestCase;
+
+public class TestExprNodeCompiler extends TestCase
+{
+    public void testCompileMath() throws Exception
+    {
+        if (InstrumentationHelper.ENABLED) {
+            return;
+        }
+
+        ExprNode mathNode = SupportExprNodeFactory.makeMathNode();
+        ExprEvaluator compiled = ExprNodeCompiler.compile(mathNode, mathNode.getExprEvaluator());
+        assertTrue(compiled instanceof ExprCompiledEvaluatorBase);
+        assertEquals(Integer.class, compiled.getType());
+
+        assertEquals(20, compiled.evaluate(makeEvents(4, 5), true, null));
+        assertEquals(-6, compiled.evaluate(makeEvents(-2, 3), true, null));
+        assertNull(compiled.evaluate(makeEvents(4, null), true, null));
+        assertNull(compiled.evaluate(new EventBean[3], true, null));
+    }
+
+    public void testCompileEquals() throws Exception
+    {
+        if (InstrumentationHelper.ENABLED) {
+            return;
+        }
+
+        ExprNode equalsNode = SupportExprNodeFactory.makeEqualsNode();
+        ExprEvaluator compiled = ExprNodeCompiler.compile(equalsNode, equalsNode.getExprEvaluator());
+        assertTrue(compiled instanceof ExprCompiledEvaluatorBase);
+
+        EventBean[] events = makeEvents(4, 4);
+        assertEquals(true, compiled.evaluate(events, true, null));
+        events = makeEvents(4, 5);
+        assertEquals(false, compiled.evaluate(events, true, null));
+        events = makeEvents(4, null);
+        assertNull(compiled.evaluate(events, true, null));
+    }
+
+    public void testCompileWithFallback() throws Exception
+    {
+        if (InstrumentationHelper.ENABLED) {
+            return;
+        }
+
+        // the support node is not compiled and evaluates to its value
+        ExprMathNode mathNode = new ExprMathNode(MathArithTypeEnum.DIVIDE, true, false);
+        mathNode.addChildNode(new ExprIdentNodeImpl("intPrimitive", "s0"));
+        mathNode.addChildNode(new SupportExprNode(0L));
+        SupportExprNodeFactory.validate3Stream(mathNode);
+
+        ExprEvaluator compiled = ExprNodeCompiler.compile(mathNode, mathNode.getExprEvaluator());
+        assertTrue(compiled instanceof ExprCompiledEvaluatorBase);
+        assertEquals(Long.class, compiled.getType());
+        assertNull(compiled.evaluate(makeEvents(10, null), true, null));
+
+        ExprNotNode notNode = new ExprNotNode();
+        notNode.addChildNode(new SupportExprNode(true));
+        SupportExprNodeFactory.validate3Stream(notNode);
+        compiled = ExprNodeCompiler.compile(notNode, notNode.getExprEvaluator());
+        assertTrue(compiled instanceof ExprCompiledEvaluatorBase);
+        assertEquals(false, compiled.evaluate(makeEvents(10, null), true, null));
+    }
+
+    public void testNotCompiled() throws Exception
+    {
+        ExprNode identNode = SupportExprNodeFactory.makeIdentNode("intPrimitive", "s0");
+        assertSame(identNode.getExprEvaluator(), ExprNodeCompiler.compile(identNode, identNode.getExprEvaluator()));
+
+        ExprNode mathNode = SupportExprNodeFactory.makeMathNode(MathArithTypeEnum.ADD, 1f, 2f);
+        assertSame(mathNode.getExprEvaluator(), ExprNodeCompiler.compile(mathNode, mathNode.getExprEvaluator()));
+    }
+
+    private EventBean[] makeEvents(int intPrimitive, Integer intBoxed)
+    {
+        SupportBean theEvent = new SupportBean("E1", intPrimitive);
+        theEvent.setIntBoxed(intBoxed);
+        return new EventBean[] {SupportEventBeanFactory.createObject(theEvent), SupportEventBeanFactory.createObject(theEvent), null};
+    }
+}
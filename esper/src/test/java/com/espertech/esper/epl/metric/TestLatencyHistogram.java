@@ -0,0 +1,71 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.metric;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class TestLatencyHistogram extends TestCase
+{
+    public void testBuckets()
+    {
+        long[] values = new long[] {0, 1, 15, 16, 17, 31, 32, 33, 1000, 123456789L, 1L << 41, Long.MAX_VALUE};
+        for (long value : values)
+        {
+            int index = LatencyHistogram.getIndex(value);
+            long highest = LatencyHistogram.getHighestValue(index);
+            if (value < (1L << 42))
+            {
+                assertTrue(value + " highest " + highest, highest >= value);
+                assertTrue(value + " highest " + highest, highest - value <= value / 16);
+            }
+            if (index > 0)
+            {
+                assertTrue(LatencyHistogram.getHighestValue(index - 1) < value);
+            }
+        }
+        for (int i = 1; i < LatencyHistogram.getIndex(Long.MAX_VALUE); i++)
+        {
+            assertEquals(i, LatencyHistogram.getIndex(LatencyHistogram.getHighestValue(i)));
+            assertEquals(i, LatencyHistogram.getIndex(LatencyHistogram.getHighestValue(i - 1) + 1));
+        }
+    }
+
+    public void testPercentiles()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+
+        Random random = new Random(1);
+        long[] values = new long[10000];
+        for (int i = 0; i < values.length; i++)
+        {
+            values[i] = 1000 + (long) (random.nextDouble() * random.nextDouble() * 10000000);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        assertEquals(values.length, histogram.getCount());
+
+        double[] percentiles = new double[] {0, 50, 90, 99, 99.9, 100};
+        for (double percentile : percentiles)
+        {
+            int rank = Math.max(1, (int) Math.ceil(percentile / 100d * values.length));
+            long expected = values[rank - 1];
+            long actual = histogram.getValueAtPercentile(percentile);
+            assertTrue(percentile + ": " + expected + " vs " + actual, actual >= expected);
+            assertTrue(percentile + ": " + expected + " vs " + actual, actual - expected <= expected / 16);
+        }
+    }
+}
@@ -94,4 +94,32 @@ public class TestStatementMetricArray extends TestCase
             assertNotNull(flushed[i]);
         }
     }
+
+    public void testFlushLatency()
+    {
+        StatementMetricArray rep = new StatementMetricArray("uri", "name", 3, false);
+        assertEquals(0, rep.addStatementGetIndex("001"));
+        assertEquals(1, rep.addStatementGetIndex("002"));
+
+        rep.getAddMetric(0);
+        for (int i = 1; i <= 100; i++)
+        {
+            rep.getAddLatency(0).addProcessingLatency(i);
+        }
+        rep.getAddMetric(1);
+
+        StatementMetric[] flushed = rep.flushMetrics();
+        assertEquals(51, flushed[0].getProcessingLatencyP50());
+        long p999 = flushed[0].getProcessingLatencyP999();
+        assertTrue(p999 >= 100 && p999 <= 106);   // within histogram precision
+        assertEquals(0, flushed[0].getDispatchLatencyP50());
+        assertEquals(0, flushed[1].getProcessingLatencyP50());
+
+        // histograms start empty for the next interval
+        rep.getAddMetric(0);
+        rep.getAddLatency(0).addDispatchLatency(5);
+        flushed = rep.flushMetrics();
+        assertEquals(0, flushed[0].getProcessingLatencyP50());
+        assertEquals(5, flushed[0].getDispatchLatencyP99());
+    }
 }
@@ -0,0 +1,93 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.epl.offheap;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.event.arr.ObjectArrayEventBean;
+import junit.framework.TestCase;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+public class TestOffHeapRowStore extends TestCase
+{
+    public void testReadWrite()
+    {
+        OffHeapRowStore store = new OffHeapRowStore(1024);
+        Object[] row = new Object[] {"abc\u00e9", 1, 2L, 3d, true, 4f, (short) 5, (byte) 6, 'x', null, new BigDecimal("7.5"), ""};
+        OffHeapObjectArrayEventBean bean = store.add(new ObjectArrayEventBean(row, null));
+        assertTrue(Arrays.equals(row, bean.getProperties()));
+        assertTrue(Arrays.equals(row, (Object[]) bean.getUnderlying()));
+        assertEquals(1, store.getNumRows());
+        assertEquals(1, store.getNumSegments());
+        for (int i = 0; i < row.length; i++) {
+            assertEquals(row[i], bean.getProperty(i));
+        }
+
+        store.remove(bean);
+        assertTrue(bean.isRemoved());
+        assertTrue(Arrays.equals(row, bean.getProperties()));
+        assertEquals(row[10], bean.getProperty(10));
+        assertEquals(0, store.getNumRows());
+        assertEquals(0, store.getNumBytesAllocated());
+
+        // removing twice has no effect
+        store.remove(bean);
+        assertEquals(0, store.getNumRows());
+    }
+
+    public void testReuse()
+    {
+        OffHeapRowStore store = new OffHeapRowStore(1024);
+        OffHeapObjectArrayEventBean[] beans = new OffHeapObjectArrayEventBean[100];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = store.add(new ObjectArrayEventBean(new Object[] {"E" + i, i}, null));
+        }
+        int segments = store.getNumSegments();
+        assertTrue(segments > 1);
+        assertEquals(100 * 32, store.getNumBytesAllocated());
+
+        for (int i = 0; i < beans.length; i += 2) {
+            store.remove(beans[i]);
+        }
+        for (int i = 0; i < beans.length; i += 2) {
+            beans[i] = store.add(new ObjectArrayEventBean(new Object[] {"F" + i, -i}, null));
+        }
+        assertEquals(segments, store.getNumSegments());
+        assertEquals(100, store.getNumRows());
+        for (int i = 0; i < beans.length; i++) {
+            Object[] expected = i % 2 == 0 ? new Object[] {"F" + i, -i} : new Object[] {"E" + i, i};
+            assertTrue(Arrays.equals(expected, beans[i].getProperties()));
+        }
+    }
+
+    public void testInvalid()
+    {
+        OffHeapRowStore store = new OffHeapRowStore(1024);
+        try {
+            store.add(new ObjectArrayEventBean(new Object[] {new char[2000]}, null));
+            fail();
+        }
+        catch (EPException ex) {
+            assertTrue(ex.getMessage().startsWith("Row of"));
+        }
+
+        try {
+            store.add(new ObjectArrayEventBean(new Object[] {new Object()}, null));
+            fail();
+        }
+        catch (EPException ex) {
+            assertEquals("Failed to store value of type java.lang.Object off-heap, the value does not implement java.io.Serializable", ex.getMessage());
+        }
+        assertEquals(0, store.getNumRows());
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.event.bean;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventPropertyGetter;
+import com.espertech.esper.client.PropertyAccessException;
+import com.espertech.esper.support.bean.ISupportA;
+import com.espertech.esper.support.bean.ISupportABCImpl;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.bean.SupportBeanErrorTestingOne;
+import com.espertech.esper.support.event.SupportEventAdapterService;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import junit.framework.TestCase;
+import net.sf.cglib.reflect.FastClass;
+
+import java.lang.reflect.Method;
+
+public class TestCodegenPropertyGetter extends TestCase
+{
+    private EventBean unitTestBean;
+
+    public void setUp()
+    {
+        SupportBean testEvent = new SupportBean();
+        testEvent.setIntPrimitive(10);
+        testEvent.setTheString("a");
+        testEvent.setDoubleBoxed(null);
+        testEvent.setBoolPrimitive(true);
+
+        unitTestBean = SupportEventBeanFactory.createObject(testEvent);
+    }
+
+    public void testGetter() throws Exception
+    {
+        CodegenPropertyGetter getter = makeGetter(SupportBean.class, "getIntPrimitive");
+        assertEquals(10, getter.get(unitTestBean));
+        assertTrue(getter.isExistsProperty(unitTestBean));
+
+        getter = makeGetter(SupportBean.class, "getTheString");
+        assertEquals("a", getter.get(unitTestBean));
+
+        getter = makeGetter(SupportBean.class, "isBoolPrimitive");
+        assertEquals(true, getter.get(unitTestBean));
+
+        getter = makeGetter(SupportBean.class, "getDoubleBoxed");
+        assertEquals(null, getter.get(unitTestBean));
+
+        try
+        {
+            getter.get(SupportEventBeanFactory.createObject(new Object()));
+            fail();
+        }
+        catch (PropertyAccessException ex)
+        {
+            assertEquals("Mismatched getter instance to event bean type, expected " + SupportBean.class.getName() + " but received java.lang.Object", ex.getMessage());
+        }
+    }
+
+    public void testInterface() throws Exception
+    {
+        CodegenPropertyGetter getter = makeGetter(ISupportA.class, "getA");
+        assertEquals("a", getter.getBeanProp(new ISupportABCImpl("a", "b", "ab", "c")));
+    }
+
+    public void testGetterException() throws Exception
+    {
+        CodegenPropertyGetter getter = makeGetter(SupportBeanErrorTestingOne.class, "getValue");
+        try
+        {
+            getter.getBeanProp(null);
+            fail();
+        }
+        catch (PropertyAccessException ex)
+        {
+            assertTrue(ex.getMessage().startsWith("Failed to invoke method getValue on class " + SupportBeanErrorTestingOne.class.getName()));
+        }
+    }
+
+    public void testNotApplicable() throws Exception
+    {
+        Method method = MyPrivateBean.class.getMethod("getValue");
+        assertNull(CodegenPropertyGetterFactory.make(method, MyPrivateBean.class, SupportEventAdapterService.getService()));
+
+        FastClass fastClass = FastClass.create(Thread.currentThread().getContextClassLoader(), SupportBean.class);
+        EventPropertyGetter getter = PropertyHelper.getGetter(SupportBean.class.getMethod("getIntPrimitive"), fastClass, SupportEventAdapterService.getService());
+        assertTrue(getter instanceof CodegenPropertyGetter);
+        getter = PropertyHelper.getGetter(SupportBean.class.getMethod("getIntPrimitive"), null, SupportEventAdapterService.getService());
+        assertTrue(getter instanceof ReflectionPropMethodGetter);
+    }
+
+    private CodegenPropertyGetter makeGetter(Class clazz, String methodName) throws Exception
+    {
+        Method method = clazz.getMethod(methodName);
+        CodegenPropertyGetter getter = CodegenPropertyGetterFactory.make(method, clazz, SupportEventAdapterService.getService());
+        assertNotNull(getter);
+        return getter;
+    }
+
+    private static class MyPrivateBean
+    {
+        public String getValue()
+        {
+            return "x";
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.filter;
+
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.event.SupportEventBeanFactory;
+import com.espertech.esper.support.filter.SupportEventEvaluator;
+import junit.framework.TestCase;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class TestFilterParamIndexEqualsPrimitive extends TestCase
+{
+    private SupportEventEvaluator testEvaluator;
+    private SupportBean testBean;
+    private EventBean testEventBean;
+    private EventType testEventType;
+    private List<FilterHandle> matchesList;
+
+    public void setUp()
+    {
+        testEvaluator = new SupportEventEvaluator();
+        testBean = new SupportBean();
+        testEventBean = SupportEventBeanFactory.createObject(testBean);
+        testEventType = testEventBean.getEventType();
+        matchesList = new LinkedList<FilterHandle>();
+    }
+
+    public void testLong()
+    {
+        FilterParamIndexEqualsLong index = new FilterParamIndexEqualsLong(makeLookupable("intPrimitive"), new ReentrantReadWriteLock(), Integer.class);
+
+        index.put(1, testEvaluator);
+        index.put(20, testEvaluator);
+        index.put(20L, testEvaluator);  // a long-typed constant does not equal an int value
+
+        verifyIntPrimitive(index, 10, 0);
+        verifyIntPrimitive(index, 1, 1);
+        verifyIntPrimitive(index, 20, 1);
+        verifyIntPrimitive(index, -1, 0);
+
+        assertEquals(3, index.size());
+        assertEquals(testEvaluator, index.get(1));
+        assertEquals(testEvaluator, index.get(20L));
+        assertNull(index.get(1L));
+        assertTrue(index.getReadWriteLock() != null);
+        assertTrue(index.remove(1));
+        assertFalse(index.remove(1));
+        assertEquals(null, index.get(1));
+        verifyIntPrimitive(index, 1, 0);
+        assertTrue(index.remove(20L));
+        assertEquals(1, index.size());
+    }
+
+    public void testDouble()
+    {
+        FilterParamIndexEqualsDouble index = new FilterParamIndexEqualsDouble(makeLookupable("doubleBoxed"), new ReentrantReadWriteLock(), Double.class);
+
+        index.put(1.5d, testEvaluator);
+        index.put(0d, testEvaluator);
+
+        verifyDoubleBoxed(index, 1.5d, 1);
+        verifyDoubleBoxed(index, 2.2d, 0);
+        verifyDoubleBoxed(index, 0d, 1);
+        verifyDoubleBoxed(index, -0d, 0);
+        verifyDoubleBoxed(index, null, 0);
+
+        FilterParamIndexEqualsDouble indexFloat = new FilterParamIndexEqualsDouble(makeLookupable("floatPrimitive"), new ReentrantReadWriteLock(), Float.class);
+        indexFloat.put(1.5f, testEvaluator);
+        verifyFloatPrimitive(indexFloat, 1.5f, 1);
+        verifyFloatPrimitive(indexFloat, 2.2f, 0);
+        verifyFloatPrimitive(indexFloat, 0, 0);
+    }
+
+    public void testString()
+    {
+        FilterParamIndexEqualsString index = new FilterParamIndexEqualsString(makeLookupable("theString"), new ReentrantReadWriteLock());
+
+        index.put("hello", testEvaluator);
+        index.put("test", testEvaluator);
+
+        verifyString(index, null, 0);
+        verifyString(index, "dudu", 0);
+        verifyString(index, "hello", 1);
+        verifyString(index, "test", 1);
+
+        assertEquals(2, index.size());
+        assertTrue(index.remove("hello"));
+        assertFalse(index.remove("hello"));
+        verifyString(index, "hello", 0);
+    }
+
+    private void verifyIntPrimitive(FilterParamIndexBase index, int testValue, int numExpected)
+    {
+        testBean.setIntPrimitive(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private void verifyDoubleBoxed(FilterParamIndexBase index, Double testValue, int numExpected)
+    {
+        testBean.setDoubleBoxed(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private void verifyFloatPrimitive(FilterParamIndexBase index, float testValue, int numExpected)
+    {
+        testBean.setFloatPrimitive(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private void verifyString(FilterParamIndexBase index, String testValue, int numExpected)
+    {
+        testBean.setTheString(testValue);
+        index.matchEvent(testEventBean, matchesList);
+        assertEquals(numExpected, testEvaluator.getAndResetCountInvoked());
+    }
+
+    private FilterSpecLookupable makeLookupable(String fieldName) {
+        return new FilterSpecLookupable(fieldName, testEventType.getGetter(fieldName), testEventType.getPropertyType(fieldName));
+    }
+}
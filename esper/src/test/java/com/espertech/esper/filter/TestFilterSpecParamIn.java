@@ -26,11 +26,14 @@ public class TestFilterSpecParamIn extends TestCase
         FilterSpecParamIn values2 = new FilterSpecParamIn(makeLookupable("a"), FilterOperator.IN_LIST_OF_VALUES, getList(new Object[] {"A"}));
         FilterSpecParamIn values3 = new FilterSpecParamIn(makeLookupable("a"), FilterOperator.IN_LIST_OF_VALUES, getList(new Object[] {"A", "B"}));
         FilterSpecParamIn values4 = new FilterSpecParamIn(makeLookupable("a"), FilterOperator.IN_LIST_OF_VALUES, getList(new Object[] {"A", "C"}));
+        FilterSpecParamIn values5 = new FilterSpecParamIn(makeLookupable("a"), FilterOperator.IN_LIST_OF_VALUES, getList(new Object[] {"B", "A"}));
 
         assertFalse(values.equals(new FilterSpecParamConstant(makeLookupable("a"), FilterOperator.EQUAL, "a")));
         assertFalse(values.equals(values2));
         assertTrue(values.equals(values3));
         assertFalse(values.equals(values4));
+        assertTrue(values.equals(values5));
+        assertEquals(values.hashCode(), values5.hashCode());
     }
 
     private List<FilterSpecParamInValue> getList(Object[] keys)
@@ -44,6 +44,18 @@ public class TestIndexFactory extends TestCase
         assertTrue(getPropName(index).equals("string"));
         assertTrue(index.getFilterOperator() == FilterOperator.EQUAL);
 
+        // Create "equals" indexes for numeric and string properties
+        index = IndexFactory.createIndex(makeLookupable("intPrimitive"), lockFactory, FilterOperator.EQUAL);
+        assertTrue(index instanceof FilterParamIndexEqualsLong);
+        index = IndexFactory.createIndex(makeLookupable("longBoxed"), lockFactory, FilterOperator.EQUAL);
+        assertTrue(index instanceof FilterParamIndexEqualsLong);
+        index = IndexFactory.createIndex(makeLookupable("doublePrimitive"), lockFactory, FilterOperator.EQUAL);
+        assertTrue(index instanceof FilterParamIndexEqualsDouble);
+        index = IndexFactory.createIndex(makeLookupable("theString"), lockFactory, FilterOperator.EQUAL);
+        assertTrue(index instanceof FilterParamIndexEqualsString);
+        index = IndexFactory.createIndex(makeLookupable("boolPrimitive"), lockFactory, FilterOperator.EQUAL);
+        assertTrue(index instanceof FilterParamIndexEquals);
+
         // Create an "not equals" index
         index = IndexFactory.createIndex(makeLookupable("string"), lockFactory, FilterOperator.NOT_EQUAL);
 
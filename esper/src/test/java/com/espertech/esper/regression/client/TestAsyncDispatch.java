@@ -0,0 +1,249 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.collection.UniformPair;
+import com.espertech.esper.core.thread.AsyncDispatchHandler;
+import com.espertech.esper.core.thread.AsyncDispatchOverflow;
+import com.espertech.esper.core.thread.AsyncDispatchRingBuffer;
+import com.espertech.esper.core.thread.AsyncDispatchWaitStrategy;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestAsyncDispatch extends TestCase
+{
+    private EPServiceProvider epService;
+
+    public void setUp()
+    {
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.addEventType("SupportBean", SupportBean.class);
+        epService = EPServiceProviderManager.getDefaultProvider(configuration);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        epService.destroy();
+    }
+
+    public void testOrderedDelivery() throws Exception
+    {
+        for (String waitStrategy : new String[] {"spin", "yield", "park"})
+        {
+            EPStatement stmt = epService.getEPAdministrator().createEPL("@Name('async') @AsyncDispatch(capacity=16, waitStrategy='" + waitStrategy + "') select intPrimitive from SupportBean");
+            MyRecordingListener listener = new MyRecordingListener(null);
+            stmt.addListener(listener);
+
+            for (int i = 0; i < 1000; i++) {
+                epService.getEPRuntime().sendEvent(new SupportBean("E", i));
+            }
+            listener.waitFor(1000);
+
+            List<Integer> values = listener.getValues();
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(i, (int) values.get(i));
+            }
+            assertEquals(1, listener.getThreadNames().size());
+            assertTrue(listener.getThreadNames().get(0).contains("AsyncDispatch-async"));
+            assertFalse(listener.getThreadNames().get(0).equals(Thread.currentThread().getName()));
+
+            stmt.destroy();
+            assertDispatchThreadStops("AsyncDispatch-async");
+        }
+    }
+
+    public void testOverflowBlock() throws Exception
+    {
+        CountDownLatch latch = new CountDownLatch(1);
+        EPStatement stmt = epService.getEPAdministrator().createEPL("@AsyncDispatch(capacity=2, overflow='block') select intPrimitive from SupportBean");
+        MyRecordingListener listener = new MyRecordingListener(latch);
+        stmt.addListener(listener);
+
+        Thread sender = new Thread(new Runnable() {
+            public void run() {
+                for (int i = 0; i < 10; i++) {
+                    epService.getEPRuntime().sendEvent(new SupportBean("E", i));
+                }
+            }
+        });
+        sender.start();
+        Thread.sleep(200);
+        assertTrue(sender.isAlive());   // blocked as the listener does not take results
+
+        latch.countDown();
+        sender.join(10000);
+        listener.waitFor(10);
+        assertEquals(10, listener.getValues().size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, (int) listener.getValues().get(i));
+        }
+    }
+
+    public void testOverflowDrop() throws Exception
+    {
+        CountDownLatch latch = new CountDownLatch(1);
+        EPStatement stmt = epService.getEPAdministrator().createEPL("@AsyncDispatch(capacity=4, overflow='drop') select intPrimitive from SupportBean");
+        MyRecordingListener listener = new MyRecordingListener(latch);
+        stmt.addListener(listener);
+
+        for (int i = 0; i < 20; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E", i));
+        }
+        latch.countDown();
+        Thread.sleep(200);
+
+        List<Integer> values = listener.getValues();
+        assertTrue(values.size() >= 4 && values.size() <= 5);
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(i, (int) values.get(i));
+        }
+    }
+
+    public void testPublishRacingShutdown() throws Exception
+    {
+        final AtomicInteger numDispatched = new AtomicInteger();
+        AsyncDispatchHandler handler = new AsyncDispatchHandler() {
+            public void dispatchAsync(UniformPair<EventBean[]> events, long publishNanos) {
+                numDispatched.incrementAndGet();
+            }
+        };
+        final AsyncDispatchRingBuffer ringBuffer = new AsyncDispatchRingBuffer("default", "race", handler, 16, AsyncDispatchWaitStrategy.YIELD, AsyncDispatchOverflow.BLOCK);
+        final UniformPair<EventBean[]> events = new UniformPair<EventBean[]>(null, null);
+
+        for (int i = 0; i < 1000; i++) {
+            final CountDownLatch latch = new CountDownLatch(1);
+            Thread producer = new Thread() {
+                public void run() {
+                    try {
+                        latch.await();
+                    }
+                    catch (InterruptedException e) {
+                        return;
+                    }
+                    ringBuffer.publish(events);
+                }
+            };
+            producer.start();
+            latch.countDown();
+            ringBuffer.shutdown();
+            producer.join();
+
+            // a result published while the dispatch thread stopped must still be dispatched
+            long start = System.currentTimeMillis();
+            while (numDispatched.get() != i + 1 && System.currentTimeMillis() - start < 5000) {
+                Thread.sleep(1);
+            }
+            assertEquals(i + 1, numDispatched.get());
+        }
+        ringBuffer.shutdown();
+    }
+
+    public void testInvalid()
+    {
+        tryInvalid("@AsyncDispatch(waitStrategy='sleep') select * from SupportBean",
+                "Invalid wait strategy 'sleep' for asynchronous dispatch, expected any of [SPIN, YIELD, PARK] [@AsyncDispatch(waitStrategy='sleep') select * from SupportBean]");
+        tryInvalid("@AsyncDispatch(overflow='x') select * from SupportBean",
+                "Invalid overflow policy 'x' for asynchronous dispatch, expected any of [BLOCK, DROP] [@AsyncDispatch(overflow='x') select * from SupportBean]");
+        tryInvalid("@AsyncDispatch(capacity=0) select * from SupportBean",
+                "Invalid capacity 0 for asynchronous dispatch, expected a positive number up to 1073741824 [@AsyncDispatch(capacity=0) select * from SupportBean]");
+    }
+
+    private void tryInvalid(String epl, String message)
+    {
+        try {
+            epService.getEPAdministrator().createEPL(epl);
+            fail();
+        }
+        catch (EPStatementException ex) {
+            assertEquals(message, ex.getMessage());
+        }
+    }
+
+    private void assertDispatchThreadStops(String name) throws InterruptedException
+    {
+        long start = System.currentTimeMillis();
+        while (System.currentTimeMillis() - start < 5000) {
+            boolean found = false;
+            for (Thread thread : Thread.getAllStackTraces().keySet()) {
+                if (thread.getName().contains(name) && thread.isAlive()) {
+                    found = true;
+                }
+            }
+            if (!found) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("Dispatch thread did not stop");
+    }
+
+    private static class MyRecordingListener implements UpdateListener
+    {
+        private final CountDownLatch latch;
+        private final List<Integer> values = new ArrayList<Integer>();
+        private final List<String> threadNames = new ArrayList<String>();
+
+        private MyRecordingListener(CountDownLatch latch)
+        {
+            this.latch = latch;
+        }
+
+        public void update(EventBean[] newEvents, EventBean[] oldEvents)
+        {
+            if (latch != null) {
+                try {
+                    latch.await(10, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            synchronized (this) {
+                for (EventBean event : newEvents) {
+                    values.add((Integer) event.get("intPrimitive"));
+                }
+                if (!threadNames.contains(Thread.currentThread().getName())) {
+                    threadNames.add(Thread.currentThread().getName());
+                }
+            }
+        }
+
+        private void waitFor(int count) throws InterruptedException
+        {
+            long start = System.currentTimeMillis();
+            while (getValues().size() < count && System.currentTimeMillis() - start < 10000) {
+                Thread.sleep(10);
+            }
+        }
+
+        private synchronized List<Integer> getValues()
+        {
+            return new ArrayList<Integer>(values);
+        }
+
+        private synchronized List<String> getThreadNames()
+        {
+            return new ArrayList<String>(threadNames);
+        }
+    }
+}
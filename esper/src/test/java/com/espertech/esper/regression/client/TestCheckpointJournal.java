@@ -0,0 +1,332 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.core.checkpoint.CheckpointJournal;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.bean.SupportBean_S0;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+public class TestCheckpointJournal extends TestCase
+{
+    private static final long MINUTE = 60 * 1000;
+
+    private File file;
+    private EPServiceProvider epServiceOne;
+    private EPServiceProvider epServiceTwo;
+
+    public void setUp() throws Exception
+    {
+        file = File.createTempFile("esper-journal", ".bin");
+        file.delete();
+    }
+
+    public void tearDown()
+    {
+        if (epServiceOne != null) {
+            epServiceOne.destroy();
+        }
+        if (epServiceTwo != null) {
+            epServiceTwo.destroy();
+        }
+        epServiceOne = null;
+        epServiceTwo = null;
+        file.delete();
+    }
+
+    public void testRestoreWindowsAggregationsPatterns() throws Exception
+    {
+        epServiceOne = makeEngine("journal-one");
+        SupportUpdateListener listenerOne = createStatements(epServiceOne);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epServiceOne, this.getClass(), getName());}
+
+        CheckpointJournal journal = new CheckpointJournal(epServiceOne, file, 30 * MINUTE);
+        assertEquals(0, journal.restore());
+        journal.start();
+
+        long lastFileLength = 0;
+        for (int minute = 0; minute <= 90; minute++)
+        {
+            sendEvents(epServiceOne, minute);
+            if (minute % 10 == 0)
+            {
+                journal.checkpoint();
+                assertTrue(file.length() != lastFileLength);
+                lastFileLength = file.length();
+            }
+        }
+        // retained events are counted per checkpoint, and the rewritten file replaced the journal file
+        assertEquals(80, journal.getNumRetained());
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+        journal.stop();
+
+        // restore into a second engine with the same statements
+        epServiceTwo = makeEngine("journal-two");
+        SupportUpdateListener listenerTwo = createStatements(epServiceTwo);
+        CheckpointJournal journalTwo = new CheckpointJournal(epServiceTwo, file, 30 * MINUTE);
+        assertTrue(journalTwo.validateHorizon().isEmpty());
+        assertEquals(62, journalTwo.restore());
+        assertEquals(90 * MINUTE, epServiceTwo.getEPRuntime().getCurrentTime());
+        assertEquals(80, journalTwo.getNumRetained());
+
+        for (String name : new String[] {"window", "aggregation", "grouped", "mapwindow"})
+        {
+            String expected = toString(epServiceOne.getEPAdministrator().getStatement(name));
+            assertTrue(expected.length() > 0);
+            assertEquals(expected, toString(epServiceTwo.getEPAdministrator().getStatement(name)));
+        }
+
+        // continue both engines and compare output, including patterns started before restore
+        listenerOne.reset();
+        listenerTwo.reset();
+        for (int minute = 91; minute <= 100; minute++)
+        {
+            sendEvents(epServiceOne, minute);
+            sendEvents(epServiceTwo, minute);
+        }
+        epServiceOne.getEPRuntime().sendEvent(new SupportBean_S0(1, "E80"));
+        epServiceTwo.getEPRuntime().sendEvent(new SupportBean_S0(1, "E80"));
+        assertTrue(listenerOne.getNewDataList().size() > 0);
+        assertEquals(toString(listenerOne), toString(listenerTwo));
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+    }
+
+    public void testRestoreInternalClocking() throws Exception
+    {
+        // record events of the last 10 minutes
+        long start = System.currentTimeMillis() - 10 * MINUTE;
+        epServiceOne = makeEngine("journal-one");
+        epServiceOne.getEPRuntime().sendEvent(new CurrentTimeEvent(start));
+        CheckpointJournal journal = new CheckpointJournal(epServiceOne, file, 30 * MINUTE);
+        journal.start();
+        for (int minute = 0; minute <= 10; minute++)
+        {
+            epServiceOne.getEPRuntime().sendEvent(new CurrentTimeEvent(start + minute * MINUTE));
+            epServiceOne.getEPRuntime().sendEvent(new SupportBean("E" + minute, minute));
+        }
+        journal.checkpoint();
+        journal.stop();
+
+        // restore into an engine that uses the internal timer, events older than 5 minutes expire
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.getEngineDefaults().getThreading().setInternalTimerEnabled(true);
+        configuration.addEventType("SupportBean", SupportBean.class);
+        epServiceTwo = EPServiceProviderManager.getProvider("journal-two", configuration);
+        epServiceTwo.initialize();
+        EPStatement statement = epServiceTwo.getEPAdministrator().createEPL("select irstream theString from SupportBean.win:time(5 min)");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        statement.addListener(listener);
+
+        CheckpointJournal journalTwo = new CheckpointJournal(epServiceTwo, file, 30 * MINUTE);
+        assertEquals(11, journalTwo.restore());
+        assertFalse(epServiceTwo.getEPRuntime().isExternalClockingEnabled());
+        assertEquals(6, listener.getOldDataListFlattened().length);
+
+        StringBuilder builder = new StringBuilder();
+        for (Iterator<EventBean> it = statement.iterator(); it.hasNext();) {
+            builder.append(it.next().get("theString")).append(' ');
+        }
+        assertEquals("E6 E7 E8 E9 E10 ", builder.toString());
+    }
+
+    public void testEventChangedAfterSend() throws Exception
+    {
+        epServiceOne = makeEngine("journal-one");
+        CheckpointJournal journal = new CheckpointJournal(epServiceOne, file, MINUTE);
+        journal.start();
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("id", "M1");
+        map.put("value", 1d);
+        epServiceOne.getEPRuntime().sendEvent(map, "MyMapEvent");
+        map.put("value", 2d);
+        epServiceOne.getEPRuntime().sendEvent(new SupportBean_S0(1, "S1"));
+        journal.checkpoint();
+        journal.stop();
+
+        epServiceTwo = makeEngine("journal-two");
+        EPStatement statement = epServiceTwo.getEPAdministrator().createEPL("select id, value from MyMapEvent.win:keepall()");
+        CheckpointJournal journalTwo = new CheckpointJournal(epServiceTwo, file, MINUTE);
+        assertEquals(2, journalTwo.restore());
+        EventBean restored = statement.iterator().next();
+        assertEquals("M1", restored.get("id"));
+        assertEquals(1d, restored.get("value"));
+    }
+
+    public void testBoundedQueue() throws Exception
+    {
+        // a queue of one event blocks the sending thread until the writer thread takes the event
+        epServiceOne = makeEngine("journal-one");
+        CheckpointJournal journal = new CheckpointJournal(epServiceOne, file, MINUTE, 1);
+        journal.start();
+        for (int i = 0; i < 1000; i++) {
+            epServiceOne.getEPRuntime().sendEvent(new SupportBean("E" + i, i));
+        }
+        journal.checkpoint();
+        epServiceOne.getEPRuntime().sendEvent(new SupportBean("E1000", 1000));
+        journal.stop();
+
+        // events after the last checkpoint are not replayed
+        epServiceTwo = makeEngine("journal-two");
+        EPStatement statement = epServiceTwo.getEPAdministrator().createEPL("select sum(intPrimitive) as total from SupportBean.win:time(1 min)");
+        CheckpointJournal journalTwo = new CheckpointJournal(epServiceTwo, file, MINUTE);
+        assertEquals(1000, journalTwo.restore());
+        assertEquals(499500, statement.iterator().next().get("total"));
+        assertEquals(1000, journalTwo.getNumRetained());
+    }
+
+    public void testValidateHorizon() throws Exception
+    {
+        epServiceOne = makeEngine("journal-one");
+        EPAdministrator admin = epServiceOne.getEPAdministrator();
+        admin.createEPL("@Name('time') select * from SupportBean.win:time(10 min)");
+        admin.createEPL("@Name('grouped') select * from SupportBean.std:groupwin(theString).win:time(1 hour 30 sec)");
+        admin.createEPL("@Name('length') select * from SupportBean.win:length(10)");
+        admin.createEPL("@Name('keepall') select * from SupportBean.win:keepall()");
+        admin.createEPL("@Name('filter') select * from SupportBean(intPrimitive > 1)");
+        admin.createEPL("@Name('unbounded') select sum(intPrimitive) from SupportBean");
+        admin.createEPL("@Name('bounded-pattern') select * from pattern [every a=SupportBean -> b=SupportBean_S0 where timer:within(5 min)]");
+        admin.createEPL("@Name('unbounded-pattern') select * from pattern [every a=SupportBean -> b=SupportBean_S0]");
+        admin.createEPL("@Name('window') create window MyWindow.win:length(5) as SupportBean");
+        admin.createEPL("@Name('from-window') select count(*) from MyWindow");
+        admin.createEPL("@Name('table') create table MyTable(total sum(int))");
+        admin.createEPL("@Name('stopped') select * from SupportBean.win:length(10)").stop();
+
+        CheckpointJournal journal = new CheckpointJournal(epServiceOne, file, 30 * MINUTE);
+        String prefix = "keeps state that is not bounded by the checkpoint horizon of 1800000 milliseconds, ";
+        EPAssertionUtil.assertEqualsAnyOrder(new Object[] {
+                "Statement 'grouped' " + prefix + "view 'win:time' has a time period that is longer than the horizon or not a constant",
+                "Statement 'length' " + prefix + "view 'win:length' retains events regardless of time",
+                "Statement 'keepall' " + prefix + "view 'win:keepall' retains events regardless of time",
+                "Statement 'unbounded' " + prefix + "aggregation is over all events of a stream without data window",
+                "Statement 'unbounded-pattern' " + prefix + "pattern 'every a=SupportBean -> b=SupportBean_S0' may keep partial matches longer than the horizon",
+                "Statement 'window' " + prefix + "view 'win:length' retains events regardless of time",
+                "Statement 'table' " + prefix + "table rows are kept regardless of time",
+        }, journal.validateHorizon().toArray());
+    }
+
+    public void testInvalid() throws Exception
+    {
+        epServiceOne = makeEngine("journal-one");
+        try {
+            new CheckpointJournal(epServiceOne, file, 0);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            assertEquals("Invalid horizon 0, the horizon must be a positive number of milliseconds", ex.getMessage());
+        }
+
+        try {
+            new CheckpointJournal(epServiceOne, file, MINUTE, 0);
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            assertEquals("Invalid queue capacity 0, the queue capacity must be a positive number", ex.getMessage());
+        }
+
+        CheckpointJournal journal = new CheckpointJournal(epServiceOne, file, MINUTE);
+        try {
+            journal.checkpoint();
+            fail();
+        }
+        catch (IllegalStateException ex) {
+            assertEquals("Journal must be started before taking a checkpoint", ex.getMessage());
+        }
+
+        journal.start();
+        try {
+            journal.restore();
+            fail();
+        }
+        catch (IllegalStateException ex) {
+            assertEquals("Journal cannot restore after it started recording", ex.getMessage());
+        }
+        journal.stop();
+    }
+
+    private EPServiceProvider makeEngine(String uri)
+    {
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.addEventType("SupportBean", SupportBean.class);
+        configuration.addEventType("SupportBean_S0", SupportBean_S0.class);
+        Map<String, Object> mapType = new HashMap<String, Object>();
+        mapType.put("id", String.class);
+        mapType.put("value", Double.class);
+        configuration.addEventType("MyMapEvent", mapType);
+        EPServiceProvider epService = EPServiceProviderManager.getProvider(uri, configuration);
+        epService.initialize();
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        return epService;
+    }
+
+    private SupportUpdateListener createStatements(EPServiceProvider epService)
+    {
+        EPAdministrator admin = epService.getEPAdministrator();
+        admin.createEPL("@Name('window') select * from SupportBean.win:time(30 min)");
+        admin.createEPL("@Name('aggregation') select sum(intPrimitive) as total, count(*) as cnt, avg(intPrimitive) as average from SupportBean.win:time(30 min)");
+        admin.createEPL("@Name('grouped') select theString, sum(intPrimitive) as total from SupportBean.win:time(20 min) group by intPrimitive % 3 order by theString");
+        admin.createEPL("@Name('mapwindow') select id, sum(value) as total from MyMapEvent.win:time(15 min)");
+        EPStatement pattern = admin.createEPL("@Name('pattern') select a.theString as a, b.id as b from pattern [every a=SupportBean -> b=SupportBean_S0(p00=a.theString) where timer:within(25 min)]");
+        SupportUpdateListener listener = new SupportUpdateListener();
+        pattern.addListener(listener);
+        return listener;
+    }
+
+    private void sendEvents(EPServiceProvider epService, int minute)
+    {
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(minute * MINUTE));
+        epService.getEPRuntime().sendEvent(new SupportBean("E" + minute, minute));
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("id", "M" + minute);
+        map.put("value", minute / 2d);
+        epService.getEPRuntime().sendEvent(map, "MyMapEvent");
+    }
+
+    private static String toString(EPStatement statement)
+    {
+        StringBuilder builder = new StringBuilder();
+        for (Iterator<EventBean> it = statement.iterator(); it.hasNext();) {
+            builder.append(toString(it.next()));
+        }
+        return builder.toString();
+    }
+
+    private static String toString(SupportUpdateListener listener)
+    {
+        StringBuilder builder = new StringBuilder();
+        for (EventBean[] events : listener.getNewDataList()) {
+            for (EventBean event : events) {
+                builder.append(toString(event));
+            }
+        }
+        return builder.toString();
+    }
+
+    private static String toString(EventBean event)
+    {
+        StringBuilder builder = new StringBuilder();
+        for (String property : event.getEventType().getPropertyNames()) {
+            builder.append(property).append('=').append(event.get(property)).append(' ');
+        }
+        return builder.append('\n').toString();
+    }
+}
@@ -38,7 +38,8 @@ public class TestEPServiceProviderMetricsJMX extends TestCase {
     private final static String FILTER_NAME = "\"com.espertech.esper-default\":type=\"filter\"";
     private final static String RUNTIME_NAME = "\"com.espertech.esper-default\":type=\"runtime\"";
     private final static String SCHEDULE_NAME = "\"com.espertech.esper-default\":type=\"schedule\"";
-    private final static String[] ALL = new String[] {FILTER_NAME, RUNTIME_NAME, SCHEDULE_NAME};
+    private final static String FOOTPRINT_NAME = "\"com.espertech.esper-default\":type=\"footprint\"";
+    private final static String[] ALL = new String[] {FILTER_NAME, RUNTIME_NAME, SCHEDULE_NAME, FOOTPRINT_NAME};
 
     public void testMetricsJMX() throws Exception {
 
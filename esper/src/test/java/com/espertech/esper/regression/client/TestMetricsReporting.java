@@ -415,10 +415,17 @@ public class TestMetricsReporting extends TestCase
         assertTrue("wallOne=" + wallOne, (wallOne + 50) > wallGoalOneMsec);
         assertTrue("wallTwo=" + wallTwo, (wallTwo + 50) > wallGoalTwoMsec);
 
+        long wallLatencyOne = (Long) received[2].get("processingLatencyP50");
+        long wallLatencyTwo = (Long) received[3].get("processingLatencyP999");
+        assertTrue("wallLatencyOne=" + wallLatencyOne, wallLatencyOne / 1000000 + 50 > wallGoalOneMsec);
+        assertTrue("wallLatencyTwo=" + wallLatencyTwo, wallLatencyTwo / 1000000 + 50 > wallGoalTwoMsec);
+
         for (int i = 0; i < 4; i++)
         {
             assertEquals(1L, received[i].get("numOutputIStream"));
             assertEquals(0L, received[i].get("numOutputRStream"));
+            assertTrue((Long) received[i].get("processingLatencyP99") > 0);
+            assertTrue((Long) received[i].get("dispatchLatencyP99") > 0);
             assertEquals(timestamp, received[i].get("timestamp"));
         }
 
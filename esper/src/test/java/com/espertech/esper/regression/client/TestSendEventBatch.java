@@ -0,0 +1,169 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.bean.SupportBean_S0;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TestSendEventBatch extends TestCase
+{
+    private static final String[] STATEMENTS = new String[] {
+        "@Name('filter') select theString, intPrimitive from SupportBean(intPrimitive > 5)",
+        "@Name('insert') insert into MyStream select theString, intPrimitive * 2 as doubled from SupportBean(intPrimitive between 3 and 7)",
+        "@Name('consume') select * from MyStream",
+        "@Name('create') create window MyWindow.win:keepall() as SupportBean",
+        "@Name('merge') on SupportBean_S0 as s0 merge MyWindow as w where w.theString = s0.p00 when not matched then insert select s0.p00 as theString, s0.id as intPrimitive",
+        "@Name('window') select irstream theString, intPrimitive from MyWindow",
+        "@Name('pattern') select a.theString as a, b.id as b from pattern [every a=SupportBean -> b=SupportBean_S0(p00=a.theString)]",
+        "@Name('time') select count(*) as cnt from SupportBean.win:time(10 sec)"
+    };
+
+    private EPServiceProvider epService;
+
+    protected void tearDown() throws Exception {
+        if (epService != null) {
+            epService.destroy();
+        }
+        epService = null;
+    }
+
+    public void testBatchEquivalentToSequential()
+    {
+        Object[] events = makeEvents();
+
+        List<String> expected = new ArrayList<String>();
+        setUpEngine(expected);
+        for (Object theEvent : events) {
+            epService.getEPRuntime().sendEvent(theEvent);
+        }
+        epService.destroy();
+
+        List<String> received = new ArrayList<String>();
+        setUpEngine(received);
+        epService.getEPRuntime().sendEvents(events);
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, received);
+    }
+
+    public void testEventSenderBatch()
+    {
+        Object[] beans = new Object[] {new SupportBean("E1", 6), new SupportBean("E2", 1), new SupportBean("E3", 4), new SupportBean("E4", 7)};
+
+        List<String> expected = new ArrayList<String>();
+        setUpEngine(expected);
+        EventSender sender = epService.getEPRuntime().getEventSender("SupportBean");
+        for (Object bean : beans) {
+            sender.sendEvent(bean);
+        }
+        epService.destroy();
+
+        List<String> received = new ArrayList<String>();
+        setUpEngine(received);
+        epService.getEPRuntime().getEventSender("SupportBean").sendEvents(beans);
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, received);
+
+        try {
+            epService.getEPRuntime().getEventSender("SupportBean").sendEvents(new Object[] {new SupportBean_S0(1)});
+            fail();
+        }
+        catch (EPException ex) {
+            assertEquals("Event object of type com.espertech.esper.support.bean.SupportBean_S0 does not equal, extend or implement the type com.espertech.esper.support.bean.SupportBean of event type 'SupportBean'", ex.getMessage());
+        }
+
+        try {
+            epService.getEPRuntime().getEventSender("SupportBean").sendEvents(new Object[] {null});
+            fail();
+        }
+        catch (NullPointerException ex) {
+            assertEquals("No event object provided to sendEvents method", ex.getMessage());
+        }
+        try {
+            epService.getEPRuntime().getEventSender("SupportBean").route(null);
+            fail();
+        }
+        catch (NullPointerException ex) {
+            assertEquals("No event object provided to route method", ex.getMessage());
+        }
+    }
+
+    private void setUpEngine(List<String> log)
+    {
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.addEventType("SupportBean", SupportBean.class);
+        configuration.addEventType("SupportBean_S0", SupportBean_S0.class);
+        epService = EPServiceProviderManager.getProvider(TestSendEventBatch.class.getSimpleName(), configuration);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+
+        for (String epl : STATEMENTS) {
+            EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+            stmt.addListener(new MyLoggingListener(stmt.getName(), log));
+        }
+    }
+
+    private Object[] makeEvents()
+    {
+        List<Object> events = new ArrayList<Object>();
+        for (int i = 0; i < 50; i++) {
+            events.add(new SupportBean("E" + (i % 7), i % 10));
+            if (i % 3 == 0) {
+                events.add(new SupportBean_S0(i, "E" + (i % 5)));
+            }
+            if (i % 11 == 0) {
+                events.add(new CurrentTimeEvent(i * 1000));
+            }
+        }
+        return events.toArray();
+    }
+
+    private static class MyLoggingListener implements UpdateListener
+    {
+        private final String name;
+        private final List<String> log;
+
+        private MyLoggingListener(String name, List<String> log)
+        {
+            this.name = name;
+            this.log = log;
+        }
+
+        public void update(EventBean[] newEvents, EventBean[] oldEvents)
+        {
+            log.add(name + " new=" + render(newEvents) + " old=" + render(oldEvents));
+        }
+
+        private static String render(EventBean[] events)
+        {
+            if (events == null) {
+                return "null";
+            }
+            List<String> rendered = new ArrayList<String>();
+            for (EventBean event : events) {
+                rendered.add(event.getUnderlying().toString());
+            }
+            return Arrays.toString(rendered.toArray());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.metric.StatementMetric;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.core.service.EPStatementSPI;
+import com.espertech.esper.epl.metric.StatementFootprint;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestStatementFootprint extends TestCase
+{
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+
+    public void setUp()
+    {
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.getEngineDefaults().getMetricsReporting().setEnableMetricsReporting(true);
+        configuration.getEngineDefaults().getMetricsReporting().setThreading(false);
+        configuration.getEngineDefaults().getMetricsReporting().setEngineInterval(-1);
+        configuration.getEngineDefaults().getMetricsReporting().setStatementInterval(1000);
+        configuration.getEngineDefaults().getMetricsReporting().setStatementFootprint(true);
+        configuration.addEventType("SupportBean", SupportBean.class);
+        epService = EPServiceProviderManager.getDefaultProvider(configuration);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(0));
+        listener = new SupportUpdateListener();
+    }
+
+    public void tearDown()
+    {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+        epService.destroy();
+    }
+
+    public void testDataWindow()
+    {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("@Name('s0') select * from SupportBean.win:length(100)");
+        assertFootprint(stmt, 0, 0, 0);
+
+        sendEvents(10, 10);
+        StatementFootprint ten = assertFootprint(stmt, 10, 0, 0);
+        assertTrue(ten.getEstimatedBytes() > 0);
+
+        sendEvents(10, 10);
+        StatementFootprint twenty = assertFootprint(stmt, 20, 0, 0);
+        assertEquals(2 * ten.getEstimatedBytes(), twenty.getEstimatedBytes());
+
+        stmt.stop();
+        StatementFootprint stopped = getFootprint(stmt);
+        assertEquals(0, stopped.getNumRows());
+        assertEquals(0, stopped.getEstimatedBytes());
+    }
+
+    public void testGroupedDataWindow()
+    {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("@Name('s0') select * from SupportBean.std:groupwin(theString).win:length(2)");
+        sendEvents(3, 9);
+        assertFootprint(stmt, 6, 3, 0);
+    }
+
+    public void testAggregation()
+    {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("@Name('s0') select theString, sum(intPrimitive) from SupportBean group by theString");
+        sendEvents(5, 20);
+        StatementFootprint footprint = assertFootprint(stmt, 0, 5, 0);
+        assertTrue(footprint.getEstimatedBytes() > 0);
+    }
+
+    public void testTable()
+    {
+        EPStatement stmtTable = epService.getEPAdministrator().createEPL("create table MyTable (theString string primary key, total sum(int))");
+        epService.getEPAdministrator().createEPL("into table MyTable select sum(intPrimitive) as total from SupportBean group by theString");
+        sendEvents(4, 8);
+        StatementFootprint footprint = assertFootprint(stmtTable, 4, 0, 0);
+        assertTrue(footprint.getEstimatedBytes() > 0);
+    }
+
+    public void testMatchRecognize()
+    {
+        EPStatement stmt = epService.getEPAdministrator().createEPL("@Name('s0') select * from SupportBean " +
+                "match_recognize (partition by theString measures A.theString as a pattern (A B) define B as B.intPrimitive > A.intPrimitive)");
+        sendEvents(3, 3);
+        StatementFootprint footprint = getFootprint(stmt);
+        assertTrue(footprint.getNumStates() > 0);
+        assertTrue(footprint.getEstimatedBytes() > 0);
+    }
+
+    public void testContextPartitions()
+    {
+        epService.getEPAdministrator().createEPL("create context SegmentedByString partition by theString from SupportBean");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("@Name('s0') context SegmentedByString select count(*) from SupportBean.win:keepall()");
+        sendEvents(4, 12);
+
+        StatementFootprint footprint = assertFootprint(stmt, 12, 4, 0);
+        assertEquals(4, footprint.getContextPartitions().size());
+        for (StatementFootprint partition : footprint.getContextPartitions().values()) {
+            assertEquals(3, partition.getNumRows());
+        }
+    }
+
+    public void testMetricEvent()
+    {
+        epService.getEPAdministrator().createEPL("@Name('s0') select * from SupportBean.win:keepall()");
+        EPStatement stmtMetric = epService.getEPAdministrator().createEPL("select * from " + StatementMetric.class.getName() + "(statementName = 's0')");
+        stmtMetric.addListener(listener);
+        sendEvents(2, 5);
+
+        epService.getEPRuntime().sendEvent(new CurrentTimeEvent(1000));
+        StatementMetric metric = (StatementMetric) listener.assertOneGetNewAndReset().getUnderlying();
+        assertEquals(5, metric.getFootprintRows());
+        assertEquals(0, metric.getFootprintGroups());
+        assertTrue(metric.getFootprintBytes() > 0);
+    }
+
+    private StatementFootprint assertFootprint(EPStatement stmt, long numRows, long numGroups, long numStates)
+    {
+        StatementFootprint footprint = getFootprint(stmt);
+        assertEquals(numRows, footprint.getNumRows());
+        assertEquals(numGroups, footprint.getNumGroups());
+        assertEquals(numStates, footprint.getNumStates());
+        return footprint;
+    }
+
+    private StatementFootprint getFootprint(EPStatement stmt)
+    {
+        return ((EPStatementSPI) stmt).getFootprint();
+    }
+
+    private void sendEvents(int numKeys, int numEvents)
+    {
+        for (int i = 0; i < numEvents; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E" + (i % numKeys), i));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.client;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.support.bean.SupportBean;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestThreadedConfigInboundPartitioned extends TestCase
+{
+    public void testOrderedPerKey() throws Exception
+    {
+        Configuration config = new Configuration();
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        config.getEngineDefaults().getThreading().setThreadPoolInbound(true);
+        config.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(4);
+        config.getEngineDefaults().getThreading().addThreadPoolInboundPartitionProperty("SupportBean", "theString");
+        config.addEventType("SupportBean", SupportBean.class);
+
+        EPServiceProvider epService = EPServiceProviderManager.getProvider(TestThreadedConfigInboundPartitioned.class.getSimpleName(), config);
+        epService.initialize();
+        EPServiceProviderSPI spi = (EPServiceProviderSPI) epService;
+        assertTrue(spi.getThreadingService().isInboundPartitioned());
+
+        epService.getEPAdministrator().createEPL("create context SegmentedByString partition by theString from SupportBean");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("context SegmentedByString select theString, intPrimitive, prev(1, intPrimitive) as prevInt from SupportBean.win:length(2)");
+        MyOrderListener listener = new MyOrderListener();
+        stmt.addListener(listener);
+
+        int numKeys = 20;
+        int numEvents = 200;
+        for (int i = 0; i < numEvents; i++) {
+            for (int key = 0; key < numKeys; key++) {
+                epService.getEPRuntime().sendEvent(new SupportBean("K" + key, i));
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        while (listener.getCount() < numKeys * numEvents && System.currentTimeMillis() - start < 10000) {
+            Thread.sleep(20);
+        }
+        assertEquals(numKeys * numEvents, listener.getCount());
+        assertNull(listener.getFailure(), listener.getFailure());
+        for (Set<String> threads : listener.getThreadsPerKey().values()) {
+            assertEquals(1, threads.size());
+        }
+        assertTrue(listener.getThreads().size() > 1);
+
+        epService.destroy();
+    }
+
+    public void testUnpartitionedType() throws Exception
+    {
+        Configuration config = new Configuration();
+        config.getEngineDefaults().getThreading().setInternalTimerEnabled(false);
+        config.getEngineDefaults().getThreading().setThreadPoolInbound(true);
+        config.getEngineDefaults().getThreading().setThreadPoolInboundNumThreads(2);
+        config.getEngineDefaults().getThreading().addThreadPoolInboundPartitionProperty("SupportBean", "theString");
+        Map<String, Object> typeDef = new HashMap<String, Object>();
+        typeDef.put("id", Integer.class);
+        config.addEventType("MyMap", typeDef);
+
+        EPServiceProvider epService = EPServiceProviderManager.getProvider(TestThreadedConfigInboundPartitioned.class.getSimpleName(), config);
+        epService.initialize();
+
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select prev(1, id) as prevId, id from MyMap.win:length(2)");
+        MyOrderListener listener = new MyOrderListener();
+        stmt.addListener(listener);
+
+        for (int i = 0; i < 1000; i++) {
+            Map<String, Object> event = new HashMap<String, Object>();
+            event.put("id", i);
+            epService.getEPRuntime().sendEvent(event, "MyMap");
+        }
+
+        long start = System.currentTimeMillis();
+        while (listener.getCount() < 1000 && System.currentTimeMillis() - start < 10000) {
+            Thread.sleep(20);
+        }
+        assertEquals(1000, listener.getCount());
+        assertNull(listener.getFailure(), listener.getFailure());
+        assertEquals(1, listener.getThreads().size());
+
+        epService.destroy();
+    }
+
+    private static class MyOrderListener implements UpdateListener
+    {
+        private final Map<String, Set<String>> threadsPerKey = new HashMap<String, Set<String>>();
+        private final Set<String> threads = new HashSet<String>();
+        private int count;
+        private String failure;
+
+        public synchronized void update(EventBean[] newEvents, EventBean[] oldEvents)
+        {
+            for (EventBean event : newEvents) {
+                count++;
+                String threadName = Thread.currentThread().getName();
+                threads.add(threadName);
+
+                String key = event.getEventType().isProperty("theString") ? (String) event.get("theString") : "";
+                Set<String> keyThreads = threadsPerKey.get(key);
+                if (keyThreads == null) {
+                    keyThreads = new HashSet<String>();
+                    threadsPerKey.put(key, keyThreads);
+                }
+                keyThreads.add(threadName);
+
+                String valueProp = event.getEventType().isProperty("id") ? "id" : "intPrimitive";
+                String prevProp = event.getEventType().isProperty("id") ? "prevId" : "prevInt";
+                Integer value = (Integer) event.get(valueProp);
+                Integer prev = (Integer) event.get(prevProp);
+                if (value != 0 && (prev == null || prev != value - 1) && failure == null) {
+                    failure = "Out-of-order event for key '" + key + "' value " + value + " previous " + prev;
+                }
+            }
+        }
+
+        public synchronized int getCount()
+        {
+            return count;
+        }
+
+        public synchronized String getFailure()
+        {
+            return failure;
+        }
+
+        public synchronized Map<String, Set<String>> getThreadsPerKey()
+        {
+            return threadsPerKey;
+        }
+
+        public synchronized Set<String> getThreads()
+        {
+            return threads;
+        }
+    }
+}
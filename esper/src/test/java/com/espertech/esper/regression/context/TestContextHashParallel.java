@@ -0,0 +1,185 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.context;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.*;
+
+public class TestContextHashParallel extends TestCase {
+
+    private static final int NUM_KEYS = 20;
+    private static final int NUM_EVENTS = 2000;
+
+    private EPServiceProvider epService;
+
+    public void setUp()
+    {
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.addEventType("SupportBean", SupportBean.class);
+        epService = EPServiceProviderManager.getDefaultProvider(configuration);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    public void tearDown() {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+    }
+
+    public void testParallelPartitions() throws Exception {
+        runAssertionParallel(16, true, 4, null);
+        runAssertionParallel(16, false, 4, null);
+        runAssertionParallel(3, true, 8, null);
+    }
+
+    public void testBoundedQueue() throws Exception {
+        // senders wait for queue space, no event is lost
+        runAssertionParallel(16, true, 4, 1);
+        runAssertionParallel(16, false, 2, 3);
+    }
+
+    private void runAssertionParallel(int granularity, boolean preallocate, int numThreads, Integer queueCapacity) throws Exception {
+        String hint = "partition_threads=" + numThreads + (queueCapacity == null ? "" : ",partition_queue_capacity=" + queueCapacity);
+        epService.getEPAdministrator().createEPL("@Hint('" + hint + "') create context HashCtx coalesce by hash_code(theString) from SupportBean " +
+                "granularity " + granularity + (preallocate ? " preallocate" : ""));
+        EPStatement stmtTotal = epService.getEPAdministrator().createEPL("context HashCtx insert into TotalStream select theString, sum(intPrimitive) as total from SupportBean group by theString");
+        MyCollectingListener listenerTotal = new MyCollectingListener();
+        stmtTotal.addListener(listenerTotal);
+        EPStatement stmtConsume = epService.getEPAdministrator().createEPL("select * from TotalStream");
+        MyCollectingListener listenerConsume = new MyCollectingListener();
+        stmtConsume.addListener(listenerConsume);
+
+        Map<String, List<Integer>> expected = new HashMap<String, List<Integer>>();
+        int[] sums = new int[NUM_KEYS];
+        for (int i = 0; i < NUM_EVENTS; i++) {
+            int key = (i * 7) % NUM_KEYS;
+            sums[key] += i;
+            String theString = "K" + key;
+            List<Integer> totals = expected.get(theString);
+            if (totals == null) {
+                totals = new ArrayList<Integer>();
+                expected.put(theString, totals);
+            }
+            totals.add(sums[key]);
+            epService.getEPRuntime().sendEvent(new SupportBean(theString, i));
+        }
+
+        listenerTotal.waitForCount(NUM_EVENTS);
+        listenerConsume.waitForCount(NUM_EVENTS);
+
+        // per-partition order is preserved
+        assertEquals(expected, listenerTotal.getTotals());
+        assertEquals(expected, listenerConsume.getTotals());
+
+        // listener delivery is serialized and work ran on the partition worker threads,
+        // when not preallocated the event that allocates a partition is processed by the sending thread
+        assertFalse(listenerTotal.isOverlapped());
+        Set<String> threads = listenerTotal.getThreadNames();
+        if (!preallocate) {
+            threads.remove(Thread.currentThread().getName());
+        }
+        assertFalse(threads.isEmpty());
+        assertTrue(threads.size() <= Math.min(numThreads, granularity));
+        for (String thread : threads) {
+            assertTrue(thread, thread.contains("ContextPartition-HashCtx"));
+        }
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    public void testInvalid() {
+        tryInvalid("@Hint('partition_threads') create context ACtx coalesce hash_code(intPrimitive) from SupportBean granularity 10",
+                "Failed to process statement annotations: Hint 'PARTITION_THREADS' requires a parameter value [");
+        tryInvalid("@Hint('partition_threads=0') create context ACtx coalesce hash_code(intPrimitive) from SupportBean granularity 10",
+                "Error starting statement: Hint 'PARTITION_THREADS' requires a positive number of threads but received '0' [");
+        tryInvalid("@Hint('partition_threads=2') create context ACtx " +
+                "context InnerOne coalesce hash_code(intPrimitive) from SupportBean granularity 10, " +
+                "context InnerTwo partition by theString from SupportBean",
+                "Error starting statement: Hint 'PARTITION_THREADS' is not supported for nested contexts [");
+        tryInvalid("@Hint('partition_threads=2,partition_queue_capacity=0') create context ACtx coalesce hash_code(intPrimitive) from SupportBean granularity 10",
+                "Error starting statement: Hint 'PARTITION_QUEUE_CAPACITY' requires a positive queue capacity but received '0' [");
+        tryInvalid("@Hint('partition_queue_capacity=10') create context ACtx coalesce hash_code(intPrimitive) from SupportBean granularity 10",
+                "Error starting statement: Hint 'PARTITION_QUEUE_CAPACITY' requires hint 'PARTITION_THREADS' [");
+    }
+
+    private void tryInvalid(String epl, String expected) {
+        try {
+            epService.getEPAdministrator().createEPL(epl);
+            fail();
+        }
+        catch (EPStatementException ex) {
+            if (!ex.getMessage().startsWith(expected)) {
+                throw new RuntimeException("Expected/Received:\n" + expected + "\n" + ex.getMessage() + "\n");
+            }
+        }
+    }
+
+    private static class MyCollectingListener implements UpdateListener {
+        private final Map<String, List<Integer>> totals = new HashMap<String, List<Integer>>();
+        private final Set<String> threadNames = new HashSet<String>();
+        private int count;
+        private int inside;
+        private boolean overlapped;
+
+        public void update(EventBean[] newEvents, EventBean[] oldEvents) {
+            synchronized (this) {
+                inside++;
+                overlapped |= inside > 1;
+            }
+            try {
+                Thread.sleep(0);
+            }
+            catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            synchronized (this) {
+                for (EventBean event : newEvents) {
+                    String theString = (String) event.get("theString");
+                    List<Integer> list = totals.get(theString);
+                    if (list == null) {
+                        list = new ArrayList<Integer>();
+                        totals.put(theString, list);
+                    }
+                    list.add((Integer) event.get("total"));
+                    count++;
+                }
+                threadNames.add(Thread.currentThread().getName());
+                inside--;
+                notifyAll();
+            }
+        }
+
+        public synchronized void waitForCount(int expected) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 20000;
+            while (count < expected && System.currentTimeMillis() < deadline) {
+                wait(100);
+            }
+            assertEquals(expected, count);
+        }
+
+        public synchronized Map<String, List<Integer>> getTotals() {
+            return totals;
+        }
+
+        public synchronized Set<String> getThreadNames() {
+            return threadNames;
+        }
+
+        public synchronized boolean isOverlapped() {
+            return overlapped;
+        }
+    }
+}
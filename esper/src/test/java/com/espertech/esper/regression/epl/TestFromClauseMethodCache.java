@@ -17,6 +17,8 @@ import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
 import junit.framework.TestCase;
 import com.espertech.esper.client.*;
 import com.espertech.esper.client.time.CurrentTimeEvent;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.epl.db.DataCacheSharedService;
 import com.espertech.esper.support.bean.SupportBean;
 import com.espertech.esper.support.client.SupportConfigFactory;
 import com.espertech.esper.support.epl.SupportStaticMethodInvocations;
@@ -147,6 +149,56 @@ public class TestFromClauseMethodCache extends TestCase
         if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
     }
 
+    public void testSharedCache()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        ConfigurationMethodRef methodConfig = new ConfigurationMethodRef();
+        methodConfig.setSharedCache(100, 0, 1, 0);
+        config.addMethodRef(SupportStaticMethodInvocations.class.getName(), methodConfig);
+        config.addImport(SupportStaticMethodInvocations.class.getPackage().getName() + ".*");
+
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        listener = new SupportUpdateListener();
+        SupportUpdateListener listenerTwo = new SupportUpdateListener();
+
+        String joinStatement = "select id, p00, theString from " +
+                SupportBean.class.getName() + "().win:length(100) as s1, " +
+                " method:SupportStaticMethodInvocations.fetchObjectLog(theString, intPrimitive)";
+        epService.getEPAdministrator().createEPL(joinStatement).addListener(listener);
+        epService.getEPAdministrator().createEPL(joinStatement + " where id > 0").addListener(listenerTwo);
+
+        // set sleep off
+        SupportStaticMethodInvocations.getInvocationSizeReset();
+
+        // the second statement uses the result cached by the first statement
+        sendTimer(1000);
+        String[] fields = new String[] {"id", "p00", "theString"};
+        sendBeanEvent("E1", 1);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{1, "|E1|", "E1"});
+        EPAssertionUtil.assertProps(listenerTwo.assertOneGetNewAndReset(), fields, new Object[]{1, "|E1|", "E1"});
+        assertEquals(1, SupportStaticMethodInvocations.getInvocationSizeReset());
+
+        sendBeanEvent("E1", 1);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{1, "|E1|", "E1"});
+        EPAssertionUtil.assertProps(listenerTwo.assertOneGetNewAndReset(), fields, new Object[]{1, "|E1|", "E1"});
+        assertEquals(0, SupportStaticMethodInvocations.getInvocationSizeReset());
+
+        // expired
+        sendTimer(2000);
+        sendBeanEvent("E1", 1);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[]{1, "|E1|", "E1"});
+        assertEquals(1, SupportStaticMethodInvocations.getInvocationSizeReset());
+
+        DataCacheSharedService cacheService = ((EPServiceProviderSPI) epService).getServicesContext().getDataCacheSharedService();
+        assertEquals(4, cacheService.getNumHits());
+        assertEquals(2, cacheService.getNumMisses());
+        assertEquals(1, cacheService.getNumEvictions());
+
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+    }
+
     private void sendTimer(long timeInMSec)
     {
         CurrentTimeEvent theEvent = new CurrentTimeEvent(timeInMSec);
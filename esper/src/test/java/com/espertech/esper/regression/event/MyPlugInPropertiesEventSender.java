@@ -39,6 +39,14 @@ public class MyPlugInPropertiesEventSender implements EventSender
         runtimeSender.processWrappedEvent(eventBean);
     }
 
+    public void sendEvents(Object[] theEvents)
+    {
+        for (Object theEvent : theEvents)
+        {
+            sendEvent(theEvent);
+        }
+    }
+
     public void route(Object theEvent)
     {
         if (!(theEvent instanceof Properties))
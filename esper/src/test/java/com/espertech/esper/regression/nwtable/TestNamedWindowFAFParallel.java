@@ -0,0 +1,182 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.nwtable;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+public class TestNamedWindowFAFParallel extends TestCase
+{
+    private static final Set<String> filterThreads = Collections.synchronizedSet(new HashSet<String>());
+
+    private EPServiceProvider epServiceParallel;
+    private EPServiceProvider epServiceSequential;
+
+    public void setUp()
+    {
+        filterThreads.clear();
+        epServiceParallel = makeEngine("parallel", true);
+        epServiceSequential = makeEngine("sequential", false);
+    }
+
+    public void tearDown() {
+        epServiceParallel.destroy();
+        epServiceSequential.destroy();
+        epServiceParallel = null;
+        epServiceSequential = null;
+    }
+
+    public void testFilterParallel()
+    {
+        for (EPServiceProvider epService : new EPServiceProvider[] {epServiceParallel, epServiceSequential}) {
+            epService.getEPAdministrator().createEPL("create window MyWindow.win:keepall() as SupportBean");
+            epService.getEPAdministrator().createEPL("insert into MyWindow select * from SupportBean");
+            for (int i = 0; i < 1000; i++) {
+                epService.getEPRuntime().sendEvent(new SupportBean("E" + (i % 7), i));
+            }
+        }
+
+        assertSameResult("select theString, intPrimitive from MyWindow where intPrimitive % 3 = 0 and " + getClass().getSimpleName() + ".recordThread(intPrimitive)", 334);
+        assertFalse(filterThreads.isEmpty());
+        assertFalse(filterThreads.contains(Thread.currentThread().getName()));
+
+        assertSameResult("select theString, count(*) as cnt, sum(intPrimitive) as total from MyWindow where intPrimitive > 100 group by theString order by theString", 7);
+        assertSameResult("select theString, intPrimitive from MyWindow(theString = 'E1') where intPrimitive < 500", 72);
+        assertSameResult("select distinct theString from MyWindow where intPrimitive between 10 and 20", 7);
+        assertSameResult("select count(*) as cnt from MyWindow where intPrimitive < 0", 1);
+    }
+
+    public void testContextPartitionsParallel()
+    {
+        for (EPServiceProvider epService : new EPServiceProvider[] {epServiceParallel, epServiceSequential}) {
+            epService.getEPAdministrator().createEPL("create context SegmentedByString partition by theString from SupportBean");
+            epService.getEPAdministrator().createEPL("context SegmentedByString create window MyWindow.win:keepall() as SupportBean");
+            epService.getEPAdministrator().createEPL("context SegmentedByString insert into MyWindow select * from SupportBean");
+            for (int i = 0; i < 500; i++) {
+                epService.getEPRuntime().sendEvent(new SupportBean("E" + (i % 5), i));
+            }
+        }
+
+        assertSameResult("context SegmentedByString select theString, count(*) as cnt, sum(intPrimitive) as total from MyWindow where intPrimitive > 250 group by theString", 5);
+        assertSameResult("context SegmentedByString select theString, intPrimitive from MyWindow where " + getClass().getSimpleName() + ".recordThread(intPrimitive) and intPrimitive % 50 = 0", 10);
+        assertFalse(filterThreads.isEmpty());
+        assertFalse(filterThreads.contains(Thread.currentThread().getName()));
+        assertSameResult("select theString, intPrimitive from MyWindow where intPrimitive < 20", 20);
+    }
+
+    public void testAggregationParallel()
+    {
+        for (EPServiceProvider epService : new EPServiceProvider[] {epServiceParallel, epServiceSequential}) {
+            epService.getEPAdministrator().createEPL("create window MyWindow.win:keepall() as SupportBean");
+            epService.getEPAdministrator().createEPL("insert into MyWindow select * from SupportBean");
+            for (int i = 0; i < 1000; i++) {
+                SupportBean bean = new SupportBean("E" + (i % 7), i);
+                bean.setLongPrimitive(i * 10L);
+                bean.setDoublePrimitive(i / 4d);
+                bean.setIntBoxed(i % 3 == 0 ? null : i);
+                epService.getEPRuntime().sendEvent(bean);
+            }
+        }
+
+        String fields = "count(*) as cnt, count(intBoxed) as cntBoxed, sum(" + getClass().getSimpleName() + ".recordThreadValue(intPrimitive)) as total, sum(longPrimitive) as totalLong, " +
+                "sum(doublePrimitive) as totalDouble, avg(intPrimitive) as average, min(intBoxed) as low, max(theString) as high";
+        assertSameResult("select " + fields + " from MyWindow where intPrimitive > 100", 1);
+        assertFalse(filterThreads.isEmpty());
+        assertFalse(filterThreads.contains(Thread.currentThread().getName()));
+
+        assertSameResultAnyOrder("select theString, " + fields + " from MyWindow where intPrimitive > 100 group by theString", 7);
+        assertSameResultAnyOrder("select theString, intPrimitive % 2 as parity, " + fields + " from MyWindow(intPrimitive < 900) group by theString, intPrimitive % 2", 14);
+        assertSameResult("select " + fields + " from MyWindow where intPrimitive < 0", 1);
+        assertSameResult("select theString, " + fields + " from MyWindow where intPrimitive < 0 group by theString", 0);
+    }
+
+    public void testTableParallel()
+    {
+        for (EPServiceProvider epService : new EPServiceProvider[] {epServiceParallel, epServiceSequential}) {
+            epService.getEPAdministrator().createEPL("create table MyTable(id int primary key, theString string, intPrimitive int)");
+            epService.getEPAdministrator().createEPL("insert into MyTable select intPrimitive as id, theString, intPrimitive from SupportBean");
+            for (int i = 0; i < 1000; i++) {
+                epService.getEPRuntime().sendEvent(new SupportBean("E" + (i % 7), i));
+            }
+        }
+
+        assertSameResultAnyOrder("select theString, count(*) as cnt, sum(" + getClass().getSimpleName() + ".recordThreadValue(intPrimitive)) as total, min(intPrimitive) as low from MyTable group by theString", 7);
+        assertFalse(filterThreads.isEmpty());
+        assertFalse(filterThreads.contains(Thread.currentThread().getName()));
+
+        filterThreads.clear();
+        assertSameResultAnyOrder("select id, theString from MyTable where intPrimitive % 3 = 0 and " + getClass().getSimpleName() + ".recordThread(intPrimitive)", 334);
+        assertFalse(filterThreads.isEmpty());
+        assertFalse(filterThreads.contains(Thread.currentThread().getName()));
+
+        // the table lock is released after the query
+        for (EPServiceProvider epService : new EPServiceProvider[] {epServiceParallel, epServiceSequential}) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E0", 1000));
+        }
+        assertSameResult("select count(*) as cnt, max(intPrimitive) as high from MyTable", 1);
+        assertEquals(1001L, epServiceParallel.getEPRuntime().executeQuery("select count(*) as cnt from MyTable").getArray()[0].get("cnt"));
+    }
+
+    public static boolean recordThread(int value) {
+        filterThreads.add(Thread.currentThread().getName());
+        return true;
+    }
+
+    public static int recordThreadValue(int value) {
+        filterThreads.add(Thread.currentThread().getName());
+        return value;
+    }
+
+    private void assertSameResult(String epl, int expectedCount) {
+        EPOnDemandQueryResult sequential = epServiceSequential.getEPRuntime().executeQuery(epl);
+        filterThreads.clear();
+        EPOnDemandQueryResult parallel = epServiceParallel.getEPRuntime().executeQuery(epl);
+        if (expectedCount == 0) {
+            assertTrue(sequential.getArray() == null || sequential.getArray().length == 0);
+            assertTrue(parallel.getArray() == null || parallel.getArray().length == 0);
+            return;
+        }
+        assertEquals(expectedCount, sequential.getArray().length);
+        String[] props = sequential.getEventType().getPropertyNames();
+        EPAssertionUtil.assertPropsPerRow(parallel.getArray(), props, EPAssertionUtil.eventsToObjectArr(sequential.getArray(), props));
+    }
+
+    private void assertSameResultAnyOrder(String epl, int expectedCount) {
+        EPOnDemandQueryResult sequential = epServiceSequential.getEPRuntime().executeQuery(epl);
+        filterThreads.clear();
+        EPOnDemandQueryResult parallel = epServiceParallel.getEPRuntime().executeQuery(epl);
+        assertEquals(expectedCount, sequential.getArray().length);
+        String[] props = sequential.getEventType().getPropertyNames();
+        EPAssertionUtil.assertPropsPerRowAnyOrder(parallel.getArray(), props, EPAssertionUtil.eventsToObjectArr(sequential.getArray(), props));
+    }
+
+    private EPServiceProvider makeEngine(String name, boolean parallel) {
+        Configuration configuration = SupportConfigFactory.getConfiguration();
+        configuration.addEventType("SupportBean", SupportBean.class);
+        configuration.addImport(getClass());
+        configuration.getEngineDefaults().getThreading().setThreadPoolFireAndForget(parallel);
+        configuration.getEngineDefaults().getThreading().setThreadPoolFireAndForgetNumThreads(4);
+        configuration.getEngineDefaults().getThreading().setThreadPoolFireAndForgetMinRowsPerTask(10);
+        EPServiceProvider epService = EPServiceProviderManager.getProvider(getClass().getSimpleName() + "-" + name, configuration);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        return epService;
+    }
+}
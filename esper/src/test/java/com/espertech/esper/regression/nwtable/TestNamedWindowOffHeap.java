@@ -0,0 +1,163 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.nwtable;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.epl.offheap.OffHeapObjectArrayEventBean;
+import com.espertech.esper.epl.offheap.OffHeapRowStore;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.bean.SupportBean_S0;
+import com.espertech.esper.support.bean.SupportBean_S1;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import com.espertech.esper.support.util.SupportMessageAssertUtil;
+import junit.framework.TestCase;
+
+import java.util.Iterator;
+
+public class TestNamedWindowOffHeap extends TestCase
+{
+    private EPServiceProvider epService;
+    private SupportUpdateListener listenerWindow;
+    private SupportUpdateListener listenerConsumer;
+
+    public void setUp()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        config.addEventType("SupportBean_S0", SupportBean_S0.class);
+        config.addEventType("SupportBean_S1", SupportBean_S1.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        listenerWindow = new SupportUpdateListener();
+        listenerConsumer = new SupportUpdateListener();
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listenerWindow = null;
+        listenerConsumer = null;
+    }
+
+    public void testInsertMergeDelete()
+    {
+        String[] fields = "key,value,amount".split(",");
+        EPStatement stmtWindow = epService.getEPAdministrator().createEPL("@OffHeap(segmentSize=4096) @EventRepresentation(array=true) create window MyWindow.win:keepall() as (key string, value int, amount double)");
+        stmtWindow.addListener(listenerWindow);
+        epService.getEPAdministrator().createEPL("insert into MyWindow select theString as key, intPrimitive as value, doublePrimitive as amount from SupportBean");
+        epService.getEPAdministrator().createEPL("on SupportBean_S0 as s0 merge MyWindow as w where w.key = s0.p00 when matched then update set value = s0.id");
+        epService.getEPAdministrator().createEPL("on SupportBean_S1 as s1 delete from MyWindow as w where w.key = s1.p10");
+        epService.getEPAdministrator().createEPL("select irstream * from MyWindow").addListener(listenerConsumer);
+        epService.getEPAdministrator().createEPL("create index MyIndex on MyWindow(value)");
+
+        for (int i = 0; i < 500; i++) {
+            epService.getEPRuntime().sendEvent(makeBean("E" + i, i, i * 1.5));
+        }
+        OffHeapRowStore store = getStore("MyWindow");
+        assertEquals(500, store.getNumRows());
+        assertTrue(store.getNumSegments() > 1);
+        EventBean inserted = listenerWindow.getLastNewData()[0];
+        listenerWindow.reset();
+        assertTrue(inserted instanceof OffHeapObjectArrayEventBean);
+        EPAssertionUtil.assertProps(inserted, fields, new Object[] {"E499", 499, 748.5});
+        listenerConsumer.reset();
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(-1, "E10"));
+        EPAssertionUtil.assertProps(listenerConsumer.getLastNewData()[0], fields, new Object[] {"E10", -1, 15d});
+        EPAssertionUtil.assertProps(listenerConsumer.getLastOldData()[0], fields, new Object[] {"E10", 10, 15d});
+        listenerConsumer.reset();
+        assertEquals(500, store.getNumRows());
+
+        epService.getEPRuntime().sendEvent(new SupportBean_S1(0, "E10"));
+        EPAssertionUtil.assertProps(listenerConsumer.assertOneGetOldAndReset(), fields, new Object[] {"E10", -1, 15d});
+        epService.getEPRuntime().sendEvent(new SupportBean_S1(0, "E11"));
+        EventBean removed = listenerConsumer.assertOneGetOldAndReset();
+        assertTrue(((OffHeapObjectArrayEventBean) removed).isRemoved());
+        assertEquals(498, store.getNumRows());
+
+        // removed rows are reused and retain their values
+        long bytes = store.getNumBytesAllocated();
+        int segments = store.getNumSegments();
+        epService.getEPRuntime().sendEvent(makeBean("X1", 1, 1));
+        epService.getEPRuntime().sendEvent(makeBean("X2", 2, 2));
+        assertEquals(segments, store.getNumSegments());
+        assertEquals(500, store.getNumRows());
+        assertTrue(store.getNumBytesAllocated() > bytes);
+        EPAssertionUtil.assertProps(removed, fields, new Object[] {"E11", 11, 16.5});
+
+        EPAssertionUtil.assertPropsPerRowAnyOrder(epService.getEPRuntime().executeQuery("select * from MyWindow where value = 2").getArray(), fields,
+                new Object[][] {{"E2", 2, 3d}, {"X2", 2, 2d}});
+        int count = 0;
+        for (Iterator<EventBean> it = stmtWindow.iterator(); it.hasNext();) {
+            assertNotNull(it.next().get("key"));
+            count++;
+        }
+        assertEquals(500, count);
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    public void testExpiringWindow()
+    {
+        String[] fields = "key,value".split(",");
+        epService.getEPAdministrator().createEPL("@OffHeap @EventRepresentation(array=true) create window MyWindow.std:unique(key) as (key string, value int)");
+        epService.getEPAdministrator().createEPL("insert into MyWindow select theString as key, intPrimitive as value from SupportBean");
+        epService.getEPAdministrator().createEPL("select irstream * from MyWindow").addListener(listenerConsumer);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("A", 1));
+        epService.getEPRuntime().sendEvent(new SupportBean("B", 2));
+        listenerConsumer.reset();
+        epService.getEPRuntime().sendEvent(new SupportBean("A", 3));
+        EPAssertionUtil.assertProps(listenerConsumer.getLastNewData()[0], fields, new Object[] {"A", 3});
+        EPAssertionUtil.assertProps(listenerConsumer.getLastOldData()[0], fields, new Object[] {"A", 1});
+        listenerConsumer.reset();
+        assertEquals(2, getStore("MyWindow").getNumRows());
+
+        EPStatement stmtJoin = epService.getEPAdministrator().createEPL("select w.value as value from SupportBean_S0 as s0 unidirectional, MyWindow as w where w.key = s0.p00");
+        stmtJoin.addListener(listenerWindow);
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(0, "B"));
+        assertEquals(2, listenerWindow.assertOneGetNewAndReset().get("value"));
+
+        epService.getEPAdministrator().destroyAllStatements();
+    }
+
+    public void testInvalid()
+    {
+        SupportMessageAssertUtil.tryInvalid(epService, "@OffHeap create window MyWindow.win:keepall() as SupportBean",
+                "Error starting statement: Off-heap storage requires an object-array event type, consider using the @EventRepresentation(array=true) annotation");
+        SupportMessageAssertUtil.tryInvalid(epService, "@OffHeap @EventRepresentation(array=true) create window MyWindowTwo.win:firstlength(10) as (key string)",
+                "Error starting statement: Off-heap storage is not supported for data windows that do not post a remove stream for all events received");
+        SupportMessageAssertUtil.tryInvalid(epService, "@OffHeap(segmentSize=10) @EventRepresentation(array=true) create window MyWindowThree.win:keepall() as (key string)",
+                "Error starting statement: Off-heap segment size must be at least 1024 bytes but received 10");
+    }
+
+    private OffHeapRowStore getStore(String windowName)
+    {
+        EPServiceProviderSPI spi = (EPServiceProviderSPI) epService;
+        return spi.getNamedWindowService().getProcessor(windowName).getProcessorInstanceNoContext().getRootViewInstance().getOffHeapRowStore();
+    }
+
+    private static SupportBean makeBean(String theString, int intPrimitive, double doublePrimitive)
+    {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setDoublePrimitive(doublePrimitive);
+        return bean;
+    }
+}
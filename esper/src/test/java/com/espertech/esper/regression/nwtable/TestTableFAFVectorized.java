@@ -0,0 +1,139 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.nwtable;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.epl.table.mgmt.TableColumnarProjection;
+import com.espertech.esper.epl.table.mgmt.TableStateInstance;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.bean.SupportBean_S0;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestTableFAFVectorized extends TestCase
+{
+    private static final String[] QUERIES = new String[] {
+        "select k, sum(ival) as s, avg(dval) as a, count(*) as c, count(lval) as cl, min(dval) as mn, max(lval) as mx from TABLE group by k",
+        "select k, sum(lval) as s, sum(dval) as sd, avg(fval) as a, min(ival) as mn, max(fval) as mx from TABLE where ival > 5 and dval <= 50.5 group by k",
+        "select sum(lval) as s, avg(ival) as a, count(*) as c, min(ival) as mn, max(fval) as mx from TABLE where k = 'E1'",
+        "select sum(lval) as s, avg(ival) as a, count(*) as c, count(sval) as cs, min(ival) as mn, max(dval) as mx from TABLE where ival > 1000000",
+        "select k, sval, count(*) as c, sum(ival) as s from TABLE where k != 'E2' and 100 >= n group by k, sval",
+        "select count(*) as c, sum(dval) as s from TABLE where dval = 2 and ival != 3",
+        "select sval, sum(dval) as s, max(ival) as mx from TABLE where lval < 300 and fval >= 10 group by sval",
+        "select sum(ival) as s from TABLE group by k",
+        "select k, sum(ival) as s from TABLE group by k having sum(ival) > 100",
+        "select k, sum(distinct ival) as s from TABLE group by k",
+        "select k, sum(ival) as s from TABLE where ival * 2 > 10 group by k",
+        "@EventRepresentation(array=true) select k, count(*) as c, sum(lval) as s from TABLE where n >= 10 and n <= 50 group by k",
+    };
+
+    private EPServiceProvider epService;
+
+    public void setUp()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        config.addEventType("SupportBean_S0", SupportBean_S0.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+
+        String columns = "(k string primary key, n int primary key, ival int, lval long, dval double, fval float, sval string)";
+        epService.getEPAdministrator().createEPL("@Hint('columnar_projection') create table MyColumnar as " + columns);
+        epService.getEPAdministrator().createEPL("create table MyPlain as " + columns);
+        String select = "select theString as k, intPrimitive as n, intBoxed as ival, longBoxed as lval, doubleBoxed as dval, floatBoxed as fval, " +
+                "case when intPrimitive % 3 = 0 then null when intPrimitive % 3 = 1 then 'X' else 'Y' end as sval from SupportBean";
+        epService.getEPAdministrator().createEPL("insert into MyColumnar " + select);
+        epService.getEPAdministrator().createEPL("insert into MyPlain " + select);
+    }
+
+    public void tearDown() {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        epService.destroy();
+        epService = null;
+    }
+
+    public void testSameResult()
+    {
+        assertSameResults();
+
+        sendEvents(0, 200);
+        assertSameResults();
+
+        // changes must discard the projection
+        epService.getEPRuntime().executeQuery("update MyColumnar set dval = 1000d where k = 'E1'");
+        epService.getEPRuntime().executeQuery("update MyPlain set dval = 1000d where k = 'E1'");
+        assertSameResults();
+
+        epService.getEPRuntime().executeQuery("delete from MyColumnar where n < 20");
+        epService.getEPRuntime().executeQuery("delete from MyPlain where n < 20");
+        assertSameResults();
+
+        sendEvents(500, 20);
+        assertSameResults();
+
+        epService.getEPRuntime().executeQuery("delete from MyColumnar");
+        epService.getEPRuntime().executeQuery("delete from MyPlain");
+        assertSameResults();
+    }
+
+    public void testInvalidate()
+    {
+        sendEvents(0, 10);
+        TableStateInstance state = ((EPServiceProviderSPI) epService).getServicesContext().getTableService().getState("MyColumnar", -1);
+        epService.getEPRuntime().executeQuery("select sum(ival) as s from MyColumnar");
+        TableColumnarProjection projection = state.getColumnarProjection();
+        assertEquals(10, projection.getNumRows());
+
+        epService.getEPRuntime().executeQuery("select sum(ival) as s from MyColumnar");
+        assertSame(projection, state.getColumnarProjection());
+
+        epService.getEPAdministrator().createEPL("on SupportBean_S0 merge MyColumnar where n = id when matched then update set ival = 100");
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(1));
+        assertNotSame(projection, state.getColumnarProjection());
+        EventBean result = epService.getEPRuntime().executeQuery("select max(ival) as mx from MyColumnar").getArray()[0];
+        assertEquals(100, result.get("mx"));
+    }
+
+    private void assertSameResults()
+    {
+        for (String query : QUERIES) {
+            EPOnDemandQueryResult expected = epService.getEPRuntime().executeQuery(query.replace("TABLE", "MyPlain"));
+            EPOnDemandQueryResult received = epService.getEPRuntime().executeQuery(query.replace("TABLE", "MyColumnar"));
+            String[] fields = expected.getEventType().getPropertyNames();
+            Object[][] expectedRows = new Object[expected.getArray().length][];
+            for (int i = 0; i < expectedRows.length; i++) {
+                expectedRows[i] = new Object[fields.length];
+                for (int j = 0; j < fields.length; j++) {
+                    expectedRows[i][j] = expected.getArray()[i].get(fields[j]);
+                }
+            }
+            assertEquals(query, expectedRows.length, received.getArray().length);
+            EPAssertionUtil.assertPropsPerRowAnyOrder(received.getArray(), fields, expectedRows);
+        }
+    }
+
+    private void sendEvents(int start, int count)
+    {
+        for (int i = start; i < start + count; i++) {
+            SupportBean bean = new SupportBean("E" + (i % 5), i);
+            bean.setIntBoxed(i % 7 == 0 ? null : i % 13);
+            bean.setLongBoxed(i % 11 == 0 ? null : (long) i * 3);
+            bean.setDoubleBoxed(i % 9 == 0 ? null : i / 2d);
+            bean.setFloatBoxed(i % 4 == 0 ? null : (float) i);
+            epService.getEPRuntime().sendEvent(bean);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.view;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.soda.EPStatementObjectModel;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.bean.SupportBean_S0;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import com.espertech.esper.support.util.SupportMessageAssertUtil;
+import junit.framework.TestCase;
+
+public class TestAggregateExtApproxCountDistinct extends TestCase {
+
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+
+    public void setUp()
+    {
+        listener = new SupportUpdateListener();
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        config.addEventType("SupportBean_S0", SupportBean_S0.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+    }
+
+    public void testGrouped()
+    {
+        String epl = "select theString, approxCountDistinct(intPrimitive) as cnt, approxCountDistinct(intBoxed,14) as cntBoxed " +
+                "from SupportBean group by theString";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        stmt.addListener(listener);
+        assertEquals(Long.class, stmt.getEventType().getPropertyType("cnt"));
+
+        runAssertionGrouped();
+
+        stmt.destroy();
+        EPStatementObjectModel model = epService.getEPAdministrator().compileEPL(epl);
+        assertEquals(epl, model.toEPL());
+        stmt = epService.getEPAdministrator().create(model);
+        stmt.addListener(listener);
+
+        runAssertionGrouped();
+    }
+
+    private void runAssertionGrouped()
+    {
+        String[] fields = "theString,cnt,cntBoxed".split(",");
+
+        sendEvent("G1", 10);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {"G1", 1L, 1L});
+
+        sendEvent("G1", 10);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {"G1", 1L, 1L});
+
+        sendEvent("G2", 10);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {"G2", 1L, 1L});
+
+        sendEvent("G1", 11);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {"G1", 2L, 2L});
+
+        for (int i = 0; i < 10000; i++) {
+            sendEvent("G3", i % 5000);
+        }
+        long estimate = (Long) listener.getLastNewData()[0].get("cnt");
+        assertTrue("estimate " + estimate, Math.abs(estimate - 5000) < 250);
+        listener.reset();
+    }
+
+    public void testTable()
+    {
+        epService.getEPAdministrator().createEPL("create table varagg (users approxCountDistinct(string))");
+        epService.getEPAdministrator().createEPL("into table varagg select approxCountDistinct(theString) as users from SupportBean");
+
+        EPStatement stmt = epService.getEPAdministrator().createEPL("select varagg.users as users from SupportBean_S0");
+        stmt.addListener(listener);
+
+        sendEvent("U1", 0);
+        sendEvent("U2", 0);
+        sendEvent("U1", 0);
+        epService.getEPRuntime().sendEvent(new SupportBean_S0(0));
+        assertEquals(2L, listener.assertOneGetNewAndReset().get("users"));
+
+        // the precision must match the column declaration
+        SupportMessageAssertUtil.tryInvalid(epService, "into table varagg select approxCountDistinct(theString,10) as users from SupportBean",
+                "Error starting statement: Incompatible aggregation function for table 'varagg' column 'users', expecting 'approxCountDistinct(string)' and received 'approxCountDistinct(theString,10)': The precision is 12 and provided is 10 [");
+    }
+
+    public void testInvalid()
+    {
+        SupportMessageAssertUtil.tryInvalid(epService, "select approxCountDistinct(distinct intPrimitive) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approxCountDistinct(distinct intPri...(42 chars)': The 'approxCountDistinct' function counts distinct values and does not allow the distinct keyword [");
+        SupportMessageAssertUtil.tryInvalid(epService, "select approxCountDistinct(intPrimitive, 20) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approxCountDistinct(intPrimitive,20)': The 'approxCountDistinct' function requires an integer constant precision between 4 and 18 [");
+        SupportMessageAssertUtil.tryInvalid(epService, "select approxCountDistinct() from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approxCountDistinct(*)': The 'approxCountDistinct' function expects at least 1 and up to 2 parameters [");
+        SupportMessageAssertUtil.tryInvalid(epService, "select approxCountDistinct(intPrimitive) from SupportBean.win:length(10)",
+                "Error starting statement: Failed to validate select-clause expression 'approxCountDistinct(intPrimitive)': The 'approxCountDistinct' function cannot remove values and requires that the aggregated events do not provide a remove stream; Please remove the data window [");
+    }
+
+    private void sendEvent(String theString, int intPrimitive) {
+        SupportBean bean = new SupportBean(theString, intPrimitive);
+        bean.setIntBoxed(intPrimitive);
+        epService.getEPRuntime().sendEvent(bean);
+    }
+}
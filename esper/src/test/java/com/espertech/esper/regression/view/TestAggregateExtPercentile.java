@@ -0,0 +1,144 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.view;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.client.soda.EPStatementObjectModel;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestAggregateExtPercentile extends TestCase {
+
+    private EPServiceProvider epService;
+    private SupportUpdateListener listener;
+
+    public void setUp()
+    {
+        listener = new SupportUpdateListener();
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType("SupportBean", SupportBean.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listener = null;
+    }
+
+    public void testPercentile()
+    {
+        String epl = "select " +
+                "percentile(intPrimitive,0.5d) as p50, " +
+                "percentile(intPrimitive,0.25d) as p25, " +
+                "median(intPrimitive) as med, " +
+                "percentiles(doublePrimitive,0,0.5d,1) as ps " +
+                "from SupportBean.win:length(4)";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        stmt.addListener(listener);
+        assertEquals(Double.class, stmt.getEventType().getPropertyType("p50"));
+        assertEquals(Double[].class, stmt.getEventType().getPropertyType("ps"));
+
+        runAssertionPercentile();
+
+        stmt.destroy();
+        EPStatementObjectModel model = epService.getEPAdministrator().compileEPL(epl);
+        assertEquals(epl, model.toEPL());
+        stmt = epService.getEPAdministrator().create(model);
+        stmt.addListener(listener);
+
+        runAssertionPercentile();
+    }
+
+    private void runAssertionPercentile()
+    {
+        String[] fields = "p50,p25,med".split(",");
+
+        sendEvent(10, 1);
+        EPAssertionUtil.assertProps(listener.assertOneGetNew(), fields, new Object[] {10d, 10d, 10d});
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {1d, 1d, 1d}, (Object[]) listener.assertOneGetNewAndReset().get("ps"));
+
+        sendEvent(20, 3);
+        EPAssertionUtil.assertProps(listener.assertOneGetNew(), fields, new Object[] {15d, 12.5d, 15d});
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {1d, 2d, 3d}, (Object[]) listener.assertOneGetNewAndReset().get("ps"));
+
+        sendEvent(40, 5);
+        listener.reset();
+        sendEvent(30, 7);
+        EPAssertionUtil.assertProps(listener.assertOneGetNew(), fields, new Object[] {25d, 17.5d, 25d});
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {1d, 4d, 7d}, (Object[]) listener.assertOneGetNewAndReset().get("ps"));
+
+        // 10 leaves the window
+        sendEvent(0, 9);
+        EPAssertionUtil.assertProps(listener.assertOneGetNew(), fields, new Object[] {25d, 15d, 25d});
+        EPAssertionUtil.assertEqualsExactOrder(new Object[] {3d, 6d, 9d}, (Object[]) listener.assertOneGetNewAndReset().get("ps"));
+    }
+
+    public void testApproxPercentile()
+    {
+        String epl = "select approxPercentile(intPrimitive,0.5d) as p50, approxPercentile(intPrimitive,0.99d,200) as p99 from SupportBean";
+        EPStatement stmt = epService.getEPAdministrator().createEPL(epl);
+        stmt.addListener(listener);
+        assertEquals(Double.class, stmt.getEventType().getPropertyType("p50"));
+
+        for (int i = 1; i <= 10000; i++) {
+            epService.getEPRuntime().sendEvent(new SupportBean("E", i));
+        }
+        EventBean event = listener.getLastNewData()[0];
+        assertEquals(5000d, (Double) event.get("p50"), 100d);
+        assertEquals(9900d, (Double) event.get("p99"), 20d);
+
+        stmt.destroy();
+        EPStatementObjectModel model = epService.getEPAdministrator().compileEPL(epl);
+        assertEquals(epl, model.toEPL());
+    }
+
+    public void testInvalid()
+    {
+        tryInvalid("select percentile(theString, 0.5) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'percentile(theString,0.5)': Implicit conversion from datatype 'String' to numeric is not allowed for aggregation function 'percentile' [select percentile(theString, 0.5) from SupportBean]");
+        tryInvalid("select percentile(intPrimitive, 1.5) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'percentile(intPrimitive,1.5)': The 'percentile' function requires a constant numeric percentile between 0 and 1 [select percentile(intPrimitive, 1.5) from SupportBean]");
+        tryInvalid("select percentile(intPrimitive, intBoxed) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'percentile(intPrimitive,intBoxed)': The 'percentile' function requires a constant numeric percentile between 0 and 1 [select percentile(intPrimitive, intBoxed) from SupportBean]");
+        tryInvalid("select percentile(intPrimitive) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'percentile(intPrimitive)': The 'percentile' function expects 2 parameters [select percentile(intPrimitive) from SupportBean]");
+        tryInvalid("select percentiles(intPrimitive) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'percentiles(intPrimitive)': The 'percentiles' function expects at least 2 parameters [select percentiles(intPrimitive) from SupportBean]");
+        tryInvalid("select approxPercentile(intPrimitive, 0.5, 0) from SupportBean",
+                "Error starting statement: Failed to validate select-clause expression 'approxPercentile(intPrimitive,0.5,0)': The 'approxPercentile' function requires a positive integer constant compression [select approxPercentile(intPrimitive, 0.5, 0) from SupportBean]");
+        tryInvalid("select approxPercentile(intPrimitive, 0.5) from SupportBean.win:length(10)",
+                "Error starting statement: Failed to validate select-clause expression 'approxPercentile(intPrimitive,0.5)': The 'approxPercentile' function cannot remove values and requires that the aggregated events do not provide a remove stream; Please remove the data window [select approxPercentile(intPrimitive, 0.5) from SupportBean.win:length(10)]");
+    }
+
+    private void sendEvent(int intPrimitive, double doublePrimitive) {
+        SupportBean bean = new SupportBean("E", intPrimitive);
+        bean.setDoublePrimitive(doublePrimitive);
+        epService.getEPRuntime().sendEvent(bean);
+    }
+
+    private void tryInvalid(String epl, String message) {
+        try
+        {
+            epService.getEPAdministrator().createEPL(epl);
+            fail();
+        }
+        catch (EPStatementException ex) {
+            assertEquals(message, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.view;
+
+import com.espertech.esper.client.*;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TestCompiledExpressions extends TestCase
+{
+    private static final String[] SELECT_EXPRESSIONS = new String[] {
+        "intPrimitive + intBoxed",
+        "intPrimitive * longBoxed - 3",
+        "intPrimitive / intBoxed",
+        "longBoxed / intPrimitive",
+        "doubleBoxed / intPrimitive",
+        "intPrimitive % 3",
+        "longBoxed % 7",
+        "intPrimitive + doubleBoxed * 2",
+        "shortBoxed + shortBoxed",
+        "intPrimitive > intBoxed",
+        "doubleBoxed >= 1.5",
+        "doubleBoxed < doublePrimitive",
+        "longBoxed <= intPrimitive",
+        "theString > 'E3'",
+        "intBoxed = intPrimitive",
+        "longBoxed = intPrimitive",
+        "doubleBoxed = doublePrimitive",
+        "theString = 'E1'",
+        "theString != 'E2'",
+        "boolBoxed = boolPrimitive",
+        "intBoxed != 5",
+        "boolBoxed and intPrimitive > 2",
+        "boolBoxed or intBoxed > 2",
+        "not boolBoxed",
+        "not (intPrimitive > 3 and (boolBoxed or theString = 'E1'))",
+        "intPrimitive between 2 and 5 and intBoxed > 0",
+        "coalesce(intBoxed, 0) + 1",
+        "cast(intBoxed, long) * 2 > longBoxed",
+        "intBoxed is null or doubleBoxed is not null",
+        "floatBoxed + 1"
+    };
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+    }
+
+    public void testCompiledSameAsInterpreted()
+    {
+        for (boolean integerDivision : new boolean[] {false, true}) {
+            List<String> expected = run(false, integerDivision, "");
+            List<String> received = run(true, integerDivision, "");
+            assertFalse(expected.isEmpty());
+            assertEquals(expected, received);
+        }
+    }
+
+    public void testHint()
+    {
+        List<String> expected = run(false, false, "");
+        List<String> received = run(false, false, "@Hint('compile_expressions') ");
+        assertEquals(expected, received);
+    }
+
+    private List<String> run(boolean compile, boolean integerDivision, String hint)
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.getEngineDefaults().getExpression().setCompileExpressions(compile);
+        config.getEngineDefaults().getExpression().setIntegerDivision(integerDivision);
+        config.getEngineDefaults().getExpression().setDivisionByZeroReturnsNull(integerDivision);
+        config.addEventType("SupportBean", SupportBean.class);
+
+        EPServiceProvider epService = EPServiceProviderManager.getProvider(TestCompiledExpressions.class.getSimpleName(), config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+
+        List<String> log = new ArrayList<String>();
+        StringBuilder select = new StringBuilder();
+        String delimiter = "";
+        for (int i = 0; i < SELECT_EXPRESSIONS.length; i++) {
+            select.append(delimiter).append(SELECT_EXPRESSIONS[i]).append(" as c").append(i);
+            delimiter = ", ";
+        }
+        String[] statements = new String[] {
+            hint + "select " + select + " from SupportBean",
+            hint + "select theString from SupportBean.win:length(3) where intBoxed * 2 > intPrimitive or (doubleBoxed / intPrimitive < 1 and not boolBoxed)",
+            hint + "select sum(intPrimitive * 2) as c0, avg(doubleBoxed / intPrimitive) as c1, count(intBoxed > 2) as c2, max(longBoxed - intPrimitive) as c3 from SupportBean.win:length(3)"
+        };
+        for (String epl : statements) {
+            epService.getEPAdministrator().createEPL(epl).addListener(new MyLoggingListener(log));
+        }
+
+        for (int i = 0; i < 40; i++) {
+            epService.getEPRuntime().sendEvent(makeEvent(i));
+        }
+
+        epService.destroy();
+        return log;
+    }
+
+    private SupportBean makeEvent(int i)
+    {
+        SupportBean bean = new SupportBean(i % 6 == 0 ? null : "E" + (i % 5), i % 7 - 2);
+        bean.setIntBoxed(i % 4 == 0 ? null : i % 5);
+        bean.setLongBoxed(i % 3 == 0 ? null : (long) (i % 9 - 4));
+        bean.setDoubleBoxed(i % 5 == 0 ? null : (i % 8 == 0 ? Double.NaN : (i % 6) / 2d));
+        bean.setDoublePrimitive(i % 4 == 0 ? -0.0 : (i % 3) / 2d);
+        bean.setShortBoxed(i % 2 == 0 ? null : (short) i);
+        bean.setFloatBoxed(i % 3 == 0 ? null : i / 4f);
+        bean.setBoolBoxed(i % 3 == 0 ? null : i % 2 == 0);
+        bean.setBoolPrimitive(i % 4 < 2);
+        return bean;
+    }
+
+    private static class MyLoggingListener implements UpdateListener
+    {
+        private final List<String> log;
+
+        private MyLoggingListener(List<String> log)
+        {
+            this.log = log;
+        }
+
+        public void update(EventBean[] newEvents, EventBean[] oldEvents)
+        {
+            for (EventBean event : newEvents) {
+                String[] names = event.getEventType().getPropertyNames();
+                Object[] values = new Object[names.length];
+                for (int i = 0; i < names.length; i++) {
+                    values[i] = names[i] + "=" + event.get(names[i]);
+                }
+                log.add(Arrays.toString(values));
+            }
+        }
+    }
+}
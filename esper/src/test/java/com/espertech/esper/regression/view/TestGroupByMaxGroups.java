@@ -0,0 +1,195 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.view;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.EventBean;
+import com.espertech.esper.client.hook.ConditionGroupCardinalityMax;
+import com.espertech.esper.client.hook.ConditionHandlerContext;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConditionHandlerFactory;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import com.espertech.esper.support.util.SupportMessageAssertUtil;
+import junit.framework.TestCase;
+
+import java.util.List;
+
+public class TestGroupByMaxGroups extends TestCase
+{
+    private EPServiceProvider epService;
+    private SupportConditionHandlerFactory.SupportConditionHandler handler;
+    private SupportUpdateListener listener;
+
+    public void setUp()
+    {
+        Configuration config = SupportConfigFactory.getConfiguration();
+        config.addEventType(SupportBean.class);
+        config.getEngineDefaults().getConditionHandling().addClass(SupportConditionHandlerFactory.class);
+        epService = EPServiceProviderManager.getDefaultProvider(config);
+        epService.initialize();
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+        handler = SupportConditionHandlerFactory.getLastHandler();
+        listener = new SupportUpdateListener();
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        handler = null;
+        listener = null;
+    }
+
+    public void testAggregationEvictLeastRecentlyUsed()
+    {
+        runAssertionAggregation("", "");
+        runAssertionAggregation("", ", first(*) as firstEvent");
+        runAssertionAggregation("@Hint('disable_reclaim_group') ", "");
+        runAssertionAggregation("@Hint('disable_reclaim_group') ", ", first(*) as firstEvent");
+    }
+
+    private void runAssertionAggregation(String hint, String selectAccess)
+    {
+        String[] fields = "theString,cnt".split(",");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("@Name('s0') @Hint('max_groups=3') " + hint +
+                "select theString, count(*) as cnt" + selectAccess + " from SupportBean group by theString");
+        stmt.addListener(listener);
+
+        sendAssert("A", fields, 1L);
+        sendAssert("B", fields, 1L);
+        sendAssert("C", fields, 1L);
+        sendAssert("A", fields, 2L);
+        assertTrue(handler.getContexts().isEmpty());
+
+        // group B is least-recently-used
+        sendAssert("D", fields, 1L);
+        assertCondition(handler.getAndResetContexts(), 1, "B");
+
+        sendAssert("B", fields, 1L);    // evicts C
+        sendAssert("A", fields, 3L);
+        assertTrue(handler.getContexts().isEmpty());
+
+        sendAssert("C", fields, 1L);    // evicts D, reported as the third eviction
+        assertCondition(handler.getAndResetContexts(), 3, "D");
+        sendAssert("B", fields, 2L);
+
+        stmt.destroy();
+    }
+
+    public void testGroupWindowEvictLeastRecentlyUsed()
+    {
+        runAssertionGroupWindow("");
+        runAssertionGroupWindow("@Hint('reclaim_group_aged=1000') ");
+    }
+
+    private void runAssertionGroupWindow(String hint)
+    {
+        String[] fields = "theString,intPrimitive".split(",");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("@Name('s0') @Hint('max_groups=2') " + hint +
+                "select * from SupportBean.std:groupwin(theString).win:length(2)");
+
+        epService.getEPRuntime().sendEvent(new SupportBean("A", 1));
+        epService.getEPRuntime().sendEvent(new SupportBean("B", 2));
+        epService.getEPRuntime().sendEvent(new SupportBean("A", 3));
+        assertTrue(handler.getContexts().isEmpty());
+
+        // group B is least-recently-used
+        epService.getEPRuntime().sendEvent(new SupportBean("C", 4));
+        assertCondition(handler.getAndResetContexts(), 1, "B");
+        EPAssertionUtil.assertPropsPerRowAnyOrder(stmt.iterator(), fields, new Object[][]{{"A", 1}, {"A", 3}, {"C", 4}});
+
+        epService.getEPRuntime().sendEvent(new SupportBean("B", 5));
+        assertCondition(handler.getAndResetContexts(), 2, "A");
+        EPAssertionUtil.assertPropsPerRowAnyOrder(stmt.iterator(), fields, new Object[][]{{"C", 4}, {"B", 5}});
+
+        stmt.destroy();
+    }
+
+    public void testAggregationEvictRecreateExpire()
+    {
+        // events that entered before a group was evicted and created again would leave the new group
+        String message = "Error starting statement: Hint 'MAX_GROUPS' for grouped aggregation requires that the aggregated events do not provide a remove stream; Please remove the data window";
+        SupportMessageAssertUtil.tryInvalid(epService, "@Hint('max_groups=2') select theString, sum(intPrimitive) from SupportBean.win:length(3) group by theString", message);
+        SupportMessageAssertUtil.tryInvalid(epService, "@Hint('max_groups=2') @Hint('disable_reclaim_group') select theString, sum(intPrimitive) from SupportBean.win:length(3) group by theString", message);
+        SupportMessageAssertUtil.tryInvalid(epService, "@Hint('max_groups=2') select theString, sum(intPrimitive) from SupportBean.std:groupwin(theString).win:length(3) group by theString", message);
+
+        // without a remove stream a recreated group starts over
+        String[] fields = "theString,cnt,total".split(",");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("@Name('s0') @Hint('max_groups=2') " +
+                "select theString, count(*) as cnt, sum(intPrimitive) as total from SupportBean group by theString");
+        stmt.addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("A", 1));
+        epService.getEPRuntime().sendEvent(new SupportBean("B", 2));
+        epService.getEPRuntime().sendEvent(new SupportBean("C", 3));
+        assertCondition(handler.getAndResetContexts(), 1, "A");
+        listener.reset();
+
+        epService.getEPRuntime().sendEvent(new SupportBean("A", 4));    // evicts B
+        assertCondition(handler.getAndResetContexts(), 2, "B");
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {"A", 1L, 4});
+
+        stmt.destroy();
+    }
+
+    public void testGroupWindowEvictPostsOldData()
+    {
+        String[] fields = "cnt,total".split(",");
+        EPStatement stmt = epService.getEPAdministrator().createEPL("@Name('s0') @Hint('max_groups=2') " +
+                "select irstream count(*) as cnt, sum(intPrimitive) as total from SupportBean.std:groupwin(theString).win:length(10)");
+        stmt.addListener(listener);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("A", 1));
+        epService.getEPRuntime().sendEvent(new SupportBean("A", 2));
+        epService.getEPRuntime().sendEvent(new SupportBean("B", 3));
+        EPAssertionUtil.assertPropsPerRow(stmt.iterator(), fields, new Object[][]{{3L, 6}});
+        listener.reset();
+
+        // evicting group A removes its events from the aggregation
+        epService.getEPRuntime().sendEvent(new SupportBean("C", 4));
+        assertCondition(handler.getAndResetContexts(), 1, "A");
+        EPAssertionUtil.assertPropsPerRow(stmt.iterator(), fields, new Object[][]{{2L, 7}});
+        EventBean[] newEvents = listener.getNewDataListFlattened();
+        EPAssertionUtil.assertProps(newEvents[newEvents.length - 1], fields, new Object[] {2L, 7});
+
+        stmt.destroy();
+    }
+
+    public void testInvalid()
+    {
+        SupportMessageAssertUtil.tryInvalid(epService, "@Hint('max_groups=0') select theString, count(*) from SupportBean group by theString",
+                "Error starting statement: Hint 'MAX_GROUPS' requires a positive number of groups but received '0'");
+        SupportMessageAssertUtil.tryInvalid(epService, "@Hint('max_groups=x') select * from SupportBean.std:groupwin(theString).win:length(2)",
+                "Error starting statement: Error in view 'std:groupwin', Hint 'MAX_GROUPS' requires a positive number of groups but received 'x'");
+    }
+
+    private void sendAssert(String theString, String[] fields, long expectedCount)
+    {
+        epService.getEPRuntime().sendEvent(new SupportBean(theString, 0));
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {theString, expectedCount});
+    }
+
+    private void assertCondition(List<ConditionHandlerContext> contexts, long numEvicted, Object evictedGroupKey)
+    {
+        assertEquals(1, contexts.size());
+        ConditionHandlerContext context = contexts.get(0);
+        assertEquals(epService.getURI(), context.getEngineURI());
+        assertEquals("s0", context.getStatementName());
+        ConditionGroupCardinalityMax condition = (ConditionGroupCardinalityMax) context.getEngineCondition();
+        assertEquals(numEvicted, condition.getNumEvicted());
+        assertEquals(evictedGroupKey, condition.getEvictedGroupKey());
+    }
+}
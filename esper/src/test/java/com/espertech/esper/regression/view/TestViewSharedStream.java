@@ -0,0 +1,76 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.regression.view;
+
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.filter.FilterServiceSPI;
+import com.espertech.esper.metrics.instrumentation.InstrumentationHelper;
+import com.espertech.esper.support.bean.SupportBean;
+import com.espertech.esper.support.client.SupportConfigFactory;
+import junit.framework.TestCase;
+
+public class TestViewSharedStream extends TestCase {
+
+    private EPServiceProvider epService;
+    private SupportUpdateListener listenerOne = new SupportUpdateListener();
+    private SupportUpdateListener listenerTwo = new SupportUpdateListener();
+
+    public void setUp()
+    {
+        epService = EPServiceProviderManager.getDefaultProvider(SupportConfigFactory.getConfiguration());
+        epService.initialize();
+        epService.getEPAdministrator().getConfiguration().addEventType(SupportBean.class);
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.startTest(epService, this.getClass(), getName());}
+    }
+
+    protected void tearDown() throws Exception {
+        if (InstrumentationHelper.ENABLED) { InstrumentationHelper.endTest();}
+        listenerOne = null;
+        listenerTwo = null;
+    }
+
+    public void testInListOrderShared() {
+        FilterServiceSPI filterSPI = (FilterServiceSPI) ((EPServiceProviderSPI) epService).getFilterService();
+
+        EPStatement stmtOne = epService.getEPAdministrator().createEPL("select sum(intPrimitive) as total from SupportBean(theString in ('A', 'B')).win:length(2)");
+        stmtOne.addListener(listenerOne);
+        long filterCount = filterSPI.getFilterCountApprox();
+        EPStatement stmtTwo = epService.getEPAdministrator().createEPL("select count(*) as cnt from SupportBean(theString in ('B', 'A', 'A')).win:length(2)");
+        stmtTwo.addListener(listenerTwo);
+        assertEquals(filterCount, filterSPI.getFilterCountApprox());
+
+        epService.getEPAdministrator().createEPL("select * from SupportBean(theString = 'A' or theString = 'B').win:length(2)");
+        assertEquals(filterCount, filterSPI.getFilterCountApprox());
+
+        epService.getEPAdministrator().createEPL("select * from SupportBean(theString in ('A', 'C')).win:length(2)");
+        assertTrue(filterSPI.getFilterCountApprox() > filterCount);
+
+        epService.getEPRuntime().sendEvent(new SupportBean("A", 10));
+        epService.getEPRuntime().sendEvent(new SupportBean("B", 20));
+        epService.getEPRuntime().sendEvent(new SupportBean("A", 30));
+        EPAssertionUtil.assertProps(listenerOne.getLastNewData()[0], "total".split(","), new Object[]{50});
+        EPAssertionUtil.assertProps(listenerTwo.getLastNewData()[0], "cnt".split(","), new Object[]{2L});
+
+        stmtTwo.destroy();
+        listenerOne.reset();
+        epService.getEPRuntime().sendEvent(new SupportBean("B", 40));
+        EPAssertionUtil.assertProps(listenerOne.assertOneGetNewAndReset(), "total".split(","), new Object[]{70});
+
+        epService.getEPAdministrator().destroyAllStatements();
+        assertEquals(0, filterSPI.getFilterCountApprox());
+    }
+}
@@ -23,7 +23,7 @@ import java.util.TimeZone;
 
 public class TestSchedulingServiceImpl extends TestCase
 {
-    private SchedulingServiceImpl service;
+    private SchedulingServiceSPI service;
     private SchedulingMgmtServiceImpl mgmtService;
 
     private ScheduleSlot slots[][];
@@ -31,7 +31,7 @@ public class TestSchedulingServiceImpl extends TestCase
 
     public void setUp()
     {
-        service = new SchedulingServiceImpl(new TimeSourceServiceImpl());
+        service = makeService();
         mgmtService = new SchedulingMgmtServiceImpl();
 
         // 2-by-2 table of buckets and slots
@@ -52,6 +52,7 @@ public class TestSchedulingServiceImpl extends TestCase
         {
             callbacks[i] = new SupportScheduleCallback();
         }
+        SupportScheduleCallback.setCallbackOrderNum(0);
     }
 
     public void testAddTwice()
@@ -200,11 +201,16 @@ public class TestSchedulingServiceImpl extends TestCase
 
     public void testIncorrectRemove()
     {
-        SchedulingServiceImpl evaluator = new SchedulingServiceImpl(new TimeSourceServiceImpl());
+        SchedulingServiceSPI evaluator = makeService();
         SupportScheduleCallback callback = new SupportScheduleCallback();
         evaluator.remove(callback, null);
     }
 
+    protected SchedulingServiceSPI makeService()
+    {
+        return new SchedulingServiceImpl(new TimeSourceServiceImpl());
+    }
+
     private void checkCallbacks(SupportScheduleCallback callbacks[], Integer[] results)
     {
         assertTrue(callbacks.length == results.length);
@@ -0,0 +1,118 @@
+/*
+ * *************************************************************************************
+ *  Copyright (C) 2006-2015 EsperTech, Inc. All rights reserved.                       *
+ *  http://www.espertech.com/esper                                                     *
+ *  http://www.espertech.com                                                           *
+ *  ---------------------------------------------------------------------------------- *
+ *  The software in this package is published under the terms of the GPL license       *
+ *  a copy of which has been included with this distribution in the license.txt file.  *
+ * *************************************************************************************
+ */
+
+package com.espertech.esper.schedule;
+
+import com.espertech.esper.support.schedule.SupportScheduleCallback;
+import com.espertech.esper.timer.TimeSourceServiceImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TestSchedulingServiceTimingWheel extends TestSchedulingServiceImpl
+{
+    protected SchedulingServiceSPI makeService()
+    {
+        return new SchedulingServiceTimingWheel(new TimeSourceServiceImpl());
+    }
+
+    public void testCompareSorted()
+    {
+        SchedulingServiceSPI sorted = new SchedulingServiceImpl(new TimeSourceServiceImpl());
+        SchedulingServiceSPI wheel = makeService();
+
+        SchedulingMgmtServiceImpl mgmtService = new SchedulingMgmtServiceImpl();
+        ScheduleBucket bucket = mgmtService.allocateBucket();
+        int numHandles = 200;
+        SupportScheduleCallback[] handles = new SupportScheduleCallback[numHandles];
+        ScheduleSlot[] slots = new ScheduleSlot[numHandles];
+        for (int i = 0; i < numHandles; i++) {
+            handles[i] = new SupportScheduleCallback();
+            slots[i] = bucket.allocateSlot();
+        }
+
+        Random random = new Random(1000);
+        long time = 1000;
+        sorted.setTime(time);
+        wheel.setTime(time);
+        long[] deltas = new long[] {0, 1, 7, 63, 64, 65, 4095, 4096, 100000, 3600000, 86400000L * 400};
+
+        for (int i = 0; i < 20000; i++) {
+            int action = random.nextInt(10);
+            if (action < 5) {
+                int index = random.nextInt(numHandles);
+                long after = deltas[random.nextInt(deltas.length)] + random.nextInt(3);
+                sorted.add(after, handles[index], slots[index]);
+                wheel.add(after, handles[index], slots[index]);
+            }
+            else if (action < 7) {
+                int index = random.nextInt(numHandles);
+                sorted.remove(handles[index], slots[index]);
+                wheel.remove(handles[index], slots[index]);
+            }
+            else {
+                time += deltas[random.nextInt(deltas.length)] / (1 + random.nextInt(4));
+                sorted.setTime(time);
+                wheel.setTime(time);
+                List<ScheduleHandle> expected = new ArrayList<ScheduleHandle>();
+                List<ScheduleHandle> received = new ArrayList<ScheduleHandle>();
+                sorted.evaluate(expected);
+                wheel.evaluate(received);
+                assertEquals(expected, received);
+            }
+            assertEquals(sorted.getScheduleHandleCount(), wheel.getScheduleHandleCount());
+            assertEquals(sorted.getNearestTimeHandle(), wheel.getNearestTimeHandle());
+        }
+    }
+
+    public void testTimeJumpAndRewind()
+    {
+        SchedulingServiceSPI wheel = makeService();
+        SchedulingMgmtServiceImpl mgmtService = new SchedulingMgmtServiceImpl();
+        ScheduleBucket bucket = mgmtService.allocateBucket();
+        SupportScheduleCallback[] handles = new SupportScheduleCallback[3];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = new SupportScheduleCallback();
+        }
+
+        wheel.setTime(-10);
+        wheel.add(5, handles[0], bucket.allocateSlot());
+        wheel.add(20, handles[1], bucket.allocateSlot());
+        wheel.add(Long.MAX_VALUE / 2, handles[2], bucket.allocateSlot());
+        assertEquals(-5L, (long) wheel.getNearestTimeHandle());
+        assertEquals(Long.MAX_VALUE / 2 - 10, (long) wheel.getFurthestTimeHandle());
+
+        wheel.setTime(5);
+        List<ScheduleHandle> received = new ArrayList<ScheduleHandle>();
+        wheel.evaluate(received);
+        assertEquals(1, received.size());
+        assertSame(handles[0], received.get(0));
+
+        // rewind time, then move forward again
+        wheel.setTime(0);
+        received.clear();
+        wheel.evaluate(received);
+        assertTrue(received.isEmpty());
+        wheel.setTime(10);
+        wheel.evaluate(received);
+        assertEquals(1, received.size());
+        assertSame(handles[1], received.get(0));
+
+        wheel.setTime(Long.MAX_VALUE / 2);
+        received.clear();
+        wheel.evaluate(received);
+        assertEquals(1, received.size());
+        assertSame(handles[2], received.get(0));
+        assertEquals(0, wheel.getScheduleHandleCount());
+        assertNull(wheel.getNearestTimeHandle());
+    }
+}
@@ -17,6 +17,7 @@ import com.espertech.esper.core.service.EPStatementListenerSet;
 import com.espertech.esper.core.service.EPStatementSPI;
 import com.espertech.esper.core.service.StatementContext;
 import com.espertech.esper.core.service.StatementMetadata;
+import com.espertech.esper.epl.metric.StatementFootprint;
 import com.espertech.esper.view.Viewable;
 
 import java.lang.annotation.Annotation;
@@ -60,6 +61,10 @@ public class SupportEPStatementSPI implements EPStatementSPI {
         return null;
     }
 
+    public StatementFootprint getFootprint() {
+        return null;
+    }
+
     public boolean isNameProvided() {
         return false;
     }
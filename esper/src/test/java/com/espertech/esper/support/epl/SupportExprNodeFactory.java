@@ -440,6 +440,6 @@ public class SupportExprNodeFactory
 
     public static MethodResolutionService getMethodResService()
     {
-        return new MethodResolutionServiceImpl(new EngineImportServiceImpl(true, true, true, false, null, TimeZone.getDefault()), null);
+        return new MethodResolutionServiceImpl(new EngineImportServiceImpl(true, true, true, false, false, null, TimeZone.getDefault()), null);
     }
 }
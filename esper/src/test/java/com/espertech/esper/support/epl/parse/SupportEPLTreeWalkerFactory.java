@@ -36,6 +36,6 @@ public class SupportEPLTreeWalkerFactory
 
     public static EPLTreeWalkerListener makeWalker(CommonTokenStream tokenStream)
     {
-        return makeWalker(tokenStream, new EngineImportServiceImpl(true, true, true, false, null, TimeZone.getDefault()), new VariableServiceImpl(0, null, SupportEventAdapterService.getService(), null));
+        return makeWalker(tokenStream, new EngineImportServiceImpl(true, true, true, false, false, null, TimeZone.getDefault()), new VariableServiceImpl(0, null, SupportEventAdapterService.getService(), null));
     }
 }
@@ -40,7 +40,7 @@ public class SupportParserHelper
 {
     public static EPLTreeWalkerListener parseAndWalkEPL(String expression) throws Exception
     {
-        return parseAndWalkEPL(expression, new EngineImportServiceImpl(true, true, true, false, null, TimeZone.getDefault()), new VariableServiceImpl(0, null, SupportEventAdapterService.getService(), null));
+        return parseAndWalkEPL(expression, new EngineImportServiceImpl(true, true, true, false, false, null, TimeZone.getDefault()), new VariableServiceImpl(0, null, SupportEventAdapterService.getService(), null));
     }
 
     public static EPLTreeWalkerListener parseAndWalkEPL(String expression, EngineImportService engineImportService, VariableService variableService) throws Exception
@@ -25,7 +25,7 @@ public class TestJsonUtil extends TestCase {
     private EngineImportService engineImportService;
 
     protected void setUp() {
-        engineImportService = new EngineImportServiceImpl(false, false, false, false, null, TimeZone.getDefault());
+        engineImportService = new EngineImportServiceImpl(false, false, false, false, false, null, TimeZone.getDefault());
     }
 
     protected void tearDown() {
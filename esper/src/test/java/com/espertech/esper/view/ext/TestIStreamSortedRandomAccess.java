@@ -13,6 +13,7 @@ package com.espertech.esper.view.ext;
 
 import com.espertech.esper.client.EventBean;
 import com.espertech.esper.collection.MultiKeyUntyped;
+import com.espertech.esper.collection.RankedRefCountedSet;
 import com.espertech.esper.support.bean.SupportBean;
 import com.espertech.esper.support.event.SupportEventBeanFactory;
 import com.espertech.esper.util.MultiKeyCastingComparator;
@@ -29,6 +30,7 @@ public class TestIStreamSortedRandomAccess extends TestCase
 {
     private IStreamSortRankRandomAccess access;
     private TreeMap<Object, Object> sortedEvents;
+    private RankedRefCountedSet<Object> sortedEventCounts;
     private EventBean[] events;
 
     public void setUp()
@@ -40,7 +42,9 @@ public class TestIStreamSortedRandomAccess extends TestCase
             }
         };
         access = new IStreamSortRankRandomAccess(updateObserver);
-        sortedEvents = new TreeMap<Object, Object>(new MultiKeyCastingComparator(new MultiKeyComparator(new boolean[] {false})));
+        MultiKeyCastingComparator comparator = new MultiKeyCastingComparator(new MultiKeyComparator(new boolean[] {false}));
+        sortedEvents = new TreeMap<Object, Object>(comparator);
+        sortedEventCounts = new RankedRefCountedSet<Object>(comparator);
 
         events = new EventBean[100];
         for (int i = 0; i < events.length; i++)
@@ -51,46 +55,50 @@ public class TestIStreamSortedRandomAccess extends TestCase
 
     public void testGet()
     {
-        access.refresh(sortedEvents, 0, 10);
+        access.refresh(sortedEvents, sortedEventCounts, 0, 10);
         assertNull(access.getNewData(0));
         assertNull(access.getNewData(1));
 
         add("C", events[0]);
-        access.refresh(sortedEvents, 1, 10);
+        access.refresh(sortedEvents, sortedEventCounts, 1, 10);
         assertData(new EventBean[] {events[0]});
 
         add("E", events[1]);
-        access.refresh(sortedEvents, 2, 10);
+        access.refresh(sortedEvents, sortedEventCounts, 2, 10);
         assertData(new EventBean[] {events[0], events[1]});
 
         add("A", events[2]);
-        access.refresh(sortedEvents, 3, 10);
+        access.refresh(sortedEvents, sortedEventCounts, 3, 10);
         assertData(new EventBean[] {events[2], events[0], events[1]});
 
         add("C", events[4]);
-        access.refresh(sortedEvents, 4, 10);
+        access.refresh(sortedEvents, sortedEventCounts, 4, 10);
         assertData(new EventBean[] {events[2], events[4], events[0], events[1]});
 
         add("E", events[5]);
-        access.refresh(sortedEvents, 5, 10);
+        access.refresh(sortedEvents, sortedEventCounts, 5, 10);
         assertData(new EventBean[] {events[2], events[4], events[0], events[5], events[1]});
 
         add("A", events[6]);
-        access.refresh(sortedEvents, 6, 10);
+        access.refresh(sortedEvents, sortedEventCounts, 6, 10);
         assertData(new EventBean[] {events[6], events[2], events[4], events[0], events[5], events[1]});
 
         add("B", events[7]);
-        access.refresh(sortedEvents, 7, 10);
+        access.refresh(sortedEvents, sortedEventCounts, 7, 10);
         assertData(new EventBean[] {events[6], events[2], events[7], events[4], events[0], events[5], events[1]});
 
         add("F", events[8]);
-        access.refresh(sortedEvents, 8, 10);
+        access.refresh(sortedEvents, sortedEventCounts, 8, 10);
         assertData(new EventBean[] {events[6], events[2], events[7], events[4], events[0], events[5], events[1], events[8]});
         //                          A           A           B       C           C           E           E           F
 
         add("D", events[9]);
-        access.refresh(sortedEvents, 9, 10);
+        access.refresh(sortedEvents, sortedEventCounts, 9, 10);
         assertSame(events[9], access.getNewData(5));
+        assertSame(events[8], access.getNewDataTail(0));
+        assertSame(events[6], access.getNewDataTail(8));
+        assertNull(access.getNewDataTail(9));
+        assertNull(access.getNewData(-1));
     }
 
     private void assertData(EventBean[] events)
@@ -113,5 +121,6 @@ public class TestIStreamSortedRandomAccess extends TestCase
         }
         eventList.add(0, theEvent);
         sortedEvents.put(mkey, eventList);
+        sortedEventCounts.add(mkey);
     }
 }
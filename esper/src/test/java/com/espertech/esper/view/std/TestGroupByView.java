@@ -38,7 +38,7 @@ public class TestGroupByView extends TestCase
         agentInstanceContext = SupportStatementContextFactory.makeAgentInstanceViewFactoryContext();
 
         ExprNode[] expressions = SupportExprNodeFactory.makeIdentNodesMD("symbol");
-        myGroupByView = new GroupByViewImpl(agentInstanceContext, expressions, ExprNodeUtility.getEvaluators(expressions));
+        myGroupByView = new GroupByViewImpl(agentInstanceContext, expressions, ExprNodeUtility.getEvaluators(expressions), null);
 
         SupportBeanClassView childView = new SupportBeanClassView(SupportMarketDataBean.class);
 
@@ -127,7 +127,7 @@ public class TestGroupByView extends TestCase
     {
         EventStream eventStream = new SupportStreamImpl(SupportMarketDataBean.class, 4);
         ExprNode[] expressions = SupportExprNodeFactory.makeIdentNodesMD("symbol");
-        GroupByView groupView = new GroupByViewImpl(agentInstanceContext, expressions, ExprNodeUtility.getEvaluators(expressions));
+        GroupByView groupView = new GroupByViewImpl(agentInstanceContext, expressions, ExprNodeUtility.getEvaluators(expressions), null);
         eventStream.addView(groupView);
 
         Object[] groupByValue = new Object[] {"IBM"};
@@ -157,7 +157,7 @@ public class TestGroupByView extends TestCase
         }
 
         // Add a size view parent of merge view
-        groupView = new GroupByViewImpl(agentInstanceContext, expressions, ExprNodeUtility.getEvaluators(expressions));
+        groupView = new GroupByViewImpl(agentInstanceContext, expressions, ExprNodeUtility.getEvaluators(expressions), null);
 
         FirstElementView firstElementView_1 = new FirstElementView(null);
 
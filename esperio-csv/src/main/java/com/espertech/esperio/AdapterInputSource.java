@@ -179,6 +179,36 @@ public class AdapterInputSource
 		return reader;
 	}
 
+	/**
+	 * Return the resource as a file, if it is a file, a file URL or a classpath resource found in a
+	 * classpath directory, or null if the resource is not available as a file.
+	 * @return file or null
+	 */
+	public File getAsFile()
+	{
+		if(file != null)
+		{
+			return file;
+		}
+		URL fileUrl = url;
+		if(classpathResource != null)
+		{
+			fileUrl = resolvePathAsURL(classpathResource);
+		}
+		if(fileUrl == null || !"file".equals(fileUrl.getProtocol()))
+		{
+			return null;
+		}
+		try
+		{
+			return new File(fileUrl.toURI());
+		}
+		catch (URISyntaxException e)
+		{
+			return null;
+		}
+	}
+
 	/**
 	 * Return true if calling getStream() will return a new InputStream created from the
 	 * resource, which, assuming that the resource hasn't been changed, will have the same
@@ -196,17 +226,7 @@ public class AdapterInputSource
 	private InputStream resolvePathAsStream(String path)
     {
         if (path.endsWith(".zip")) {
-            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-            URL url = null;
-            if (classLoader!=null) {
-                url = classLoader.getResource(path);
-            }
-            if (url == null ) {
-                url = CSVReader.class.getResource(path);
-            }
-            if (url == null ) {
-                url = CSVReader.class.getClassLoader().getResource(path);
-            }
+            URL url = resolvePathAsURL(path);
             if (url == null ) {
                 throw new EPException("Resource '" + path + "' not found in classpath" );
             }
@@ -232,6 +252,22 @@ public class AdapterInputSource
     	return stream;
     }
 
+    private URL resolvePathAsURL(String path)
+    {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        URL url = null;
+        if (classLoader!=null) {
+            url = classLoader.getResource(path);
+        }
+        if (url == null ) {
+            url = CSVReader.class.getResource(path);
+        }
+        if (url == null ) {
+            url = CSVReader.class.getClassLoader().getResource(path);
+        }
+        return url;
+    }
+
     private InputStream openZipUrl(URL url) {
         File file;
         try {
@@ -26,6 +26,7 @@ import org.apache.commons.logging.LogFactory;
 
 import java.beans.PropertyDescriptor;
 import java.io.EOFException;
+import java.io.File;
 import java.util.*;
 
 /**
@@ -37,6 +38,9 @@ public class CSVInputAdapter extends AbstractCoordinatedAdapter implements Input
 
 	private Integer eventsPerSec;
 	private CSVReader reader;
+	private CSVMappedFileReader mappedReader;
+	private boolean isUsingTitleRow;
+	private boolean isMappedReaderReset;
 	private AbstractTypeCoercer coercer = new BasicTypeCoercer();
 	private String[] propertyOrder;
 	private CSVInputAdapterSpec adapterSpec;
@@ -173,7 +177,15 @@ public class CSVInputAdapter extends AbstractCoordinatedAdapter implements Input
 	 */
 	protected void close()
 	{
-		reader.close();
+		if(mappedReader != null)
+		{
+			mappedReader.close();
+			mappedReader = null;
+		}
+		if(reader != null)
+		{
+			reader.close();
+		}
 	}
 
 	/**
@@ -199,7 +211,11 @@ public class CSVInputAdapter extends AbstractCoordinatedAdapter implements Input
 		lastTimestamp = 0;
 		totalDelay = 0;
 		atEOF = false;
-		if(reader.isResettable())
+		if(mappedReader != null)
+		{
+			mappedReader.reset();
+		}
+		else if(reader != null && reader.isResettable())
 		{
 			reader.reset();
 		}
@@ -224,8 +240,15 @@ public class CSVInputAdapter extends AbstractCoordinatedAdapter implements Input
 				spec.getPropertyOrder() :
 					CSVPropertyOrderHelper.resolvePropertyOrder(firstRow, givenPropertyTypes);
 
-		reader.setIsUsingTitleRow(isUsingTitleRow(firstRow, propertyOrder));
-		if(!isUsingTitleRow(firstRow, propertyOrder))
+		isUsingTitleRow = isUsingTitleRow(firstRow, propertyOrder);
+		reader.setIsUsingTitleRow(isUsingTitleRow);
+		if(spec.getParallelism() > 0)
+		{
+			// the memory-mapped reader reads the file from the start, including the first row
+			reader.close();
+			reader = null;
+		}
+		else if(!isUsingTitleRow)
 		{
 			this.firstRow = firstRow;
 		}
@@ -242,6 +265,13 @@ public class CSVInputAdapter extends AbstractCoordinatedAdapter implements Input
 	private Map<String, Object> newMapEvent() throws EOFException
 	{
 		++rowCount;
+		if(adapterSpec.getParallelism() > 0)
+		{
+			Map<String, Object> map = createMapFromRow(getNextMappedRecord());
+			updateTotalDelay(map, isMappedReaderReset);
+			isMappedReaderReset = false;
+			return map;
+		}
 		String[] row =  firstRow != null ? firstRow : reader.getNextRecord();
 		firstRow = null;
 		Map<String, Object> map = createMapFromRow(row);
@@ -249,6 +279,79 @@ public class CSVInputAdapter extends AbstractCoordinatedAdapter implements Input
 		return map;
 	}
 
+	private Object[] getNextMappedRecord() throws EOFException
+	{
+		if(mappedReader == null)
+		{
+			mappedReader = createMappedReader();
+		}
+		try
+		{
+			return mappedReader.getNextRecord();
+		}
+		catch (EOFException e)
+		{
+			if(!adapterSpec.isLooping())
+			{
+				throw e;
+			}
+			mappedReader.reset();
+			isMappedReaderReset = true;
+			return mappedReader.getNextRecord();
+		}
+	}
+
+	private CSVMappedFileReader createMappedReader()
+	{
+		// numeric values are only parsed by the reader if coercing would do the same
+		boolean isParseTyped = coercer.getClass() == BasicTypeCoercer.class;
+		Class[] columnTypes = new Class[propertyOrder.length];
+		int timestampColumn = -1;
+		for(int i = 0; i < propertyOrder.length; i++)
+		{
+			String property = propertyOrder[i];
+			Object type = propertyTypes.get(property);
+			if(property.equals(adapterSpec.getTimestampColumn()))
+			{
+				timestampColumn = i;
+				columnTypes[i] = isParseTyped && type == null ? Long.class : String.class;
+			}
+			if(type != null)
+			{
+				columnTypes[i] = isParseTyped && type instanceof Class ? (Class) type : String.class;
+			}
+		}
+		File file = adapterSpec.getAdapterInputSource().getAsFile();
+		return new CSVMappedFileReader(file, adapterSpec.getParallelism(), columnTypes, isUsingTitleRow, timestampColumn);
+	}
+
+	private Map<String, Object> createMapFromRow(Object[] values)
+	{
+		Map<String, Object> map = new HashMap<String, Object>();
+
+		try
+		{
+			for(int i = 0; i < propertyOrder.length; i++)
+			{
+				String property = propertyOrder[i];
+				Object value = values[i];
+				if(value instanceof String)
+				{
+					value = coercer.coerce(property, (String) value);
+				}
+				if(value != null)
+				{
+					map.put(property, value);
+				}
+			}
+		}
+		catch (Exception e)
+		{
+			throw new EPException(e);
+		}
+		return map;
+	}
+
 	private Map<String, Object> createMapFromRow(String[] row)
 	{
 		Map<String, Object> map = new HashMap<String, Object>();
@@ -517,6 +620,20 @@ public class CSVInputAdapter extends AbstractCoordinatedAdapter implements Input
 		{
 			throw new EPException("Cannot loop on a non-resettable input source");
 		}
+
+		if(adapterSpec.getParallelism() < 0)
+		{
+			throw new IllegalArgumentException("Illegal value of parallelism:" + adapterSpec.getParallelism());
+		}
+
+		if(adapterSpec.getParallelism() > 0)
+		{
+			File file = adapterSpec.getAdapterInputSource().getAsFile();
+			if(file == null || file.getName().endsWith("zip"))
+			{
+				throw new EPException("Parallel reading requires an input source that is an uncompressed file");
+			}
+		}
 	}
 
     /**
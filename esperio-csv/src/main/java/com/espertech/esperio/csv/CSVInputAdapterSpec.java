@@ -25,6 +25,7 @@ public class CSVInputAdapterSpec
 	private String[] propertyOrder;
 	private boolean looping;
 	private Map<String, Object> propertyTypes;
+	private int parallelism;
 
 	/**
 	 * Ctor.
@@ -205,4 +206,22 @@ public class CSVInputAdapterSpec
     public void setUsingTimeSpanEvents(boolean usingTimeSpanEvents) {
         this.usingTimeSpanEvents = usingTimeSpanEvents;
     }
+
+    /**
+     * Returns the number of threads that parse a memory-mapped CSV file in parallel, or zero (the default)
+     * for reading the input source sequentially.
+     * @return number of parsing threads
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of threads that parse a memory-mapped CSV file in parallel, or zero (the default)
+     * for reading the input source sequentially. Requires an input source that is an uncompressed file.
+     * @param parallelism number of parsing threads
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
 }
@@ -0,0 +1,825 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esperio.csv;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esper.util.JavaClassHelper;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A reader for CSV files that memory-maps the file and parses it in parallel.
+ * <p>
+ * The file is split into one chunk per thread, each chunk starting at the beginning of a line.
+ * Each thread maps its chunk in regions of at most 1GB, each region ending at a line terminator,
+ * and parses records directly from the mapped bytes. Values of numeric and boolean columns are
+ * produced without an intermediate string. Values of all other columns, quoted values and values that
+ * do not parse as the column type are returned as strings, for the caller to coerce or reject.
+ * <p>
+ * Records are returned in file order. When a timestamp column is provided, the chunks are instead
+ * merged by ascending timestamp, with ties returned in file order.
+ * <p>
+ * The syntax is that of {@link CSVReader}: lines starting with '#' are comments, blank lines are skipped,
+ * spaces and tabs around values are removed and a double quote within a quoted value is escaped by a
+ * second double quote. Unlike {@link CSVReader}, quoted values must not contain line terminators.
+ * Bytes are read as ISO-8859-1 characters, as {@link CSVReader} does for file sources.
+ */
+public class CSVMappedFileReader
+{
+	private static final Log log = LogFactory.getLog(CSVMappedFileReader.class);
+
+	private static final int DEFAULT_MAX_MAP_SIZE = 1 << 30;
+	private static final int BATCH_SIZE = 1024;
+	private static final int QUEUE_CAPACITY = 16;
+	private static final Charset CHARSET = Charset.forName("ISO-8859-1");
+
+	private static final int SKIP = 0;
+	private static final int STRING = 1;
+	private static final int BOOLEAN = 2;
+	private static final int BYTE = 3;
+	private static final int SHORT = 4;
+	private static final int INT = 5;
+	private static final int LONG = 6;
+	private static final int FLOAT = 7;
+	private static final int DOUBLE = 8;
+
+	private static final double[] DOUBLE_POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+	private static final float[] FLOAT_POWERS_OF_TEN = {
+			1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+
+	private static final AtomicInteger threadCount = new AtomicInteger();
+
+	private final File file;
+	private final int parallelism;
+	private final int[] kinds;
+	private final int requiredColumns;
+	private final boolean skipFirstRecord;
+	private final int timestampColumn;
+	private int maxMapSize = DEFAULT_MAX_MAP_SIZE;
+
+	private RandomAccessFile randomAccessFile;
+	private ExecutorService executor;
+	private ChunkCursor[] cursors;
+	private int currentChunk;
+	private boolean isClosed = false;
+
+	/**
+	 * Ctor.
+	 * @param file - the CSV file
+	 * @param parallelism - the number of chunks and threads parsing the file
+	 * @param columnTypes - the type of each column, by position, or null for columns to skip; columns
+	 *   beyond the length of the array are skipped
+	 * @param skipFirstRecord - true to skip the first record, such as a title row
+	 * @param timestampColumn - the position of the column providing long-typed timestamps to merge chunks by,
+	 *   or -1 to return records in file order
+	 */
+	public CSVMappedFileReader(File file, int parallelism, Class[] columnTypes, boolean skipFirstRecord, int timestampColumn)
+	{
+		if(parallelism < 1)
+		{
+			throw new IllegalArgumentException("Illegal value of parallelism:" + parallelism);
+		}
+		if(timestampColumn >= columnTypes.length || (timestampColumn >= 0 && columnTypes[timestampColumn] == null))
+		{
+			throw new IllegalArgumentException("Timestamp column " + timestampColumn + " is not a typed column");
+		}
+		this.file = file;
+		this.parallelism = parallelism;
+		this.skipFirstRecord = skipFirstRecord;
+		this.timestampColumn = timestampColumn;
+
+		kinds = new int[columnTypes.length];
+		int required = 0;
+		for(int i = 0; i < columnTypes.length; i++)
+		{
+			kinds[i] = getKind(columnTypes[i]);
+			if(kinds[i] != SKIP)
+			{
+				required = i + 1;
+			}
+		}
+		requiredColumns = required;
+	}
+
+	/**
+	 * Get the next record from the CSV file, starting the parsing threads on first use.
+	 * @return an array containing the values of the record by column position, null for skipped columns
+	 * @throws EOFException in case no more records can be read
+	 * @throws EPException in case of error in reading or parsing the CSV file
+	 */
+	public Object[] getNextRecord() throws EOFException, EPException
+	{
+		if(isClosed)
+		{
+			throw new EPException("Calling getNextRecord() on an already closed CSVMappedFileReader");
+		}
+		if(cursors == null)
+		{
+			start();
+		}
+
+		try
+		{
+			ChunkCursor next = null;
+			if(timestampColumn < 0)
+			{
+				while(currentChunk < cursors.length)
+				{
+					if(cursors[currentChunk].advance())
+					{
+						next = cursors[currentChunk];
+						break;
+					}
+					currentChunk++;
+				}
+			}
+			else
+			{
+				for(ChunkCursor cursor : cursors)
+				{
+					if(cursor.advance() && (next == null || cursor.getTimestamp() < next.getTimestamp()))
+					{
+						next = cursor;
+					}
+				}
+			}
+
+			if(next == null)
+			{
+				executor.shutdown();
+				throw new EOFException("In reading CSV file, reached end-of-file");
+			}
+			return next.take();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new EPException("Interrupted while reading CSV file '" + file + "'", e);
+		}
+	}
+
+	/**
+	 * Reset the reader to the beginning of the file, stopping any parsing threads.
+	 */
+	public void reset()
+	{
+		stop();
+	}
+
+	/**
+	 * Close the reader, stopping any parsing threads.
+	 */
+	public void close()
+	{
+		if(isClosed)
+		{
+			throw new EPException("Calling close() on an already closed CSVMappedFileReader");
+		}
+		isClosed = true;
+		stop();
+	}
+
+	/**
+	 * Sets the largest region of the file to map at one time, 1GB by default. A line must fit into a region.
+	 * @param maxMapSize size in bytes
+	 */
+	public void setMaxMapSize(int maxMapSize)
+	{
+		this.maxMapSize = maxMapSize;
+	}
+
+	private void start()
+	{
+		FileChannel channel;
+		long[] bounds;
+		try
+		{
+			randomAccessFile = new RandomAccessFile(file, "r");
+			channel = randomAccessFile.getChannel();
+			bounds = getChunkBounds(channel);
+		}
+		catch (IOException e)
+		{
+			stop();
+			throw new EPException("Failed to open CSV file '" + file + "': " + e.getMessage(), e);
+		}
+
+		executor = Executors.newFixedThreadPool(parallelism, new ThreadFactory() {
+			public Thread newThread(Runnable runnable)
+			{
+				Thread thread = new Thread(runnable, "esperio-csv-mapped-" + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		currentChunk = 0;
+		cursors = new ChunkCursor[parallelism];
+		for(int i = 0; i < parallelism; i++)
+		{
+			BlockingQueue<Batch> queue = new ArrayBlockingQueue<Batch>(QUEUE_CAPACITY);
+			cursors[i] = new ChunkCursor(queue);
+			executor.submit(new ChunkParser(channel, bounds[i], bounds[i + 1], i == 0 && skipFirstRecord, queue));
+		}
+
+		if(log.isDebugEnabled())
+		{
+			log.debug(".start file==" + file + " parallelism==" + parallelism);
+		}
+	}
+
+	private void stop()
+	{
+		if(executor != null)
+		{
+			executor.shutdownNow();
+			executor = null;
+		}
+		cursors = null;
+		if(randomAccessFile != null)
+		{
+			try
+			{
+				randomAccessFile.close();
+			}
+			catch (IOException e)
+			{
+				log.warn("Failed to close CSV file '" + file + "': " + e.getMessage());
+			}
+			randomAccessFile = null;
+		}
+	}
+
+	private long[] getChunkBounds(FileChannel channel) throws IOException
+	{
+		long size = channel.size();
+		long[] bounds = new long[parallelism + 1];
+		bounds[parallelism] = size;
+		for(int i = 1; i < parallelism; i++)
+		{
+			long position = Math.max(bounds[i - 1], size / parallelism * i);
+			bounds[i] = position == 0 ? 0 : findLineStart(channel, position, size);
+		}
+		return bounds;
+	}
+
+	private long findLineStart(FileChannel channel, long position, long size) throws IOException
+	{
+		// a line starts at the position if the byte before it is a line terminator
+		ByteBuffer buffer = ByteBuffer.allocate(8192);
+		long current = position - 1;
+		while(current < size)
+		{
+			buffer.clear();
+			int count = channel.read(buffer, current);
+			if(count <= 0)
+			{
+				break;
+			}
+			for(int i = 0; i < count; i++)
+			{
+				byte value = buffer.get(i);
+				if(value == '\n' || value == '\r')
+				{
+					return current + i + 1;
+				}
+			}
+			current += count;
+		}
+		return size;
+	}
+
+	private static int getKind(Class type)
+	{
+		if(type == null)
+		{
+			return SKIP;
+		}
+		Class boxed = JavaClassHelper.getBoxedType(type);
+		if(boxed == Boolean.class)
+		{
+			return BOOLEAN;
+		}
+		if(boxed == Byte.class)
+		{
+			return BYTE;
+		}
+		if(boxed == Short.class)
+		{
+			return SHORT;
+		}
+		if(boxed == Integer.class)
+		{
+			return INT;
+		}
+		if(boxed == Long.class)
+		{
+			return LONG;
+		}
+		if(boxed == Float.class)
+		{
+			return FLOAT;
+		}
+		if(boxed == Double.class)
+		{
+			return DOUBLE;
+		}
+		return STRING;
+	}
+
+	private static boolean isWhiteSpace(byte value)
+	{
+		return value == ' ' || value == '\t';
+	}
+
+	private static boolean isLineEnd(byte value)
+	{
+		return value == '\n' || value == '\r';
+	}
+
+	private static Object parseIntegral(ByteBuffer buffer, int start, int end, int kind)
+	{
+		int pos = start;
+		boolean negative = false;
+		if(pos < end && (buffer.get(pos) == '-' || buffer.get(pos) == '+'))
+		{
+			negative = buffer.get(pos) == '-';
+			pos++;
+		}
+		if(pos == end || end - pos > 19)
+		{
+			return null;
+		}
+		long value = 0;
+		for(; pos < end; pos++)
+		{
+			int digit = buffer.get(pos) - '0';
+			if(digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10)
+			{
+				return null;
+			}
+			value = value * 10 + digit;
+		}
+		if(negative)
+		{
+			value = -value;
+		}
+
+		switch(kind)
+		{
+			case BYTE:
+				return value < Byte.MIN_VALUE || value > Byte.MAX_VALUE ? null : Byte.valueOf((byte) value);
+			case SHORT:
+				return value < Short.MIN_VALUE || value > Short.MAX_VALUE ? null : Short.valueOf((short) value);
+			case INT:
+				return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? null : Integer.valueOf((int) value);
+			default:
+				return Long.valueOf(value);
+		}
+	}
+
+	private static Object parseFloatingPoint(ByteBuffer buffer, int start, int end, int kind)
+	{
+		// Only decimals whose digits fit a long exactly are parsed here: dividing the exact mantissa
+		// by an exact power of ten is correctly rounded; anything else is left to the string parser
+		int pos = start;
+		boolean negative = false;
+		if(pos < end && (buffer.get(pos) == '-' || buffer.get(pos) == '+'))
+		{
+			negative = buffer.get(pos) == '-';
+			pos++;
+		}
+		long mantissa = 0;
+		int digits = 0;
+		int fractionDigits = 0;
+		boolean seenPoint = false;
+		for(; pos < end; pos++)
+		{
+			byte value = buffer.get(pos);
+			if(value >= '0' && value <= '9')
+			{
+				if(++digits > 18)
+				{
+					return null;
+				}
+				mantissa = mantissa * 10 + (value - '0');
+				if(seenPoint)
+				{
+					fractionDigits++;
+				}
+			}
+			else if(value == '.' && !seenPoint)
+			{
+				seenPoint = true;
+			}
+			else
+			{
+				return null;
+			}
+		}
+		if(digits == 0)
+		{
+			return null;
+		}
+
+		if(kind == FLOAT)
+		{
+			if(mantissa > (1L << 24) || fractionDigits >= FLOAT_POWERS_OF_TEN.length)
+			{
+				return null;
+			}
+			float result = (float) mantissa / FLOAT_POWERS_OF_TEN[fractionDigits];
+			return negative ? -result : result;
+		}
+		if(mantissa > (1L << 53))
+		{
+			return null;
+		}
+		double result = (double) mantissa / DOUBLE_POWERS_OF_TEN[fractionDigits];
+		return negative ? -result : result;
+	}
+
+	private static class Batch
+	{
+		private final Object[][] records;
+		private final long[] timestamps;
+		private int size;
+		private boolean last;
+		private Throwable failure;
+
+		private Batch(int capacity)
+		{
+			records = new Object[capacity][];
+			timestamps = new long[capacity];
+		}
+
+		private static Batch last(Throwable failure)
+		{
+			Batch batch = new Batch(0);
+			batch.last = true;
+			batch.failure = failure;
+			return batch;
+		}
+	}
+
+	private class ChunkCursor
+	{
+		private final BlockingQueue<Batch> queue;
+		private Batch batch;
+		private int index;
+		private boolean done;
+
+		private ChunkCursor(BlockingQueue<Batch> queue)
+		{
+			this.queue = queue;
+		}
+
+		private boolean advance() throws InterruptedException
+		{
+			while(!done && (batch == null || index == batch.size))
+			{
+				batch = queue.take();
+				index = 0;
+				if(batch.last)
+				{
+					done = true;
+					if(batch.failure != null)
+					{
+						throw new EPException("Failed to read CSV file '" + file + "': " + batch.failure.getMessage(), batch.failure);
+					}
+					batch = null;
+				}
+			}
+			return !done;
+		}
+
+		private long getTimestamp()
+		{
+			return batch.timestamps[index];
+		}
+
+		private Object[] take()
+		{
+			return batch.records[index++];
+		}
+	}
+
+	private class ChunkParser implements Runnable
+	{
+		private final FileChannel channel;
+		private final long start;
+		private final long end;
+		private final BlockingQueue<Batch> queue;
+		private boolean skipRecord;
+		private Batch batch = new Batch(BATCH_SIZE);
+		private byte[] scratch = new byte[256];
+
+		private ChunkParser(FileChannel channel, long start, long end, boolean skipRecord, BlockingQueue<Batch> queue)
+		{
+			this.channel = channel;
+			this.start = start;
+			this.end = end;
+			this.skipRecord = skipRecord;
+			this.queue = queue;
+		}
+
+		public void run()
+		{
+			Throwable failure = null;
+			try
+			{
+				try
+				{
+					long position = start;
+					while(position < end)
+					{
+						int length = (int) Math.min(end - position, maxMapSize);
+						ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+						int limit = length;
+						if(position + length < end)
+						{
+							limit = findLastLineEnd(buffer, length);
+							if(limit == 0)
+							{
+								throw new EPException("Encountered a line longer than " + maxMapSize + " bytes at offset " + position);
+							}
+						}
+						parseRegion(buffer, limit, position);
+						position += limit;
+					}
+					if(batch.size > 0)
+					{
+						queue.put(batch);
+					}
+				}
+				catch (InterruptedException e)
+				{
+					return;
+				}
+				catch (Throwable t)
+				{
+					failure = t;
+				}
+				queue.put(Batch.last(failure));
+			}
+			catch (InterruptedException e)
+			{
+				// reader was stopped
+			}
+		}
+
+		private int findLastLineEnd(ByteBuffer buffer, int length)
+		{
+			for(int i = length - 1; i >= 0; i--)
+			{
+				if(isLineEnd(buffer.get(i)))
+				{
+					return i + 1;
+				}
+			}
+			return 0;
+		}
+
+		private void parseRegion(ByteBuffer buffer, int limit, long offset) throws InterruptedException
+		{
+			int pos = 0;
+			while(pos < limit)
+			{
+				if(buffer.get(pos) == '#')
+				{
+					while(pos < limit && !isLineEnd(buffer.get(pos)))
+					{
+						pos++;
+					}
+					pos = consumeLineEnd(buffer, pos, limit);
+					continue;
+				}
+
+				int lineStart = pos;
+				Object[] values = new Object[kinds.length];
+				int column = 0;
+				while(true)
+				{
+					while(pos < limit && isWhiteSpace(buffer.get(pos)))
+					{
+						pos++;
+					}
+
+					int valueStart;
+					int valueEnd;
+					boolean quoted = pos < limit && buffer.get(pos) == '"';
+					boolean escaped = false;
+					if(quoted)
+					{
+						valueStart = ++pos;
+						while(true)
+						{
+							if(pos == limit)
+							{
+								throw new EPException("Encountered unterminated quoted value at offset " + (offset + lineStart));
+							}
+							if(buffer.get(pos) == '"')
+							{
+								if(pos + 1 < limit && buffer.get(pos + 1) == '"')
+								{
+									escaped = true;
+									pos += 2;
+									continue;
+								}
+								break;
+							}
+							pos++;
+						}
+						valueEnd = pos++;
+						while(pos < limit && isWhiteSpace(buffer.get(pos)))
+						{
+							pos++;
+						}
+					}
+					else
+					{
+						valueStart = pos;
+						while(pos < limit && buffer.get(pos) != ',' && !isLineEnd(buffer.get(pos)))
+						{
+							if(buffer.get(pos) == '"')
+							{
+								throw new EPException("Encountered unexpected character \" at offset " + (offset + pos));
+							}
+							pos++;
+						}
+						valueEnd = pos;
+						while(valueEnd > valueStart && isWhiteSpace(buffer.get(valueEnd - 1)))
+						{
+							valueEnd--;
+						}
+					}
+
+					if(pos < limit && buffer.get(pos) == ',')
+					{
+						setValue(values, column++, buffer, valueStart, valueEnd, quoted, escaped);
+						pos++;
+						continue;
+					}
+					if(pos < limit && !isLineEnd(buffer.get(pos)))
+					{
+						throw new EPException("Encountered unexpected character " + (char) (buffer.get(pos) & 0xff) + " at offset " + (offset + pos));
+					}
+					// the final value counts only if nonempty or if it ends a nonempty record
+					if(quoted || valueEnd > valueStart || column > 0)
+					{
+						setValue(values, column++, buffer, valueStart, valueEnd, quoted, escaped);
+					}
+					pos = consumeLineEnd(buffer, pos, limit);
+					break;
+				}
+
+				// a line of only whitespace is not a record
+				if(column == 0)
+				{
+					continue;
+				}
+				if(skipRecord)
+				{
+					skipRecord = false;
+					continue;
+				}
+				if(column < requiredColumns)
+				{
+					throw new EPException("Record at offset " + (offset + lineStart) + " has " + column + " values, expected at least " + requiredColumns);
+				}
+				addRecord(values);
+			}
+		}
+
+		private int consumeLineEnd(ByteBuffer buffer, int pos, int limit)
+		{
+			if(pos < limit && buffer.get(pos) == '\r')
+			{
+				pos++;
+			}
+			if(pos < limit && buffer.get(pos) == '\n')
+			{
+				pos++;
+			}
+			return pos;
+		}
+
+		private void setValue(Object[] values, int column, ByteBuffer buffer, int start, int end, boolean quoted, boolean escaped)
+		{
+			if(column >= kinds.length || kinds[column] == SKIP)
+			{
+				return;
+			}
+			int kind = kinds[column];
+			Object value = null;
+			if(!quoted)
+			{
+				if(kind == BOOLEAN)
+				{
+					value = isTrue(buffer, start, end);
+				}
+				else if(kind == FLOAT || kind == DOUBLE)
+				{
+					value = parseFloatingPoint(buffer, start, end, kind);
+				}
+				else if(kind != STRING)
+				{
+					value = parseIntegral(buffer, start, end, kind);
+				}
+			}
+			if(value == null)
+			{
+				value = toString(buffer, start, end, escaped);
+			}
+			values[column] = value;
+		}
+
+		private Boolean isTrue(ByteBuffer buffer, int start, int end)
+		{
+			String trueText = "true";
+			if(end - start != trueText.length())
+			{
+				return Boolean.FALSE;
+			}
+			for(int i = 0; i < trueText.length(); i++)
+			{
+				if(Character.toLowerCase((char) buffer.get(start + i)) != trueText.charAt(i))
+				{
+					return Boolean.FALSE;
+				}
+			}
+			return Boolean.TRUE;
+		}
+
+		private String toString(ByteBuffer buffer, int start, int end, boolean escaped)
+		{
+			if(scratch.length < end - start)
+			{
+				scratch = new byte[Math.max(end - start, scratch.length * 2)];
+			}
+			int length = 0;
+			for(int i = start; i < end; i++)
+			{
+				byte value = buffer.get(i);
+				scratch[length++] = value;
+				if(escaped && value == '"')
+				{
+					// skip the second quote of an escaped quote
+					i++;
+				}
+			}
+			return new String(scratch, 0, length, CHARSET);
+		}
+
+		private void addRecord(Object[] values) throws InterruptedException
+		{
+			if(timestampColumn >= 0)
+			{
+				batch.timestamps[batch.size] = toTimestamp(values[timestampColumn]);
+			}
+			batch.records[batch.size++] = values;
+			if(batch.size == BATCH_SIZE)
+			{
+				queue.put(batch);
+				batch = new Batch(BATCH_SIZE);
+			}
+		}
+
+		private long toTimestamp(Object value)
+		{
+			if(value instanceof Number)
+			{
+				return ((Number) value).longValue();
+			}
+			try
+			{
+				return Long.parseLong(value.toString());
+			}
+			catch (NumberFormatException e)
+			{
+				throw new EPException("Failed to parse timestamp value '" + value + "'", e);
+			}
+		}
+	}
+}
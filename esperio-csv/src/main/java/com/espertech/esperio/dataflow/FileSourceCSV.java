@@ -30,11 +30,13 @@ import com.espertech.esper.util.CollectionUtil;
 import com.espertech.esper.util.SimpleTypeParser;
 import com.espertech.esper.util.SimpleTypeParserFactory;
 import com.espertech.esperio.AdapterInputSource;
+import com.espertech.esperio.csv.CSVMappedFileReader;
 import com.espertech.esperio.csv.CSVReader;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.io.EOFException;
+import java.io.File;
 import java.util.*;
 
 @DataFlowOperator
@@ -49,6 +51,7 @@ public class FileSourceCSV implements DataFlowSourceOperator {
     private final Integer numLoops;
     private final String[] propertyNames;
     private final String dateFormat;
+    private final Integer parallelism;
 
     private StatementContext statementContext;
     private EventType outputEventType;
@@ -61,14 +64,20 @@ public class FileSourceCSV implements DataFlowSourceOperator {
     protected EPDataFlowEmitter graphContext;
 
     private CSVReader reader;
+    private CSVMappedFileReader mappedReader;
 
     public FileSourceCSV(AdapterInputSource adapterInputSource, boolean hasHeaderLine, boolean hasTitleLine, Integer numLoops, String[] propertyNames, String dateFormat) {
+        this(adapterInputSource, hasHeaderLine, hasTitleLine, numLoops, propertyNames, dateFormat, null);
+    }
+
+    public FileSourceCSV(AdapterInputSource adapterInputSource, boolean hasHeaderLine, boolean hasTitleLine, Integer numLoops, String[] propertyNames, String dateFormat, Integer parallelism) {
         this.adapterInputSource = adapterInputSource;
         this.hasHeaderLine = hasHeaderLine;
         this.hasTitleLine = hasTitleLine;
         this.numLoops = numLoops;
         this.propertyNames = propertyNames;
         this.dateFormat = dateFormat;
+        this.parallelism = parallelism;
     }
 
     public DataFlowOpInitializeResult initialize(DataFlowOpInitializateContext context) throws Exception {
@@ -78,6 +87,16 @@ public class FileSourceCSV implements DataFlowSourceOperator {
             throw new IllegalArgumentException("No event type provided for output, please provide an event type name");
         }
 
+        if (parallelism != null) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("Invalid parallelism " + parallelism + ", expecting a positive number");
+            }
+            File file = adapterInputSource.getAsFile();
+            if (file == null || file.getName().endsWith("zip")) {
+                throw new IllegalArgumentException("Parallel reading requires an input source that is an uncompressed file");
+            }
+        }
+
         // use event type's full list of properties
         if (!hasTitleLine) {
             if (propertyNames != null) {
@@ -92,10 +111,16 @@ public class FileSourceCSV implements DataFlowSourceOperator {
     }
 
     public void open(DataFlowOpOpenContext openContext) {
-        reader = new CSVReader(adapterInputSource);
+        if (parallelism == null) {
+            reader = new CSVReader(adapterInputSource);
+        }
     }
 
     public void next() {
+        if (parallelism != null) {
+            nextMapped();
+            return;
+        }
         try {
             String[] nextRecord = reader.getNextRecord();
 
@@ -149,11 +174,68 @@ public class FileSourceCSV implements DataFlowSourceOperator {
         }
     }
 
+    private void nextMapped() {
+        if (mappedReader == null) {
+            // determine the parsers from the title line, read sequentially as the parallel reader only parses values
+            if (hasTitleLine && parseMake == null) {
+                CSVReader titleReader = new CSVReader(adapterInputSource);
+                try {
+                    parseMake = setupProperties(true, titleReader.getNextRecord(), outputEventType, statementContext, dateFormat);
+                }
+                catch (EOFException e) {
+                    graphContext.submitSignal(new EPDataFlowSignalFinalMarker() {});
+                    return;
+                }
+                finally {
+                    titleReader.close();
+                }
+            }
+            mappedReader = new CSVMappedFileReader(adapterInputSource.getAsFile(), parallelism, parseMake.getColumnTypes(), hasTitleLine || hasHeaderLine, -1);
+        }
+
+        try {
+            Object[] values = mappedReader.getNextRecord();
+            int[] propertyIndexes = parseMake.getIndexes();
+            Object[] tuple = new Object[propertyIndexes.length];
+            for (int i = 0; i < propertyIndexes.length; i++) {
+                Object value = values[propertyIndexes[i]];
+                tuple[i] = value instanceof String ? parseMake.getParsers()[i].parse((String) value) : value;
+            }
+            Object underlying = parseMake.getEventBeanManufacturer().makeUnderlying(tuple);
+
+            if (underlying instanceof Object[]) {
+                graphContext.submit((Object[]) underlying);
+            }
+            else {
+                graphContext.submit(underlying);
+            }
+        }
+        catch (EOFException e) {
+            if (numLoops != null) {
+                loopCount++;
+                if (loopCount >= numLoops) {
+                    graphContext.submitSignal(new EPDataFlowSignalFinalMarker() {});
+                }
+                else {
+                    graphContext.submitSignal(new EPDataFlowSignalWindowMarker() {});
+                    mappedReader.reset();
+                }
+            }
+            else {
+                graphContext.submitSignal(new EPDataFlowSignalFinalMarker() {});
+            }
+        }
+    }
+
     public void close(DataFlowOpCloseContext openContext) {
         if (reader != null) {
             reader.close();
             reader = null;
         }
+        if (mappedReader != null) {
+            mappedReader.close();
+            mappedReader = null;
+        }
         if (adapterInputSource != null) {
             adapterInputSource.close();
         }
@@ -165,6 +247,7 @@ public class FileSourceCSV implements DataFlowSourceOperator {
         List<Integer> indexesList = new ArrayList<Integer>();
         List<SimpleTypeParser> parserList = new ArrayList<SimpleTypeParser>();
         List<WriteablePropertyDescriptor> writablesList = new ArrayList<WriteablePropertyDescriptor>();
+        List<Class> typesList = new ArrayList<Class>();
 
         for (int i = 0; i < propertyNamesOffered.length; i++) {
             String propertyName = propertyNamesOffered[i];
@@ -207,6 +290,7 @@ public class FileSourceCSV implements DataFlowSourceOperator {
             indexesList.add(i);
             parserList.add(parser);
             writablesList.add(writable);
+            typesList.add(propertyType == Date.class || propertyType == Calendar.class ? String.class : propertyType);
         }
 
         if (indexesList.isEmpty() && requireOneMatch) {
@@ -223,18 +307,30 @@ public class FileSourceCSV implements DataFlowSourceOperator {
         catch (EventBeanManufactureException e) {
             throw new EPException("Event type '" + outputEventType.getName() + "' cannot be written to: " + e.getMessage(), e);
         }
-        return new ParseMakePropertiesDesc(indexes, parsers, manufacturer);
+
+        // column types by position in the file, for the parallel reader
+        Class[] columnTypes = new Class[propertyNamesOffered.length];
+        for (int i = 0; i < indexes.length; i++) {
+            columnTypes[indexes[i]] = typesList.get(i);
+        }
+        return new ParseMakePropertiesDesc(indexes, parsers, manufacturer, columnTypes);
     }
 
     private static class ParseMakePropertiesDesc {
         private final int[] indexes;
         private final SimpleTypeParser[] parsers;
         private final EventBeanManufacturer eventBeanManufacturer;
+        private final Class[] columnTypes;
 
-        private ParseMakePropertiesDesc(int[] indexes, SimpleTypeParser[] parsers, EventBeanManufacturer eventBeanManufacturer) {
+        private ParseMakePropertiesDesc(int[] indexes, SimpleTypeParser[] parsers, EventBeanManufacturer eventBeanManufacturer, Class[] columnTypes) {
             this.indexes = indexes;
             this.parsers = parsers;
             this.eventBeanManufacturer = eventBeanManufacturer;
+            this.columnTypes = columnTypes;
+        }
+
+        public Class[] getColumnTypes() {
+            return columnTypes;
         }
 
         public int[] getIndexes() {
@@ -58,6 +58,9 @@ public class FileSourceFactory implements DataFlowOperatorFactory {
     @DataFlowOpParameter
     private String dateFormat;
 
+    @DataFlowOpParameter
+    private Integer parallelism;
+
     public DataFlowSourceOperator create() {
 
         AdapterInputSource inputSource;
@@ -77,7 +80,7 @@ public class FileSourceFactory implements DataFlowOperatorFactory {
         }
 
         if (format == null || format.equals("csv")) {
-            return new FileSourceCSV(inputSource, hasHeaderLine, hasTitleLine, numLoops, propertyNames, dateFormat);
+            return new FileSourceCSV(inputSource, hasHeaderLine, hasTitleLine, numLoops, propertyNames, dateFormat, parallelism);
         }
         else if (format.equals("line")) {
             return new FileSourceLineUnformatted(inputSource, file, propertyNameLine, propertyNameFile);
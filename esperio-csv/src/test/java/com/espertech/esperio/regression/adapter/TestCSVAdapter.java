@@ -522,6 +522,50 @@ public class TestCSVAdapter extends TestCase
 		assertEvents(isLooping, events);
 	}
 
+	public void testParallel()
+	{
+		List<Object[]> events = new ArrayList<Object[]>();
+		events.add(new Object[] { 100, 1, 1.1, "timestampOne.one"});
+		events.add(new Object[] { 200, 3, 3.3, "timestampOne.three"});
+		events.add(new Object[] { 200, 5, 5.5, "timestampOne.five"});
+
+		startAdapter("regression/timestampOne.csv", -1, false, true, "timestamp", propertyOrderTimestamps, 2);
+		assertEvents(false, events);
+
+		startAdapter("regression/timestampOne.csv", -1, true, true, "timestamp", propertyOrderTimestamps, 3);
+		assertEvents(true, events);
+	}
+
+	public void testParallelCommentsAndTitleRow()
+	{
+		List<Object[]> events = new ArrayList<Object[]>();
+		events.add(new Object[] { 100, 1, 1.1, "one"});
+		events.add(new Object[] { 200, 3, 3.3, "three"});
+		events.add(new Object[] { 200, 5, 5.5, "five"});
+
+		startAdapter("regression/comments.csv", -1, false, true, "timestamp", propertyOrderTimestamps, 2);
+		assertEvents(false, events);
+
+		startAdapter("regression/titleRow.csv", -1, true, true, "timestamp", null, 2);
+		assertLoopingEvents(events);
+	}
+
+	public void testParallelInvalid()
+	{
+		CSVInputAdapterSpec adapterSpec = new CSVInputAdapterSpec(new AdapterInputSource(new StringReader("1, 1.1, \"one\"")), eventTypeName);
+		adapterSpec.setPropertyOrder(propertyOrderNoTimestamps);
+		adapterSpec.setParallelism(2);
+		try
+		{
+			new CSVInputAdapter(epService, adapterSpec);
+			fail();
+		}
+		catch(EPException ex)
+		{
+			assertEquals("Parallel reading requires an input source that is an uncompressed file", ex.getMessage());
+		}
+	}
+
 	public void testDestroy()
 	{
 		String filename = "regression/timestampOne.csv";
@@ -735,6 +779,11 @@ public class TestCSVAdapter extends TestCase
 	}
 
 	private void startAdapter(String filename, int eventsPerSec, boolean isLooping, boolean usingEngineThread, String timestampColumn, String[] propertyOrder)
+	{
+		startAdapter(filename, eventsPerSec, isLooping, usingEngineThread, timestampColumn, propertyOrder, 0);
+	}
+
+	private void startAdapter(String filename, int eventsPerSec, boolean isLooping, boolean usingEngineThread, String timestampColumn, String[] propertyOrder, int parallelism)
 	{
 		CSVInputAdapterSpec adapterSpec = new CSVInputAdapterSpec(new AdapterInputSource(filename), eventTypeName);
 		if(eventsPerSec != -1)
@@ -745,6 +794,7 @@ public class TestCSVAdapter extends TestCase
 		adapterSpec.setPropertyOrder(propertyOrder);
 		adapterSpec.setUsingEngineThread(usingEngineThread);
 		adapterSpec.setTimestampColumn(timestampColumn);
+		adapterSpec.setParallelism(parallelism);
 
 		adapter = new CSVInputAdapter(epService, adapterSpec);
 		adapter.start();
@@ -0,0 +1,325 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esperio.regression.adapter;
+
+import com.espertech.esper.client.EPException;
+import com.espertech.esperio.csv.CSVMappedFileReader;
+import junit.framework.TestCase;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+public class TestCSVMappedFileReader extends TestCase
+{
+	private File file;
+
+	protected void setUp() throws IOException
+	{
+		file = File.createTempFile("esperio-csv-mapped", ".csv");
+		file.deleteOnExit();
+	}
+
+	protected void tearDown()
+	{
+		file.delete();
+	}
+
+	public void testSyntax() throws Exception
+	{
+		write("# comment line\r\n" +
+				"  1 , 1.5 ,  one two  , true\r\n" +
+				"\n" +
+				"   \t \n" +
+				"\"2\",-2.25,\"say \"\"hi\"\"\",TRUE\n" +
+				"3,4,,false\r" +
+				"4,.5,\"\",x");
+		Class[] types = new Class[] {Integer.class, double.class, String.class, Boolean.class};
+
+		for(int parallelism = 1; parallelism <= 6; parallelism++)
+		{
+			List<Object[]> records = readAll(new CSVMappedFileReader(file, parallelism, types, false, -1));
+			assertEquals(4, records.size());
+			assertRecord(records.get(0), 1, 1.5d, "one two", true);
+			assertRecord(records.get(1), "2", -2.25d, "say \"hi\"", true);
+			assertRecord(records.get(2), 3, 4d, "", false);
+			assertRecord(records.get(3), 4, 0.5d, "", false);
+		}
+	}
+
+	public void testSkipColumnsAndFirstRecord() throws Exception
+	{
+		write("a,b,c,d\n1,2,3,4\n5,6,7,8\n");
+		Class[] types = new Class[] {null, Long.class, null};
+
+		List<Object[]> records = readAll(new CSVMappedFileReader(file, 2, types, true, -1));
+		assertEquals(2, records.size());
+		assertRecord(records.get(0), null, 2L, null);
+		assertRecord(records.get(1), null, 6L, null);
+	}
+
+	public void testNumericParsing() throws Exception
+	{
+		String[] texts = new String[] {"0", "-0", "+7", "127", "128", "-129", "32767", "40000", "2147483647", "2147483648",
+				"-9223372036854775807", "99999999999999999999", "0.1", "-0.0", "1.", "123456789.123456789", "9007199254740993",
+				"1e10", "NaN", "1.2.3", "-", "", "3.4028235", "16777217", "0x10", "1_000"};
+		Class[] types = new Class[] {Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class};
+		StringBuilder builder = new StringBuilder();
+		for(String text : texts)
+		{
+			for(int i = 0; i < types.length; i++)
+			{
+				builder.append(i == 0 ? "" : ",").append(text);
+			}
+			builder.append("\n");
+		}
+		write(builder.toString());
+
+		List<Object[]> records = readAll(new CSVMappedFileReader(file, 3, types, false, -1));
+		assertEquals(texts.length, records.size());
+		for(int i = 0; i < texts.length; i++)
+		{
+			assertParsed(texts[i], records.get(i)[0], Byte.class);
+			assertParsed(texts[i], records.get(i)[1], Short.class);
+			assertParsed(texts[i], records.get(i)[2], Integer.class);
+			assertParsed(texts[i], records.get(i)[3], Long.class);
+			assertParsed(texts[i], records.get(i)[4], Float.class);
+			assertParsed(texts[i], records.get(i)[5], Double.class);
+		}
+	}
+
+	public void testRandomDoubles() throws Exception
+	{
+		Random random = new Random(1);
+		String[] texts = new String[10000];
+		StringBuilder builder = new StringBuilder();
+		for(int i = 0; i < texts.length; i++)
+		{
+			double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12));
+			texts[i] = random.nextBoolean() ? Double.toString(value) : String.format(Locale.US, "%." + random.nextInt(10) + "f", value);
+			builder.append(texts[i]).append(',').append(texts[i]).append('\n');
+		}
+		write(builder.toString());
+
+		List<Object[]> records = readAll(new CSVMappedFileReader(file, 4, new Class[] {Double.class, Float.class}, false, -1));
+		assertEquals(texts.length, records.size());
+		for(int i = 0; i < texts.length; i++)
+		{
+			assertParsed(texts[i], records.get(i)[0], Double.class);
+			assertParsed(texts[i], records.get(i)[1], Float.class);
+		}
+	}
+
+	public void testFileOrderAcrossRegions() throws Exception
+	{
+		int numRecords = 5000;
+		StringBuilder builder = new StringBuilder();
+		for(int i = 0; i < numRecords; i++)
+		{
+			builder.append(i).append(",value").append(i).append(i % 100 == 0 ? "\r\n" : "\n");
+		}
+		write(builder.toString());
+
+		for(int parallelism : new int[] {1, 2, 7})
+		{
+			CSVMappedFileReader reader = new CSVMappedFileReader(file, parallelism, new Class[] {int.class, String.class}, false, -1);
+			reader.setMaxMapSize(100);
+			List<Object[]> records = readAll(reader);
+			assertEquals(numRecords, records.size());
+			for(int i = 0; i < numRecords; i++)
+			{
+				assertRecord(records.get(i), i, "value" + i);
+			}
+		}
+	}
+
+	public void testMergeByTimestamp() throws Exception
+	{
+		// two runs of ascending timestamps, such as two files appended, merge into one ascending sequence
+		StringBuilder builder = new StringBuilder();
+		for(int i = 0; i < 1000; i++)
+		{
+			builder.append(i * 2).append(",a\n");
+		}
+		for(int i = 0; i < 1000; i++)
+		{
+			builder.append(i * 2 + 1).append(",b\n");
+		}
+		write(builder.toString());
+
+		List<Object[]> records = readAll(new CSVMappedFileReader(file, 2, new Class[] {long.class, String.class}, false, 0));
+		assertEquals(2000, records.size());
+		for(int i = 0; i < 2000; i++)
+		{
+			assertRecord(records.get(i), (long) i, i % 2 == 0 ? "a" : "b");
+		}
+
+		// equal timestamps are returned in file order
+		write("5,a\n5,b\n5,c\n5,d\n");
+		records = readAll(new CSVMappedFileReader(file, 4, new Class[] {String.class, String.class}, false, 0));
+		assertEquals(4, records.size());
+		for(int i = 0; i < 4; i++)
+		{
+			assertRecord(records.get(i), "5", String.valueOf((char) ('a' + i)));
+		}
+	}
+
+	public void testReset() throws Exception
+	{
+		write("title\n1\n2\n3\n");
+		CSVMappedFileReader reader = new CSVMappedFileReader(file, 2, new Class[] {Integer.class}, true, -1);
+		assertRecord(reader.getNextRecord(), 1);
+		reader.reset();
+		assertRecord(reader.getNextRecord(), 1);
+		assertRecord(reader.getNextRecord(), 2);
+		assertRecord(reader.getNextRecord(), 3);
+		try
+		{
+			reader.getNextRecord();
+			fail();
+		}
+		catch (EOFException ex)
+		{
+			// expected
+		}
+		reader.reset();
+		assertRecord(reader.getNextRecord(), 1);
+		reader.close();
+	}
+
+	public void testInvalid() throws Exception
+	{
+		write("1,2\n3,\"x\n");
+		tryInvalid(new Class[] {Integer.class, String.class}, -1, "Failed to read CSV file '" + file + "': Encountered unterminated quoted value at offset 4");
+
+		write("1,2\n3,x\"\n");
+		tryInvalid(new Class[] {Integer.class, String.class}, -1, "Failed to read CSV file '" + file + "': Encountered unexpected character \" at offset 7");
+
+		write("1,2\n3\n");
+		tryInvalid(new Class[] {Integer.class, String.class}, -1, "Failed to read CSV file '" + file + "': Record at offset 4 has 1 values, expected at least 2");
+
+		write("1,2\nx,2\n");
+		tryInvalid(new Class[] {String.class, String.class}, 0, "Failed to read CSV file '" + file + "': Failed to parse timestamp value 'x'");
+
+		write("1234567890\n");
+		CSVMappedFileReader reader = new CSVMappedFileReader(file, 1, new Class[] {Long.class}, false, -1);
+		reader.setMaxMapSize(5);
+		tryInvalid(reader, "Failed to read CSV file '" + file + "': Encountered a line longer than 5 bytes at offset 0");
+	}
+
+	private void tryInvalid(Class[] types, int timestampColumn, String message) throws IOException
+	{
+		tryInvalid(new CSVMappedFileReader(file, 1, types, false, timestampColumn), message);
+	}
+
+	private void tryInvalid(CSVMappedFileReader reader, String message) throws IOException
+	{
+		try
+		{
+			readAll(reader);
+			fail();
+		}
+		catch (EPException ex)
+		{
+			assertEquals(message, ex.getMessage());
+		}
+	}
+
+	private List<Object[]> readAll(CSVMappedFileReader reader)
+	{
+		List<Object[]> records = new ArrayList<Object[]>();
+		try
+		{
+			while(true)
+			{
+				records.add(reader.getNextRecord());
+			}
+		}
+		catch (EOFException ex)
+		{
+			// expected
+		}
+		finally
+		{
+			reader.close();
+		}
+		return records;
+	}
+
+	private void write(String text) throws IOException
+	{
+		FileOutputStream out = new FileOutputStream(file);
+		try
+		{
+			out.write(text.getBytes("ISO-8859-1"));
+		}
+		finally
+		{
+			out.close();
+		}
+	}
+
+	private static void assertRecord(Object[] record, Object... expected)
+	{
+		assertEquals(Arrays.asList(expected), Arrays.asList(record));
+	}
+
+	private static void assertParsed(String text, Object value, Class type)
+	{
+		Object expected;
+		try
+		{
+			if(type == Byte.class)
+			{
+				expected = Byte.parseByte(text);
+			}
+			else if(type == Short.class)
+			{
+				expected = Short.parseShort(text);
+			}
+			else if(type == Integer.class)
+			{
+				expected = Integer.parseInt(text);
+			}
+			else if(type == Long.class)
+			{
+				expected = Long.parseLong(text);
+			}
+			else if(type == Float.class)
+			{
+				expected = Float.parseFloat(text);
+			}
+			else
+			{
+				expected = Double.parseDouble(text);
+			}
+		}
+		catch (NumberFormatException ex)
+		{
+			// values that do not parse are returned as strings
+			expected = text;
+		}
+		if(expected instanceof Double && value instanceof String)
+		{
+			// beyond the exact fast path, the caller parses the string
+			expected = text;
+		}
+		if(expected instanceof Float && value instanceof String)
+		{
+			expected = text;
+		}
+		assertEquals("for text '" + text + "'", expected, value);
+	}
+}
@@ -260,6 +260,30 @@ public class TestFileSourceGraphs extends TestCase
         }
     }
 
+    public void testParallel() throws Exception
+    {
+        String graph = "create dataflow ReadCSV " +
+                "FileSource -> mystream<MyMapEvent> { file: 'regression/titleRow.csv', classpathFile: true, hasTitleLine:true, numLoops: 3, parallelism: 2}" +
+                "DefaultSupportCaptureOp(mystream) {}";
+        List<List<Object>> received = runDataFlow(graph);
+        assertEquals(3, received.size());
+        for (List<Object> aReceived : received) {
+            EPAssertionUtil.assertPropsPerRow(aReceived.toArray(), "myInt,myDouble,myString".split(","), new Object[][]{{1, 1.1, "one"}, {3, 3.3, "three"}, {5, 5.5, "five"}});
+        }
+
+        graph = "create dataflow ReadCSV " +
+                "FileSource -> mystream<MyMapEvent> { file: 'regression/noTimestampOne.csv', classpathFile: true, propertyNames: ['myInt','myDouble','myString'], parallelism: 4}" +
+                "DefaultSupportCaptureOp(mystream) {}";
+        received = runDataFlow(graph);
+        assertEquals(1, received.size());
+        EPAssertionUtil.assertPropsPerRow(received.get(0).toArray(), "myInt,myDouble,myString".split(","), new Object[][]{{1, 1.1, "noTimestampOne.one"}, {2, 2.2, "noTimestampOne.two"}, {3, 3.3, "noTimestampOne.three"}});
+
+        graph = "create dataflow FlowOne " +
+                "FileSource -> mystream<MyMapEvent> { file: 'regression/noTimestampOne.zip', classpathFile: true, propertyNames: ['myInt','myDouble','myString'], parallelism: 2}" +
+                "DefaultSupportCaptureOp(mystream) {}";
+        tryInvalid("FlowOne", graph, "Failed to instantiate data flow 'FlowOne': Failed initialization for operator 'FileSource': Parallel reading requires an input source that is an uncompressed file");
+    }
+
     public void testCommentAndOtherProp() throws Exception
     {
         String graph = "create dataflow ReadCSV " +
@@ -15,12 +15,14 @@ import com.espertech.esper.core.service.EPServiceProviderSPI;
 import com.espertech.esperio.socket.config.ConfigurationSocketAdapter;
 import com.espertech.esperio.socket.config.SocketConfig;
 import com.espertech.esperio.socket.core.EsperSocketService;
+import com.espertech.esperio.socket.core.SocketConnectionMetrics;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -97,6 +99,21 @@ public class EsperIOSocketAdapter
         }
     }
 
+    /**
+     * Returns throughput metrics of the open connections of a socket, available for the binary data type.
+     * @param socketName name of the socket
+     * @return metrics per open connection
+     * @throws IllegalArgumentException if the socket name is not known
+     */
+    public synchronized List<SocketConnectionMetrics> getConnectionMetrics(String socketName)
+    {
+        EsperSocketService service = sockets.get(socketName);
+        if (service == null) {
+            throw new IllegalArgumentException("A socket by name '" + socketName + "' has not been configured");
+        }
+        return service.getConnectionMetrics();
+    }
+
     /**
      * Destroy the adapter.
      */
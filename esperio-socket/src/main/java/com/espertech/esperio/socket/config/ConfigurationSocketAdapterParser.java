@@ -105,6 +105,7 @@ public class ConfigurationSocketAdapterParser
         String stream = getOptionalAttribute(node, "stream");
         String propertyOrder = getOptionalAttribute(node, "propertyOrder");
         String unescapeStr = getOptionalAttribute(node, "unescape");
+        String bufferSize = getOptionalAttribute(node, "bufferSize");
 
         SocketConfig socketConfig = new SocketConfig();
         socketConfig.setPort(Integer.parseInt(port));
@@ -118,6 +119,9 @@ public class ConfigurationSocketAdapterParser
         if (unescapeStr != null) {
             socketConfig.setUnescape(Boolean.parseBoolean(unescapeStr));
         }
+        if (bufferSize != null) {
+            socketConfig.setBufferSize(Integer.parseInt(bufferSize));
+        }
 
         configuration.getSockets().put(name, socketConfig);
     }
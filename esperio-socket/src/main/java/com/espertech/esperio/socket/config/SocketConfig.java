@@ -9,6 +9,7 @@ public class SocketConfig {
     private String propertyOrder;
     private String stream;
     private boolean unescape;
+    private Integer bufferSize;
 
     public SocketConfig() {
     }
@@ -68,4 +69,12 @@ public class SocketConfig {
     public void setUnescape(boolean unescape) {
         this.unescape = unescape;
     }
+
+    public Integer getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(Integer bufferSize) {
+        this.bufferSize = bufferSize;
+    }
 }
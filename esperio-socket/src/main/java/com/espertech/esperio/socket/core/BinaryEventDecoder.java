@@ -0,0 +1,170 @@
+package com.espertech.esperio.socket.core;
+
+import com.espertech.esper.client.EventSender;
+import com.espertech.esper.client.EventType;
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esper.event.arr.ObjectArrayEventType;
+import com.espertech.esper.util.JavaClassHelper;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Map;
+
+/**
+ * Decodes the body of binary event frames for one Object-array event type directly from a byte buffer.
+ * <p>
+ * The body is a null bitmap of one bit per property, in property index order and rounded up to whole bytes,
+ * followed by the values of the non-null properties in property index order. Values are big-endian:
+ * boolean and byte take one byte, short and char two bytes, int and float four bytes, long and double eight bytes,
+ * and a string is a four-byte length followed by that many UTF-8 bytes.
+ */
+public class BinaryEventDecoder {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final byte TYPE_BOOLEAN = 0;
+    private static final byte TYPE_BYTE = 1;
+    private static final byte TYPE_SHORT = 2;
+    private static final byte TYPE_CHAR = 3;
+    private static final byte TYPE_INT = 4;
+    private static final byte TYPE_LONG = 5;
+    private static final byte TYPE_FLOAT = 6;
+    private static final byte TYPE_DOUBLE = 7;
+    private static final byte TYPE_STRING = 8;
+
+    private final String eventTypeName;
+    private final EventSender eventSender;
+    private final byte[] valueTypes;
+    private final int bitmapLength;
+    private byte[] scratch = new byte[64];
+
+    private BinaryEventDecoder(String eventTypeName, EventSender eventSender, byte[] valueTypes) {
+        this.eventTypeName = eventTypeName;
+        this.eventSender = eventSender;
+        this.valueTypes = valueTypes;
+        this.bitmapLength = (valueTypes.length + 7) / 8;
+    }
+
+    /**
+     * Makes a decoder for the Object-array event type.
+     * @param engine engine
+     * @param eventTypeName name of Object-array event type
+     * @return decoder
+     * @throws IllegalArgumentException if the type does not exist, is not an Object-array type or has unsupported property types
+     */
+    public static BinaryEventDecoder make(EPServiceProviderSPI engine, String eventTypeName) throws IllegalArgumentException {
+        EventType eventType = engine.getEventAdapterService().getExistsTypeByName(eventTypeName);
+        if (eventType == null) {
+            throw new IllegalArgumentException("Event type by name '" + eventTypeName + "' not found");
+        }
+        if (!(eventType instanceof ObjectArrayEventType)) {
+            throw new IllegalArgumentException("Event type by name '" + eventTypeName + "' is not an Object-array event type");
+        }
+        Map<String, Integer> indexes = ((ObjectArrayEventType) eventType).getPropertiesIndexes();
+        byte[] valueTypes = new byte[indexes.size()];
+        for (Map.Entry<String, Integer> entry : indexes.entrySet()) {
+            Class type = JavaClassHelper.getBoxedType(eventType.getPropertyType(entry.getKey()));
+            valueTypes[entry.getValue()] = getValueType(eventTypeName, entry.getKey(), type);
+        }
+        return new BinaryEventDecoder(eventTypeName, engine.getEPRuntime().getEventSender(eventTypeName), valueTypes);
+    }
+
+    public String getEventTypeName() {
+        return eventTypeName;
+    }
+
+    public EventSender getEventSender() {
+        return eventSender;
+    }
+
+    /**
+     * Decodes the event values starting at the buffer position, reading no further than the buffer limit.
+     * @param buffer to read
+     * @return event values
+     * @throws java.nio.BufferUnderflowException if the frame is shorter than the values require
+     */
+    public Object[] decode(ByteBuffer buffer) {
+        int bitmapStart = buffer.position();
+        buffer.position(bitmapStart + bitmapLength);
+        Object[] values = new Object[valueTypes.length];
+        for (int i = 0; i < valueTypes.length; i++) {
+            if ((buffer.get(bitmapStart + (i >>> 3)) & (1 << (i & 7))) != 0) {
+                continue;
+            }
+            switch (valueTypes[i]) {
+                case TYPE_BOOLEAN:
+                    values[i] = buffer.get() != 0;
+                    break;
+                case TYPE_BYTE:
+                    values[i] = buffer.get();
+                    break;
+                case TYPE_SHORT:
+                    values[i] = buffer.getShort();
+                    break;
+                case TYPE_CHAR:
+                    values[i] = buffer.getChar();
+                    break;
+                case TYPE_INT:
+                    values[i] = buffer.getInt();
+                    break;
+                case TYPE_LONG:
+                    values[i] = buffer.getLong();
+                    break;
+                case TYPE_FLOAT:
+                    values[i] = buffer.getFloat();
+                    break;
+                case TYPE_DOUBLE:
+                    values[i] = buffer.getDouble();
+                    break;
+                default:
+                    values[i] = readString(buffer);
+                    break;
+            }
+        }
+        return values;
+    }
+
+    private String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalStateException("Invalid string length " + length + " for event type '" + eventTypeName + "'");
+        }
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(scratch, 0, length);
+        return new String(scratch, 0, length, UTF_8);
+    }
+
+    private static byte getValueType(String eventTypeName, String propertyName, Class type) {
+        if (type == Boolean.class) {
+            return TYPE_BOOLEAN;
+        }
+        if (type == Byte.class) {
+            return TYPE_BYTE;
+        }
+        if (type == Short.class) {
+            return TYPE_SHORT;
+        }
+        if (type == Character.class) {
+            return TYPE_CHAR;
+        }
+        if (type == Integer.class) {
+            return TYPE_INT;
+        }
+        if (type == Long.class) {
+            return TYPE_LONG;
+        }
+        if (type == Float.class) {
+            return TYPE_FLOAT;
+        }
+        if (type == Double.class) {
+            return TYPE_DOUBLE;
+        }
+        if (type == String.class) {
+            return TYPE_STRING;
+        }
+        throw new IllegalArgumentException("Property '" + propertyName + "' of event type '" + eventTypeName + "' has type '" +
+                (type == null ? "null" : type.getName()) + "' which is not supported by the binary format");
+    }
+}
@@ -1,22 +1,30 @@
 package com.espertech.esperio.socket.core;
 
 import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esperio.socket.config.DataType;
 import com.espertech.esperio.socket.config.SocketConfig;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.io.IOException;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
+import java.nio.channels.ServerSocketChannel;
+import java.util.Collections;
+import java.util.List;
 
 public class EsperSocketService {
 
     private static Log log = LogFactory.getLog(EsperSocketService.class);
 
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
     private final String serviceName;
     private final SocketConfig serviceConfig;
     private ServerSocket serverSocket;
     private EsperSocketServiceRunnable runnable;
+    private EsperSocketServiceNioRunnable nioRunnable;
     private Thread socketThread;
 
     public EsperSocketService(String serviceName, SocketConfig serviceConfig) {
@@ -30,6 +38,11 @@ public class EsperSocketService {
 
     public void start(String serviceName, EPServiceProviderSPI engineSPI) throws IOException  {
 
+        if (serviceConfig.getDataType() == DataType.BINARY) {
+            startNio(engineSPI);
+            return;
+        }
+
         if (serviceConfig.getHostname() != null) {
             InetAddress inetAddress = InetAddress.getByName(serviceConfig.getHostname());
             int backlog = serviceConfig.getBacklog() == null ? 2 : serviceConfig.getBacklog();
@@ -54,8 +67,13 @@ public class EsperSocketService {
     }
 
     public void destroy() {
-        log.info("Closing existing workers for service '" + this.getServiceName() + "'");
-        runnable.destroy();
+        if (nioRunnable != null) {
+            nioRunnable.destroy();
+        }
+        else {
+            log.info("Closing existing workers for service '" + this.getServiceName() + "'");
+            runnable.destroy();
+        }
 
         log.info("Closing server socket for service '" + this.getServiceName() + "' and port " + serviceConfig.getPort());
         try {
@@ -77,4 +95,38 @@ public class EsperSocketService {
     public int getPort() {
         return serviceConfig.getPort();
     }
+
+    /**
+     * Returns throughput metrics of the open connections, available for the binary data type.
+     * @return metrics per open connection, empty for other data types
+     */
+    public List<SocketConnectionMetrics> getConnectionMetrics() {
+        if (nioRunnable == null) {
+            return Collections.emptyList();
+        }
+        return nioRunnable.getConnectionMetrics();
+    }
+
+    private void startNio(EPServiceProviderSPI engineSPI) throws IOException {
+        int bufferSize = serviceConfig.getBufferSize() == null ? DEFAULT_BUFFER_SIZE : serviceConfig.getBufferSize();
+        if (bufferSize < 16) {
+            throw new IllegalArgumentException("Invalid buffer size " + bufferSize + " for binary socket service '" + serviceName + "'");
+        }
+        int backlog = serviceConfig.getBacklog() == null ? 50 : serviceConfig.getBacklog();
+        InetSocketAddress address = serviceConfig.getHostname() == null ?
+                new InetSocketAddress(serviceConfig.getPort()) :
+                new InetSocketAddress(InetAddress.getByName(serviceConfig.getHostname()), serviceConfig.getPort());
+        log.info("Esper socket adapter accepting binary connections on " + address + " backlog " + backlog + " buffer size " + bufferSize + " for socket named '" + serviceName + "'");
+
+        ServerSocketChannel serverChannel = ServerSocketChannel.open();
+        serverChannel.socket().setReuseAddress(true);
+        serverChannel.socket().bind(address, backlog);
+        serverChannel.configureBlocking(false);
+        serverSocket = serverChannel.socket();
+
+        nioRunnable = new EsperSocketServiceNioRunnable(serviceName, serviceConfig, serverChannel, engineSPI, bufferSize);
+        socketThread = new Thread(nioRunnable);
+        socketThread.setDaemon(true);
+        socketThread.start();
+    }
 }
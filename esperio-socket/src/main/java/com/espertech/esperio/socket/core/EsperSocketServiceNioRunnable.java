@@ -0,0 +1,187 @@
+package com.espertech.esperio.socket.core;
+
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import com.espertech.esperio.socket.config.SocketConfig;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Selector loop of the binary socket service: a single thread accepts connections and
+ * reads and decodes frames for all connections.
+ */
+public class EsperSocketServiceNioRunnable implements Runnable {
+    private static Log log = LogFactory.getLog(EsperSocketServiceNioRunnable.class);
+
+    private static final int MAX_POOLED_BUFFERS = 64;
+
+    private final String serviceName;
+    private final SocketConfig serviceConfig;
+    private final ServerSocketChannel serverChannel;
+    private final EPServiceProviderSPI engine;
+    private final Selector selector;
+    private final DirectBufferPool bufferPool;
+    private final List<NioConnection> connections = new CopyOnWriteArrayList<NioConnection>();
+    private volatile boolean shutdown;
+
+    public EsperSocketServiceNioRunnable(String serviceName, SocketConfig serviceConfig, ServerSocketChannel serverChannel, EPServiceProviderSPI engine, int bufferSize) throws IOException {
+        this.serviceName = serviceName;
+        this.serviceConfig = serviceConfig;
+        this.serverChannel = serverChannel;
+        this.engine = engine;
+        this.selector = Selector.open();
+        this.bufferPool = new DirectBufferPool(bufferSize, MAX_POOLED_BUFFERS);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public void run() {
+        log.info("For service '" + serviceName + "' listening on port " + serverChannel.socket().getLocalPort() + " expecting binary frames");
+        try {
+            while (!shutdown && !Thread.interrupted()) {
+                selector.select();
+                if (shutdown) {
+                    break;
+                }
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    }
+                    else if (key.isReadable()) {
+                        read(key);
+                    }
+                }
+            }
+        }
+        catch (IOException e) {
+            if (!shutdown) {
+                log.error("I/O error in selector for service '" + serviceName + "' : " + e.getMessage(), e);
+            }
+        }
+        finally {
+            for (NioConnection connection : connections) {
+                close(connection);
+            }
+            try {
+                selector.close();
+            }
+            catch (IOException e) {
+                log.debug("Error closing selector: " + e.getMessage(), e);
+            }
+        }
+        log.info("For service '" + serviceName + "' listening on port " + serverChannel.socket().getLocalPort() + " ended socket thread.");
+    }
+
+    public void destroy() {
+        log.info("Stopping selector for service '" + serviceName + "'");
+        shutdown = true;
+        selector.wakeup();
+    }
+
+    /**
+     * Returns the metrics of the currently open connections.
+     * @return metrics
+     */
+    public List<SocketConnectionMetrics> getConnectionMetrics() {
+        List<SocketConnectionMetrics> metrics = new ArrayList<SocketConnectionMetrics>(connections.size());
+        for (NioConnection connection : connections) {
+            metrics.add(connection.getMetrics());
+        }
+        return metrics;
+    }
+
+    private void accept() {
+        SocketChannel channel;
+        try {
+            channel = serverChannel.accept();
+        }
+        catch (IOException ex) {
+            log.error("Failed to accept connection for service '" + serviceName + "' : " + ex.getMessage(), ex);
+            return;
+        }
+        if (channel == null) {
+            return;
+        }
+        log.info("Incoming connection service '" + serviceName + "' from " + channel.socket().getInetAddress());
+
+        // a failure to set up one connection closes that connection only and the selector keeps serving the others
+        NioConnection connection = null;
+        try {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+
+            SocketConnectionMetrics metrics = new SocketConnectionMetrics(serviceName, String.valueOf(channel.socket().getRemoteSocketAddress()), System.currentTimeMillis());
+            connection = new NioConnection(serviceName, engine, channel, bufferPool.acquire(), metrics);
+            if (serviceConfig.getStream() != null && serviceConfig.getStream().length() != 0) {
+                try {
+                    connection.declare(0, serviceConfig.getStream());
+                }
+                catch (RuntimeException ex) {
+                    log.error("Failed to declare stream '" + serviceConfig.getStream() + "' for service '" + serviceName + "' : " + ex.getMessage());
+                    close(connection);
+                    return;
+                }
+            }
+            connections.add(connection);
+            channel.register(selector, SelectionKey.OP_READ, connection);
+        }
+        catch (IOException ex) {
+            log.error("Failed to set up connection for service '" + serviceName + "' : " + ex.getMessage(), ex);
+            if (connection != null) {
+                close(connection);
+            }
+            else {
+                closeChannel(channel);
+            }
+        }
+    }
+
+    private void read(SelectionKey key) {
+        NioConnection connection = (NioConnection) key.attachment();
+        boolean open;
+        try {
+            open = connection.read();
+        }
+        catch (IOException ex) {
+            if (!shutdown) {
+                log.error("I/O error: " + ex.getMessage(), ex);
+            }
+            open = false;
+        }
+        if (!open) {
+            log.debug("Closing connection for service '" + serviceName + "' : " + connection.getMetrics());
+            key.cancel();
+            close(connection);
+        }
+    }
+
+    private void close(NioConnection connection) {
+        connections.remove(connection);
+        closeChannel(connection.getChannel());
+        connection.getMetrics().setDisconnectTime(System.currentTimeMillis());
+        bufferPool.release(connection.getBuffer());
+    }
+
+    private static void closeChannel(SocketChannel channel) {
+        try {
+            channel.close();
+        }
+        catch (IOException e) {
+            log.debug("Error closing channel: " + e.getMessage(), e);
+        }
+    }
+}
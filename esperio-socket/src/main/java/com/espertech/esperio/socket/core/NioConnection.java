@@ -0,0 +1,168 @@
+package com.espertech.esperio.socket.core;
+
+import com.espertech.esper.core.service.EPServiceProviderSPI;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+
+/**
+ * Connection state of the binary socket service: reads length-prefixed frames from a pooled buffer
+ * and sends each decoded event into the engine.
+ * <p>
+ * Each frame is a four-byte length of the frame body followed by the frame body.
+ * The body starts with a one-byte frame kind and a two-byte event type id:
+ * <ul>
+ *     <li>Kind {@link #FRAME_DECLARE} declares the type id for the Object-array event type whose UTF-8 name makes up the rest of the frame.</li>
+ *     <li>Kind {@link #FRAME_EVENT} carries an event of a declared type id, see {@link BinaryEventDecoder}.</li>
+ * </ul>
+ */
+public class NioConnection {
+
+    private static Log log = LogFactory.getLog(NioConnection.class);
+
+    /**
+     * Frame kind for declaring an event type id.
+     */
+    public static final byte FRAME_DECLARE = 1;
+
+    /**
+     * Frame kind for an event.
+     */
+    public static final byte FRAME_EVENT = 2;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int FRAME_HEADER_LENGTH = 3;
+
+    private final String serviceName;
+    private final EPServiceProviderSPI engine;
+    private final SocketChannel channel;
+    private final ByteBuffer buffer;
+    private final SocketConnectionMetrics metrics;
+    private BinaryEventDecoder[] decoders = new BinaryEventDecoder[4];
+
+    public NioConnection(String serviceName, EPServiceProviderSPI engine, SocketChannel channel, ByteBuffer buffer, SocketConnectionMetrics metrics) {
+        this.serviceName = serviceName;
+        this.engine = engine;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Declares a type id, for use with a pre-configured stream.
+     * @param typeId type id
+     * @param eventTypeName Object-array event type name
+     */
+    public void declare(int typeId, String eventTypeName) {
+        if (typeId >= decoders.length) {
+            BinaryEventDecoder[] grown = new BinaryEventDecoder[Math.max(typeId + 1, decoders.length * 2)];
+            System.arraycopy(decoders, 0, grown, 0, decoders.length);
+            decoders = grown;
+        }
+        decoders[typeId] = BinaryEventDecoder.make(engine, eventTypeName);
+    }
+
+    /**
+     * Reads available data and processes all complete frames.
+     * @return false if the connection reached end-of-stream or cannot continue
+     * @throws IOException if the read failed
+     */
+    public boolean read() throws IOException {
+        int read = channel.read(buffer);
+        if (read < 0) {
+            return false;
+        }
+        metrics.addBytes(read);
+
+        buffer.flip();
+        try {
+            while (buffer.remaining() >= 4) {
+                int length = buffer.getInt(buffer.position());
+                if (length < FRAME_HEADER_LENGTH || length > buffer.capacity() - 4) {
+                    // the stream cannot be re-synchronized after an invalid length
+                    metrics.incErrors();
+                    log.warn("Invalid frame length " + length + " for service '" + serviceName + "' from " + metrics.getRemoteAddress() +
+                            ", the buffer size is " + buffer.capacity() + ", closing connection");
+                    return false;
+                }
+                if (buffer.remaining() < 4 + length) {
+                    break;
+                }
+
+                int start = buffer.position() + 4;
+                int end = start + length;
+                int limit = buffer.limit();
+                buffer.position(start);
+                buffer.limit(end);
+                handleFrame();
+                buffer.limit(limit);
+                buffer.position(end);
+            }
+        }
+        finally {
+            buffer.compact();
+        }
+        return true;
+    }
+
+    public SocketConnectionMetrics getMetrics() {
+        return metrics;
+    }
+
+    public SocketChannel getChannel() {
+        return channel;
+    }
+
+    public ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    private void handleFrame() {
+        metrics.incFrames();
+        byte kind = buffer.get();
+        int typeId = buffer.getShort() & 0xFFFF;
+        try {
+            if (kind == FRAME_EVENT) {
+                BinaryEventDecoder decoder = typeId < decoders.length ? decoders[typeId] : null;
+                if (decoder == null) {
+                    throw new IllegalStateException("Event type id " + typeId + " has not been declared");
+                }
+                Object[] values = decoder.decode(buffer);
+                if (buffer.hasRemaining()) {
+                    throw new IllegalStateException("Frame for event type '" + decoder.getEventTypeName() + "' has " + buffer.remaining() + " unread bytes");
+                }
+                decoder.getEventSender().sendEvent(values);
+                metrics.incEvents();
+            }
+            else if (kind == FRAME_DECLARE) {
+                byte[] name = new byte[buffer.remaining()];
+                buffer.get(name);
+                declare(typeId, new String(name, UTF_8));
+            }
+            else {
+                throw new IllegalStateException("Unrecognized frame kind " + kind);
+            }
+        }
+        catch (BufferUnderflowException ex) {
+            metrics.incErrors();
+            log.warn("Frame too short for event type id " + typeId + " service '" + serviceName + "' from " + metrics.getRemoteAddress());
+        }
+        catch (IllegalStateException ex) {
+            metrics.incErrors();
+            log.warn("Invalid frame for service '" + serviceName + "' from " + metrics.getRemoteAddress() + " :" + ex.getMessage());
+        }
+        catch (IllegalArgumentException ex) {
+            metrics.incErrors();
+            log.warn("Invalid declaration for service '" + serviceName + "' from " + metrics.getRemoteAddress() + " :" + ex.getMessage());
+        }
+        catch (Throwable t) {
+            metrics.incErrors();
+            log.error("Unexpected exception encountered processing frame for service '" + serviceName + "' from " + metrics.getRemoteAddress() + " :" + t.getMessage(), t);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.espertech.esperio.socket.core;
+
+/**
+ * Throughput metrics of a single connection to a binary socket service.
+ * <p>
+ * Counters are written by the selector thread only and may be read from any thread.
+ */
+public class SocketConnectionMetrics {
+
+    private final String serviceName;
+    private final String remoteAddress;
+    private final long connectTime;
+
+    private volatile long numBytes;
+    private volatile long numFrames;
+    private volatile long numEvents;
+    private volatile long numErrors;
+    private volatile long disconnectTime;
+
+    public SocketConnectionMetrics(String serviceName, String remoteAddress, long connectTime) {
+        this.serviceName = serviceName;
+        this.remoteAddress = remoteAddress;
+        this.connectTime = connectTime;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public String getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    public long getConnectTime() {
+        return connectTime;
+    }
+
+    /**
+     * Returns the time the connection closed or zero if the connection is open.
+     * @return disconnect time in milliseconds
+     */
+    public long getDisconnectTime() {
+        return disconnectTime;
+    }
+
+    public long getNumBytes() {
+        return numBytes;
+    }
+
+    public long getNumFrames() {
+        return numFrames;
+    }
+
+    public long getNumEvents() {
+        return numEvents;
+    }
+
+    public long getNumErrors() {
+        return numErrors;
+    }
+
+    /**
+     * Returns the average number of events per second since the connection was established, until it closed.
+     * @return events per second
+     */
+    public double getEventsPerSecond() {
+        long end = disconnectTime == 0 ? System.currentTimeMillis() : disconnectTime;
+        long elapsed = Math.max(1, end - connectTime);
+        return numEvents * 1000d / elapsed;
+    }
+
+    /**
+     * Returns the average number of bytes per second since the connection was established, until it closed.
+     * @return bytes per second
+     */
+    public double getBytesPerSecond() {
+        long end = disconnectTime == 0 ? System.currentTimeMillis() : disconnectTime;
+        long elapsed = Math.max(1, end - connectTime);
+        return numBytes * 1000d / elapsed;
+    }
+
+    protected void addBytes(int bytes) {
+        numBytes += bytes;
+    }
+
+    protected void incFrames() {
+        numFrames++;
+    }
+
+    protected void incEvents() {
+        numEvents++;
+    }
+
+    protected void incErrors() {
+        numErrors++;
+    }
+
+    protected void setDisconnectTime(long disconnectTime) {
+        this.disconnectTime = disconnectTime;
+    }
+
+    public String toString() {
+        return "SocketConnectionMetrics{" +
+                "serviceName='" + serviceName + '\'' +
+                ", remoteAddress='" + remoteAddress + '\'' +
+                ", numBytes=" + numBytes +
+                ", numFrames=" + numFrames +
+                ", numEvents=" + numEvents +
+                ", numErrors=" + numErrors +
+                '}';
+    }
+}
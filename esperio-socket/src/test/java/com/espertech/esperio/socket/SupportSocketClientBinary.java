@@ -0,0 +1,95 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esperio.socket;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+
+public class SupportSocketClientBinary {
+
+    private final Socket requestSocket;
+    private final OutputStream outStream;
+
+    public SupportSocketClientBinary(int port) throws IOException {
+        requestSocket = new Socket("localhost", port);
+        outStream = requestSocket.getOutputStream();
+    }
+
+    public void declare(int typeId, String eventTypeName) throws IOException {
+        byte[] name = eventTypeName.getBytes("UTF-8");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(3 + name.length);
+        out.writeByte(1);
+        out.writeShort(typeId);
+        out.write(name);
+        send(bytes.toByteArray());
+    }
+
+    /**
+     * Makes an event frame, encoding each value according to its class.
+     */
+    public static byte[] makeEvent(int typeId, Object[] values) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+        byte[] bitmap = new byte[(values.length + 7) / 8];
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                bitmap[i >>> 3] |= 1 << (i & 7);
+            }
+        }
+        out.write(bitmap);
+        for (Object value : values) {
+            if (value == null) {
+                continue;
+            }
+            if (value instanceof String) {
+                byte[] text = ((String) value).getBytes("UTF-8");
+                out.writeInt(text.length);
+                out.write(text);
+            }
+            else if (value instanceof Integer) {
+                out.writeInt((Integer) value);
+            }
+            else if (value instanceof Long) {
+                out.writeLong((Long) value);
+            }
+            else if (value instanceof Double) {
+                out.writeDouble((Double) value);
+            }
+            else if (value instanceof Boolean) {
+                out.writeBoolean((Boolean) value);
+            }
+            else {
+                throw new IllegalArgumentException("Unsupported " + value.getClass());
+            }
+        }
+
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        DataOutputStream frameOut = new DataOutputStream(frame);
+        frameOut.writeInt(3 + body.size());
+        frameOut.writeByte(2);
+        frameOut.writeShort(typeId);
+        frameOut.write(body.toByteArray());
+        return frame.toByteArray();
+    }
+
+    public void send(byte[] bytes) throws IOException {
+        outStream.write(bytes);
+        outStream.flush();
+    }
+
+    public void close() throws IOException {
+        outStream.close();
+        requestSocket.close();
+    }
+}
@@ -0,0 +1,123 @@
+/**************************************************************************************
+ * Copyright (C) 2006-2015 EsperTech Inc. All rights reserved.                        *
+ * http://www.espertech.com/esper                                                          *
+ * http://www.espertech.com                                                           *
+ * ---------------------------------------------------------------------------------- *
+ * The software in this package is published under the terms of the GPL license       *
+ * a copy of which has been included with this distribution in the license.txt file.  *
+ **************************************************************************************/
+package com.espertech.esperio.socket;
+
+import com.espertech.esper.client.Configuration;
+import com.espertech.esper.client.EPServiceProvider;
+import com.espertech.esper.client.EPServiceProviderManager;
+import com.espertech.esper.client.EPStatement;
+import com.espertech.esper.client.scopetest.EPAssertionUtil;
+import com.espertech.esper.client.scopetest.SupportUpdateListener;
+import com.espertech.esperio.socket.config.ConfigurationSocketAdapter;
+import com.espertech.esperio.socket.config.DataType;
+import com.espertech.esperio.socket.config.SocketConfig;
+import com.espertech.esperio.socket.core.SocketConnectionMetrics;
+import junit.framework.TestCase;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+public class TestSocketAdapterBinary extends TestCase
+{
+    private SupportUpdateListener listener;
+
+    public void setUp() throws Exception {
+        listener = new SupportUpdateListener();
+    }
+
+    public void testSendBinary() throws Exception
+    {
+        ConfigurationSocketAdapter adapterConfig = new ConfigurationSocketAdapter();
+
+        int port = 6804;
+        String engineURI = "TestSocketAdapterBinary";
+
+        SocketConfig socket = new SocketConfig();
+        socket.setDataType(DataType.BINARY);
+        socket.setPort(port);
+        socket.setStream("MyOAType");
+        socket.setBufferSize(256);
+        adapterConfig.getSockets().put("SocketService", socket);
+
+        EsperIOSocketAdapter adapter = new EsperIOSocketAdapter(adapterConfig, engineURI);
+
+        Configuration engineConfig = new Configuration();
+        engineConfig.addEventType("MyOAType", "stringProp,intProp,longProp,doubleProp".split(","), new Object[] {String.class, int.class, Long.class, double.class});
+        engineConfig.addEventType("MyOATypeTwo", "flag,text".split(","), new Object[] {Boolean.class, String.class});
+        EPServiceProvider provider = EPServiceProviderManager.getProvider(engineURI, engineConfig);
+
+        adapter.start();
+
+        EPStatement stmt = provider.getEPAdministrator().createEPL("select * from MyOAType");
+        stmt.addListener(listener);
+        SupportUpdateListener listenerTwo = new SupportUpdateListener();
+        provider.getEPAdministrator().createEPL("select * from MyOATypeTwo").addListener(listenerTwo);
+
+        String[] fields = "stringProp,intProp,longProp,doubleProp".split(",");
+        SupportSocketClientBinary client = new SupportSocketClientBinary(port);
+
+        // type id zero is pre-declared by the stream setting
+        client.send(SupportSocketClientBinary.makeEvent(0, new Object[] {"E1", 10, 100L, 1.5d}));
+        Thread.sleep(200);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {"E1", 10, 100L, 1.5d});
+
+        // null values and multi-byte characters
+        client.send(SupportSocketClientBinary.makeEvent(0, new Object[] {"\u00e9v\u00e9nement", 11, null, 2.5d}));
+        Thread.sleep(200);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {"\u00e9v\u00e9nement", 11, null, 2.5d});
+
+        // declare a second type, send frames split across and combined in writes
+        client.declare(5, "MyOATypeTwo");
+        byte[] frameOne = SupportSocketClientBinary.makeEvent(5, new Object[] {true, "A"});
+        byte[] frameTwo = SupportSocketClientBinary.makeEvent(0, new Object[] {"E3", 12, 300L, 3.5d});
+        ByteArrayOutputStream combined = new ByteArrayOutputStream();
+        combined.write(frameOne);
+        combined.write(frameTwo);
+        byte[] bytes = combined.toByteArray();
+        client.send(java.util.Arrays.copyOfRange(bytes, 0, 7));
+        Thread.sleep(100);
+        client.send(java.util.Arrays.copyOfRange(bytes, 7, bytes.length));
+        Thread.sleep(200);
+        EPAssertionUtil.assertProps(listenerTwo.assertOneGetNewAndReset(), "flag,text".split(","), new Object[] {true, "A"});
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {"E3", 12, 300L, 3.5d});
+
+        // undeclared type id and truncated body are counted as errors and skipped
+        client.send(SupportSocketClientBinary.makeEvent(9, new Object[] {"X", 1, 1L, 1d}));
+        client.send(SupportSocketClientBinary.makeEvent(0, new Object[] {"E4"}));
+        client.send(SupportSocketClientBinary.makeEvent(0, new Object[] {"E5", 13, 500L, 5.5d}));
+        Thread.sleep(200);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {"E5", 13, 500L, 5.5d});
+
+        List<SocketConnectionMetrics> metrics = adapter.getConnectionMetrics("SocketService");
+        assertEquals(1, metrics.size());
+        assertEquals(5, metrics.get(0).getNumEvents());
+        assertEquals(8, metrics.get(0).getNumFrames());
+        assertEquals(2, metrics.get(0).getNumErrors());
+        assertTrue(metrics.get(0).getNumBytes() > 0);
+        assertTrue(metrics.get(0).getEventsPerSecond() > 0);
+
+        // a frame larger than the buffer closes the connection
+        client.send(SupportSocketClientBinary.makeEvent(0, new Object[] {new String(new char[300]), 14, 600L, 6.5d}));
+        Thread.sleep(200);
+        assertFalse(listener.isInvoked());
+        assertEquals(0, adapter.getConnectionMetrics("SocketService").size());
+        assertTrue(metrics.get(0).getDisconnectTime() > 0);
+        client.close();
+
+        // a new connection continues
+        client = new SupportSocketClientBinary(port);
+        client.send(SupportSocketClientBinary.makeEvent(0, new Object[] {"E6", 15, 700L, 7.5d}));
+        Thread.sleep(200);
+        EPAssertionUtil.assertProps(listener.assertOneGetNewAndReset(), fields, new Object[] {"E6", 15, 700L, 7.5d});
+
+        client.close();
+        adapter.destroy();
+        provider.destroy();
+    }
+}
@@ -35,7 +35,7 @@ public class TestConfig extends TestCase {
 
     protected static void assertFileConfig(ConfigurationSocketAdapter config) throws Exception
     {
-        assertEquals(3, config.getSockets().size());
+        assertEquals(4, config.getSockets().size());
 
         SocketConfig socket = config.getSockets().get("mysocketOne");
         assertEquals(7100, socket.getPort());
@@ -53,5 +53,12 @@ public class TestConfig extends TestCase {
         assertEquals(DataType.PROPERTY_ORDERED_CSV, socket.getDataType());
         assertEquals("MyEventType", socket.getStream());
         assertEquals("field1,field2", socket.getPropertyOrder());
+        assertNull(socket.getBufferSize());
+
+        socket = config.getSockets().get("mysocketFour");
+        assertEquals(7101, socket.getPort());
+        assertEquals(DataType.BINARY, socket.getDataType());
+        assertEquals("MyObjectArrayType", socket.getStream());
+        assertEquals(131072, (int) socket.getBufferSize());
     }
 }
@@ -41,6 +41,14 @@ public class AxionEventSender implements EventSender
         processEvent(theEvent, false);
     }
 
+    public void sendEvents(Object[] theEvents)
+    {
+        for (Object theEvent : theEvents)
+        {
+            processEvent(theEvent, false);
+        }
+    }
+
     public void route(Object theEvent)
     {
         processEvent(theEvent, true);